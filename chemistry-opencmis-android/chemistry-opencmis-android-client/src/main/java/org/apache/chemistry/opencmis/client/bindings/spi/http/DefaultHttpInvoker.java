@@ -42,7 +42,7 @@ import org.apache.chemistry.opencmis.commons.spi.AuthenticationProvider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public class DefaultHttpInvoker implements HttpInvoker {
+public class DefaultHttpInvoker implements HeadersHttpInvoker {
 
     private static final Logger LOG = LoggerFactory.getLogger(DefaultHttpInvoker.class);
 
@@ -59,6 +59,11 @@ public class DefaultHttpInvoker implements HttpInvoker {
         return invoke(url, "GET", null, null, null, session, offset, length);
     }
 
+    public Response invokeGET(UrlBuilder url, BindingSession session, BigInteger offset, BigInteger length,
+            Map<String, String> headers) {
+        return invoke(url, "GET", null, headers, null, session, offset, length);
+    }
+
     public Response invokePOST(UrlBuilder url, String contentType, Output writer, BindingSession session) {
         return invoke(url, "POST", contentType, null, writer, session, null, null);
     }
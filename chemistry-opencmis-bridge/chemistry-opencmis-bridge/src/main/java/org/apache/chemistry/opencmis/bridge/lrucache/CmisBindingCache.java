@@ -37,6 +37,13 @@ public class CmisBindingCache implements Serializable {
     private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
     private final LinkedHashMap<String, CmisBinding> cache;
 
+    /**
+     * Constructor for subclasses that manage their own storage.
+     */
+    protected CmisBindingCache() {
+        cache = null;
+    }
+
     public CmisBindingCache(final int size) {
         cache = new LinkedHashMap<String, CmisBinding>(size + 1, 0.70f, true) {
 
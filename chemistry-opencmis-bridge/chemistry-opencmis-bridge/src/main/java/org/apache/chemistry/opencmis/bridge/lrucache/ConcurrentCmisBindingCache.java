@@ -0,0 +1,281 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.chemistry.opencmis.bridge.lrucache;
+
+import java.io.Serializable;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.chemistry.opencmis.commons.server.CallContext;
+import org.apache.chemistry.opencmis.commons.spi.CmisBinding;
+
+/**
+ * Segmented LRU cache for {@link CmisBinding} objects. The cache key consists
+ * of the repository id and the user.
+ * <p>
+ * The cache is split into segments, each with its own lock and its own LRU
+ * order, so that requests for different users rarely contend. Bindings that
+ * haven't been used for longer than the idle timeout are evicted.
+ * <p>
+ * Evicted bindings are not closed because requests that fetched them earlier
+ * might still be using them. Like with {@link CmisBindingCache}, they are
+ * released by the garbage collector.
+ */
+public class ConcurrentCmisBindingCache extends CmisBindingCache {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Segment[] segments;
+    private final long idleTimeout;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Constructor.
+     * 
+     * @param size
+     *            the maximum number of bindings in the cache
+     * @param segmentCount
+     *            the number of segments, will be rounded up to a power of two
+     * @param idleTimeout
+     *            the time in milliseconds after which an unused binding is
+     *            evicted, 0 or less turns idle eviction off
+     */
+    public ConcurrentCmisBindingCache(int size, int segmentCount, long idleTimeout) {
+        super();
+
+        int count = 1;
+        while (count < segmentCount && count < size) {
+            count <<= 1;
+        }
+
+        int segmentSize = Math.max(1, (size + count - 1) / count);
+
+        segments = new Segment[count];
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment(segmentSize);
+        }
+
+        this.idleTimeout = idleTimeout;
+    }
+
+    @Override
+    public CmisBinding getCmisBinding(CallContext context) {
+        Key key = new Key(context);
+        Segment segment = getSegment(key);
+        long now = System.currentTimeMillis();
+
+        CmisBinding result = null;
+
+        segment.lock.lock();
+        try {
+            Entry entry = segment.map.get(key);
+            if (entry != null) {
+                if (isExpired(entry, now)) {
+                    segment.map.remove(key);
+                    evictions.incrementAndGet();
+                } else {
+                    entry.lastAccess = now;
+                    result = entry.binding;
+                }
+            }
+        } finally {
+            segment.lock.unlock();
+        }
+
+        if (result == null) {
+            misses.incrementAndGet();
+        } else {
+            hits.incrementAndGet();
+        }
+
+        return result;
+    }
+
+    @Override
+    public CmisBinding putCmisBinding(CallContext context, CmisBinding binding) {
+        Key key = new Key(context);
+        Segment segment = getSegment(key);
+        long now = System.currentTimeMillis();
+
+        CmisBinding result = binding;
+
+        segment.lock.lock();
+        try {
+            Entry entry = segment.map.get(key);
+            if (entry != null && !isExpired(entry, now)) {
+                entry.lastAccess = now;
+                result = entry.binding;
+            } else {
+                if (entry != null) {
+                    evictions.incrementAndGet();
+                }
+                segment.map.put(key, new Entry(binding, now));
+            }
+
+            // remove idle bindings from the least recently used end
+            if (idleTimeout > 0) {
+                Iterator<Entry> iter = segment.map.values().iterator();
+                while (iter.hasNext()) {
+                    Entry eldest = iter.next();
+                    if (!isExpired(eldest, now)) {
+                        break;
+                    }
+                    iter.remove();
+                    evictions.incrementAndGet();
+                }
+            }
+
+            // enforce the segment size
+            Iterator<Entry> iter = segment.map.values().iterator();
+            while (segment.map.size() > segment.maxSize && iter.hasNext()) {
+                iter.next();
+                iter.remove();
+                evictions.incrementAndGet();
+            }
+        } finally {
+            segment.lock.unlock();
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the number of cache lookups that found a binding.
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * Returns the number of cache lookups that didn't find a binding.
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * Returns the number of bindings that have been evicted.
+     */
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    /**
+     * Returns the number of bindings in the cache.
+     */
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            segment.lock.lock();
+            try {
+                size += segment.map.size();
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+
+        return size;
+    }
+
+    private Segment getSegment(Key key) {
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+        return segments[h & (segments.length - 1)];
+    }
+
+    private boolean isExpired(Entry entry, long now) {
+        return idleTimeout > 0 && now - entry.lastAccess > idleTimeout;
+    }
+
+    /**
+     * Cache segment.
+     */
+    private static class Segment implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        final ReentrantLock lock = new ReentrantLock();
+        final LinkedHashMap<Key, Entry> map;
+        final int maxSize;
+
+        public Segment(int maxSize) {
+            this.maxSize = maxSize;
+            this.map = new LinkedHashMap<Key, Entry>(maxSize + 1, 0.75f, true);
+        }
+    }
+
+    /**
+     * Cache entry.
+     */
+    private static class Entry implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        final CmisBinding binding;
+        long lastAccess;
+
+        public Entry(CmisBinding binding, long lastAccess) {
+            this.binding = binding;
+            this.lastAccess = lastAccess;
+        }
+    }
+
+    /**
+     * Cache key. Compares repository id and user without building a string.
+     */
+    private static class Key implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final String repositoryId;
+        private final String user;
+        private final int hashCode;
+
+        public Key(CallContext context) {
+            this.repositoryId = context.getRepositoryId();
+            this.user = context.getUsername();
+            this.hashCode = 31 * (repositoryId == null ? 0 : repositoryId.hashCode())
+                    + (user == null ? 0 : user.hashCode());
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+
+            Key other = (Key) obj;
+            return hashCode == other.hashCode && equal(repositoryId, other.repositoryId) && equal(user, other.user);
+        }
+
+        private static boolean equal(String s1, String s2) {
+            return s1 == null ? s2 == null : s1.equals(s2);
+        }
+    }
+}
@@ -28,7 +28,12 @@ import org.apache.chemistry.opencmis.commons.server.CallContext;
 public class LruCacheBridgeServiceFactory extends AbstractBridgeServiceFactory {
 
     public static final String CACHE_SIZE = "cache.size";
+    public static final String CACHE_CONCURRENT = "cache.concurrent";
+    public static final String CACHE_SEGMENTS = "cache.segments";
+    public static final String CACHE_IDLE_TIMEOUT = "cache.idleTimeout";
     public static final int DEFAULT_CACHE_SIZE = 1000;
+    public static final int DEFAULT_CACHE_SEGMENTS = 16;
+    public static final long DEFAULT_CACHE_IDLE_TIMEOUT = 0;
 
     private CmisBindingCache cache;
 
@@ -38,15 +43,37 @@ public class LruCacheBridgeServiceFactory extends AbstractBridgeServiceFactory {
 
         // initialize LRU cache
         int size = 0;
+        int segments = 0;
+        long idleTimeout = 0;
         try {
             String sizeStr = parameters.get(CACHE_SIZE);
             size = (sizeStr == null || sizeStr.trim().length() == 0 ? DEFAULT_CACHE_SIZE : Integer.parseInt(sizeStr
                     .trim()));
+
+            String segmentsStr = parameters.get(CACHE_SEGMENTS);
+            segments = (segmentsStr == null || segmentsStr.trim().length() == 0 ? DEFAULT_CACHE_SEGMENTS : Integer
+                    .parseInt(segmentsStr.trim()));
+
+            String idleTimeoutStr = parameters.get(CACHE_IDLE_TIMEOUT);
+            idleTimeout = (idleTimeoutStr == null || idleTimeoutStr.trim().length() == 0 ? DEFAULT_CACHE_IDLE_TIMEOUT
+                    : Long.parseLong(idleTimeoutStr.trim()));
         } catch (NumberFormatException e) {
             throw new RuntimeException("Could not parse cache configuration values: " + e.getMessage(), e);
         }
 
-        cache = new CmisBindingCache(size);
+        String concurrentStr = parameters.get(CACHE_CONCURRENT);
+        if (concurrentStr != null && Boolean.parseBoolean(concurrentStr.trim())) {
+            cache = new ConcurrentCmisBindingCache(size, segments, idleTimeout);
+        } else {
+            cache = new CmisBindingCache(size);
+        }
+    }
+
+    /**
+     * Returns the binding cache.
+     */
+    public CmisBindingCache getCache() {
+        return cache;
     }
 
     @Override
@@ -0,0 +1,222 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.chemistry.opencmis.bridge.lrucache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.chemistry.opencmis.client.bindings.spi.local.LocalCallContext;
+import org.apache.chemistry.opencmis.commons.server.CallContext;
+import org.apache.chemistry.opencmis.commons.spi.CmisBinding;
+import org.junit.Test;
+
+public class ConcurrentCmisBindingCacheTest {
+
+    @Test
+    public void testGetAndPut() {
+        ConcurrentCmisBindingCache cache = new ConcurrentCmisBindingCache(10, 4, 0);
+
+        assertNull(cache.getCmisBinding(context("repo", "alice")));
+
+        CmisBinding binding = createBinding(null);
+        assertSame(binding, cache.putCmisBinding(context("repo", "alice"), binding));
+
+        // the first binding wins
+        assertSame(binding, cache.putCmisBinding(context("repo", "alice"), createBinding(null)));
+
+        assertSame(binding, cache.getCmisBinding(context("repo", "alice")));
+        assertNull(cache.getCmisBinding(context("repo", "bob")));
+        assertNull(cache.getCmisBinding(context("other", "alice")));
+
+        assertEquals(1, cache.size());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(3, cache.getMissCount());
+    }
+
+    @Test
+    public void testSizeEviction() {
+        // one segment -> strict LRU order
+        ConcurrentCmisBindingCache cache = new ConcurrentCmisBindingCache(3, 1, 0);
+
+        AtomicBoolean closed = new AtomicBoolean();
+        CmisBinding first = createBinding(closed);
+        cache.putCmisBinding(context("repo", "user0"), first);
+        cache.putCmisBinding(context("repo", "user1"), createBinding(null));
+        cache.putCmisBinding(context("repo", "user2"), createBinding(null));
+
+        // touch user0, user1 is now the least recently used binding
+        assertSame(first, cache.getCmisBinding(context("repo", "user0")));
+
+        cache.putCmisBinding(context("repo", "user3"), createBinding(null));
+
+        assertEquals(3, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+        assertNull(cache.getCmisBinding(context("repo", "user1")));
+        assertNotNull(cache.getCmisBinding(context("repo", "user0")));
+
+        cache.putCmisBinding(context("repo", "user4"), createBinding(null));
+        cache.putCmisBinding(context("repo", "user5"), createBinding(null));
+        cache.putCmisBinding(context("repo", "user6"), createBinding(null));
+
+        // evicted bindings might still be in use and must not be closed
+        assertNull(cache.getCmisBinding(context("repo", "user0")));
+        assertFalse(closed.get());
+    }
+
+    @Test
+    public void testIdleTimeout() throws Exception {
+        ConcurrentCmisBindingCache cache = new ConcurrentCmisBindingCache(10, 1, 1);
+
+        AtomicBoolean closed = new AtomicBoolean();
+        CmisBinding binding = createBinding(closed);
+        cache.putCmisBinding(context("repo", "alice"), binding);
+        cache.putCmisBinding(context("repo", "bob"), createBinding(null));
+
+        Thread.sleep(20);
+
+        // an expired binding is replaced
+        CmisBinding newBinding = createBinding(null);
+        assertSame(newBinding, cache.putCmisBinding(context("repo", "alice"), newBinding));
+
+        // the other idle binding is evicted with it
+        assertEquals(1, cache.size());
+        assertEquals(2, cache.getEvictionCount());
+
+        Thread.sleep(20);
+
+        // an expired binding is not returned
+        assertNull(cache.getCmisBinding(context("repo", "alice")));
+        assertEquals(0, cache.size());
+        assertEquals(3, cache.getEvictionCount());
+        assertFalse(closed.get());
+    }
+
+    @Test
+    public void testConcurrentAccess() throws Exception {
+        final ConcurrentCmisBindingCache cache = new ConcurrentCmisBindingCache(1000, 8, 0);
+        final int users = 50;
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<List<CmisBinding>>> futures = new ArrayList<Future<List<CmisBinding>>>();
+            for (int t = 0; t < 8; t++) {
+                futures.add(executor.submit(new Callable<List<CmisBinding>>() {
+                    public List<CmisBinding> call() {
+                        List<CmisBinding> result = new ArrayList<CmisBinding>();
+                        for (int round = 0; round < 20; round++) {
+                            for (int i = 0; i < users; i++) {
+                                CallContext context = context("repo", "user" + i);
+                                CmisBinding binding = cache.getCmisBinding(context);
+                                if (binding == null) {
+                                    binding = cache.putCmisBinding(context, createBinding(null));
+                                }
+                                if (round == 19) {
+                                    result.add(binding);
+                                }
+                            }
+                        }
+                        return result;
+                    }
+                }));
+            }
+
+            // all threads must end up with the same binding per user
+            List<CmisBinding> expected = futures.get(0).get();
+            for (Future<List<CmisBinding>> future : futures) {
+                List<CmisBinding> bindings = future.get();
+                for (int i = 0; i < users; i++) {
+                    assertSame(expected.get(i), bindings.get(i));
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(users, cache.size());
+        assertEquals(0, cache.getEvictionCount());
+        assertEquals(8 * 20 * users, cache.getHitCount() + cache.getMissCount());
+    }
+
+    @Test
+    public void testSerialization() throws Exception {
+        ConcurrentCmisBindingCache cache = new ConcurrentCmisBindingCache(10, 4, 0);
+        cache.putCmisBinding(context("repo", "alice"), createBinding(null));
+
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        ObjectOutputStream oos = new ObjectOutputStream(bos);
+        oos.writeObject(cache);
+        oos.close();
+
+        ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bos.toByteArray()));
+        ConcurrentCmisBindingCache copy = (ConcurrentCmisBindingCache) ois.readObject();
+        ois.close();
+
+        assertEquals(1, copy.size());
+        assertNotNull(copy.getCmisBinding(context("repo", "alice")));
+    }
+
+    private static CallContext context(String repositoryId, String user) {
+        return new LocalCallContext(repositoryId, user, null);
+    }
+
+    private static CmisBinding createBinding(AtomicBoolean closed) {
+        return (CmisBinding) Proxy.newProxyInstance(CmisBinding.class.getClassLoader(),
+                new Class<?>[] { CmisBinding.class, Serializable.class }, new BindingHandler(closed));
+    }
+
+    private static class BindingHandler implements InvocationHandler, Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final transient AtomicBoolean closed;
+
+        public BindingHandler(AtomicBoolean closed) {
+            this.closed = closed;
+        }
+
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            if (method.getName().equals("close") && closed != null) {
+                closed.set(true);
+            } else if (method.getName().equals("hashCode")) {
+                return System.identityHashCode(proxy);
+            } else if (method.getName().equals("equals")) {
+                return proxy == args[0];
+            }
+            return null;
+        }
+    }
+}
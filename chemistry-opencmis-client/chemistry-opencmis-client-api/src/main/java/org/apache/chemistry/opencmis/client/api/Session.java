@@ -20,6 +20,7 @@ package org.apache.chemistry.opencmis.client.api;
 
 import java.io.Serializable;
 import java.math.BigInteger;
+import java.util.Collection;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -461,6 +462,32 @@ public interface Session extends Serializable {
      */
     CmisObject getObjectByPath(String path, OperationContext context);
 
+    /**
+     * Returns CMIS objects for a collection of object IDs. Objects that are in
+     * the session cache are taken from the cache, all other objects are loaded
+     * from the repository in chunks and put into the cache.
+     * <p>
+     * If the repository supports queries and the given
+     * {@link OperationContext} only asks for data a query can deliver, each
+     * chunk is loaded with one {@code cmis:objectId IN (...)} query per base
+     * type. All other objects are loaded with parallel {@code getObject}
+     * calls.
+     * <p>
+     * This method might return stale objects if they have been found in the
+     * cache. See {@link #getObject(ObjectId, OperationContext)}.
+     * 
+     * @param objectIds
+     *            the object IDs
+     * @param context
+     *            the {@link OperationContext} to use
+     * 
+     * @return a list of objects in the order of the given IDs, the entry of an
+     *         object that doesn't exist or cannot be accessed is {@code null}
+     * 
+     * @cmis 1.0
+     */
+    List<CmisObject> getObjects(Collection<ObjectId> objectIds, OperationContext context);
+
     /**
      * Returns the latest version in a version series.
      * 
@@ -38,6 +38,7 @@ import org.apache.chemistry.opencmis.client.bindings.spi.atompub.objects.AtomAcl
 import org.apache.chemistry.opencmis.client.bindings.spi.atompub.objects.AtomBase;
 import org.apache.chemistry.opencmis.client.bindings.spi.atompub.objects.AtomElement;
 import org.apache.chemistry.opencmis.client.bindings.spi.atompub.objects.AtomEntry;
+import org.apache.chemistry.opencmis.client.bindings.spi.atompub.objects.AtomFeed;
 import org.apache.chemistry.opencmis.client.bindings.spi.atompub.objects.AtomLink;
 import org.apache.chemistry.opencmis.client.bindings.spi.atompub.objects.RepositoryWorkspace;
 import org.apache.chemistry.opencmis.client.bindings.spi.atompub.objects.ServiceDoc;
@@ -68,6 +69,7 @@ import org.apache.chemistry.opencmis.commons.exceptions.CmisObjectNotFoundExcept
 import org.apache.chemistry.opencmis.commons.exceptions.CmisPermissionDeniedException;
 import org.apache.chemistry.opencmis.commons.exceptions.CmisProxyAuthenticationException;
 import org.apache.chemistry.opencmis.commons.exceptions.CmisRuntimeException;
+import org.apache.chemistry.opencmis.commons.exceptions.CmisServiceUnavailableException;
 import org.apache.chemistry.opencmis.commons.exceptions.CmisStorageException;
 import org.apache.chemistry.opencmis.commons.exceptions.CmisStreamNotSupportedException;
 import org.apache.chemistry.opencmis.commons.exceptions.CmisUnauthorizedException;
@@ -198,10 +200,14 @@ public abstract class AbstractAtomPubService implements LinkAccess {
 
     /**
      * Gets a link from the cache if it is there or loads it into the cache if
-     * it is not there.
+     * it is not there. If link synthesis is enabled, the link is built from a
+     * template before the object is fetched.
      */
     public String loadLink(String repositoryId, String id, String rel, String type) {
         String link = getLink(repositoryId, id, rel, type);
+        if (link == null) {
+            link = getLinkCache().synthesizeLink(repositoryId, id, rel, type);
+        }
         if (link == null) {
             getObjectInternal(repositoryId, IdentifierType.ID, id, ReturnVersion.THIS, null, null, null, null, null,
                     null, null);
@@ -233,6 +239,42 @@ public abstract class AbstractAtomPubService implements LinkAccess {
         getLinkCache().addLink(repositoryId, id, link.getRel(), link.getType(), link.getHref());
     }
 
+    /**
+     * Replaces the cached links of the object of an entry. The link cache must
+     * be locked.
+     */
+    protected void addLinks(String repositoryId, AtomEntry entry) {
+        if (entry.getId() == null) {
+            return;
+        }
+
+        removeLinks(repositoryId, entry.getId());
+
+        for (AtomElement element : entry.getElements()) {
+            if (element.getObject() instanceof AtomLink) {
+                addLink(repositoryId, entry.getId(), (AtomLink) element.getObject());
+            }
+        }
+    }
+
+    /**
+     * Caches the links of all objects of a feed.
+     */
+    protected void addLinks(String repositoryId, AtomFeed feed) {
+        if (feed.getEntries().isEmpty()) {
+            return;
+        }
+
+        lockLinks();
+        try {
+            for (AtomEntry entry : feed.getEntries()) {
+                addLinks(repositoryId, entry);
+            }
+        } finally {
+            unlockLinks();
+        }
+    }
+
     /**
      * Removes all links of an object.
      */
@@ -486,6 +528,8 @@ public abstract class AbstractAtomPubService implements LinkAccess {
                 return new CmisNameConstraintViolationException(message, errorContent, t);
             }
             return new CmisConstraintException(message, errorContent, t);
+        case 503:
+            return new CmisServiceUnavailableException(message, errorContent, t);
         default:
             if (CmisStorageException.EXCEPTION_NAME.equals(exception)) {
                 return new CmisStorageException(message, errorContent, t);
@@ -70,6 +70,7 @@ import org.apache.chemistry.opencmis.commons.impl.IOUtils;
 import org.apache.chemistry.opencmis.commons.impl.XMLConstants;
 import org.apache.chemistry.opencmis.commons.impl.XMLConstraints;
 import org.apache.chemistry.opencmis.commons.impl.XMLConverter;
+import org.apache.chemistry.opencmis.commons.impl.XMLTagTable;
 import org.apache.chemistry.opencmis.commons.impl.XMLUtils;
 
 /**
@@ -80,6 +81,19 @@ public class AtomPubParser {
     // public constants
     public static final String LINK_REL_CONTENT = "@@content@@";
 
+    private enum EntryTag {
+        OBJECT, PATH_SEGMENT, TYPE, CHILDREN, LINK, CONTENT
+    }
+
+    private static final XMLTagTable<EntryTag> ENTRY_TAGS = new XMLTagTable<EntryTag>()
+            .put(XMLConstants.NAMESPACE_RESTATOM, TAG_OBJECT, EntryTag.OBJECT)
+            .put(XMLConstants.NAMESPACE_RESTATOM, TAG_PATH_SEGMENT, EntryTag.PATH_SEGMENT)
+            .put(XMLConstants.NAMESPACE_RESTATOM, TAG_RELATIVE_PATH_SEGMENT, EntryTag.PATH_SEGMENT)
+            .put(XMLConstants.NAMESPACE_RESTATOM, TAG_TYPE, EntryTag.TYPE)
+            .put(XMLConstants.NAMESPACE_RESTATOM, TAG_CHILDREN, EntryTag.CHILDREN)
+            .put(XMLConstants.NAMESPACE_ATOM, TAG_LINK, EntryTag.LINK)
+            .put(XMLConstants.NAMESPACE_ATOM, TAG_CONTENT, EntryTag.CONTENT);
+
     private final InputStream stream;
     private AtomBase parseResult;
 
@@ -321,22 +335,23 @@ public class AtomPubParser {
     private AtomElement parseElement(XMLStreamReader parser) throws XMLStreamException {
         QName name = parser.getName();
 
-        if (XMLConstants.NAMESPACE_RESTATOM.equals(name.getNamespaceURI())) {
-            if (TAG_OBJECT.equals(name.getLocalPart())) {
+        EntryTag tag = ENTRY_TAGS.get(name);
+        if (tag != null) {
+            switch (tag) {
+            case OBJECT:
                 return new AtomElement(name, XMLConverter.convertObject(parser));
-            } else if (TAG_PATH_SEGMENT.equals(name.getLocalPart())
-                    || TAG_RELATIVE_PATH_SEGMENT.equals(name.getLocalPart())) {
+            case PATH_SEGMENT:
                 return parseText(parser);
-            } else if (TAG_TYPE.equals(name.getLocalPart())) {
+            case TYPE:
                 return new AtomElement(name, XMLConverter.convertTypeDefinition(parser));
-            } else if (TAG_CHILDREN.equals(name.getLocalPart())) {
+            case CHILDREN:
                 return parseChildren(parser);
-            }
-        } else if (XMLConstants.NAMESPACE_ATOM.equals(name.getNamespaceURI())) {
-            if (TAG_LINK.equals(name.getLocalPart())) {
+            case LINK:
                 return parseLink(parser);
-            } else if (TAG_CONTENT.equals(name.getLocalPart())) {
+            case CONTENT:
                 return parseAtomContentSrc(parser);
+            default:
+                break;
             }
         }
 
@@ -186,6 +186,9 @@ public class DiscoveryServiceImpl extends AbstractAtomPubService implements Disc
         });
         AtomFeed feed = parse(resp.getStream(), AtomFeed.class);
 
+        // cache the links of all hits that have an object id
+        addLinks(repositoryId, feed);
+
         // handle top level
         for (AtomElement element : feed.getElements()) {
             if (element.getObject() instanceof AtomLink) {
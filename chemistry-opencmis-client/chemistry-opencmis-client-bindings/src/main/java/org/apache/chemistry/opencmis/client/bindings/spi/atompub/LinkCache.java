@@ -19,6 +19,7 @@
 package org.apache.chemistry.opencmis.client.bindings.spi.atompub;
 
 import java.io.Serializable;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
@@ -36,6 +37,15 @@ import org.apache.chemistry.opencmis.commons.impl.UrlBuilder;
 
 /**
  * Link cache.
+ * <p>
+ * If link synthesis is enabled ({@link SessionParameter#ATOMPUB_LINK_SYNTHESIS}
+ * ), the cache learns link templates from the links it sees. A template is
+ * derived by replacing the object id in a link with a placeholder. Once two
+ * different objects have produced the same template for a relation, the
+ * template is used to build that link for objects whose links are not cached.
+ * A relation whose links don't follow one pattern is never synthesized.
+ * Self links are built from the <code>objectbyid</code> URI template of the
+ * service document.
  */
 public class LinkCache implements Serializable {
 
@@ -58,6 +68,18 @@ public class LinkCache implements Serializable {
         KNOWN_LINKS.add(AtomPubParser.LINK_REL_CONTENT);
     }
 
+    /** Links that all objects have, independent of their base type. */
+    private static final Set<String> SYNTHESIZABLE_LINKS = new HashSet<String>();
+
+    static {
+        SYNTHESIZABLE_LINKS.add(Constants.REL_ACL);
+        SYNTHESIZABLE_LINKS.add(Constants.REL_ALLOWABLEACTIONS);
+        SYNTHESIZABLE_LINKS.add(Constants.REL_POLICIES);
+        SYNTHESIZABLE_LINKS.add(Constants.REL_RELATIONSHIPS);
+    }
+
+    private static final String ID_PLACEHOLDER = "{id}";
+
     private static final int CACHE_SIZE_REPOSITORIES = 10;
     private static final int CACHE_SIZE_TYPES = 100;
     private static final int CACHE_SIZE_OBJECTS = 400;
@@ -67,6 +89,8 @@ public class LinkCache implements Serializable {
     private final Cache collectionLinkCache;
     private final Cache templateCache;
     private final Cache repositoryLinkCache;
+    private final Cache linkTemplateCache;
+    private final boolean linkSynthesis;
 
     /**
      * Constructor.
@@ -122,6 +146,17 @@ public class LinkCache implements Serializable {
                 MapCacheLevelImpl.class.getName() + " " + MapCacheLevelImpl.CAPACITY + "=" + repCount, // repository
                 MapCacheLevelImpl.class.getName() + " " + MapCacheLevelImpl.CAPACITY + "=6" // rel
         });
+
+        linkTemplateCache = new CacheImpl("Link Template Cache");
+        linkTemplateCache.initialize(new String[] {
+                MapCacheLevelImpl.class.getName() + " " + MapCacheLevelImpl.CAPACITY + "=" + repCount, // repository
+                MapCacheLevelImpl.class.getName() + " " + MapCacheLevelImpl.CAPACITY + "=6", // rel
+                ContentTypeCacheLevelImpl.class.getName() + " " + MapCacheLevelImpl.CAPACITY + "=3,"
+                        + MapCacheLevelImpl.SINGLE_VALUE + "=true" // type
+        });
+
+        Object synthesis = session.get(SessionParameter.ATOMPUB_LINK_SYNTHESIS);
+        linkSynthesis = (synthesis != null) && Boolean.parseBoolean(synthesis.toString());
     }
 
     /**
@@ -130,6 +165,10 @@ public class LinkCache implements Serializable {
     public void addLink(String repositoryId, String id, String rel, String type, String link) {
         if (KNOWN_LINKS.contains(rel)) {
             linkCache.put(link, repositoryId, id, rel, type);
+
+            if (linkSynthesis && SYNTHESIZABLE_LINKS.contains(rel)) {
+                learnLinkTemplate(repositoryId, id, rel, type, link);
+            }
         } else if (Constants.REL_ALTERNATE.equals(rel)) {
             // use streamId instead of type as discriminating parameter
             String streamId = extractStreamId(link);
@@ -178,6 +217,97 @@ public class LinkCache implements Serializable {
         return getLink(repositoryId, id, rel, null);
     }
 
+    /**
+     * Returns whether link synthesis is enabled.
+     */
+    public boolean isLinkSynthesisEnabled() {
+        return linkSynthesis;
+    }
+
+    /**
+     * Builds a link of an object that is not in the cache from a learned link
+     * template or, for self links, from the <code>objectbyid</code> URI
+     * template.
+     *
+     * @return the link or <code>null</code> if the link cannot be synthesized
+     */
+    public String synthesizeLink(String repositoryId, String id, String rel, String type) {
+        if (!linkSynthesis || id == null) {
+            return null;
+        }
+
+        if (Constants.REL_SELF.equals(rel) && (type == null || Constants.MEDIATYPE_ENTRY.equals(type))) {
+            Map<String, Object> parameters = new HashMap<String, Object>();
+            parameters.put(Constants.PARAM_ID, id);
+            return getTemplateLink(repositoryId, Constants.TEMPLATE_OBJECT_BY_ID, parameters);
+        }
+
+        if (!SYNTHESIZABLE_LINKS.contains(rel)) {
+            return null;
+        }
+
+        LinkTemplate template = (LinkTemplate) linkTemplateCache.get(repositoryId, rel, type);
+        if (template == null) {
+            return null;
+        }
+
+        return template.expand(id);
+    }
+
+    /**
+     * Derives a link template from a link and checks it against the template
+     * that has been learned so far.
+     */
+    private void learnLinkTemplate(String repositoryId, String id, String rel, String type, String link) {
+        String template = deriveTemplate(id, link);
+
+        LinkTemplate learned = (LinkTemplate) linkTemplateCache.get(repositoryId, rel, type);
+        if (learned == null) {
+            linkTemplateCache.put(new LinkTemplate(template, id), repositoryId, rel, type);
+        } else {
+            learned.observe(template, id);
+        }
+    }
+
+    /**
+     * Replaces the object id in a link with a placeholder.
+     *
+     * @return the template or <code>null</code> if the id doesn't occur
+     *         exactly once as a path segment or parameter value
+     */
+    static String deriveTemplate(String id, String link) {
+        if (id == null || link == null || link.indexOf(ID_PLACEHOLDER) > -1) {
+            return null;
+        }
+
+        String encodedId = IOUtils.encodeURL(id);
+
+        int start = -1;
+        int pos = link.indexOf(encodedId, 1);
+        while (pos > -1) {
+            int end = pos + encodedId.length();
+            char before = link.charAt(pos - 1);
+            char after = (end < link.length() ? link.charAt(end) : '&');
+            if ((before == '=' || before == '/') && (after == '&' || after == '/' || after == '?' || after == '#')) {
+                if (start > -1) {
+                    // ambiguous
+                    return null;
+                }
+                start = pos;
+            }
+
+            pos = link.indexOf(encodedId, pos + 1);
+        }
+
+        if (start == -1) {
+            return null;
+        }
+
+        int end = start + encodedId.length();
+
+        return link.substring(0, start) + ID_PLACEHOLDER + link.substring(end);
+    }
+
     /**
      * Checks a link.
      */
@@ -322,6 +452,7 @@ public class LinkCache implements Serializable {
         collectionLinkCache.remove(repositoryId);
         templateCache.remove(repositoryId);
         repositoryLinkCache.remove(repositoryId);
+        linkTemplateCache.remove(repositoryId);
     }
 
     /*
@@ -335,4 +466,53 @@ public class LinkCache implements Serializable {
                 + ", collection link cache=" + collectionLinkCache + ", repository link cache=" + repositoryLinkCache
                 + ",  template cache=" + templateCache + "]";
     }
+
+    /**
+     * A learned link template.
+     */
+    static class LinkTemplate implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private String template;
+        private String firstId;
+        private boolean confirmed;
+
+        LinkTemplate(String template, String id) {
+            this.template = template;
+            this.firstId = id;
+            this.confirmed = false;
+        }
+
+        /**
+         * Records the template derived from a link of another object. A
+         * different template invalidates this template for good.
+         */
+        synchronized void observe(String otherTemplate, String id) {
+            if (template == null) {
+                return;
+            }
+
+            if (!template.equals(otherTemplate)) {
+                template = null;
+                confirmed = false;
+            } else if (!firstId.equals(id)) {
+                confirmed = true;
+            }
+        }
+
+        /**
+         * Builds the link for the given object id.
+         *
+         * @return the link or <code>null</code> if the template has not been
+         *         confirmed
+         */
+        synchronized String expand(String id) {
+            if (!confirmed || template == null) {
+                return null;
+            }
+
+            return template.replace(ID_PLACEHOLDER, IOUtils.encodeURL(id));
+        }
+    }
 }
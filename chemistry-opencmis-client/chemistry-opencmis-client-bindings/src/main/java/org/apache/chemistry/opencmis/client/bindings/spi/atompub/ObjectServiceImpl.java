@@ -35,8 +35,13 @@ import org.apache.chemistry.opencmis.client.bindings.spi.atompub.objects.AtomEle
 import org.apache.chemistry.opencmis.client.bindings.spi.atompub.objects.AtomEntry;
 import org.apache.chemistry.opencmis.client.bindings.spi.atompub.objects.AtomFeed;
 import org.apache.chemistry.opencmis.client.bindings.spi.atompub.objects.AtomLink;
+import org.apache.chemistry.opencmis.client.bindings.spi.http.ConditionalContentAccess;
+import org.apache.chemistry.opencmis.client.bindings.spi.http.ContentValidators;
+import org.apache.chemistry.opencmis.client.bindings.spi.http.HeadersHttpInvoker;
+import org.apache.chemistry.opencmis.client.bindings.spi.http.HttpInvoker;
 import org.apache.chemistry.opencmis.client.bindings.spi.http.Output;
 import org.apache.chemistry.opencmis.client.bindings.spi.http.Response;
+import org.apache.chemistry.opencmis.client.bindings.spi.http.ValidatedContentStream;
 import org.apache.chemistry.opencmis.commons.PropertyIds;
 import org.apache.chemistry.opencmis.commons.data.Acl;
 import org.apache.chemistry.opencmis.commons.data.AllowableActions;
@@ -74,7 +79,7 @@ import org.apache.chemistry.opencmis.commons.spi.ObjectService;
 /**
  * Object Service AtomPub client.
  */
-public class ObjectServiceImpl extends AbstractAtomPubService implements ObjectService {
+public class ObjectServiceImpl extends AbstractAtomPubService implements ObjectService, ConditionalContentAccess {
 
     /**
      * Constructor.
@@ -562,6 +567,16 @@ public class ObjectServiceImpl extends AbstractAtomPubService implements ObjectS
 
     public ContentStream getContentStream(String repositoryId, String objectId, String streamId, BigInteger offset,
             BigInteger length, ExtensionsData extension) {
+        return getContentStreamInternal(repositoryId, objectId, streamId, offset, length, null);
+    }
+
+    public ContentStream getContentStream(String repositoryId, String objectId, String streamId,
+            ContentValidators validators, ExtensionsData extension) {
+        return getContentStreamInternal(repositoryId, objectId, streamId, null, null, validators);
+    }
+
+    private ContentStream getContentStreamInternal(String repositoryId, String objectId, String streamId,
+            BigInteger offset, BigInteger length, ContentValidators validators) {
         // find the link
         String link = null;
         if (streamId != null) {
@@ -584,8 +599,26 @@ public class ObjectServiceImpl extends AbstractAtomPubService implements ObjectS
         // is not spec-compliant
         url.addParameter(Constants.PARAM_STREAM_ID, streamId);
 
+        // conditional request, only if the HTTP invoker can send the headers
+        HttpInvoker invoker = getHttpInvoker();
+        if (!(invoker instanceof HeadersHttpInvoker)) {
+            validators = null;
+        }
+
         // get the content
-        Response resp = getHttpInvoker().invokeGET(url, getSession(), offset, length);
+        Response resp;
+        if (validators != null) {
+            resp = ((HeadersHttpInvoker) invoker).invokeGET(url, getSession(), offset, length,
+                    validators.getRequestHeaders());
+        } else {
+            resp = invoker.invokeGET(url, getSession(), offset, length);
+        }
+
+        // content hasn't changed
+        if ((validators != null) && (resp.getResponseCode() == 304)) {
+            IOUtils.consumeAndClose(resp.getStream());
+            return ValidatedContentStream.fromResponse(resp);
+        }
 
         // check response code
         if ((resp.getResponseCode() != 200) && (resp.getResponseCode() != 206)) {
@@ -596,7 +629,8 @@ public class ObjectServiceImpl extends AbstractAtomPubService implements ObjectS
         if (resp.getResponseCode() == 206) {
             result = new PartialContentStreamImpl();
         } else {
-            result = new ContentStreamImpl();
+            // keep the validators for later conditional requests
+            result = ValidatedContentStream.fromResponse(resp);
         }
 
         String filename = null;
@@ -90,6 +90,7 @@ public class PolicyServiceImpl extends AbstractAtomPubService implements PolicyS
         // read and parse
         Response resp = read(url);
         AtomFeed feed = parse(resp.getStream(), AtomFeed.class);
+        addLinks(repositoryId, feed);
 
         // get the policies
         if (!feed.getEntries().isEmpty()) {
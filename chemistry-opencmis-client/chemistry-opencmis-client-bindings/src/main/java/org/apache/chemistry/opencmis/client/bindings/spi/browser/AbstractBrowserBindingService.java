@@ -46,6 +46,7 @@ import org.apache.chemistry.opencmis.commons.exceptions.CmisObjectNotFoundExcept
 import org.apache.chemistry.opencmis.commons.exceptions.CmisPermissionDeniedException;
 import org.apache.chemistry.opencmis.commons.exceptions.CmisProxyAuthenticationException;
 import org.apache.chemistry.opencmis.commons.exceptions.CmisRuntimeException;
+import org.apache.chemistry.opencmis.commons.exceptions.CmisServiceUnavailableException;
 import org.apache.chemistry.opencmis.commons.exceptions.CmisStorageException;
 import org.apache.chemistry.opencmis.commons.exceptions.CmisStreamNotSupportedException;
 import org.apache.chemistry.opencmis.commons.exceptions.CmisUnauthorizedException;
@@ -240,6 +241,8 @@ public abstract class AbstractBrowserBindingService implements LinkAccess {
                     return new CmisObjectNotFoundException(message, errorContent, t);
                 } else if (CmisPermissionDeniedException.EXCEPTION_NAME.equalsIgnoreCase((String) jsonError)) {
                     return new CmisPermissionDeniedException(message, errorContent, t);
+                } else if (CmisServiceUnavailableException.EXCEPTION_NAME.equalsIgnoreCase((String) jsonError)) {
+                    return new CmisServiceUnavailableException(message, errorContent, t);
                 } else if (CmisStorageException.EXCEPTION_NAME.equalsIgnoreCase((String) jsonError)) {
                     return new CmisStorageException(message, errorContent, t);
                 } else if (CmisStreamNotSupportedException.EXCEPTION_NAME.equalsIgnoreCase((String) jsonError)) {
@@ -274,6 +277,8 @@ public abstract class AbstractBrowserBindingService implements LinkAccess {
             return new CmisProxyAuthenticationException(message, errorContent, t);
         case 409:
             return new CmisConstraintException(message, errorContent, t);
+        case 503:
+            return new CmisServiceUnavailableException(message, errorContent, t);
         default:
             return new CmisRuntimeException(message, errorContent, t);
         }
@@ -25,8 +25,13 @@ import java.util.List;
 import java.util.Map;
 
 import org.apache.chemistry.opencmis.client.bindings.spi.BindingSession;
+import org.apache.chemistry.opencmis.client.bindings.spi.http.ConditionalContentAccess;
+import org.apache.chemistry.opencmis.client.bindings.spi.http.ContentValidators;
+import org.apache.chemistry.opencmis.client.bindings.spi.http.HeadersHttpInvoker;
+import org.apache.chemistry.opencmis.client.bindings.spi.http.HttpInvoker;
 import org.apache.chemistry.opencmis.client.bindings.spi.http.Output;
 import org.apache.chemistry.opencmis.client.bindings.spi.http.Response;
+import org.apache.chemistry.opencmis.client.bindings.spi.http.ValidatedContentStream;
 import org.apache.chemistry.opencmis.commons.PropertyIds;
 import org.apache.chemistry.opencmis.commons.data.Acl;
 import org.apache.chemistry.opencmis.commons.data.AllowableActions;
@@ -42,6 +47,7 @@ import org.apache.chemistry.opencmis.commons.enums.UnfileObject;
 import org.apache.chemistry.opencmis.commons.enums.VersioningState;
 import org.apache.chemistry.opencmis.commons.exceptions.CmisInvalidArgumentException;
 import org.apache.chemistry.opencmis.commons.impl.Constants;
+import org.apache.chemistry.opencmis.commons.impl.IOUtils;
 import org.apache.chemistry.opencmis.commons.impl.JSONConverter;
 import org.apache.chemistry.opencmis.commons.impl.MimeHelper;
 import org.apache.chemistry.opencmis.commons.impl.TypeCache;
@@ -55,7 +61,8 @@ import org.apache.chemistry.opencmis.commons.spi.ObjectService;
 /**
  * Object Service Browser Binding client.
  */
-public class ObjectServiceImpl extends AbstractBrowserBindingService implements ObjectService {
+public class ObjectServiceImpl extends AbstractBrowserBindingService implements ObjectService,
+        ConditionalContentAccess {
 
     /**
      * Constructor.
@@ -333,13 +340,41 @@ public class ObjectServiceImpl extends AbstractBrowserBindingService implements
 
     public ContentStream getContentStream(String repositoryId, String objectId, String streamId, BigInteger offset,
             BigInteger length, ExtensionsData extension) {
+        return getContentStreamInternal(repositoryId, objectId, streamId, offset, length, null);
+    }
+
+    public ContentStream getContentStream(String repositoryId, String objectId, String streamId,
+            ContentValidators validators, ExtensionsData extension) {
+        return getContentStreamInternal(repositoryId, objectId, streamId, null, null, validators);
+    }
+
+    private ContentStream getContentStreamInternal(String repositoryId, String objectId, String streamId,
+            BigInteger offset, BigInteger length, ContentValidators validators) {
 
         // build URL
         UrlBuilder url = getObjectUrl(repositoryId, objectId, Constants.SELECTOR_CONTENT);
         url.addParameter(Constants.PARAM_STREAM_ID, streamId);
 
+        // conditional request, only if the HTTP invoker can send the headers
+        HttpInvoker invoker = getHttpInvoker();
+        if (!(invoker instanceof HeadersHttpInvoker)) {
+            validators = null;
+        }
+
         // get the content
-        Response resp = getHttpInvoker().invokeGET(url, getSession(), offset, length);
+        Response resp;
+        if (validators != null) {
+            resp = ((HeadersHttpInvoker) invoker).invokeGET(url, getSession(), offset, length,
+                    validators.getRequestHeaders());
+        } else {
+            resp = invoker.invokeGET(url, getSession(), offset, length);
+        }
+
+        // content hasn't changed
+        if ((validators != null) && (resp.getResponseCode() == 304)) {
+            IOUtils.consumeAndClose(resp.getStream());
+            return ValidatedContentStream.fromResponse(resp);
+        }
 
         // check response code
         if ((resp.getResponseCode() != 200) && (resp.getResponseCode() != 206)) {
@@ -358,7 +393,8 @@ public class ObjectServiceImpl extends AbstractBrowserBindingService implements
         if (resp.getResponseCode() == 206) {
             result = new PartialContentStreamImpl();
         } else {
-            result = new ContentStreamImpl();
+            // keep the validators for later conditional requests
+            result = ValidatedContentStream.fromResponse(resp);
         }
 
         result.setFileName(filename);
@@ -67,7 +67,7 @@ import org.slf4j.LoggerFactory;
 /**
  * A {@link HttpInvoker} that uses The Apache HTTP client.
  */
-public abstract class AbstractApacheClientHttpInvoker implements HttpInvoker {
+public abstract class AbstractApacheClientHttpInvoker implements HeadersHttpInvoker {
 
     protected static final Logger LOG = LoggerFactory.getLogger(AbstractApacheClientHttpInvoker.class);
 
@@ -82,6 +82,11 @@ public abstract class AbstractApacheClientHttpInvoker implements HttpInvoker {
         return invoke(url, "GET", null, null, null, session, offset, length);
     }
 
+    public Response invokeGET(UrlBuilder url, BindingSession session, BigInteger offset, BigInteger length,
+            Map<String, String> headers) {
+        return invoke(url, "GET", null, headers, null, session, offset, length);
+    }
+
     public Response invokePOST(UrlBuilder url, String contentType, Output writer, BindingSession session) {
         return invoke(url, "POST", contentType, null, writer, session, null, null);
     }
@@ -0,0 +1,49 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.chemistry.opencmis.client.bindings.spi.http;
+
+import org.apache.chemistry.opencmis.commons.data.ContentStream;
+import org.apache.chemistry.opencmis.commons.data.ExtensionsData;
+
+/**
+ * Conditional content requests. Implemented by the object services of the
+ * AtomPub and the Browser binding.
+ * <p>
+ * The cache validators are only used for the HTTP request. They are never
+ * sent to the repository as CMIS extensions.
+ */
+public interface ConditionalContentAccess {
+
+    /**
+     * Gets the full content stream of a document with a conditional request.
+     * If the HTTP invoker cannot send the conditional request headers, the
+     * content is requested unconditionally.
+     * 
+     * @param validators
+     *            the cache validators of a previous response, may be
+     *            <code>null</code>
+     * @return the content stream, usually a {@link ValidatedContentStream};
+     *         if the repository responded with "304 Not Modified", the
+     *         content stream has no stream and
+     *         {@link ValidatedContentStream#isNotModified()} returns
+     *         <code>true</code>
+     */
+    ContentStream getContentStream(String repositoryId, String objectId, String streamId,
+            ContentValidators validators, ExtensionsData extension);
+}
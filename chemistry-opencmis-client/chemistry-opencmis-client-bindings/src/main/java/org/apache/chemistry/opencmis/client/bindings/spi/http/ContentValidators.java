@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.chemistry.opencmis.client.bindings.spi.http;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * HTTP cache validators of a previously downloaded content stream.
+ * <p>
+ * See {@link ConditionalContentAccess}.
+ */
+public class ContentValidators implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String eTag;
+    private final String lastModified;
+
+    /**
+     * Constructor.
+     * 
+     * @param eTag
+     *            the value of the ETag header of the previous response, may
+     *            be <code>null</code>
+     * @param lastModified
+     *            the value of the Last-Modified header of the previous
+     *            response, may be <code>null</code>
+     */
+    public ContentValidators(String eTag, String lastModified) {
+        this.eTag = eTag;
+        this.lastModified = lastModified;
+    }
+
+    public String getETag() {
+        return eTag;
+    }
+
+    public String getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * Returns the conditional request headers.
+     */
+    public Map<String, String> getRequestHeaders() {
+        Map<String, String> headers = new HashMap<String, String>();
+
+        if (eTag != null) {
+            headers.put("If-None-Match", eTag);
+        }
+
+        if (lastModified != null) {
+            headers.put("If-Modified-Since", lastModified);
+        }
+
+        return headers;
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.chemistry.opencmis.client.bindings.spi.http;
+
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.ContentStreamImpl;
+
+/**
+ * Content stream returned for a conditional request (see
+ * {@link ContentValidators}).
+ * <p>
+ * If the repository responded with "304 Not Modified", the content stream has
+ * no stream and {@link #isNotModified()} returns <code>true</code>.
+ * Otherwise, it carries the new validators of the content.
+ */
+public class ValidatedContentStream extends ContentStreamImpl {
+
+    private static final long serialVersionUID = 1L;
+
+    private boolean notModified;
+    private String eTag;
+    private String lastModified;
+
+    /**
+     * Constructor.
+     */
+    public ValidatedContentStream() {
+    }
+
+    /**
+     * Creates a content stream from the headers of the given response.
+     */
+    public static ValidatedContentStream fromResponse(Response response) {
+        ValidatedContentStream result = new ValidatedContentStream();
+        result.setNotModified(response.getResponseCode() == 304);
+        result.setETag(response.getHeader("ETag"));
+        result.setLastModified(response.getHeader("Last-Modified"));
+
+        return result;
+    }
+
+    public boolean isNotModified() {
+        return notModified;
+    }
+
+    public void setNotModified(boolean notModified) {
+        this.notModified = notModified;
+    }
+
+    public String getETag() {
+        return eTag;
+    }
+
+    public void setETag(String eTag) {
+        this.eTag = eTag;
+    }
+
+    public String getLastModified() {
+        return lastModified;
+    }
+
+    public void setLastModified(String lastModified) {
+        this.lastModified = lastModified;
+    }
+}
@@ -27,14 +27,13 @@ import java.lang.reflect.InvocationTargetException;
 import java.math.BigInteger;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.EnumMap;
 import java.util.HashMap;
-import java.util.Iterator;
-import java.util.LinkedList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.locks.ReentrantLock;
 
 import javax.xml.namespace.QName;
 import javax.xml.parsers.ParserConfigurationException;
@@ -91,10 +90,19 @@ public abstract class AbstractPortProvider {
 
     private static final Logger LOG = LoggerFactory.getLogger(AbstractPortProvider.class);
 
-    private static final int PORT_CACHE_SIZE = 5;
+    private static final int PORT_POOL_MIN = 0;
+    private static final int PORT_POOL_MAX = 20;
+    private static final int PORT_POOL_MAX_WAIT = 60 * 1000;
+    private static final int PORT_POOL_IDLE_TIMEOUT = 10 * 60 * 1000;
 
     protected static final int CHUNK_SIZE = (64 * 1024) - 1;
 
+    /**
+     * The pool a port object has been taken from during the current
+     * {@link #createPortObject(CmisServiceHolder)} call.
+     */
+    private static final ThreadLocal<PortObjectPool> ACQUIRED_POOL = new ThreadLocal<PortObjectPool>();
+
     protected enum CmisWebSerivcesService {
         REPOSITORY_SERVICE("RepositoryService", false, RepositoryService.class, RepositoryServicePort.class,
                 SessionParameter.WEBSERVICES_REPOSITORY_SERVICE,
@@ -240,8 +248,7 @@ public abstract class AbstractPortProvider {
     private boolean useClientCompression;
     private String acceptLanguage;
 
-    private final ReentrantLock portObjectLock = new ReentrantLock();
-    private final EnumMap<CmisWebSerivcesService, LinkedList<SoftReference<BindingProvider>>> portObjectCache = new EnumMap<CmisWebSerivcesService, LinkedList<SoftReference<BindingProvider>>>(
+    private final EnumMap<CmisWebSerivcesService, PortObjectPool> portObjectPools = new EnumMap<CmisWebSerivcesService, PortObjectPool>(
             CmisWebSerivcesService.class);
 
     public BindingSession getSession() {
@@ -260,6 +267,20 @@ public abstract class AbstractPortProvider {
         if (session.get(CmisBindingsHelper.ACCEPT_LANGUAGE) instanceof String) {
             acceptLanguage = session.get(CmisBindingsHelper.ACCEPT_LANGUAGE).toString();
         }
+
+        int poolMin = session.get(SessionParameter.WEBSERVICES_PORT_POOL_MIN, PORT_POOL_MIN);
+        int poolMax = session.get(SessionParameter.WEBSERVICES_PORT_POOL_MAX, PORT_POOL_MAX);
+        int poolMaxWait = session.get(SessionParameter.WEBSERVICES_PORT_POOL_MAX_WAIT, PORT_POOL_MAX_WAIT);
+        int poolIdleTimeout = session.get(SessionParameter.WEBSERVICES_PORT_POOL_IDLE_TIMEOUT, PORT_POOL_IDLE_TIMEOUT);
+
+        for (CmisWebSerivcesService service : CmisWebSerivcesService.values()) {
+            portObjectPools.put(service, new PortObjectPool(service.getServiceName(), poolMin, poolMax, poolMaxWait,
+                    poolIdleTimeout));
+        }
+
+        if (poolMin > 0) {
+            prewarmPortObjects();
+        }
     }
 
     public boolean useCompression() {
@@ -274,6 +295,19 @@ public abstract class AbstractPortProvider {
         return acceptLanguage;
     }
 
+    /**
+     * Returns the port object pools, keyed by service name. The pools provide
+     * statistics about created, reused and evicted port objects and wait times.
+     */
+    public Map<String, PortObjectPool> getPortObjectPools() {
+        Map<String, PortObjectPool> result = new LinkedHashMap<String, PortObjectPool>();
+        for (PortObjectPool pool : portObjectPools.values()) {
+            result.put(pool.getName(), pool);
+        }
+
+        return result;
+    }
+
     /**
      * Return the Repository Service port object.
      */
@@ -365,9 +399,14 @@ public abstract class AbstractPortProvider {
     }
 
     public void endCall(Object portObject) {
+        if (!(portObject instanceof BindingProvider)) {
+            return;
+        }
+
+        BindingProvider bp = (BindingProvider) portObject;
+
         AuthenticationProvider authProvider = CmisBindingsHelper.getAuthenticationProvider(session);
-        if (authProvider != null && portObject instanceof BindingProvider) {
-            BindingProvider bp = (BindingProvider) portObject;
+        if (authProvider != null) {
             String url = (String) bp.getRequestContext().get(BindingProvider.ENDPOINT_ADDRESS_PROPERTY);
             if (bp.getResponseContext() != null) {
                 @SuppressWarnings("unchecked")
@@ -376,57 +415,35 @@ public abstract class AbstractPortProvider {
                 Integer statusCode = (Integer) bp.getResponseContext().get(MessageContext.HTTP_RESPONSE_CODE);
                 authProvider.putResponseHeaders(url, statusCode == null ? -1 : statusCode, headers);
             }
+        }
 
-            CmisWebSerivcesService service = null;
-
-            if (portObject instanceof RepositoryServicePort) {
-                service = CmisWebSerivcesService.REPOSITORY_SERVICE;
-            } else if (portObject instanceof NavigationServicePort) {
-                service = CmisWebSerivcesService.NAVIGATION_SERVICE;
-            } else if (portObject instanceof ObjectServicePort) {
-                service = CmisWebSerivcesService.OBJECT_SERVICE;
-            } else if (portObject instanceof VersioningServicePort) {
-                service = CmisWebSerivcesService.VERSIONING_SERVICE;
-            } else if (portObject instanceof DiscoveryServicePort) {
-                service = CmisWebSerivcesService.DISCOVERY_SERVICE;
-            } else if (portObject instanceof MultiFilingServicePort) {
-                service = CmisWebSerivcesService.MULTIFILING_SERVICE;
-            } else if (portObject instanceof RelationshipServicePort) {
-                service = CmisWebSerivcesService.RELATIONSHIP_SERVICE;
-            } else if (portObject instanceof PolicyServicePort) {
-                service = CmisWebSerivcesService.POLICY_SERVICE;
-            } else if (portObject instanceof ACLServicePort) {
-                service = CmisWebSerivcesService.ACL_SERVICE;
-            }
-
-            if (service == null) {
-                return;
-            }
-
-            portObjectLock.lock();
-            try {
-                LinkedList<SoftReference<BindingProvider>> queue = portObjectCache.get(service);
-                if (queue == null) {
-                    throw new CmisRuntimeException("This is a bug!");
-                }
+        CmisWebSerivcesService service = null;
+
+        if (portObject instanceof RepositoryServicePort) {
+            service = CmisWebSerivcesService.REPOSITORY_SERVICE;
+        } else if (portObject instanceof NavigationServicePort) {
+            service = CmisWebSerivcesService.NAVIGATION_SERVICE;
+        } else if (portObject instanceof ObjectServicePort) {
+            service = CmisWebSerivcesService.OBJECT_SERVICE;
+        } else if (portObject instanceof VersioningServicePort) {
+            service = CmisWebSerivcesService.VERSIONING_SERVICE;
+        } else if (portObject instanceof DiscoveryServicePort) {
+            service = CmisWebSerivcesService.DISCOVERY_SERVICE;
+        } else if (portObject instanceof MultiFilingServicePort) {
+            service = CmisWebSerivcesService.MULTIFILING_SERVICE;
+        } else if (portObject instanceof RelationshipServicePort) {
+            service = CmisWebSerivcesService.RELATIONSHIP_SERVICE;
+        } else if (portObject instanceof PolicyServicePort) {
+            service = CmisWebSerivcesService.POLICY_SERVICE;
+        } else if (portObject instanceof ACLServicePort) {
+            service = CmisWebSerivcesService.ACL_SERVICE;
+        }
 
-                if (queue.size() < PORT_CACHE_SIZE) {
-                    queue.push(new SoftReference<BindingProvider>(bp));
-                } else {
-                    Iterator<SoftReference<BindingProvider>> iter = queue.iterator();
-                    while (iter.hasNext()) {
-                        SoftReference<BindingProvider> ref = iter.next();
-                        if (ref.get() == null) {
-                            iter.remove();
-                            queue.push(new SoftReference<BindingProvider>(bp));
-                            break;
-                        }
-                    }
-                }
-            } finally {
-                portObjectLock.unlock();
-            }
+        if (service == null) {
+            return;
         }
+
+        getPortObjectPool(service).release(bp);
     }
 
     // ---- internal ----
@@ -448,7 +465,7 @@ public abstract class AbstractPortProvider {
                 }
 
                 if (serviceMap.containsKey(service)) {
-                    return createPortObject(serviceMap.get(service));
+                    return createPooledPortObject(serviceMap.get(service));
                 }
 
                 // create service object
@@ -456,7 +473,7 @@ public abstract class AbstractPortProvider {
                 serviceMap.put(service, serviceholder);
 
                 // create port object
-                return createPortObject(serviceholder);
+                return createPooledPortObject(serviceholder);
             } finally {
                 session.writeUnlock();
             }
@@ -468,20 +485,87 @@ public abstract class AbstractPortProvider {
             try {
                 // try again
                 if (serviceMap.containsKey(service)) {
-                    return createPortObject(serviceMap.get(service));
+                    return createPooledPortObject(serviceMap.get(service));
                 }
 
                 // create object
                 CmisServiceHolder serviceholder = initServiceObject(service);
                 serviceMap.put(service, serviceholder);
 
-                return createPortObject(serviceholder);
+                return createPooledPortObject(serviceholder);
             } finally {
                 session.writeUnlock();
             }
         }
 
-        return createPortObject(serviceMap.get(service));
+        return createPooledPortObject(serviceMap.get(service));
+    }
+
+    /**
+     * Calls {@link #createPortObject(CmisServiceHolder)} and gives the port
+     * object back to its pool if the call fails after the port object has
+     * been taken from the pool.
+     */
+    private BindingProvider createPooledPortObject(CmisServiceHolder serviceHolder) {
+        ACQUIRED_POOL.remove();
+
+        boolean success = false;
+        try {
+            BindingProvider portObject = createPortObject(serviceHolder);
+            success = true;
+            return portObject;
+        } finally {
+            PortObjectPool pool = ACQUIRED_POOL.get();
+            ACQUIRED_POOL.remove();
+
+            if (!success && pool != null) {
+                pool.release(null);
+            }
+        }
+    }
+
+    /**
+     * Returns the port object pool of a service.
+     */
+    protected PortObjectPool getPortObjectPool(final CmisWebSerivcesService service) {
+        PortObjectPool pool = portObjectPools.get(service);
+        if (pool == null) {
+            throw new CmisRuntimeException("Port provider has not been initialized!");
+        }
+
+        return pool;
+    }
+
+    /**
+     * Creates the minimum number of port objects for all services that have
+     * an endpoint configured.
+     */
+    protected void prewarmPortObjects() {
+        for (CmisWebSerivcesService service : CmisWebSerivcesService.values()) {
+            if (session.get(service.getWsdlKey()) == null && session.get(service.getEndpointKey()) == null) {
+                continue;
+            }
+
+            PortObjectPool pool = getPortObjectPool(service);
+
+            List<BindingProvider> ports = new ArrayList<BindingProvider>();
+            try {
+                for (int i = pool.getIdleCount(); i < pool.getMinSize(); i++) {
+                    ports.add(getPortObject(service));
+                }
+            } catch (CmisBaseException e) {
+                LOG.warn("Session {}: Could not pre-warm port objects of {}: {}", getSession().getSessionId(),
+                        service.getServiceName(), e.toString(), e);
+            } finally {
+                for (BindingProvider port : ports) {
+                    pool.release(port);
+                }
+            }
+        }
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Session {}: Port object pools: {}", getSession().getSessionId(), portObjectPools.values());
+        }
     }
 
     /**
@@ -688,30 +772,30 @@ public abstract class AbstractPortProvider {
     }
 
     /**
-     * Creates a simple port object from a CmisServiceHolder object.
+     * Creates a simple port object from a CmisServiceHolder object or takes
+     * one from the port object pool.
      */
     protected BindingProvider createPortObjectFromServiceHolder(final CmisServiceHolder serviceHolder,
             WebServiceFeature... features) throws Exception {
-        portObjectLock.lock();
-        try {
-            LinkedList<SoftReference<BindingProvider>> queue = portObjectCache.get(serviceHolder.getService());
-            if (queue == null) {
-                queue = new LinkedList<SoftReference<BindingProvider>>();
-                portObjectCache.put(serviceHolder.getService(), queue);
-            }
+        PortObjectPool pool = getPortObjectPool(serviceHolder.getService());
 
-            while (!queue.isEmpty()) {
-                BindingProvider bp = queue.pop().get();
-                if (bp != null) {
-                    return bp;
-                }
-            }
-        } finally {
-            portObjectLock.unlock();
+        BindingProvider portObject = pool.acquire();
+        ACQUIRED_POOL.set(pool);
+        if (portObject != null) {
+            return portObject;
+        }
+
+        try {
+            portObject = (BindingProvider) serviceHolder.getServiceObject().getPort(
+                    serviceHolder.getService().getPortClass(), features);
+        } catch (Exception e) {
+            ACQUIRED_POOL.remove();
+            pool.release(null);
+            throw e;
         }
+        pool.created();
 
-        return (BindingProvider) serviceHolder.getServiceObject().getPort(serviceHolder.getService().getPortClass(),
-                features);
+        return portObject;
     }
 
     /**
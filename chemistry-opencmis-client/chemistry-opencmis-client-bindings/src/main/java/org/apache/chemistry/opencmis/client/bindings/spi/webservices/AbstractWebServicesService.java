@@ -43,6 +43,7 @@ import org.apache.chemistry.opencmis.commons.exceptions.CmisNotSupportedExceptio
 import org.apache.chemistry.opencmis.commons.exceptions.CmisObjectNotFoundException;
 import org.apache.chemistry.opencmis.commons.exceptions.CmisPermissionDeniedException;
 import org.apache.chemistry.opencmis.commons.exceptions.CmisRuntimeException;
+import org.apache.chemistry.opencmis.commons.exceptions.CmisServiceUnavailableException;
 import org.apache.chemistry.opencmis.commons.exceptions.CmisStorageException;
 import org.apache.chemistry.opencmis.commons.exceptions.CmisStreamNotSupportedException;
 import org.apache.chemistry.opencmis.commons.exceptions.CmisUpdateConflictException;
@@ -55,6 +56,8 @@ import org.w3c.dom.Node;
  */
 public abstract class AbstractWebServicesService {
 
+    private static final String EXCEPTION_NAMESPACE = "http://chemistry.apache.org/opencmis/exception";
+
     private BindingSession session;
 
     /**
@@ -116,6 +119,9 @@ public abstract class AbstractWebServicesService {
         case PERMISSION_DENIED:
             return new CmisPermissionDeniedException(msg, code, errorContent);
         case RUNTIME:
+            if (isServiceUnavailable(ex)) {
+                return new CmisServiceUnavailableException(msg, code, errorContent);
+            }
             return new CmisRuntimeException(msg, code, errorContent);
         case STORAGE:
             return new CmisStorageException(msg, code, errorContent);
@@ -131,6 +137,20 @@ public abstract class AbstractWebServicesService {
         return new CmisRuntimeException("Unknown exception[" + ex.getFaultInfo().getType().value() + "]: " + msg);
     }
 
+    /**
+     * Checks whether the server marked a runtime fault as service unavailable.
+     */
+    private static boolean isServiceUnavailable(CmisException ex) {
+        for (Object o : ex.getFaultInfo().getAny()) {
+            if (o instanceof Node && EXCEPTION_NAMESPACE.equals(((Node) o).getNamespaceURI())
+                    && CmisServiceUnavailableException.EXCEPTION_NAME.equals(((Node) o).getLocalName())) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
     private static String getNodeAsString(Node node) {
         try {
             TransformerFactory factory = TransformerFactory.newInstance();
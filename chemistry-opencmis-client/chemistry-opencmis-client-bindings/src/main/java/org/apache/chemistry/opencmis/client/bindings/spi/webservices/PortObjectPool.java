@@ -0,0 +1,383 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.chemistry.opencmis.client.bindings.spi.webservices;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+import javax.xml.ws.BindingProvider;
+
+import org.apache.chemistry.opencmis.commons.exceptions.CmisConnectionException;
+
+/**
+ * Pool of port objects of one Web Services service.
+ * <p>
+ * Idle port objects are kept in a lock-free stack, so the most recently used
+ * port objects are handed out first and rarely used ones sink to the bottom
+ * where they expire after the idle timeout. The pool holds strong references,
+ * which means that port objects survive garbage collections.
+ * <p>
+ * The maximum size limits the number of port objects of the service, idle and
+ * in use. If all of them are in use, {@link #acquire()} waits for one to be
+ * released and fails if none is released in time.
+ * <p>
+ * The pool does not create port objects itself. If {@link #acquire()} returns
+ * <code>null</code>, the caller creates a new port object, reports it with
+ * {@link #created()}, and hands it back with {@link #release(BindingProvider)}
+ * when the call has finished. A caller that could not create a port object or
+ * lost it calls {@link #release(BindingProvider)} with <code>null</code>.
+ */
+public class PortObjectPool {
+
+    private static final long WAIT_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final String name;
+    private final int minSize;
+    private final int maxSize;
+    private final long maxWaitNanos;
+    private final long idleTimeout;
+
+    private final AtomicReference<Node> head = new AtomicReference<Node>();
+    private final AtomicInteger idle = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicLong lastEviction = new AtomicLong(System.currentTimeMillis());
+
+    private final AtomicLong createdCount = new AtomicLong();
+    private final AtomicLong reusedCount = new AtomicLong();
+    private final AtomicLong evictedCount = new AtomicLong();
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private final AtomicLong waitCount = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanosSeen = new AtomicLong();
+
+    /**
+     * Constructor.
+     *
+     * @param name
+     *            the service name, used for reports
+     * @param minSize
+     *            number of idle port objects that are never evicted
+     * @param maxSize
+     *            maximum number of port objects, idle and in use
+     * @param maxWait
+     *            time in milliseconds to wait for a port object if
+     *            <code>maxSize</code> port objects are in use, 0 to not wait
+     * @param idleTimeout
+     *            time in milliseconds after which idle port objects above
+     *            <code>minSize</code> are evicted, 0 to never evict
+     */
+    public PortObjectPool(String name, int minSize, int maxSize, long maxWait, long idleTimeout) {
+        this.name = name;
+        this.maxSize = Math.max(maxSize, 1);
+        this.minSize = Math.min(Math.max(minSize, 0), this.maxSize);
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(maxWait, 0));
+        this.idleTimeout = Math.max(idleTimeout, 0);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getMinSize() {
+        return minSize;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Takes an idle port object from the pool.
+     * <p>
+     * If no port object is idle and <code>maxSize</code> port objects are in
+     * use, the method waits up to <code>maxWait</code> milliseconds for a port
+     * object to be released.
+     *
+     * @return an idle port object or <code>null</code> if the caller has to
+     *         create a new one
+     *
+     * @throws CmisConnectionException
+     *             if all port objects are still in use after
+     *             <code>maxWait</code> milliseconds
+     */
+    public BindingProvider acquire() {
+        active.incrementAndGet();
+
+        BindingProvider port = pop();
+        if (port != null) {
+            reusedCount.incrementAndGet();
+            return port;
+        }
+
+        if (reserve()) {
+            return null;
+        }
+
+        if (maxWaitNanos > 0) {
+            long start = System.nanoTime();
+            long deadline = start + maxWaitNanos;
+
+            boolean reserved = false;
+            do {
+                LockSupport.parkNanos(WAIT_INTERVAL_NANOS);
+                port = pop();
+            } while (port == null && !(reserved = reserve()) && System.nanoTime() - deadline < 0);
+
+            long waited = System.nanoTime() - start;
+            waitCount.incrementAndGet();
+            totalWaitNanos.addAndGet(waited);
+            long max;
+            while (waited > (max = maxWaitNanosSeen.get())) {
+                maxWaitNanosSeen.compareAndSet(max, waited);
+            }
+
+            if (port != null) {
+                reusedCount.incrementAndGet();
+                return port;
+            }
+
+            if (reserved) {
+                return null;
+            }
+        }
+
+        active.decrementAndGet();
+        rejectedCount.incrementAndGet();
+
+        throw new CmisConnectionException("All " + maxSize + " port objects of the " + name
+                + " are in use. Increase the port pool size or the maximum wait time.");
+    }
+
+    /**
+     * Reports that the caller created a new port object after
+     * {@link #acquire()} returned <code>null</code>.
+     */
+    public void created() {
+        createdCount.incrementAndGet();
+    }
+
+    /**
+     * Returns a port object to the pool. <code>null</code> frees the slot of
+     * a port object that could not be created or has been lost.
+     */
+    public void release(BindingProvider port) {
+        active.decrementAndGet();
+
+        long now = System.currentTimeMillis();
+
+        if (port == null) {
+            size.decrementAndGet();
+        } else {
+            idle.incrementAndGet();
+            push(port, now);
+        }
+
+        evictIdle(now);
+    }
+
+    // --- statistics ---
+
+    /**
+     * Returns the number of port objects created for this pool.
+     */
+    public long getCreatedCount() {
+        return createdCount.get();
+    }
+
+    /**
+     * Returns how many times an idle port object was reused.
+     */
+    public long getReusedCount() {
+        return reusedCount.get();
+    }
+
+    /**
+     * Returns the number of port objects removed by the idle eviction.
+     */
+    public long getEvictedCount() {
+        return evictedCount.get();
+    }
+
+    /**
+     * Returns how many callers got no port object because all port objects
+     * were in use.
+     */
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    /**
+     * Returns how many callers had to wait for a port object.
+     */
+    public long getWaitCount() {
+        return waitCount.get();
+    }
+
+    /**
+     * Returns the accumulated wait time in milliseconds.
+     */
+    public long getTotalWaitTime() {
+        return TimeUnit.NANOSECONDS.toMillis(totalWaitNanos.get());
+    }
+
+    /**
+     * Returns the longest wait time in milliseconds.
+     */
+    public long getMaxWaitTime() {
+        return TimeUnit.NANOSECONDS.toMillis(maxWaitNanosSeen.get());
+    }
+
+    public int getIdleCount() {
+        return idle.get();
+    }
+
+    public int getActiveCount() {
+        return active.get();
+    }
+
+    /**
+     * Returns the number of port objects, idle and in use, including port
+     * objects that are being created.
+     */
+    public int getSize() {
+        return size.get();
+    }
+
+    @Override
+    public String toString() {
+        return "PortObjectPool [name=" + name + ", min=" + minSize + ", max=" + maxSize + ", size=" + size.get()
+                + ", idle=" + idle.get() + ", active=" + active.get() + ", created=" + createdCount.get()
+                + ", reused=" + reusedCount.get() + ", evicted=" + evictedCount.get() + ", rejected="
+                + rejectedCount.get() + ", waits=" + waitCount.get() + ", totalWaitTime=" + getTotalWaitTime()
+                + "ms, maxWaitTime=" + getMaxWaitTime() + "ms]";
+    }
+
+    // --- internal ---
+
+    /**
+     * Reserves a slot for a new port object.
+     */
+    private boolean reserve() {
+        int count;
+        do {
+            count = size.get();
+            if (count >= maxSize) {
+                return false;
+            }
+        } while (!size.compareAndSet(count, count + 1));
+
+        return true;
+    }
+
+    private void push(BindingProvider port, long lastUsed) {
+        Node node = new Node(port, lastUsed);
+        Node top;
+        do {
+            top = head.get();
+            node.next = top;
+        } while (!head.compareAndSet(top, node));
+    }
+
+    private BindingProvider pop() {
+        while (true) {
+            Node top = head.get();
+            if (top == null) {
+                return null;
+            }
+
+            if (head.compareAndSet(top, top.next) && top.take()) {
+                idle.decrementAndGet();
+                return top.port;
+            }
+        }
+    }
+
+    /**
+     * Removes port objects that have been idle longer than the idle timeout.
+     * Runs at most twice per timeout period.
+     * <p>
+     * The stack stays in place, so concurrent callers keep getting the fresh
+     * port objects at the top. The expired port objects are marked as taken,
+     * which makes {@link #pop()} skip them, and the expired tail is cut off.
+     */
+    private void evictIdle(long now) {
+        if (idleTimeout == 0) {
+            return;
+        }
+
+        long last = lastEviction.get();
+        if (now - last < idleTimeout / 2 || !lastEviction.compareAndSet(last, now)) {
+            return;
+        }
+
+        Node first = head.get();
+        Node lastKept = null;
+        int kept = 0;
+        int removed = 0;
+        for (Node node = first; node != null; node = node.next) {
+            if (kept < minSize || now - node.lastUsed < idleTimeout) {
+                if (!node.isTaken()) {
+                    kept++;
+                    lastKept = node;
+                }
+            } else if (node.take()) {
+                node.port = null;
+                removed++;
+            }
+        }
+
+        // all nodes below the last kept node are taken, unlink them
+        if (lastKept != null) {
+            lastKept.next = null;
+        } else if (first != null) {
+            head.compareAndSet(first, null);
+        }
+
+        if (removed > 0) {
+            idle.addAndGet(-removed);
+            size.addAndGet(-removed);
+            evictedCount.addAndGet(removed);
+        }
+    }
+
+    private static class Node {
+        volatile BindingProvider port;
+        final long lastUsed;
+        volatile Node next;
+        private final AtomicBoolean taken = new AtomicBoolean();
+
+        Node(BindingProvider port, long lastUsed) {
+            this.port = port;
+            this.lastUsed = lastUsed;
+        }
+
+        boolean take() {
+            return taken.compareAndSet(false, true);
+        }
+
+        boolean isTaken() {
+            return taken.get();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.chemistry.opencmis.client.bindings.atompub;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.chemistry.opencmis.client.bindings.impl.SessionImpl;
+import org.apache.chemistry.opencmis.client.bindings.spi.atompub.LinkCache;
+import org.apache.chemistry.opencmis.commons.SessionParameter;
+import org.apache.chemistry.opencmis.commons.impl.Constants;
+import org.junit.Test;
+
+public class LinkSynthesisTest {
+
+    private static final String REPO = "repo";
+    private static final String BASE = "http://localhost/cmis/atom/repo/";
+
+    @Test
+    public void testDisabledByDefault() {
+        LinkCache cache = new LinkCache(new SessionImpl());
+        assertFalse(cache.isLinkSynthesisEnabled());
+
+        cache.addLink(REPO, "a", Constants.REL_ACL, Constants.MEDIATYPE_ACL, BASE + "acl?id=a");
+        cache.addLink(REPO, "b", Constants.REL_ACL, Constants.MEDIATYPE_ACL, BASE + "acl?id=b");
+
+        assertNull(cache.synthesizeLink(REPO, "c", Constants.REL_ACL, Constants.MEDIATYPE_ACL));
+    }
+
+    @Test
+    public void testLearnedTemplate() {
+        LinkCache cache = createCache();
+        assertTrue(cache.isLinkSynthesisEnabled());
+
+        // one object is not enough to confirm a template
+        cache.addLink(REPO, "a", Constants.REL_ACL, Constants.MEDIATYPE_ACL, BASE + "acl?id=a");
+        assertNull(cache.synthesizeLink(REPO, "c", Constants.REL_ACL, Constants.MEDIATYPE_ACL));
+
+        cache.addLink(REPO, "b", Constants.REL_ACL, Constants.MEDIATYPE_ACL, BASE + "acl?id=b");
+        assertEquals(BASE + "acl?id=c%2Fd", cache.synthesizeLink(REPO, "c/d", Constants.REL_ACL,
+                Constants.MEDIATYPE_ACL));
+
+        // links that depend on the object type are never synthesized
+        cache.addLink(REPO, "a", Constants.REL_DOWN, Constants.MEDIATYPE_FEED, BASE + "children?id=a");
+        cache.addLink(REPO, "b", Constants.REL_DOWN, Constants.MEDIATYPE_FEED, BASE + "children?id=b");
+        assertNull(cache.synthesizeLink(REPO, "c", Constants.REL_DOWN, Constants.MEDIATYPE_FEED));
+    }
+
+    @Test
+    public void testConflictingTemplate() {
+        LinkCache cache = createCache();
+
+        cache.addLink(REPO, "a", Constants.REL_POLICIES, Constants.MEDIATYPE_FEED, BASE + "policies?id=a");
+        cache.addLink(REPO, "b", Constants.REL_POLICIES, Constants.MEDIATYPE_FEED, BASE + "policies?id=b");
+        cache.addLink(REPO, "x", Constants.REL_POLICIES, Constants.MEDIATYPE_FEED, BASE + "p/x?v=1");
+        cache.addLink(REPO, "y", Constants.REL_POLICIES, Constants.MEDIATYPE_FEED, BASE + "policies?id=y");
+
+        assertNull(cache.synthesizeLink(REPO, "c", Constants.REL_POLICIES, Constants.MEDIATYPE_FEED));
+    }
+
+    @Test
+    public void testIdNotInLink() {
+        LinkCache cache = createCache();
+
+        cache.addLink(REPO, "a", Constants.REL_RELATIONSHIPS, Constants.MEDIATYPE_FEED, BASE + "rel/1");
+        cache.addLink(REPO, "b", Constants.REL_RELATIONSHIPS, Constants.MEDIATYPE_FEED, BASE + "rel/2");
+
+        assertNull(cache.synthesizeLink(REPO, "c", Constants.REL_RELATIONSHIPS, Constants.MEDIATYPE_FEED));
+    }
+
+    private static LinkCache createCache() {
+        SessionImpl session = new SessionImpl();
+        session.put(SessionParameter.ATOMPUB_LINK_SYNTHESIS, "true");
+        return new LinkCache(session);
+    }
+}
@@ -0,0 +1,219 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.chemistry.opencmis.client.bindings.webservices;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.xml.ws.Binding;
+import javax.xml.ws.BindingProvider;
+import javax.xml.ws.EndpointReference;
+
+import org.apache.chemistry.opencmis.client.bindings.spi.webservices.PortObjectPool;
+import org.apache.chemistry.opencmis.commons.exceptions.CmisConnectionException;
+import org.junit.Test;
+
+public class PortObjectPoolTest {
+
+    @Test
+    public void testReuse() {
+        PortObjectPool pool = new PortObjectPool("test", 0, 2, 0, 0);
+
+        assertNull(pool.acquire());
+        pool.created();
+        BindingProvider p1 = new DummyPort();
+        pool.release(p1);
+
+        assertSame(p1, pool.acquire());
+        assertEquals(1, pool.getActiveCount());
+        assertEquals(0, pool.getIdleCount());
+        pool.release(p1);
+
+        assertEquals(1, pool.getCreatedCount());
+        assertEquals(1, pool.getReusedCount());
+        assertEquals(0, pool.getActiveCount());
+    }
+
+    @Test
+    public void testMaxSize() {
+        PortObjectPool pool = new PortObjectPool("test", 0, 2, 0, 0);
+
+        assertNull(pool.acquire());
+        assertNull(pool.acquire());
+
+        // both port objects are in use, no third one may be created
+        try {
+            pool.acquire();
+            fail("Pool should be exhausted!");
+        } catch (CmisConnectionException e) {
+            // expected
+        }
+        assertEquals(1, pool.getRejectedCount());
+        assertEquals(2, pool.getActiveCount());
+
+        BindingProvider p1 = new DummyPort();
+        pool.release(p1);
+        assertSame(p1, pool.acquire());
+
+        // a lost port object frees its slot
+        pool.release(null);
+        assertEquals(1, pool.getSize());
+        assertNull(pool.acquire());
+        assertEquals(2, pool.getSize());
+    }
+
+    @Test
+    public void testConcurrentUse() throws Exception {
+        final PortObjectPool pool = new PortObjectPool("test", 1, 3, 5000, 2);
+        final AtomicInteger inUse = new AtomicInteger();
+        final AtomicInteger maxInUse = new AtomicInteger();
+        final AtomicInteger errors = new AtomicInteger();
+
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int i = 0; i < 8; i++) {
+            Thread t = new Thread(new Runnable() {
+                public void run() {
+                    for (int j = 0; j < 500; j++) {
+                        try {
+                            BindingProvider port = pool.acquire();
+                            if (port == null) {
+                                pool.created();
+                                port = new DummyPort();
+                            }
+
+                            int current = inUse.incrementAndGet();
+                            int max;
+                            while (current > (max = maxInUse.get())) {
+                                maxInUse.compareAndSet(max, current);
+                            }
+                            if (j % 50 == 0) {
+                                Thread.sleep(3);
+                            }
+                            inUse.decrementAndGet();
+
+                            pool.release(port);
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                    }
+                }
+            });
+            t.start();
+            threads.add(t);
+        }
+
+        for (Thread t : threads) {
+            t.join();
+        }
+
+        assertEquals(0, errors.get());
+        assertTrue(maxInUse.get() <= 3);
+        assertEquals(0, pool.getActiveCount());
+        assertEquals(pool.getSize(), pool.getIdleCount());
+        assertEquals(pool.getCreatedCount() - pool.getEvictedCount(), pool.getSize());
+    }
+
+    @Test
+    public void testIdleEviction() throws Exception {
+        PortObjectPool pool = new PortObjectPool("test", 1, 5, 0, 100);
+
+        for (int i = 0; i < 4; i++) {
+            assertNull(pool.acquire());
+        }
+        for (int i = 0; i < 3; i++) {
+            pool.release(new DummyPort());
+        }
+        assertEquals(3, pool.getIdleCount());
+        assertEquals(4, pool.getSize());
+
+        Thread.sleep(150);
+
+        // the next release triggers the eviction, only the released port
+        // object survives (it also satisfies the minimum)
+        BindingProvider fresh = new DummyPort();
+        pool.release(fresh);
+
+        assertEquals(1, pool.getIdleCount());
+        assertEquals(1, pool.getSize());
+        assertEquals(3, pool.getEvictedCount());
+        assertSame(fresh, pool.acquire());
+    }
+
+    @Test
+    public void testWait() throws Exception {
+        final PortObjectPool pool = new PortObjectPool("test", 0, 1, 2000, 0);
+        final BindingProvider port = new DummyPort();
+
+        assertNull(pool.acquire());
+        pool.created();
+
+        Thread t = new Thread(new Runnable() {
+            public void run() {
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                pool.release(port);
+            }
+        });
+        t.start();
+
+        // the maximum is in use, so this call waits for the release
+        assertSame(port, pool.acquire());
+        t.join();
+
+        assertEquals(1, pool.getWaitCount());
+        assertTrue(pool.getMaxWaitTime() < 2000);
+        assertEquals(1, pool.getCreatedCount());
+    }
+
+    private static class DummyPort implements BindingProvider {
+        private final Map<String, Object> requestContext = new HashMap<String, Object>();
+
+        public Map<String, Object> getRequestContext() {
+            return requestContext;
+        }
+
+        public Map<String, Object> getResponseContext() {
+            return null;
+        }
+
+        public Binding getBinding() {
+            return null;
+        }
+
+        public EndpointReference getEndpointReference() {
+            return null;
+        }
+
+        public <T extends EndpointReference> T getEndpointReference(Class<T> clazz) {
+            return null;
+        }
+    }
+}
@@ -28,6 +28,8 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import org.apache.chemistry.opencmis.client.api.CmisObject;
@@ -46,12 +48,15 @@ import org.apache.chemistry.opencmis.commons.data.Acl;
 import org.apache.chemistry.opencmis.commons.data.AllowableActions;
 import org.apache.chemistry.opencmis.commons.data.CmisExtensionElement;
 import org.apache.chemistry.opencmis.commons.data.ObjectData;
+import org.apache.chemistry.opencmis.commons.data.Properties;
+import org.apache.chemistry.opencmis.commons.data.PropertyData;
 import org.apache.chemistry.opencmis.commons.data.RenditionData;
 import org.apache.chemistry.opencmis.commons.definitions.PropertyDefinition;
 import org.apache.chemistry.opencmis.commons.enums.AclPropagation;
 import org.apache.chemistry.opencmis.commons.enums.BaseTypeId;
 import org.apache.chemistry.opencmis.commons.enums.ExtensionLevel;
 import org.apache.chemistry.opencmis.commons.enums.Updatability;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.PropertiesImpl;
 import org.apache.chemistry.opencmis.commons.spi.CmisBinding;
 import org.apache.chemistry.opencmis.commons.spi.Holder;
 
@@ -66,6 +71,8 @@ public abstract class AbstractCmisObject implements CmisObject, Serializable {
     private ObjectType objectType;
     private List<SecondaryType> secondaryTypes;
     private Map<String, Property<?>> properties;
+    private Properties propertiesData;
+    private ConcurrentMap<String, Property<?>> lazyProperties;
     private AllowableActions allowableActions;
     private List<Rendition> renditions;
     private Acl acl;
@@ -99,6 +106,9 @@ public abstract class AbstractCmisObject implements CmisObject, Serializable {
         this.session = session;
         this.objectType = objectType;
         this.secondaryTypes = null;
+        this.properties = null;
+        this.propertiesData = null;
+        this.lazyProperties = null;
         this.extensions = new EnumMap<ExtensionLevel, List<CmisExtensionElement>>(ExtensionLevel.class);
         this.creationContext = new OperationContextImpl(context);
         this.refreshTimestamp = System.currentTimeMillis();
@@ -130,7 +140,17 @@ public abstract class AbstractCmisObject implements CmisObject, Serializable {
                     }
                 }
 
-                this.properties = of.convertProperties(objectType, secondaryTypes, objectData.getProperties());
+                if (session.isLazyProperties()) {
+                    // keep the property data and create the property objects
+                    // when they are requested
+                    if (objectData.getProperties().getProperties() == null) {
+                        throw new IllegalArgumentException("Properties must be set!");
+                    }
+                    this.propertiesData = objectData.getProperties();
+                    this.lazyProperties = new ConcurrentHashMap<String, Property<?>>();
+                } else {
+                    this.properties = of.convertProperties(objectType, secondaryTypes, objectData.getProperties());
+                }
                 extensions.put(ExtensionLevel.PROPERTIES, objectData.getProperties().getExtensions());
             }
 
@@ -444,6 +464,14 @@ public abstract class AbstractCmisObject implements CmisObject, Serializable {
     public List<Property<?>> getProperties() {
         readLock();
         try {
+            if (this.propertiesData != null) {
+                List<Property<?>> result = new ArrayList<Property<?>>(this.propertiesData.getProperties().size());
+                for (String id : this.propertiesData.getProperties().keySet()) {
+                    result.add(getLazyProperty(id));
+                }
+                return Collections.unmodifiableList(result);
+            }
+
             return Collections.unmodifiableList(new ArrayList<Property<?>>(this.properties.values()));
         } finally {
             readUnlock();
@@ -454,12 +482,46 @@ public abstract class AbstractCmisObject implements CmisObject, Serializable {
     public <T> Property<T> getProperty(String id) {
         readLock();
         try {
+            if (this.propertiesData != null) {
+                return (Property<T>) getLazyProperty(id);
+            }
+
             return (Property<T>) this.properties.get(id);
         } finally {
             readUnlock();
         }
     }
 
+    /**
+     * Returns a property in lazy mode, creating the property object if it
+     * hasn't been requested before. Callers must hold the read lock.
+     */
+    private Property<?> getLazyProperty(String id) {
+        Property<?> property = this.lazyProperties.get(id);
+        if (property != null) {
+            return property;
+        }
+
+        PropertyData<?> data = this.propertiesData.getProperties().get(id);
+        if (data == null) {
+            return null;
+        }
+
+        // let the object factory convert the property, so that custom
+        // factories see the same calls as in eager mode
+        PropertiesImpl single = new PropertiesImpl();
+        single.addProperty(data);
+        property = getObjectFactory().convertProperties(this.objectType, this.secondaryTypes, single).get(id);
+        if (property == null) {
+            return null;
+        }
+
+        // concurrent readers may have created the property, too
+        Property<?> existing = this.lazyProperties.putIfAbsent(id, property);
+
+        return existing == null ? property : existing;
+    }
+
     @SuppressWarnings("unchecked")
     public <T> T getPropertyValue(String id) {
         Property<T> property = getProperty(id);
@@ -18,18 +18,31 @@
  */
 package org.apache.chemistry.opencmis.client.runtime;
 
+import java.io.File;
 import java.math.BigInteger;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import org.apache.chemistry.opencmis.client.api.ChangeEvent;
@@ -50,11 +63,16 @@ import org.apache.chemistry.opencmis.client.api.SecondaryType;
 import org.apache.chemistry.opencmis.client.api.Session;
 import org.apache.chemistry.opencmis.client.api.Tree;
 import org.apache.chemistry.opencmis.client.bindings.cache.TypeDefinitionCache;
+import org.apache.chemistry.opencmis.client.bindings.spi.http.ConditionalContentAccess;
+import org.apache.chemistry.opencmis.client.bindings.spi.http.ContentValidators;
+import org.apache.chemistry.opencmis.client.bindings.spi.http.ValidatedContentStream;
 import org.apache.chemistry.opencmis.client.runtime.cache.Cache;
 import org.apache.chemistry.opencmis.client.runtime.cache.CacheImpl;
+import org.apache.chemistry.opencmis.client.runtime.cache.ContentCache;
 import org.apache.chemistry.opencmis.client.runtime.repository.ObjectFactoryImpl;
 import org.apache.chemistry.opencmis.client.runtime.util.AbstractPageFetcher;
 import org.apache.chemistry.opencmis.client.runtime.util.CollectionIterable;
+import org.apache.chemistry.opencmis.client.runtime.util.RequestCoalescer;
 import org.apache.chemistry.opencmis.client.runtime.util.TreeImpl;
 import org.apache.chemistry.opencmis.client.util.OperationContextUtils;
 import org.apache.chemistry.opencmis.commons.PropertyIds;
@@ -62,28 +80,56 @@ import org.apache.chemistry.opencmis.commons.SessionParameter;
 import org.apache.chemistry.opencmis.commons.data.Ace;
 import org.apache.chemistry.opencmis.commons.data.Acl;
 import org.apache.chemistry.opencmis.commons.data.BulkUpdateObjectIdAndChangeToken;
+import org.apache.chemistry.opencmis.commons.data.CmisExtensionElement;
 import org.apache.chemistry.opencmis.commons.data.ContentStream;
+import org.apache.chemistry.opencmis.commons.data.ExtensionsData;
 import org.apache.chemistry.opencmis.commons.data.ObjectData;
 import org.apache.chemistry.opencmis.commons.data.ObjectList;
+import org.apache.chemistry.opencmis.commons.data.PropertyBoolean;
 import org.apache.chemistry.opencmis.commons.data.PropertyData;
+import org.apache.chemistry.opencmis.commons.data.PropertyDateTime;
+import org.apache.chemistry.opencmis.commons.data.PropertyDecimal;
+import org.apache.chemistry.opencmis.commons.data.PropertyHtml;
+import org.apache.chemistry.opencmis.commons.data.PropertyId;
+import org.apache.chemistry.opencmis.commons.data.PropertyInteger;
+import org.apache.chemistry.opencmis.commons.data.PropertyString;
+import org.apache.chemistry.opencmis.commons.data.PropertyUri;
 import org.apache.chemistry.opencmis.commons.data.RepositoryInfo;
+import org.apache.chemistry.opencmis.commons.definitions.PropertyDefinition;
 import org.apache.chemistry.opencmis.commons.definitions.TypeDefinition;
 import org.apache.chemistry.opencmis.commons.definitions.TypeDefinitionContainer;
 import org.apache.chemistry.opencmis.commons.definitions.TypeDefinitionList;
 import org.apache.chemistry.opencmis.commons.enums.AclPropagation;
 import org.apache.chemistry.opencmis.commons.enums.BaseTypeId;
 import org.apache.chemistry.opencmis.commons.enums.BindingType;
+import org.apache.chemistry.opencmis.commons.enums.CapabilityQuery;
 import org.apache.chemistry.opencmis.commons.enums.CmisVersion;
 import org.apache.chemistry.opencmis.commons.enums.IncludeRelationships;
 import org.apache.chemistry.opencmis.commons.enums.RelationshipDirection;
 import org.apache.chemistry.opencmis.commons.enums.Updatability;
 import org.apache.chemistry.opencmis.commons.enums.VersioningState;
+import org.apache.chemistry.opencmis.commons.exceptions.CmisBaseException;
 import org.apache.chemistry.opencmis.commons.exceptions.CmisConstraintException;
 import org.apache.chemistry.opencmis.commons.exceptions.CmisNotSupportedException;
+import org.apache.chemistry.opencmis.commons.exceptions.CmisObjectNotFoundException;
+import org.apache.chemistry.opencmis.commons.exceptions.CmisPermissionDeniedException;
 import org.apache.chemistry.opencmis.commons.exceptions.CmisRuntimeException;
 import org.apache.chemistry.opencmis.commons.impl.ClassLoaderUtil;
 import org.apache.chemistry.opencmis.commons.impl.Constants;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.AbstractPropertyData;
 import org.apache.chemistry.opencmis.commons.impl.dataobjects.BulkUpdateObjectIdAndChangeTokenImpl;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.CmisExtensionElementImpl;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.ExtensionDataImpl;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.ObjectDataImpl;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.PropertiesImpl;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.PropertyBooleanImpl;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.PropertyDateTimeImpl;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.PropertyDecimalImpl;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.PropertyHtmlImpl;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.PropertyIdImpl;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.PropertyIntegerImpl;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.PropertyStringImpl;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.PropertyUriImpl;
 import org.apache.chemistry.opencmis.commons.spi.AclService;
 import org.apache.chemistry.opencmis.commons.spi.AuthenticationProvider;
 import org.apache.chemistry.opencmis.commons.spi.CmisBinding;
@@ -92,6 +138,7 @@ import org.apache.chemistry.opencmis.commons.spi.ExtendedAclService;
 import org.apache.chemistry.opencmis.commons.spi.ExtendedHolder;
 import org.apache.chemistry.opencmis.commons.spi.Holder;
 import org.apache.chemistry.opencmis.commons.spi.NavigationService;
+import org.apache.chemistry.opencmis.commons.spi.ObjectService;
 import org.apache.chemistry.opencmis.commons.spi.RelationshipService;
 import org.apache.chemistry.opencmis.commons.spi.RepositoryService;
 
@@ -103,6 +150,35 @@ public class SessionImpl implements Session {
     private static final OperationContext DEFAULT_CONTEXT = new OperationContextImpl(null, false, true, false,
             IncludeRelationships.NONE, null, true, null, true, 100);
 
+    private static final long DEFAULT_CONTENT_CACHE_SIZE = 100 * 1024 * 1024;
+    private static final int BULK_FETCH_CHUNK_SIZE = 100;
+    private static final int BULK_FETCH_THREADS = 4;
+
+    /**
+     * Extension element that carries a query cursor token between query pages.
+     * Repositories that support query cursors serve later pages of a query
+     * from the sorted result of an earlier page.
+     */
+    private static final String QUERY_CURSOR_NAMESPACE = "http://chemistry.apache.org/opencmis/query";
+    private static final String QUERY_CURSOR_NAME = "queryCursor";
+
+    /**
+     * Executor shared by all sessions for parallel {@code getObject} calls of
+     * {@link #getObjects(Collection, OperationContext)}. It has at most
+     * {@code BULK_FETCH_THREADS} threads, further calls run in the calling
+     * thread.
+     */
+    private static final ExecutorService BULK_FETCH_EXECUTOR = new ThreadPoolExecutor(0, BULK_FETCH_THREADS, 60,
+            TimeUnit.SECONDS, new SynchronousQueue<Runnable>(), new ThreadFactory() {
+                private final AtomicInteger count = new AtomicInteger();
+
+                public Thread newThread(Runnable r) {
+                    Thread thread = new Thread(r, "OpenCMIS getObjects " + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            }, new ThreadPoolExecutor.CallerRunsPolicy());
+
     private static final Set<Updatability> CREATE_UPDATABILITY = EnumSet.noneOf(Updatability.class);
     private static final Set<Updatability> CREATE_AND_CHECKOUT_UPDATABILITY = EnumSet.noneOf(Updatability.class);
 
@@ -155,6 +231,23 @@ public class SessionImpl implements Session {
     private Cache cache;
     private final boolean cachePathOmit;
 
+    /*
+     * Create object properties on first access?
+     */
+    private final boolean lazyProperties;
+
+    /*
+     * Coalescers for concurrent cache misses (serializable)
+     */
+    private final RequestCoalescer<CmisObject> objectRequests = new RequestCoalescer<CmisObject>();
+    private final RequestCoalescer<CmisObject> pathRequests = new RequestCoalescer<CmisObject>();
+
+    /*
+     * Content cache (shared by all sessions with the same cache directory,
+     * not serializable, looked up on first use)
+     */
+    private transient ContentCache contentCache;
+
     /*
      * Type cache.
      */
@@ -188,6 +281,7 @@ public class SessionImpl implements Session {
         this.typeDefCache = typeDefCache;
 
         cachePathOmit = Boolean.parseBoolean(parameters.get(SessionParameter.CACHE_PATH_OMIT));
+        lazyProperties = Boolean.parseBoolean(parameters.get(SessionParameter.LAZY_PROPERTIES));
     }
 
     private Locale determineLocale(Map<String, String> parameters) {
@@ -265,6 +359,35 @@ public class SessionImpl implements Session {
         }
     }
 
+    /**
+     * Returns the content cache or <code>null</code> if no content cache
+     * directory has been configured.
+     */
+    private ContentCache getContentCache() {
+        String directory = parameters.get(SessionParameter.CONTENT_CACHE_DIRECTORY);
+        if (directory == null) {
+            return null;
+        }
+
+        synchronized (this) {
+            if (contentCache == null) {
+                long size = DEFAULT_CONTENT_CACHE_SIZE;
+                String sizeStr = parameters.get(SessionParameter.CONTENT_CACHE_SIZE);
+                if (sizeStr != null) {
+                    try {
+                        size = Long.parseLong(sizeStr.trim());
+                    } catch (NumberFormatException e) {
+                        throw new IllegalArgumentException("Invalid content cache size: " + sizeStr, e);
+                    }
+                }
+
+                contentCache = ContentCache.getInstance(new File(directory), size);
+            }
+
+            return contentCache;
+        }
+    }
+
     public void clear() {
         lock.writeLock().lock();
         try {
@@ -286,6 +409,16 @@ public class SessionImpl implements Session {
         return objectFactory;
     }
 
+    /**
+     * Returns whether objects of this session create their property objects
+     * on first access.
+     *
+     * @see SessionParameter#LAZY_PROPERTIES
+     */
+    protected boolean isLazyProperties() {
+        return lazyProperties;
+    }
+
     public ItemIterable<Document> getCheckedOutDocs() {
         return getCheckedOutDocs(getDefaultContext());
     }
@@ -494,7 +627,7 @@ public class SessionImpl implements Session {
         return getObject(objectId, getDefaultContext());
     }
 
-    public CmisObject getObject(String objectId, OperationContext context) {
+    public CmisObject getObject(final String objectId, final OperationContext context) {
         if (objectId == null) {
             throw new IllegalArgumentException("Object ID must be set!");
         }
@@ -502,36 +635,47 @@ public class SessionImpl implements Session {
             throw new IllegalArgumentException("Operation context must be set!");
         }
 
-        CmisObject result = null;
+        if (!context.isCacheEnabled()) {
+            return fetchObject(objectId, context);
+        }
 
         // ask the cache first
-        if (context.isCacheEnabled()) {
-            result = cache.getById(objectId, context.getCacheKey());
-            if (result != null) {
-                return result;
-            }
+        CmisObject result = cache.getById(objectId, context.getCacheKey());
+        if (result != null) {
+            return result;
         }
 
-        // get the object
+        // cache miss -> share the request with other threads that are
+        // asking for the same object at the same time
+        return objectRequests.execute(objectId, context.getCacheKey(), new Callable<CmisObject>() {
+            public CmisObject call() {
+                // another thread might have filled the cache in the meantime
+                CmisObject object = cache.getById(objectId, context.getCacheKey());
+                if (object != null) {
+                    return object;
+                }
+
+                object = fetchObject(objectId, context);
+                cache.put(object, context.getCacheKey());
+
+                return object;
+            }
+        });
+    }
+
+    private CmisObject fetchObject(String objectId, OperationContext context) {
         ObjectData objectData = binding.getObjectService().getObject(getRepositoryId(), objectId,
                 context.getFilterString(), context.isIncludeAllowableActions(), context.getIncludeRelationships(),
                 context.getRenditionFilterString(), context.isIncludePolicies(), context.isIncludeAcls(), null);
 
-        result = getObjectFactory().convertObject(objectData, context);
-
-        // put into cache
-        if (context.isCacheEnabled()) {
-            cache.put(result, context.getCacheKey());
-        }
-
-        return result;
+        return getObjectFactory().convertObject(objectData, context);
     }
 
     public CmisObject getObjectByPath(String path) {
         return getObjectByPath(path, getDefaultContext());
     }
 
-    public CmisObject getObjectByPath(String path, OperationContext context) {
+    public CmisObject getObjectByPath(final String path, final OperationContext context) {
         if (path == null) {
             throw new IllegalArgumentException("Path must be set!");
         }
@@ -539,31 +683,384 @@ public class SessionImpl implements Session {
             throw new IllegalArgumentException("Operation context must be set!");
         }
 
-        CmisObject result = null;
+        if (!context.isCacheEnabled()) {
+            return fetchObjectByPath(path, context);
+        }
 
         // ask the cache first
-        if (context.isCacheEnabled() && !cachePathOmit) {
-            result = cache.getByPath(path, context.getCacheKey());
+        if (!cachePathOmit) {
+            CmisObject result = cache.getByPath(path, context.getCacheKey());
             if (result != null) {
                 return result;
             }
         }
 
-        // get the object
+        // cache miss -> share the request with other threads that are
+        // asking for the same path at the same time
+        return pathRequests.execute(path, context.getCacheKey(), new Callable<CmisObject>() {
+            public CmisObject call() {
+                // another thread might have filled the cache in the meantime
+                if (!cachePathOmit) {
+                    CmisObject object = cache.getByPath(path, context.getCacheKey());
+                    if (object != null) {
+                        return object;
+                    }
+                }
+
+                CmisObject object = fetchObjectByPath(path, context);
+                cache.putPath(path, object, context.getCacheKey());
+
+                return object;
+            }
+        });
+    }
+
+    private CmisObject fetchObjectByPath(String path, OperationContext context) {
         ObjectData objectData = binding.getObjectService().getObjectByPath(getRepositoryId(), path,
                 context.getFilterString(), context.isIncludeAllowableActions(), context.getIncludeRelationships(),
                 context.getRenditionFilterString(), context.isIncludePolicies(), context.isIncludeAcls(), null);
 
-        result = getObjectFactory().convertObject(objectData, context);
+        return getObjectFactory().convertObject(objectData, context);
+    }
 
-        // put into cache
-        if (context.isCacheEnabled()) {
-            cache.putPath(path, result, context.getCacheKey());
+    public List<CmisObject> getObjects(Collection<ObjectId> objectIds, OperationContext context) {
+        if (objectIds == null) {
+            throw new IllegalArgumentException("Object IDs must be set!");
+        }
+        if (context == null) {
+            throw new IllegalArgumentException("Operation context must be set!");
+        }
+
+        List<String> ids = new ArrayList<String>(objectIds.size());
+        for (ObjectId objectId : objectIds) {
+            if (objectId == null || objectId.getId() == null) {
+                throw new IllegalArgumentException("Object ID must be set!");
+            }
+            ids.add(objectId.getId());
+        }
+
+        Map<String, CmisObject> objects = new HashMap<String, CmisObject>();
+
+        // ask the cache first
+        Set<String> missing = new LinkedHashSet<String>();
+        for (String id : ids) {
+            if (objects.containsKey(id) || missing.contains(id)) {
+                continue;
+            }
+
+            CmisObject object = null;
+            if (context.isCacheEnabled()) {
+                object = cache.getById(id, context.getCacheKey());
+            }
+
+            if (object != null) {
+                objects.put(id, object);
+            } else {
+                missing.add(id);
+            }
+        }
+
+        // query the missing objects in chunks, if possible
+        if (!missing.isEmpty()) {
+            List<ObjectType> queryTypes = getBulkQueryTypes(context);
+            if (!queryTypes.isEmpty()) {
+                List<String> missingList = new ArrayList<String>(missing);
+                for (int i = 0; i < missingList.size(); i += BULK_FETCH_CHUNK_SIZE) {
+                    List<String> chunk = missingList.subList(i,
+                            Math.min(i + BULK_FETCH_CHUNK_SIZE, missingList.size()));
+                    queryObjectChunk(chunk, queryTypes, context, objects);
+                }
+
+                missing.removeAll(objects.keySet());
+            }
+        }
+
+        // fetch the rest one by one
+        if (!missing.isEmpty()) {
+            fetchObjectsInParallel(missing, context, objects);
+        }
+
+        List<CmisObject> result = new ArrayList<CmisObject>(ids.size());
+        for (String id : ids) {
+            result.add(objects.get(id));
         }
 
         return result;
     }
 
+    /**
+     * Returns the base types that can be used to query objects for the given
+     * context. Queries don't deliver ACLs and policies and only return the
+     * properties defined by the type in the FROM clause. Therefore, a base
+     * type is only used if the context has an explicit property filter that
+     * the base type fully covers.
+     */
+    private List<ObjectType> getBulkQueryTypes(OperationContext context) {
+        List<ObjectType> result = new ArrayList<ObjectType>();
+
+        RepositoryInfo info = getRepositoryInfo();
+        if (info == null || info.getCapabilities() == null) {
+            return result;
+        }
+
+        CapabilityQuery queryCapability = info.getCapabilities().getQueryCapability();
+        if (queryCapability == null || queryCapability == CapabilityQuery.NONE
+                || queryCapability == CapabilityQuery.FULLTEXTONLY) {
+            return result;
+        }
+
+        if (context.isIncludeAcls() || context.isIncludePolicies()) {
+            return result;
+        }
+
+        String filterString = context.getFilterString();
+        if (filterString == null || filterString.equals(OperationContextImpl.PROPERTIES_STAR)) {
+            return result;
+        }
+
+        for (BaseTypeId baseTypeId : new BaseTypeId[] { BaseTypeId.CMIS_DOCUMENT, BaseTypeId.CMIS_FOLDER }) {
+            ObjectType type;
+            try {
+                type = getTypeDefinition(baseTypeId.value());
+            } catch (CmisObjectNotFoundException e) {
+                continue;
+            }
+
+            if (!Boolean.TRUE.equals(type.isQueryable()) || type.getPropertyDefinitions() == null) {
+                continue;
+            }
+
+            boolean coversFilter = true;
+            for (String propertyId : filterString.split(",")) {
+                if (!type.getPropertyDefinitions().containsKey(propertyId)) {
+                    coversFilter = false;
+                    break;
+                }
+            }
+
+            if (coversFilter) {
+                result.add(type);
+            }
+        }
+
+        return result;
+    }
+
+    private void queryObjectChunk(List<String> chunk, List<ObjectType> queryTypes, OperationContext context,
+            Map<String, CmisObject> objects) {
+        OperationContext ctxt = new OperationContextImpl(context);
+
+        List<ObjectId> pending = new ArrayList<ObjectId>(chunk.size());
+        for (String id : chunk) {
+            pending.add(createObjectId(id));
+        }
+
+        Set<String> chunkIds = new HashSet<String>(chunk);
+
+        for (ObjectType type : queryTypes) {
+            if (pending.isEmpty()) {
+                break;
+            }
+
+            StringBuilder select = new StringBuilder();
+            for (String propertyId : ctxt.getFilterString().split(",")) {
+                PropertyDefinition<?> propDef = type.getPropertyDefinitions().get(propertyId);
+                if (select.length() > 0) {
+                    select.append(',');
+                }
+                select.append(propDef.getQueryName());
+            }
+
+            QueryStatement statement = createQueryStatement("SELECT " + select + " FROM " + type.getQueryName()
+                    + " WHERE " + PropertyIds.OBJECT_ID + " IN (?)");
+            statement.setId(1, pending.toArray(new ObjectId[pending.size()]));
+
+            ObjectList resultList;
+            try {
+                resultList = getBinding().getDiscoveryService().query(getRepositoryId(),
+                        statement.toQueryString(), false, ctxt.isIncludeAllowableActions(),
+                        ctxt.getIncludeRelationships(), ctxt.getRenditionFilterString(),
+                        BigInteger.valueOf(pending.size()), null, null);
+            } catch (CmisBaseException e) {
+                // the repository didn't accept the query
+                // -> the objects are fetched one by one
+                return;
+            }
+
+            if (resultList.getObjects() == null) {
+                continue;
+            }
+
+            for (ObjectData objectData : resultList.getObjects()) {
+                if (objectData == null) {
+                    continue;
+                }
+
+                CmisObject object = getObjectFactory().convertObject(toPropertyIds(objectData, type), ctxt);
+                if (object.getId() == null || !chunkIds.contains(object.getId())) {
+                    continue;
+                }
+
+                if (context.isCacheEnabled()) {
+                    cache.put(object, context.getCacheKey());
+                }
+
+                objects.put(object.getId(), object);
+            }
+
+            for (Iterator<ObjectId> iter = pending.iterator(); iter.hasNext();) {
+                if (objects.containsKey(iter.next().getId())) {
+                    iter.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * Query results may use query names instead of property IDs as property
+     * keys (the Browser binding does). This returns a copy of the object data
+     * with property IDs. The given object data is not modified.
+     */
+    private static ObjectData toPropertyIds(ObjectData objectData, ObjectType type) {
+        if (objectData.getProperties() == null || objectData.getProperties().getPropertyList() == null) {
+            return objectData;
+        }
+
+        Map<String, String> idsByQueryName = new HashMap<String, String>();
+        for (PropertyDefinition<?> propDef : type.getPropertyDefinitions().values()) {
+            idsByQueryName.put(propDef.getQueryName(), propDef.getId());
+        }
+
+        boolean renamed = false;
+        PropertiesImpl properties = new PropertiesImpl();
+        for (PropertyData<?> property : objectData.getProperties().getPropertyList()) {
+            String id = property.getId();
+            if (!type.getPropertyDefinitions().containsKey(id) && idsByQueryName.containsKey(id)) {
+                PropertyData<?> copy = copyProperty(property, idsByQueryName.get(id));
+                if (copy != null) {
+                    property = copy;
+                    renamed = true;
+                }
+            }
+            properties.addProperty(property);
+        }
+
+        if (!renamed) {
+            return objectData;
+        }
+
+        properties.setExtensions(objectData.getProperties().getExtensions());
+
+        ObjectDataImpl result = new ObjectDataImpl();
+        result.setProperties(properties);
+        result.setAllowableActions(objectData.getAllowableActions());
+        result.setRelationships(objectData.getRelationships());
+        result.setChangeEventInfo(objectData.getChangeEventInfo());
+        result.setAcl(objectData.getAcl());
+        result.setIsExactAcl(objectData.isExactAcl());
+        result.setPolicyIds(objectData.getPolicyIds());
+        result.setRenditions(objectData.getRenditions());
+        result.setExtensions(objectData.getExtensions());
+
+        return result;
+    }
+
+    /**
+     * Copies a property with a new property ID. Returns {@code null} if the
+     * property type is unknown.
+     */
+    private static PropertyData<?> copyProperty(PropertyData<?> property, String id) {
+        AbstractPropertyData<?> result;
+        if (property instanceof PropertyId) {
+            result = new PropertyIdImpl(id, ((PropertyId) property).getValues());
+        } else if (property instanceof PropertyString) {
+            result = new PropertyStringImpl(id, ((PropertyString) property).getValues());
+        } else if (property instanceof PropertyBoolean) {
+            result = new PropertyBooleanImpl(id, ((PropertyBoolean) property).getValues());
+        } else if (property instanceof PropertyInteger) {
+            result = new PropertyIntegerImpl(id, ((PropertyInteger) property).getValues());
+        } else if (property instanceof PropertyDecimal) {
+            result = new PropertyDecimalImpl(id, ((PropertyDecimal) property).getValues());
+        } else if (property instanceof PropertyDateTime) {
+            result = new PropertyDateTimeImpl(id, ((PropertyDateTime) property).getValues());
+        } else if (property instanceof PropertyHtml) {
+            result = new PropertyHtmlImpl(id, ((PropertyHtml) property).getValues());
+        } else if (property instanceof PropertyUri) {
+            result = new PropertyUriImpl(id, ((PropertyUri) property).getValues());
+        } else {
+            return null;
+        }
+
+        result.setDisplayName(property.getDisplayName());
+        result.setLocalName(property.getLocalName());
+        result.setQueryName(property.getQueryName());
+        result.setExtensions(property.getExtensions());
+
+        return result;
+    }
+
+    private void fetchObjectsInParallel(Collection<String> ids, final OperationContext context,
+            Map<String, CmisObject> objects) {
+        Map<String, Future<CmisObject>> futures = new HashMap<String, Future<CmisObject>>();
+        for (final String id : ids) {
+            futures.put(id, BULK_FETCH_EXECUTOR.submit(new Callable<CmisObject>() {
+                public CmisObject call() {
+                    try {
+                        return getObject(id, context);
+                    } catch (CmisObjectNotFoundException e) {
+                        return null;
+                    } catch (CmisPermissionDeniedException e) {
+                        return null;
+                    }
+                }
+            }));
+        }
+
+        try {
+            for (Map.Entry<String, Future<CmisObject>> entry : futures.entrySet()) {
+                CmisObject object;
+                try {
+                    object = entry.getValue().get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new CmisRuntimeException("Interrupted while fetching objects!", e);
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof RuntimeException) {
+                        throw (RuntimeException) e.getCause();
+                    }
+                    throw new CmisRuntimeException(e.getCause().getMessage(), e.getCause());
+                }
+
+                if (object != null) {
+                    objects.put(entry.getKey(), object);
+                }
+            }
+        } finally {
+            // don't keep the shared threads busy after a failure
+            for (Future<CmisObject> future : futures.values()) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of <code>getObject()</code> calls that missed the
+     * cache and joined a request for the same object that was already in
+     * flight instead of calling the repository.
+     */
+    public long getCoalescedObjectRequestCount() {
+        return objectRequests.getCoalescedCount();
+    }
+
+    /**
+     * Returns the number of <code>getObjectByPath()</code> calls that missed
+     * the cache and joined a request for the same path that was already in
+     * flight instead of calling the repository.
+     */
+    public long getCoalescedPathRequestCount() {
+        return pathRequests.getCoalescedCount();
+    }
+
     public Document getLatestDocumentVersion(ObjectId objectId) {
         return getLatestDocumentVersion(objectId, false, getDefaultContext());
     }
@@ -864,6 +1361,8 @@ public class SessionImpl implements Session {
 
         return new CollectionIterable<QueryResult>(new AbstractPageFetcher<QueryResult>(ctxt.getMaxItemsPerPage()) {
 
+            private volatile String cursorToken;
+
             @Override
             protected AbstractPageFetcher.Page<QueryResult> fetchPage(long skipCount) {
 
@@ -871,7 +1370,8 @@ public class SessionImpl implements Session {
                 ObjectList resultList = discoveryService.query(getRepositoryId(), statement, searchAllVersions,
                         ctxt.isIncludeAllowableActions(), ctxt.getIncludeRelationships(),
                         ctxt.getRenditionFilterString(), BigInteger.valueOf(this.maxNumItems),
-                        BigInteger.valueOf(skipCount), null);
+                        BigInteger.valueOf(skipCount), createQueryCursorExtension(cursorToken));
+                cursorToken = getQueryCursorToken(resultList);
 
                 // convert query results
                 List<QueryResult> page = new ArrayList<QueryResult>();
@@ -930,6 +1430,8 @@ public class SessionImpl implements Session {
 
         return new CollectionIterable<CmisObject>(new AbstractPageFetcher<CmisObject>(ctxt.getMaxItemsPerPage()) {
 
+            private volatile String cursorToken;
+
             @Override
             protected AbstractPageFetcher.Page<CmisObject> fetchPage(long skipCount) {
 
@@ -937,7 +1439,8 @@ public class SessionImpl implements Session {
                 ObjectList resultList = discoveryService.query(getRepositoryId(), statement.toString(),
                         searchAllVersions, ctxt.isIncludeAllowableActions(), ctxt.getIncludeRelationships(),
                         ctxt.getRenditionFilterString(), BigInteger.valueOf(this.maxNumItems),
-                        BigInteger.valueOf(skipCount), null);
+                        BigInteger.valueOf(skipCount), createQueryCursorExtension(cursorToken));
+                cursorToken = getQueryCursorToken(resultList);
 
                 // convert query results
                 List<CmisObject> page = new ArrayList<CmisObject>();
@@ -957,6 +1460,38 @@ public class SessionImpl implements Session {
         });
     }
 
+    /**
+     * Creates the query cursor extension for a query page request. Without a
+     * token the element asks the repository for a cursor, with a token it
+     * refers to the cursor of an earlier page. The AtomPub and Browser
+     * bindings don't send request extensions, so the repository never creates
+     * cursors for them.
+     */
+    private static ExtensionsData createQueryCursorExtension(String token) {
+        ExtensionDataImpl extension = new ExtensionDataImpl();
+        extension.setExtensions(Collections.singletonList((CmisExtensionElement) new CmisExtensionElementImpl(
+                QUERY_CURSOR_NAMESPACE, QUERY_CURSOR_NAME, null, token)));
+        return extension;
+    }
+
+    /**
+     * Returns the query cursor token of a query page or <code>null</code> if
+     * the repository hasn't returned one.
+     */
+    private static String getQueryCursorToken(ObjectList resultList) {
+        if (resultList.getExtensions() == null) {
+            return null;
+        }
+
+        for (CmisExtensionElement element : resultList.getExtensions()) {
+            if (QUERY_CURSOR_NAME.equals(element.getName()) && QUERY_CURSOR_NAMESPACE.equals(element.getNamespace())) {
+                return element.getValue();
+            }
+        }
+
+        return null;
+    }
+
     public QueryStatement createQueryStatement(final String statement) {
         return new QueryStatementImpl(this, statement);
     }
@@ -1303,6 +1838,14 @@ public class SessionImpl implements Session {
             throw new IllegalArgumentException("Invalid document id!");
         }
 
+        // only complete streams are cached
+        if (offset == null && length == null) {
+            ContentCache cc = getContentCache();
+            if (cc != null) {
+                return getCachedContentStream(cc, docId, streamId);
+            }
+        }
+
         // get the stream
         ContentStream contentStream = null;
         try {
@@ -1316,6 +1859,85 @@ public class SessionImpl implements Session {
         return contentStream;
     }
 
+    private ContentStream getCachedContentStream(ContentCache cc, ObjectId docId, String streamId) {
+        String objectId = docId.getId();
+        String changeToken = (docId instanceof Document ? ((Document) docId).getChangeToken() : null);
+
+        String scope = getContentCacheScope();
+        ContentCache.Entry entry = cc.get(scope, objectId, streamId);
+
+        // same change token -> same content, no round trip
+        if (entry != null && changeToken != null && changeToken.equals(entry.getChangeToken())) {
+            ContentStream cached = cc.open(entry, null);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        // otherwise revalidate the cached content, if the server sent
+        // validators for it and the binding can send conditional requests
+        ObjectService objectService = getBinding().getObjectService();
+        ContentValidators validators = null;
+        if (entry != null && entry.hasValidators() && objectService instanceof ConditionalContentAccess) {
+            validators = new ContentValidators(entry.getETag(), entry.getLastModified());
+        }
+
+        ContentStream contentStream = null;
+        try {
+            if (validators != null) {
+                contentStream = ((ConditionalContentAccess) objectService).getContentStream(getRepositoryId(),
+                        objectId, streamId, validators, null);
+            } else {
+                contentStream = objectService.getContentStream(getRepositoryId(), objectId, streamId, null, null,
+                        null);
+            }
+
+            if (contentStream instanceof ValidatedContentStream
+                    && ((ValidatedContentStream) contentStream).isNotModified()) {
+                ContentStream cached = cc.open(entry, changeToken);
+                if (cached != null) {
+                    return cached;
+                }
+
+                // the cache entry is gone in the meantime
+                contentStream = objectService.getContentStream(getRepositoryId(), objectId, streamId, null, null,
+                        null);
+            }
+        } catch (CmisConstraintException e) {
+            // no content stream
+            return null;
+        }
+
+        String eTag = null;
+        String lastModified = null;
+        if (contentStream instanceof ValidatedContentStream) {
+            eTag = ((ValidatedContentStream) contentStream).getETag();
+            lastModified = ((ValidatedContentStream) contentStream).getLastModified();
+        }
+
+        return cc.store(scope, objectId, streamId, changeToken, eTag, lastModified, contentStream);
+    }
+
+    /**
+     * Returns the scope of content cache entries. Sessions share the content
+     * cache of a directory, so content must only be served to sessions that
+     * connect to the same repository with the same user.
+     */
+    private String getContentCacheScope() {
+        StringBuilder sb = new StringBuilder(getRepositoryId());
+        for (String key : new String[] { SessionParameter.BINDING_TYPE, SessionParameter.ATOMPUB_URL,
+                SessionParameter.BROWSER_URL, SessionParameter.WEBSERVICES_REPOSITORY_SERVICE,
+                SessionParameter.LOCAL_FACTORY, SessionParameter.USER }) {
+            sb.append('\n');
+            String value = parameters.get(key);
+            if (value != null) {
+                sb.append(value);
+            }
+        }
+
+        return sb.toString();
+    }
+
     // --- ACL ---
 
     public Acl getAcl(ObjectId objectId, boolean onlyBasicPermissions) {
@@ -0,0 +1,859 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.chemistry.opencmis.client.runtime.cache;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileFilter;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.chemistry.opencmis.commons.data.ContentStream;
+import org.apache.chemistry.opencmis.commons.impl.IOUtils;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.ContentStreamImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Persistent, size-bounded LRU cache for content streams.
+ * <p>
+ * Each entry consists of a content file and a metadata file in the cache
+ * directory. Entries are identified by a scope, the object id and the stream
+ * id. The scope separates content of different repositories and users that
+ * share the cache. Entries remember
+ * the change token of the object and the HTTP cache validators (ETag and
+ * Last-Modified) of the response they have been created from.
+ * <p>
+ * Content files are not deleted or replaced while they are read. An entry
+ * that is removed while it is read is deleted when the last reader closes its
+ * stream, and new content for such an entry is not cached. Streams returned by
+ * {@link #open(Entry, String)} must therefore be closed. They close themselves
+ * when the end of the stream has been reached.
+ * <p>
+ * Content is written to the cache while the caller reads the stream. An entry
+ * is only created if the stream has been read completely.
+ * <p>
+ * A cache directory must not be shared by several caches. Use
+ * {@link #getInstance(File, long)} to get the cache of a directory.
+ */
+public class ContentCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ContentCache.class);
+
+    private static final String CONTENT_SUFFIX = ".content";
+    private static final String METADATA_SUFFIX = ".properties";
+    private static final String TEMP_PREFIX = "opencmis-content";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private static final String KEY_OBJECT_ID = "objectId";
+    private static final String KEY_STREAM_ID = "streamId";
+    private static final String KEY_CHANGE_TOKEN = "changeToken";
+    private static final String KEY_ETAG = "etag";
+    private static final String KEY_LAST_MODIFIED = "lastModified";
+    private static final String KEY_FILE_NAME = "fileName";
+    private static final String KEY_MIME_TYPE = "mimeType";
+    private static final String KEY_LENGTH = "length";
+
+    private static final Map<File, ContentCache> INSTANCES = new HashMap<File, ContentCache>();
+
+    private final File directory;
+    private final long maxSize;
+    private final long maxEntrySize;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<String, Entry> entries;
+    private final Map<String, Entry> retired = new HashMap<String, Entry>();
+    private long size;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong stores = new AtomicLong();
+
+    /**
+     * Returns the cache of the given directory. All callers that use the same
+     * directory share one cache.
+     *
+     * @param directory
+     *            the cache directory, will be created if it doesn't exist
+     * @param maxSize
+     *            the maximum size of all cached content in bytes, only used
+     *            when the cache of the directory is created
+     */
+    public static ContentCache getInstance(File directory, long maxSize) {
+        if (directory == null) {
+            throw new IllegalArgumentException("Directory must be set!");
+        }
+
+        File canonicalDirectory;
+        try {
+            canonicalDirectory = directory.getCanonicalFile();
+        } catch (IOException e) {
+            canonicalDirectory = directory.getAbsoluteFile();
+        }
+
+        synchronized (INSTANCES) {
+            ContentCache cache = INSTANCES.get(canonicalDirectory);
+            if (cache == null) {
+                cache = new ContentCache(canonicalDirectory, maxSize);
+                INSTANCES.put(canonicalDirectory, cache);
+            } else if (cache.maxSize != maxSize) {
+                LOG.warn("Content cache " + canonicalDirectory + " already exists with a size of " + cache.maxSize
+                        + " bytes. Ignoring size " + maxSize + ".");
+            }
+
+            return cache;
+        }
+    }
+
+    /**
+     * Constructor. Loads the entries that are already in the cache directory.
+     *
+     * @param directory
+     *            the cache directory, will be created if it doesn't exist
+     * @param maxSize
+     *            the maximum size of all cached content in bytes
+     */
+    ContentCache(File directory, long maxSize) {
+        if (directory == null) {
+            throw new IllegalArgumentException("Directory must be set!");
+        }
+
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IllegalArgumentException("Cannot create content cache directory: " + directory);
+        }
+
+        this.directory = directory;
+        this.maxSize = maxSize;
+        this.maxEntrySize = Math.min(maxSize, Integer.MAX_VALUE);
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true);
+
+        load();
+    }
+
+    /**
+     * Returns the cache entry for the given object and stream or
+     * <code>null</code> if there is no entry.
+     *
+     * @param scope
+     *            the scope of the entry, for example repository id, URL and
+     *            user
+     * @param objectId
+     *            the object id
+     * @param streamId
+     *            the stream id, may be <code>null</code>
+     */
+    public Entry get(String scope, String objectId, String streamId) {
+        lock.lock();
+        try {
+            return entries.get(getKey(scope, objectId, streamId));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Opens the content of a cache entry.
+     *
+     * @param entry
+     *            the cache entry
+     * @param changeToken
+     *            the current change token of the object, may be
+     *            <code>null</code>; if it is set, the entry is updated
+     * @return the content or <code>null</code> if the entry has been removed
+     *         or the content file cannot be read
+     */
+    public ContentStream open(Entry entry, String changeToken) {
+        if (entry == null) {
+            return null;
+        }
+
+        InputStream stream;
+        lock.lock();
+        try {
+            if (entries.get(entry.getKey()) != entry) {
+                return null;
+            }
+
+            try {
+                stream = new CachedInputStream(getContentFile(entry.getKey()), entry);
+            } catch (IOException e) {
+                LOG.debug("Cannot read cached content: " + e.getMessage(), e);
+                remove(entry);
+                return null;
+            }
+
+            if (changeToken != null && !changeToken.equals(entry.getChangeToken())) {
+                entry.changeToken = changeToken;
+                try {
+                    writeMetadata(entry);
+                } catch (IOException e) {
+                    LOG.debug("Cannot update cache metadata: " + e.getMessage(), e);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        hits.incrementAndGet();
+
+        return new ContentStreamImpl(entry.getFileName(), BigInteger.valueOf(entry.getLength()),
+                entry.getMimeType(), stream);
+    }
+
+    /**
+     * Wraps the given content stream so that its content is added to the
+     * cache while it is read.
+     *
+     * @param scope
+     *            the scope of the entry, for example repository id, URL and
+     *            user
+     * @param objectId
+     *            the object id
+     * @param streamId
+     *            the stream id, may be <code>null</code>
+     * @param changeToken
+     *            the change token of the object, may be <code>null</code>
+     * @param eTag
+     *            the ETag of the content, may be <code>null</code>
+     * @param lastModified
+     *            the Last-Modified value of the content, may be
+     *            <code>null</code>
+     * @param contentStream
+     *            the content stream to cache
+     * @return the wrapped content stream
+     */
+    public ContentStream store(String scope, String objectId, String streamId, String changeToken, String eTag,
+            String lastModified, ContentStream contentStream) {
+        if (contentStream == null || contentStream.getStream() == null) {
+            return contentStream;
+        }
+
+        if (contentStream.getBigLength() != null && contentStream.getBigLength().longValue() > maxEntrySize) {
+            return contentStream;
+        }
+
+        Entry entry = new Entry(getKey(scope, objectId, streamId));
+        entry.objectId = objectId;
+        entry.streamId = streamId;
+        entry.changeToken = changeToken;
+        entry.eTag = eTag;
+        entry.lastModified = lastModified;
+        entry.fileName = contentStream.getFileName();
+        entry.mimeType = contentStream.getMimeType();
+
+        InputStream stream;
+        try {
+            File tempFile = File.createTempFile(TEMP_PREFIX, TEMP_SUFFIX, directory);
+            stream = new CachingInputStream(contentStream.getStream(), tempFile, entry);
+        } catch (IOException e) {
+            LOG.debug("Cannot create cache file: " + e.getMessage(), e);
+            return contentStream;
+        }
+
+        return new ContentStreamImpl(contentStream.getFileName(), contentStream.getBigLength(),
+                contentStream.getMimeType(), stream);
+    }
+
+    /**
+     * Removes an entry from the cache.
+     */
+    public void remove(Entry entry) {
+        lock.lock();
+        try {
+            if (entries.get(entry.getKey()) == entry) {
+                entries.remove(entry.getKey());
+                size -= entry.getLength();
+                discard(entry);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes all entries from the cache.
+     */
+    public void clear() {
+        lock.lock();
+        try {
+            for (Entry entry : entries.values()) {
+                discard(entry);
+            }
+            entries.clear();
+            size = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of bytes in the cache.
+     */
+    public long getSize() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns how often content has been served from the cache.
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * Returns how often content has been added to the cache.
+     */
+    public long getStoreCount() {
+        return stores.get();
+    }
+
+    // --- internal ---
+
+    private void commit(Entry entry, File tempFile) {
+        lock.lock();
+        try {
+            File contentFile = getContentFile(entry.getKey());
+
+            Entry old = entries.remove(entry.getKey());
+            if (old != null) {
+                size -= old.getLength();
+            }
+
+            // the content file is still being read and cannot be replaced
+            if ((old != null && old.readers > 0) || retired.containsKey(entry.getKey())) {
+                if (old != null) {
+                    discard(old);
+                }
+                tempFile.delete();
+                return;
+            }
+
+            if (contentFile.exists() && !contentFile.delete()) {
+                throw new IOException("Cannot delete " + contentFile);
+            }
+
+            if (!tempFile.renameTo(contentFile)) {
+                throw new IOException("Cannot rename " + tempFile + " to " + contentFile);
+            }
+
+            writeMetadata(entry);
+
+            entries.put(entry.getKey(), entry);
+            size += entry.getLength();
+            stores.incrementAndGet();
+
+            evict();
+        } catch (IOException e) {
+            LOG.debug("Cannot add content to cache: " + e.getMessage(), e);
+            tempFile.delete();
+            deleteFiles(entry.getKey());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes the least recently used entries until the cache fits its size.
+     * Must be called with the lock held.
+     */
+    private void evict() {
+        Iterator<Entry> iter = entries.values().iterator();
+        while (size > maxSize && iter.hasNext()) {
+            Entry eldest = iter.next();
+            iter.remove();
+            size -= eldest.getLength();
+            discard(eldest);
+        }
+    }
+
+    /**
+     * Deletes the files of an entry that has been taken out of the cache. If
+     * the content is still being read, the content file is deleted when the
+     * last reader has closed its stream. Must be called with the lock held.
+     */
+    private void discard(Entry entry) {
+        getMetadataFile(entry.getKey()).delete();
+        if (entry.readers > 0) {
+            retired.put(entry.getKey(), entry);
+        } else {
+            getContentFile(entry.getKey()).delete();
+        }
+    }
+
+    /**
+     * Called when a reader of an entry has closed its stream.
+     */
+    private void release(Entry entry) {
+        lock.lock();
+        try {
+            entry.readers--;
+            if (entry.readers == 0 && retired.get(entry.getKey()) == entry) {
+                retired.remove(entry.getKey());
+                getContentFile(entry.getKey()).delete();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void load() {
+        File[] metadataFiles = directory.listFiles(new FileFilter() {
+            public boolean accept(File file) {
+                return file.isFile()
+                        && (file.getName().endsWith(METADATA_SUFFIX) || file.getName().endsWith(TEMP_SUFFIX));
+            }
+        });
+
+        if (metadataFiles == null) {
+            return;
+        }
+
+        // restore the LRU order from the file modification times
+        Arrays.sort(metadataFiles, new Comparator<File>() {
+            public int compare(File f1, File f2) {
+                long l1 = f1.lastModified();
+                long l2 = f2.lastModified();
+                return l1 < l2 ? -1 : (l1 == l2 ? 0 : 1);
+            }
+        });
+
+        lock.lock();
+        try {
+            for (File file : metadataFiles) {
+                // left-overs of interrupted downloads
+                if (file.getName().endsWith(TEMP_SUFFIX)) {
+                    file.delete();
+                    continue;
+                }
+
+                String key = file.getName().substring(0, file.getName().length() - METADATA_SUFFIX.length());
+                Entry entry = readMetadata(key, file);
+                if (entry == null || getContentFile(key).length() != entry.getLength()) {
+                    deleteFiles(key);
+                    continue;
+                }
+
+                entries.put(key, entry);
+                size += entry.getLength();
+            }
+
+            // content files of entries that were removed while they were read
+            File[] contentFiles = directory.listFiles(new FileFilter() {
+                public boolean accept(File file) {
+                    return file.isFile() && file.getName().endsWith(CONTENT_SUFFIX);
+                }
+            });
+            if (contentFiles != null) {
+                for (File file : contentFiles) {
+                    String key = file.getName().substring(0, file.getName().length() - CONTENT_SUFFIX.length());
+                    if (!entries.containsKey(key)) {
+                        file.delete();
+                    }
+                }
+            }
+
+            evict();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Entry readMetadata(String key, File file) {
+        Properties props = new Properties();
+        InputStream in = null;
+        try {
+            in = new FileInputStream(file);
+            props.load(in);
+        } catch (IOException e) {
+            return null;
+        } finally {
+            IOUtils.closeQuietly(in);
+        }
+
+        Entry entry = new Entry(key);
+        entry.objectId = props.getProperty(KEY_OBJECT_ID);
+        entry.streamId = props.getProperty(KEY_STREAM_ID);
+        entry.changeToken = props.getProperty(KEY_CHANGE_TOKEN);
+        entry.eTag = props.getProperty(KEY_ETAG);
+        entry.lastModified = props.getProperty(KEY_LAST_MODIFIED);
+        entry.fileName = props.getProperty(KEY_FILE_NAME);
+        entry.mimeType = props.getProperty(KEY_MIME_TYPE);
+
+        try {
+            entry.length = Long.parseLong(props.getProperty(KEY_LENGTH));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+
+        if (entry.objectId == null) {
+            return null;
+        }
+
+        return entry;
+    }
+
+    private void writeMetadata(Entry entry) throws IOException {
+        Properties props = new Properties();
+        setProperty(props, KEY_OBJECT_ID, entry.getObjectId());
+        setProperty(props, KEY_STREAM_ID, entry.getStreamId());
+        setProperty(props, KEY_CHANGE_TOKEN, entry.getChangeToken());
+        setProperty(props, KEY_ETAG, entry.getETag());
+        setProperty(props, KEY_LAST_MODIFIED, entry.getLastModified());
+        setProperty(props, KEY_FILE_NAME, entry.getFileName());
+        setProperty(props, KEY_MIME_TYPE, entry.getMimeType());
+        setProperty(props, KEY_LENGTH, String.valueOf(entry.getLength()));
+
+        OutputStream out = new FileOutputStream(getMetadataFile(entry.getKey()));
+        try {
+            props.store(out, null);
+        } finally {
+            out.close();
+        }
+    }
+
+    private static void setProperty(Properties props, String key, String value) {
+        if (value != null) {
+            props.setProperty(key, value);
+        }
+    }
+
+    private void deleteFiles(String key) {
+        getContentFile(key).delete();
+        getMetadataFile(key).delete();
+    }
+
+    private File getContentFile(String key) {
+        return new File(directory, key + CONTENT_SUFFIX);
+    }
+
+    private File getMetadataFile(String key) {
+        return new File(directory, key + METADATA_SUFFIX);
+    }
+
+    private static String getKey(String scope, String objectId, String streamId) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-1");
+            if (scope != null) {
+                md.update(scope.getBytes(IOUtils.UTF8));
+            }
+            md.update((byte) 0);
+            md.update(objectId.getBytes(IOUtils.UTF8));
+            if (streamId != null) {
+                md.update((byte) 0);
+                md.update(streamId.getBytes(IOUtils.UTF8));
+            }
+
+            byte[] digest = md.digest();
+            StringBuilder sb = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                sb.append(Character.forDigit((b >> 4) & 0x0F, 16));
+                sb.append(Character.forDigit(b & 0x0F, 16));
+            }
+
+            return sb.toString();
+        } catch (Exception e) {
+            throw new IllegalStateException("Cannot compute cache key: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Cache entry.
+     */
+    public static class Entry {
+        private final String key;
+        private String objectId;
+        private String streamId;
+        private String changeToken;
+        private String eTag;
+        private String lastModified;
+        private String fileName;
+        private String mimeType;
+        private long length;
+        private int readers;
+
+        Entry(String key) {
+            this.key = key;
+        }
+
+        String getKey() {
+            return key;
+        }
+
+        public String getObjectId() {
+            return objectId;
+        }
+
+        public String getStreamId() {
+            return streamId;
+        }
+
+        public String getChangeToken() {
+            return changeToken;
+        }
+
+        public String getETag() {
+            return eTag;
+        }
+
+        public String getLastModified() {
+            return lastModified;
+        }
+
+        /**
+         * Returns whether the entry has HTTP cache validators.
+         */
+        public boolean hasValidators() {
+            return eTag != null || lastModified != null;
+        }
+
+        public String getFileName() {
+            return fileName;
+        }
+
+        public String getMimeType() {
+            return mimeType;
+        }
+
+        public long getLength() {
+            return length;
+        }
+    }
+
+    /**
+     * Input stream that copies everything that is read into a file and adds
+     * the file to the cache when the end of the stream has been reached.
+     */
+    private class CachingInputStream extends FilterInputStream {
+        private final File tempFile;
+        private final Entry entry;
+        private OutputStream out;
+        private long length;
+
+        public CachingInputStream(InputStream in, File tempFile, Entry entry) throws IOException {
+            super(in);
+            this.tempFile = tempFile;
+            this.entry = entry;
+            this.out = new BufferedOutputStream(new FileOutputStream(tempFile), 64 * 1024);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b == -1) {
+                complete();
+            } else {
+                write(b);
+            }
+
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b) throws IOException {
+            return read(b, 0, b.length);
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n == -1) {
+                complete();
+            } else if (n > 0) {
+                write(b, off, n);
+            }
+
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            // skipped bytes cannot be cached
+            abort();
+            return super.skip(n);
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                abort();
+            }
+        }
+
+        private void write(int b) {
+            if (out == null) {
+                return;
+            }
+
+            try {
+                out.write(b);
+                length++;
+                checkLength();
+            } catch (IOException e) {
+                LOG.debug("Cannot write cache file: " + e.getMessage(), e);
+                abort();
+            }
+        }
+
+        private void write(byte[] b, int off, int len) {
+            if (out == null) {
+                return;
+            }
+
+            try {
+                out.write(b, off, len);
+                length += len;
+                checkLength();
+            } catch (IOException e) {
+                LOG.debug("Cannot write cache file: " + e.getMessage(), e);
+                abort();
+            }
+        }
+
+        private void checkLength() {
+            if (length > maxEntrySize) {
+                abort();
+            }
+        }
+
+        private void complete() {
+            if (out == null) {
+                return;
+            }
+
+            try {
+                out.close();
+                out = null;
+            } catch (IOException e) {
+                LOG.debug("Cannot write cache file: " + e.getMessage(), e);
+                abort();
+                return;
+            }
+
+            entry.length = length;
+            commit(entry, tempFile);
+        }
+
+        private void abort() {
+            if (out == null) {
+                return;
+            }
+
+            IOUtils.closeQuietly(out);
+            out = null;
+            tempFile.delete();
+        }
+    }
+
+    /**
+     * Input stream on a content file. The entry is released when the stream
+     * is closed or the end of the stream has been reached.
+     */
+    private class CachedInputStream extends FilterInputStream {
+        private final Entry entry;
+        private boolean closed;
+
+        /**
+         * Must be called with the lock held.
+         */
+        public CachedInputStream(File file, Entry entry) throws IOException {
+            super(new BufferedInputStream(new FileInputStream(file), 64 * 1024));
+            this.entry = entry;
+            entry.readers++;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (closed) {
+                return -1;
+            }
+
+            int b = super.read();
+            if (b == -1) {
+                close();
+            }
+
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b) throws IOException {
+            return read(b, 0, b.length);
+        }
+
+        @Override
+        public int available() throws IOException {
+            return closed ? 0 : super.available();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (closed) {
+                return -1;
+            }
+
+            int n = super.read(b, off, len);
+            if (n == -1) {
+                close();
+            }
+
+            return n;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+
+            closed = true;
+            try {
+                super.close();
+            } finally {
+                release(entry);
+            }
+        }
+    }
+}
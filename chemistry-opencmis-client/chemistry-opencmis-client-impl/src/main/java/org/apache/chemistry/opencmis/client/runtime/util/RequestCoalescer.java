@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.chemistry.opencmis.client.runtime.util;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.chemistry.opencmis.commons.exceptions.CmisRuntimeException;
+
+/**
+ * Coalesces concurrent requests for the same key. The first thread that asks
+ * for a key executes the request, all other threads that ask for the same key
+ * while the request is in flight wait for and share its result.
+ *
+ * Results are not retained after the request has finished. Callers are
+ * expected to put them into a cache, if appropriate.
+ *
+ * @param <V>
+ *            the type of the result
+ */
+public class RequestCoalescer<V> implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private transient ConcurrentMap<Key, FutureTask<V>> inFlight;
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+
+    /**
+     * Constructor.
+     */
+    public RequestCoalescer() {
+        inFlight = new ConcurrentHashMap<Key, FutureTask<V>>();
+    }
+
+    /**
+     * Executes the given request or joins a request for the same key that is
+     * already in flight.
+     *
+     * @param id
+     *            the request id, for example an object id or a path
+     * @param cacheKey
+     *            the cache key of the operation context, may be
+     *            <code>null</code>
+     * @param request
+     *            the request
+     * @return the result of the request
+     */
+    public V execute(String id, String cacheKey, Callable<V> request) {
+        requests.incrementAndGet();
+
+        Key key = new Key(id, cacheKey);
+        FutureTask<V> task = new FutureTask<V>(request);
+
+        FutureTask<V> running = inFlight.putIfAbsent(key, task);
+        if (running != null) {
+            coalesced.incrementAndGet();
+            return getResult(running);
+        }
+
+        try {
+            task.run();
+        } finally {
+            inFlight.remove(key, task);
+        }
+
+        return getResult(task);
+    }
+
+    /**
+     * Returns the number of requests that have been passed to this coalescer.
+     */
+    public long getRequestCount() {
+        return requests.get();
+    }
+
+    /**
+     * Returns the number of requests that joined a request in flight instead
+     * of executing their own.
+     */
+    public long getCoalescedCount() {
+        return coalesced.get();
+    }
+
+    private V getResult(FutureTask<V> task) {
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CmisRuntimeException("Interrupted while waiting for a request in flight!", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new CmisRuntimeException(cause.getMessage(), cause);
+        }
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        inFlight = new ConcurrentHashMap<Key, FutureTask<V>>();
+    }
+
+    /**
+     * Request key consisting of an id and a cache key.
+     */
+    private static final class Key {
+        private final String id;
+        private final String cacheKey;
+        private final int hashCode;
+
+        public Key(String id, String cacheKey) {
+            this.id = id;
+            this.cacheKey = cacheKey;
+            this.hashCode = 31 * id.hashCode() + (cacheKey == null ? 0 : cacheKey.hashCode());
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+
+            Key other = (Key) obj;
+            return id.equals(other.id) && (cacheKey == null ? other.cacheKey == null : cacheKey.equals(other.cacheKey));
+        }
+    }
+}
@@ -0,0 +1,347 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.chemistry.opencmis.client.runtime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.chemistry.opencmis.client.api.CmisObject;
+import org.apache.chemistry.opencmis.client.api.ObjectId;
+import org.apache.chemistry.opencmis.client.api.OperationContext;
+import org.apache.chemistry.opencmis.client.api.Session;
+import org.apache.chemistry.opencmis.commons.PropertyIds;
+import org.apache.chemistry.opencmis.commons.SessionParameter;
+import org.apache.chemistry.opencmis.commons.data.ExtensionsData;
+import org.apache.chemistry.opencmis.commons.data.ObjectData;
+import org.apache.chemistry.opencmis.commons.data.ObjectInFolderList;
+import org.apache.chemistry.opencmis.commons.data.ObjectList;
+import org.apache.chemistry.opencmis.commons.data.ObjectParentData;
+import org.apache.chemistry.opencmis.commons.data.RepositoryInfo;
+import org.apache.chemistry.opencmis.commons.definitions.TypeDefinition;
+import org.apache.chemistry.opencmis.commons.definitions.TypeDefinitionList;
+import org.apache.chemistry.opencmis.commons.enums.BaseTypeId;
+import org.apache.chemistry.opencmis.commons.enums.BindingType;
+import org.apache.chemistry.opencmis.commons.enums.CapabilityQuery;
+import org.apache.chemistry.opencmis.commons.enums.Cardinality;
+import org.apache.chemistry.opencmis.commons.enums.IncludeRelationships;
+import org.apache.chemistry.opencmis.commons.enums.Updatability;
+import org.apache.chemistry.opencmis.commons.exceptions.CmisNotSupportedException;
+import org.apache.chemistry.opencmis.commons.exceptions.CmisObjectNotFoundException;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.AbstractPropertyDefinition;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.DocumentTypeDefinitionImpl;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.ObjectDataImpl;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.ObjectListImpl;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.PropertiesImpl;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.PropertyIdDefinitionImpl;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.PropertyIdImpl;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.PropertyStringDefinitionImpl;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.PropertyStringImpl;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.RepositoryCapabilitiesImpl;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.RepositoryInfoImpl;
+import org.apache.chemistry.opencmis.commons.impl.server.AbstractCmisService;
+import org.apache.chemistry.opencmis.commons.impl.server.AbstractServiceFactory;
+import org.apache.chemistry.opencmis.commons.server.CallContext;
+import org.apache.chemistry.opencmis.commons.server.CmisService;
+import org.junit.Before;
+import org.junit.Test;
+
+public class GetObjectsTest {
+
+    private static final String REPOSITORY_ID = "test";
+    private static final String TITLE_ID = "test:title";
+    private static final String TITLE_QUERY_NAME = "title";
+    private static final int DOCUMENTS = 250;
+
+    private static final AtomicInteger GET_OBJECT_CALLS = new AtomicInteger();
+    private static final List<Integer> QUERY_SIZES = Collections.synchronizedList(new ArrayList<Integer>());
+    private static final List<ObjectData> QUERY_RESULTS = Collections.synchronizedList(new ArrayList<ObjectData>());
+
+    private Session session;
+
+    @Before
+    public void setUp() {
+        GET_OBJECT_CALLS.set(0);
+        QUERY_SIZES.clear();
+        QUERY_RESULTS.clear();
+
+        Map<String, String> parameters = new HashMap<String, String>();
+        parameters.put(SessionParameter.BINDING_TYPE, BindingType.LOCAL.value());
+        parameters.put(SessionParameter.LOCAL_FACTORY, TestServiceFactory.class.getName());
+        parameters.put(SessionParameter.REPOSITORY_ID, REPOSITORY_ID);
+
+        SessionImpl sessionImpl = new SessionImpl(parameters, null, null, null, null);
+        sessionImpl.connect();
+        session = sessionImpl;
+    }
+
+    @Test
+    public void testQueryInChunks() {
+        List<ObjectId> ids = createIds(DOCUMENTS);
+        ids.add(7, session.createObjectId("missing"));
+        Collections.shuffle(ids, new Random(42));
+
+        List<CmisObject> objects = session.getObjects(ids, createQueryContext());
+
+        assertOrder(ids, objects);
+        assertNull(objects.get(ids.indexOf(session.createObjectId("missing"))));
+
+        // three chunks, the missing object is looked up on its own
+        assertEquals(3, QUERY_SIZES.size());
+        assertEquals(DOCUMENTS + 1, QUERY_SIZES.get(0) + QUERY_SIZES.get(1) + QUERY_SIZES.get(2));
+        assertEquals(1, GET_OBJECT_CALLS.get());
+
+        // query results are keyed by query name
+        CmisObject object = objects.get(ids.indexOf(session.createObjectId("doc3")));
+        assertEquals("Title 3", object.getPropertyValue(TITLE_ID));
+
+        // the object data returned by the binding is left untouched
+        assertEquals(DOCUMENTS, QUERY_RESULTS.size());
+        for (ObjectData objectData : QUERY_RESULTS) {
+            assertTrue(objectData.getProperties().getProperties().containsKey(TITLE_QUERY_NAME));
+        }
+    }
+
+    @Test
+    public void testCacheHits() {
+        OperationContext context = createQueryContext();
+
+        CmisObject cached = session.getObject("doc5", context);
+        assertEquals(1, GET_OBJECT_CALLS.get());
+
+        List<ObjectId> ids = createIds(10);
+        List<CmisObject> objects = session.getObjects(ids, context);
+        assertOrder(ids, objects);
+        assertSame(cached, objects.get(5));
+        assertEquals(1, QUERY_SIZES.size());
+        assertEquals(Integer.valueOf(9), QUERY_SIZES.get(0));
+
+        // everything is cached now
+        List<CmisObject> again = session.getObjects(ids, context);
+        assertEquals(1, QUERY_SIZES.size());
+        assertEquals(1, GET_OBJECT_CALLS.get());
+        for (int i = 0; i < ids.size(); i++) {
+            assertSame(objects.get(i), again.get(i));
+        }
+    }
+
+    @Test
+    public void testGetObjectFallback() {
+        // all properties -> the objects cannot be queried
+        OperationContext context = session.createOperationContext();
+        context.setCacheEnabled(true);
+
+        List<ObjectId> ids = createIds(20);
+        ids.add(0, session.createObjectId("missing"));
+        ids.add(session.createObjectId("doc3"));
+
+        List<CmisObject> objects = session.getObjects(ids, context);
+
+        assertNull(objects.get(0));
+        assertOrder(ids, objects);
+        assertSame(objects.get(4), objects.get(ids.size() - 1));
+        assertEquals(0, QUERY_SIZES.size());
+        assertEquals(21, GET_OBJECT_CALLS.get());
+    }
+
+    private OperationContext createQueryContext() {
+        OperationContext context = session.createOperationContext();
+        context.setFilter(new HashSet<String>(Collections.singleton(TITLE_ID)));
+        context.setIncludeAllowableActions(false);
+        context.setCacheEnabled(true);
+        return context;
+    }
+
+    private List<ObjectId> createIds(int count) {
+        List<ObjectId> ids = new ArrayList<ObjectId>();
+        for (int i = 0; i < count; i++) {
+            ids.add(session.createObjectId("doc" + i));
+        }
+        return ids;
+    }
+
+    private static void assertOrder(List<ObjectId> ids, List<CmisObject> objects) {
+        assertEquals(ids.size(), objects.size());
+        for (int i = 0; i < ids.size(); i++) {
+            if (objects.get(i) != null) {
+                assertEquals(ids.get(i).getId(), objects.get(i).getId());
+            }
+        }
+    }
+
+    private static ObjectData createObjectData(String id, boolean queryNames) {
+        int n = Integer.parseInt(id.substring(3));
+
+        PropertiesImpl properties = new PropertiesImpl();
+        properties.addProperty(new PropertyIdImpl(PropertyIds.OBJECT_ID, id));
+        properties.addProperty(new PropertyIdImpl(PropertyIds.OBJECT_TYPE_ID, BaseTypeId.CMIS_DOCUMENT.value()));
+        properties.addProperty(new PropertyIdImpl(PropertyIds.BASE_TYPE_ID, BaseTypeId.CMIS_DOCUMENT.value()));
+        properties.addProperty(new PropertyStringImpl(PropertyIds.NAME, "Document " + n));
+        properties.addProperty(new PropertyStringImpl(queryNames ? TITLE_QUERY_NAME : TITLE_ID, "Title " + n));
+
+        ObjectDataImpl result = new ObjectDataImpl();
+        result.setProperties(properties);
+        return result;
+    }
+
+    private static boolean exists(String id) {
+        if (!id.startsWith("doc")) {
+            return false;
+        }
+        int n = Integer.parseInt(id.substring(3));
+        return n >= 0 && n < DOCUMENTS;
+    }
+
+    public static class TestServiceFactory extends AbstractServiceFactory {
+        @Override
+        public CmisService getService(CallContext context) {
+            return new TestService();
+        }
+    }
+
+    /**
+     * Minimal repository with {@value #DOCUMENTS} documents.
+     */
+    static class TestService extends AbstractCmisService {
+
+        private static final Pattern ID_PATTERN = Pattern.compile("'([^']*)'");
+
+        @Override
+        public List<RepositoryInfo> getRepositoryInfos(ExtensionsData extension) {
+            RepositoryCapabilitiesImpl capabilities = new RepositoryCapabilitiesImpl();
+            capabilities.setCapabilityQuery(CapabilityQuery.METADATAONLY);
+
+            RepositoryInfoImpl info = new RepositoryInfoImpl();
+            info.setId(REPOSITORY_ID);
+            info.setName(REPOSITORY_ID);
+            info.setCapabilities(capabilities);
+
+            return Collections.<RepositoryInfo> singletonList(info);
+        }
+
+        @Override
+        public TypeDefinition getTypeDefinition(String repositoryId, String typeId, ExtensionsData extension) {
+            if (!BaseTypeId.CMIS_DOCUMENT.value().equals(typeId)) {
+                throw new CmisObjectNotFoundException("Unknown type: " + typeId);
+            }
+
+            DocumentTypeDefinitionImpl type = new DocumentTypeDefinitionImpl();
+            type.setId(typeId);
+            type.setLocalName(typeId);
+            type.setQueryName(typeId);
+            type.setBaseTypeId(BaseTypeId.CMIS_DOCUMENT);
+            type.setIsQueryable(Boolean.TRUE);
+
+            for (String id : new String[] { PropertyIds.OBJECT_ID, PropertyIds.OBJECT_TYPE_ID,
+                    PropertyIds.BASE_TYPE_ID }) {
+                type.addPropertyDefinition(initDefinition(new PropertyIdDefinitionImpl(), id, id));
+            }
+            for (String id : new String[] { PropertyIds.NAME, PropertyIds.DESCRIPTION, PropertyIds.CREATED_BY,
+                    PropertyIds.LAST_MODIFIED_BY, PropertyIds.CHANGE_TOKEN }) {
+                type.addPropertyDefinition(initDefinition(new PropertyStringDefinitionImpl(), id, id));
+            }
+            type.addPropertyDefinition(initDefinition(new PropertyStringDefinitionImpl(), TITLE_ID,
+                    TITLE_QUERY_NAME));
+
+            return type;
+        }
+
+        @Override
+        public ObjectData getObject(String repositoryId, String objectId, String filter,
+                Boolean includeAllowableActions, IncludeRelationships includeRelationships, String renditionFilter,
+                Boolean includePolicyIds, Boolean includeAcl, ExtensionsData extension) {
+            GET_OBJECT_CALLS.incrementAndGet();
+
+            if (!exists(objectId)) {
+                throw new CmisObjectNotFoundException("Unknown object: " + objectId);
+            }
+
+            return createObjectData(objectId, false);
+        }
+
+        @Override
+        public ObjectList query(String repositoryId, String statement, Boolean searchAllVersions,
+                Boolean includeAllowableActions, IncludeRelationships includeRelationships, String renditionFilter,
+                BigInteger maxItems, BigInteger skipCount, ExtensionsData extension) {
+            List<ObjectData> objects = new ArrayList<ObjectData>();
+
+            int size = 0;
+            Matcher matcher = ID_PATTERN.matcher(statement.substring(statement.indexOf(" IN ")));
+            while (matcher.find()) {
+                size++;
+                if (exists(matcher.group(1))) {
+                    // like the Browser binding, use query names as keys
+                    objects.add(createObjectData(matcher.group(1), true));
+                }
+            }
+            QUERY_SIZES.add(size);
+            QUERY_RESULTS.addAll(objects);
+
+            ObjectListImpl result = new ObjectListImpl();
+            result.setObjects(objects);
+            result.setHasMoreItems(Boolean.FALSE);
+            result.setNumItems(BigInteger.valueOf(objects.size()));
+            return result;
+        }
+
+        @Override
+        public TypeDefinitionList getTypeChildren(String repositoryId, String typeId,
+                Boolean includePropertyDefinitions, BigInteger maxItems, BigInteger skipCount,
+                ExtensionsData extension) {
+            throw new CmisNotSupportedException("Not supported!");
+        }
+
+        @Override
+        public ObjectInFolderList getChildren(String repositoryId, String folderId, String filter, String orderBy,
+                Boolean includeAllowableActions, IncludeRelationships includeRelationships, String renditionFilter,
+                Boolean includePathSegment, BigInteger maxItems, BigInteger skipCount, ExtensionsData extension) {
+            throw new CmisNotSupportedException("Not supported!");
+        }
+
+        @Override
+        public List<ObjectParentData> getObjectParents(String repositoryId, String objectId, String filter,
+                Boolean includeAllowableActions, IncludeRelationships includeRelationships, String renditionFilter,
+                Boolean includeRelativePathSegment, ExtensionsData extension) {
+            throw new CmisNotSupportedException("Not supported!");
+        }
+
+        private static <T extends AbstractPropertyDefinition<?>> T initDefinition(T def, String id, String queryName) {
+            def.setId(id);
+            def.setLocalName(id);
+            def.setQueryName(queryName);
+            def.setCardinality(Cardinality.SINGLE);
+            def.setUpdatability(Updatability.READONLY);
+            def.setIsQueryable(Boolean.TRUE);
+            return def;
+        }
+    }
+}
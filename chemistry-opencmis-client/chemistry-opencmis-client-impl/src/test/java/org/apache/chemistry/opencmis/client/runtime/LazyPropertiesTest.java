@@ -0,0 +1,197 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.chemistry.opencmis.client.runtime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.chemistry.opencmis.client.api.Document;
+import org.apache.chemistry.opencmis.client.api.ObjectType;
+import org.apache.chemistry.opencmis.client.api.Property;
+import org.apache.chemistry.opencmis.client.api.SecondaryType;
+import org.apache.chemistry.opencmis.client.runtime.objecttype.DocumentTypeImpl;
+import org.apache.chemistry.opencmis.client.runtime.repository.ObjectFactoryImpl;
+import org.apache.chemistry.opencmis.commons.PropertyIds;
+import org.apache.chemistry.opencmis.commons.SessionParameter;
+import org.apache.chemistry.opencmis.commons.data.Properties;
+import org.apache.chemistry.opencmis.commons.enums.BaseTypeId;
+import org.apache.chemistry.opencmis.commons.enums.Cardinality;
+import org.apache.chemistry.opencmis.commons.enums.Updatability;
+import org.apache.chemistry.opencmis.commons.exceptions.CmisRuntimeException;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.AbstractPropertyDefinition;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.DocumentTypeDefinitionImpl;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.ObjectDataImpl;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.PropertiesImpl;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.PropertyIdDefinitionImpl;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.PropertyIdImpl;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.PropertyStringDefinitionImpl;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.PropertyStringImpl;
+import org.junit.Test;
+
+public class LazyPropertiesTest {
+
+    private static final String[] ID_PROPERTIES = { PropertyIds.OBJECT_ID, PropertyIds.OBJECT_TYPE_ID,
+            PropertyIds.BASE_TYPE_ID };
+    private static final String[] STRING_PROPERTIES = { PropertyIds.NAME, PropertyIds.CREATED_BY,
+            PropertyIds.LAST_MODIFIED_BY, PropertyIds.CHANGE_TOKEN, PropertyIds.DESCRIPTION,
+            PropertyIds.CONTENT_STREAM_MIME_TYPE, "test:title" };
+
+    @Test
+    public void testLazyProperties() {
+        Document doc = createDocument(true, false);
+
+        assertEquals("doc1", doc.getId());
+        assertEquals("Document 1", doc.getName());
+        assertEquals(BaseTypeId.CMIS_DOCUMENT, doc.getBaseTypeId());
+        assertEquals("value of test:title", doc.getPropertyValue("test:title"));
+        assertNull(doc.getProperty("test:unknown"));
+
+        // property objects are created once
+        Property<String> name = doc.getProperty(PropertyIds.NAME);
+        assertSame(name, doc.getProperty(PropertyIds.NAME));
+        assertEquals(PropertyIds.NAME, name.getDefinition().getId());
+
+        // same order and same objects as in eager mode
+        List<Property<?>> properties = doc.getProperties();
+        assertEquals(ids(createDocument(false, false).getProperties()), ids(properties));
+        assertSame(name, properties.get(ID_PROPERTIES.length));
+    }
+
+    @Test
+    public void testUnknownDefinition() {
+        // eager mode fails when the object is created
+        try {
+            createDocument(false, true);
+            fail("Property without definition should be rejected!");
+        } catch (CmisRuntimeException e) {
+            // expected
+        }
+
+        // lazy mode fails when the property is accessed
+        Document doc = createDocument(true, true);
+        assertEquals("doc1", doc.getId());
+
+        try {
+            doc.getProperty("test:undefined");
+            fail("Property without definition should be rejected!");
+        } catch (CmisRuntimeException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testCustomObjectFactory() {
+        CountingObjectFactory factory = new CountingObjectFactory();
+        Document doc = createDocument(true, false, factory);
+        assertEquals(0, factory.convertedProperties.size());
+
+        // properties are converted by the session's object factory
+        assertEquals("Document 1", doc.getName());
+        assertEquals(Collections.singletonList(PropertyIds.NAME), factory.convertedProperties);
+
+        doc.getName();
+        assertEquals(1, factory.convertedProperties.size());
+    }
+
+    private static List<String> ids(List<Property<?>> properties) {
+        List<String> result = new ArrayList<String>();
+        for (Property<?> property : properties) {
+            result.add(property.getId());
+        }
+
+        return result;
+    }
+
+    private static Document createDocument(boolean lazy, boolean undefinedProperty) {
+        return createDocument(lazy, undefinedProperty, null);
+    }
+
+    private static Document createDocument(boolean lazy, boolean undefinedProperty, ObjectFactoryImpl factory) {
+        Map<String, String> parameters = new HashMap<String, String>();
+        parameters.put(SessionParameter.LAZY_PROPERTIES, String.valueOf(lazy));
+        SessionImpl session = new SessionImpl(parameters, factory, null, null, null);
+        if (factory != null) {
+            factory.initialize(session, parameters);
+        }
+
+        DocumentTypeDefinitionImpl typeDef = new DocumentTypeDefinitionImpl();
+        typeDef.setId("test:document");
+        typeDef.setBaseTypeId(BaseTypeId.CMIS_DOCUMENT);
+
+        PropertiesImpl properties = new PropertiesImpl();
+
+        for (String id : ID_PROPERTIES) {
+            PropertyIdDefinitionImpl def = new PropertyIdDefinitionImpl();
+            initDefinition(def, id);
+            typeDef.addPropertyDefinition(def);
+        }
+        properties.addProperty(new PropertyIdImpl(PropertyIds.OBJECT_ID, "doc1"));
+        properties.addProperty(new PropertyIdImpl(PropertyIds.OBJECT_TYPE_ID, "test:document"));
+        properties.addProperty(new PropertyIdImpl(PropertyIds.BASE_TYPE_ID, BaseTypeId.CMIS_DOCUMENT.value()));
+
+        for (String id : STRING_PROPERTIES) {
+            PropertyStringDefinitionImpl def = new PropertyStringDefinitionImpl();
+            initDefinition(def, id);
+            typeDef.addPropertyDefinition(def);
+            properties.addProperty(new PropertyStringImpl(id, PropertyIds.NAME.equals(id) ? "Document 1"
+                    : "value of " + id));
+        }
+
+        if (undefinedProperty) {
+            properties.addProperty(new PropertyStringImpl("test:undefined", "value"));
+        }
+
+        ObjectDataImpl objectData = new ObjectDataImpl();
+        objectData.setProperties(properties);
+
+        return new DocumentImpl(session, new DocumentTypeImpl(session, typeDef), objectData,
+                new OperationContextImpl());
+    }
+
+    private static void initDefinition(AbstractPropertyDefinition<?> def, String id) {
+        def.setId(id);
+        def.setLocalName(id);
+        def.setQueryName(id);
+        def.setCardinality(Cardinality.SINGLE);
+        def.setUpdatability(Updatability.READONLY);
+    }
+
+    private static class CountingObjectFactory extends ObjectFactoryImpl {
+
+        private static final long serialVersionUID = 1L;
+
+        private final List<String> convertedProperties = new ArrayList<String>();
+
+        @Override
+        public Map<String, Property<?>> convertProperties(ObjectType objectType,
+                Collection<SecondaryType> secondaryTypes, Properties properties) {
+            convertedProperties.addAll(properties.getProperties().keySet());
+            return super.convertProperties(objectType, secondaryTypes, properties);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.chemistry.opencmis.client.runtime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.chemistry.opencmis.client.runtime.util.RequestCoalescer;
+import org.apache.chemistry.opencmis.commons.exceptions.CmisObjectNotFoundException;
+import org.junit.Test;
+
+public class RequestCoalescerTest {
+
+    private static final int THREADS = 10;
+
+    @Test
+    public void testConcurrentRequestsAreCoalesced() throws Exception {
+        final RequestCoalescer<String> coalescer = new RequestCoalescer<String>();
+        final AtomicInteger executions = new AtomicInteger();
+        final CountDownLatch release = new CountDownLatch(1);
+
+        final Callable<String> request = new Callable<String>() {
+            public String call() throws Exception {
+                executions.incrementAndGet();
+                release.await();
+                return "result";
+            }
+        };
+
+        final String[] results = new String[THREADS];
+        Thread[] threads = new Thread[THREADS];
+        for (int i = 0; i < THREADS; i++) {
+            final int index = i;
+            threads[i] = new Thread() {
+                @Override
+                public void run() {
+                    results[index] = coalescer.execute("id", "key", request);
+                }
+            };
+            threads[i].start();
+        }
+
+        // wait until all threads have joined the request in flight
+        while (coalescer.getCoalescedCount() < THREADS - 1) {
+            Thread.sleep(10);
+        }
+        release.countDown();
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(1, executions.get());
+        assertEquals(THREADS, coalescer.getRequestCount());
+        assertEquals(THREADS - 1, coalescer.getCoalescedCount());
+        for (String result : results) {
+            assertEquals("result", result);
+        }
+    }
+
+    @Test
+    public void testDifferentKeysAreNotCoalesced() {
+        RequestCoalescer<String> coalescer = new RequestCoalescer<String>();
+
+        assertEquals("a", coalescer.execute("id", "key1", new ConstantRequest("a")));
+        assertEquals("b", coalescer.execute("id", "key2", new ConstantRequest("b")));
+        assertEquals("c", coalescer.execute("id", null, new ConstantRequest("c")));
+
+        assertEquals(3, coalescer.getRequestCount());
+        assertEquals(0, coalescer.getCoalescedCount());
+    }
+
+    @Test
+    public void testExceptionIsPassedThrough() {
+        RequestCoalescer<String> coalescer = new RequestCoalescer<String>();
+
+        try {
+            coalescer.execute("id", "key", new Callable<String>() {
+                public String call() {
+                    throw new CmisObjectNotFoundException("not found");
+                }
+            });
+            fail("CmisObjectNotFoundException expected!");
+        } catch (CmisObjectNotFoundException e) {
+            assertEquals("not found", e.getMessage());
+        }
+
+        // the failed request must not block the next one
+        assertEquals("a", coalescer.execute("id", "key", new ConstantRequest("a")));
+        assertTrue(coalescer.getCoalescedCount() == 0);
+    }
+
+    private static class ConstantRequest implements Callable<String> {
+        private final String value;
+
+        public ConstantRequest(String value) {
+            this.value = value;
+        }
+
+        public String call() {
+            return value;
+        }
+    }
+}
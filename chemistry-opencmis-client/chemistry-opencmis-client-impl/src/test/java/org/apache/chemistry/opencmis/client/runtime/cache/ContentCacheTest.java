@@ -0,0 +1,266 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.chemistry.opencmis.client.runtime.cache;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+
+import org.apache.chemistry.opencmis.commons.data.ContentStream;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.ContentStreamImpl;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ContentCacheTest {
+
+    private static final String SCOPE = "repo\nhttp://localhost/cmis\nalice";
+
+    private File directory;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = File.createTempFile("opencmis-content-cache", "");
+        directory.delete();
+    }
+
+    @After
+    public void tearDown() {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    @Test
+    public void testStoreAndOpen() throws IOException {
+        ContentCache cache = new ContentCache(directory, 1024);
+        byte[] content = createContent(100, 1);
+
+        assertNull(cache.get(SCOPE, "doc1", null));
+
+        // the content is added once the stream has been read completely
+        ContentStream stream = cache.store(SCOPE, "doc1", null, "token1", "\"etag1\"", null,
+                createContentStream(content));
+        assertNull(cache.get(SCOPE, "doc1", null));
+        assertArrayEquals(content, read(stream.getStream()));
+
+        ContentCache.Entry entry = cache.get(SCOPE, "doc1", null);
+        assertNotNull(entry);
+        assertEquals("token1", entry.getChangeToken());
+        assertEquals("\"etag1\"", entry.getETag());
+        assertEquals(100, entry.getLength());
+        assertEquals(100, cache.getSize());
+        assertEquals(1, cache.getStoreCount());
+
+        ContentStream cached = cache.open(entry, "token2");
+        assertEquals("test.bin", cached.getFileName());
+        assertEquals("application/octet-stream", cached.getMimeType());
+        assertEquals(100, cached.getLength());
+        assertArrayEquals(content, read(cached.getStream()));
+        assertEquals("token2", cache.get(SCOPE, "doc1", null).getChangeToken());
+        assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    public void testIncompleteRead() throws IOException {
+        ContentCache cache = new ContentCache(directory, 1024);
+
+        ContentStream stream = cache.store(SCOPE, "doc1", null, null, null, null,
+                createContentStream(createContent(100, 1)));
+        assertEquals(10, stream.getStream().read(new byte[10]));
+        stream.getStream().close();
+
+        assertNull(cache.get(SCOPE, "doc1", null));
+        assertEquals(0, cache.getSize());
+
+        // only the cache directory is left, no temp files
+        assertEquals(0, directory.listFiles().length);
+    }
+
+    @Test
+    public void testScopes() throws IOException {
+        ContentCache cache = new ContentCache(directory, 1024);
+
+        read(cache.store(SCOPE, "doc1", null, null, null, null, createContentStream(createContent(10, 1)))
+                .getStream());
+        read(cache.store(SCOPE, "doc1", "rendition", null, null, null,
+                createContentStream(createContent(20, 2))).getStream());
+
+        assertEquals(10, cache.get(SCOPE, "doc1", null).getLength());
+        assertEquals(20, cache.get(SCOPE, "doc1", "rendition").getLength());
+
+        // other repositories and users don't see the content
+        assertNull(cache.get("repo\nhttp://localhost/cmis\nbob", "doc1", null));
+        assertNull(cache.get("other\nhttp://localhost/cmis\nalice", "doc1", null));
+    }
+
+    @Test
+    public void testEviction() throws IOException {
+        ContentCache cache = new ContentCache(directory, 250);
+
+        for (int i = 0; i < 3; i++) {
+            read(cache.store(SCOPE, "doc" + i, null, null, null, null, createContentStream(createContent(100, i)))
+                    .getStream());
+
+            // touch the first document
+            assertNotNull(cache.get(SCOPE, "doc0", null));
+        }
+
+        // doc1 is the least recently used entry
+        assertNotNull(cache.get(SCOPE, "doc0", null));
+        assertNull(cache.get(SCOPE, "doc1", null));
+        assertNotNull(cache.get(SCOPE, "doc2", null));
+        assertEquals(200, cache.getSize());
+        assertEquals(4, directory.listFiles().length);
+
+        // too large for the cache
+        read(cache.store(SCOPE, "big", null, null, null, null, createContentStream(createContent(300, 9)))
+                .getStream());
+        assertNull(cache.get(SCOPE, "big", null));
+        assertEquals(200, cache.getSize());
+
+        cache.remove(cache.get(SCOPE, "doc0", null));
+        assertEquals(100, cache.getSize());
+
+        cache.clear();
+        assertEquals(0, cache.getSize());
+        assertEquals(0, directory.listFiles().length);
+    }
+
+    @Test
+    public void testReplaceWhileReading() throws IOException {
+        ContentCache cache = new ContentCache(directory, 1024);
+        byte[] content1 = createContent(100, 1);
+        byte[] content2 = createContent(50, 2);
+        read(cache.store(SCOPE, "doc1", null, "token1", null, null, createContentStream(content1)).getStream());
+
+        InputStream reader = cache.open(cache.get(SCOPE, "doc1", null), null).getStream();
+        assertEquals(10, reader.read(new byte[10]));
+
+        // the content file is in use -> the new content is not cached and
+        // the old entry is removed
+        read(cache.store(SCOPE, "doc1", null, "token2", null, null, createContentStream(content2)).getStream());
+        assertNull(cache.get(SCOPE, "doc1", null));
+        assertEquals(0, cache.getSize());
+
+        // the reader still gets the old content
+        byte[] rest = read(reader);
+        assertEquals(90, rest.length);
+        assertEquals(content1[10], rest[0]);
+        assertEquals(0, directory.listFiles().length);
+
+        // now the entry can be stored again
+        read(cache.store(SCOPE, "doc1", null, "token2", null, null, createContentStream(content2)).getStream());
+        ContentCache.Entry entry = cache.get(SCOPE, "doc1", null);
+        assertEquals("token2", entry.getChangeToken());
+        assertArrayEquals(content2, read(cache.open(entry, null).getStream()));
+    }
+
+    @Test
+    public void testRemoveWhileReading() throws IOException {
+        ContentCache cache = new ContentCache(directory, 1024);
+        byte[] content = createContent(100, 1);
+        read(cache.store(SCOPE, "doc1", null, null, null, null, createContentStream(content)).getStream());
+
+        ContentCache.Entry entry = cache.get(SCOPE, "doc1", null);
+        InputStream reader = cache.open(entry, null).getStream();
+        cache.clear();
+
+        // the content file is deleted after the reader has been closed
+        assertNull(cache.open(entry, null));
+        assertEquals(1, directory.listFiles().length);
+        assertArrayEquals(content, read(reader));
+        assertEquals(0, directory.listFiles().length);
+
+        // reading to the end releases the entry
+        read(cache.store(SCOPE, "doc1", null, null, null, null, createContentStream(content)).getStream());
+        entry = cache.get(SCOPE, "doc1", null);
+        InputStream stream = cache.open(entry, null).getStream();
+        assertEquals(100, stream.read(new byte[200]));
+        assertEquals(-1, stream.read());
+        cache.remove(entry);
+        assertEquals(0, directory.listFiles().length);
+    }
+
+    @Test
+    public void testReload() throws IOException {
+        ContentCache cache = new ContentCache(directory, 1024);
+        byte[] content = createContent(100, 3);
+        read(cache.store(SCOPE, "doc1", null, "token1", null, "Tue, 15 Nov 1994 12:45:26 GMT",
+                createContentStream(content)).getStream());
+
+        ContentCache reloaded = new ContentCache(directory, 1024);
+        ContentCache.Entry entry = reloaded.get(SCOPE, "doc1", null);
+        assertNotNull(entry);
+        assertEquals("token1", entry.getChangeToken());
+        assertEquals("Tue, 15 Nov 1994 12:45:26 GMT", entry.getLastModified());
+        assertEquals(100, reloaded.getSize());
+        assertArrayEquals(content, read(reloaded.open(entry, null).getStream()));
+    }
+
+    @Test
+    public void testSharedInstances() throws IOException {
+        ContentCache cache = ContentCache.getInstance(directory, 1024);
+
+        assertSame(cache, ContentCache.getInstance(directory, 1024));
+        assertSame(cache, ContentCache.getInstance(new File(directory, "../" + directory.getName()), 2048));
+
+        File otherDirectory = new File(directory, "other");
+        assertNotSame(cache, ContentCache.getInstance(otherDirectory, 1024));
+        otherDirectory.delete();
+    }
+
+    private static byte[] createContent(int length, int seed) {
+        byte[] result = new byte[length];
+        for (int i = 0; i < length; i++) {
+            result[i] = (byte) (i * 31 + seed);
+        }
+        return result;
+    }
+
+    private static ContentStream createContentStream(byte[] content) {
+        return new ContentStreamImpl("test.bin", BigInteger.valueOf(content.length), "application/octet-stream",
+                new ByteArrayInputStream(content));
+    }
+
+    private static byte[] read(InputStream stream) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        byte[] buffer = new byte[7];
+        int b;
+        while ((b = stream.read(buffer)) > -1) {
+            bos.write(buffer, 0, b);
+        }
+        stream.close();
+        return bos.toByteArray();
+    }
+}
@@ -86,6 +86,15 @@ package org.apache.chemistry.opencmis.commons;
  * </td>
  * </tr>
  * <tr>
+ * <td>{@link #LAZY_PROPERTIES}</td>
+ * <td>Create property objects of a CmisObject on first access instead of
+ * when the object is created</td>
+ * <td>all</td>
+ * <td>"true", "false"</td>
+ * <td>no</td>
+ * <td>false</td>
+ * </tr>
+ * <tr>
  * <td colspan="6"><b>Authentication settings</b></td>
  * </tr>
  * <tr>
@@ -266,6 +275,22 @@ package org.apache.chemistry.opencmis.commons;
  * <td>false</td>
  * </tr>
  * <tr>
+ * <td>{@link #CONTENT_CACHE_DIRECTORY}</td>
+ * <td>Content cache directory, turns on the content cache</td>
+ * <td>all</td>
+ * <td>directory path</td>
+ * <td>no</td>
+ * <td>-</td>
+ * </tr>
+ * <tr>
+ * <td>{@link #CONTENT_CACHE_SIZE}</td>
+ * <td>Content cache size</td>
+ * <td>all</td>
+ * <td>number of bytes</td>
+ * <td>no</td>
+ * <td>104857600 (100 MB)</td>
+ * </tr>
+ * <tr>
  * <td>{@link #CACHE_SIZE_REPOSITORIES}</td>
  * <td>Repository info cache size</td>
  * <td>all</td>
@@ -301,6 +326,15 @@ package org.apache.chemistry.opencmis.commons;
  * <td>-</td>
  * </tr>
  * <tr>
+ * <td>{@link #ATOMPUB_LINK_SYNTHESIS}</td>
+ * <td>Build uncached object links from learned link patterns and URI
+ * templates instead of fetching the object first</td>
+ * <td>AtomPub</td>
+ * <td>"true", "false"</td>
+ * <td>no</td>
+ * <td>"false"</td>
+ * </tr>
+ * <tr>
  * <td colspan="6"><b>Web Services Binding settings</b></td>
  * </tr>
  * <tr>
@@ -476,6 +510,41 @@ package org.apache.chemistry.opencmis.commons;
  * <td>4194304 (4MB)</td>
  * </tr>
  * <tr>
+ * <td>{@link #WEBSERVICES_PORT_POOL_MIN}</td>
+ * <td>Number of port objects per service that are created when the session
+ * is created and that are never evicted</td>
+ * <td>Web Services</td>
+ * <td>number</td>
+ * <td>no</td>
+ * <td>0</td>
+ * </tr>
+ * <tr>
+ * <td>{@link #WEBSERVICES_PORT_POOL_MAX}</td>
+ * <td>Maximum number of port objects per service, idle and in use. This
+ * limits the number of concurrent calls to a service.</td>
+ * <td>Web Services</td>
+ * <td>number</td>
+ * <td>no</td>
+ * <td>20</td>
+ * </tr>
+ * <tr>
+ * <td>{@link #WEBSERVICES_PORT_POOL_MAX_WAIT}</td>
+ * <td>If the maximum number of port objects of a service is in use, time to
+ * wait for a port object to be returned before the call fails</td>
+ * <td>Web Services</td>
+ * <td>time in milliseconds</td>
+ * <td>no</td>
+ * <td>60000 (1 minute)</td>
+ * </tr>
+ * <tr>
+ * <td>{@link #WEBSERVICES_PORT_POOL_IDLE_TIMEOUT}</td>
+ * <td>Idle port objects above the minimum are discarded after this time</td>
+ * <td>Web Services</td>
+ * <td>time in milliseconds</td>
+ * <td>no</td>
+ * <td>600000 (10 minutes)</td>
+ * </tr>
+ * <tr>
  * <td colspan="6"><b>Browser Binding</b></td>
  * </tr>
  * <tr>
@@ -534,6 +603,12 @@ public final class SessionParameter {
     /** URL of the AtomPub service document. */
     public static final String ATOMPUB_URL = "org.apache.chemistry.opencmis.binding.atompub.url";
 
+    /**
+     * Toggle for building object links from learned link patterns and the
+     * URI templates of the service document instead of fetching the object.
+     */
+    public static final String ATOMPUB_LINK_SYNTHESIS = "org.apache.chemistry.opencmis.binding.atompub.linkSynthesis";
+
     /** WSDL URLs for Web Services. */
     public static final String WEBSERVICES_REPOSITORY_SERVICE = "org.apache.chemistry.opencmis.binding.webservices.RepositoryService";
     public static final String WEBSERVICES_NAVIGATION_SERVICE = "org.apache.chemistry.opencmis.binding.webservices.NavigationService";
@@ -558,6 +633,11 @@ public final class SessionParameter {
 
     public static final String WEBSERVICES_MEMORY_THRESHOLD = "org.apache.chemistry.opencmis.binding.webservices.memoryThreshold";
 
+    public static final String WEBSERVICES_PORT_POOL_MIN = "org.apache.chemistry.opencmis.binding.webservices.portPool.min";
+    public static final String WEBSERVICES_PORT_POOL_MAX = "org.apache.chemistry.opencmis.binding.webservices.portPool.max";
+    public static final String WEBSERVICES_PORT_POOL_MAX_WAIT = "org.apache.chemistry.opencmis.binding.webservices.portPool.maxWait";
+    public static final String WEBSERVICES_PORT_POOL_IDLE_TIMEOUT = "org.apache.chemistry.opencmis.binding.webservices.portPool.idleTimeout";
+
     public static final String WEBSERVICES_PORT_PROVIDER_CLASS = "org.apache.chemistry.opencmis.binding.webservices.portprovider.classname";
 
     public static final String WEBSERVICES_JAXWS_IMPL = "org.apache.chemistry.opencmis.binding.webservices.jaxws.impl";
@@ -631,6 +711,9 @@ public final class SessionParameter {
     public static final String CACHE_TTL_PATHTOID = "org.apache.chemistry.opencmis.cache.pathtoid.ttl";
     public static final String CACHE_PATH_OMIT = "org.apache.chemistry.opencmis.cache.path.omit";
 
+    public static final String CONTENT_CACHE_DIRECTORY = "org.apache.chemistry.opencmis.cache.content.directory";
+    public static final String CONTENT_CACHE_SIZE = "org.apache.chemistry.opencmis.cache.content.size";
+
     public static final String CACHE_SIZE_REPOSITORIES = "org.apache.chemistry.opencmis.binding.cache.repositories.size";
     public static final String CACHE_SIZE_TYPES = "org.apache.chemistry.opencmis.binding.cache.types.size";
     public static final String CACHE_SIZE_LINKS = "org.apache.chemistry.opencmis.binding.cache.links.size";
@@ -642,6 +725,7 @@ public final class SessionParameter {
     public static final String LOCALE_VARIANT = "org.apache.chemistry.opencmis.locale.variant";
 
     public static final String OBJECT_FACTORY_CLASS = "org.apache.chemistry.opencmis.objectfactory.classname";
+    public static final String LAZY_PROPERTIES = "org.apache.chemistry.opencmis.session.properties.lazy";
     public static final String CACHE_CLASS = "org.apache.chemistry.opencmis.cache.classname";
     public static final String TYPE_DEFINITION_CACHE_CLASS = "org.apache.chemistry.opencmis.cache.types.classname";
 
@@ -0,0 +1,401 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.chemistry.opencmis.commons.impl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+
+/**
+ * Block-oriented Base64 codec (RFC 4648, standard alphabet, no line breaks).
+ * <p>
+ * In contrast to {@link Base64}, which processes one byte per call, this
+ * codec encodes and decodes whole arrays in tight loops over 3-byte and
+ * 4-character groups without per-byte state machines. The streaming adapters
+ * {@link EncodingReader} and {@link DecodingWriter} operate on character
+ * buffers, which is what XML stream readers and writers deliver and accept.
+ */
+public final class Base64Codec {
+
+    /** Default buffer size of the streaming adapters in bytes. */
+    public static final int DEFAULT_BUFFER_SIZE = 48 * 1024;
+
+    private static final char[] ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/"
+            .toCharArray();
+
+    private static final byte INVALID = -1;
+    private static final byte WHITE_SPACE = -2;
+    private static final byte PADDING = -3;
+
+    private static final byte[] DECODE_TABLE = new byte[128];
+    static {
+        for (int i = 0; i < DECODE_TABLE.length; i++) {
+            DECODE_TABLE[i] = INVALID;
+        }
+        for (int i = 0; i < ALPHABET.length; i++) {
+            DECODE_TABLE[ALPHABET[i]] = (byte) i;
+        }
+        DECODE_TABLE[' '] = WHITE_SPACE;
+        DECODE_TABLE['\t'] = WHITE_SPACE;
+        DECODE_TABLE['\r'] = WHITE_SPACE;
+        DECODE_TABLE['\n'] = WHITE_SPACE;
+        DECODE_TABLE['='] = PADDING;
+    }
+
+    private Base64Codec() {
+    }
+
+    /**
+     * Returns the number of Base64 characters for the given number of bytes.
+     */
+    public static long getEncodedLength(long length) {
+        return ((length + 2) / 3) * 4;
+    }
+
+    /**
+     * Encodes a byte array.
+     */
+    public static String encode(byte[] src) {
+        char[] dst = new char[(int) getEncodedLength(src.length)];
+        encode(src, 0, src.length, dst, 0);
+        return new String(dst);
+    }
+
+    /**
+     * Encodes a block of bytes. If <code>len</code> is not a multiple of 3,
+     * the last group is padded, so only the last block of a stream may have
+     * such a length.
+     *
+     * @return the number of characters written to <code>dst</code>
+     */
+    public static int encode(byte[] src, int srcOffset, int len, char[] dst, int dstOffset) {
+        final char[] alphabet = ALPHABET;
+        final int rest = len % 3;
+        final int end = srcOffset + len - rest;
+
+        int s = srcOffset;
+        int d = dstOffset;
+        while (s < end) {
+            int bits = (src[s] & 0xff) << 16 | (src[s + 1] & 0xff) << 8 | (src[s + 2] & 0xff);
+            dst[d] = alphabet[bits >>> 18];
+            dst[d + 1] = alphabet[(bits >>> 12) & 0x3f];
+            dst[d + 2] = alphabet[(bits >>> 6) & 0x3f];
+            dst[d + 3] = alphabet[bits & 0x3f];
+            s += 3;
+            d += 4;
+        }
+
+        if (rest == 1) {
+            int bits = (src[s] & 0xff) << 16;
+            dst[d++] = alphabet[bits >>> 18];
+            dst[d++] = alphabet[(bits >>> 12) & 0x3f];
+            dst[d++] = '=';
+            dst[d++] = '=';
+        } else if (rest == 2) {
+            int bits = (src[s] & 0xff) << 16 | (src[s + 1] & 0xff) << 8;
+            dst[d++] = alphabet[bits >>> 18];
+            dst[d++] = alphabet[(bits >>> 12) & 0x3f];
+            dst[d++] = alphabet[(bits >>> 6) & 0x3f];
+            dst[d++] = '=';
+        }
+
+        return d - dstOffset;
+    }
+
+    /**
+     * Decodes a Base64 string. White space is ignored.
+     *
+     * @throws IOException
+     *             if the string is not valid Base64
+     */
+    public static byte[] decode(String src) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream((src.length() / 4) * 3);
+        DecodingWriter writer = new DecodingWriter(out, Math.max(3, (src.length() / 4) * 3));
+        writer.write(src);
+        writer.close();
+        return out.toByteArray();
+    }
+
+    /**
+     * Reads bytes from a stream and provides them as Base64 characters.
+     * <p>
+     * The underlying stream is read in blocks of {@link #DEFAULT_BUFFER_SIZE}
+     * bytes, which are encoded in one go.
+     */
+    public static class EncodingReader extends Reader {
+
+        private final InputStream in;
+        private final byte[] bytes;
+        private final char[] chars;
+        private int charPos = 0;
+        private int charEnd = 0;
+        private boolean eof = false;
+
+        public EncodingReader(InputStream in) {
+            this(in, DEFAULT_BUFFER_SIZE);
+        }
+
+        /**
+         * @param bufferSize
+         *            the block size in bytes, rounded up to a multiple of 3
+         */
+        public EncodingReader(InputStream in, int bufferSize) {
+            if (in == null) {
+                throw new IllegalArgumentException("Stream must be set!");
+            }
+
+            this.in = in;
+            this.bytes = new byte[((Math.max(bufferSize, 3) + 2) / 3) * 3];
+            this.chars = new char[(bytes.length / 3) * 4];
+        }
+
+        @Override
+        public int read(char[] cbuf, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+
+            if (charPos == charEnd && !fill()) {
+                return -1;
+            }
+
+            int n = Math.min(len, charEnd - charPos);
+            System.arraycopy(chars, charPos, cbuf, off, n);
+            charPos += n;
+
+            return n;
+        }
+
+        private boolean fill() throws IOException {
+            if (eof) {
+                return false;
+            }
+
+            // the block must be full unless the stream ends, otherwise the
+            // output would contain padding in the middle
+            int count = 0;
+            while (count < bytes.length) {
+                int r = in.read(bytes, count, bytes.length - count);
+                if (r == -1) {
+                    eof = true;
+                    break;
+                }
+                count += r;
+            }
+
+            if (count == 0) {
+                return false;
+            }
+
+            charPos = 0;
+            charEnd = encode(bytes, 0, count, chars, 0);
+
+            return true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+
+    /**
+     * Accepts Base64 characters and writes the decoded bytes to a stream.
+     * <p>
+     * White space is ignored. Runs of complete 4-character groups are decoded
+     * without looking at individual characters twice. Closing the writer
+     * closes the underlying stream.
+     */
+    public static class DecodingWriter extends Writer {
+
+        private final OutputStream out;
+        private final byte[] buffer;
+        private int bufferPos = 0;
+        private final int[] quantum = new int[4];
+        private int quantumLen = 0;
+        private int padding = 0;
+        private boolean closed = false;
+
+        public DecodingWriter(OutputStream out) {
+            this(out, DEFAULT_BUFFER_SIZE);
+        }
+
+        /**
+         * @param bufferSize
+         *            the size of the output buffer in bytes
+         */
+        public DecodingWriter(OutputStream out, int bufferSize) {
+            if (out == null) {
+                throw new IllegalArgumentException("Stream must be set!");
+            }
+
+            this.out = out;
+            this.buffer = new byte[Math.max(bufferSize, 3)];
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) throws IOException {
+            if (closed) {
+                throw new IOException("Writer is closed!");
+            }
+
+            final int end = off + len;
+            int i = off;
+            while (i < end) {
+                if (quantumLen == 0 && padding == 0) {
+                    i = decodeGroups(cbuf, i, end);
+                    if (i == end) {
+                        break;
+                    }
+                }
+
+                char c = cbuf[i++];
+                int value = (c < 128 ? DECODE_TABLE[c] : INVALID);
+                if (value >= 0) {
+                    if (padding > 0) {
+                        throw new IOException("Base64 input not properly padded!");
+                    }
+                    quantum[quantumLen++] = value;
+                    if (quantumLen == 4) {
+                        int bits = quantum[0] << 18 | quantum[1] << 12 | quantum[2] << 6 | quantum[3];
+                        put((byte) (bits >> 16));
+                        put((byte) (bits >> 8));
+                        put((byte) bits);
+                        quantumLen = 0;
+                    }
+                } else if (value == WHITE_SPACE) {
+                    continue;
+                } else if (value == PADDING) {
+                    if (quantumLen == 2) {
+                        put((byte) ((quantum[0] << 2) | (quantum[1] >> 4)));
+                        quantumLen = 0;
+                        padding = 1;
+                    } else if (quantumLen == 3) {
+                        int bits = quantum[0] << 18 | quantum[1] << 12 | quantum[2] << 6;
+                        put((byte) (bits >> 16));
+                        put((byte) (bits >> 8));
+                        quantumLen = 0;
+                    } else if (quantumLen == 0 && padding > 0) {
+                        padding--;
+                    } else {
+                        throw new IOException("Base64 input not properly padded!");
+                    }
+                } else {
+                    throw new IOException("Invalid Base64 character: 0x" + Integer.toHexString(c));
+                }
+            }
+        }
+
+        /**
+         * Decodes complete 4-character groups until the end of the input, the
+         * first character that is not part of the alphabet, or the end of the
+         * output buffer.
+         *
+         * @return the position of the first character that has not been
+         *         decoded
+         */
+        private int decodeGroups(char[] src, int pos, int end) throws IOException {
+            final byte[] table = DECODE_TABLE;
+            int i = pos;
+
+            while (end - i >= 4) {
+                if (buffer.length - bufferPos < 3) {
+                    flushBuffer();
+                }
+
+                int limit = Math.min(end - 3, i + ((buffer.length - bufferPos) / 3) * 4);
+                int b = bufferPos;
+                while (i < limit) {
+                    char c0 = src[i];
+                    char c1 = src[i + 1];
+                    char c2 = src[i + 2];
+                    char c3 = src[i + 3];
+                    if ((c0 | c1 | c2 | c3) >= 128) {
+                        break;
+                    }
+
+                    int bits = table[c0] << 18 | table[c1] << 12 | table[c2] << 6 | table[c3];
+                    if ((table[c0] | table[c1] | table[c2] | table[c3]) < 0) {
+                        break;
+                    }
+
+                    buffer[b] = (byte) (bits >> 16);
+                    buffer[b + 1] = (byte) (bits >> 8);
+                    buffer[b + 2] = (byte) bits;
+                    b += 3;
+                    i += 4;
+                }
+
+                boolean stopped = (i < limit);
+                bufferPos = b;
+                if (stopped) {
+                    break;
+                }
+            }
+
+            return i;
+        }
+
+        private void put(byte b) throws IOException {
+            if (bufferPos == buffer.length) {
+                flushBuffer();
+            }
+            buffer[bufferPos++] = b;
+        }
+
+        private void flushBuffer() throws IOException {
+            if (bufferPos > 0) {
+                out.write(buffer, 0, bufferPos);
+                bufferPos = 0;
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            flushBuffer();
+            out.flush();
+        }
+
+        /**
+         * Writes the remaining bytes and closes the underlying stream.
+         *
+         * @throws IOException
+         *             if the input ended in the middle of a 4-character group
+         */
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+
+            try {
+                if (quantumLen != 0 || padding != 0) {
+                    throw new IOException("Base64 input not properly padded!");
+                }
+                flushBuffer();
+            } finally {
+                out.close();
+            }
+        }
+    }
+}
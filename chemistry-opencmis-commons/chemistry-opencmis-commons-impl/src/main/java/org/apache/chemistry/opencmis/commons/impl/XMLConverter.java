@@ -1594,6 +1594,41 @@ public final class XMLConverter {
     // --- definition parsers ---
     // --------------------------
 
+    private enum TypeTag {
+        ID, LOCALNAME, LOCALNAMESPACE, DISPLAYNAME, QUERYNAME, DESCRIPTION, BASE_ID, PARENT_ID, CREATABLE,
+        FILEABLE, QUERYABLE, FULLTEXT_INDEXED, INCLUDE_IN_SUPERTYPE_QUERY, CONTROLABLE_POLICY, CONTROLABLE_ACL,
+        TYPE_MUTABILITY, VERSIONABLE, CONTENTSTREAM_ALLOWED, ALLOWED_SOURCE_TYPES, ALLOWED_TARGET_TYPES,
+        PROPERTY_DEFINITION
+    }
+
+    private static final XMLTagTable<TypeTag> TYPE_TAGS = new XMLTagTable<TypeTag>();
+    static {
+        TYPE_TAGS.putAll(NAMESPACE_CMIS, new String[] { TAG_TYPE_ID, TAG_TYPE_LOCALNAME, TAG_TYPE_LOCALNAMESPACE,
+                TAG_TYPE_DISPLAYNAME, TAG_TYPE_QUERYNAME, TAG_TYPE_DESCRIPTION, TAG_TYPE_BASE_ID, TAG_TYPE_PARENT_ID,
+                TAG_TYPE_CREATABLE, TAG_TYPE_FILEABLE, TAG_TYPE_QUERYABLE, TAG_TYPE_FULLTEXT_INDEXED,
+                TAG_TYPE_INCLUDE_IN_SUPERTYPE_QUERY, TAG_TYPE_CONTROLABLE_POLICY, TAG_TYPE_CONTROLABLE_ACL,
+                TAG_TYPE_TYPE_MUTABILITY, TAG_TYPE_VERSIONABLE, TAG_TYPE_CONTENTSTREAM_ALLOWED,
+                TAG_TYPE_ALLOWED_SOURCE_TYPES, TAG_TYPE_ALLOWED_TARGET_TYPES }, new TypeTag[] { TypeTag.ID,
+                TypeTag.LOCALNAME, TypeTag.LOCALNAMESPACE, TypeTag.DISPLAYNAME, TypeTag.QUERYNAME,
+                TypeTag.DESCRIPTION, TypeTag.BASE_ID, TypeTag.PARENT_ID, TypeTag.CREATABLE, TypeTag.FILEABLE,
+                TypeTag.QUERYABLE, TypeTag.FULLTEXT_INDEXED, TypeTag.INCLUDE_IN_SUPERTYPE_QUERY,
+                TypeTag.CONTROLABLE_POLICY, TypeTag.CONTROLABLE_ACL, TypeTag.TYPE_MUTABILITY, TypeTag.VERSIONABLE,
+                TypeTag.CONTENTSTREAM_ALLOWED, TypeTag.ALLOWED_SOURCE_TYPES, TypeTag.ALLOWED_TARGET_TYPES });
+
+        for (String tag : new String[] { TAG_TYPE_PROP_DEF_STRING, TAG_TYPE_PROP_DEF_ID, TAG_TYPE_PROP_DEF_BOOLEAN,
+                TAG_TYPE_PROP_DEF_INTEGER, TAG_TYPE_PROP_DEF_DATETIME, TAG_TYPE_PROP_DEF_DECIMAL,
+                TAG_TYPE_PROP_DEF_HTML, TAG_TYPE_PROP_DEF_URI }) {
+            TYPE_TAGS.put(NAMESPACE_CMIS, tag, TypeTag.PROPERTY_DEFINITION);
+        }
+    }
+
+    private static final XMLTagTable<PropertyType> PROPERTY_DEFINITION_TAGS = new XMLTagTable<PropertyType>().putAll(
+            NAMESPACE_CMIS, new String[] { TAG_TYPE_PROP_DEF_STRING, TAG_TYPE_PROP_DEF_ID, TAG_TYPE_PROP_DEF_BOOLEAN,
+                    TAG_TYPE_PROP_DEF_INTEGER, TAG_TYPE_PROP_DEF_DATETIME, TAG_TYPE_PROP_DEF_DECIMAL,
+                    TAG_TYPE_PROP_DEF_HTML, TAG_TYPE_PROP_DEF_URI }, new PropertyType[] { PropertyType.STRING,
+                    PropertyType.ID, PropertyType.BOOLEAN, PropertyType.INTEGER, PropertyType.DATETIME,
+                    PropertyType.DECIMAL, PropertyType.HTML, PropertyType.URI });
+
     private static final XMLWalker<AbstractTypeDefinition> TYPE_DEF_PARSER = new XMLWalker<AbstractTypeDefinition>() {
         @Override
         protected AbstractTypeDefinition prepareTarget(XMLStreamReader parser, QName name) throws XMLStreamException {
@@ -1629,131 +1664,98 @@ public final class XMLConverter {
         @Override
         protected boolean read(XMLStreamReader parser, QName name, AbstractTypeDefinition target)
                 throws XMLStreamException {
-            if (isCmisNamespace(name)) {
-                if (isTag(name, TAG_TYPE_ID)) {
-                    target.setId(readText(parser));
-                    return true;
-                }
-
-                if (isTag(name, TAG_TYPE_LOCALNAME)) {
-                    target.setLocalName(readText(parser));
-                    return true;
-                }
-
-                if (isTag(name, TAG_TYPE_LOCALNAMESPACE)) {
-                    target.setLocalNamespace(readText(parser));
-                    return true;
-                }
-
-                if (isTag(name, TAG_TYPE_DISPLAYNAME)) {
-                    target.setDisplayName(readText(parser));
-                    return true;
-                }
-
-                if (isTag(name, TAG_TYPE_QUERYNAME)) {
-                    target.setQueryName(readText(parser));
-                    return true;
-                }
-
-                if (isTag(name, TAG_TYPE_DESCRIPTION)) {
-                    target.setDescription(readText(parser));
-                    return true;
-                }
-
-                if (isTag(name, TAG_TYPE_BASE_ID)) {
-                    BaseTypeId baseType = readEnum(parser, BaseTypeId.class);
-                    if (baseType == null) {
-                        throw new CmisInvalidArgumentException("Invalid base type!");
-                    }
-
-                    target.setBaseTypeId(baseType);
-                    return true;
-                }
-
-                if (isTag(name, TAG_TYPE_PARENT_ID)) {
-                    target.setParentTypeId(readText(parser));
-                    return true;
-                }
-
-                if (isTag(name, TAG_TYPE_CREATABLE)) {
-                    target.setIsCreatable(readBoolean(parser));
-                    return true;
-                }
-
-                if (isTag(name, TAG_TYPE_FILEABLE)) {
-                    target.setIsFileable(readBoolean(parser));
-                    return true;
-                }
-
-                if (isTag(name, TAG_TYPE_QUERYABLE)) {
-                    target.setIsQueryable(readBoolean(parser));
-                    return true;
-                }
-
-                if (isTag(name, TAG_TYPE_FULLTEXT_INDEXED)) {
-                    target.setIsFulltextIndexed(readBoolean(parser));
-                    return true;
-                }
-
-                if (isTag(name, TAG_TYPE_INCLUDE_IN_SUPERTYPE_QUERY)) {
-                    target.setIsIncludedInSupertypeQuery(readBoolean(parser));
-                    return true;
-                }
-
-                if (isTag(name, TAG_TYPE_CONTROLABLE_POLICY)) {
-                    target.setIsControllablePolicy(readBoolean(parser));
-                    return true;
-                }
+            TypeTag tag = TYPE_TAGS.get(name);
+            if (tag == null) {
+                return false;
+            }
 
-                if (isTag(name, TAG_TYPE_CONTROLABLE_ACL)) {
-                    target.setIsControllableAcl(readBoolean(parser));
+            switch (tag) {
+            case ID:
+                target.setId(readText(parser));
+                return true;
+            case LOCALNAME:
+                target.setLocalName(readText(parser));
+                return true;
+            case LOCALNAMESPACE:
+                target.setLocalNamespace(readText(parser));
+                return true;
+            case DISPLAYNAME:
+                target.setDisplayName(readText(parser));
+                return true;
+            case QUERYNAME:
+                target.setQueryName(readText(parser));
+                return true;
+            case DESCRIPTION:
+                target.setDescription(readText(parser));
+                return true;
+            case BASE_ID:
+                BaseTypeId baseType = readEnum(parser, BaseTypeId.class);
+                if (baseType == null) {
+                    throw new CmisInvalidArgumentException("Invalid base type!");
+                }
+
+                target.setBaseTypeId(baseType);
+                return true;
+            case PARENT_ID:
+                target.setParentTypeId(readText(parser));
+                return true;
+            case CREATABLE:
+                target.setIsCreatable(readBoolean(parser));
+                return true;
+            case FILEABLE:
+                target.setIsFileable(readBoolean(parser));
+                return true;
+            case QUERYABLE:
+                target.setIsQueryable(readBoolean(parser));
+                return true;
+            case FULLTEXT_INDEXED:
+                target.setIsFulltextIndexed(readBoolean(parser));
+                return true;
+            case INCLUDE_IN_SUPERTYPE_QUERY:
+                target.setIsIncludedInSupertypeQuery(readBoolean(parser));
+                return true;
+            case CONTROLABLE_POLICY:
+                target.setIsControllablePolicy(readBoolean(parser));
+                return true;
+            case CONTROLABLE_ACL:
+                target.setIsControllableAcl(readBoolean(parser));
+                return true;
+            case TYPE_MUTABILITY:
+                target.setTypeMutability(TYPE_MUTABILITY_PARSER.walk(parser));
+                return true;
+            case PROPERTY_DEFINITION:
+                target.addPropertyDefinition(PROPERTY_TYPE_PARSER.walk(parser));
+                return true;
+            case VERSIONABLE:
+                if (target instanceof DocumentTypeDefinitionImpl) {
+                    ((DocumentTypeDefinitionImpl) target).setIsVersionable(readBoolean(parser));
                     return true;
                 }
-
-                if (isTag(name, TAG_TYPE_TYPE_MUTABILITY)) {
-                    target.setTypeMutability(TYPE_MUTABILITY_PARSER.walk(parser));
+                return false;
+            case CONTENTSTREAM_ALLOWED:
+                if (target instanceof DocumentTypeDefinitionImpl) {
+                    ((DocumentTypeDefinitionImpl) target).setContentStreamAllowed(readEnum(parser,
+                            ContentStreamAllowed.class));
                     return true;
                 }
-
-                if (isTag(name, TAG_TYPE_PROP_DEF_STRING) || isTag(name, TAG_TYPE_PROP_DEF_ID)
-                        || isTag(name, TAG_TYPE_PROP_DEF_BOOLEAN) || isTag(name, TAG_TYPE_PROP_DEF_INTEGER)
-                        || isTag(name, TAG_TYPE_PROP_DEF_DATETIME) || isTag(name, TAG_TYPE_PROP_DEF_DECIMAL)
-                        || isTag(name, TAG_TYPE_PROP_DEF_HTML) || isTag(name, TAG_TYPE_PROP_DEF_URI)) {
-                    target.addPropertyDefinition(PROPERTY_TYPE_PARSER.walk(parser));
+                return false;
+            case ALLOWED_SOURCE_TYPES:
+                if (target instanceof RelationshipTypeDefinitionImpl) {
+                    RelationshipTypeDefinitionImpl relTarget = (RelationshipTypeDefinitionImpl) target;
+                    relTarget.setAllowedSourceTypes(addToList(relTarget.getAllowedSourceTypeIds(), readText(parser)));
                     return true;
                 }
-
-                if (target instanceof DocumentTypeDefinitionImpl) {
-                    if (isTag(name, TAG_TYPE_VERSIONABLE)) {
-                        ((DocumentTypeDefinitionImpl) target).setIsVersionable(readBoolean(parser));
-                        return true;
-                    }
-
-                    if (isTag(name, TAG_TYPE_CONTENTSTREAM_ALLOWED)) {
-                        ((DocumentTypeDefinitionImpl) target).setContentStreamAllowed(readEnum(parser,
-                                ContentStreamAllowed.class));
-                        return true;
-                    }
-                }
-
+                return false;
+            case ALLOWED_TARGET_TYPES:
                 if (target instanceof RelationshipTypeDefinitionImpl) {
-                    if (isTag(name, TAG_TYPE_ALLOWED_SOURCE_TYPES)) {
-                        RelationshipTypeDefinitionImpl relTarget = (RelationshipTypeDefinitionImpl) target;
-                        relTarget
-                                .setAllowedSourceTypes(addToList(relTarget.getAllowedSourceTypeIds(), readText(parser)));
-                        return true;
-                    }
-
-                    if (isTag(name, TAG_TYPE_ALLOWED_TARGET_TYPES)) {
-                        RelationshipTypeDefinitionImpl relTarget = (RelationshipTypeDefinitionImpl) target;
-                        relTarget
-                                .setAllowedTargetTypes(addToList(relTarget.getAllowedTargetTypeIds(), readText(parser)));
-                        return true;
-                    }
+                    RelationshipTypeDefinitionImpl relTarget = (RelationshipTypeDefinitionImpl) target;
+                    relTarget.setAllowedTargetTypes(addToList(relTarget.getAllowedTargetTypeIds(), readText(parser)));
+                    return true;
                 }
+                return false;
+            default:
+                return false;
             }
-
-            return false;
         }
     };
 
@@ -1792,22 +1794,36 @@ public final class XMLConverter {
                 throws XMLStreamException {
             AbstractPropertyDefinition<?> result = null;
 
-            if (isTag(name, TAG_TYPE_PROP_DEF_STRING)) {
-                result = new PropertyStringDefinitionImpl();
-            } else if (isTag(name, TAG_TYPE_PROP_DEF_ID)) {
-                result = new PropertyIdDefinitionImpl();
-            } else if (isTag(name, TAG_TYPE_PROP_DEF_BOOLEAN)) {
-                result = new PropertyBooleanDefinitionImpl();
-            } else if (isTag(name, TAG_TYPE_PROP_DEF_INTEGER)) {
-                result = new PropertyIntegerDefinitionImpl();
-            } else if (isTag(name, TAG_TYPE_PROP_DEF_DATETIME)) {
-                result = new PropertyDateTimeDefinitionImpl();
-            } else if (isTag(name, TAG_TYPE_PROP_DEF_DECIMAL)) {
-                result = new PropertyDecimalDefinitionImpl();
-            } else if (isTag(name, TAG_TYPE_PROP_DEF_HTML)) {
-                result = new PropertyHtmlDefinitionImpl();
-            } else if (isTag(name, TAG_TYPE_PROP_DEF_URI)) {
-                result = new PropertyUriDefinitionImpl();
+            PropertyType propertyType = PROPERTY_DEFINITION_TAGS.get(name);
+            if (propertyType != null) {
+                switch (propertyType) {
+                case STRING:
+                    result = new PropertyStringDefinitionImpl();
+                    break;
+                case ID:
+                    result = new PropertyIdDefinitionImpl();
+                    break;
+                case BOOLEAN:
+                    result = new PropertyBooleanDefinitionImpl();
+                    break;
+                case INTEGER:
+                    result = new PropertyIntegerDefinitionImpl();
+                    break;
+                case DATETIME:
+                    result = new PropertyDateTimeDefinitionImpl();
+                    break;
+                case DECIMAL:
+                    result = new PropertyDecimalDefinitionImpl();
+                    break;
+                case HTML:
+                    result = new PropertyHtmlDefinitionImpl();
+                    break;
+                case URI:
+                    result = new PropertyUriDefinitionImpl();
+                    break;
+                default:
+                    break;
+                }
             }
 
             if (result == null) {
@@ -2174,57 +2190,80 @@ public final class XMLConverter {
     // --- objects and lists parsers ---
     // ---------------------------------
 
-    private static final XMLWalker<ObjectDataImpl> OBJECT_PARSER = new XMLWalker<ObjectDataImpl>() {
-        @Override
-        protected ObjectDataImpl prepareTarget(XMLStreamReader parser, QName name) throws XMLStreamException {
-            return new ObjectDataImpl();
-        }
+    private enum ObjectTag {
+        PROPERTIES, ALLOWABLE_ACTIONS, RELATIONSHIP, CHANGE_EVENT_INFO, ACL, EXACT_ACL, POLICY_IDS, RENDITION
+    }
 
-        @Override
-        protected boolean read(XMLStreamReader parser, QName name, ObjectDataImpl target) throws XMLStreamException {
-            if (isCmisNamespace(name)) {
-                if (isTag(name, TAG_OBJECT_PROPERTIES)) {
-                    target.setProperties(PROPERTIES_PARSER.walk(parser));
-                    return true;
-                }
+    private static final XMLTagTable<ObjectTag> OBJECT_TAGS = new XMLTagTable<ObjectTag>().putAll(NAMESPACE_CMIS,
+            new String[] { TAG_OBJECT_PROPERTIES, TAG_OBJECT_ALLOWABLE_ACTIONS, TAG_OBJECT_RELATIONSHIP,
+                    TAG_OBJECT_CHANGE_EVENT_INFO, TAG_OBJECT_ACL, TAG_OBJECT_EXACT_ACL, TAG_OBJECT_POLICY_IDS,
+                    TAG_OBJECT_RENDITION }, ObjectTag.values());
 
-                if (isTag(name, TAG_OBJECT_ALLOWABLE_ACTIONS)) {
-                    target.setAllowableActions(ALLOWABLE_ACTIONS_PARSER.walk(parser));
-                    return true;
-                }
+    private enum PropertyTag {
+        STRING, ID, BOOLEAN, INTEGER, DATETIME, DECIMAL, HTML, URI
+    }
 
-                if (isTag(name, TAG_OBJECT_RELATIONSHIP)) {
-                    target.setRelationships(addToList(target.getRelationships(), OBJECT_PARSER.walk(parser)));
-                    return true;
-                }
+    private static final XMLTagTable<PropertyTag> PROPERTY_TAGS = new XMLTagTable<PropertyTag>().putAll(
+            NAMESPACE_CMIS, new String[] { TAG_PROP_STRING, TAG_PROP_ID, TAG_PROP_BOOLEAN, TAG_PROP_INTEGER,
+                    TAG_PROP_DATETIME, TAG_PROP_DECIMAL, TAG_PROP_HTML, TAG_PROP_URI }, PropertyTag.values());
 
-                if (isTag(name, TAG_OBJECT_CHANGE_EVENT_INFO)) {
-                    target.setChangeEventInfo(CHANGE_EVENT_PARSER.walk(parser));
-                    return true;
-                }
+    private static final XMLTagTable<Action> ACTION_TAGS = new XMLTagTable<Action>();
+    static {
+        for (Action action : Action.values()) {
+            ACTION_TAGS.put(NAMESPACE_CMIS, action.value(), action);
+        }
+    }
 
-                if (isTag(name, TAG_OBJECT_ACL)) {
-                    target.setAcl(ACL_PARSER.walk(parser));
-                    return true;
-                }
+    private enum RenditionTag {
+        STREAM_ID, MIMETYPE, LENGTH, KIND, TITLE, HEIGHT, WIDTH, DOCUMENT_ID
+    }
 
-                if (isTag(name, TAG_OBJECT_EXACT_ACL)) {
-                    target.setIsExactAcl(readBoolean(parser));
-                    return true;
-                }
+    private static final XMLTagTable<RenditionTag> RENDITION_TAGS = new XMLTagTable<RenditionTag>().putAll(
+            NAMESPACE_CMIS, new String[] { TAG_RENDITION_STREAM_ID, TAG_RENDITION_MIMETYPE, TAG_RENDITION_LENGTH,
+                    TAG_RENDITION_KIND, TAG_RENDITION_TITLE, TAG_RENDITION_HEIGHT, TAG_RENDITION_WIDTH,
+                    TAG_RENDITION_DOCUMENT_ID }, RenditionTag.values());
 
-                if (isTag(name, TAG_OBJECT_POLICY_IDS)) {
-                    target.setPolicyIds(POLICY_IDS_PARSER.walk(parser));
-                    return true;
-                }
+    private static final XMLWalker<ObjectDataImpl> OBJECT_PARSER = new XMLWalker<ObjectDataImpl>() {
+        @Override
+        protected ObjectDataImpl prepareTarget(XMLStreamReader parser, QName name) throws XMLStreamException {
+            return new ObjectDataImpl();
+        }
 
-                if (isTag(name, TAG_OBJECT_RENDITION)) {
-                    target.setRenditions(addToList(target.getRenditions(), RENDITION_PARSER.walk(parser)));
-                    return true;
-                }
+        @Override
+        protected boolean read(XMLStreamReader parser, QName name, ObjectDataImpl target) throws XMLStreamException {
+            ObjectTag tag = OBJECT_TAGS.get(name);
+            if (tag == null) {
+                return false;
+            }
+
+            switch (tag) {
+            case PROPERTIES:
+                target.setProperties(PROPERTIES_PARSER.walk(parser));
+                return true;
+            case ALLOWABLE_ACTIONS:
+                target.setAllowableActions(ALLOWABLE_ACTIONS_PARSER.walk(parser));
+                return true;
+            case RELATIONSHIP:
+                target.setRelationships(addToList(target.getRelationships(), OBJECT_PARSER.walk(parser)));
+                return true;
+            case CHANGE_EVENT_INFO:
+                target.setChangeEventInfo(CHANGE_EVENT_PARSER.walk(parser));
+                return true;
+            case ACL:
+                target.setAcl(ACL_PARSER.walk(parser));
+                return true;
+            case EXACT_ACL:
+                target.setIsExactAcl(readBoolean(parser));
+                return true;
+            case POLICY_IDS:
+                target.setPolicyIds(POLICY_IDS_PARSER.walk(parser));
+                return true;
+            case RENDITION:
+                target.setRenditions(addToList(target.getRenditions(), RENDITION_PARSER.walk(parser)));
+                return true;
+            default:
+                return false;
             }
-
-            return false;
         }
     };
 
@@ -2236,49 +2275,39 @@ public final class XMLConverter {
 
         @Override
         protected boolean read(XMLStreamReader parser, QName name, PropertiesImpl target) throws XMLStreamException {
-            if (isCmisNamespace(name)) {
-                if (isTag(name, TAG_PROP_STRING)) {
-                    target.addProperty(PROPERTY_STRING_PARSER.walk(parser));
-                    return true;
-                }
-
-                if (isTag(name, TAG_PROP_ID)) {
-                    target.addProperty(PROPERTY_ID_PARSER.walk(parser));
-                    return true;
-                }
-
-                if (isTag(name, TAG_PROP_BOOLEAN)) {
-                    target.addProperty(PROPERTY_BOOLEAN_PARSER.walk(parser));
-                    return true;
-                }
-
-                if (isTag(name, TAG_PROP_INTEGER)) {
-                    target.addProperty(PROPERTY_INTEGER_PARSER.walk(parser));
-                    return true;
-                }
-
-                if (isTag(name, TAG_PROP_DATETIME)) {
-                    target.addProperty(PROPERTY_DATETIME_PARSER.walk(parser));
-                    return true;
-                }
-
-                if (isTag(name, TAG_PROP_DECIMAL)) {
-                    target.addProperty(PROPERTY_DECIMAL_PARSER.walk(parser));
-                    return true;
-                }
-
-                if (isTag(name, TAG_PROP_HTML)) {
-                    target.addProperty(PROPERTY_HTML_PARSER.walk(parser));
-                    return true;
-                }
-
-                if (isTag(name, TAG_PROP_URI)) {
-                    target.addProperty(PROPERTY_URI_PARSER.walk(parser));
-                    return true;
-                }
+            PropertyTag tag = PROPERTY_TAGS.get(name);
+            if (tag == null) {
+                return false;
             }
 
-            return false;
+            switch (tag) {
+            case STRING:
+                target.addProperty(PROPERTY_STRING_PARSER.walk(parser));
+                return true;
+            case ID:
+                target.addProperty(PROPERTY_ID_PARSER.walk(parser));
+                return true;
+            case BOOLEAN:
+                target.addProperty(PROPERTY_BOOLEAN_PARSER.walk(parser));
+                return true;
+            case INTEGER:
+                target.addProperty(PROPERTY_INTEGER_PARSER.walk(parser));
+                return true;
+            case DATETIME:
+                target.addProperty(PROPERTY_DATETIME_PARSER.walk(parser));
+                return true;
+            case DECIMAL:
+                target.addProperty(PROPERTY_DECIMAL_PARSER.walk(parser));
+                return true;
+            case HTML:
+                target.addProperty(PROPERTY_HTML_PARSER.walk(parser));
+                return true;
+            case URI:
+                target.addProperty(PROPERTY_URI_PARSER.walk(parser));
+                return true;
+            default:
+                return false;
+            }
         }
     };
 
@@ -2291,23 +2320,19 @@ public final class XMLConverter {
         @Override
         protected boolean read(XMLStreamReader parser, QName name, AllowableActionsImpl target)
                 throws XMLStreamException {
-            if (isCmisNamespace(name)) {
-                try {
-                    Action action = Action.fromValue(name.getLocalPart());
-
-                    Set<Action> actions = target.getAllowableActions();
+            Action action = ACTION_TAGS.get(name);
+            if (action == null) {
+                // extension tag -> ignore
+                return false;
+            }
 
-                    if (Boolean.TRUE.equals(readBoolean(parser))) {
-                        actions.add(action);
-                    }
+            Set<Action> actions = target.getAllowableActions();
 
-                    return true;
-                } catch (IllegalArgumentException e) {
-                    // extension tag -> ignore
-                }
+            if (Boolean.TRUE.equals(readBoolean(parser))) {
+                actions.add(action);
             }
 
-            return false;
+            return true;
         }
     };
 
@@ -2434,49 +2459,39 @@ public final class XMLConverter {
 
         @Override
         protected boolean read(XMLStreamReader parser, QName name, RenditionDataImpl target) throws XMLStreamException {
-            if (isCmisNamespace(name)) {
-                if (isTag(name, TAG_RENDITION_STREAM_ID)) {
-                    target.setStreamId(readText(parser));
-                    return true;
-                }
-
-                if (isTag(name, TAG_RENDITION_MIMETYPE)) {
-                    target.setMimeType(readText(parser));
-                    return true;
-                }
-
-                if (isTag(name, TAG_RENDITION_LENGTH)) {
-                    target.setBigLength(readInteger(parser));
-                    return true;
-                }
-
-                if (isTag(name, TAG_RENDITION_KIND)) {
-                    target.setKind(readText(parser));
-                    return true;
-                }
-
-                if (isTag(name, TAG_RENDITION_TITLE)) {
-                    target.setTitle(readText(parser));
-                    return true;
-                }
-
-                if (isTag(name, TAG_RENDITION_HEIGHT)) {
-                    target.setBigHeight(readInteger(parser));
-                    return true;
-                }
-
-                if (isTag(name, TAG_RENDITION_WIDTH)) {
-                    target.setBigWidth(readInteger(parser));
-                    return true;
-                }
-
-                if (isTag(name, TAG_RENDITION_DOCUMENT_ID)) {
-                    target.setRenditionDocumentId(readText(parser));
-                    return true;
-                }
+            RenditionTag tag = RENDITION_TAGS.get(name);
+            if (tag == null) {
+                return false;
+            }
+
+            switch (tag) {
+            case STREAM_ID:
+                target.setStreamId(readText(parser));
+                return true;
+            case MIMETYPE:
+                target.setMimeType(readText(parser));
+                return true;
+            case LENGTH:
+                target.setBigLength(readInteger(parser));
+                return true;
+            case KIND:
+                target.setKind(readText(parser));
+                return true;
+            case TITLE:
+                target.setTitle(readText(parser));
+                return true;
+            case HEIGHT:
+                target.setBigHeight(readInteger(parser));
+                return true;
+            case WIDTH:
+                target.setBigWidth(readInteger(parser));
+                return true;
+            case DOCUMENT_ID:
+                target.setRenditionDocumentId(readText(parser));
+                return true;
+            default:
+                return false;
             }
-
-            return false;
         }
     };
 
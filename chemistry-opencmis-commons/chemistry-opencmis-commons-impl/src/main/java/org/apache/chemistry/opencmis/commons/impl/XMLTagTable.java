@@ -0,0 +1,176 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.chemistry.opencmis.commons.impl;
+
+import javax.xml.namespace.QName;
+
+/**
+ * Maps qualified XML element names to enum constants.
+ * <p>
+ * {@link XMLWalker} implementations use tag tables to dispatch on an element
+ * with a single hash lookup and a <code>switch</code> instead of a chain of
+ * tag comparisons. The table uses open addressing and is kept at most a
+ * quarter full, so that a lookup usually costs one probe. The hash codes of
+ * the namespace and the local name are cached by the strings, and the string
+ * comparisons are identity checks if the StAX parser interns names.
+ * <p>
+ * Tables are filled once, typically in a static initializer, and are
+ * read-only afterwards.
+ */
+public final class XMLTagTable<E extends Enum<E>> {
+
+    private static final int MIN_CAPACITY = 16;
+
+    private String[] namespaces;
+    private String[] localNames;
+    private int[] hashes;
+    private Object[] values;
+    private int mask;
+    private int size;
+
+    public XMLTagTable() {
+        init(MIN_CAPACITY);
+    }
+
+    /**
+     * Adds a tag.
+     *
+     * @return this table
+     */
+    public XMLTagTable<E> put(String namespace, String localName, E value) {
+        if (localName == null || value == null) {
+            throw new IllegalArgumentException("Local name and value must be set!");
+        }
+
+        if ((size + 1) * 4 > values.length) {
+            rehash(values.length * 2);
+        }
+
+        if (insert(namespace == null ? "" : namespace, localName, value)) {
+            size++;
+        }
+
+        return this;
+    }
+
+    /**
+     * Adds tags of one namespace.
+     *
+     * @param localNames
+     *            the local names, in the same order as the values
+     *
+     * @return this table
+     */
+    public XMLTagTable<E> putAll(String namespace, String[] localNames, E[] values) {
+        if (localNames.length != values.length) {
+            throw new IllegalArgumentException("Number of local names and values don't match!");
+        }
+
+        for (int i = 0; i < localNames.length; i++) {
+            put(namespace, localNames[i], values[i]);
+        }
+
+        return this;
+    }
+
+    /**
+     * Returns the value of a tag.
+     *
+     * @return the value or <code>null</code> if the tag is unknown
+     */
+    public E get(QName name) {
+        assert name != null;
+
+        return get(name.getNamespaceURI(), name.getLocalPart());
+    }
+
+    /**
+     * Returns the value of a tag.
+     *
+     * @return the value or <code>null</code> if the tag is unknown
+     */
+    @SuppressWarnings("unchecked")
+    public E get(String namespace, String localName) {
+        if (localName == null) {
+            return null;
+        }
+
+        String ns = (namespace == null ? "" : namespace);
+        int h = hash(ns, localName);
+
+        for (int i = h & mask; localNames[i] != null; i = (i + 1) & mask) {
+            if (hashes[i] == h && localName.equals(localNames[i]) && ns.equals(namespaces[i])) {
+                return (E) values[i];
+            }
+        }
+
+        return null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private boolean insert(String namespace, String localName, Object value) {
+        int h = hash(namespace, localName);
+
+        int i = h & mask;
+        while (localNames[i] != null) {
+            if (hashes[i] == h && localName.equals(localNames[i]) && namespace.equals(namespaces[i])) {
+                values[i] = value;
+                return false;
+            }
+            i = (i + 1) & mask;
+        }
+
+        namespaces[i] = namespace;
+        localNames[i] = localName;
+        hashes[i] = h;
+        values[i] = value;
+
+        return true;
+    }
+
+    private void init(int capacity) {
+        namespaces = new String[capacity];
+        localNames = new String[capacity];
+        hashes = new int[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+    }
+
+    private void rehash(int capacity) {
+        String[] oldNamespaces = namespaces;
+        String[] oldLocalNames = localNames;
+        Object[] oldValues = values;
+
+        init(capacity);
+
+        for (int i = 0; i < oldLocalNames.length; i++) {
+            if (oldLocalNames[i] != null) {
+                insert(oldNamespaces[i], oldLocalNames[i], oldValues[i]);
+            }
+        }
+    }
+
+    private static int hash(String namespace, String localName) {
+        int h = localName.hashCode() * 31 + namespace.hashCode();
+        return h ^ (h >>> 16);
+    }
+}
@@ -20,12 +20,17 @@ package org.apache.chemistry.opencmis.commons.impl.misc;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.Reader;
+import java.util.Random;
 
 import org.apache.chemistry.opencmis.commons.impl.Base64;
+import org.apache.chemistry.opencmis.commons.impl.Base64Codec;
 import org.apache.chemistry.opencmis.commons.impl.IOUtils;
 import org.junit.Test;
 
@@ -56,4 +61,62 @@ public class Base64Test {
 
         assertArrayEquals("test".getBytes("US-ASCII"), output.toByteArray());
     }
+
+    @Test
+    public void testCodecMatchesBase64() throws Exception {
+        Random rnd = new Random(42);
+
+        for (int len = 0; len < 100; len++) {
+            byte[] input = new byte[len];
+            rnd.nextBytes(input);
+
+            String encoded = Base64Codec.encode(input);
+            assertEquals(Base64.encodeBytes(input), encoded);
+            assertArrayEquals(input, Base64Codec.decode(encoded));
+        }
+    }
+
+    @Test
+    public void testCodecStreams() throws Exception {
+        byte[] input = new byte[100000];
+        new Random(42).nextBytes(input);
+
+        // small buffers to cross block boundaries
+        Reader reader = new Base64Codec.EncodingReader(new ByteArrayInputStream(input), 100);
+        StringBuilder sb = new StringBuilder();
+        char[] buffer = new char[77];
+        int b;
+        while ((b = reader.read(buffer, 0, buffer.length)) > -1) {
+            sb.append(buffer, 0, b);
+        }
+        reader.close();
+
+        String encoded = sb.toString();
+        assertEquals(Base64.encodeBytes(input), encoded);
+
+        // feed odd chunks with line breaks
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        Base64Codec.DecodingWriter writer = new Base64Codec.DecodingWriter(output, 64);
+        for (int i = 0; i < encoded.length(); i += 61) {
+            writer.write(encoded, i, Math.min(61, encoded.length() - i));
+            writer.write("\r\n");
+        }
+        writer.close();
+
+        assertArrayEquals(input, output.toByteArray());
+    }
+
+    @Test
+    public void testCodecInvalidInput() throws Exception {
+        assertArrayEquals("test".getBytes("US-ASCII"), Base64Codec.decode(" dGVz\ndA = = "));
+
+        for (String invalid : new String[] { "dGVzdA", "dGVzdA=", "dGV*dA==", "dGVzdA==dA", "dGVz\u00e4A==" }) {
+            try {
+                Base64Codec.decode(invalid);
+                fail("Invalid input accepted: " + invalid);
+            } catch (IOException e) {
+                // expected
+            }
+        }
+    }
 }
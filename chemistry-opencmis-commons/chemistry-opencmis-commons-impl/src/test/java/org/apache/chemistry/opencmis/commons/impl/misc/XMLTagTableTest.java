@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.chemistry.opencmis.commons.impl.misc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import javax.xml.namespace.QName;
+
+import org.apache.chemistry.opencmis.commons.enums.Action;
+import org.apache.chemistry.opencmis.commons.impl.XMLConstants;
+import org.apache.chemistry.opencmis.commons.impl.XMLTagTable;
+import org.junit.Test;
+
+public class XMLTagTableTest {
+
+    private enum Tag {
+        A, B, C
+    }
+
+    @Test
+    public void testLookup() {
+        XMLTagTable<Tag> table = new XMLTagTable<Tag>().put(XMLConstants.NAMESPACE_CMIS, "a", Tag.A)
+                .put(XMLConstants.NAMESPACE_ATOM, "a", Tag.B).put(null, "c", Tag.C);
+
+        assertEquals(3, table.size());
+        assertEquals(Tag.A, table.get(new QName(XMLConstants.NAMESPACE_CMIS, "a")));
+        assertEquals(Tag.B, table.get(XMLConstants.NAMESPACE_ATOM, "a"));
+
+        // no namespace and the empty namespace are the same
+        assertEquals(Tag.C, table.get(new QName("c")));
+        assertEquals(Tag.C, table.get(null, "c"));
+
+        assertNull(table.get(XMLConstants.NAMESPACE_RESTATOM, "a"));
+        assertNull(table.get(XMLConstants.NAMESPACE_CMIS, "b"));
+        assertNull(table.get(XMLConstants.NAMESPACE_CMIS, null));
+
+        // replace
+        table.put(XMLConstants.NAMESPACE_CMIS, "a", Tag.C);
+        assertEquals(3, table.size());
+        assertEquals(Tag.C, table.get(XMLConstants.NAMESPACE_CMIS, "a"));
+    }
+
+    @Test
+    public void testGrowth() {
+        Action[] actions = Action.values();
+        String[] names = new String[actions.length];
+        for (int i = 0; i < actions.length; i++) {
+            names[i] = actions[i].value();
+        }
+
+        XMLTagTable<Action> table = new XMLTagTable<Action>().putAll(XMLConstants.NAMESPACE_CMIS, names, actions);
+
+        assertEquals(actions.length, table.size());
+        for (Action action : actions) {
+            assertEquals(action, table.get(new QName(XMLConstants.NAMESPACE_CMIS, action.value())));
+            assertNull(table.get(XMLConstants.NAMESPACE_ATOM, action.value()));
+        }
+    }
+
+    @Test
+    public void testInvalid() {
+        XMLTagTable<Tag> table = new XMLTagTable<Tag>();
+
+        try {
+            table.put(XMLConstants.NAMESPACE_CMIS, null, Tag.A);
+            fail("Null local name should be rejected!");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+
+        try {
+            table.putAll(XMLConstants.NAMESPACE_CMIS, new String[] { "a", "b" }, new Tag[] { Tag.A });
+            fail("Mismatching arrays should be rejected!");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+}
@@ -45,11 +45,12 @@ import org.apache.chemistry.opencmis.commons.data.PropertyString;
 import org.apache.chemistry.opencmis.commons.definitions.TypeDefinition;
 import org.apache.chemistry.opencmis.commons.exceptions.CmisInvalidArgumentException;
 import org.apache.chemistry.opencmis.commons.exceptions.CmisNotSupportedException;
-import org.apache.chemistry.opencmis.commons.impl.Base64;
+import org.apache.chemistry.opencmis.commons.impl.Base64Codec;
 import org.apache.chemistry.opencmis.commons.impl.IOUtils;
 import org.apache.chemistry.opencmis.commons.impl.XMLConstants;
 import org.apache.chemistry.opencmis.commons.impl.XMLConstraints;
 import org.apache.chemistry.opencmis.commons.impl.XMLConverter;
+import org.apache.chemistry.opencmis.commons.impl.XMLTagTable;
 import org.apache.chemistry.opencmis.commons.impl.XMLUtils;
 import org.apache.chemistry.opencmis.commons.impl.dataobjects.BulkUpdateImpl;
 import org.apache.chemistry.opencmis.commons.impl.dataobjects.ContentStreamImpl;
@@ -76,6 +77,18 @@ public final class AtomEntryParser {
     private static final String TAG_TYPE = "type";
     private static final String TAG_BULK_UPDATE = "bulkUpdate";
 
+    private enum EntryTag {
+        OBJECT, TYPE, BULK_UPDATE, CMIS_CONTENT, ATOM_CONTENT, TITLE
+    }
+
+    private static final XMLTagTable<EntryTag> ENTRY_TAGS = new XMLTagTable<EntryTag>()
+            .put(XMLConstants.NAMESPACE_RESTATOM, TAG_OBJECT, EntryTag.OBJECT)
+            .put(XMLConstants.NAMESPACE_RESTATOM, TAG_TYPE, EntryTag.TYPE)
+            .put(XMLConstants.NAMESPACE_RESTATOM, TAG_BULK_UPDATE, EntryTag.BULK_UPDATE)
+            .put(XMLConstants.NAMESPACE_RESTATOM, TAG_CONTENT, EntryTag.CMIS_CONTENT)
+            .put(XMLConstants.NAMESPACE_ATOM, TAG_CONTENT, EntryTag.ATOM_CONTENT)
+            .put(XMLConstants.NAMESPACE_ATOM, TAG_TITLE, EntryTag.TITLE);
+
     private static final String ATTR_SRC = "src";
     private static final String ATTR_TYPE = "type";
 
@@ -239,30 +252,34 @@ public final class AtomEntryParser {
         while (true) {
             int event = parser.getEventType();
             if (event == XMLStreamReader.START_ELEMENT) {
-                QName name = parser.getName();
+                EntryTag tag = ENTRY_TAGS.get(parser.getName());
 
-                if (XMLConstants.NAMESPACE_RESTATOM.equals(name.getNamespaceURI())) {
-                    if (TAG_OBJECT.equals(name.getLocalPart())) {
+                if (tag == null) {
+                    XMLUtils.skip(parser);
+                } else {
+                    switch (tag) {
+                    case OBJECT:
                         parseObject(parser);
-                    } else if (TAG_TYPE.equals(name.getLocalPart())) {
+                        break;
+                    case TYPE:
                         parseTypeDefinition(parser);
-                    } else if (TAG_BULK_UPDATE.equals(name.getLocalPart())) {
+                        break;
+                    case BULK_UPDATE:
                         parseBulkUpdate(parser);
-                    } else if (TAG_CONTENT.equals(name.getLocalPart())) {
+                        break;
+                    case CMIS_CONTENT:
                         parseCmisContent(parser);
-                    } else {
-                        XMLUtils.skip(parser);
-                    }
-                } else if (XMLConstants.NAMESPACE_ATOM.equals(name.getNamespaceURI())) {
-                    if (TAG_CONTENT.equals(name.getLocalPart())) {
+                        break;
+                    case ATOM_CONTENT:
                         parseAtomContent(parser);
-                    } else if (TAG_TITLE.equals(name.getLocalPart())) {
+                        break;
+                    case TITLE:
                         atomTitle = XMLUtils.readText(parser, XMLConstraints.MAX_STRING_LENGTH);
-                    } else {
+                        break;
+                    default:
                         XMLUtils.skip(parser);
+                        break;
                     }
-                } else {
-                    XMLUtils.skip(parser);
                 }
             } else if (event == XMLStreamReader.END_ELEMENT) {
                 break;
@@ -449,7 +466,7 @@ public final class AtomEntryParser {
     private ThresholdOutputStream readBase64(XMLStreamReader parser) throws XMLStreamException, IOException {
         ThresholdOutputStream bufferStream = streamFactory.newOutputStream();
         @SuppressWarnings("resource")
-        Base64.OutputStream b64stream = new Base64.OutputStream(bufferStream, Base64.DECODE);
+        Base64Codec.DecodingWriter b64writer = new Base64Codec.DecodingWriter(bufferStream);
 
         XMLUtils.next(parser);
 
@@ -461,12 +478,7 @@ public final class AtomEntryParser {
                 } else if (event == XMLStreamReader.CHARACTERS) {
                     int len = parser.getTextLength();
                     if (len > 0) {
-                        char[] chars = parser.getTextCharacters();
-                        int offset = parser.getTextStart();
-                        for (int i = 0; i < len; i++) {
-                            // it's base64/ASCII
-                            b64stream.write(chars[offset + i]);
-                        }
+                        b64writer.write(parser.getTextCharacters(), parser.getTextStart(), len);
                         cappedStream.deductBytes(len);
                     }
                 } else if (event == XMLStreamReader.START_ELEMENT) {
@@ -478,7 +490,7 @@ public final class AtomEntryParser {
                 }
             }
 
-            b64stream.close();
+            b64writer.close();
         } catch (XMLStreamException xse) {
             // remove temp file
             bufferStream.destroy();
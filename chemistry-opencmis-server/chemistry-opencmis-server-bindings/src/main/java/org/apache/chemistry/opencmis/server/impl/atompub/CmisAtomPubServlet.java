@@ -63,6 +63,7 @@ import org.apache.chemistry.opencmis.commons.exceptions.CmisNotSupportedExceptio
 import org.apache.chemistry.opencmis.commons.exceptions.CmisObjectNotFoundException;
 import org.apache.chemistry.opencmis.commons.exceptions.CmisPermissionDeniedException;
 import org.apache.chemistry.opencmis.commons.exceptions.CmisRuntimeException;
+import org.apache.chemistry.opencmis.commons.exceptions.CmisServiceUnavailableException;
 import org.apache.chemistry.opencmis.commons.exceptions.CmisStorageException;
 import org.apache.chemistry.opencmis.commons.exceptions.CmisStreamNotSupportedException;
 import org.apache.chemistry.opencmis.commons.exceptions.CmisUnauthorizedException;
@@ -161,6 +162,7 @@ public class CmisAtomPubServlet extends AbstractCmisHttpServlet {
     protected void service(HttpServletRequest request, HttpServletResponse response) throws ServletException,
             IOException {
         QueryStringHttpServletRequestWrapper qsRequest = new QueryStringHttpServletRequestWrapper(request);
+        response = wrapResponse(request, response);
 
         // set default headers
         response.addHeader("Cache-Control", "private, max-age=0");
@@ -188,7 +190,7 @@ public class CmisAtomPubServlet extends AbstractCmisHttpServlet {
         }
 
         // we are done.
-        response.flushBuffer();
+        finishResponse(response);
     }
 
     /**
@@ -258,6 +260,8 @@ public class CmisAtomPubServlet extends AbstractCmisHttpServlet {
             return 404;
         } else if (ex instanceof CmisPermissionDeniedException) {
             return 403;
+        } else if (ex instanceof CmisServiceUnavailableException) {
+            return 503;
         } else if (ex instanceof CmisStorageException) {
             return 500;
         } else if (ex instanceof CmisStreamNotSupportedException) {
@@ -295,6 +299,11 @@ public class CmisAtomPubServlet extends AbstractCmisHttpServlet {
         try {
             response.resetBuffer();
             response.setStatus(statusCode);
+            if (ex instanceof CmisServiceUnavailableException
+                    && ((CmisServiceUnavailableException) ex).getRetryAfter() >= 0) {
+                response.setHeader("Retry-After",
+                        String.valueOf(((CmisServiceUnavailableException) ex).getRetryAfter()));
+            }
             response.setContentType("text/html");
             response.setCharacterEncoding(IOUtils.UTF8);
             
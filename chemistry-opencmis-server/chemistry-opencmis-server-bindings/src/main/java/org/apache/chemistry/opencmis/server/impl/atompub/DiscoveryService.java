@@ -27,6 +27,7 @@ import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamReader;
 import javax.xml.stream.XMLStreamWriter;
 
+import org.apache.chemistry.opencmis.commons.data.ExtensionsData;
 import org.apache.chemistry.opencmis.commons.data.ObjectData;
 import org.apache.chemistry.opencmis.commons.data.ObjectList;
 import org.apache.chemistry.opencmis.commons.enums.CmisVersion;
@@ -69,6 +70,7 @@ public class DiscoveryService {
             String renditionFilter = null;
             BigInteger maxItems = null;
             BigInteger skipCount = null;
+            ExtensionsData extension = null;
 
             int statusCode = 0;
 
@@ -100,6 +102,8 @@ public class DiscoveryService {
                 renditionFilter = queryType.getRenditionFilter();
                 maxItems = queryType.getMaxItems();
                 skipCount = queryType.getSkipCount();
+                // extensions of the query document, e.g. a query cursor token
+                extension = queryType;
 
                 statusCode = HttpServletResponse.SC_CREATED;
             } else if (Dispatcher.METHOD_GET.equals(request.getMethod())) {
@@ -121,7 +125,7 @@ public class DiscoveryService {
 
             // execute
             ObjectList results = service.query(repositoryId, statement, searchAllVersions, includeAllowableActions,
-                    includeRelationships, renditionFilter, maxItems, skipCount, null);
+                    includeRelationships, renditionFilter, maxItems, skipCount, extension);
 
             if (results == null) {
                 throw new CmisRuntimeException("Results are null!");
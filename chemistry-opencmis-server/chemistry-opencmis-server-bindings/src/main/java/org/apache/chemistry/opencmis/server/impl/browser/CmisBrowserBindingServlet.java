@@ -92,6 +92,7 @@ import org.apache.chemistry.opencmis.commons.exceptions.CmisNotSupportedExceptio
 import org.apache.chemistry.opencmis.commons.exceptions.CmisObjectNotFoundException;
 import org.apache.chemistry.opencmis.commons.exceptions.CmisPermissionDeniedException;
 import org.apache.chemistry.opencmis.commons.exceptions.CmisRuntimeException;
+import org.apache.chemistry.opencmis.commons.exceptions.CmisServiceUnavailableException;
 import org.apache.chemistry.opencmis.commons.exceptions.CmisStorageException;
 import org.apache.chemistry.opencmis.commons.exceptions.CmisStreamNotSupportedException;
 import org.apache.chemistry.opencmis.commons.exceptions.CmisUnauthorizedException;
@@ -203,6 +204,7 @@ public class CmisBrowserBindingServlet extends AbstractCmisHttpServlet {
     @Override
     protected void service(HttpServletRequest request, HttpServletResponse response) throws ServletException,
             IOException {
+        response = wrapResponse(request, response);
 
         // set default headers
         response.addHeader("Cache-Control", "private, max-age=0");
@@ -224,6 +226,7 @@ public class CmisBrowserBindingServlet extends AbstractCmisHttpServlet {
             // invoke token handler, if necessary
             if (request.getParameter("login") != null && getCallContextHandler() instanceof TokenHandler) {
                 ((TokenHandler) getCallContextHandler()).service(getServletContext(), request, response);
+                finishResponse(response);
                 return;
             }
 
@@ -246,7 +249,7 @@ public class CmisBrowserBindingServlet extends AbstractCmisHttpServlet {
         }
 
         // we are done.
-        response.flushBuffer();
+        finishResponse(response);
     }
 
     // --------------------------------------------------------
@@ -409,6 +412,8 @@ public class CmisBrowserBindingServlet extends AbstractCmisHttpServlet {
                 return 404;
             } else if (ex instanceof CmisPermissionDeniedException) {
                 return 403;
+            } else if (ex instanceof CmisServiceUnavailableException) {
+                return 503;
             } else if (ex instanceof CmisStorageException) {
                 return 500;
             } else if (ex instanceof CmisStreamNotSupportedException) {
@@ -444,6 +449,12 @@ public class CmisBrowserBindingServlet extends AbstractCmisHttpServlet {
             String token = (context instanceof BrowserCallContextImpl ? ((BrowserCallContextImpl) context).getToken()
                     : null);
 
+            if (ex instanceof CmisServiceUnavailableException
+                    && ((CmisServiceUnavailableException) ex).getRetryAfter() >= 0) {
+                response.setHeader("Retry-After",
+                        String.valueOf(((CmisServiceUnavailableException) ex).getRetryAfter()));
+            }
+
             if (token == null) {
                 response.resetBuffer();
                 setStatus(request, response, statusCode);
@@ -72,7 +72,8 @@ public class DiscoveryService {
             BigInteger skipCount = getBigIntegerParameter(request, Constants.PARAM_SKIP_COUNT);
             boolean succinct = getBooleanParameter(request, Constants.PARAM_SUCCINCT, false);
 
-            // execute
+            // execute (Browser binding requests carry no extensions, so no
+            // query cursor token can be passed to the repository)
             ObjectList results = service.query(repositoryId, statement, searchAllVersions, includeAllowableActions,
                     includeRelationships, renditionFilter, maxItems, skipCount, null);
 
@@ -39,6 +39,7 @@ import org.apache.chemistry.opencmis.commons.exceptions.CmisNotSupportedExceptio
 import org.apache.chemistry.opencmis.commons.exceptions.CmisObjectNotFoundException;
 import org.apache.chemistry.opencmis.commons.exceptions.CmisPermissionDeniedException;
 import org.apache.chemistry.opencmis.commons.exceptions.CmisRuntimeException;
+import org.apache.chemistry.opencmis.commons.exceptions.CmisServiceUnavailableException;
 import org.apache.chemistry.opencmis.commons.exceptions.CmisStorageException;
 import org.apache.chemistry.opencmis.commons.exceptions.CmisStreamNotSupportedException;
 import org.apache.chemistry.opencmis.commons.exceptions.CmisUpdateConflictException;
@@ -191,6 +192,12 @@ public abstract class AbstractService {
                 fault.setType(EnumServiceException.UPDATE_CONFLICT);
             } else if (ex instanceof CmisVersioningException) {
                 fault.setType(EnumServiceException.VERSIONING);
+            } else if (ex instanceof CmisServiceUnavailableException) {
+                // stays a runtime fault, the node tells the client what it is
+                Node node = ExceptionHelper.getServiceUnavailableAsNode((CmisServiceUnavailableException) ex);
+                if (node != null) {
+                    fault.getAny().add(node);
+                }
             }
 
             Node node = ExceptionHelper.getStacktraceAsNode(ex);
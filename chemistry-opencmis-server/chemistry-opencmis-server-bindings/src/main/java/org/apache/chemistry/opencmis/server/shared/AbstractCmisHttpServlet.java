@@ -18,6 +18,7 @@
  */
 package org.apache.chemistry.opencmis.server.shared;
 
+import java.io.IOException;
 import java.util.Map;
 
 import javax.servlet.ServletConfig;
@@ -40,6 +41,11 @@ public abstract class AbstractCmisHttpServlet extends HttpServlet {
 
     public static final String PARAM_CALL_CONTEXT_HANDLER = "callContextHandler";
     public static final String PARAM_CMIS_VERSION = "cmisVersion";
+    public static final String PARAM_COMPRESSION = "compression";
+    public static final String PARAM_COMPRESSION_LEVEL = "compressionLevel";
+    public static final String PARAM_COMPRESSION_MIN_SIZE = "compressionMinSize";
+    public static final String PARAM_COMPRESSION_MIME_TYPES = "compressionMimeTypes";
+    public static final String PARAM_COMPRESSION_POOL_SIZE = "compressionPoolSize";
 
     private static final long serialVersionUID = 1L;
 
@@ -48,6 +54,7 @@ public abstract class AbstractCmisHttpServlet extends HttpServlet {
     private CmisVersion cmisVersion;
     private CallContextHandler callContextHandler;
     private ThresholdOutputStreamFactory streamFactory;
+    private ResponseCompression compression;
 
     @Override
     public void init(ServletConfig config) throws ServletException {
@@ -76,6 +83,29 @@ public abstract class AbstractCmisHttpServlet extends HttpServlet {
         // set up stream factory
         streamFactory = ThresholdOutputStreamFactory.newInstance(factory.getTempDirectory(),
                 factory.getMemoryThreshold(), factory.getMaxContentSize(), factory.encryptTempFiles());
+
+        // set up response compression
+        compression = null;
+        if (Boolean.parseBoolean(config.getInitParameter(PARAM_COMPRESSION))) {
+            compression = new ResponseCompression(getIntInitParameter(config, PARAM_COMPRESSION_LEVEL,
+                    ResponseCompression.DEFAULT_LEVEL), getIntInitParameter(config, PARAM_COMPRESSION_MIN_SIZE,
+                    ResponseCompression.DEFAULT_MIN_SIZE), config.getInitParameter(PARAM_COMPRESSION_MIME_TYPES),
+                    getIntInitParameter(config, PARAM_COMPRESSION_POOL_SIZE, ResponseCompression.DEFAULT_POOL_SIZE));
+        }
+    }
+
+    private static int getIntInitParameter(ServletConfig config, String name, int defaultValue)
+            throws ServletException {
+        String value = config.getInitParameter(name);
+        if (value == null) {
+            return defaultValue;
+        }
+
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new ServletException("Invalid value for init parameter " + name + ": " + value, e);
+        }
     }
 
     /**
@@ -117,6 +147,35 @@ public abstract class AbstractCmisHttpServlet extends HttpServlet {
         return streamFactory;
     }
 
+    /**
+     * Returns the {@link ResponseCompression} or <code>null</code> if
+     * response compression is disabled.
+     */
+    protected ResponseCompression getResponseCompression() {
+        return compression;
+    }
+
+    /**
+     * Wraps the response for compression if compression is enabled and the
+     * client accepts it. The returned response must be completed with
+     * {@link #finishResponse(HttpServletResponse)}.
+     */
+    protected HttpServletResponse wrapResponse(HttpServletRequest request, HttpServletResponse response) {
+        if (compression == null) {
+            return response;
+        }
+
+        return compression.wrap(request, response);
+    }
+
+    /**
+     * Writes the pending part of the response body and flushes the response.
+     */
+    protected void finishResponse(HttpServletResponse response) throws IOException {
+        ResponseCompression.finish(response);
+        response.flushBuffer();
+    }
+
     /**
      * Creates a {@link CallContext} object from a servlet request.
      */
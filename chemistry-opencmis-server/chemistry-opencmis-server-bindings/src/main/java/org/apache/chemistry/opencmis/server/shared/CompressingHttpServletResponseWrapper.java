@@ -0,0 +1,386 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.chemistry.opencmis.server.shared;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * Response wrapper that compresses the body.
+ * <p>
+ * The first bytes of the body are held back until the minimum size is
+ * reached. At that point the status code, the headers and the content type
+ * are known and the wrapper decides whether the body is compressed or sent
+ * as is. Bodies that never reach the minimum size are sent uncompressed by
+ * {@link #finish()}.
+ */
+public class CompressingHttpServletResponseWrapper extends HttpServletResponseWrapper {
+
+    private static final String HEADER_CONTENT_LENGTH = "Content-Length";
+    private static final String HEADER_CONTENT_ENCODING = "Content-Encoding";
+    private static final String HEADER_CONTENT_RANGE = "Content-Range";
+
+    private static final int STATE_BUFFERING = 0;
+    private static final int STATE_PASSTHROUGH = 1;
+    private static final int STATE_COMPRESSING = 2;
+    private static final int STATE_FINISHED = 3;
+
+    private final ResponseCompression compression;
+    private final String encoding;
+
+    private final byte[] buffer;
+    private int bufferCount;
+    private int state;
+
+    private long contentLength;
+    private int status;
+    private boolean noCompression;
+
+    private CompressionOutputStream compressor;
+    private ServletOutputStream stream;
+    private PrintWriter writer;
+
+    public CompressingHttpServletResponseWrapper(HttpServletResponse response, ResponseCompression compression,
+            String encoding) {
+        super(response);
+
+        this.compression = compression;
+        this.encoding = encoding;
+        this.buffer = new byte[Math.max(compression.getMinSize(), 1)];
+        this.bufferCount = 0;
+        this.state = STATE_BUFFERING;
+        this.contentLength = -1;
+        this.status = SC_OK;
+        this.noCompression = false;
+    }
+
+    /**
+     * Returns whether the body is being compressed.
+     */
+    public boolean isCompressing() {
+        return compressor != null;
+    }
+
+    // --- headers ---
+
+    @Override
+    public void setContentLength(int len) {
+        setContentLengthInternal(len);
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+        if (HEADER_CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            setContentLengthInternal(parseLength(value));
+            return;
+        }
+
+        checkHeader(name);
+        super.setHeader(name, value);
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        if (HEADER_CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            setContentLengthInternal(parseLength(value));
+            return;
+        }
+
+        checkHeader(name);
+        super.addHeader(name, value);
+    }
+
+    @Override
+    public void setIntHeader(String name, int value) {
+        if (HEADER_CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            setContentLengthInternal(value);
+            return;
+        }
+
+        checkHeader(name);
+        super.setIntHeader(name, value);
+    }
+
+    @Override
+    public void addIntHeader(String name, int value) {
+        if (HEADER_CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            setContentLengthInternal(value);
+            return;
+        }
+
+        checkHeader(name);
+        super.addIntHeader(name, value);
+    }
+
+    @Override
+    public void setStatus(int sc) {
+        status = sc;
+        super.setStatus(sc);
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public void setStatus(int sc, String sm) {
+        status = sc;
+        super.setStatus(sc, sm);
+    }
+
+    @Override
+    public void sendError(int sc) throws IOException {
+        discardBody();
+        super.sendError(sc);
+    }
+
+    @Override
+    public void sendError(int sc, String msg) throws IOException {
+        discardBody();
+        super.sendError(sc, msg);
+    }
+
+    @Override
+    public void sendRedirect(String location) throws IOException {
+        discardBody();
+        super.sendRedirect(location);
+    }
+
+    // --- body ---
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (writer != null) {
+            throw new IllegalStateException("getWriter() has already been called!");
+        }
+
+        return getStream();
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            if (stream != null) {
+                throw new IllegalStateException("getOutputStream() has already been called!");
+            }
+
+            writer = new PrintWriter(new OutputStreamWriter(getStream(), getCharacterEncoding()));
+        }
+
+        return writer;
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+
+        // hold the body back until the decision has been made
+        if (state == STATE_BUFFERING) {
+            return;
+        }
+
+        if (compressor != null) {
+            compressor.flush();
+        }
+
+        super.flushBuffer();
+    }
+
+    @Override
+    public void resetBuffer() {
+        super.resetBuffer();
+
+        bufferCount = 0;
+        if (state == STATE_COMPRESSING) {
+            // Content-Encoding cannot be removed, the new body is sent as is
+            compressor.abandon();
+            compressor = null;
+            super.setHeader(HEADER_CONTENT_ENCODING, "identity");
+            noCompression = true;
+        }
+        if (state != STATE_FINISHED) {
+            state = STATE_BUFFERING;
+        }
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+
+        bufferCount = 0;
+        if (compressor != null) {
+            compressor.abandon();
+            compressor = null;
+        }
+        state = STATE_BUFFERING;
+        contentLength = -1;
+        status = SC_OK;
+        noCompression = false;
+    }
+
+    /**
+     * Writes the pending body and completes the compressed stream. The
+     * response must not be written afterwards.
+     */
+    public void finish() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+
+        if (state == STATE_BUFFERING) {
+            passThrough();
+        } else if (state == STATE_COMPRESSING) {
+            compressor.finish();
+            compressor = null;
+        }
+
+        state = STATE_FINISHED;
+    }
+
+    // --- internal ---
+
+    private ServletOutputStream getStream() {
+        if (stream == null) {
+            stream = new CompressingServletOutputStream();
+        }
+
+        return stream;
+    }
+
+    private void setContentLengthInternal(long len) {
+        if (state == STATE_BUFFERING) {
+            contentLength = len;
+        } else if (state == STATE_PASSTHROUGH) {
+            super.setHeader(HEADER_CONTENT_LENGTH, String.valueOf(len));
+        }
+        // the length of a compressed body is unknown
+    }
+
+    private static long parseLength(String value) {
+        try {
+            return Long.parseLong(value.trim());
+        } catch (Exception e) {
+            return -1;
+        }
+    }
+
+    private void checkHeader(String name) {
+        if (HEADER_CONTENT_ENCODING.equalsIgnoreCase(name) || HEADER_CONTENT_RANGE.equalsIgnoreCase(name)) {
+            noCompression = true;
+        }
+    }
+
+    private void discardBody() {
+        bufferCount = 0;
+        if (compressor != null) {
+            compressor.abandon();
+            compressor = null;
+            super.setHeader(HEADER_CONTENT_ENCODING, "identity");
+        }
+        state = STATE_FINISHED;
+    }
+
+    private boolean shouldCompress() {
+        if (noCompression) {
+            return false;
+        }
+
+        if (status == SC_NO_CONTENT || status == SC_PARTIAL_CONTENT || status == SC_NOT_MODIFIED) {
+            return false;
+        }
+
+        if (contentLength > -1 && contentLength < compression.getMinSize()) {
+            return false;
+        }
+
+        return compression.isCompressible(getContentType());
+    }
+
+    /**
+     * Called when the buffer overflows.
+     */
+    private void decide() throws IOException {
+        if (shouldCompress()) {
+            super.setHeader(HEADER_CONTENT_ENCODING, encoding);
+            compressor = new CompressionOutputStream(super.getOutputStream(),
+                    CompressionOutputStream.ENCODING_GZIP.equals(encoding), compression.getDeflaterPool(encoding));
+            state = STATE_COMPRESSING;
+            compressor.write(buffer, 0, bufferCount);
+            bufferCount = 0;
+        } else {
+            passThrough();
+        }
+    }
+
+    private void passThrough() throws IOException {
+        if (contentLength > -1) {
+            super.setHeader(HEADER_CONTENT_LENGTH, String.valueOf(contentLength));
+        }
+
+        state = STATE_PASSTHROUGH;
+        if (bufferCount > 0) {
+            super.getOutputStream().write(buffer, 0, bufferCount);
+            bufferCount = 0;
+        }
+    }
+
+    private class CompressingServletOutputStream extends ServletOutputStream {
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] { (byte) b }, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            switch (state) {
+            case STATE_BUFFERING:
+                if (bufferCount + len <= buffer.length) {
+                    System.arraycopy(b, off, buffer, bufferCount, len);
+                    bufferCount += len;
+                    return;
+                }
+                decide();
+                write(b, off, len);
+                break;
+            case STATE_PASSTHROUGH:
+                CompressingHttpServletResponseWrapper.super.getOutputStream().write(b, off, len);
+                break;
+            case STATE_COMPRESSING:
+                compressor.write(b, off, len);
+                break;
+            default:
+                throw new IOException("Response has already been finished!");
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (state == STATE_PASSTHROUGH) {
+                CompressingHttpServletResponseWrapper.super.getOutputStream().flush();
+            } else if (state == STATE_COMPRESSING) {
+                compressor.flush();
+            }
+        }
+    }
+}
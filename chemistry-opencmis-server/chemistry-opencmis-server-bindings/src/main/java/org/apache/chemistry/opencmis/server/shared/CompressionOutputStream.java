@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.chemistry.opencmis.server.shared;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Output stream that produces the <code>gzip</code> or <code>deflate</code>
+ * HTTP content coding with a {@link Deflater} borrowed from a
+ * {@link DeflaterPool}.
+ * <p>
+ * The deflater is returned to the pool by {@link #finish()} and
+ * {@link #abandon()}. Closing this stream also closes the underlying stream.
+ */
+public class CompressionOutputStream extends DeflaterOutputStream {
+
+    public static final String ENCODING_GZIP = "gzip";
+    public static final String ENCODING_DEFLATE = "deflate";
+
+    private static final int BUFFER_SIZE = 8 * 1024;
+
+    private static final byte[] GZIP_HEADER = new byte[] { 0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0,
+            0 };
+
+    private final DeflaterPool pool;
+    private final CRC32 crc;
+    private boolean finished;
+
+    /**
+     * Constructor.
+     *
+     * @param out
+     *            the underlying stream
+     * @param gzip
+     *            <code>true</code> for gzip, <code>false</code> for deflate
+     *            (zlib format)
+     * @param pool
+     *            the deflater pool, must match the format
+     */
+    public CompressionOutputStream(OutputStream out, boolean gzip, DeflaterPool pool) throws IOException {
+        super(out, pool.acquire(), BUFFER_SIZE);
+
+        this.pool = pool;
+        this.finished = false;
+
+        if (gzip) {
+            crc = new CRC32();
+            out.write(GZIP_HEADER);
+        } else {
+            crc = null;
+        }
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        if (finished) {
+            throw new IOException("Stream already finished!");
+        }
+
+        if (len == 0) {
+            return;
+        }
+
+        super.write(b, off, len);
+
+        if (crc != null) {
+            crc.update(b, off, len);
+        }
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[] { (byte) b }, 0, 1);
+    }
+
+    /**
+     * Writes the remaining compressed data and the gzip trailer without
+     * closing the underlying stream.
+     */
+    @Override
+    public void finish() throws IOException {
+        if (finished) {
+            return;
+        }
+
+        try {
+            super.finish();
+
+            if (crc != null) {
+                writeInt((int) crc.getValue());
+                writeInt((int) def.getBytesRead());
+            }
+        } finally {
+            finished = true;
+            pool.release(def);
+        }
+    }
+
+    /**
+     * Discards the compressor state without writing anything and returns the
+     * deflater to the pool.
+     */
+    public void abandon() {
+        if (finished) {
+            return;
+        }
+
+        finished = true;
+        pool.release(def);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            finish();
+        } finally {
+            out.close();
+        }
+    }
+
+    private void writeInt(int i) throws IOException {
+        out.write(i & 0xff);
+        out.write((i >> 8) & 0xff);
+        out.write((i >> 16) & 0xff);
+        out.write((i >> 24) & 0xff);
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.chemistry.opencmis.server.shared;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.Deflater;
+
+/**
+ * Pool of {@link Deflater} objects.
+ * <p>
+ * A {@link Deflater} allocates a considerable amount of native memory that is
+ * only freed by {@link Deflater#end()} or by the finalizer. Reusing them keeps
+ * the allocation rate and the finalizer queue under control when many
+ * responses are compressed.
+ */
+public class DeflaterPool {
+
+    private final int level;
+    private final boolean nowrap;
+    private final int maxIdle;
+
+    private final Queue<Deflater> idle = new ConcurrentLinkedQueue<Deflater>();
+    private final AtomicInteger idleCount = new AtomicInteger();
+    private final AtomicInteger createdCount = new AtomicInteger();
+
+    /**
+     * Constructor.
+     *
+     * @param level
+     *            the compression level (0-9)
+     * @param nowrap
+     *            <code>true</code> for raw deflate data (used by gzip),
+     *            <code>false</code> for the zlib format
+     * @param maxIdle
+     *            maximum number of idle deflaters kept in the pool
+     */
+    public DeflaterPool(int level, boolean nowrap, int maxIdle) {
+        if (level < Deflater.NO_COMPRESSION || level > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException("Invalid compression level: " + level);
+        }
+
+        this.level = level;
+        this.nowrap = nowrap;
+        this.maxIdle = maxIdle;
+    }
+
+    /**
+     * Returns an idle deflater or creates a new one.
+     */
+    public Deflater acquire() {
+        Deflater deflater = idle.poll();
+        if (deflater != null) {
+            idleCount.decrementAndGet();
+            return deflater;
+        }
+
+        createdCount.incrementAndGet();
+        return new Deflater(level, nowrap);
+    }
+
+    /**
+     * Returns a deflater to the pool. The deflater must not be used by the
+     * caller afterwards.
+     */
+    public void release(Deflater deflater) {
+        if (deflater == null) {
+            return;
+        }
+
+        if (idleCount.incrementAndGet() > maxIdle) {
+            idleCount.decrementAndGet();
+            deflater.end();
+            return;
+        }
+
+        deflater.reset();
+        idle.offer(deflater);
+    }
+
+    /**
+     * Frees all idle deflaters.
+     */
+    public void clear() {
+        Deflater deflater;
+        while ((deflater = idle.poll()) != null) {
+            idleCount.decrementAndGet();
+            deflater.end();
+        }
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    public int getIdleCount() {
+        return idleCount.get();
+    }
+
+    public int getCreatedCount() {
+        return createdCount.get();
+    }
+
+    @Override
+    public String toString() {
+        return "DeflaterPool [level=" + level + ", nowrap=" + nowrap + ", idle=" + idleCount.get() + ", created="
+                + createdCount.get() + "]";
+    }
+}
@@ -21,6 +21,7 @@ package org.apache.chemistry.opencmis.server.shared;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 
+import org.apache.chemistry.opencmis.commons.exceptions.CmisServiceUnavailableException;
 import org.apache.chemistry.opencmis.commons.impl.XMLUtils;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
@@ -30,6 +31,8 @@ public final class ExceptionHelper {
 
     public static final String STACK_TRACE_PROPERTY = "org.apache.chemistry.opencmis.stacktrace.disable";
 
+    public static final String EXCEPTION_NAMESPACE = "http://chemistry.apache.org/opencmis/exception";
+
     private static final boolean SEND_STACK_TRACE;
 
     static {
@@ -64,7 +67,7 @@ public final class ExceptionHelper {
             if (st != null) {
                 Document doc = XMLUtils.newDomDocument();
 
-                Element node = doc.createElementNS("http://chemistry.apache.org/opencmis/exception", "stacktrace");
+                Element node = doc.createElementNS(EXCEPTION_NAMESPACE, "stacktrace");
                 doc.appendChild(node);
 
                 node.appendChild(doc.createTextNode(st));
@@ -77,4 +80,27 @@ public final class ExceptionHelper {
 
         return null;
     }
+
+    /**
+     * Returns a DOM node that marks a Web Services runtime fault as a
+     * {@link CmisServiceUnavailableException}. The CMIS schema has no fault
+     * type for it.
+     */
+    public static Node getServiceUnavailableAsNode(CmisServiceUnavailableException ex) {
+        try {
+            Document doc = XMLUtils.newDomDocument();
+
+            Element node = doc.createElementNS(EXCEPTION_NAMESPACE, CmisServiceUnavailableException.EXCEPTION_NAME);
+            if (ex.getRetryAfter() > 0) {
+                node.setAttribute("retryAfter", String.valueOf(ex.getRetryAfter()));
+            }
+            doc.appendChild(node);
+
+            return node;
+        } catch (Exception e) {
+            assert false;
+        }
+
+        return null;
+    }
 }
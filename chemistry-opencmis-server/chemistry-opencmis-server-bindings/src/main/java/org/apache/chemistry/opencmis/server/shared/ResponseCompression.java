@@ -0,0 +1,221 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.chemistry.opencmis.server.shared;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Negotiated compression of servlet responses.
+ * <p>
+ * Responses are compressed with <code>gzip</code> or <code>deflate</code> if
+ * the client accepts it, the content type is on the MIME type allowlist and
+ * the body reaches the minimum size. Content streams with other MIME types,
+ * in particular already compressed formats, and partial responses are sent
+ * unchanged.
+ */
+public class ResponseCompression {
+
+    public static final int DEFAULT_LEVEL = 6;
+    public static final int DEFAULT_MIN_SIZE = 1024;
+    public static final int DEFAULT_POOL_SIZE = 16;
+    public static final String DEFAULT_MIME_TYPES = "text/*,application/xml,application/atom+xml,"
+            + "application/atomsvc+xml,application/cmisatom+xml,application/cmistree+xml,"
+            + "application/cmisquery+xml,application/cmisallowableactions+xml,application/cmisacl+xml,"
+            + "application/json,application/javascript";
+
+    private final int minSize;
+    private final List<String> mimeTypes;
+    private final List<String> mimeTypePrefixes;
+    private final DeflaterPool gzipPool;
+    private final DeflaterPool deflatePool;
+
+    /**
+     * Constructor.
+     *
+     * @param level
+     *            the compression level (1-9)
+     * @param minSize
+     *            the minimum body size in bytes
+     * @param mimeTypes
+     *            comma separated list of compressible MIME types,
+     *            <code>type/*</code> matches all subtypes
+     * @param poolSize
+     *            number of idle deflaters kept per content coding
+     */
+    public ResponseCompression(int level, int minSize, String mimeTypes, int poolSize) {
+        this.minSize = Math.max(minSize, 0);
+        this.mimeTypes = new ArrayList<String>();
+        this.mimeTypePrefixes = new ArrayList<String>();
+
+        for (String mimeType : (mimeTypes == null ? DEFAULT_MIME_TYPES : mimeTypes).split(",")) {
+            String mt = mimeType.trim().toLowerCase(Locale.ENGLISH);
+            if (mt.length() == 0) {
+                continue;
+            }
+
+            if (mt.endsWith("/*")) {
+                this.mimeTypePrefixes.add(mt.substring(0, mt.length() - 1));
+            } else {
+                this.mimeTypes.add(mt);
+            }
+        }
+
+        gzipPool = new DeflaterPool(level, true, poolSize);
+        deflatePool = new DeflaterPool(level, false, poolSize);
+    }
+
+    /**
+     * Wraps the response if the client accepts a supported content coding.
+     * <p>
+     * The wrapped response must be finished with {@link #finish}.
+     */
+    public HttpServletResponse wrap(HttpServletRequest request, HttpServletResponse response) {
+        // the representation depends on the request header, even if it is
+        // not compressed in the end
+        response.addHeader("Vary", "Accept-Encoding");
+
+        String encoding = negotiateEncoding(request.getHeader("Accept-Encoding"));
+        if (encoding == null) {
+            return response;
+        }
+
+        return new CompressingHttpServletResponseWrapper(response, this, encoding);
+    }
+
+    /**
+     * Completes a response returned by {@link #wrap}.
+     */
+    public static void finish(HttpServletResponse response) throws IOException {
+        if (response instanceof CompressingHttpServletResponseWrapper) {
+            ((CompressingHttpServletResponseWrapper) response).finish();
+        }
+    }
+
+    /**
+     * Returns whether responses of the given content type should be
+     * compressed.
+     */
+    public boolean isCompressible(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+
+        String mt = contentType;
+        int x = mt.indexOf(';');
+        if (x > -1) {
+            mt = mt.substring(0, x);
+        }
+        mt = mt.trim().toLowerCase(Locale.ENGLISH);
+
+        if (mimeTypes.contains(mt)) {
+            return true;
+        }
+
+        for (String prefix : mimeTypePrefixes) {
+            if (mt.startsWith(prefix)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    public int getMinSize() {
+        return minSize;
+    }
+
+    /**
+     * Returns the deflater pool for the given content coding.
+     */
+    public DeflaterPool getDeflaterPool(String encoding) {
+        return CompressionOutputStream.ENCODING_GZIP.equals(encoding) ? gzipPool : deflatePool;
+    }
+
+    /**
+     * Picks the content coding from an <code>Accept-Encoding</code> header.
+     * <code>gzip</code> wins over <code>deflate</code> if both have the same
+     * quality.
+     *
+     * @return <code>gzip</code>, <code>deflate</code> or <code>null</code>
+     */
+    public static String negotiateEncoding(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return null;
+        }
+
+        float gzip = -1;
+        float deflate = -1;
+        float wildcard = -1;
+
+        for (String coding : acceptEncoding.split(",")) {
+            String name = coding;
+            float q = 1;
+
+            int x = coding.indexOf(';');
+            if (x > -1) {
+                name = coding.substring(0, x);
+                String param = coding.substring(x + 1).trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        q = Float.parseFloat(param.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        q = 0;
+                    }
+                }
+            }
+
+            name = name.trim().toLowerCase(Locale.ENGLISH);
+            if (CompressionOutputStream.ENCODING_GZIP.equals(name) || "x-gzip".equals(name)) {
+                gzip = q;
+            } else if (CompressionOutputStream.ENCODING_DEFLATE.equals(name)) {
+                deflate = q;
+            } else if ("*".equals(name)) {
+                wildcard = q;
+            }
+        }
+
+        if (gzip < 0) {
+            gzip = wildcard;
+        }
+        if (deflate < 0) {
+            deflate = wildcard;
+        }
+
+        if (gzip > 0 && gzip >= deflate) {
+            return CompressionOutputStream.ENCODING_GZIP;
+        }
+        if (deflate > 0) {
+            return CompressionOutputStream.ENCODING_DEFLATE;
+        }
+
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return "ResponseCompression [minSize=" + minSize + ", mimeTypes=" + mimeTypes + ", mimeTypePrefixes="
+                + mimeTypePrefixes + ", gzip=" + gzipPool + ", deflate=" + deflatePool + "]";
+    }
+}
@@ -0,0 +1,276 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.chemistry.opencmis.server.impl;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+
+import org.apache.chemistry.opencmis.commons.impl.IOUtils;
+import org.apache.chemistry.opencmis.server.shared.CompressingHttpServletResponseWrapper;
+import org.apache.chemistry.opencmis.server.shared.CompressionOutputStream;
+import org.apache.chemistry.opencmis.server.shared.DeflaterPool;
+import org.apache.chemistry.opencmis.server.shared.ResponseCompression;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class ResponseCompressionTest {
+
+    private static final String ATOM_FEED = "application/atom+xml;type=feed";
+
+    @Test
+    public void testNegotiation() {
+        assertNull(ResponseCompression.negotiateEncoding(null));
+        assertNull(ResponseCompression.negotiateEncoding(""));
+        assertNull(ResponseCompression.negotiateEncoding("identity"));
+        assertNull(ResponseCompression.negotiateEncoding("gzip;q=0, deflate;q=0"));
+
+        assertEquals("gzip", ResponseCompression.negotiateEncoding("gzip,deflate"));
+        assertEquals("gzip", ResponseCompression.negotiateEncoding("deflate, GZIP"));
+        assertEquals("deflate", ResponseCompression.negotiateEncoding("gzip;q=0.5, deflate"));
+        assertEquals("deflate", ResponseCompression.negotiateEncoding("deflate"));
+        assertEquals("gzip", ResponseCompression.negotiateEncoding("*"));
+        assertEquals("deflate", ResponseCompression.negotiateEncoding("gzip;q=0,*"));
+    }
+
+    @Test
+    public void testMimeTypes() {
+        ResponseCompression compression = new ResponseCompression(6, 10, null, 2);
+
+        assertTrue(compression.isCompressible(ATOM_FEED));
+        assertTrue(compression.isCompressible("application/json; charset=UTF-8"));
+        assertTrue(compression.isCompressible("text/plain"));
+        assertFalse(compression.isCompressible("application/zip"));
+        assertFalse(compression.isCompressible("image/jpeg"));
+        assertFalse(compression.isCompressible(null));
+    }
+
+    @Test
+    public void testStreams() throws IOException {
+        byte[] content = createContent(100 * 1024);
+
+        DeflaterPool gzipPool = new DeflaterPool(6, true, 1);
+        DeflaterPool deflatePool = new DeflaterPool(6, false, 1);
+
+        for (int i = 0; i < 3; i++) {
+            ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
+            CompressionOutputStream out = new CompressionOutputStream(gzipped, true, gzipPool);
+            out.write(content, 0, 1000);
+            out.write(content, 1000, content.length - 1000);
+            out.close();
+
+            assertTrue(gzipped.size() < content.length);
+            assertArrayEquals(content, read(new GZIPInputStream(new ByteArrayInputStream(gzipped.toByteArray()))));
+
+            ByteArrayOutputStream deflated = new ByteArrayOutputStream();
+            out = new CompressionOutputStream(deflated, false, deflatePool);
+            out.write(content);
+            out.close();
+
+            assertArrayEquals(content,
+                    read(new InflaterInputStream(new ByteArrayInputStream(deflated.toByteArray()))));
+        }
+
+        // the deflaters have been reused
+        assertEquals(1, gzipPool.getCreatedCount());
+        assertEquals(1, deflatePool.getCreatedCount());
+        assertEquals(1, gzipPool.getIdleCount());
+    }
+
+    @Test
+    public void testCompressedResponse() throws IOException {
+        ResponseCompression compression = new ResponseCompression(6, 100, null, 2);
+        FakeResponse response = new FakeResponse();
+        response.setContentType(ATOM_FEED);
+
+        CompressingHttpServletResponseWrapper wrapper = new CompressingHttpServletResponseWrapper(response,
+                compression, "gzip");
+        wrapper.setContentLength(5000);
+
+        byte[] content = createContent(5000);
+        ServletOutputStream out = wrapper.getOutputStream();
+        for (int i = 0; i < content.length; i += 50) {
+            out.write(content, i, 50);
+        }
+        wrapper.finish();
+
+        assertEquals("gzip", response.headers.get("Content-Encoding"));
+        assertNull(response.headers.get("Content-Length"));
+        assertArrayEquals(content, read(new GZIPInputStream(new ByteArrayInputStream(response.body.toByteArray()))));
+    }
+
+    @Test
+    public void testSmallResponse() throws IOException {
+        ResponseCompression compression = new ResponseCompression(6, 100, null, 2);
+        FakeResponse response = new FakeResponse();
+        response.setContentType(ATOM_FEED);
+
+        CompressingHttpServletResponseWrapper wrapper = new CompressingHttpServletResponseWrapper(response,
+                compression, "gzip");
+
+        PrintWriter pw = wrapper.getWriter();
+        pw.print("<feed/>");
+        wrapper.finish();
+
+        assertNull(response.headers.get("Content-Encoding"));
+        assertEquals("<feed/>", new String(response.body.toByteArray(), IOUtils.UTF8));
+    }
+
+    @Test
+    public void testIncompressibleResponse() throws IOException {
+        ResponseCompression compression = new ResponseCompression(6, 100, null, 2);
+
+        // already compressed content
+        FakeResponse response = new FakeResponse();
+        response.setContentType("application/zip");
+        CompressingHttpServletResponseWrapper wrapper = new CompressingHttpServletResponseWrapper(response,
+                compression, "gzip");
+        wrapper.setContentLength(1000);
+        wrapper.getOutputStream().write(createContent(1000));
+        wrapper.finish();
+
+        assertNull(response.headers.get("Content-Encoding"));
+        assertEquals("1000", response.headers.get("Content-Length"));
+        assertEquals(1000, response.body.size());
+
+        // partial content
+        response = new FakeResponse();
+        response.setContentType("text/plain");
+        wrapper = new CompressingHttpServletResponseWrapper(response, compression, "gzip");
+        wrapper.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+        wrapper.getOutputStream().write(createContent(1000));
+        wrapper.finish();
+
+        assertNull(response.headers.get("Content-Encoding"));
+        assertEquals(1000, response.body.size());
+    }
+
+    @Test
+    public void testResetAfterCompression() throws IOException {
+        ResponseCompression compression = new ResponseCompression(6, 100, null, 2);
+        FakeResponse response = new FakeResponse();
+        response.setContentType(ATOM_FEED);
+
+        CompressingHttpServletResponseWrapper wrapper = new CompressingHttpServletResponseWrapper(response,
+                compression, "gzip");
+        wrapper.getOutputStream().write(createContent(1000));
+        assertTrue(wrapper.isCompressing());
+
+        // error page
+        wrapper.resetBuffer();
+        wrapper.setContentType("text/html");
+        wrapper.getOutputStream().write(createContent(1000));
+        wrapper.finish();
+
+        assertEquals("identity", response.headers.get("Content-Encoding"));
+        assertEquals(1000, response.body.size());
+    }
+
+    private static byte[] createContent(int size) {
+        byte[] result = new byte[size];
+        for (int i = 0; i < size; i++) {
+            result[i] = (byte) ('a' + (i % 7) * (i % 3));
+        }
+
+        return result;
+    }
+
+    private static byte[] read(InputStream in) throws IOException {
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+        IOUtils.copy(in, result);
+        in.close();
+
+        return result.toByteArray();
+    }
+
+    /**
+     * Records headers and body.
+     */
+    private static class FakeResponse extends HttpServletResponseWrapper {
+
+        final Map<String, String> headers = new HashMap<String, String>();
+        final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        private String contentType;
+
+        FakeResponse() {
+            super(Mockito.mock(HttpServletResponse.class));
+        }
+
+        @Override
+        public void setHeader(String name, String value) {
+            headers.put(name, value);
+        }
+
+        @Override
+        public void addHeader(String name, String value) {
+            headers.put(name, value);
+        }
+
+        @Override
+        public void setContentType(String type) {
+            contentType = type;
+        }
+
+        @Override
+        public String getContentType() {
+            return contentType;
+        }
+
+        @Override
+        public String getCharacterEncoding() {
+            return IOUtils.UTF8;
+        }
+
+        @Override
+        public void resetBuffer() {
+            body.reset();
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            return new ServletOutputStream() {
+                @Override
+                public void write(int b) {
+                    body.write(b);
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) {
+                    body.write(b, off, len);
+                }
+            };
+        }
+    }
+}
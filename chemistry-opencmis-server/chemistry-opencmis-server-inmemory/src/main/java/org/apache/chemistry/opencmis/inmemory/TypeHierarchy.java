@@ -0,0 +1,238 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.chemistry.opencmis.inmemory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.chemistry.opencmis.commons.definitions.PropertyDefinition;
+import org.apache.chemistry.opencmis.commons.definitions.TypeDefinition;
+import org.apache.chemistry.opencmis.commons.definitions.TypeDefinitionContainer;
+
+/**
+ * Immutable snapshot of the type system of a repository.
+ * <p>
+ * The types are numbered in a depth-first walk of the type tree. Each type
+ * gets the interval of the numbers of its subtree, so a subtype check is a
+ * comparison of two intervals. In addition, the snapshot holds the property
+ * definitions of each type including all inherited properties and maps the
+ * query names of the types and properties.
+ * <p>
+ * {@link TypeManagerImpl} builds a new snapshot whenever a type is added or
+ * removed. Readers that use one snapshot for an operation see a consistent
+ * type system, even if types are changed concurrently.
+ */
+public final class TypeHierarchy {
+
+    private final Map<String, TypeDefinitionContainer> types;
+    private final Collection<TypeDefinitionContainer> typeList;
+    private final List<TypeDefinitionContainer> rootTypes;
+    private final Map<String, TypeDefinition> typesByQueryName;
+    private final Map<String, Node> nodes;
+
+    /**
+     * Builds a snapshot.
+     *
+     * @param typeMap
+     *            map from type id to type, the map is copied
+     */
+    public TypeHierarchy(Map<String, TypeDefinitionContainer> typeMap) {
+        types = Collections.unmodifiableMap(new HashMap<String, TypeDefinitionContainer>(typeMap));
+        typeList = Collections.unmodifiableCollection(types.values());
+        nodes = new HashMap<String, Node>(types.size() * 2);
+
+        Map<String, TypeDefinition> queryNames = new HashMap<String, TypeDefinition>(types.size() * 2);
+        Map<String, List<TypeDefinition>> children = new HashMap<String, List<TypeDefinition>>();
+        List<TypeDefinitionContainer> roots = new ArrayList<TypeDefinitionContainer>();
+        List<TypeDefinition> treeRoots = new ArrayList<TypeDefinition>();
+
+        for (TypeDefinitionContainer container : types.values()) {
+            TypeDefinition type = container.getTypeDefinition();
+
+            if (type.getQueryName() != null) {
+                queryNames.put(type.getQueryName(), type);
+            }
+
+            if (type.getBaseTypeId() != null && type.getId().equals(type.getBaseTypeId().value())) {
+                roots.add(container);
+            }
+
+            String parentId = type.getParentTypeId();
+            if (parentId == null || !types.containsKey(parentId)) {
+                treeRoots.add(type);
+            } else {
+                List<TypeDefinition> list = children.get(parentId);
+                if (list == null) {
+                    list = new ArrayList<TypeDefinition>();
+                    children.put(parentId, list);
+                }
+                list.add(type);
+            }
+        }
+
+        int counter = 0;
+        for (TypeDefinition root : treeRoots) {
+            counter = number(root, null, children, counter);
+        }
+
+        typesByQueryName = queryNames;
+        rootTypes = Collections.unmodifiableList(roots);
+    }
+
+    /**
+     * Numbers a subtree and computes the property maps of its types. The
+     * parent is always processed before its children.
+     */
+    private int number(TypeDefinition type, Node parent, Map<String, List<TypeDefinition>> children, int counter) {
+        Node node = new Node(type, parent, counter++);
+        nodes.put(type.getId(), node);
+
+        List<TypeDefinition> subtypes = children.get(type.getId());
+        if (subtypes != null) {
+            for (TypeDefinition subtype : subtypes) {
+                counter = number(subtype, node, children, counter);
+            }
+        }
+
+        node.last = counter - 1;
+
+        return counter;
+    }
+
+    /**
+     * Returns the type with the given id or <code>null</code>.
+     */
+    public TypeDefinitionContainer getTypeById(String typeId) {
+        return types.get(typeId);
+    }
+
+    /**
+     * Returns the type with the given query name or <code>null</code>.
+     */
+    public TypeDefinition getTypeByQueryName(String queryName) {
+        return typesByQueryName.get(queryName);
+    }
+
+    /**
+     * Returns all types.
+     */
+    public Collection<TypeDefinitionContainer> getTypes() {
+        return typeList;
+    }
+
+    /**
+     * Returns the base types.
+     */
+    public List<TypeDefinitionContainer> getRootTypes() {
+        return rootTypes;
+    }
+
+    /**
+     * Returns whether a type is the same type as or a subtype of another type.
+     *
+     * @param typeId
+     *            the id of the type to check
+     * @param superTypeId
+     *            the id of the potential super type
+     * @return <code>true</code> if the type is the super type or one of its
+     *         descendants, <code>false</code> otherwise or if one of the types
+     *         is unknown
+     */
+    public boolean isSubtypeOf(String typeId, String superTypeId) {
+        Node node = nodes.get(typeId);
+        if (node == null) {
+            return false;
+        }
+
+        Node superNode = (typeId.equals(superTypeId) ? node : nodes.get(superTypeId));
+        if (superNode == null) {
+            return false;
+        }
+
+        return superNode.first <= node.first && node.first <= superNode.last;
+    }
+
+    /**
+     * Returns the property definitions of a type including the properties
+     * of all its super types.
+     *
+     * @return unmodifiable map from property id to property definition or
+     *         <code>null</code> if the type is unknown
+     */
+    public Map<String, PropertyDefinition<?>> getAllPropertyDefinitions(String typeId) {
+        Node node = nodes.get(typeId);
+        return node == null ? null : node.propertyDefinitions;
+    }
+
+    /**
+     * Returns the id of a property of a type, inherited properties included.
+     *
+     * @return the property id or <code>null</code> if the type or the
+     *         property is unknown
+     */
+    public String getPropertyIdForQueryName(String typeId, String propQueryName) {
+        Node node = nodes.get(typeId);
+        return node == null ? null : node.propertyIdsByQueryName.get(propQueryName);
+    }
+
+    /**
+     * Returns whether the given type definition is the definition held by
+     * this snapshot.
+     */
+    boolean contains(TypeDefinition type) {
+        Node node = nodes.get(type.getId());
+        return node != null && node.type == type;
+    }
+
+    private static class Node {
+        final TypeDefinition type;
+        final int first;
+        int last;
+        final Map<String, PropertyDefinition<?>> propertyDefinitions;
+        final Map<String, String> propertyIdsByQueryName;
+
+        Node(TypeDefinition type, Node parent, int first) {
+            this.type = type;
+            this.first = first;
+
+            Map<String, PropertyDefinition<?>> propDefs = new LinkedHashMap<String, PropertyDefinition<?>>();
+            Map<String, String> queryNames = new HashMap<String, String>();
+            if (parent != null) {
+                propDefs.putAll(parent.propertyDefinitions);
+                queryNames.putAll(parent.propertyIdsByQueryName);
+            }
+            if (type.getPropertyDefinitions() != null) {
+                for (PropertyDefinition<?> propDef : type.getPropertyDefinitions().values()) {
+                    propDefs.put(propDef.getId(), propDef);
+                    if (propDef.getQueryName() != null) {
+                        queryNames.put(propDef.getQueryName(), propDef.getId());
+                    }
+                }
+            }
+
+            this.propertyDefinitions = Collections.unmodifiableMap(propDefs);
+            this.propertyIdsByQueryName = queryNames;
+        }
+    }
+}
@@ -20,7 +20,6 @@ package org.apache.chemistry.opencmis.inmemory;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -41,6 +40,10 @@ import org.slf4j.LoggerFactory;
 /**
  * Class that manages a type system for a repository types can be added, the
  * inheritance can be managed and type can be retrieved for a given type id.
+ * <p>
+ * Lookups are served from an immutable {@link TypeHierarchy} snapshot that is
+ * replaced whenever a type is added or removed. Changes are serialized, reads
+ * don't lock.
  */
 public class TypeManagerImpl implements TypeManager {
 
@@ -50,6 +53,18 @@ public class TypeManagerImpl implements TypeManager {
      */
     private final Map<String, TypeDefinitionContainer> fTypesMap = new HashMap<String, TypeDefinitionContainer>();
 
+    /**
+     * current snapshot of the type system.
+     */
+    private volatile TypeHierarchy fHierarchy = new TypeHierarchy(fTypesMap);
+
+    /**
+     * Returns the current snapshot of the type system.
+     */
+    public TypeHierarchy getTypeHierarchy() {
+        return fHierarchy;
+    }
+
     /*
      * (non-Javadoc)
      * 
@@ -59,7 +74,7 @@ public class TypeManagerImpl implements TypeManager {
      */
     @Override
     public TypeDefinitionContainer getTypeById(String typeId) {
-        return fTypesMap.get(typeId);
+        return fHierarchy.getTypeById(typeId);
     }
 
     /*
@@ -71,12 +86,7 @@ public class TypeManagerImpl implements TypeManager {
      */
     @Override
     public TypeDefinition getTypeByQueryName(String typeQueryName) {
-        for (Entry<String, TypeDefinitionContainer> entry : fTypesMap.entrySet()) {
-            if (entry.getValue().getTypeDefinition().getQueryName().equals(typeQueryName)) {
-                return entry.getValue().getTypeDefinition();
-            }
-        }
-        return null;
+        return fHierarchy.getTypeByQueryName(typeQueryName);
     }
 
     /*
@@ -88,7 +98,7 @@ public class TypeManagerImpl implements TypeManager {
      */
     @Override
     public Collection<TypeDefinitionContainer> getTypeDefinitionList() {
-        return Collections.unmodifiableCollection(fTypesMap.values());
+        return fHierarchy.getTypes();
     }
 
     /*
@@ -98,16 +108,7 @@ public class TypeManagerImpl implements TypeManager {
      */
     @Override
     public List<TypeDefinitionContainer> getRootTypes() {
-        // just take first repository
-        List<TypeDefinitionContainer> rootTypes = new ArrayList<TypeDefinitionContainer>();
-
-        for (TypeDefinitionContainer type : fTypesMap.values()) {
-            if (isRootType(type)) {
-                rootTypes.add(type);
-            }
-        }
-
-        return rootTypes;
+        return fHierarchy.getRootTypes();
     }
 
     /**
@@ -121,20 +122,21 @@ public class TypeManagerImpl implements TypeManager {
      * @param createCmisDefaultTypes
      *            indicates if CMIS base types should be added to list
      */
-    public void initTypeSystem(List<TypeDefinition> typesList, boolean createCmisDefaultTypes) {
+    public synchronized void initTypeSystem(List<TypeDefinition> typesList, boolean createCmisDefaultTypes) {
 
         if (createCmisDefaultTypes) {
             createCmisDefaultTypes();
         }
 
         // merge all types from the list and build the correct hierachy with
-        // children and property lists
+        // children and property lists, the snapshot is built once at the end
         if (null != typesList) {
             for (TypeDefinition typeDef : typesList) {
-                addTypeDefinition(typeDef, true);
+                addTypeDefinitionIntern(typeDef, true);
             }
         }
 
+        fHierarchy = new TypeHierarchy(fTypesMap);
     }
 
     /*
@@ -146,16 +148,24 @@ public class TypeManagerImpl implements TypeManager {
      * TypeDefinition, boolean)
      */
     @Override
-    public void addTypeDefinition(TypeDefinition cmisType, boolean addInheritedProperties) {
+    public synchronized void addTypeDefinition(TypeDefinition cmisType, boolean addInheritedProperties) {
+        addTypeDefinitionIntern(cmisType, addInheritedProperties);
+        fHierarchy = new TypeHierarchy(fTypesMap);
+    }
 
+    private void addTypeDefinitionIntern(TypeDefinition cmisType, boolean addInheritedProperties) {
         LOG.info("Adding type definition with name " + cmisType.getLocalName() + " and id " + cmisType.getId()
                 + " to repository.");
         TypeDefinitionContainerImpl typeContainer = new TypeDefinitionContainerImpl(cmisType);
 
         if (null != cmisType.getParentTypeId()) {
-            // add new type to children of parent types
+            // add new type to children of parent types, the list is
+            // replaced and not modified because readers may iterate over it
             TypeDefinitionContainer parentTypeContainer = fTypesMap.get(cmisType.getParentTypeId());
-            parentTypeContainer.getChildren().add(typeContainer);
+            List<TypeDefinitionContainer> children = new ArrayList<TypeDefinitionContainer>(
+                    parentTypeContainer.getChildren());
+            children.add(typeContainer);
+            ((TypeDefinitionContainerImpl) parentTypeContainer).setChildren(children);
 
             if (addInheritedProperties) {
                 // recursively add inherited properties
@@ -189,12 +199,15 @@ public class TypeManagerImpl implements TypeManager {
      * #deleteTypeDefinition(java.lang.String)
      */
     @Override
-    public void deleteTypeDefinition(String typeId) {
+    public synchronized void deleteTypeDefinition(String typeId) {
         TypeDefinitionContainer typeDef = fTypesMap.remove(typeId);
         // remove type from children of parent types
         TypeDefinitionContainer parentTypeContainer = fTypesMap.get(typeDef.getTypeDefinition().getParentTypeId());
-        parentTypeContainer.getChildren().remove(typeDef);
-        fTypesMap.remove(typeId);
+        List<TypeDefinitionContainer> children = new ArrayList<TypeDefinitionContainer>(
+                parentTypeContainer.getChildren());
+        children.remove(typeDef);
+        ((TypeDefinitionContainerImpl) parentTypeContainer).setChildren(children);
+        fHierarchy = new TypeHierarchy(fTypesMap);
     }
 
     /**
@@ -204,9 +217,10 @@ public class TypeManagerImpl implements TypeManager {
      * 
      * @param repositoryId
      */
-    public void clearTypeSystem() {
+    public synchronized void clearTypeSystem() {
         fTypesMap.clear();
         createCmisDefaultTypes();
+        fHierarchy = new TypeHierarchy(fTypesMap);
     }
 
     /*
@@ -219,6 +233,11 @@ public class TypeManagerImpl implements TypeManager {
      */
     @Override
     public String getPropertyIdForQueryName(TypeDefinition typeDefinition, String propQueryName) {
+        TypeHierarchy hierarchy = fHierarchy;
+        if (hierarchy.contains(typeDefinition)) {
+            return hierarchy.getPropertyIdForQueryName(typeDefinition.getId(), propQueryName);
+        }
+
         for (PropertyDefinition<?> pd : typeDefinition.getPropertyDefinitions().values()) {
             if (pd.getQueryName().equals(propQueryName)) {
                 return pd.getId();
@@ -261,10 +280,6 @@ public class TypeManagerImpl implements TypeManager {
         }
     }
 
-    private static boolean isRootType(TypeDefinitionContainer c) {
-        return (c.getTypeDefinition().getId().equals(c.getTypeDefinition().getBaseTypeId().value()));
-    }
-
     private static PropertyDefinition<?> clonePropertyDefinition(PropertyDefinition<?> src) {
         PropertyDefinition<?> clone = TypeUtil.clonePropertyDefinition(src);
         return clone;
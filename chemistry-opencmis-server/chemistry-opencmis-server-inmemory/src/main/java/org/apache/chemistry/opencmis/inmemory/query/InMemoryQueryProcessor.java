@@ -26,8 +26,6 @@ import java.io.UnsupportedEncodingException;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
 import java.util.GregorianCalendar;
 import java.util.List;
 import java.util.Map;
@@ -45,6 +43,8 @@ import org.apache.chemistry.opencmis.commons.enums.PropertyType;
 import org.apache.chemistry.opencmis.commons.exceptions.CmisInvalidArgumentException;
 import org.apache.chemistry.opencmis.commons.exceptions.CmisRuntimeException;
 import org.apache.chemistry.opencmis.commons.impl.dataobjects.ObjectListImpl;
+import org.apache.chemistry.opencmis.inmemory.TypeHierarchy;
+import org.apache.chemistry.opencmis.inmemory.TypeManagerImpl;
 import org.apache.chemistry.opencmis.inmemory.storedobj.api.Content;
 import org.apache.chemistry.opencmis.inmemory.storedobj.api.DocumentVersion;
 import org.apache.chemistry.opencmis.inmemory.storedobj.api.Filing;
@@ -60,9 +60,9 @@ import org.apache.chemistry.opencmis.server.support.query.AbstractPredicateWalke
 import org.apache.chemistry.opencmis.server.support.query.CmisQueryWalker;
 import org.apache.chemistry.opencmis.server.support.query.CmisSelector;
 import org.apache.chemistry.opencmis.server.support.query.ColumnReference;
+import org.apache.chemistry.opencmis.server.support.query.QueryCursorCache;
 import org.apache.chemistry.opencmis.server.support.query.QueryObject;
 import org.apache.chemistry.opencmis.server.support.query.QueryObject.JoinSpec;
-import org.apache.chemistry.opencmis.server.support.query.QueryObject.SortSpec;
 import org.apache.chemistry.opencmis.server.support.query.QueryUtilStrict;
 import org.apache.chemistry.opencmis.server.support.query.StringUtil;
 import org.slf4j.Logger;
@@ -80,10 +80,14 @@ public class InMemoryQueryProcessor {
     private static final Logger LOG = LoggerFactory.getLogger(InMemoryQueryProcessor.class);
 
     private List<StoredObject> matches = new ArrayList<StoredObject>();
+    private List<StoredObject> allMatches;
+    private boolean sortAll;
+    private boolean fullySorted;
     private QueryObject queryObj;
     private Tree whereTree;
     private ObjectStoreImpl objStore;
     private List<TypeDefinition> secondaryTypeIds;
+    private TypeHierarchy typeHierarchy;
 
     public InMemoryQueryProcessor(ObjectStoreImpl objStore) {
         this.objStore = objStore;
@@ -120,17 +124,77 @@ public class InMemoryQueryProcessor {
             String statement, Boolean searchAllVersions, Boolean includeAllowableActions,
             IncludeRelationships includeRelationships, String renditionFilter, BigInteger maxItems, 
             BigInteger skipCount) {
+        return query(tm, objectStore, user, repositoryId, statement, searchAllVersions, includeAllowableActions,
+                includeRelationships, renditionFilter, maxItems, skipCount, null, null);
+    }
+
+    /**
+     * Process a query from discovery service and keep the sorted result in a
+     * cursor if it spans more than one page. Subsequent pages of the same query
+     * that carry the cursor token are served from the cursor without
+     * evaluating and sorting all objects again, unless the repository has been
+     * modified in the meantime. As the first page of an ordered result is only
+     * partially sorted, its cursor is usually created with the request for the
+     * second page.
+     *
+     * @param cursors
+     *            cursor cache of the repository, <code>null</code> to disable
+     *            cursors
+     * @param cursorToken
+     *            token of the cursor sent by the client, <code>null</code> if
+     *            the client has not sent one
+     * @return list of objects matching the query, carrying the cursor token in
+     *         an extension element if a cursor has been used or created
+     * @see #query(TypeManager, ObjectStore, String, String, String, Boolean,
+     *      Boolean, IncludeRelationships, String, BigInteger, BigInteger)
+     */
+    public ObjectList query(TypeManager tm, ObjectStore objectStore, String user, String repositoryId,
+            String statement, Boolean searchAllVersions, Boolean includeAllowableActions,
+            IncludeRelationships includeRelationships, String renditionFilter, BigInteger maxItems,
+            BigInteger skipCount, QueryCursorCache cursors, String cursorToken) {
+
+        boolean allVersions = searchAllVersions == null ? true : searchAllVersions.booleanValue();
 
         processQueryAndCatchExc(statement, tm); // calls query processor
 
+        // a cursor is only valid for the store content it has been built from
+        long revision = ((ObjectStoreImpl) objectStore).getRevision();
+
+        // later pages are served from the cursor of an earlier page
+        if (cursors != null && cursorToken != null) {
+            QueryCursorCache.Cursor cursor = cursors.get(cursorToken, user, statement, allVersions, revision);
+            if (cursor != null) {
+                ObjectListImpl objList = buildResultPage(tm, user, includeAllowableActions, includeRelationships,
+                        renditionFilter, maxItems, skipCount, cursor);
+                LOG.debug("Query result from cursor, number of matching objects: " + objList.getNumItems());
+                return objList;
+            }
+        }
+
         // iterate over all the objects and check for each if the query matches
         for (String objectId : ((ObjectStoreImpl) objectStore).getIds()) {
             StoredObject so = objectStore.getObjectById(objectId);
-            match(so, user, searchAllVersions == null ? true : searchAllVersions.booleanValue());
+            match(so, user, allVersions);
         }
 
+        // a first page only needs the top rows, a client asking for a later
+        // page will probably page on, so sort everything for the cursor
+        sortAll = cursors != null && (cursorToken != null || (skipCount != null && skipCount.signum() > 0));
+
         ObjectList objList = buildResultList(tm, user, includeAllowableActions, includeRelationships, renditionFilter,
                 maxItems, skipCount);
+
+        if (cursors != null && fullySorted && Boolean.TRUE.equals(objList.hasMoreItems())) {
+            List<String> ids = new ArrayList<String>(allMatches.size());
+            for (StoredObject so : allMatches) {
+                ids.add(so.getId());
+            }
+            QueryCursorCache.Cursor cursor = cursors.create(user, statement, allVersions, ids, revision);
+            if (cursor != null) {
+                ((ObjectListImpl) objList).setExtensions(QueryCursorCache.createExtension(cursor.getToken()));
+            }
+        }
+
         LOG.debug("Query result, number of matching objects: " + objList.getNumItems());
         return objList;
     }
@@ -149,6 +213,8 @@ public class InMemoryQueryProcessor {
         queryObj = queryUtil.getQueryObject();
         whereTree = walker.getWherePredicateTree();
         secondaryTypeIds = queryObj.getJoinedSecondaryTypes();
+        // one snapshot for the whole query
+        typeHierarchy = (tm instanceof TypeManagerImpl ? ((TypeManagerImpl) tm).getTypeHierarchy() : null);
         doAdditionalChecks(walker);
     }
 
@@ -175,7 +241,14 @@ public class InMemoryQueryProcessor {
             IncludeRelationships includeRelationships, String renditionFilter, BigInteger maxItems, 
             BigInteger skipCount) {
 
-        sortMatches();
+        // only the rows up to the requested page have to be sorted
+        int limit = 0;
+        if (!sortAll && maxItems != null && maxItems.signum() > 0) {
+            long rows = (skipCount == null ? 0 : Math.max(skipCount.longValue(), 0)) + maxItems.longValue();
+            limit = (rows > Integer.MAX_VALUE ? 0 : (int) rows);
+        }
+        fullySorted = sortMatches(limit);
+        allMatches = matches;
 
         ObjectListImpl res = new ObjectListImpl();
         res.setNumItems(BigInteger.valueOf(matches.size()));
@@ -217,7 +290,47 @@ public class InMemoryQueryProcessor {
         return res;
     }
 
+    private ObjectListImpl buildResultPage(TypeManager tm, String user, Boolean includeAllowableActions,
+            IncludeRelationships includeRelationships, String renditionFilter, BigInteger maxItems,
+            BigInteger skipCount, QueryCursorCache.Cursor cursor) {
+
+        int start = (skipCount == null ? 0 : (int) Math.min(skipCount.longValue(), Integer.MAX_VALUE));
+        int pageSize = (maxItems == null ? 0 : (int) Math.min(maxItems.longValue(), Integer.MAX_VALUE));
+        List<String> pageIds = cursor.getPage(start, pageSize);
+
+        ObjectListImpl res = new ObjectListImpl();
+        res.setNumItems(BigInteger.valueOf(cursor.size()));
+        res.setHasMoreItems(Math.max(start, 0) + pageIds.size() < cursor.size());
+
+        List<ObjectData> objDataList = new ArrayList<ObjectData>(pageIds.size());
+        Map<String, String> props = queryObj.getRequestedPropertiesByAlias();
+        Map<String, String> funcs = queryObj.getRequestedFuncsByAlias();
+        String queryName = queryObj.getTypes().values().iterator().next();
+        TypeDefinition td = queryObj.getTypeDefinitionFromQueryName(queryName);
+
+        for (String id : pageIds) {
+            StoredObject so = objStore.getObjectById(id);
+            if (so == null) {
+                // deleted since the cursor has been created
+                continue;
+            }
+
+            ObjectData od = PropertyCreationHelper.getObjectDataQueryResult(tm, objStore, td, so, user, props, funcs,
+                    secondaryTypeIds, includeAllowableActions, includeRelationships, renditionFilter);
+            objDataList.add(od);
+        }
+        res.setObjects(objDataList);
+        res.setExtensions(QueryCursorCache.createExtension(cursor.getToken()));
+
+        return res;
+    }
+
     private boolean typeMatches(TypeDefinition td, StoredObject so) {
+        if (typeHierarchy != null) {
+            return typeHierarchy.isSubtypeOf(so.getTypeId(), td.getId())
+                    || so.getSecondaryTypeIds().contains(td.getId());
+        }
+
         String typeId = so.getTypeId();
         while (typeId != null) {
             if (typeId.equals(td.getId())) {
@@ -237,54 +350,12 @@ public class InMemoryQueryProcessor {
         return false;
     }
 
-    private void sortMatches() {
-        final List<SortSpec> orderBy = queryObj.getOrderBys();
-        if (orderBy.size() > 1) {
-            LOG.warn("ORDER BY has more than one sort criterium, all but the first are ignored.");
-        }
-        class ResultComparator implements Comparator<StoredObject> {
-
-            @Override
-            @SuppressWarnings("unchecked")
-            public int compare(StoredObject so1, StoredObject so2) {
-                SortSpec s = orderBy.get(0);
-                CmisSelector sel = s.getSelector();
-                int result;
-
-                if (queryObj.isPredfinedQueryName(sel.getName())) {
-                    // must be SEARCH_SCORE which is currently ignored
-                    result = 0;
-                } else if (sel instanceof ColumnReference) {
-                    String propId = ((ColumnReference) sel).getPropertyId();
-                    PropertyDefinition<?> pd = ((ColumnReference) sel).getPropertyDefinition();
-
-                    Object propVal1 = PropertyQueryUtil.getProperty(so1, propId, pd);
-                    Object propVal2 = PropertyQueryUtil.getProperty(so2, propId, pd);
-
-                    if (propVal1 == null && propVal2 == null) {
-                        result = 0;
-                    } else if (propVal1 == null) {
-                        result = -1;
-                    } else if (propVal2 == null) {
-                        result = 1;
-                    } else {
-                        result = ((Comparable<Object>) propVal1).compareTo(propVal2);
-                    }
-                } else {
-                    // evaluate function here, currently ignore
-                    result = 0;
-                }
-                if (!s.isAscending()) {
-                    result = -result;
-                }
-                return result;
-            }
-        }
-
-        if (orderBy.size() > 0) {
-            Collections.sort(matches, new ResultComparator());
-        }
-
+    /*
+     * Sort the matches. If only the first rows of the result are needed (limit
+     * > 0) only these are sorted. Returns true if all matches are sorted.
+     */
+    private boolean sortMatches(int limit) {
+        return new MatchSorter(queryObj).sort(matches, limit);
     }
 
     /*
@@ -0,0 +1,302 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.chemistry.opencmis.inmemory.query;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.chemistry.opencmis.commons.definitions.PropertyDefinition;
+import org.apache.chemistry.opencmis.commons.exceptions.CmisRuntimeException;
+import org.apache.chemistry.opencmis.inmemory.storedobj.api.StoredObject;
+import org.apache.chemistry.opencmis.inmemory.storedobj.impl.OrderByComparator;
+import org.apache.chemistry.opencmis.server.support.query.CmisSelector;
+import org.apache.chemistry.opencmis.server.support.query.ColumnReference;
+import org.apache.chemistry.opencmis.server.support.query.QueryObject;
+import org.apache.chemistry.opencmis.server.support.query.QueryObject.SortSpec;
+
+/**
+ * Sort stage of the In-Memory query processor. Supports all ORDER BY criteria
+ * of a query. The sort keys of each match are extracted once before sorting.
+ * If only the first rows of the result are needed they are selected with a
+ * bounded heap, very large results are sorted in parallel by a thread pool
+ * that is shared by all queries. Ties are broken by the original position of
+ * a match, so that partial and full sorts produce the same order.
+ */
+final class MatchSorter {
+
+    /** Default minimum number of matches that are sorted in parallel. */
+    static final int DEFAULT_PARALLEL_THRESHOLD = 100000;
+
+    private static final ExecutorService SORT_EXECUTOR = createExecutor();
+
+    private final int parallelThreshold;
+    private final int parallelism;
+    private final int keyCount;
+    private final String[] propIds;
+    private final PropertyDefinition<?>[] propDefs;
+    private final boolean[] ascending;
+
+    private final Comparator<Entry> comparator = new Comparator<Entry>() {
+        @Override
+        public int compare(Entry e1, Entry e2) {
+            for (int i = 0; i < keyCount; i++) {
+                int result = OrderByComparator.compareValues(e1.keys[i], e2.keys[i]);
+                if (result != 0) {
+                    return ascending[i] ? result : -result;
+                }
+            }
+            return e1.index < e2.index ? -1 : (e1.index == e2.index ? 0 : 1);
+        }
+    };
+
+    MatchSorter(QueryObject queryObj) {
+        this(queryObj, DEFAULT_PARALLEL_THRESHOLD, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param queryObj
+     *            the query
+     * @param parallelThreshold
+     *            minimum number of matches that are sorted in parallel
+     * @param parallelism
+     *            number of chunks a parallel sort is split into, sorting is
+     *            always sequential if this is less than 2
+     */
+    MatchSorter(QueryObject queryObj, int parallelThreshold, int parallelism) {
+        this.parallelThreshold = parallelThreshold;
+        this.parallelism = parallelism;
+
+        List<SortSpec> orderBy = queryObj.getOrderBys();
+        keyCount = orderBy.size();
+        propIds = new String[keyCount];
+        propDefs = new PropertyDefinition<?>[keyCount];
+        ascending = new boolean[keyCount];
+
+        for (int i = 0; i < keyCount; i++) {
+            SortSpec s = orderBy.get(i);
+            CmisSelector sel = s.getSelector();
+            ascending[i] = s.isAscending();
+
+            // SEARCH_SCORE and functions are currently ignored
+            if (!queryObj.isPredfinedQueryName(sel.getName()) && sel instanceof ColumnReference) {
+                propIds[i] = ((ColumnReference) sel).getPropertyId();
+                propDefs[i] = ((ColumnReference) sel).getPropertyDefinition();
+            }
+        }
+    }
+
+    /**
+     * Sorts the matches in place.
+     * 
+     * @param matches
+     *            the matches
+     * @param limit
+     *            number of rows that are needed, zero or negative for all
+     *            rows. If the limit is smaller than the number of matches only
+     *            the first <code>limit</code> rows are sorted, the remaining
+     *            rows follow in no particular order.
+     * @return <code>true</code> if all matches have been sorted
+     */
+    boolean sort(List<StoredObject> matches, int limit) {
+        int size = matches.size();
+        if (keyCount == 0 || size < 2) {
+            return true;
+        }
+
+        Entry[] entries = new Entry[size];
+        for (int i = 0; i < size; i++) {
+            entries[i] = createEntry(matches.get(i), i);
+        }
+
+        if (limit > 0 && limit < size) {
+            Entry[] top = selectTop(entries, limit);
+            boolean[] selected = new boolean[size];
+            int pos = 0;
+            for (Entry entry : top) {
+                selected[entry.index] = true;
+                matches.set(pos++, entry.so);
+            }
+            for (Entry entry : entries) {
+                if (!selected[entry.index]) {
+                    matches.set(pos++, entry.so);
+                }
+            }
+            return false;
+        }
+
+        if (size >= parallelThreshold && parallelism > 1) {
+            parallelSort(entries, parallelism);
+        } else {
+            Arrays.sort(entries, comparator);
+        }
+
+        for (int i = 0; i < size; i++) {
+            matches.set(i, entries[i].so);
+        }
+        return true;
+    }
+
+    private Entry createEntry(StoredObject so, int index) {
+        Object[] keys = new Object[keyCount];
+        for (int i = 0; i < keyCount; i++) {
+            if (propIds[i] != null) {
+                keys[i] = PropertyQueryUtil.getProperty(so, propIds[i], propDefs[i]);
+            }
+        }
+        return new Entry(so, index, keys);
+    }
+
+    /**
+     * Selects the smallest entries with a max-heap of size <code>limit</code>.
+     */
+    private Entry[] selectTop(Entry[] entries, int limit) {
+        PriorityQueue<Entry> heap = new PriorityQueue<Entry>(limit + 1, new Comparator<Entry>() {
+            @Override
+            public int compare(Entry e1, Entry e2) {
+                return comparator.compare(e2, e1);
+            }
+        });
+
+        for (Entry entry : entries) {
+            if (heap.size() < limit) {
+                heap.add(entry);
+            } else if (comparator.compare(entry, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(entry);
+            }
+        }
+
+        Entry[] top = new Entry[heap.size()];
+        for (int i = top.length - 1; i >= 0; i--) {
+            top[i] = heap.poll();
+        }
+        return top;
+    }
+
+    /**
+     * Sorts chunks of the entries in the shared pool and merges them.
+     */
+    private void parallelSort(final Entry[] entries, int chunks) {
+        final int chunkSize = (entries.length + chunks - 1) / chunks;
+        List<Future<?>> futures = new ArrayList<Future<?>>(chunks - 1);
+
+        for (int t = 0; t < chunks - 1; t++) {
+            final int from = Math.min(t * chunkSize, entries.length);
+            futures.add(SORT_EXECUTOR.submit(new Runnable() {
+                @Override
+                public void run() {
+                    Arrays.sort(entries, from, Math.min(from + chunkSize, entries.length), comparator);
+                }
+            }));
+        }
+
+        // the calling thread sorts the last chunk
+        Arrays.sort(entries, Math.min((chunks - 1) * chunkSize, entries.length), entries.length, comparator);
+
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            for (Future<?> future : futures) {
+                future.cancel(true);
+            }
+            Thread.currentThread().interrupt();
+            throw new CmisRuntimeException("Sorting the query result has been interrupted!", e);
+        } catch (ExecutionException e) {
+            throw new CmisRuntimeException("Sorting the query result failed: " + e.getCause(), e.getCause());
+        }
+
+        // merge sorted runs pairwise
+        Entry[] src = entries;
+        Entry[] dest = new Entry[entries.length];
+        for (int width = chunkSize; width < entries.length; width *= 2) {
+            for (int from = 0; from < entries.length; from += 2 * width) {
+                int mid = Math.min(from + width, entries.length);
+                int to = Math.min(from + 2 * width, entries.length);
+                merge(src, dest, from, mid, to);
+            }
+            Entry[] tmp = src;
+            src = dest;
+            dest = tmp;
+        }
+
+        if (src != entries) {
+            System.arraycopy(src, 0, entries, 0, entries.length);
+        }
+    }
+
+    private void merge(Entry[] src, Entry[] dest, int from, int mid, int to) {
+        int i = from;
+        int j = mid;
+        for (int k = from; k < to; k++) {
+            if (j >= to || (i < mid && comparator.compare(src[i], src[j]) <= 0)) {
+                dest[k] = src[i++];
+            } else {
+                dest[k] = src[j++];
+            }
+        }
+    }
+
+    private static ExecutorService createExecutor() {
+        int threads = Math.max(Runtime.getRuntime().availableProcessors() - 1, 1);
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+                    private final AtomicInteger count = new AtomicInteger();
+
+                    @Override
+                    public Thread newThread(Runnable r) {
+                        Thread thread = new Thread(r, "InMemory query sort " + count.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+        // don't keep idle threads around
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * A match with its extracted sort keys.
+     */
+    private static class Entry {
+        final StoredObject so;
+        final int index;
+        final Object[] keys;
+
+        Entry(StoredObject so, int index, Object[] keys) {
+            this.so = so;
+            this.index = index;
+            this.keys = keys;
+        }
+    }
+}
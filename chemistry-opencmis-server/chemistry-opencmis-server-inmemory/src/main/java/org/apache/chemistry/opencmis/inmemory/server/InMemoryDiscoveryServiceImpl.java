@@ -146,7 +146,7 @@ public class InMemoryDiscoveryServiceImpl extends InMemoryAbstractServiceImpl {
         ObjectList res;
 
         res = fStoreManager.query(user, repositoryId, statement, searchAllVersions, includeAllowableActions,
-                includeRelationships, renditionFilter, maxItems, skipCount);
+                includeRelationships, renditionFilter, maxItems, skipCount, extension);
         LOG.debug("stop query()");
         return res;
     }
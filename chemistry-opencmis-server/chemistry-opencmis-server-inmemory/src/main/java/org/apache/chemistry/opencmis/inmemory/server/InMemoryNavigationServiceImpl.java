@@ -48,7 +48,6 @@ import org.apache.chemistry.opencmis.commons.server.CallContext;
 import org.apache.chemistry.opencmis.commons.server.ObjectInfoHandler;
 import org.apache.chemistry.opencmis.inmemory.DataObjectCreator;
 import org.apache.chemistry.opencmis.inmemory.FilterParser;
-import org.apache.chemistry.opencmis.inmemory.storedobj.api.DocumentVersion;
 import org.apache.chemistry.opencmis.inmemory.storedobj.api.Fileable;
 import org.apache.chemistry.opencmis.inmemory.storedobj.api.Filing;
 import org.apache.chemistry.opencmis.inmemory.storedobj.api.Folder;
@@ -83,39 +82,21 @@ public class InMemoryNavigationServiceImpl extends InMemoryAbstractServiceImpl {
 
         String user = context.getUsername();
         ObjectStore objStore = fStoreManager.getObjectStore(repositoryId);
-        if (null == folderId) {
-            List<StoredObject> checkedOuts = fStoreManager.getObjectStore(repositoryId).getCheckedOutDocuments(orderBy,
-                    context.getUsername(), includeRelationships);
-            for (StoredObject checkedOut : checkedOuts) {
-                TypeManager tm = fStoreManager.getTypeManager(repositoryId);
-                ObjectData od = PropertyCreationHelper.getObjectData(tm, objStore, checkedOut, filter, user,
-                        includeAllowableActions, includeRelationships, renditionFilter, false, false, extension);
-                if (context.isObjectInfoRequired()) {
-                    ObjectInfoImpl objectInfo = new ObjectInfoImpl();
-                    fAtomLinkProvider
-                            .fillInformationForAtomLinks(repositoryId, /* workingCopy */checkedOut, objectInfo);
-                    objectInfos.addObjectInfo(objectInfo);
-                }
-                odList.add(od);
-            }
-        } else {
+        if (null != folderId) {
             LOG.debug("getting checked-out documents for folder: " + folderId);
-            ObjectInFolderList children = getChildrenIntern(repositoryId, folderId, filter, orderBy,
-                    includeAllowableActions, includeRelationships, renditionFilter, false, -1, -1, false, true,
-                    context.isObjectInfoRequired() ? objectInfos : null, user);
-            for (ObjectInFolderData child : children.getObjects()) {
-                ObjectData obj = child.getObject();
-                StoredObject so = fStoreManager.getObjectStore(repositoryId).getObjectById(obj.getId());
-                LOG.debug("Checked out: children:" + obj.getId());
-                if (so instanceof DocumentVersion && ((DocumentVersion) so).getParentDocument().isCheckedOut()) {
-                    odList.add(obj);
-                    if (context.isObjectInfoRequired()) {
-                        ObjectInfoImpl objectInfo = new ObjectInfoImpl();
-                        fAtomLinkProvider.fillInformationForAtomLinks(repositoryId, so, objectInfo);
-                        objectInfos.addObjectInfo(objectInfo);
-                    }
-                }
+        }
+        TypeManager tm = fStoreManager.getTypeManager(repositoryId);
+        List<StoredObject> checkedOuts = objStore.getCheckedOutDocuments(folderId, orderBy, tm, user,
+                includeRelationships);
+        for (StoredObject checkedOut : checkedOuts) {
+            ObjectData od = PropertyCreationHelper.getObjectData(tm, objStore, checkedOut, filter, user,
+                    includeAllowableActions, includeRelationships, renditionFilter, false, false, extension);
+            if (context.isObjectInfoRequired()) {
+                ObjectInfoImpl objectInfo = new ObjectInfoImpl();
+                fAtomLinkProvider.fillInformationForAtomLinks(repositoryId, /* workingCopy */checkedOut, objectInfo);
+                objectInfos.addObjectInfo(objectInfo);
             }
+            odList.add(od);
         }
         res.setObjects(odList);
         res.setNumItems(BigInteger.valueOf(odList.size()));
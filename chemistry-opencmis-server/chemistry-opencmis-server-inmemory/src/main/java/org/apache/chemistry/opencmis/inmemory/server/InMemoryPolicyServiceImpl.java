@@ -77,6 +77,7 @@ public class InMemoryPolicyServiceImpl extends InMemoryAbstractServiceImpl {
                     + "cannot be removed, because it is not applied to object " + objectId);
         }
         so.removePolicy(policyId);
+        fStoreManager.getObjectStore(repositoryId).objectModified(so);
     }
 
     public void applyPolicy(CallContext context, String repositoryId, String policyId, String objectId,
@@ -90,6 +91,7 @@ public class InMemoryPolicyServiceImpl extends InMemoryAbstractServiceImpl {
                     + "cannot be added, because it is already applied to object " + objectId);
         }
         so.addAppliedPolicy(policyId);
+        fStoreManager.getObjectStore(repositoryId).objectModified(so);
     }
 
 }
@@ -63,6 +63,8 @@ import org.apache.chemistry.opencmis.inmemory.storedobj.impl.StoreManagerFactory
 import org.apache.chemistry.opencmis.inmemory.storedobj.impl.StoreManagerImpl;
 import org.apache.chemistry.opencmis.server.support.CmisServiceWrapper;
 import org.apache.chemistry.opencmis.server.support.TypeManager;
+import org.apache.chemistry.opencmis.server.support.wrapper.CallContextAwareCmisService;
+import org.apache.chemistry.opencmis.server.support.wrapper.CmisServiceWrapperManager;
 import org.apache.chemistry.opencmis.util.repository.ObjectGenerator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -84,6 +86,7 @@ public class InMemoryServiceFactoryImpl extends AbstractServiceFactory {
     private int memoryThreshold;
     private long maxContentSize;
     private boolean encrypt;
+    private CmisServiceWrapperManager wrapperManager;
 
     @Override
     public void init(Map<String, String> parameters) {
@@ -97,6 +100,9 @@ public class InMemoryServiceFactoryImpl extends AbstractServiceFactory {
 
         ConfigurationSettings.init(parameters);
 
+        wrapperManager = new CmisServiceWrapperManager();
+        wrapperManager.addWrappersFromServiceFactoryParameters(parameters);
+
         String repositoryClassName = parameters.get(ConfigConstants.REPOSITORY_CLASS);
         if (null == repositoryClassName) {
             repositoryClassName = StoreManagerImpl.class.getName();
@@ -167,8 +173,14 @@ public class InMemoryServiceFactoryImpl extends AbstractServiceFactory {
 
         inMemoryService.setCallContext(contextToUse);
 
+        // add the configured service wrappers, if any
+        CmisService service = wrapperManager.wrap(inMemoryService);
+        if (service instanceof CallContextAwareCmisService) {
+            ((CallContextAwareCmisService) service).setCallContext(contextToUse);
+        }
+
         LOG.debug("stop getService()");
-        return inMemoryService;
+        return service;
     }
 
     @Override
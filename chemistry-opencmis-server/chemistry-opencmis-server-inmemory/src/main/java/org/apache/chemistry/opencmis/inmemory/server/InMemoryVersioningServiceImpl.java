@@ -126,6 +126,8 @@ public class InMemoryVersioningServiceImpl extends InMemoryAbstractServiceImpl {
             }
         }
         so.updateSystemBasePropertiesWhenModified(null, context.getUsername());
+        // the check-in has changed the versions in place
+        objStore.objectModified(so);
         // To be able to provide all Atom links in the response we need
         // additional information:
         if (context.isObjectInfoRequired()) {
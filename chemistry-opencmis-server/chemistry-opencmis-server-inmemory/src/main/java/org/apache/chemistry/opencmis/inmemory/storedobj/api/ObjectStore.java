@@ -29,6 +29,7 @@ import org.apache.chemistry.opencmis.commons.enums.AclPropagation;
 import org.apache.chemistry.opencmis.commons.enums.IncludeRelationships;
 import org.apache.chemistry.opencmis.commons.enums.RelationshipDirection;
 import org.apache.chemistry.opencmis.commons.enums.VersioningState;
+import org.apache.chemistry.opencmis.server.support.TypeManager;
 
 /**
  * This is the interface an implementation must provide to store any kind of
@@ -334,6 +335,16 @@ public interface ObjectStore {
      */
     void updateObject(StoredObject so, Map<String, PropertyData<?>> properties, String user);
 
+    /**
+     * Notify the store that an object has been changed directly and not
+     * through one of the methods of the store (for example by a check-in or
+     * when a policy is applied).
+     * 
+     * @param so
+     *            object that has been changed
+     */
+    void objectModified(StoredObject so);
+
     /**
      * get the path of this folder (for folder in CMIS path is unique).
      * 
@@ -393,6 +404,26 @@ public interface ObjectStore {
      */
     List<StoredObject> getCheckedOutDocuments(String orderBy, String user, IncludeRelationships includeRelationships);
 
+    /**
+     * Return a list of the documents that are checked out in a folder or in
+     * the repository.
+     * 
+     * @param folderId
+     *            id of the folder containing the documents or
+     *            <code>null</code> for all checked out documents
+     * @param orderBy
+     *            orderBy specification according to CMIS spec.
+     * @param typeManager
+     *            type manager used to resolve the query names in orderBy
+     * @param user
+     *            user id of user calling
+     * @param includeRelationships
+     *            if true include all relationships in the response
+     * @return list of private working copies of the checked out documents
+     */
+    List<StoredObject> getCheckedOutDocuments(String folderId, String orderBy, TypeManager typeManager,
+            String user, IncludeRelationships includeRelationships);
+
     /**
      * Apply a ACLs by relative adding and removing a list of ACEs to/from an
      * object.
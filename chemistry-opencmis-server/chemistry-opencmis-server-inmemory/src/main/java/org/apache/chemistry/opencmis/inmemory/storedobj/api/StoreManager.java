@@ -22,6 +22,7 @@ import java.math.BigInteger;
 import java.util.Collection;
 import java.util.List;
 
+import org.apache.chemistry.opencmis.commons.data.ExtensionsData;
 import org.apache.chemistry.opencmis.commons.data.ObjectList;
 import org.apache.chemistry.opencmis.commons.data.RepositoryInfo;
 import org.apache.chemistry.opencmis.commons.definitions.TypeDefinitionContainer;
@@ -202,10 +203,12 @@ public interface StoreManager {
      *            max number of items to return
      * @param skipCount
      *            items to skip
+     * @param extension
+     *            extensions of the request, may carry a query cursor token
      * @return list of objects matching the query
      */
     ObjectList query(String user, String repositoryId, String statement, Boolean searchAllVersions,
             Boolean includeAllowableActions, IncludeRelationships includeRelationships, String renditionFilter,
-            BigInteger maxItems, BigInteger skipCount);
+            BigInteger maxItems, BigInteger skipCount, ExtensionsData extension);
 
 }
\ No newline at end of file
@@ -27,10 +27,13 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.GregorianCalendar;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -68,6 +71,7 @@ import org.apache.chemistry.opencmis.inmemory.storedobj.api.ObjectStore;
 import org.apache.chemistry.opencmis.inmemory.storedobj.api.Relationship;
 import org.apache.chemistry.opencmis.inmemory.storedobj.api.StoredObject;
 import org.apache.chemistry.opencmis.inmemory.storedobj.api.VersionedDocument;
+import org.apache.chemistry.opencmis.server.support.TypeManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -124,6 +128,22 @@ public class ObjectStoreImpl implements ObjectStore {
      */
     private final Map<String, StoredObject> fStoredObjectMap = new ConcurrentHashMap<String, StoredObject>();
 
+    /**
+     * Maps from object id to the ids of the relationships that have the
+     * object as source or as target, guarded by fRelationshipIndexLock.
+     */
+    private final Map<String, Set<String>> fRelationshipsBySource = new HashMap<String, Set<String>>();
+    private final Map<String, Set<String>> fRelationshipsByTarget = new HashMap<String, Set<String>>();
+    private final Object fRelationshipIndexLock = new Object();
+
+    /**
+     * The version series that are checked out, by id. Check-outs and
+     * cancelled check-outs pass through the store and update the map. A
+     * check-in only changes the version series, so checked-in documents are
+     * removed when the map is read.
+     */
+    private final Map<String, VersionedDocument> fCheckedOutDocuments = new ConcurrentHashMap<String, VersionedDocument>();
+
     /**
      * A concurrent HashMap to hold all Acls in the repository.
      */
@@ -133,6 +153,11 @@ public class ObjectStoreImpl implements ObjectStore {
 
     private final Lock fLock = new ReentrantLock();
 
+    /**
+     * Counts the writes to the store, used to detect stale query cursors.
+     */
+    private final AtomicLong fRevision = new AtomicLong();
+
     private final String fRepositoryId;
     private FolderImpl fRootFolder = null;
 
@@ -157,6 +182,19 @@ public class ObjectStoreImpl implements ObjectStore {
         fLock.unlock();
     }
 
+    private void modified() {
+        fRevision.incrementAndGet();
+    }
+
+    /**
+     * Returns the revision of the store content. The revision changes with
+     * every write that passes through the store or that is reported with
+     * {@link #objectModified(StoredObject)}.
+     */
+    public long getRevision() {
+        return fRevision.get();
+    }
+
     @Override
     public Folder getRootFolder() {
         return fRootFolder;
@@ -198,6 +236,7 @@ public class ObjectStoreImpl implements ObjectStore {
 
     @Override
     public void deleteObject(String objectId, Boolean allVersions, String user) {
+        modified();
         StoredObject obj = fStoredObjectMap.get(objectId);
 
         if (null == obj) {
@@ -225,12 +264,16 @@ public class ObjectStoreImpl implements ObjectStore {
             if (!otherVersionsExists) {
                 fStoredObjectMap.remove(parentDoc.getId());
             }
+            if (!otherVersionsExists || !parentDoc.isCheckedOut()) {
+                fCheckedOutDocuments.remove(parentDoc.getId());
+            }
         } else {
-            fStoredObjectMap.remove(objectId);
+            removeObject(objectId);
         }
     }
 
     public String storeObject(StoredObject so) {
+        modified();
         String id = so.getId();
         // check if update or create
         if (null == id) {
@@ -245,7 +288,13 @@ public class ObjectStoreImpl implements ObjectStore {
     }
 
     void removeObject(String id) {
-        fStoredObjectMap.remove(id);
+        modified();
+        StoredObject so = fStoredObjectMap.remove(id);
+        if (so instanceof Relationship) {
+            unindexRelationship(so);
+        } else if (so instanceof VersionedDocument) {
+            fCheckedOutDocuments.remove(id);
+        }
     }
 
     public Set<String> getIds() {
@@ -259,7 +308,13 @@ public class ObjectStoreImpl implements ObjectStore {
     @Override
     public void clear() {
         lock();
+        modified();
         fStoredObjectMap.clear();
+        synchronized (fRelationshipIndexLock) {
+            fRelationshipsBySource.clear();
+            fRelationshipsByTarget.clear();
+        }
+        fCheckedOutDocuments.clear();
         storeObject(fRootFolder);
         unlock();
     }
@@ -372,6 +427,9 @@ public class ObjectStoreImpl implements ObjectStore {
         id = storeObject(version);
         version.setId(id);
         applyAcl(doc, addACEs, removeACEs);
+        if (doc.isCheckedOut()) {
+            fCheckedOutDocuments.put(doc.getId(), doc);
+        }
         return version;
     }
 
@@ -443,6 +501,7 @@ public class ObjectStoreImpl implements ObjectStore {
         String id = storeObject(rel);
         rel.setId(id);
         applyAcl(rel, addACEs, removeACEs);
+        indexRelationship(rel);
         return rel;
     }
 
@@ -450,20 +509,31 @@ public class ObjectStoreImpl implements ObjectStore {
     public void storeVersion(DocumentVersion version) {
         String id = storeObject(version);
         version.setId(id);
+        if (version.isPwc()) {
+            VersionedDocument verDoc = version.getParentDocument();
+            fCheckedOutDocuments.put(verDoc.getId(), verDoc);
+        }
     }
 
     @Override
     public void deleteVersion(DocumentVersion version) {
+        modified();
         StoredObject found = fStoredObjectMap.remove(version.getId());
 
         if (null == found) {
             throw new CmisInvalidArgumentException("Cannot delete object with id  " + version.getId()
                     + ". Object does not exist.");
         }
+
+        VersionedDocument verDoc = version.getParentDocument();
+        if (verDoc != null && !verDoc.isCheckedOut()) {
+            fCheckedOutDocuments.remove(verDoc.getId());
+        }
     }
 
     @Override
     public void updateObject(StoredObject so, Map<String, PropertyData<?>> newProperties, String user) {
+        modified();
         // nothing to do
         Map<String, PropertyData<?>> properties = so.getProperties();
         for (String key : newProperties.keySet()) {
@@ -483,18 +553,47 @@ public class ObjectStoreImpl implements ObjectStore {
         properties.remove(PropertyIds.SECONDARY_OBJECT_TYPE_IDS);
     }
 
+    @Override
+    public void objectModified(StoredObject so) {
+        modified();
+    }
+
     @Override
     public List<StoredObject> getCheckedOutDocuments(String orderBy, String user,
             IncludeRelationships includeRelationships) {
+        return getCheckedOutDocuments(null, orderBy, null, user, includeRelationships);
+    }
+
+    @Override
+    public List<StoredObject> getCheckedOutDocuments(String folderId, String orderBy, TypeManager typeManager,
+            String user, IncludeRelationships includeRelationships) {
+        OrderByComparator comparator = OrderByComparator.create(orderBy, typeManager);
         List<StoredObject> res = new ArrayList<StoredObject>();
 
-        for (StoredObject so : fStoredObjectMap.values()) {
-            if (so instanceof VersionedDocument) {
-                VersionedDocument verDoc = (VersionedDocument) so;
-                if (verDoc.isCheckedOut() && hasReadAccess(user, verDoc)) {
-                    res.add(verDoc.getPwc());
+        for (Map.Entry<String, VersionedDocument> entry : fCheckedOutDocuments.entrySet()) {
+            VersionedDocument verDoc = entry.getValue();
+            if (!verDoc.isCheckedOut()) {
+                // checked in since the last call
+                fCheckedOutDocuments.remove(entry.getKey());
+                if (verDoc.isCheckedOut()) {
+                    // checked out again in the meantime
+                    fCheckedOutDocuments.put(entry.getKey(), verDoc);
                 }
+                continue;
+            }
+
+            if (folderId != null && !verDoc.getParentIds().contains(folderId)) {
+                continue;
             }
+
+            DocumentVersion pwc = verDoc.getPwc();
+            if (pwc != null && hasReadAccess(user, verDoc)) {
+                res.add(pwc);
+            }
+        }
+
+        if (comparator != null) {
+            Collections.sort(res, comparator);
         }
 
         return res;
@@ -506,19 +605,11 @@ public class ObjectStoreImpl implements ObjectStore {
         List<StoredObject> res = new ArrayList<StoredObject>();
 
         if (typeIds != null && typeIds.size() > 0) {
+            List<StoredObject> rels = getAllRelationships(objectId, direction);
             for (String typeId : typeIds) {
-                for (StoredObject so : fStoredObjectMap.values()) {
-                    if (so instanceof Relationship && so.getTypeId().equals(typeId)) {
-                        Relationship ro = (Relationship) so;
-                        if (ro.getSourceObjectId().equals(objectId)
-                                && (RelationshipDirection.EITHER == direction 
-                                    || RelationshipDirection.SOURCE == direction)) {
-                            res.add(so);
-                        } else if (ro.getTargetObjectId().equals(objectId)
-                                && (RelationshipDirection.EITHER == direction 
-                                    || RelationshipDirection.TARGET == direction)) {
-                            res.add(so);
-                        }
+                for (StoredObject so : rels) {
+                    if (so.getTypeId().equals(typeId)) {
+                        res.add(so);
                     }
                 }
             }
@@ -551,6 +642,7 @@ public class ObjectStoreImpl implements ObjectStore {
     @Override
     public Acl applyAcl(StoredObject so, Acl addAces, Acl removeAces, AclPropagation aclPropagation, 
             String principalId) {
+        modified();
         if (aclPropagation == AclPropagation.OBJECTONLY || !(so instanceof Folder)) {
             return applyAcl(so, addAces, removeAces);
         } else {
@@ -560,6 +652,7 @@ public class ObjectStoreImpl implements ObjectStore {
 
     @Override
     public Acl applyAcl(StoredObject so, Acl acl, AclPropagation aclPropagation, String principalId) {
+        modified();
         if (aclPropagation == AclPropagation.OBJECTONLY || !(so instanceof Folder)) {
             return applyAcl(so, acl);
         } else {
@@ -741,6 +834,7 @@ public class ObjectStoreImpl implements ObjectStore {
 
     @Override
     public void move(StoredObject so, Folder oldParent, Folder newParent, String user) {
+        modified();
         try {
             if (hasChild(newParent, so.getName())) {
                 throw new CmisInvalidArgumentException("Cannot move object " + so.getName() + " to folder "
@@ -761,6 +855,7 @@ public class ObjectStoreImpl implements ObjectStore {
 
     @Override
     public void rename(StoredObject so, String newName, String user) {
+        modified();
         try {
             lock();
             if (so.getId().equals(fRootFolder.getId())) {
@@ -960,23 +1055,77 @@ public class ObjectStoreImpl implements ObjectStore {
 
     private List<StoredObject> getAllRelationships(String objectId, RelationshipDirection direction) {
 
-        List<StoredObject> res = new ArrayList<StoredObject>();
+        // collect the ids first, a relationship from an object to itself is
+        // in both maps
+        Set<String> relIds = new LinkedHashSet<String>();
+        synchronized (fRelationshipIndexLock) {
+            if (RelationshipDirection.EITHER == direction || RelationshipDirection.SOURCE == direction) {
+                Set<String> ids = fRelationshipsBySource.get(objectId);
+                if (ids != null) {
+                    relIds.addAll(ids);
+                }
+            }
+            if (RelationshipDirection.EITHER == direction || RelationshipDirection.TARGET == direction) {
+                Set<String> ids = fRelationshipsByTarget.get(objectId);
+                if (ids != null) {
+                    relIds.addAll(ids);
+                }
+            }
+        }
 
-        for (StoredObject so : fStoredObjectMap.values()) {
+        List<StoredObject> res = new ArrayList<StoredObject>(relIds.size());
+        for (String relId : relIds) {
+            StoredObject so = fStoredObjectMap.get(relId);
             if (so instanceof Relationship) {
-                Relationship ro = (Relationship) so;
-                if (ro.getSourceObjectId().equals(objectId)
-                        && (RelationshipDirection.EITHER == direction || RelationshipDirection.SOURCE == direction)) {
-                    res.add(so);
-                } else if (ro.getTargetObjectId().equals(objectId)
-                        && (RelationshipDirection.EITHER == direction || RelationshipDirection.TARGET == direction)) {
-                    res.add(so);
-                }
+                res.add(so);
             }
         }
         return res;
     }
 
+    private void indexRelationship(StoredObject so) {
+        Relationship rel = (Relationship) so;
+        synchronized (fRelationshipIndexLock) {
+            addIndexEntry(fRelationshipsBySource, rel.getSourceObjectId(), so.getId());
+            addIndexEntry(fRelationshipsByTarget, rel.getTargetObjectId(), so.getId());
+        }
+    }
+
+    private void unindexRelationship(StoredObject so) {
+        Relationship rel = (Relationship) so;
+        synchronized (fRelationshipIndexLock) {
+            removeIndexEntry(fRelationshipsBySource, rel.getSourceObjectId(), so.getId());
+            removeIndexEntry(fRelationshipsByTarget, rel.getTargetObjectId(), so.getId());
+        }
+    }
+
+    private static void addIndexEntry(Map<String, Set<String>> index, String objectId, String relId) {
+        if (objectId == null) {
+            return;
+        }
+
+        Set<String> ids = index.get(objectId);
+        if (ids == null) {
+            ids = new LinkedHashSet<String>();
+            index.put(objectId, ids);
+        }
+        ids.add(relId);
+    }
+
+    private static void removeIndexEntry(Map<String, Set<String>> index, String objectId, String relId) {
+        if (objectId == null) {
+            return;
+        }
+
+        Set<String> ids = index.get(objectId);
+        if (ids != null) {
+            ids.remove(relId);
+            if (ids.isEmpty()) {
+                index.remove(objectId);
+            }
+        }
+    }
+
     @Override
     public boolean isTypeInUse(String typeId) {
         // iterate over all the objects and check for each if the type matches
@@ -991,6 +1140,7 @@ public class ObjectStoreImpl implements ObjectStore {
 
     @Override
     public void addParent(StoredObject so, Folder parent) {
+        modified();
         try {
             lock();
             if (hasChild(parent, so.getName())) {
@@ -1012,6 +1162,7 @@ public class ObjectStoreImpl implements ObjectStore {
 
     @Override
     public void removeParent(StoredObject so, Folder parent) {
+        modified();
         try {
             lock();
             MultiFiling mfi;
@@ -1070,6 +1221,7 @@ public class ObjectStoreImpl implements ObjectStore {
 
     @Override
     public ContentStream setContent(StoredObject so, ContentStream contentStream) {
+        modified();
         if (so instanceof Content) {
             ContentStreamDataImpl newContent;
             Content content = (Content) so;
@@ -1105,6 +1257,7 @@ public class ObjectStoreImpl implements ObjectStore {
 
     @Override
     public void appendContent(StoredObject so, ContentStream contentStream) {
+        modified();
         if (so instanceof Content) {
             Content content = (Content) so;
             ContentStreamDataImpl newContent = (ContentStreamDataImpl) content.getContent();
@@ -0,0 +1,185 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.chemistry.opencmis.inmemory.storedobj.impl;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.apache.chemistry.opencmis.commons.PropertyIds;
+import org.apache.chemistry.opencmis.commons.data.PropertyData;
+import org.apache.chemistry.opencmis.commons.definitions.TypeDefinitionContainer;
+import org.apache.chemistry.opencmis.inmemory.storedobj.api.StoredObject;
+import org.apache.chemistry.opencmis.server.support.TypeManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compares stored objects according to an <code>orderBy</code> parameter
+ * of the navigation services, for example
+ * <code>cmis:name ASC,cmis:creationDate DESC</code>.
+ * <p>
+ * Properties are referenced by their query names, which are resolved to
+ * property ids with the type of each object. Missing values sort before all
+ * other values, properties that have no comparable values are ignored. Invalid
+ * criteria are logged and ignored.
+ */
+public class OrderByComparator implements Comparator<StoredObject> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(OrderByComparator.class.getName());
+
+    private final TypeManager fTypeManager;
+    private final List<String> fQueryNames = new ArrayList<String>();
+    private final List<Boolean> fAscending = new ArrayList<Boolean>();
+
+    /** Property ids of the criteria by type id, resolved on first use. */
+    private final Map<String, String[]> fPropertyIdsByType = new HashMap<String, String[]>();
+
+    private OrderByComparator(TypeManager typeManager) {
+        fTypeManager = typeManager;
+    }
+
+    /**
+     * Parses an <code>orderBy</code> parameter.
+     *
+     * @param orderBy
+     *            the <code>orderBy</code> parameter
+     * @param typeManager
+     *            type manager used to resolve the query names or
+     *            <code>null</code> to use the query names as property ids
+     * @return the comparator or <code>null</code> if the parameter has no
+     *         valid criteria
+     */
+    public static OrderByComparator create(String orderBy, TypeManager typeManager) {
+        if (orderBy == null || orderBy.trim().length() == 0) {
+            return null;
+        }
+
+        OrderByComparator result = new OrderByComparator(typeManager);
+
+        for (String criterion : orderBy.split(",")) {
+            String trimmed = criterion.trim();
+            if (trimmed.length() == 0) {
+                continue;
+            }
+
+            String[] parts = trimmed.split("\\s+");
+            if (parts.length > 2) {
+                LOG.warn("Ignoring invalid orderBy criterion: " + trimmed);
+                continue;
+            }
+
+            boolean ascending = true;
+            if (parts.length == 2) {
+                String direction = parts[1].toUpperCase(Locale.ENGLISH);
+                if ("DESC".equals(direction)) {
+                    ascending = false;
+                } else if (!"ASC".equals(direction)) {
+                    LOG.warn("Ignoring invalid orderBy criterion: " + trimmed);
+                    continue;
+                }
+            }
+
+            result.fQueryNames.add(parts[0]);
+            result.fAscending.add(ascending);
+        }
+
+        return result.fQueryNames.isEmpty() ? null : result;
+    }
+
+    @Override
+    public int compare(StoredObject so1, StoredObject so2) {
+        String[] propIds1 = getPropertyIds(so1);
+        String[] propIds2 = getPropertyIds(so2);
+        for (int i = 0; i < fQueryNames.size(); i++) {
+            int result = compareValues(getValue(so1, propIds1[i]), getValue(so2, propIds2[i]));
+            if (result != 0) {
+                return fAscending.get(i) ? result : -result;
+            }
+        }
+
+        return 0;
+    }
+
+    /**
+     * Compares two property values. <code>null</code> sorts before all other
+     * values, values of different or not comparable types are considered
+     * equal.
+     */
+    @SuppressWarnings("unchecked")
+    public static int compareValues(Object value1, Object value2) {
+        if (value1 == null) {
+            return value2 == null ? 0 : -1;
+        } else if (value2 == null) {
+            return 1;
+        } else if (value1 instanceof Comparable && value1.getClass() == value2.getClass()) {
+            return ((Comparable<Object>) value1).compareTo(value2);
+        }
+
+        return 0;
+    }
+
+    private String[] getPropertyIds(StoredObject so) {
+        String typeId = so.getTypeId();
+        String[] propIds = fPropertyIdsByType.get(typeId);
+        if (propIds == null) {
+            propIds = new String[fQueryNames.size()];
+            TypeDefinitionContainer tc = (fTypeManager == null || typeId == null) ? null : fTypeManager
+                    .getTypeById(typeId);
+            for (int i = 0; i < propIds.length; i++) {
+                if (fTypeManager == null) {
+                    propIds[i] = fQueryNames.get(i);
+                } else if (tc != null) {
+                    propIds[i] = fTypeManager.getPropertyIdForQueryName(tc.getTypeDefinition(), fQueryNames.get(i));
+                }
+            }
+            fPropertyIdsByType.put(typeId, propIds);
+        }
+        return propIds;
+    }
+
+    private static Object getValue(StoredObject so, String propId) {
+        if (propId == null) {
+            return null;
+        }
+
+        // system properties are not in the property map
+        if (PropertyIds.NAME.equals(propId)) {
+            return so.getName();
+        } else if (PropertyIds.OBJECT_ID.equals(propId)) {
+            return so.getId();
+        } else if (PropertyIds.OBJECT_TYPE_ID.equals(propId)) {
+            return so.getTypeId();
+        } else if (PropertyIds.CREATED_BY.equals(propId)) {
+            return so.getCreatedBy();
+        } else if (PropertyIds.CREATION_DATE.equals(propId)) {
+            return so.getCreatedAt();
+        } else if (PropertyIds.LAST_MODIFIED_BY.equals(propId)) {
+            return so.getModifiedBy();
+        } else if (PropertyIds.LAST_MODIFICATION_DATE.equals(propId)) {
+            return so.getModifiedAt();
+        }
+
+        PropertyData<?> pd = so.getProperties() == null ? null : so.getProperties().get(propId);
+        return pd == null ? null : pd.getFirstValue();
+    }
+}
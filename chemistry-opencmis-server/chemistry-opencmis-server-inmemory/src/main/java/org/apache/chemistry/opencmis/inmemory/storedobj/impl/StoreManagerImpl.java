@@ -30,6 +30,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import org.apache.chemistry.opencmis.commons.data.ExtensionsData;
 import org.apache.chemistry.opencmis.commons.data.ObjectList;
 import org.apache.chemistry.opencmis.commons.data.PermissionMapping;
 import org.apache.chemistry.opencmis.commons.data.RepositoryInfo;
@@ -63,6 +64,8 @@ import org.apache.chemistry.opencmis.commons.impl.dataobjects.RepositoryCapabili
 import org.apache.chemistry.opencmis.commons.impl.dataobjects.RepositoryInfoImpl;
 import org.apache.chemistry.opencmis.commons.impl.dataobjects.TypeDefinitionContainerImpl;
 import org.apache.chemistry.opencmis.commons.spi.BindingsObjectFactory;
+import org.apache.chemistry.opencmis.inmemory.ConfigConstants;
+import org.apache.chemistry.opencmis.inmemory.ConfigurationSettings;
 import org.apache.chemistry.opencmis.inmemory.TypeCreator;
 import org.apache.chemistry.opencmis.inmemory.TypeManagerImpl;
 import org.apache.chemistry.opencmis.inmemory.query.InMemoryQueryProcessor;
@@ -72,6 +75,7 @@ import org.apache.chemistry.opencmis.inmemory.storedobj.api.ObjectStore;
 import org.apache.chemistry.opencmis.inmemory.storedobj.api.StoreManager;
 import org.apache.chemistry.opencmis.server.support.TypeDefinitionFactory;
 import org.apache.chemistry.opencmis.server.support.TypeManager;
+import org.apache.chemistry.opencmis.server.support.query.QueryCursorCache;
 
 /**
  * Factory to create objects that are stored in the InMemory store.
@@ -111,6 +115,11 @@ public class StoreManagerImpl implements StoreManager {
      */
     private final Map<String, ObjectStore> fMapRepositoryToObjectStore = new HashMap<String, ObjectStore>();
 
+    /**
+     * Map from repository id to the cursors of paged query results.
+     */
+    private final Map<String, QueryCursorCache> fMapRepositoryToQueryCursors = new HashMap<String, QueryCursorCache>();
+
     public ObjectStoreImpl getStore(String repositoryId) {
         return (ObjectStoreImpl) fMapRepositoryToObjectStore.get(repositoryId);
     }
@@ -131,6 +140,7 @@ public class StoreManagerImpl implements StoreManager {
     public void initRepository(String repositoryId) {
         fMapRepositoryToObjectStore.put(repositoryId, new ObjectStoreImpl(repositoryId));
         fMapRepositoryToTypeManager.put(repositoryId, new TypeManagerImpl());
+        fMapRepositoryToQueryCursors.put(repositoryId, createQueryCursorCache());
     }
 
     @Override
@@ -143,6 +153,7 @@ public class StoreManagerImpl implements StoreManager {
 
         fMapRepositoryToObjectStore.put(repositoryId, new ObjectStoreImpl(repositoryId));
         fMapRepositoryToTypeManager.put(repositoryId, new TypeManagerImpl());
+        fMapRepositoryToQueryCursors.put(repositoryId, createQueryCursorCache());
 
         // initialize the type system:
         initTypeSystem(repositoryId, typeCreatorClassName);
@@ -562,14 +573,28 @@ public class StoreManagerImpl implements StoreManager {
     @Override
     public ObjectList query(String user, String repositoryId, String statement, Boolean searchAllVersions,
             Boolean includeAllowableActions, IncludeRelationships includeRelationships, String renditionFilter,
-            BigInteger maxItems, BigInteger skipCount) {
+            BigInteger maxItems, BigInteger skipCount, ExtensionsData extension) {
         TypeManager tm = getTypeManager(repositoryId);
         ObjectStore objectStore = getObjectStore(repositoryId);
 
+        // only clients that send the cursor token back get a cursor
+        QueryCursorCache cursors = (QueryCursorCache.isRequested(extension) ? fMapRepositoryToQueryCursors
+                .get(repositoryId) : null);
+
         InMemoryQueryProcessor queryProcessor = new InMemoryQueryProcessor(getStore(repositoryId));
         ObjectList objList = queryProcessor.query(tm, objectStore, user, repositoryId, statement, searchAllVersions,
-                includeAllowableActions, includeRelationships, renditionFilter, maxItems, skipCount);
+                includeAllowableActions, includeRelationships, renditionFilter, maxItems, skipCount, cursors,
+                QueryCursorCache.getToken(extension));
 
         return objList;
     }
+
+    private static QueryCursorCache createQueryCursorCache() {
+        Long ttlSeconds = ConfigurationSettings.getConfigurationValueAsLong(ConfigConstants.QUERY_CURSOR_TTL);
+        Long maxIds = ConfigurationSettings.getConfigurationValueAsLong(ConfigConstants.QUERY_CURSOR_MAX_IDS);
+
+        return new QueryCursorCache(ttlSeconds == null ? QueryCursorCache.DEFAULT_TTL : ttlSeconds * 1000L,
+                QueryCursorCache.DEFAULT_MAX_CURSORS, maxIds == null ? QueryCursorCache.DEFAULT_MAX_IDS
+                        : maxIds.intValue());
+    }
 }
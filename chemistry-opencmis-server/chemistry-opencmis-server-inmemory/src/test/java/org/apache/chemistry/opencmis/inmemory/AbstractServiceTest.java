@@ -426,6 +426,10 @@ public class AbstractServiceTest {
         fPolSvc = binding.getPolicyService();
     }
 
+    protected CmisBinding getBinding() {
+        return binding;
+    }
+
     protected String getStringProperty(ObjectData objData, String propertyKey) {
         PropertyData<? extends Object> pd = objData.getProperties().getProperties().get(PropertyIds.PATH);
         assertNotNull(pd.getFirstValue());
@@ -0,0 +1,246 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.chemistry.opencmis.inmemory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.chemistry.opencmis.client.api.CmisObject;
+import org.apache.chemistry.opencmis.client.api.Document;
+import org.apache.chemistry.opencmis.client.api.Folder;
+import org.apache.chemistry.opencmis.client.api.Session;
+import org.apache.chemistry.opencmis.client.runtime.SessionFactoryImpl;
+import org.apache.chemistry.opencmis.commons.PropertyIds;
+import org.apache.chemistry.opencmis.commons.SessionParameter;
+import org.apache.chemistry.opencmis.commons.enums.BaseTypeId;
+import org.apache.chemistry.opencmis.commons.enums.BindingType;
+import org.apache.chemistry.opencmis.commons.impl.IOUtils;
+import org.apache.chemistry.opencmis.inmemory.server.InMemoryServiceFactoryImpl;
+import org.apache.chemistry.opencmis.tools.filecopy.BulkImporter;
+import org.apache.chemistry.opencmis.tools.filecopy.ImportCheckpoint;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Imports a local directory tree into the InMemory server through the local
+ * binding and resumes interrupted imports.
+ */
+public class BulkImporterTest {
+
+    private Session session;
+    private File directory;
+    private File checkpointFile;
+    private Folder target;
+
+    @Before
+    public void setUp() throws IOException {
+        // same repository as in AbstractServiceTest, but accessed through a
+        // session
+        Map<String, String> parameters = new HashMap<String, String>();
+        parameters.put(ConfigConstants.TYPE_CREATOR_CLASS, UnitTestTypeSystemCreator.class.getName());
+        parameters.put(ConfigConstants.REPOSITORY_ID, AbstractServiceTest.REPOSITORY_ID);
+        parameters.put(ConfigConstants.OVERRIDE_CALL_CONTEXT, "true");
+        InMemoryServiceFactoryImpl.setOverrideCallContext(new DummyCallContext());
+
+        parameters.put(SessionParameter.BINDING_TYPE, BindingType.LOCAL.value());
+        parameters.put(SessionParameter.LOCAL_FACTORY, InMemoryServiceFactoryImpl.class.getName());
+        parameters.put(SessionParameter.REPOSITORY_ID, AbstractServiceTest.REPOSITORY_ID);
+        session = SessionFactoryImpl.newInstance().createSession(parameters);
+
+        Map<String, Object> properties = new HashMap<String, Object>();
+        properties.put(PropertyIds.NAME, "import");
+        properties.put(PropertyIds.OBJECT_TYPE_ID, BaseTypeId.CMIS_FOLDER.value());
+        target = session.getRootFolder().createFolder(properties);
+
+        directory = File.createTempFile("opencmis-import", "");
+        directory.delete();
+        checkpointFile = File.createTempFile("opencmis-import", ".checkpoint");
+        checkpointFile.delete();
+
+        writeFile("a.txt", "a");
+        writeFile("b.txt", "bb");
+        writeFile("sub/c.txt", "ccc");
+        writeFile("sub/deeper/d.txt", "dddd");
+    }
+
+    @After
+    public void tearDown() {
+        delete(directory);
+        checkpointFile.delete();
+        session.getBinding().close();
+    }
+
+    @Test
+    public void testImport() throws Exception {
+        BulkImporter importer = createImporter();
+        importer.importTree(directory, target.getId());
+
+        assertEquals(4, importer.getUploadedFiles());
+        assertEquals(10, importer.getUploadedBytes());
+        assertEquals(2, importer.getCreatedFolders());
+        assertEquals(0, importer.getSkippedFiles());
+        assertEquals(0, importer.getFailedFiles());
+        assertEquals(0, importer.getFailedFolders());
+
+        assertContent("/import/a.txt", "a");
+        assertContent("/import/b.txt", "bb");
+        assertContent("/import/sub/c.txt", "ccc");
+        assertContent("/import/sub/deeper/d.txt", "dddd");
+
+        // every folder and document has been recorded
+        assertEquals(6, readCheckpoint().size());
+    }
+
+    @Test
+    public void testResume() throws Exception {
+        createImporter().importTree(directory, target.getId());
+
+        // simulate a run that was interrupted after recording the folder
+        // "sub" and the document "a.txt"
+        List<String> lines = readCheckpoint();
+        Writer writer = new OutputStreamWriter(new FileOutputStream(checkpointFile), IOUtils.UTF8);
+        try {
+            for (String line : lines) {
+                if (line.endsWith("\t/sub") || line.endsWith("\t/a.txt")) {
+                    writer.write(line + "\n");
+                }
+            }
+        } finally {
+            writer.close();
+        }
+
+        writeFile("sub/e.txt", "eeeee");
+
+        BulkImporter importer = createImporter();
+        importer.importTree(directory, target.getId());
+
+        // a.txt is skipped because of the checkpoint, the other documents
+        // and the folder "deeper" already exist in the repository
+        assertEquals(1, importer.getUploadedFiles());
+        assertEquals(4, importer.getSkippedFiles());
+        assertEquals(0, importer.getCreatedFolders());
+        assertEquals(0, importer.getFailedFiles());
+        assertEquals(0, importer.getFailedFolders());
+
+        assertContent("/import/sub/e.txt", "eeeee");
+        assertEquals(3, countChildren("/import"));
+        assertEquals(3, countChildren("/import/sub"));
+        assertEquals(1, countChildren("/import/sub/deeper"));
+
+        // a complete checkpoint skips everything
+        importer = createImporter();
+        importer.importTree(directory, target.getId());
+
+        assertEquals(0, importer.getUploadedFiles());
+        assertEquals(5, importer.getSkippedFiles());
+        assertEquals(0, importer.getCreatedFolders());
+    }
+
+    @Test
+    public void testCheckpoint() throws Exception {
+        ImportCheckpoint checkpoint = new ImportCheckpoint(checkpointFile);
+        checkpoint.folderCreated("/sub", "folder1");
+        checkpoint.documentCreated("/sub/a.txt", "doc1");
+        checkpoint.documentCreated("/sub/new\nline.txt", "doc2");
+        checkpoint.close();
+
+        // a damaged line, for example from a crash while writing
+        OutputStream out = new FileOutputStream(checkpointFile, true);
+        try {
+            out.write("D\t".getBytes(IOUtils.UTF8));
+        } finally {
+            out.close();
+        }
+
+        checkpoint = new ImportCheckpoint(checkpointFile);
+        try {
+            assertEquals("folder1", checkpoint.getFolderId("/sub"));
+            assertNull(checkpoint.getFolderId("/other"));
+            assertTrue(checkpoint.isDocumentDone("/sub/a.txt"));
+            assertFalse(checkpoint.isDocumentDone("/sub/b.txt"));
+            assertFalse(checkpoint.isDocumentDone("/sub/new\nline.txt"));
+        } finally {
+            checkpoint.close();
+        }
+    }
+
+    private BulkImporter createImporter() {
+        BulkImporter importer = new BulkImporter(session);
+        importer.setExtractorThreads(2);
+        importer.setUploadThreads(2);
+        importer.setReportInterval(0);
+        importer.setCheckpointFile(checkpointFile);
+        return importer;
+    }
+
+    private void assertContent(String path, String expected) throws IOException {
+        CmisObject object = session.getObjectByPath(path);
+        assertTrue(object instanceof Document);
+
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        IOUtils.copy(((Document) object).getContentStream().getStream(), content);
+        assertEquals(expected, content.toString(IOUtils.UTF8));
+    }
+
+    private long countChildren(String path) {
+        return ((Folder) session.getObjectByPath(path)).getChildren().getTotalNumItems();
+    }
+
+    private List<String> readCheckpoint() throws IOException {
+        return IOUtils.readAllLinesAsList(new FileInputStream(checkpointFile));
+    }
+
+    private void writeFile(String path, String content) throws IOException {
+        File file = new File(directory, path);
+        file.getParentFile().mkdirs();
+
+        OutputStream out = new FileOutputStream(file);
+        try {
+            out.write(content.getBytes(IOUtils.UTF8));
+        } finally {
+            out.close();
+        }
+    }
+
+    private static void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+
+        file.delete();
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.chemistry.opencmis.inmemory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.StringWriter;
+
+import org.apache.chemistry.opencmis.util.load.LoadOperation;
+import org.apache.chemistry.opencmis.util.load.LoadTest;
+import org.apache.chemistry.opencmis.util.load.LoadTestConfig;
+import org.apache.chemistry.opencmis.util.load.LoadTestResult;
+import org.apache.chemistry.opencmis.util.load.OperationMix;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Runs short load tests against the InMemory server through the local
+ * binding.
+ */
+public class LoadTestTest extends AbstractServiceTest {
+
+    @Override
+    @Before
+    public void setUp() {
+        super.setUp();
+    }
+
+    @Override
+    @After
+    public void tearDown() {
+        super.tearDown();
+    }
+
+    @Test
+    public void testClosedLoop() throws Exception {
+        LoadTestConfig config = createConfig();
+        config.setScheduling(LoadTestConfig.Scheduling.CLOSED);
+
+        LoadTestResult result = new LoadTest(getBinding(), config).run();
+
+        for (LoadOperation op : LoadOperation.values()) {
+            assertTrue(op.value(), result.getHistogram(op).getCount() > 0);
+            assertEquals(op.value(), 0, result.getErrorCount(op));
+        }
+
+        StringWriter csv = new StringWriter();
+        result.writeCsv(csv);
+        assertTrue(csv.toString().startsWith("operation,count,errors,"));
+        assertEquals(LoadOperation.values().length + 2, csv.toString().split("\n").length);
+
+        StringWriter json = new StringWriter();
+        result.writeJson(json);
+        assertTrue(json.toString().contains("\"operations\""));
+    }
+
+    @Test
+    public void testOpenLoop() {
+        LoadTestConfig config = createConfig();
+        config.setMix(new OperationMix("read=1"));
+        config.setScheduling(LoadTestConfig.Scheduling.OPEN);
+        config.setTargetRate(200);
+
+        LoadTestResult result = new LoadTest(getBinding(), config).run();
+
+        // the target rate caps the number of operations, no matter how fast
+        // the server is
+        long count = result.getHistogram(LoadOperation.READ).getCount();
+        assertTrue("Count: " + count, count > 0 && count <= 250);
+        assertEquals(0, result.getHistogram(LoadOperation.CREATE).getCount());
+    }
+
+    private LoadTestConfig createConfig() {
+        LoadTestConfig config = new LoadTestConfig();
+        config.setRepositoryId(fRepositoryId);
+        config.setThreads(4);
+        config.setWarmUpMillis(200);
+        config.setDurationMillis(1000);
+        config.setSeedDocuments(20);
+        config.setContentSizeInKB(1);
+        return config;
+    }
+}
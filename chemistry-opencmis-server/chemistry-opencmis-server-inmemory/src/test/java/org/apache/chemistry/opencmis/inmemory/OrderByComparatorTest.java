@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.chemistry.opencmis.inmemory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.chemistry.opencmis.commons.data.PropertyData;
+import org.apache.chemistry.opencmis.commons.definitions.MutableTypeDefinition;
+import org.apache.chemistry.opencmis.commons.definitions.TypeDefinition;
+import org.apache.chemistry.opencmis.commons.enums.BaseTypeId;
+import org.apache.chemistry.opencmis.commons.enums.Updatability;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.PropertyStringDefinitionImpl;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.PropertyStringImpl;
+import org.apache.chemistry.opencmis.inmemory.storedobj.api.StoredObject;
+import org.apache.chemistry.opencmis.inmemory.storedobj.impl.FolderImpl;
+import org.apache.chemistry.opencmis.inmemory.storedobj.impl.OrderByComparator;
+import org.apache.chemistry.opencmis.inmemory.types.DocumentTypeCreationHelper;
+import org.apache.chemistry.opencmis.inmemory.types.PropertyCreationHelper;
+import org.junit.Before;
+import org.junit.Test;
+
+public class OrderByComparatorTest {
+
+    private static final String TYPE_ID = "SortedFolder";
+    private static final String PROP_ID = "test:priority";
+    private static final String PROP_QUERY_NAME = "priority";
+
+    private TypeManagerImpl tm;
+    private StoredObject a;
+    private StoredObject b;
+    private StoredObject c;
+
+    @Before
+    public void setUp() throws Exception {
+        tm = new TypeManagerImpl();
+        tm.initTypeSystem(null, true);
+
+        TypeDefinition parent = tm.getTypeById(BaseTypeId.CMIS_FOLDER.value()).getTypeDefinition();
+        MutableTypeDefinition type = DocumentTypeCreationHelper.getTypeDefinitionFactory()
+                .createChildTypeDefinition(parent, TYPE_ID);
+        type.setQueryName(TYPE_ID);
+        PropertyStringDefinitionImpl prop = PropertyCreationHelper.createStringDefinition(PROP_ID, PROP_ID,
+                Updatability.READWRITE);
+        prop.setQueryName(PROP_QUERY_NAME);
+        type.addPropertyDefinition(prop);
+        tm.addTypeDefinition(type, true);
+
+        a = createFolder("a", "2");
+        b = createFolder("b", "3");
+        c = createFolder("c", "1");
+    }
+
+    @Test
+    public void testQueryName() {
+        assertOrder(OrderByComparator.create(PROP_QUERY_NAME, tm), c, a, b);
+        assertOrder(OrderByComparator.create(PROP_QUERY_NAME + " DESC", tm), b, a, c);
+    }
+
+    @Test
+    public void testSystemProperty() {
+        assertOrder(OrderByComparator.create("cmis:name DESC", tm), c, b, a);
+        assertOrder(OrderByComparator.create("cmis:name DESC", null), c, b, a);
+    }
+
+    @Test
+    public void testInvalidCriteria() {
+        assertOrder(OrderByComparator.create("cmis:name DESC,", tm), c, b, a);
+        assertOrder(OrderByComparator.create(" , cmis:name DESC", tm), c, b, a);
+        assertOrder(OrderByComparator.create("cmis:name SIDEWAYS, " + PROP_QUERY_NAME, tm), c, a, b);
+        assertOrder(OrderByComparator.create("cmis:name ASC DESC, cmis:name DESC", tm), c, b, a);
+        assertNull(OrderByComparator.create(",", tm));
+        assertNull(OrderByComparator.create("cmis:name UP", tm));
+        assertNull(OrderByComparator.create(" ", tm));
+    }
+
+    private StoredObject createFolder(String name, String priority) {
+        FolderImpl folder = new FolderImpl(name, null);
+        folder.setTypeId(TYPE_ID);
+        Map<String, PropertyData<?>> props = new HashMap<String, PropertyData<?>>();
+        props.put(PROP_ID, new PropertyStringImpl(PROP_ID, priority));
+        folder.setProperties(props);
+        return folder;
+    }
+
+    private void assertOrder(OrderByComparator comparator, StoredObject... expected) {
+        List<StoredObject> objects = new ArrayList<StoredObject>(Arrays.asList(a, b, c));
+        Collections.shuffle(objects);
+        Collections.sort(objects, comparator);
+        assertEquals(Arrays.asList(expected), objects);
+    }
+}
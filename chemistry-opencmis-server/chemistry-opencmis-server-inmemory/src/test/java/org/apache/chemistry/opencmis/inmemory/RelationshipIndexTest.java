@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.chemistry.opencmis.inmemory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.chemistry.opencmis.commons.PropertyIds;
+import org.apache.chemistry.opencmis.commons.data.PropertyData;
+import org.apache.chemistry.opencmis.commons.enums.BaseTypeId;
+import org.apache.chemistry.opencmis.commons.enums.RelationshipDirection;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.PropertyIdImpl;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.PropertyStringImpl;
+import org.apache.chemistry.opencmis.inmemory.storedobj.api.Folder;
+import org.apache.chemistry.opencmis.inmemory.storedobj.api.StoredObject;
+import org.apache.chemistry.opencmis.inmemory.storedobj.impl.ObjectStoreImpl;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the relationship index of the object store directly.
+ */
+public class RelationshipIndexTest {
+
+    private static final String TEST_REPOSITORY_ID = "TestRepositoryId";
+    private static final String USER = "user";
+    private static final String REL_TYPE = BaseTypeId.CMIS_RELATIONSHIP.value();
+    private static final String OTHER_REL_TYPE = "OtherRelationshipType";
+
+    private ObjectStoreImpl fStore;
+    private Folder fA;
+    private Folder fB;
+    private Folder fC;
+
+    @Before
+    public void setUp() {
+        // the object store reads its settings when the class is loaded
+        ConfigurationSettings.init(new HashMap<String, String>());
+        fStore = new ObjectStoreImpl(TEST_REPOSITORY_ID);
+        Folder root = fStore.getRootFolder();
+        fA = fStore.createFolder("A", null, USER, root, null, null, null);
+        fB = fStore.createFolder("B", null, USER, root, null, null, null);
+        fC = fStore.createFolder("C", null, USER, root, null, null, null);
+    }
+
+    @Test
+    public void testCreate() {
+        StoredObject ab = createRelationship("ab", fA, fB, REL_TYPE);
+        StoredObject ac = createRelationship("ac", fA, fC, OTHER_REL_TYPE);
+        StoredObject cb = createRelationship("cb", fC, fB, REL_TYPE);
+
+        assertRelationships(fA, RelationshipDirection.SOURCE, ab, ac);
+        assertRelationships(fA, RelationshipDirection.TARGET);
+        assertRelationships(fA, RelationshipDirection.EITHER, ab, ac);
+        assertRelationships(fB, RelationshipDirection.SOURCE);
+        assertRelationships(fB, RelationshipDirection.TARGET, ab, cb);
+        assertRelationships(fC, RelationshipDirection.EITHER, ac, cb);
+
+        // filter by type
+        List<StoredObject> rels = fStore.getRelationships(fA.getId(), Collections.singletonList(OTHER_REL_TYPE),
+                RelationshipDirection.EITHER);
+        assertEquals(1, rels.size());
+        assertSame(ac, rels.get(0));
+
+        // unrelated object
+        assertRelationships(fStore.getRootFolder(), RelationshipDirection.EITHER);
+    }
+
+    @Test
+    public void testDelete() {
+        StoredObject ab = createRelationship("ab", fA, fB, REL_TYPE);
+        StoredObject cb = createRelationship("cb", fC, fB, REL_TYPE);
+
+        fStore.deleteObject(ab.getId(), true, USER);
+
+        assertRelationships(fA, RelationshipDirection.EITHER);
+        assertRelationships(fB, RelationshipDirection.TARGET, cb);
+        assertRelationships(fC, RelationshipDirection.SOURCE, cb);
+
+        fStore.deleteObject(cb.getId(), true, USER);
+
+        assertRelationships(fB, RelationshipDirection.EITHER);
+        assertRelationships(fC, RelationshipDirection.EITHER);
+    }
+
+    @Test
+    public void testSelfRelationship() {
+        StoredObject aa = createRelationship("aa", fA, fA, REL_TYPE);
+        StoredObject ab = createRelationship("ab", fA, fB, REL_TYPE);
+
+        assertRelationships(fA, RelationshipDirection.SOURCE, aa, ab);
+        assertRelationships(fA, RelationshipDirection.TARGET, aa);
+        // reported only once although it is indexed as source and target
+        assertRelationships(fA, RelationshipDirection.EITHER, aa, ab);
+
+        fStore.deleteObject(aa.getId(), true, USER);
+
+        assertRelationships(fA, RelationshipDirection.EITHER, ab);
+    }
+
+    @Test
+    public void testClear() {
+        createRelationship("ab", fA, fB, REL_TYPE);
+        createRelationship("aa", fA, fA, REL_TYPE);
+
+        fStore.clear();
+
+        assertRelationships(fA, RelationshipDirection.EITHER);
+        assertRelationships(fB, RelationshipDirection.EITHER);
+
+        // the index is usable again after clearing
+        StoredObject ba = createRelationship("ba", fB, fA, REL_TYPE);
+        assertRelationships(fA, RelationshipDirection.TARGET, ba);
+        assertRelationships(fB, RelationshipDirection.SOURCE, ba);
+    }
+
+    private StoredObject createRelationship(String name, StoredObject source, StoredObject target, String typeId) {
+        Map<String, PropertyData<?>> propMap = new HashMap<String, PropertyData<?>>();
+        propMap.put(PropertyIds.NAME, new PropertyStringImpl(PropertyIds.NAME, name));
+        propMap.put(PropertyIds.OBJECT_TYPE_ID, new PropertyIdImpl(PropertyIds.OBJECT_TYPE_ID, typeId));
+        return fStore.createRelationship(name, source, target, propMap, USER, null, null);
+    }
+
+    private void assertRelationships(StoredObject so, RelationshipDirection direction, StoredObject... expected) {
+        List<StoredObject> rels = fStore.getRelationships(so.getId(), null, direction);
+        assertEquals(expected.length, rels.size());
+        for (StoredObject rel : expected) {
+            assertTrue("Missing relationship " + rel.getName(), rels.contains(rel));
+        }
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.chemistry.opencmis.inmemory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+
+import org.apache.chemistry.opencmis.commons.PropertyIds;
+import org.apache.chemistry.opencmis.commons.definitions.MutableTypeDefinition;
+import org.apache.chemistry.opencmis.commons.definitions.PropertyDefinition;
+import org.apache.chemistry.opencmis.commons.definitions.TypeDefinition;
+import org.apache.chemistry.opencmis.commons.definitions.TypeDefinitionContainer;
+import org.apache.chemistry.opencmis.commons.enums.BaseTypeId;
+import org.apache.chemistry.opencmis.commons.enums.Updatability;
+import org.apache.chemistry.opencmis.inmemory.types.DocumentTypeCreationHelper;
+import org.apache.chemistry.opencmis.inmemory.types.PropertyCreationHelper;
+import org.apache.chemistry.opencmis.server.support.TypeDefinitionFactory;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TypeHierarchyTest {
+
+    private static final String DOC = BaseTypeId.CMIS_DOCUMENT.value();
+    private static final String FOLDER = BaseTypeId.CMIS_FOLDER.value();
+
+    private final TypeDefinitionFactory typeFactory = DocumentTypeCreationHelper.getTypeDefinitionFactory();
+    private TypeManagerImpl tm;
+
+    @Before
+    public void setUp() throws Exception {
+        tm = new TypeManagerImpl();
+        tm.initTypeSystem(null, true);
+
+        // cmis:document <- A <- B <- C, cmis:document <- D
+        addType(DOC, "A", "propA");
+        addType("A", "B", "propB");
+        addType("B", "C", null);
+        addType(DOC, "D", null);
+    }
+
+    @Test
+    public void testSubtypes() {
+        TypeHierarchy h = tm.getTypeHierarchy();
+
+        assertTrue(h.isSubtypeOf("C", "C"));
+        assertTrue(h.isSubtypeOf("C", "B"));
+        assertTrue(h.isSubtypeOf("C", "A"));
+        assertTrue(h.isSubtypeOf("C", DOC));
+        assertTrue(h.isSubtypeOf("D", DOC));
+        assertFalse(h.isSubtypeOf("A", "C"));
+        assertFalse(h.isSubtypeOf("D", "A"));
+        assertFalse(h.isSubtypeOf("C", "D"));
+        assertFalse(h.isSubtypeOf("C", FOLDER));
+        assertFalse(h.isSubtypeOf("unknown", DOC));
+        assertFalse(h.isSubtypeOf(DOC, "unknown"));
+    }
+
+    @Test
+    public void testProperties() {
+        TypeHierarchy h = tm.getTypeHierarchy();
+
+        Map<String, PropertyDefinition<?>> propDefs = h.getAllPropertyDefinitions("C");
+        assertTrue(propDefs.containsKey("propA"));
+        assertTrue(propDefs.containsKey("propB"));
+        assertTrue(propDefs.containsKey(PropertyIds.NAME));
+        assertFalse(h.getAllPropertyDefinitions("D").containsKey("propA"));
+
+        assertEquals("propB", h.getPropertyIdForQueryName("C", "propB"));
+        assertNull(h.getPropertyIdForQueryName("A", "propB"));
+
+        TypeDefinition c = tm.getTypeById("C").getTypeDefinition();
+        assertEquals("propA", tm.getPropertyIdForQueryName(c, "propA"));
+        assertTrue(c.getPropertyDefinitions().get("propA").isInherited());
+    }
+
+    @Test
+    public void testSnapshots() {
+        TypeHierarchy before = tm.getTypeHierarchy();
+        Collection<TypeDefinitionContainer> typesBefore = tm.getTypeDefinitionList();
+        int childrenBefore = tm.getTypeById("A").getChildren().size();
+
+        addType("A", "E", null);
+        TypeHierarchy after = tm.getTypeHierarchy();
+
+        // the old snapshot doesn't change
+        assertNull(before.getTypeById("E"));
+        assertFalse(before.isSubtypeOf("E", "A"));
+        assertEquals(typesBefore.size() + 1, tm.getTypeDefinitionList().size());
+
+        assertNotNull(after.getTypeById("E"));
+        assertTrue(after.isSubtypeOf("E", "A"));
+        assertSame(after.getTypeById("E").getTypeDefinition(), tm.getTypeByQueryName("E"));
+        assertEquals(childrenBefore + 1, tm.getTypeById("A").getChildren().size());
+
+        tm.deleteTypeDefinition("E");
+        assertNull(tm.getTypeById("E"));
+        assertNull(tm.getTypeByQueryName("E"));
+        assertFalse(tm.getTypeHierarchy().isSubtypeOf("E", "A"));
+        assertEquals(childrenBefore, tm.getTypeById("A").getChildren().size());
+        assertTrue(after.isSubtypeOf("E", "A"));
+    }
+
+    @Test
+    public void testInitTypeSystem() throws Exception {
+        // a type and its subtype in one list, the snapshot is built at the
+        // end
+        MutableTypeDefinition x = createType(tm.getTypeById(DOC).getTypeDefinition(), "X", "propX");
+        MutableTypeDefinition y = createType(x, "Y", "propY");
+
+        TypeManagerImpl other = new TypeManagerImpl();
+        other.initTypeSystem(Arrays.<TypeDefinition> asList(x, y), true);
+
+        TypeHierarchy h = other.getTypeHierarchy();
+        assertTrue(h.isSubtypeOf("Y", "X"));
+        assertTrue(h.isSubtypeOf("Y", DOC));
+        assertTrue(h.getAllPropertyDefinitions("Y").containsKey("propX"));
+        assertTrue(other.getTypeById("Y").getTypeDefinition().getPropertyDefinitions().get("propX").isInherited());
+        assertSame(y, other.getTypeByQueryName("Y"));
+    }
+
+    @Test
+    public void testRootTypes() {
+        for (TypeDefinitionContainer root : tm.getRootTypes()) {
+            TypeDefinition type = root.getTypeDefinition();
+            assertEquals(type.getBaseTypeId().value(), type.getId());
+        }
+        assertEquals(tm.getRootTypes().size(), tm.getTypeHierarchy().getRootTypes().size());
+    }
+
+    private void addType(String parentId, String id, String propId) {
+        TypeDefinition parent = tm.getTypeById(parentId).getTypeDefinition();
+        try {
+            tm.addTypeDefinition(createType(parent, id, propId), true);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private MutableTypeDefinition createType(TypeDefinition parent, String id, String propId) throws Exception {
+        MutableTypeDefinition type = typeFactory.createChildTypeDefinition(parent, id);
+        type.setQueryName(id);
+        type.getPropertyDefinitions().clear();
+        if (propId != null) {
+            type.addPropertyDefinition(PropertyCreationHelper.createStringDefinition(propId, propId,
+                    Updatability.READWRITE));
+        }
+        return type;
+    }
+}
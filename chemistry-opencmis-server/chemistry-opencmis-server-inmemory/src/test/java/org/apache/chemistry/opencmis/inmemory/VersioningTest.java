@@ -442,6 +442,30 @@ public class VersioningTest extends AbstractServiceTest {
                 IncludeRelationships.NONE, null, BigInteger.valueOf(-1), BigInteger.valueOf(-1), null);
         assertEquals(2, checkedOutDocuments.getNumItems().longValue());
         assertEquals(2, checkedOutDocuments.getObjects().size());
+
+        // sorted on the server
+        checkedOutDocuments = fNavSvc.getCheckedOutDocs(fRepositoryId, null, "*", PropertyIds.OBJECT_ID + " DESC",
+                false, IncludeRelationships.NONE, null, BigInteger.valueOf(-1), BigInteger.valueOf(-1), null);
+        assertEquals(2, checkedOutDocuments.getObjects().size());
+        String firstId = checkedOutDocuments.getObjects().get(0).getId();
+        String secondId = checkedOutDocuments.getObjects().get(1).getId();
+        assertTrue(firstId.compareTo(secondId) > 0);
+
+        // invalid criteria are ignored
+        checkedOutDocuments = fNavSvc.getCheckedOutDocs(fRepositoryId, null, "*", PropertyIds.OBJECT_ID
+                + " DESC,cmis:name UP,", false, IncludeRelationships.NONE, null, BigInteger.valueOf(-1),
+                BigInteger.valueOf(-1), null);
+        assertEquals(2, checkedOutDocuments.getObjects().size());
+        assertEquals(firstId, checkedOutDocuments.getObjects().get(0).getId());
+
+        // checked in documents are not returned any longer
+        fVerSvc.checkIn(fRepositoryId, idHolder, true, null, null, "checked in", null, null, null, null);
+        checkedOutDocuments = fNavSvc.getCheckedOutDocs(fRepositoryId, null, "*", null, false,
+                IncludeRelationships.NONE, null, BigInteger.valueOf(-1), BigInteger.valueOf(-1), null);
+        assertEquals(1, checkedOutDocuments.getNumItems().longValue());
+        checkedOutDocuments = fNavSvc.getCheckedOutDocs(fRepositoryId, folderIds[1], "*", null, false,
+                IncludeRelationships.NONE, null, BigInteger.valueOf(-1), BigInteger.valueOf(-1), null);
+        assertEquals(0, checkedOutDocuments.getNumItems().longValue());
     }
 
     @Test
@@ -28,6 +28,7 @@ import static org.apache.chemistry.opencmis.inmemory.UnitTestTypeSystemCreator.S
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -35,13 +36,18 @@ import java.math.BigDecimal;
 import java.math.BigInteger;
 
 import org.apache.chemistry.opencmis.commons.PropertyIds;
+import org.apache.chemistry.opencmis.commons.data.ExtensionsData;
 import org.apache.chemistry.opencmis.commons.data.ObjectData;
 import org.apache.chemistry.opencmis.commons.data.ObjectList;
 import org.apache.chemistry.opencmis.commons.data.PropertyData;
 import org.apache.chemistry.opencmis.commons.enums.IncludeRelationships;
+import org.apache.chemistry.opencmis.commons.enums.VersioningState;
 import org.apache.chemistry.opencmis.commons.exceptions.CmisInvalidArgumentException;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.ExtensionDataImpl;
+import org.apache.chemistry.opencmis.commons.spi.Holder;
 import org.apache.chemistry.opencmis.inmemory.AbstractServiceTest;
 import org.apache.chemistry.opencmis.inmemory.UnitTestTypeSystemCreator;
+import org.apache.chemistry.opencmis.server.support.query.QueryCursorCache;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -575,6 +581,118 @@ public class EvalQueryTest extends AbstractServiceTest {
         log.debug("...Stop testOrderByBool.");
     }
 
+    @Test
+    public void testOrderByMultipleColumns() {
+        log.debug("Start testOrderByMultipleColumns...");
+        String statement = "SELECT * FROM " + COMPLEX_TYPE + " ORDER BY " + PROP_ID_BOOLEAN + ", " + PROP_ID_INT
+                + " DESC";
+        ObjectList res = doQuery(statement);
+        assertEquals(5, res.getObjects().size());
+        assertTrue(resultContainsAtPos("epsilon", 0, res));
+        assertTrue(resultContainsAtPos("beta", 1, res));
+        assertTrue(resultContainsAtPos("delta", 2, res));
+        assertTrue(resultContainsAtPos("gamma", 3, res));
+        assertTrue(resultContainsAtPos("alpha", 4, res));
+
+        // first page, only the top rows are sorted
+        res = fDiscSvc.query(fRepositoryId, statement, false, false, IncludeRelationships.NONE, null,
+                BigInteger.valueOf(2), BigInteger.ZERO, null);
+        assertEquals(BigInteger.valueOf(5), res.getNumItems());
+        assertTrue(res.hasMoreItems());
+        assertEquals(2, res.getObjects().size());
+        assertTrue(resultContainsAtPos("epsilon", 0, res));
+        assertTrue(resultContainsAtPos("beta", 1, res));
+
+        // second and third page
+        res = fDiscSvc.query(fRepositoryId, statement, false, false, IncludeRelationships.NONE, null,
+                BigInteger.valueOf(2), BigInteger.valueOf(2), null);
+        assertEquals(BigInteger.valueOf(5), res.getNumItems());
+        assertTrue(res.hasMoreItems());
+        assertTrue(resultContainsAtPos("delta", 0, res));
+        assertTrue(resultContainsAtPos("gamma", 1, res));
+
+        res = fDiscSvc.query(fRepositoryId, statement, false, false, IncludeRelationships.NONE, null,
+                BigInteger.valueOf(2), BigInteger.valueOf(4), null);
+        assertFalse(res.hasMoreItems());
+        assertEquals(1, res.getObjects().size());
+        assertTrue(resultContainsAtPos("alpha", 0, res));
+        log.debug("...Stop testOrderByMultipleColumns.");
+    }
+
+    @Test
+    public void testQueryCursor() {
+        log.debug("Start testQueryCursor...");
+        String statement = "SELECT * FROM " + COMPLEX_TYPE + " ORDER BY " + PROP_ID_BOOLEAN + ", " + PROP_ID_INT
+                + " DESC";
+
+        // no cursor for a client that doesn't ask for one
+        ObjectList res = fDiscSvc.query(fRepositoryId, statement, false, false, IncludeRelationships.NONE, null,
+                BigInteger.valueOf(2), BigInteger.valueOf(2), null);
+        assertNull(QueryCursorCache.getToken(res));
+        assertTrue(resultContainsAtPos("delta", 0, res));
+
+        // a later page without a token is sorted completely and returns a
+        // cursor
+        res = fDiscSvc.query(fRepositoryId, statement, false, false, IncludeRelationships.NONE, null,
+                BigInteger.valueOf(2), BigInteger.valueOf(2), createCursorExtension(null));
+        String token = QueryCursorCache.getToken(res);
+        assertNotNull(token);
+        assertTrue(resultContainsAtPos("delta", 0, res));
+        assertTrue(resultContainsAtPos("gamma", 1, res));
+
+        // the next page is served from the cursor
+        res = fDiscSvc.query(fRepositoryId, statement, false, false, IncludeRelationships.NONE, null,
+                BigInteger.valueOf(2), BigInteger.valueOf(4), createCursorExtension(token));
+        assertEquals(token, QueryCursorCache.getToken(res));
+        assertEquals(BigInteger.valueOf(5), res.getNumItems());
+        assertFalse(res.hasMoreItems());
+        assertTrue(resultContainsAtPos("alpha", 0, res));
+
+        // a write makes the cursor stale, the query is evaluated again
+        fObjSvc.deleteObject(fRepositoryId, res.getObjects().get(0).getId(), true, null);
+        res = fDiscSvc.query(fRepositoryId, statement, false, false, IncludeRelationships.NONE, null,
+                BigInteger.valueOf(2), BigInteger.valueOf(2), createCursorExtension(token));
+        assertFalse(token.equals(QueryCursorCache.getToken(res)));
+        assertEquals(BigInteger.valueOf(4), res.getNumItems());
+        assertFalse(res.hasMoreItems());
+        assertTrue(resultContainsAtPos("delta", 0, res));
+        assertTrue(resultContainsAtPos("gamma", 1, res));
+
+        // an unknown token is ignored
+        res = fDiscSvc.query(fRepositoryId, statement, false, false, IncludeRelationships.NONE, null,
+                BigInteger.valueOf(2), BigInteger.ZERO, createCursorExtension("unknown"));
+        assertEquals(BigInteger.valueOf(4), res.getNumItems());
+        assertTrue(resultContainsAtPos("epsilon", 0, res));
+        log.debug("...Stop testQueryCursor.");
+    }
+
+    @Test
+    public void testQueryCursorAfterCheckIn() {
+        log.debug("Start testQueryCursorAfterCheckIn...");
+        String statement = "SELECT * FROM " + UnitTestTypeSystemCreator.VERSIONED_TYPE + " ORDER BY "
+                + PropertyIds.NAME;
+        String docId = createDocument("verdocA", fRootFolderId, UnitTestTypeSystemCreator.VERSIONED_TYPE,
+                VersioningState.MAJOR, false);
+        createDocument("verdocB", fRootFolderId, UnitTestTypeSystemCreator.VERSIONED_TYPE, VersioningState.MAJOR,
+                false);
+        createDocument("verdocC", fRootFolderId, UnitTestTypeSystemCreator.VERSIONED_TYPE, VersioningState.MAJOR,
+                false);
+        Holder<String> idHolder = new Holder<String>(docId);
+        fVerSvc.checkOut(fRepositoryId, idHolder, null, new Holder<Boolean>(false));
+
+        ObjectList res = fDiscSvc.query(fRepositoryId, statement, false, false, IncludeRelationships.NONE, null,
+                BigInteger.ONE, BigInteger.ONE, createCursorExtension(null));
+        String token = QueryCursorCache.getToken(res);
+        assertNotNull(token);
+
+        // the check-in changes the versions in place, the cursor is stale
+        fVerSvc.checkIn(fRepositoryId, idHolder, true, null, null, "checked in", null, null, null, null);
+        res = fDiscSvc.query(fRepositoryId, statement, false, false, IncludeRelationships.NONE, null,
+                BigInteger.ONE, BigInteger.ONE, createCursorExtension(token));
+        assertFalse(token.equals(QueryCursorCache.getToken(res)));
+        log.debug("...Stop testQueryCursorAfterCheckIn.");
+    }
+
     // reported JIRA issue CMIS-510
     @Test
     public void testOrderBySystemProperties() {
@@ -1100,6 +1218,12 @@ public class EvalQueryTest extends AbstractServiceTest {
         log.debug("...Stop testPredfinedQueryName.");
     }
 
+    private static ExtensionsData createCursorExtension(String token) {
+        ExtensionDataImpl extension = new ExtensionDataImpl();
+        extension.setExtensions(QueryCursorCache.createExtension(token));
+        return extension;
+    }
+
     private ObjectList doQuery(String queryString) {
         log.debug("\nExecuting query: " + queryString);
         ObjectList res = fDiscSvc.query(fRepositoryId, queryString, false, false, IncludeRelationships.NONE, null,
@@ -0,0 +1,174 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.chemistry.opencmis.inmemory.query;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.apache.chemistry.opencmis.commons.data.PropertyData;
+import org.apache.chemistry.opencmis.commons.definitions.TypeDefinition;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.PropertyIntegerImpl;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.PropertyStringImpl;
+import org.apache.chemistry.opencmis.inmemory.DummyCallContext;
+import org.apache.chemistry.opencmis.inmemory.TypeManagerImpl;
+import org.apache.chemistry.opencmis.inmemory.server.InMemoryService;
+import org.apache.chemistry.opencmis.inmemory.server.InMemoryServiceContext;
+import org.apache.chemistry.opencmis.inmemory.storedobj.api.StoredObject;
+import org.apache.chemistry.opencmis.inmemory.storedobj.impl.DocumentImpl;
+import org.apache.chemistry.opencmis.inmemory.storedobj.impl.StoreManagerImpl;
+import org.apache.chemistry.opencmis.server.support.CmisServiceWrapper;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Compares the partial, sequential and parallel sorts of the query processor
+ * with a plain stable sort.
+ */
+public class MatchSorterTest extends AbstractQueryTest {
+
+    private static final String STATEMENT = "SELECT * FROM " + BOOK_TYPE + " ORDER BY " + AUTHOR_PROP + ", "
+            + ISBN_PROP + " DESC";
+    private static final int COUNT = 1000;
+
+    private List<StoredObject> matches;
+    private List<StoredObject> expected;
+
+    @Before
+    public void setUp() throws Exception {
+        TypeManagerImpl tm = new TypeManagerImpl();
+        tm.initTypeSystem(null, true);
+        for (TypeDefinition typeDef : createTypes()) {
+            tm.addTypeDefinition(typeDef, true);
+        }
+        super.setUp(tm, null);
+        getWalker(STATEMENT);
+
+        // property values are read through the call context
+        InMemoryServiceContext.setWrapperService(new CmisServiceWrapper<InMemoryService>(new InMemoryService(
+                new StoreManagerImpl()), null, null, null, null));
+        InMemoryServiceContext.setCallContext(new DummyCallContext());
+
+        Random random = new Random(42);
+        matches = new ArrayList<StoredObject>(COUNT);
+        for (int i = 0; i < COUNT; i++) {
+            // some books without author, many duplicates
+            String author = random.nextInt(20) == 0 ? null : "author" + random.nextInt(50);
+            matches.add(createBook(String.valueOf(i), author, random.nextInt(100)));
+        }
+
+        expected = new ArrayList<StoredObject>(matches);
+        Collections.sort(expected, new Comparator<StoredObject>() {
+            @Override
+            public int compare(StoredObject so1, StoredObject so2) {
+                String author1 = getAuthor(so1);
+                String author2 = getAuthor(so2);
+                if (author1 == null || author2 == null) {
+                    if (author1 != author2) {
+                        return author1 == null ? -1 : 1;
+                    }
+                } else if (!author1.equals(author2)) {
+                    return author1.compareTo(author2);
+                }
+                return getIsbn(so2).compareTo(getIsbn(so1));
+            }
+        });
+    }
+
+    @After
+    public void tearDown() {
+        InMemoryServiceContext.setWrapperService(null);
+    }
+
+    @Test
+    public void testSequentialSort() {
+        MatchSorter sorter = new MatchSorter(queryObj, Integer.MAX_VALUE, 1);
+        assertTrue(sorter.sort(matches, 0));
+        assertEquals(expected, matches);
+    }
+
+    @Test
+    public void testParallelSort() {
+        for (int parallelism = 2; parallelism <= 7; parallelism++) {
+            List<StoredObject> sorted = new ArrayList<StoredObject>(matches);
+            MatchSorter sorter = new MatchSorter(queryObj, 1, parallelism);
+            assertTrue(sorter.sort(sorted, 0));
+            assertEquals(expected, sorted);
+        }
+
+        // more chunks than matches
+        List<StoredObject> sorted = new ArrayList<StoredObject>(matches.subList(0, 3));
+        List<StoredObject> reference = new ArrayList<StoredObject>(sorted);
+        new MatchSorter(queryObj, Integer.MAX_VALUE, 1).sort(reference, 0);
+        assertTrue(new MatchSorter(queryObj, 1, 8).sort(sorted, 0));
+        assertEquals(reference, sorted);
+    }
+
+    @Test
+    public void testTopK() {
+        for (int limit : new int[] { 1, 10, 100 }) {
+            List<StoredObject> sorted = new ArrayList<StoredObject>(matches);
+            MatchSorter sorter = new MatchSorter(queryObj);
+            assertFalse(sorter.sort(sorted, limit));
+            assertEquals(expected.subList(0, limit), sorted.subList(0, limit));
+
+            // the remaining matches are kept
+            assertEquals(COUNT, sorted.size());
+            assertEquals(new HashSet<StoredObject>(matches), new HashSet<StoredObject>(sorted));
+        }
+
+        // a limit beyond the result sorts everything
+        assertTrue(new MatchSorter(queryObj).sort(matches, COUNT));
+        assertEquals(expected, matches);
+    }
+
+    private StoredObject createBook(String id, String author, int isbn) {
+        DocumentImpl doc = new DocumentImpl();
+        doc.setId(id);
+        doc.setName("book" + id);
+        doc.setTypeId(BOOK_TYPE);
+        Map<String, PropertyData<?>> props = new HashMap<String, PropertyData<?>>();
+        if (author != null) {
+            props.put(AUTHOR_PROP, new PropertyStringImpl(AUTHOR_PROP, author));
+        }
+        props.put(ISBN_PROP, new PropertyIntegerImpl(ISBN_PROP, BigInteger.valueOf(isbn)));
+        doc.setProperties(props);
+        return doc;
+    }
+
+    private static String getAuthor(StoredObject so) {
+        PropertyData<?> pd = so.getProperties().get(AUTHOR_PROP);
+        return pd == null ? null : (String) pd.getFirstValue();
+    }
+
+    private static BigInteger getIsbn(StoredObject so) {
+        return (BigInteger) so.getProperties().get(ISBN_PROP).getFirstValue();
+    }
+}
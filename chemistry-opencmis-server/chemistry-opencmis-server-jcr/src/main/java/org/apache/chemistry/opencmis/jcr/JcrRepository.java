@@ -470,22 +470,18 @@ public class JcrRepository {
         result.setHasMoreItems(false);
         int count = 0;
 
-        // iterate through children
+        // skip children without compiling them
         Set<String> splitFilter = splitFilter(filter);
         Iterator<JcrNode> childNodes = jcrFolder.getNodes();
-        while (childNodes.hasNext()) {
-            JcrNode child = childNodes.next();
+        while (count < skip && childNodes.hasNext()) {
+            childNodes.next();
             count++;
+        }
 
-            if (skip > 0) {
-                skip--;
-                continue;
-            }
-
-            if (result.getObjects().size() >= max) {
-                result.setHasMoreItems(true);
-                continue;
-            }
+        // compile the children of the requested page only
+        while (result.getObjects().size() < max && childNodes.hasNext()) {
+            JcrNode child = childNodes.next();
+            count++;
 
             // build and add child object
             ObjectInFolderDataImpl objectInFolder = new ObjectInFolderDataImpl();
@@ -499,7 +495,14 @@ public class JcrRepository {
             result.getObjects().add(objectInFolder);
         }
 
-        result.setNumItems(BigInteger.valueOf(count));
+        // don't walk the remaining children just to count them; numItems is
+        // optional and only reported if the end of the folder has been reached
+        if (childNodes.hasNext()) {
+            result.setHasMoreItems(true);
+        } else {
+            result.setNumItems(BigInteger.valueOf(count));
+        }
+
         return result;
     }
 
@@ -923,8 +926,14 @@ public class JcrRepository {
                 result.getObjects().add(objectData);
             }
 
-            result.setHasMoreItems(nodes.hasNext());
-            result.setNumItems(BigInteger.valueOf(count));
+            // the total number of hits is only known if this page is the last
+            // one and the offset didn't skip past the end of the result
+            boolean hasMoreItems = nodes.hasNext();
+            result.setHasMoreItems(hasMoreItems);
+            if (!hasMoreItems && (count > 0 || skip == 0)) {
+                result.setNumItems(BigInteger.valueOf(skip + count));
+            }
+
             return result;
         } catch (RepositoryException e) {
             LOG.debug(e.getMessage(), e);
@@ -41,6 +41,8 @@ import org.apache.chemistry.opencmis.jcr.impl.DefaultDocumentTypeHandler;
 import org.apache.chemistry.opencmis.jcr.impl.DefaultFolderTypeHandler;
 import org.apache.chemistry.opencmis.jcr.impl.DefaultUnversionedDocumentTypeHandler;
 import org.apache.chemistry.opencmis.jcr.type.JcrTypeHandlerManager;
+import org.apache.chemistry.opencmis.server.support.wrapper.CallContextAwareCmisService;
+import org.apache.chemistry.opencmis.server.support.wrapper.CmisServiceWrapperManager;
 import org.apache.chemistry.opencmis.server.support.wrapper.ConformanceCmisServiceWrapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -64,9 +66,15 @@ public class JcrServiceFactory extends AbstractServiceFactory {
     protected Map<String, String> jcrConfig;
     protected String mountPath;
     protected JcrRepository jcrRepository;
+    protected CmisServiceWrapperManager wrapperManager;
 
     @Override
     public void init(Map<String, String> parameters) {
+        wrapperManager = new CmisServiceWrapperManager();
+        wrapperManager.addWrappersFromServiceFactoryParameters(parameters);
+        wrapperManager.addOuterWrapper(ConformanceCmisServiceWrapper.class, DEFAULT_MAX_ITEMS_TYPES,
+                DEFAULT_DEPTH_TYPES, DEFAULT_MAX_ITEMS_OBJECTS, DEFAULT_DEPTH_OBJECTS);
+
         typeManager = createTypeManager();
         readConfiguration(parameters);
         PathManager pathManger = new PathManager(mountPath);
@@ -84,9 +92,9 @@ public class JcrServiceFactory extends AbstractServiceFactory {
     public CmisService getService(CallContext context) {
         JcrService service = createJcrService(jcrRepository, context);
         service.setCallContext(context);
-        
-        ConformanceCmisServiceWrapper serviceWrapper = new ConformanceCmisServiceWrapper(service, 
-                DEFAULT_MAX_ITEMS_TYPES, DEFAULT_DEPTH_TYPES, DEFAULT_MAX_ITEMS_OBJECTS, DEFAULT_DEPTH_OBJECTS);
+
+        CallContextAwareCmisService serviceWrapper = (CallContextAwareCmisService) wrapperManager.wrap(service);
+        serviceWrapper.setCallContext(context);
 
         return serviceWrapper;
     }
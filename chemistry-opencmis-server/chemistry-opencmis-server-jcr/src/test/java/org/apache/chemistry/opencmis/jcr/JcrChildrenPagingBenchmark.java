@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.chemistry.opencmis.jcr;
+
+import java.math.BigInteger;
+
+import javax.jcr.Node;
+import javax.jcr.nodetype.NodeType;
+
+import org.apache.chemistry.opencmis.commons.PropertyIds;
+import org.apache.chemistry.opencmis.commons.data.ObjectInFolderList;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.PropertiesImpl;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.PropertyIdImpl;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.PropertyStringImpl;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Benchmark for paging through a large folder with
+ * <code>JcrRepository.getChildren()</code>. It creates a folder with 100,000
+ * children in the embedded Jackrabbit repository and reports the average
+ * time of the first, a middle and the last page.
+ * <p>
+ * Not part of the default build, run it with <code>mvn -Pbenchmarks test</code>.
+ */
+public class JcrChildrenPagingBenchmark extends AbstractJcrSessionTest {
+
+    private static final int CHILDREN = 100000;
+    private static final int PAGE_SIZE = 100;
+    private static final int BATCH_SIZE = 1000;
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int ROUNDS = 10;
+
+    @Test
+    public void testDeepPages() throws Exception {
+        PropertiesImpl properties = new PropertiesImpl();
+        properties.addProperty(new PropertyIdImpl(PropertyIds.OBJECT_TYPE_ID, "cmis:folder"));
+        properties.addProperty(new PropertyStringImpl(PropertyIds.NAME, "LargeFolder"));
+        String folderId = getJcrRepository().createFolder(getSession(), properties, getRootFolder().getId());
+
+        // create the children directly through JCR, batching the saves
+        Node folder = getSession().getNodeByIdentifier(folderId);
+        for (int i = 0; i < CHILDREN; i++) {
+            folder.addNode("child" + i, NodeType.NT_FOLDER);
+            if (i % BATCH_SIZE == BATCH_SIZE - 1) {
+                getSession().save();
+            }
+        }
+        getSession().save();
+
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            timePage(folderId, 0);
+            timePage(folderId, CHILDREN - PAGE_SIZE);
+        }
+
+        report("first page", folderId, 0);
+        report("middle page", folderId, CHILDREN / 2);
+        report("last page", folderId, CHILDREN - PAGE_SIZE);
+    }
+
+    private void report(String name, String folderId, int skipCount) {
+        long total = 0;
+        for (int i = 0; i < ROUNDS; i++) {
+            total += timePage(folderId, skipCount);
+        }
+
+        System.out.println("getChildren " + name + " (skipCount " + skipCount + "): " + (total / ROUNDS / 1000)
+                + " us");
+    }
+
+    private long timePage(String folderId, int skipCount) {
+        long start = System.nanoTime();
+        ObjectInFolderList children = getJcrRepository().getChildren(getSession(), folderId, null, false, false,
+                BigInteger.valueOf(PAGE_SIZE), BigInteger.valueOf(skipCount), null, false);
+        long time = System.nanoTime() - start;
+
+        boolean lastPage = skipCount + PAGE_SIZE >= CHILDREN;
+        Assert.assertEquals(PAGE_SIZE, children.getObjects().size());
+        Assert.assertEquals(!lastPage, children.hasMoreItems().booleanValue());
+        if (lastPage) {
+            Assert.assertEquals(BigInteger.valueOf(CHILDREN), children.getNumItems());
+        } else {
+            Assert.assertNull(children.getNumItems());
+        }
+
+        return time;
+    }
+}
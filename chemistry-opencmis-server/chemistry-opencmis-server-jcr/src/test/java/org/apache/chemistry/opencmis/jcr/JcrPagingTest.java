@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package org.apache.chemistry.opencmis.jcr;
+
+import java.math.BigInteger;
+
+import org.apache.chemistry.opencmis.commons.PropertyIds;
+import org.apache.chemistry.opencmis.commons.data.ObjectInFolderList;
+import org.apache.chemistry.opencmis.commons.data.ObjectList;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.PropertiesImpl;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.PropertyIdImpl;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.PropertyStringImpl;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests <code>hasMoreItems</code> and <code>numItems</code> of the paged
+ * results of <code>JcrRepository.getChildren()</code> and
+ * <code>JcrRepository.query()</code>. <code>numItems</code> is only reported
+ * on the last page.
+ */
+public class JcrPagingTest extends AbstractJcrSessionTest {
+
+    private static final int CHILDREN = 5;
+
+    private String folderId;
+
+    @Override
+    @Before
+    public void setUp() throws Exception {
+        super.setUp();
+
+        folderId = createFolder("PagingFolder", getRootFolder().getId());
+        for (int i = 0; i < CHILDREN; i++) {
+            createFolder("child" + i, folderId);
+        }
+    }
+
+    @Test
+    public void testGetChildrenFirstPage() {
+        ObjectInFolderList children = getChildren(2, 0);
+        Assert.assertEquals(2, children.getObjects().size());
+        Assert.assertTrue(children.hasMoreItems());
+        Assert.assertNull(children.getNumItems());
+    }
+
+    @Test
+    public void testGetChildrenLastPage() {
+        ObjectInFolderList children = getChildren(2, 4);
+        Assert.assertEquals(1, children.getObjects().size());
+        Assert.assertFalse(children.hasMoreItems());
+        Assert.assertEquals(BigInteger.valueOf(CHILDREN), children.getNumItems());
+
+        // a page that ends exactly at the end of the folder
+        children = getChildren(2, 3);
+        Assert.assertEquals(2, children.getObjects().size());
+        Assert.assertFalse(children.hasMoreItems());
+        Assert.assertEquals(BigInteger.valueOf(CHILDREN), children.getNumItems());
+    }
+
+    @Test
+    public void testGetChildrenAll() {
+        ObjectInFolderList children = getChildren(-1, 0);
+        Assert.assertEquals(CHILDREN, children.getObjects().size());
+        Assert.assertFalse(children.hasMoreItems());
+        Assert.assertEquals(BigInteger.valueOf(CHILDREN), children.getNumItems());
+    }
+
+    @Test
+    public void testQueryFirstPage() {
+        ObjectList result = query(2, 0);
+        Assert.assertEquals(2, result.getObjects().size());
+        Assert.assertTrue(result.hasMoreItems());
+        Assert.assertNull(result.getNumItems());
+    }
+
+    @Test
+    public void testQueryLastPage() {
+        ObjectList result = query(2, 4);
+        Assert.assertEquals(1, result.getObjects().size());
+        Assert.assertFalse(result.hasMoreItems());
+        Assert.assertEquals(BigInteger.valueOf(CHILDREN), result.getNumItems());
+    }
+
+    @Test
+    public void testQueryBeyondLastPage() {
+        // the offset skipped past the end, so the total is not known
+        ObjectList result = query(2, CHILDREN + 5);
+        Assert.assertEquals(0, result.getObjects().size());
+        Assert.assertFalse(result.hasMoreItems());
+        Assert.assertNull(result.getNumItems());
+    }
+
+    private String createFolder(String name, String parentId) {
+        PropertiesImpl properties = new PropertiesImpl();
+        properties.addProperty(new PropertyIdImpl(PropertyIds.OBJECT_TYPE_ID, "cmis:folder"));
+        properties.addProperty(new PropertyStringImpl(PropertyIds.NAME, name));
+        return getJcrRepository().createFolder(getSession(), properties, parentId);
+    }
+
+    private ObjectInFolderList getChildren(int maxItems, int skipCount) {
+        return getJcrRepository().getChildren(getSession(), folderId, null, false, false,
+                BigInteger.valueOf(maxItems), BigInteger.valueOf(skipCount), null, false);
+    }
+
+    private ObjectList query(int maxItems, int skipCount) {
+        return getJcrRepository().query(getSession(), "SELECT * FROM cmis:folder WHERE IN_FOLDER('" + folderId + "')",
+                false, false, BigInteger.valueOf(maxItems), BigInteger.valueOf(skipCount));
+    }
+}
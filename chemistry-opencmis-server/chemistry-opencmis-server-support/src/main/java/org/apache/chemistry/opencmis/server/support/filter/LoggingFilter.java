@@ -18,16 +18,17 @@
  */
 package org.apache.chemistry.opencmis.server.support.filter;
 
+import java.io.BufferedOutputStream;
 import java.io.BufferedReader;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
 import java.io.StringReader;
 import java.io.StringWriter;
-import java.io.UnsupportedEncodingException;
 import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.Enumeration;
@@ -35,6 +36,11 @@ import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Scanner;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.servlet.Filter;
 import javax.servlet.FilterChain;
@@ -52,24 +58,60 @@ import javax.servlet.http.HttpServletResponseWrapper;
 import javax.xml.transform.OutputKeys;
 import javax.xml.transform.Source;
 import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerException;
 import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.stream.StreamResult;
 import javax.xml.transform.stream.StreamSource;
 
-import org.apache.chemistry.opencmis.commons.exceptions.CmisRuntimeException;
 import org.apache.chemistry.opencmis.commons.impl.IOUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Servlet filter that captures requests and responses for debugging.
+ * <p>
+ * The request thread only copies a bounded prefix of the message bodies
+ * and hands the captured exchange to a bounded queue. A background thread
+ * pretty prints the messages and appends them to rolling log files. If the
+ * queue is full, the exchange is dropped and counted. Only a sample of the
+ * requests is captured if <code>SampleRate</code> is less than 1.
+ * <p>
+ * Init parameters:
+ * <ul>
+ * <li>LogDir - directory of the log files (default: temp directory)</li>
+ * <li>PrettyPrint - format XML and JSON bodies (default: true)</li>
+ * <li>LogHeaders - log the HTTP headers (default: true)</li>
+ * <li>Indent - indentation for pretty printing (default: 4)</li>
+ * <li>MaxBodySize - captured bytes per body, -1 for no limit (default:
+ * 65536)</li>
+ * <li>SampleRate - fraction of requests to capture (default: 1.0)</li>
+ * <li>QueueSize - exchanges waiting for the writer (default: 1000)</li>
+ * <li>MaxFileSize - size of a log file before it is rolled over (default:
+ * 10 MB)</li>
+ * <li>MaxFiles - number of log files to keep (default: 10)</li>
+ * </ul>
+ */
 public class LoggingFilter implements Filter {
 
     private static final Logger LOG = LoggerFactory.getLogger(LoggingFilter.class);
-    private static int requestNo = 0;
-    private static final SimpleDateFormat FORMAT = new SimpleDateFormat("EEE MMM dd hh:mm:ss a z yyyy", Locale.US);
+    private static final AtomicInteger REQUEST_NO = new AtomicInteger();
+    private static final String DATE_FORMAT = "EEE MMM dd hh:mm:ss a z yyyy";
+    private static final String LOG_FILE_NAME = "cmis-messages.log";
     private String logDir;
     private boolean prettyPrint = true;
     private boolean logHeaders = true;
     private int indent = -1;
+    private int maxBodySize = 64 * 1024;
+    private double sampleRate = 1.0;
+    private int queueSize = 1000;
+    private long maxFileSize = 10 * 1024 * 1024;
+    private int maxFiles = 10;
+
+    private final AtomicLong sampleCounter = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private BlockingQueue<CapturedExchange> queue;
+    private Thread writerThread;
+    private volatile boolean running;
 
     public void init(FilterConfig cfg) throws ServletException {
 
@@ -103,98 +145,213 @@ public class LoggingFilter implements Filter {
         if (null != val) {
             logHeaders = Boolean.parseBoolean(val);
         }
+
+        val = cfg.getInitParameter("MaxBodySize");
+        if (null != val) {
+            maxBodySize = Integer.parseInt(val);
+        }
+
+        val = cfg.getInitParameter("SampleRate");
+        if (null != val) {
+            sampleRate = Double.parseDouble(val);
+        }
+
+        val = cfg.getInitParameter("QueueSize");
+        if (null != val) {
+            queueSize = Math.max(1, Integer.parseInt(val));
+        }
+
+        val = cfg.getInitParameter("MaxFileSize");
+        if (null != val) {
+            maxFileSize = Long.parseLong(val);
+        }
+
+        val = cfg.getInitParameter("MaxFiles");
+        if (null != val) {
+            maxFiles = Math.max(1, Integer.parseInt(val));
+        }
+
+        queue = new ArrayBlockingQueue<CapturedExchange>(queueSize);
+        running = true;
+        writerThread = new Thread(new LogWriter(), "CMIS LoggingFilter Writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
     }
 
     public void destroy() {
+        running = false;
+        if (writerThread != null) {
+            writerThread.interrupt();
+            try {
+                writerThread.join(5000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            writerThread = null;
+        }
+    }
+
+    /**
+     * Returns the number of exchanges that have been dropped because the
+     * writer could not keep up.
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
     }
 
     public void doFilter(ServletRequest req, ServletResponse resp, FilterChain chain) throws IOException,
             ServletException {
         LOG.debug("Logging filter doFilter");
 
-        if (resp instanceof HttpServletResponse && req instanceof HttpServletRequest) {
-            LoggingRequestWrapper logReq = new LoggingRequestWrapper((HttpServletRequest) req);
-            LoggingResponseWrapper logResponse = new LoggingResponseWrapper((HttpServletResponse) resp);
+        if (resp instanceof HttpServletResponse && req instanceof HttpServletRequest && isSampled()) {
+            LoggingRequestWrapper logReq = new LoggingRequestWrapper((HttpServletRequest) req, maxBodySize);
+            LoggingResponseWrapper logResponse = new LoggingResponseWrapper((HttpServletResponse) resp, maxBodySize);
 
-            chain.doFilter(logReq, logResponse);
+            try {
+                chain.doFilter(logReq, logResponse);
+            } finally {
+                CapturedExchange exchange = new CapturedExchange();
+                exchange.requestNo = REQUEST_NO.getAndIncrement();
+
+                if (logHeaders) {
+                    StringBuilder sb = new StringBuilder();
+                    logHeaders(logReq, sb);
+                    exchange.requestHeaders = sb.toString();
+
+                    sb = new StringBuilder();
+                    logHeaders(logResponse, req.getProtocol(), sb);
+                    exchange.responseHeaders = sb.toString();
+                }
 
-            int reqNo = getNextRequestNumber();
-            String requestFileName = getRequestFileName(reqNo);
-            String cType = logReq.getContentType();
-            String xmlRequest = logReq.getPayload();
-            StringBuilder sb = new StringBuilder();
+                exchange.requestContentType = logReq.getContentType();
+                exchange.request = logReq.getCapture();
+                exchange.responseContentType = logResponse.getContentType();
+                exchange.response = logResponse.getCapture();
 
-            if (logHeaders) {
-                logHeaders(logReq, sb);
+                if (!queue.offer(exchange)) {
+                    droppedCount.incrementAndGet();
+                }
             }
+        } else {
+            chain.doFilter(req, resp);
+        }
+    }
 
-            if (xmlRequest == null || xmlRequest.length() == 0) {
-                xmlRequest = "";
-            }
+    /**
+     * Decides if the current request should be captured. Spreads the
+     * captured requests evenly instead of relying on random numbers.
+     */
+    private boolean isSampled() {
+        if (sampleRate >= 1.0) {
+            return true;
+        }
+        if (sampleRate <= 0.0) {
+            return false;
+        }
+
+        long n = sampleCounter.getAndIncrement();
+        return (long) ((n + 1) * sampleRate) > (long) (n * sampleRate);
+    }
 
-            if (prettyPrint && cType != null) {
+    private String formatBody(String cType, Capture capture) throws IOException {
+        String body = capture.getPayload();
+
+        // a truncated body cannot be parsed
+        if (prettyPrint && cType != null && !capture.isTruncated() && body.length() > 0) {
+            try {
                 if (cType.startsWith("multipart")) {
-                    xmlRequest = processMultipart(cType, xmlRequest);
+                    body = processMultipart(cType, body);
                 } else if (cType.contains("xml")) {
-                    xmlRequest = prettyPrintXml(xmlRequest, indent);
+                    body = prettyPrintXml(body, indent);
+                } else if (cType.contains("json")) {
+                    body = prettyPrintJson(body, indent);
                 }
+            } catch (RuntimeException e) {
+                LOG.debug("Could not pretty print body: {}", e.toString(), e);
             }
+        }
 
-            xmlRequest = sb.toString() + xmlRequest;
-            LOG.debug("Found request: " + requestFileName + ": " + xmlRequest);
-            writeTextToFile(requestFileName, xmlRequest);
+        if (capture.isTruncated()) {
+            body = body + "\n[truncated, " + capture.getLength() + " bytes total]\n";
+        }
 
-            sb = new StringBuilder();
-            cType = logResponse.getContentType();
-            String xmlResponse = logResponse.getPayload();
-            String responseFileName = getResponseFileName(reqNo);
+        return body;
+    }
 
-            if (logHeaders) {
-                logHeaders(logResponse, req.getProtocol(), sb);
-            }
+    private void writeExchange(RollingLog log, CapturedExchange exchange) throws IOException {
+        StringBuilder sb = new StringBuilder(1024);
 
-            if (xmlResponse == null || xmlResponse.length() == 0) {
-                xmlResponse = "";
-            }
+        sb.append(String.format("===== %05d request =====%n", exchange.requestNo));
+        if (exchange.requestHeaders != null) {
+            sb.append(exchange.requestHeaders);
+        }
+        String xmlRequest = formatBody(exchange.requestContentType, exchange.request);
+        LOG.debug("Found request: {}: {}", exchange.requestNo, xmlRequest);
+        appendLines(sb, xmlRequest);
 
-            if (prettyPrint && cType != null) {
-                if (cType.startsWith("multipart")) {
-                    xmlResponse = processMultipart(cType, xmlResponse);
-                } else if (cType.contains("xml")) {
-                    xmlResponse = prettyPrintXml(xmlResponse, indent);
-                } else if (cType.contains("json")) {
-                    xmlResponse = prettyPrintJson(xmlResponse, indent);
-                }
-            }
+        sb.append(String.format("===== %05d response =====%n", exchange.requestNo));
+        if (exchange.responseHeaders != null) {
+            sb.append(exchange.responseHeaders);
+        }
+        String xmlResponse = formatBody(exchange.responseContentType, exchange.response);
+        LOG.debug("Found response: {}: {}", exchange.requestNo, xmlResponse);
+        appendLines(sb, xmlResponse);
+        sb.append(String.format("%n"));
 
-            xmlResponse = sb.toString() + xmlResponse;
-            LOG.debug("Found response: " + responseFileName + ": " + xmlResponse);
-            writeTextToFile(responseFileName, xmlResponse);
-        } else {
-            chain.doFilter(req, resp);
+        log.write(sb.toString());
+    }
+
+    private static void appendLines(StringBuilder sb, String content) {
+        Scanner scanner = new Scanner(content);
+        while (scanner.hasNextLine()) {
+            sb.append(scanner.nextLine());
+            sb.append(String.format("%n"));
         }
+        scanner.close();
     }
 
-    private void writeTextToFile(String filename, String content) {
-        PrintWriter pw = null;
-        OutputStreamWriter fw = null;
-        try {
-            fw = new OutputStreamWriter(new FileOutputStream(filename), IOUtils.UTF8);
-            pw = new PrintWriter(fw);
+    /**
+     * Background writer. Formats the captured exchanges and writes them to
+     * the log files.
+     */
+    private class LogWriter implements Runnable {
+        public void run() {
+            RollingLog log = new RollingLog(new File(logDir, LOG_FILE_NAME), maxFileSize, maxFiles);
+            long reportedDrops = 0;
 
-            Scanner scanner = new Scanner(content);
-            while (scanner.hasNextLine()) {
-                String line = scanner.nextLine();
-                pw.println(line);
-            }
-            scanner.close();
+            try {
+                while (running || !queue.isEmpty()) {
+                    CapturedExchange exchange;
+                    try {
+                        exchange = queue.poll(1, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        // destroy() has been called, drain the queue
+                        exchange = queue.poll();
+                        if (exchange == null) {
+                            break;
+                        }
+                    }
 
-            pw.flush();
-        } catch (IOException e) {
-            LOG.error(e.getMessage(), e);
-        } finally {
-            IOUtils.closeQuietly(pw);
-            IOUtils.closeQuietly(fw);
+                    if (exchange == null) {
+                        log.flush();
+                        continue;
+                    }
+
+                    try {
+                        long drops = droppedCount.get();
+                        if (drops > reportedDrops) {
+                            log.write(String.format("===== %d exchanges dropped =====%n%n", drops - reportedDrops));
+                            reportedDrops = drops;
+                        }
+
+                        writeExchange(log, exchange);
+                    } catch (IOException e) {
+                        LOG.error(e.getMessage(), e);
+                    }
+                }
+            } finally {
+                log.close();
+            }
         }
     }
 
@@ -209,9 +366,8 @@ public class LoggingFilter implements Filter {
             transformer.setOutputProperty(OutputKeys.INDENT, "yes");
             transformer.transform(xmlInput, xmlOutput);
             return xmlOutput.getWriter().toString();
-        } catch (Exception e) {
-            throw new RuntimeException(e); // simple exception handling, please
-                                           // review it
+        } catch (TransformerException e) {
+            throw new IllegalArgumentException("Invalid XML: " + e.getMessage(), e);
         }
     }
 
@@ -231,39 +387,39 @@ public class LoggingFilter implements Filter {
         BufferedReader in = new BufferedReader(new StringReader(messageBody));
         StringBuffer out = new StringBuffer();
         String line;
-        ByteArrayOutputStream xmlBodyBuffer = new ByteArrayOutputStream();
-        boolean boundaryFound;
 
-        boolean inXmlOrJsonBody = false;
         boolean inXmlOrJsonPart = false;
-        boolean isXml;
         while ((line = in.readLine()) != null) {
             if (inXmlOrJsonPart) {
                 if (line.startsWith("<?xml") || line.startsWith("{")) {
-                    inXmlOrJsonBody = true;
-                    isXml = line.startsWith("<?xml");
-                    byte[] lienBytes = IOUtils.toUTF8Bytes(line);
-                    xmlBodyBuffer.write(lienBytes, 0, lienBytes.length);
-                    while (inXmlOrJsonBody) {
-                        line = in.readLine();
-                        if (line == null) {
+                    boolean isXml = line.startsWith("<?xml");
+
+                    // collect the body up to the next boundary
+                    StringBuilder body = new StringBuilder();
+                    body.append(line).append('\n');
+                    boolean boundaryFound = false;
+                    while ((line = in.readLine()) != null) {
+                        if (line.startsWith(boundary)) {
+                            boundaryFound = true;
                             break;
                         }
-                        boundaryFound = line.startsWith(boundary);
-                        if (boundaryFound) {
-                            LOG.debug("Leaving XML body: " + line);
-                            inXmlOrJsonBody = false;
-                            inXmlOrJsonPart = false;
-                            if (isXml) {
-                                out.append(prettyPrintXml(xmlBodyBuffer.toString(IOUtils.UTF8), indent));
-                            } else {
-                                out.append(prettyPrintJson(xmlBodyBuffer.toString(IOUtils.UTF8), indent));
-                            }
-                            out.append(line).append('\n');
-                        } else {
-                            xmlBodyBuffer.write(lienBytes, 0, lienBytes.length);
-                        }
+                        body.append(line).append('\n');
                     }
+
+                    if (!boundaryFound) {
+                        // incomplete part, keep it as it is
+                        out.append(body);
+                        break;
+                    }
+
+                    LOG.debug("Leaving XML body: " + line);
+                    String formatted = isXml ? prettyPrintXml(body.toString(), indent) : prettyPrintJson(
+                            body.toString(), indent);
+                    out.append(formatted);
+                    if (!formatted.endsWith("\n")) {
+                        out.append('\n');
+                    }
+                    out.append(line).append('\n');
                 } else {
                     LOG.debug("in XML part is: " + line);
                     out.append(line).append('\n');
@@ -272,8 +428,7 @@ public class LoggingFilter implements Filter {
             } else {
                 LOG.debug("not in XML part: " + line);
                 out.append(line).append('\n');
-                boundaryFound = line.startsWith(boundary);
-                if (boundaryFound) {
+                if (line.startsWith(boundary)) {
                     LOG.debug("Boundardy found!");
                     inXmlOrJsonPart = true;
                 }
@@ -325,45 +480,38 @@ public class LoggingFilter implements Filter {
         sb.append('\n');
     }
 
-    private String getRequestFileName(int no) {
-        return logDir + String.format("%05d-request.log", no);
-    }
-
-    private String getResponseFileName(int no) {
-        return logDir + String.format("%05d-response.log", no);
-    }
-
-    private static synchronized int getNextRequestNumber() {
-        return requestNo++;
-    }
-
     private static class LoggingRequestWrapper extends HttpServletRequestWrapper {
 
         private LoggingInputStream is;
+        private final int maxBodySize;
 
-        public LoggingRequestWrapper(HttpServletRequest request) throws IOException {
+        public LoggingRequestWrapper(HttpServletRequest request, int maxBodySize) throws IOException {
             super(request);
+            this.maxBodySize = maxBodySize;
         }
 
         @Override
         public ServletInputStream getInputStream() throws IOException {
-            this.is = new LoggingInputStream(super.getInputStream());
+            if (is == null) {
+                is = new LoggingInputStream(super.getInputStream(), new Capture(maxBodySize));
+            }
             return is;
         }
 
-        public String getPayload() {
-            return null == is ? "" : is.getPayload();
+        public Capture getCapture() {
+            return null == is ? new Capture(0) : is.capture;
         }
     }
 
     private static class LoggingInputStream extends ServletInputStream {
 
-        private ByteArrayOutputStream baous = new ByteArrayOutputStream();
+        private final Capture capture;
         private ServletInputStream is;
 
-        public LoggingInputStream(ServletInputStream is) {
+        public LoggingInputStream(ServletInputStream is, Capture capture) {
             super();
             this.is = is;
+            this.capture = capture;
         }
 
         // Since we are not sure which method is used just overwrite all 4 of
@@ -372,7 +520,7 @@ public class LoggingFilter implements Filter {
         public int read() throws IOException {
             int ch = is.read();
             if (ch != -1) {
-                baous.write(ch);
+                capture.write(ch);
             }
             return ch;
         }
@@ -381,7 +529,7 @@ public class LoggingFilter implements Filter {
         public int read(byte[] b) throws IOException {
             int ch = is.read(b);
             if (ch != -1) {
-                baous.write(b, 0, ch);
+                capture.write(b, 0, ch);
             }
             return ch;
         }
@@ -390,7 +538,7 @@ public class LoggingFilter implements Filter {
         public int read(byte[] b, int o, int l) throws IOException {
             int ch = is.read(b, o, l);
             if (ch != -1) {
-                baous.write(b, o, ch);
+                capture.write(b, o, ch);
             }
             return ch;
         }
@@ -399,31 +547,24 @@ public class LoggingFilter implements Filter {
         public int readLine(byte[] b, int o, int l) throws IOException {
             int ch = is.readLine(b, o, l);
             if (ch != -1) {
-                baous.write(b, o, ch);
+                capture.write(b, o, ch);
             }
             return ch;
         }
-
-        public String getPayload() {
-            try {
-                return baous.toString(IOUtils.UTF8);
-            } catch (UnsupportedEncodingException e) {
-                throw new CmisRuntimeException("Unsupported encoding 'UTF-8'!", e);
-            }
-        }
     }
 
     private static class LoggingResponseWrapper extends HttpServletResponseWrapper {
 
+        private final int maxBodySize;
         private LoggingOutputStream os;
         private PrintWriter writer;
         private int statusCode;
         private Map<String, String> headers = new HashMap<String, String>();
         private String encoding;
 
-        public LoggingResponseWrapper(HttpServletResponse response) throws IOException {
+        public LoggingResponseWrapper(HttpServletResponse response, int maxBodySize) {
             super(response);
-            this.os = new LoggingOutputStream(response.getOutputStream());
+            this.maxBodySize = maxBodySize;
         }
 
         @Override
@@ -441,11 +582,19 @@ public class LoggingFilter implements Filter {
 
         @Override
         public ServletOutputStream getOutputStream() throws IOException {
+            // created on first use, so the filter doesn't claim the output
+            // stream of responses that are never written
+            if (null == os) {
+                os = new LoggingOutputStream(super.getOutputStream(), new Capture(maxBodySize));
+            }
             return os;
         }
 
-        public String getPayload() {
-            return os.getPayload();
+        public Capture getCapture() {
+            if (writer != null) {
+                writer.flush();
+            }
+            return null == os ? new Capture(0) : os.capture;
         }
 
         @Override
@@ -498,7 +647,8 @@ public class LoggingFilter implements Filter {
         }
 
         private String getDateString(long date) {
-            return FORMAT.format(new Date(date));
+            // SimpleDateFormat is not thread-safe
+            return new SimpleDateFormat(DATE_FORMAT, Locale.US).format(new Date(date));
         }
 
         @Override
@@ -583,22 +733,19 @@ public class LoggingFilter implements Filter {
     }
 
     private static class LoggingOutputStream extends ServletOutputStream {
-        private ByteArrayOutputStream baous = new ByteArrayOutputStream();
+        private final Capture capture;
         private ServletOutputStream os;
 
-        public LoggingOutputStream(ServletOutputStream os) {
+        public LoggingOutputStream(ServletOutputStream os, Capture capture) {
             super();
             this.os = os;
-        }
-
-        public String getPayload() {
-            return IOUtils.toUTF8String(baous.toByteArray());
+            this.capture = capture;
         }
 
         @Override
         public void write(byte[] b, int off, int len) {
             try {
-                baous.write(b, off, len);
+                capture.write(b, off, len);
                 os.write(b, off, len);
             } catch (IOException e) {
                 throw new RuntimeException(e);
@@ -608,7 +755,7 @@ public class LoggingFilter implements Filter {
         @Override
         public void write(byte[] b) {
             try {
-                baous.write(b);
+                capture.write(b, 0, b.length);
                 os.write(b);
             } catch (IOException e) {
                 throw new RuntimeException(e);
@@ -617,8 +764,133 @@ public class LoggingFilter implements Filter {
 
         @Override
         public void write(int ch) throws IOException {
-            baous.write(ch);
+            capture.write(ch);
             os.write(ch);
         }
     }
+
+    /**
+     * Captures a bounded prefix of a message body.
+     */
+    private static class Capture {
+        private final int limit;
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        private long length = 0;
+
+        public Capture(int limit) {
+            this.limit = limit;
+        }
+
+        public void write(int b) {
+            length++;
+            if (limit < 0 || buffer.size() < limit) {
+                buffer.write(b);
+            }
+        }
+
+        public void write(byte[] b, int off, int len) {
+            length += len;
+            int n = (limit < 0 ? len : Math.min(len, limit - buffer.size()));
+            if (n > 0) {
+                buffer.write(b, off, n);
+            }
+        }
+
+        public boolean isTruncated() {
+            return length > buffer.size();
+        }
+
+        public long getLength() {
+            return length;
+        }
+
+        public String getPayload() {
+            return IOUtils.toUTF8String(buffer.toByteArray());
+        }
+    }
+
+    /**
+     * Request and response data handed from the request thread to the
+     * writer.
+     */
+    private static class CapturedExchange {
+        int requestNo;
+        String requestHeaders;
+        String requestContentType;
+        Capture request;
+        String responseHeaders;
+        String responseContentType;
+        Capture response;
+    }
+
+    /**
+     * Appends text to a log file and rolls it over when it gets too big.
+     */
+    private static class RollingLog {
+        private final File file;
+        private final long maxFileSize;
+        private final int maxFiles;
+        private OutputStream out;
+        private long size;
+
+        public RollingLog(File file, long maxFileSize, int maxFiles) {
+            this.file = file;
+            this.maxFileSize = maxFileSize;
+            this.maxFiles = maxFiles;
+        }
+
+        public void write(String text) throws IOException {
+            if (out == null) {
+                size = file.length();
+                out = new BufferedOutputStream(new FileOutputStream(file, true), 64 * 1024);
+            }
+
+            byte[] bytes = IOUtils.toUTF8Bytes(text);
+            out.write(bytes);
+            size += bytes.length;
+
+            if (maxFileSize > 0 && size >= maxFileSize) {
+                roll();
+            }
+        }
+
+        public void flush() {
+            if (out != null) {
+                try {
+                    out.flush();
+                } catch (IOException e) {
+                    LOG.error(e.getMessage(), e);
+                }
+            }
+        }
+
+        public void close() {
+            IOUtils.closeQuietly(out);
+            out = null;
+        }
+
+        private void roll() {
+            close();
+
+            File oldest = new File(file.getPath() + "." + (maxFiles - 1));
+            if (oldest.exists() && !oldest.delete()) {
+                LOG.warn("Could not delete log file {}", oldest);
+            }
+
+            for (int i = maxFiles - 2; i >= 1; i--) {
+                File src = new File(file.getPath() + "." + i);
+                if (src.exists() && !src.renameTo(new File(file.getPath() + "." + (i + 1)))) {
+                    LOG.warn("Could not rename log file {}", src);
+                }
+            }
+
+            if (maxFiles > 1) {
+                if (!file.renameTo(new File(file.getPath() + ".1"))) {
+                    LOG.warn("Could not rename log file {}", file);
+                }
+            } else if (!file.delete()) {
+                LOG.warn("Could not delete log file {}", file);
+            }
+        }
+    }
 }
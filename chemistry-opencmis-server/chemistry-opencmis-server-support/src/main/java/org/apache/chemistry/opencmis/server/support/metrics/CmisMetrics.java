@@ -0,0 +1,316 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.chemistry.opencmis.server.support.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Collects per-repository, per-operation metrics of CMIS calls.
+ * <p>
+ * Instances are identified by name and shared by all service wrappers and
+ * servlets that use the same name. Each instance is registered with the
+ * platform MBean server as
+ * <code>org.apache.chemistry.opencmis:type=CmisMetrics,name=&lt;name&gt;</code>
+ * and stays registered until {@link #removeInstance(String)} is called.
+ * <p>
+ * Metrics are only kept per repository for repositories that are known to
+ * exist, that is, repositories that have been reported by
+ * <code>getRepositoryInfos</code> or <code>getRepositoryInfo</code> or that a
+ * call has succeeded for. Failed calls for other repository ids are recorded
+ * under <code>&lt;unknown&gt;</code>, so that clients cannot grow the metrics
+ * with made-up repository ids.
+ */
+public class CmisMetrics implements CmisMetricsMBean {
+
+    public static final String DEFAULT_NAME = "default";
+
+    private static final Logger LOG = LoggerFactory.getLogger(CmisMetrics.class);
+
+    private static final String NO_REPOSITORY = "<none>";
+    private static final String UNKNOWN_REPOSITORY = "<unknown>";
+    private static final String KEY_SEPARATOR = "/";
+
+    private static final ConcurrentMap<String, CmisMetrics> INSTANCES = new ConcurrentHashMap<String, CmisMetrics>();
+
+    private final String name;
+    private final ConcurrentMap<String, OperationMetrics> operations = new ConcurrentHashMap<String, OperationMetrics>();
+    private final ConcurrentMap<String, Boolean> repositories = new ConcurrentHashMap<String, Boolean>();
+
+    protected CmisMetrics(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Returns the metrics instance with the given name and creates it if it
+     * doesn't exist yet.
+     */
+    public static CmisMetrics getInstance(String name) {
+        if (name == null || name.trim().length() == 0) {
+            name = DEFAULT_NAME;
+        }
+
+        CmisMetrics metrics = INSTANCES.get(name);
+        if (metrics == null) {
+            CmisMetrics newMetrics = new CmisMetrics(name);
+            metrics = INSTANCES.putIfAbsent(name, newMetrics);
+            if (metrics == null) {
+                metrics = newMetrics;
+                metrics.register();
+            }
+        }
+
+        return metrics;
+    }
+
+    /**
+     * Returns the default metrics instance.
+     */
+    public static CmisMetrics getInstance() {
+        return getInstance(DEFAULT_NAME);
+    }
+
+    /**
+     * Removes the metrics instance with the given name and unregisters its
+     * MBean. Service wrappers that still hold the instance keep recording to
+     * it, but it isn't reachable anymore.
+     */
+    public static void removeInstance(String name) {
+        if (name == null || name.trim().length() == 0) {
+            name = DEFAULT_NAME;
+        }
+
+        CmisMetrics metrics = INSTANCES.remove(name);
+        if (metrics != null) {
+            metrics.unregister();
+        }
+    }
+
+    /**
+     * Returns the name of this instance.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Marks a repository as known.
+     */
+    public void addRepository(String repositoryId) {
+        if (repositoryId != null) {
+            repositories.put(repositoryId, Boolean.TRUE);
+        }
+    }
+
+    /**
+     * Records a call. A successful call marks the repository as known.
+     *
+     * @param repositoryId
+     *            the repository id, may be <code>null</code>
+     * @param operation
+     *            the operation name
+     * @param nanos
+     *            the latency in nanoseconds
+     * @param objectCount
+     *            the number of objects returned
+     * @param error
+     *            whether the call failed
+     */
+    public void record(String repositoryId, String operation, long nanos, int objectCount, boolean error) {
+        if (!error) {
+            addRepository(repositoryId);
+        }
+
+        String repId = repositoryId;
+        if (repId != null && !repositories.containsKey(repId)) {
+            repId = UNKNOWN_REPOSITORY;
+        }
+
+        getOperationMetrics(repId, operation).record(nanos / 1000, objectCount, error);
+    }
+
+    /**
+     * Returns the metrics of an operation and creates them if they don't
+     * exist yet.
+     */
+    public OperationMetrics getOperationMetrics(String repositoryId, String operation) {
+        String repId = repositoryId == null ? NO_REPOSITORY : repositoryId;
+        String key = repId + KEY_SEPARATOR + operation;
+
+        OperationMetrics metrics = operations.get(key);
+        if (metrics == null) {
+            OperationMetrics newMetrics = new OperationMetrics(repId, operation);
+            metrics = operations.putIfAbsent(key, newMetrics);
+            if (metrics == null) {
+                metrics = newMetrics;
+            }
+        }
+
+        return metrics;
+    }
+
+    /**
+     * Returns the metrics of all operations, sorted by 99th percentile latency
+     * in descending order.
+     */
+    public List<OperationMetrics> getAllOperationMetrics() {
+        List<OperationMetrics> result = new ArrayList<OperationMetrics>(operations.values());
+
+        // compute the percentiles once, not for every comparison
+        final Map<OperationMetrics, Long> p99 = new IdentityHashMap<OperationMetrics, Long>();
+        for (OperationMetrics metrics : result) {
+            p99.put(metrics, metrics.getLatency().getPercentile(99.0));
+        }
+
+        Collections.sort(result, new Comparator<OperationMetrics>() {
+            public int compare(OperationMetrics m1, OperationMetrics m2) {
+                return p99.get(m2).compareTo(p99.get(m1));
+            }
+        });
+
+        return result;
+    }
+
+    // --- MBean ---
+
+    public long getTotalCallCount() {
+        long result = 0;
+        for (OperationMetrics metrics : operations.values()) {
+            result += metrics.getCallCount();
+        }
+
+        return result;
+    }
+
+    public long getTotalErrorCount() {
+        long result = 0;
+        for (OperationMetrics metrics : operations.values()) {
+            result += metrics.getErrorCount();
+        }
+
+        return result;
+    }
+
+    public String[] getOperationKeys() {
+        List<String> keys = new ArrayList<String>(operations.keySet());
+        Collections.sort(keys);
+
+        return keys.toArray(new String[keys.size()]);
+    }
+
+    public String getReport() {
+        StringBuilder sb = new StringBuilder(1024);
+
+        sb.append(String.format(Locale.ENGLISH, "%-20s %-30s %10s %8s %10s %10s %10s %10s %10s %10s %10s%n",
+                "repository", "operation", "calls", "errors", "objects", "mean[ms]", "p50[ms]", "p90[ms]",
+                "p99[ms]", "p99.9[ms]", "max[ms]"));
+
+        for (OperationMetrics metrics : getAllOperationMetrics()) {
+            LatencyHistogram latency = metrics.getLatency();
+
+            sb.append(String.format(Locale.ENGLISH,
+                    "%-20s %-30s %10d %8d %10d %10.3f %10.3f %10.3f %10.3f %10.3f %10.3f%n",
+                    metrics.getRepositoryId(), metrics.getOperation(), metrics.getCallCount(),
+                    metrics.getErrorCount(), metrics.getObjectCount(), latency.getMean() / 1000.0,
+                    toMillis(latency.getPercentile(50.0)), toMillis(latency.getPercentile(90.0)),
+                    toMillis(latency.getPercentile(99.0)), toMillis(latency.getPercentile(99.9)),
+                    toMillis(latency.getMax())));
+        }
+
+        return sb.toString();
+    }
+
+    public long getCallCount(String repositoryId, String operation) {
+        OperationMetrics metrics = findOperationMetrics(repositoryId, operation);
+        return metrics == null ? 0 : metrics.getCallCount();
+    }
+
+    public long getErrorCount(String repositoryId, String operation) {
+        OperationMetrics metrics = findOperationMetrics(repositoryId, operation);
+        return metrics == null ? 0 : metrics.getErrorCount();
+    }
+
+    public long getObjectCount(String repositoryId, String operation) {
+        OperationMetrics metrics = findOperationMetrics(repositoryId, operation);
+        return metrics == null ? 0 : metrics.getObjectCount();
+    }
+
+    public double getLatencyPercentile(String repositoryId, String operation, double percentile) {
+        OperationMetrics metrics = findOperationMetrics(repositoryId, operation);
+        return metrics == null ? 0.0 : toMillis(metrics.getLatency().getPercentile(percentile));
+    }
+
+    public void reset() {
+        for (OperationMetrics metrics : operations.values()) {
+            metrics.reset();
+        }
+    }
+
+    // --- internal ---
+
+    private OperationMetrics findOperationMetrics(String repositoryId, String operation) {
+        return operations.get((repositoryId == null ? NO_REPOSITORY : repositoryId) + KEY_SEPARATOR + operation);
+    }
+
+    private static double toMillis(long micros) {
+        return micros / 1000.0;
+    }
+
+    private ObjectName getObjectName() throws Exception {
+        return new ObjectName("org.apache.chemistry.opencmis:type=CmisMetrics,name=" + ObjectName.quote(name));
+    }
+
+    private void register() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = getObjectName();
+            if (!server.isRegistered(objectName)) {
+                server.registerMBean(this, objectName);
+            }
+        } catch (Exception e) {
+            LOG.warn("Could not register CMIS metrics MBean: {}", e.toString(), e);
+        }
+    }
+
+    private void unregister() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = getObjectName();
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+        } catch (Exception e) {
+            LOG.warn("Could not unregister CMIS metrics MBean: {}", e.toString(), e);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.chemistry.opencmis.server.support.metrics;
+
+/**
+ * JMX interface of {@link CmisMetrics}.
+ */
+public interface CmisMetricsMBean {
+
+    /**
+     * Returns the total number of recorded calls.
+     */
+    long getTotalCallCount();
+
+    /**
+     * Returns the total number of failed calls.
+     */
+    long getTotalErrorCount();
+
+    /**
+     * Returns the keys of all recorded operations in the form
+     * <code>repositoryId/operation</code>.
+     */
+    String[] getOperationKeys();
+
+    /**
+     * Returns a human readable report of all operations.
+     */
+    String getReport();
+
+    long getCallCount(String repositoryId, String operation);
+
+    long getErrorCount(String repositoryId, String operation);
+
+    long getObjectCount(String repositoryId, String operation);
+
+    /**
+     * Returns the latency of an operation at the given percentile in
+     * milliseconds.
+     */
+    double getLatencyPercentile(String repositoryId, String operation, double percentile);
+
+    /**
+     * Removes all recorded values.
+     */
+    void reset();
+}
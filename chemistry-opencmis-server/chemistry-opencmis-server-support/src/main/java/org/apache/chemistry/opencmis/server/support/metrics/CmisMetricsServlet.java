@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.chemistry.opencmis.server.support.metrics;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+
+import javax.servlet.ServletConfig;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Serves the report of a {@link CmisMetrics} instance as plain text.
+ * <p>
+ * The init parameter <code>name</code> selects the metrics instance. A GET
+ * request returns the report. A POST request with the parameter
+ * <code>reset=true</code> returns the report and clears the metrics
+ * afterwards.
+ * <p>
+ * All requests must be authenticated by the servlet container. If the init
+ * parameter <code>role</code> is set, the user must also have this role.
+ * The metrics instance is removed when the servlet is destroyed.
+ */
+public class CmisMetricsServlet extends HttpServlet {
+
+    public static final String PARAM_NAME = "name";
+    public static final String PARAM_ROLE = "role";
+    public static final String PARAM_RESET = "reset";
+
+    private static final long serialVersionUID = 1L;
+
+    private String metricsName;
+    private String role;
+
+    @Override
+    public void init(ServletConfig config) throws ServletException {
+        super.init(config);
+
+        metricsName = config.getInitParameter(PARAM_NAME);
+        role = config.getInitParameter(PARAM_ROLE);
+    }
+
+    @Override
+    public void destroy() {
+        CmisMetrics.removeInstance(metricsName);
+        super.destroy();
+    }
+
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response) throws ServletException,
+            IOException {
+        if (!checkAccess(request, response)) {
+            return;
+        }
+
+        writeReport(CmisMetrics.getInstance(metricsName), response);
+    }
+
+    @Override
+    protected void doPost(HttpServletRequest request, HttpServletResponse response) throws ServletException,
+            IOException {
+        if (!checkAccess(request, response)) {
+            return;
+        }
+
+        CmisMetrics metrics = CmisMetrics.getInstance(metricsName);
+        writeReport(metrics, response);
+
+        if (Boolean.parseBoolean(request.getParameter(PARAM_RESET))) {
+            metrics.reset();
+        }
+    }
+
+    /**
+     * Checks that the user has been authenticated and has the configured
+     * role. Sends an error response if not.
+     */
+    private boolean checkAccess(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (request.getUserPrincipal() == null) {
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED);
+            return false;
+        }
+
+        if (role != null && !request.isUserInRole(role)) {
+            response.sendError(HttpServletResponse.SC_FORBIDDEN);
+            return false;
+        }
+
+        return true;
+    }
+
+    private void writeReport(CmisMetrics metrics, HttpServletResponse response) throws IOException {
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType("text/plain");
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader("Cache-Control", "no-cache");
+
+        PrintWriter pw = response.getWriter();
+        pw.print(metrics.getReport());
+        pw.flush();
+    }
+}
@@ -0,0 +1,207 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.chemistry.opencmis.server.support.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free, high dynamic range latency histogram with microsecond
+ * resolution.
+ * <p>
+ * Values below 128 microseconds are recorded exactly. Larger values are
+ * recorded in 64 sub-buckets per power of two, which keeps the relative error
+ * below 1.6% over the whole range of <code>long</code> values while using a
+ * fixed amount of memory.
+ * <p>
+ * Recording is thread safe and doesn't lock. Percentiles are computed from a
+ * snapshot of the buckets, so values that are recorded concurrently may or
+ * may not be included.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 6;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records a latency.
+     * 
+     * @param nanos
+     *            the latency in nanoseconds
+     */
+    public void recordNanos(long nanos) {
+        record(nanos < 0 ? 0 : nanos / 1000);
+    }
+
+    /**
+     * Records a latency.
+     * 
+     * @param micros
+     *            the latency in microseconds
+     */
+    public void record(long micros) {
+        long value = micros < 0 ? 0 : micros;
+
+        counts.incrementAndGet(getBucket(value));
+        count.incrementAndGet();
+        sum.addAndGet(value);
+        updateMin(value);
+        updateMax(value);
+    }
+
+    /**
+     * Adds all values of another histogram to this histogram.
+     */
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            long c = other.counts.get(i);
+            if (c != 0) {
+                counts.addAndGet(i, c);
+            }
+        }
+        count.addAndGet(other.count.get());
+        sum.addAndGet(other.sum.get());
+        updateMin(other.min.get());
+        updateMax(other.max.get());
+    }
+
+    /**
+     * Removes all recorded values.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        count.set(0);
+        sum.set(0);
+        min.set(Long.MAX_VALUE);
+        max.set(0);
+    }
+
+    /**
+     * Returns the number of recorded values.
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * Returns the smallest recorded value in microseconds.
+     */
+    public long getMin() {
+        long m = min.get();
+        return m == Long.MAX_VALUE ? 0 : m;
+    }
+
+    /**
+     * Returns the largest recorded value in microseconds.
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Returns the mean of all recorded values in microseconds.
+     */
+    public double getMean() {
+        long c = count.get();
+        return c == 0 ? 0.0 : (double) sum.get() / c;
+    }
+
+    /**
+     * Returns the value at the given percentile in microseconds.
+     * 
+     * @param percentile
+     *            the percentile, between 0.0 and 100.0
+     * @return the upper bound of the bucket that contains the percentile,
+     *         capped at the largest recorded value, or 0 if no values have
+     *         been recorded
+     */
+    public long getPercentile(double percentile) {
+        long[] snapshot = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+
+        if (total == 0) {
+            return 0;
+        }
+
+        double p = Math.max(0.0, Math.min(100.0, percentile));
+        long rank = Math.max(1, (long) Math.ceil(total * p / 100.0));
+
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Math.min(getUpperBound(i), max.get());
+            }
+        }
+
+        return max.get();
+    }
+
+    private void updateMin(long value) {
+        long current = min.get();
+        while (value < current && !min.compareAndSet(current, value)) {
+            current = min.get();
+        }
+    }
+
+    private void updateMax(long value) {
+        long current = max.get();
+        while (value > current && !max.compareAndSet(current, value)) {
+            current = max.get();
+        }
+    }
+
+    static int getBucket(long value) {
+        if (value < 2 * SUB_BUCKETS) {
+            return (int) value;
+        }
+
+        int magnitude = 63 - Long.numberOfLeadingZeros(value);
+        int shift = magnitude - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift);
+
+        return (shift + 1) * SUB_BUCKETS + (subBucket - SUB_BUCKETS);
+    }
+
+    static long getUpperBound(int bucket) {
+        if (bucket < 2 * SUB_BUCKETS) {
+            return bucket;
+        }
+
+        int shift = bucket / SUB_BUCKETS - 1;
+        long subBucket = bucket % SUB_BUCKETS + SUB_BUCKETS;
+
+        long upper = ((subBucket + 1) << shift) - 1;
+
+        return upper < 0 ? Long.MAX_VALUE : upper;
+    }
+}
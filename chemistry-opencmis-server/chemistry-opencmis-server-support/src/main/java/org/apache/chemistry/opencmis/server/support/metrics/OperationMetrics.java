@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.chemistry.opencmis.server.support.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Metrics of one CMIS operation in one repository.
+ */
+public class OperationMetrics {
+
+    private final String repositoryId;
+    private final String operation;
+
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLong objects = new AtomicLong();
+
+    public OperationMetrics(String repositoryId, String operation) {
+        this.repositoryId = repositoryId;
+        this.operation = operation;
+    }
+
+    /**
+     * Records a call.
+     *
+     * @param micros
+     *            the latency of the call in microseconds
+     * @param objectCount
+     *            the number of objects returned by the call
+     * @param error
+     *            whether the call failed
+     */
+    public void record(long micros, int objectCount, boolean error) {
+        latency.record(micros);
+
+        if (error) {
+            errors.incrementAndGet();
+        }
+
+        if (objectCount > 0) {
+            objects.addAndGet(objectCount);
+        }
+    }
+
+    public String getRepositoryId() {
+        return repositoryId;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    /**
+     * Returns the latency histogram (microseconds).
+     */
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    public long getCallCount() {
+        return latency.getCount();
+    }
+
+    public long getErrorCount() {
+        return errors.get();
+    }
+
+    public long getObjectCount() {
+        return objects.get();
+    }
+
+    /**
+     * Removes all recorded values.
+     */
+    public void reset() {
+        latency.reset();
+        errors.set(0);
+        objects.set(0);
+    }
+}
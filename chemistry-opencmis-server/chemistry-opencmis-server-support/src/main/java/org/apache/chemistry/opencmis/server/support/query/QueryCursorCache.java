@@ -0,0 +1,345 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.chemistry.opencmis.server.support.query;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.apache.chemistry.opencmis.commons.data.CmisExtensionElement;
+import org.apache.chemistry.opencmis.commons.data.ExtensionsData;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.CmisExtensionElementImpl;
+
+/**
+ * Keeps the sorted result of a query between page requests.
+ * <p>
+ * Executing a query and sorting its matches is O(n log n), regardless of the
+ * page that has been requested. A repository can store the sorted object ids
+ * of the first page request in this cache and serve subsequent pages of the
+ * same query directly from the id list.
+ * <p>
+ * A cursor is bound to the principal, the statement and the
+ * <code>searchAllVersions</code> flag it has been created for. It is looked up
+ * by its token, which is handed to clients in an extension element of the
+ * query result (see {@link #createExtension(String)} and
+ * {@link #getToken(ExtensionsData)}). A client asks for a cursor by sending
+ * the extension element without a token, repositories should not create
+ * cursors for requests that don't carry the element (see
+ * {@link #isRequested(ExtensionsData)}). Cursors expire a fixed time after they
+ * have been created. The number of cursors and the total number of ids held by
+ * all cursors are bounded, least recently used cursors are evicted first.
+ * <p>
+ * A cursor also records the revision of the repository content it has been
+ * created from, a counter that the repository changes on every write. A
+ * cursor of another revision is stale and is not returned any longer.
+ */
+public class QueryCursorCache {
+
+    /** Namespace of the cursor extension element. */
+    public static final String EXTENSION_NAMESPACE = "http://chemistry.apache.org/opencmis/query";
+
+    /** Name of the cursor extension element. */
+    public static final String EXTENSION_NAME = "queryCursor";
+
+    public static final long DEFAULT_TTL = 60 * 1000L;
+    public static final int DEFAULT_MAX_CURSORS = 100;
+    public static final int DEFAULT_MAX_IDS = 1000000;
+
+    private final long ttl;
+    private final int maxCursors;
+    private final int maxIds;
+
+    /** Cursors by token, in access order. */
+    private final LinkedHashMap<String, Cursor> cursors = new LinkedHashMap<String, Cursor>(16, 0.75f, true);
+
+    /**
+     * Tokens by principal and statement, a new cursor replaces the cursor of
+     * the same query.
+     */
+    private final Map<String, String> tokens = new HashMap<String, String>();
+
+    private int idCount;
+
+    public QueryCursorCache() {
+        this(DEFAULT_TTL, DEFAULT_MAX_CURSORS, DEFAULT_MAX_IDS);
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param ttl
+     *            time in milliseconds after which a cursor expires
+     * @param maxCursors
+     *            maximum number of cursors
+     * @param maxIds
+     *            maximum number of ids held by all cursors together
+     */
+    public QueryCursorCache(long ttl, int maxCursors, int maxIds) {
+        if (ttl <= 0 || maxCursors <= 0 || maxIds <= 0) {
+            throw new IllegalArgumentException("TTL and limits must be positive!");
+        }
+
+        this.ttl = ttl;
+        this.maxCursors = maxCursors;
+        this.maxIds = maxIds;
+    }
+
+    /**
+     * Stores the sorted result of a query. An existing cursor for the same
+     * principal and statement is replaced.
+     * 
+     * @param principal
+     *            the user who executed the query, may be <code>null</code>
+     * @param statement
+     *            the query statement
+     * @param searchAllVersions
+     *            the <code>searchAllVersions</code> flag of the query
+     * @param ids
+     *            the object ids of all matches in result order
+     * @param revision
+     *            the revision of the repository content the result has been
+     *            computed from
+     * @return the new cursor or <code>null</code> if the result is too big to
+     *         be cached
+     */
+    public synchronized Cursor create(String principal, String statement, boolean searchAllVersions,
+            List<String> ids, long revision) {
+        String key = getKey(principal, statement, searchAllVersions);
+
+        String oldToken = tokens.get(key);
+        if (oldToken != null) {
+            remove(oldToken);
+        }
+
+        if (ids.size() > maxIds) {
+            return null;
+        }
+
+        long now = System.currentTimeMillis();
+        removeExpired(now);
+
+        // make room, least recently used first
+        Iterator<Cursor> iter = cursors.values().iterator();
+        while (iter.hasNext() && (cursors.size() >= maxCursors || idCount + ids.size() > maxIds)) {
+            Cursor eldest = iter.next();
+            iter.remove();
+            tokens.remove(eldest.key);
+            idCount -= eldest.ids.size();
+        }
+
+        Cursor cursor = new Cursor(UUID.randomUUID().toString(), key, new ArrayList<String>(ids), now, revision);
+        cursors.put(cursor.token, cursor);
+        tokens.put(key, cursor.token);
+        idCount += ids.size();
+
+        return cursor;
+    }
+
+    /**
+     * Returns a cursor.
+     * 
+     * @param token
+     *            the cursor token sent by the client
+     * @param principal
+     *            the user who executes the query, may be <code>null</code>
+     * @param statement
+     *            the query statement
+     * @param searchAllVersions
+     *            the <code>searchAllVersions</code> flag of the query
+     * @param revision
+     *            the current revision of the repository content
+     * @return the cursor or <code>null</code> if no matching cursor exists or
+     *         the cursor has expired or is stale
+     */
+    public synchronized Cursor get(String token, String principal, String statement, boolean searchAllVersions,
+            long revision) {
+        if (token == null) {
+            return null;
+        }
+
+        Cursor cursor = cursors.get(token);
+        if (cursor == null || !cursor.key.equals(getKey(principal, statement, searchAllVersions))) {
+            // unknown token or a token of another user or query
+            return null;
+        }
+
+        if (System.currentTimeMillis() - cursor.created > ttl || cursor.revision != revision) {
+            remove(token);
+            return null;
+        }
+
+        return cursor;
+    }
+
+    /**
+     * Removes a cursor.
+     */
+    public synchronized void remove(String token) {
+        Cursor cursor = cursors.remove(token);
+        if (cursor != null) {
+            tokens.remove(cursor.key);
+            idCount -= cursor.ids.size();
+        }
+    }
+
+    /**
+     * Removes all cursors.
+     */
+    public synchronized void clear() {
+        cursors.clear();
+        tokens.clear();
+        idCount = 0;
+    }
+
+    /**
+     * Returns the number of cursors.
+     */
+    public synchronized int size() {
+        return cursors.size();
+    }
+
+    /**
+     * Returns the number of ids held by all cursors.
+     */
+    public synchronized int getIdCount() {
+        return idCount;
+    }
+
+    /**
+     * Creates the extension element that carries a cursor token to the client.
+     */
+    public static List<CmisExtensionElement> createExtension(String token) {
+        return Collections.singletonList((CmisExtensionElement) new CmisExtensionElementImpl(EXTENSION_NAMESPACE,
+                EXTENSION_NAME, null, token));
+    }
+
+    /**
+     * Returns whether the extensions of a request contain a cursor extension
+     * element, with or without a token. Only clients that send the token of a
+     * result back with the next page request send the element.
+     */
+    public static boolean isRequested(ExtensionsData extension) {
+        return getElement(extension) != null;
+    }
+
+    /**
+     * Extracts a cursor token from the extensions of a request.
+     * 
+     * @return the token or <code>null</code> if the extensions don't contain a
+     *         cursor extension element
+     */
+    public static String getToken(ExtensionsData extension) {
+        CmisExtensionElement element = getElement(extension);
+        if (element == null) {
+            return null;
+        }
+
+        String value = element.getValue();
+        return (value == null || value.trim().length() == 0 ? null : value.trim());
+    }
+
+    private static CmisExtensionElement getElement(ExtensionsData extension) {
+        if (extension == null || extension.getExtensions() == null) {
+            return null;
+        }
+
+        for (CmisExtensionElement element : extension.getExtensions()) {
+            if (EXTENSION_NAME.equals(element.getName()) && EXTENSION_NAMESPACE.equals(element.getNamespace())) {
+                return element;
+            }
+        }
+
+        return null;
+    }
+
+    private void removeExpired(long now) {
+        Iterator<Cursor> iter = cursors.values().iterator();
+        while (iter.hasNext()) {
+            Cursor cursor = iter.next();
+            if (now - cursor.created > ttl) {
+                iter.remove();
+                tokens.remove(cursor.key);
+                idCount -= cursor.ids.size();
+            }
+        }
+    }
+
+    private static String getKey(String principal, String statement, boolean searchAllVersions) {
+        return (principal == null ? "" : principal) + '\u0000' + searchAllVersions + '\u0000' + statement;
+    }
+
+    /**
+     * The sorted result of a query.
+     */
+    public static class Cursor {
+        private final String token;
+        private final String key;
+        private final List<String> ids;
+        private final long created;
+        private final long revision;
+
+        Cursor(String token, String key, List<String> ids, long created, long revision) {
+            this.token = token;
+            this.key = key;
+            this.ids = Collections.unmodifiableList(ids);
+            this.created = created;
+            this.revision = revision;
+        }
+
+        /**
+         * Returns the token that identifies this cursor.
+         */
+        public String getToken() {
+            return token;
+        }
+
+        /**
+         * Returns the number of matches.
+         */
+        public int size() {
+            return ids.size();
+        }
+
+        /**
+         * Returns the ids of the matches in result order.
+         */
+        public List<String> getIds() {
+            return ids;
+        }
+
+        /**
+         * Returns the ids of one page.
+         * 
+         * @param skipCount
+         *            the number of ids to skip
+         * @param maxItems
+         *            the page size, zero or negative for all remaining ids
+         */
+        public List<String> getPage(int skipCount, int maxItems) {
+            int start = Math.min(Math.max(skipCount, 0), ids.size());
+            int stop = (maxItems > 0 ? (int) Math.min((long) start + maxItems, ids.size()) : ids.size());
+            return ids.subList(start, stop);
+        }
+    }
+}
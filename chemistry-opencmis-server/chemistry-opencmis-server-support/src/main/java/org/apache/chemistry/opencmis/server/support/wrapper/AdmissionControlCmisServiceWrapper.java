@@ -0,0 +1,662 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.chemistry.opencmis.server.support.wrapper;
+
+import java.math.BigInteger;
+import java.util.List;
+
+import org.apache.chemistry.opencmis.commons.data.Acl;
+import org.apache.chemistry.opencmis.commons.data.AllowableActions;
+import org.apache.chemistry.opencmis.commons.data.BulkUpdateObjectIdAndChangeToken;
+import org.apache.chemistry.opencmis.commons.data.ContentStream;
+import org.apache.chemistry.opencmis.commons.data.ExtensionsData;
+import org.apache.chemistry.opencmis.commons.data.FailedToDeleteData;
+import org.apache.chemistry.opencmis.commons.data.ObjectData;
+import org.apache.chemistry.opencmis.commons.data.ObjectInFolderContainer;
+import org.apache.chemistry.opencmis.commons.data.ObjectInFolderList;
+import org.apache.chemistry.opencmis.commons.data.ObjectList;
+import org.apache.chemistry.opencmis.commons.data.ObjectParentData;
+import org.apache.chemistry.opencmis.commons.data.Properties;
+import org.apache.chemistry.opencmis.commons.data.RenditionData;
+import org.apache.chemistry.opencmis.commons.data.RepositoryInfo;
+import org.apache.chemistry.opencmis.commons.definitions.TypeDefinition;
+import org.apache.chemistry.opencmis.commons.definitions.TypeDefinitionContainer;
+import org.apache.chemistry.opencmis.commons.definitions.TypeDefinitionList;
+import org.apache.chemistry.opencmis.commons.enums.AclPropagation;
+import org.apache.chemistry.opencmis.commons.enums.IncludeRelationships;
+import org.apache.chemistry.opencmis.commons.enums.RelationshipDirection;
+import org.apache.chemistry.opencmis.commons.enums.UnfileObject;
+import org.apache.chemistry.opencmis.commons.enums.VersioningState;
+import org.apache.chemistry.opencmis.commons.exceptions.CmisServiceUnavailableException;
+import org.apache.chemistry.opencmis.commons.server.CmisService;
+import org.apache.chemistry.opencmis.commons.spi.Holder;
+import org.apache.chemistry.opencmis.server.support.wrapper.AdmissionController.Permit;
+
+/**
+ * Service wrapper that limits the number of concurrent calls.
+ * <p>
+ * Operations are divided into three classes: read, expensive (getDescendants,
+ * getFolderTree, getTypeDescendants, query, getContentChanges, deleteTree and
+ * bulkUpdateProperties) and write. Each class has its own number of permits.
+ * Calls that don't get a permit immediately wait in a bounded queue. Calls
+ * are rejected with a {@link CmisServiceUnavailableException} if the queue is
+ * full, the maximum wait time has elapsed, or the user already has too many
+ * calls in flight. The AtomPub and Browser bindings return HTTP status 503
+ * and a Retry-After header in this case.
+ * <p>
+ * The wrapper parameters override the defaults, for example:
+ *
+ * <pre>
+ * servicewrapper.1=org.apache.chemistry.opencmis.server.support.wrapper.AdmissionControlCmisServiceWrapper,read=64,expensive=8,write=16,perUser=16,queue=100,maxWait=5000,retryAfter=5
+ * </pre>
+ *
+ * <code>maxWait</code> is in milliseconds, <code>retryAfter</code> in
+ * seconds. The permit is held for the duration of the service call. Content
+ * streams returned by <code>getContentStream</code> are sent to the client
+ * after the permit has been released.
+ */
+public class AdmissionControlCmisServiceWrapper extends AbstractCmisServiceWrapper {
+
+    private AdmissionController controller;
+
+    public AdmissionControlCmisServiceWrapper(CmisService service) {
+        super(service);
+    }
+
+    @Override
+    public void initialize(Object[] params) {
+        controller = AdmissionController.getInstance(params);
+    }
+
+    /**
+     * Returns the admission controller of this wrapper.
+     */
+    public AdmissionController getAdmissionController() {
+        if (controller == null) {
+            controller = AdmissionController.getInstance(null);
+        }
+
+        return controller;
+    }
+
+    /**
+     * Acquires a permit for an operation.
+     */
+    protected Permit acquire(String operation) {
+        String principal = (getCallContext() == null ? null : getCallContext().getUsername());
+        return getAdmissionController().acquire(AdmissionController.getOperationClass(operation), principal);
+    }
+
+    public List<RepositoryInfo> getRepositoryInfos(ExtensionsData extension) {
+        Permit permit = acquire("getRepositoryInfos");
+        try {
+            return getWrappedService().getRepositoryInfos(extension);
+        } finally {
+            permit.release();
+        }
+    }
+
+    public RepositoryInfo getRepositoryInfo(String repositoryId, ExtensionsData extension) {
+        Permit permit = acquire("getRepositoryInfo");
+        try {
+            return getWrappedService().getRepositoryInfo(repositoryId, extension);
+        } finally {
+            permit.release();
+        }
+    }
+
+    public TypeDefinitionList getTypeChildren(String repositoryId, String typeId, Boolean includePropertyDefinitions,
+            BigInteger maxItems, BigInteger skipCount, ExtensionsData extension) {
+        Permit permit = acquire("getTypeChildren");
+        try {
+            return getWrappedService().getTypeChildren(repositoryId, typeId, includePropertyDefinitions, maxItems,
+                    skipCount, extension);
+        } finally {
+            permit.release();
+        }
+    }
+
+    public List<TypeDefinitionContainer> getTypeDescendants(String repositoryId, String typeId, BigInteger depth,
+            Boolean includePropertyDefinitions, ExtensionsData extension) {
+        Permit permit = acquire("getTypeDescendants");
+        try {
+            return getWrappedService().getTypeDescendants(repositoryId, typeId, depth, includePropertyDefinitions,
+                    extension);
+        } finally {
+            permit.release();
+        }
+    }
+
+    public TypeDefinition getTypeDefinition(String repositoryId, String typeId, ExtensionsData extension) {
+        Permit permit = acquire("getTypeDefinition");
+        try {
+            return getWrappedService().getTypeDefinition(repositoryId, typeId, extension);
+        } finally {
+            permit.release();
+        }
+    }
+
+    public TypeDefinition createType(String repositoryId, TypeDefinition type, ExtensionsData extension) {
+        Permit permit = acquire("createType");
+        try {
+            return getWrappedService().createType(repositoryId, type, extension);
+        } finally {
+            permit.release();
+        }
+    }
+
+    public TypeDefinition updateType(String repositoryId, TypeDefinition type, ExtensionsData extension) {
+        Permit permit = acquire("updateType");
+        try {
+            return getWrappedService().updateType(repositoryId, type, extension);
+        } finally {
+            permit.release();
+        }
+    }
+
+    public void deleteType(String repositoryId, String typeId, ExtensionsData extension) {
+        Permit permit = acquire("deleteType");
+        try {
+            getWrappedService().deleteType(repositoryId, typeId, extension);
+        } finally {
+            permit.release();
+        }
+    }
+
+    public ObjectInFolderList getChildren(String repositoryId, String folderId, String filter, String orderBy,
+            Boolean includeAllowableActions, IncludeRelationships includeRelationships, String renditionFilter,
+            Boolean includePathSegment, BigInteger maxItems, BigInteger skipCount, ExtensionsData extension) {
+        Permit permit = acquire("getChildren");
+        try {
+            return getWrappedService().getChildren(repositoryId, folderId, filter, orderBy, includeAllowableActions,
+                    includeRelationships, renditionFilter, includePathSegment, maxItems, skipCount, extension);
+        } finally {
+            permit.release();
+        }
+    }
+
+    public List<ObjectInFolderContainer> getDescendants(String repositoryId, String folderId, BigInteger depth,
+            String filter, Boolean includeAllowableActions, IncludeRelationships includeRelationships,
+            String renditionFilter, Boolean includePathSegment, ExtensionsData extension) {
+        Permit permit = acquire("getDescendants");
+        try {
+            return getWrappedService().getDescendants(repositoryId, folderId, depth, filter, includeAllowableActions,
+                    includeRelationships, renditionFilter, includePathSegment, extension);
+        } finally {
+            permit.release();
+        }
+    }
+
+    public List<ObjectInFolderContainer> getFolderTree(String repositoryId, String folderId, BigInteger depth,
+            String filter, Boolean includeAllowableActions, IncludeRelationships includeRelationships,
+            String renditionFilter, Boolean includePathSegment, ExtensionsData extension) {
+        Permit permit = acquire("getFolderTree");
+        try {
+            return getWrappedService().getFolderTree(repositoryId, folderId, depth, filter, includeAllowableActions,
+                    includeRelationships, renditionFilter, includePathSegment, extension);
+        } finally {
+            permit.release();
+        }
+    }
+
+    public List<ObjectParentData> getObjectParents(String repositoryId, String objectId, String filter,
+            Boolean includeAllowableActions, IncludeRelationships includeRelationships, String renditionFilter,
+            Boolean includeRelativePathSegment, ExtensionsData extension) {
+        Permit permit = acquire("getObjectParents");
+        try {
+            return getWrappedService().getObjectParents(repositoryId, objectId, filter, includeAllowableActions,
+                    includeRelationships, renditionFilter, includeRelativePathSegment, extension);
+        } finally {
+            permit.release();
+        }
+    }
+
+    public ObjectData getFolderParent(String repositoryId, String folderId, String filter, ExtensionsData extension) {
+        Permit permit = acquire("getFolderParent");
+        try {
+            return getWrappedService().getFolderParent(repositoryId, folderId, filter, extension);
+        } finally {
+            permit.release();
+        }
+    }
+
+    public ObjectList getCheckedOutDocs(String repositoryId, String folderId, String filter, String orderBy,
+            Boolean includeAllowableActions, IncludeRelationships includeRelationships, String renditionFilter,
+            BigInteger maxItems, BigInteger skipCount, ExtensionsData extension) {
+        Permit permit = acquire("getCheckedOutDocs");
+        try {
+            return getWrappedService().getCheckedOutDocs(repositoryId, folderId, filter, orderBy,
+                    includeAllowableActions, includeRelationships, renditionFilter, maxItems, skipCount, extension);
+        } finally {
+            permit.release();
+        }
+    }
+
+    public String createDocument(String repositoryId, Properties properties, String folderId,
+            ContentStream contentStream, VersioningState versioningState, List<String> policies, Acl addAces,
+            Acl removeAces, ExtensionsData extension) {
+        Permit permit = acquire("createDocument");
+        try {
+            return getWrappedService().createDocument(repositoryId, properties, folderId, contentStream,
+                    versioningState, policies, addAces, removeAces, extension);
+        } finally {
+            permit.release();
+        }
+    }
+
+    public String createDocumentFromSource(String repositoryId, String sourceId, Properties properties,
+            String folderId, VersioningState versioningState, List<String> policies, Acl addAces, Acl removeAces,
+            ExtensionsData extension) {
+        Permit permit = acquire("createDocumentFromSource");
+        try {
+            return getWrappedService().createDocumentFromSource(repositoryId, sourceId, properties, folderId,
+                    versioningState, policies, addAces, removeAces, extension);
+        } finally {
+            permit.release();
+        }
+    }
+
+    public String createFolder(String repositoryId, Properties properties, String folderId, List<String> policies,
+            Acl addAces, Acl removeAces, ExtensionsData extension) {
+        Permit permit = acquire("createFolder");
+        try {
+            return getWrappedService().createFolder(repositoryId, properties, folderId, policies, addAces, removeAces,
+                    extension);
+        } finally {
+            permit.release();
+        }
+    }
+
+    public String createRelationship(String repositoryId, Properties properties, List<String> policies, Acl addAces,
+            Acl removeAces, ExtensionsData extension) {
+        Permit permit = acquire("createRelationship");
+        try {
+            return getWrappedService().createRelationship(repositoryId, properties, policies, addAces, removeAces,
+                    extension);
+        } finally {
+            permit.release();
+        }
+    }
+
+    public String createPolicy(String repositoryId, Properties properties, String folderId, List<String> policies,
+            Acl addAces, Acl removeAces, ExtensionsData extension) {
+        Permit permit = acquire("createPolicy");
+        try {
+            return getWrappedService().createPolicy(repositoryId, properties, folderId, policies, addAces, removeAces,
+                    extension);
+        } finally {
+            permit.release();
+        }
+    }
+
+    public String createItem(String repositoryId, Properties properties, String folderId, List<String> policies,
+            Acl addAces, Acl removeAces, ExtensionsData extension) {
+        Permit permit = acquire("createItem");
+        try {
+            return getWrappedService().createItem(repositoryId, properties, folderId, policies, addAces, removeAces,
+                    extension);
+        } finally {
+            permit.release();
+        }
+    }
+
+    public AllowableActions getAllowableActions(String repositoryId, String objectId, ExtensionsData extension) {
+        Permit permit = acquire("getAllowableActions");
+        try {
+            return getWrappedService().getAllowableActions(repositoryId, objectId, extension);
+        } finally {
+            permit.release();
+        }
+    }
+
+    public ObjectData getObject(String repositoryId, String objectId, String filter, Boolean includeAllowableActions,
+            IncludeRelationships includeRelationships, String renditionFilter, Boolean includePolicyIds,
+            Boolean includeAcl, ExtensionsData extension) {
+        Permit permit = acquire("getObject");
+        try {
+            return getWrappedService().getObject(repositoryId, objectId, filter, includeAllowableActions,
+                    includeRelationships, renditionFilter, includePolicyIds, includeAcl, extension);
+        } finally {
+            permit.release();
+        }
+    }
+
+    public Properties getProperties(String repositoryId, String objectId, String filter, ExtensionsData extension) {
+        Permit permit = acquire("getProperties");
+        try {
+            return getWrappedService().getProperties(repositoryId, objectId, filter, extension);
+        } finally {
+            permit.release();
+        }
+    }
+
+    public List<RenditionData> getRenditions(String repositoryId, String objectId, String renditionFilter,
+            BigInteger maxItems, BigInteger skipCount, ExtensionsData extension) {
+        Permit permit = acquire("getRenditions");
+        try {
+            return getWrappedService().getRenditions(repositoryId, objectId, renditionFilter, maxItems, skipCount,
+                    extension);
+        } finally {
+            permit.release();
+        }
+    }
+
+    public ObjectData getObjectByPath(String repositoryId, String path, String filter, Boolean includeAllowableActions,
+            IncludeRelationships includeRelationships, String renditionFilter, Boolean includePolicyIds,
+            Boolean includeAcl, ExtensionsData extension) {
+        Permit permit = acquire("getObjectByPath");
+        try {
+            return getWrappedService().getObjectByPath(repositoryId, path, filter, includeAllowableActions,
+                    includeRelationships, renditionFilter, includePolicyIds, includeAcl, extension);
+        } finally {
+            permit.release();
+        }
+    }
+
+    public ContentStream getContentStream(String repositoryId, String objectId, String streamId, BigInteger offset,
+            BigInteger length, ExtensionsData extension) {
+        Permit permit = acquire("getContentStream");
+        try {
+            return getWrappedService().getContentStream(repositoryId, objectId, streamId, offset, length, extension);
+        } finally {
+            permit.release();
+        }
+    }
+
+    public void updateProperties(String repositoryId, Holder<String> objectId, Holder<String> changeToken,
+            Properties properties, ExtensionsData extension) {
+        Permit permit = acquire("updateProperties");
+        try {
+            getWrappedService().updateProperties(repositoryId, objectId, changeToken, properties, extension);
+        } finally {
+            permit.release();
+        }
+    }
+
+    public List<BulkUpdateObjectIdAndChangeToken> bulkUpdateProperties(String repositoryId,
+            List<BulkUpdateObjectIdAndChangeToken> objectIdsAndChangeTokens, Properties properties,
+            List<String> addSecondaryTypeIds, List<String> removeSecondaryTypeIds, ExtensionsData extension) {
+        Permit permit = acquire("bulkUpdateProperties");
+        try {
+            return getWrappedService().bulkUpdateProperties(repositoryId, objectIdsAndChangeTokens, properties,
+                    addSecondaryTypeIds, removeSecondaryTypeIds, extension);
+        } finally {
+            permit.release();
+        }
+    }
+
+    public void moveObject(String repositoryId, Holder<String> objectId, String targetFolderId, String sourceFolderId,
+            ExtensionsData extension) {
+        Permit permit = acquire("moveObject");
+        try {
+            getWrappedService().moveObject(repositoryId, objectId, targetFolderId, sourceFolderId, extension);
+        } finally {
+            permit.release();
+        }
+    }
+
+    public void deleteObject(String repositoryId, String objectId, Boolean allVersions, ExtensionsData extension) {
+        Permit permit = acquire("deleteObject");
+        try {
+            getWrappedService().deleteObject(repositoryId, objectId, allVersions, extension);
+        } finally {
+            permit.release();
+        }
+    }
+
+    public FailedToDeleteData deleteTree(String repositoryId, String folderId, Boolean allVersions,
+            UnfileObject unfileObjects, Boolean continueOnFailure, ExtensionsData extension) {
+        Permit permit = acquire("deleteTree");
+        try {
+            return getWrappedService().deleteTree(repositoryId, folderId, allVersions, unfileObjects, continueOnFailure,
+                    extension);
+        } finally {
+            permit.release();
+        }
+    }
+
+    public void setContentStream(String repositoryId, Holder<String> objectId, Boolean overwriteFlag,
+            Holder<String> changeToken, ContentStream contentStream, ExtensionsData extension) {
+        Permit permit = acquire("setContentStream");
+        try {
+            getWrappedService().setContentStream(repositoryId, objectId, overwriteFlag, changeToken, contentStream,
+                    extension);
+        } finally {
+            permit.release();
+        }
+    }
+
+    public void deleteContentStream(String repositoryId, Holder<String> objectId, Holder<String> changeToken,
+            ExtensionsData extension) {
+        Permit permit = acquire("deleteContentStream");
+        try {
+            getWrappedService().deleteContentStream(repositoryId, objectId, changeToken, extension);
+        } finally {
+            permit.release();
+        }
+    }
+
+    public void appendContentStream(String repositoryId, Holder<String> objectId, Holder<String> changeToken,
+            ContentStream contentStream, boolean isLastChunk, ExtensionsData extension) {
+        Permit permit = acquire("appendContentStream");
+        try {
+            getWrappedService().appendContentStream(repositoryId, objectId, changeToken, contentStream, isLastChunk,
+                    extension);
+        } finally {
+            permit.release();
+        }
+    }
+
+    public void checkOut(String repositoryId, Holder<String> objectId, ExtensionsData extension,
+            Holder<Boolean> contentCopied) {
+        Permit permit = acquire("checkOut");
+        try {
+            getWrappedService().checkOut(repositoryId, objectId, extension, contentCopied);
+        } finally {
+            permit.release();
+        }
+    }
+
+    public void cancelCheckOut(String repositoryId, String objectId, ExtensionsData extension) {
+        Permit permit = acquire("cancelCheckOut");
+        try {
+            getWrappedService().cancelCheckOut(repositoryId, objectId, extension);
+        } finally {
+            permit.release();
+        }
+    }
+
+    public void checkIn(String repositoryId, Holder<String> objectId, Boolean major, Properties properties,
+            ContentStream contentStream, String checkinComment, List<String> policies, Acl addAces, Acl removeAces,
+            ExtensionsData extension) {
+        Permit permit = acquire("checkIn");
+        try {
+            getWrappedService().checkIn(repositoryId, objectId, major, properties, contentStream, checkinComment,
+                    policies, addAces, removeAces, extension);
+        } finally {
+            permit.release();
+        }
+    }
+
+    public ObjectData getObjectOfLatestVersion(String repositoryId, String objectId, String versionSeriesId,
+            Boolean major, String filter, Boolean includeAllowableActions, IncludeRelationships includeRelationships,
+            String renditionFilter, Boolean includePolicyIds, Boolean includeAcl, ExtensionsData extension) {
+        Permit permit = acquire("getObjectOfLatestVersion");
+        try {
+            return getWrappedService() .getObjectOfLatestVersion(repositoryId, objectId, versionSeriesId, major, filter,
+                    includeAllowableActions, includeRelationships, renditionFilter, includePolicyIds, includeAcl,
+                    extension);
+        } finally {
+            permit.release();
+        }
+    }
+
+    public Properties getPropertiesOfLatestVersion(String repositoryId, String objectId, String versionSeriesId,
+            Boolean major, String filter, ExtensionsData extension) {
+        Permit permit = acquire("getPropertiesOfLatestVersion");
+        try {
+            return getWrappedService().getPropertiesOfLatestVersion(repositoryId, objectId, versionSeriesId, major,
+                    filter, extension);
+        } finally {
+            permit.release();
+        }
+    }
+
+    public List<ObjectData> getAllVersions(String repositoryId, String objectId, String versionSeriesId, String filter,
+            Boolean includeAllowableActions, ExtensionsData extension) {
+        Permit permit = acquire("getAllVersions");
+        try {
+            return getWrappedService().getAllVersions(repositoryId, objectId, versionSeriesId, filter,
+                    includeAllowableActions, extension);
+        } finally {
+            permit.release();
+        }
+    }
+
+    public ObjectList query(String repositoryId, String statement, Boolean searchAllVersions,
+            Boolean includeAllowableActions, IncludeRelationships includeRelationships, String renditionFilter,
+            BigInteger maxItems, BigInteger skipCount, ExtensionsData extension) {
+        Permit permit = acquire("query");
+        try {
+            return getWrappedService().query(repositoryId, statement, searchAllVersions, includeAllowableActions,
+                    includeRelationships, renditionFilter, maxItems, skipCount, extension);
+        } finally {
+            permit.release();
+        }
+    }
+
+    public ObjectList getContentChanges(String repositoryId, Holder<String> changeLogToken, Boolean includeProperties,
+            String filter, Boolean includePolicyIds, Boolean includeAcl, BigInteger maxItems, ExtensionsData extension) {
+        Permit permit = acquire("getContentChanges");
+        try {
+            return getWrappedService().getContentChanges(repositoryId, changeLogToken, includeProperties, filter,
+                    includePolicyIds, includeAcl, maxItems, extension);
+        } finally {
+            permit.release();
+        }
+    }
+
+    public void addObjectToFolder(String repositoryId, String objectId, String folderId, Boolean allVersions,
+            ExtensionsData extension) {
+        Permit permit = acquire("addObjectToFolder");
+        try {
+            getWrappedService().addObjectToFolder(repositoryId, objectId, folderId, allVersions, extension);
+        } finally {
+            permit.release();
+        }
+    }
+
+    public void removeObjectFromFolder(String repositoryId, String objectId, String folderId, ExtensionsData extension) {
+        Permit permit = acquire("removeObjectFromFolder");
+        try {
+            getWrappedService().removeObjectFromFolder(repositoryId, objectId, folderId, extension);
+        } finally {
+            permit.release();
+        }
+    }
+
+    public ObjectList getObjectRelationships(String repositoryId, String objectId, Boolean includeSubRelationshipTypes,
+            RelationshipDirection relationshipDirection, String typeId, String filter, Boolean includeAllowableActions,
+            BigInteger maxItems, BigInteger skipCount, ExtensionsData extension) {
+        Permit permit = acquire("getObjectRelationships");
+        try {
+            return getWrappedService().getObjectRelationships(repositoryId, objectId, includeSubRelationshipTypes,
+                    relationshipDirection, typeId, filter, includeAllowableActions, maxItems, skipCount, extension);
+        } finally {
+            permit.release();
+        }
+    }
+
+    public Acl getAcl(String repositoryId, String objectId, Boolean onlyBasicPermissions, ExtensionsData extension) {
+        Permit permit = acquire("getAcl");
+        try {
+            return getWrappedService().getAcl(repositoryId, objectId, onlyBasicPermissions, extension);
+        } finally {
+            permit.release();
+        }
+    }
+
+    public Acl applyAcl(String repositoryId, String objectId, Acl addAces, Acl removeAces,
+            AclPropagation aclPropagation, ExtensionsData extension) {
+        Permit permit = acquire("applyAcl");
+        try {
+            return getWrappedService().applyAcl(repositoryId, objectId, addAces, removeAces, aclPropagation, extension);
+        } finally {
+            permit.release();
+        }
+    }
+
+    public void applyPolicy(String repositoryId, String policyId, String objectId, ExtensionsData extension) {
+        Permit permit = acquire("applyPolicy");
+        try {
+            getWrappedService().applyPolicy(repositoryId, policyId, objectId, extension);
+        } finally {
+            permit.release();
+        }
+    }
+
+    public void removePolicy(String repositoryId, String policyId, String objectId, ExtensionsData extension) {
+        Permit permit = acquire("removePolicy");
+        try {
+            getWrappedService().removePolicy(repositoryId, policyId, objectId, extension);
+        } finally {
+            permit.release();
+        }
+    }
+
+    public List<ObjectData> getAppliedPolicies(String repositoryId, String objectId, String filter,
+            ExtensionsData extension) {
+        Permit permit = acquire("getRepositoryInfos");
+        try {
+            return getWrappedService().getAppliedPolicies(repositoryId, objectId, filter, extension);
+        } finally {
+            permit.release();
+        }
+    }
+
+    public String create(String repositoryId, Properties properties, String folderId, ContentStream contentStream,
+            VersioningState versioningState, List<String> policies, ExtensionsData extension) {
+        Permit permit = acquire("create");
+        try {
+            return getWrappedService().create(repositoryId, properties, folderId, contentStream, versioningState,
+                    policies, extension);
+        } finally {
+            permit.release();
+        }
+    }
+
+    public void deleteObjectOrCancelCheckOut(String repositoryId, String objectId, Boolean allVersions,
+            ExtensionsData extension) {
+        Permit permit = acquire("deleteObjectOrCancelCheckOut");
+        try {
+            getWrappedService().deleteObjectOrCancelCheckOut(repositoryId, objectId, allVersions, extension);
+        } finally {
+            permit.release();
+        }
+    }
+
+    public Acl applyAcl(String repositoryId, String objectId, Acl aces, AclPropagation aclPropagation) {
+        Permit permit = acquire("applyAcl");
+        try {
+            return getWrappedService().applyAcl(repositoryId, objectId, aces, aclPropagation);
+        } finally {
+            permit.release();
+        }
+    }
+}
@@ -0,0 +1,385 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.chemistry.opencmis.server.support.wrapper;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.apache.chemistry.opencmis.commons.exceptions.CmisRuntimeException;
+import org.apache.chemistry.opencmis.commons.exceptions.CmisServiceUnavailableException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Admission control used by {@link AdmissionControlCmisServiceWrapper}.
+ * <p>
+ * Operations are divided into the classes read, expensive and write. Each
+ * class has a fixed number of permits and a bounded wait queue. In addition,
+ * the number of concurrent calls per user is limited across all classes.
+ * Calls that exceed the per-user limit or find the wait queue full are
+ * rejected immediately. Calls that wait longer than the maximum wait time
+ * are rejected, too. Rejections are reported as
+ * {@link CmisServiceUnavailableException}, which the AtomPub and Browser
+ * bindings turn into HTTP status 503 with a Retry-After header.
+ * <p>
+ * Instances are shared by all wrappers with the same configuration and are
+ * registered with the platform MBean server.
+ */
+public class AdmissionController implements AdmissionControllerMBean {
+
+    /**
+     * Operation classes.
+     */
+    public enum OperationClass {
+        READ, EXPENSIVE, WRITE
+    }
+
+    public static final String PARAM_READ = "read";
+    public static final String PARAM_EXPENSIVE = "expensive";
+    public static final String PARAM_WRITE = "write";
+    public static final String PARAM_PER_USER = "perUser";
+    public static final String PARAM_QUEUE = "queue";
+    public static final String PARAM_MAX_WAIT = "maxWait";
+    public static final String PARAM_RETRY_AFTER = "retryAfter";
+
+    private static final Logger LOG = LoggerFactory.getLogger(AdmissionController.class);
+
+    private static final String ANONYMOUS = "<anonymous>";
+
+    private static final Map<String, OperationClass> OPERATION_CLASSES = new HashMap<String, OperationClass>();
+    static {
+        for (String op : new String[] { "getDescendants", "getFolderTree", "getTypeDescendants", "query",
+                "getContentChanges", "deleteTree", "bulkUpdateProperties" }) {
+            OPERATION_CLASSES.put(op, OperationClass.EXPENSIVE);
+        }
+
+        for (String op : new String[] { "createType", "updateType", "deleteType", "createDocument",
+                "createDocumentFromSource", "createFolder", "createRelationship", "createPolicy", "createItem",
+                "updateProperties", "moveObject", "deleteObject", "setContentStream", "deleteContentStream",
+                "appendContentStream", "checkOut", "cancelCheckOut", "checkIn", "addObjectToFolder",
+                "removeObjectFromFolder", "applyAcl", "applyPolicy", "removePolicy", "create",
+                "deleteObjectOrCancelCheckOut" }) {
+            OPERATION_CLASSES.put(op, OperationClass.WRITE);
+        }
+    }
+
+    private static final ConcurrentMap<String, AdmissionController> INSTANCES = new ConcurrentHashMap<String, AdmissionController>();
+
+    private final Lane[] lanes = new Lane[OperationClass.values().length];
+    private final int perUserLimit;
+    private final long maxWait;
+    private final int retryAfter;
+
+    /** Concurrent calls per user, only users with active calls are kept. */
+    private final Map<String, Integer> userCalls = new HashMap<String, Integer>();
+
+    /**
+     * Constructor.
+     *
+     * @param params
+     *            settings in the form <code>&lt;name&gt;=&lt;value&gt;</code>,
+     *            see the <code>PARAM_</code> constants
+     */
+    public AdmissionController(Object[] params) {
+        Map<String, String> settings = new HashMap<String, String>();
+        if (params != null) {
+            for (Object param : params) {
+                if (param == null || param.toString().trim().length() == 0) {
+                    continue;
+                }
+
+                String setting = param.toString().trim();
+                int eq = setting.indexOf('=');
+                if (eq < 1) {
+                    throw new CmisRuntimeException("Invalid admission control setting: " + setting);
+                }
+
+                settings.put(setting.substring(0, eq).trim(), setting.substring(eq + 1).trim());
+            }
+        }
+
+        int queue = getInt(settings, PARAM_QUEUE, 100);
+        lanes[OperationClass.READ.ordinal()] = new Lane(getInt(settings, PARAM_READ, 64), queue);
+        lanes[OperationClass.EXPENSIVE.ordinal()] = new Lane(getInt(settings, PARAM_EXPENSIVE, 8), queue);
+        lanes[OperationClass.WRITE.ordinal()] = new Lane(getInt(settings, PARAM_WRITE, 16), queue);
+
+        perUserLimit = getInt(settings, PARAM_PER_USER, 16);
+        maxWait = getInt(settings, PARAM_MAX_WAIT, 5000);
+        retryAfter = getInt(settings, PARAM_RETRY_AFTER, 5);
+    }
+
+    /**
+     * Returns the shared admission controller for the given configuration.
+     */
+    public static AdmissionController getInstance(Object[] params) {
+        String config = (params == null ? "" : Arrays.toString(params));
+
+        AdmissionController controller = INSTANCES.get(config);
+        if (controller == null) {
+            AdmissionController newController = new AdmissionController(params);
+            controller = INSTANCES.putIfAbsent(config, newController);
+            if (controller == null) {
+                controller = newController;
+                controller.register(INSTANCES.size());
+            }
+        }
+
+        return controller;
+    }
+
+    /**
+     * Returns the class of an operation.
+     */
+    public static OperationClass getOperationClass(String operation) {
+        OperationClass result = OPERATION_CLASSES.get(operation);
+        return result == null ? OperationClass.READ : result;
+    }
+
+    /**
+     * Acquires a permit for a call.
+     *
+     * @param operationClass
+     *            the class of the operation
+     * @param principal
+     *            the user name, may be <code>null</code>
+     * @return the permit, which must be released when the call has finished
+     * @throws CmisServiceUnavailableException
+     *             if the call has been rejected
+     */
+    public Permit acquire(OperationClass operationClass, String principal) {
+        Lane lane = lanes[operationClass.ordinal()];
+        String user = (principal == null ? ANONYMOUS : principal);
+
+        if (!incrementUserCalls(user)) {
+            lane.rejected.incrementAndGet();
+            throw new CmisServiceUnavailableException("Too many concurrent calls for this user!", retryAfter);
+        }
+
+        boolean acquired = false;
+        try {
+            acquired = lane.permits.tryAcquire();
+            if (!acquired) {
+                if (lane.waiting.incrementAndGet() > lane.maxQueue) {
+                    lane.waiting.decrementAndGet();
+                    lane.rejected.incrementAndGet();
+                    throw new CmisServiceUnavailableException("Server is busy!", retryAfter);
+                }
+
+                lane.queued.incrementAndGet();
+                try {
+                    acquired = lane.permits.tryAcquire(maxWait, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    lane.waiting.decrementAndGet();
+                }
+
+                if (!acquired) {
+                    lane.rejected.incrementAndGet();
+                    throw new CmisServiceUnavailableException("Server is busy!", retryAfter);
+                }
+            }
+        } finally {
+            if (!acquired) {
+                decrementUserCalls(user);
+            }
+        }
+
+        lane.admitted.incrementAndGet();
+
+        return new Permit(this, lane, user);
+    }
+
+    // --- MBean ---
+
+    public long getAdmittedCount(String operationClass) {
+        return getLane(operationClass).admitted.get();
+    }
+
+    public long getQueuedCount(String operationClass) {
+        return getLane(operationClass).queued.get();
+    }
+
+    public long getRejectedCount(String operationClass) {
+        return getLane(operationClass).rejected.get();
+    }
+
+    public int getActiveCount(String operationClass) {
+        Lane lane = getLane(operationClass);
+        return lane.limit - lane.permits.availablePermits();
+    }
+
+    public int getWaitingCount(String operationClass) {
+        return getLane(operationClass).waiting.get();
+    }
+
+    public long getTotalRejectedCount() {
+        long result = 0;
+        for (Lane lane : lanes) {
+            result += lane.rejected.get();
+        }
+
+        return result;
+    }
+
+    public String getReport() {
+        StringBuilder sb = new StringBuilder(256);
+
+        sb.append(String.format(Locale.ENGLISH, "%-10s %8s %8s %8s %12s %12s %12s%n", "class", "limit", "active",
+                "waiting", "admitted", "queued", "rejected"));
+        for (OperationClass oc : OperationClass.values()) {
+            Lane lane = lanes[oc.ordinal()];
+            sb.append(String.format(Locale.ENGLISH, "%-10s %8d %8d %8d %12d %12d %12d%n",
+                    oc.name().toLowerCase(Locale.ENGLISH), lane.limit,
+                    lane.limit - lane.permits.availablePermits(), lane.waiting.get(), lane.admitted.get(),
+                    lane.queued.get(), lane.rejected.get()));
+        }
+
+        return sb.toString();
+    }
+
+    // --- internal ---
+
+    private Lane getLane(String operationClass) {
+        try {
+            return lanes[OperationClass.valueOf(operationClass.trim().toUpperCase(Locale.ENGLISH)).ordinal()];
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Unknown operation class: " + operationClass);
+        }
+    }
+
+    /**
+     * Returns the number of users with active calls.
+     */
+    int getActiveUserCount() {
+        synchronized (userCalls) {
+            return userCalls.size();
+        }
+    }
+
+    private boolean incrementUserCalls(String user) {
+        synchronized (userCalls) {
+            Integer count = userCalls.get(user);
+            int newCount = (count == null ? 1 : count.intValue() + 1);
+            if (newCount > perUserLimit) {
+                return false;
+            }
+
+            userCalls.put(user, newCount);
+            return true;
+        }
+    }
+
+    private void decrementUserCalls(String user) {
+        synchronized (userCalls) {
+            Integer count = userCalls.get(user);
+            if (count == null || count.intValue() <= 1) {
+                userCalls.remove(user);
+            } else {
+                userCalls.put(user, count.intValue() - 1);
+            }
+        }
+    }
+
+    private static int getInt(Map<String, String> settings, String name, int defaultValue) {
+        String value = settings.get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new CmisRuntimeException("Invalid admission control setting: " + name + "=" + value, e);
+        }
+    }
+
+    private void register(int index) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName("org.apache.chemistry.opencmis:type=AdmissionController,name="
+                    + index);
+            if (!server.isRegistered(objectName)) {
+                server.registerMBean(this, objectName);
+            }
+        } catch (Exception e) {
+            LOG.warn("Could not register admission controller MBean: {}", e.toString(), e);
+        }
+    }
+
+    /**
+     * Permits and statistics of one operation class.
+     */
+    private static class Lane {
+        final int limit;
+        final int maxQueue;
+        final Semaphore permits;
+        final AtomicInteger waiting = new AtomicInteger();
+        final AtomicLong admitted = new AtomicLong();
+        final AtomicLong queued = new AtomicLong();
+        final AtomicLong rejected = new AtomicLong();
+
+        Lane(int limit, int maxQueue) {
+            this.limit = limit;
+            this.maxQueue = maxQueue;
+            this.permits = new Semaphore(limit, true);
+        }
+    }
+
+    /**
+     * A granted permit.
+     */
+    public static class Permit {
+        private final AdmissionController controller;
+        private final Lane lane;
+        private final String user;
+        private final AtomicBoolean released = new AtomicBoolean(false);
+
+        Permit(AdmissionController controller, Lane lane, String user) {
+            this.controller = controller;
+            this.lane = lane;
+            this.user = user;
+        }
+
+        /**
+         * Releases the permit. Subsequent calls have no effect.
+         */
+        public void release() {
+            if (!released.compareAndSet(false, true)) {
+                return;
+            }
+
+            lane.permits.release();
+            controller.decrementUserCalls(user);
+        }
+    }
+}
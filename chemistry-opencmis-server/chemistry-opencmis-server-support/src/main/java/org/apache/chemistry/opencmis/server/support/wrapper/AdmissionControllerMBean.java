@@ -0,0 +1,46 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.chemistry.opencmis.server.support.wrapper;
+
+/**
+ * JMX interface of {@link AdmissionController}. Operation classes are
+ * <code>read</code>, <code>expensive</code> and <code>write</code>.
+ */
+public interface AdmissionControllerMBean {
+
+    long getAdmittedCount(String operationClass);
+
+    /**
+     * Returns how many admitted calls had to wait for a permit.
+     */
+    long getQueuedCount(String operationClass);
+
+    long getRejectedCount(String operationClass);
+
+    int getActiveCount(String operationClass);
+
+    int getWaitingCount(String operationClass);
+
+    long getTotalRejectedCount();
+
+    /**
+     * Returns a human readable report of all operation classes.
+     */
+    String getReport();
+}
@@ -0,0 +1,523 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License",repositoryId); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.chemistry.opencmis.server.support.wrapper;
+
+import java.math.BigInteger;
+import java.util.List;
+
+import org.apache.chemistry.opencmis.commons.data.Acl;
+import org.apache.chemistry.opencmis.commons.data.BulkUpdateObjectIdAndChangeToken;
+import org.apache.chemistry.opencmis.commons.data.ContentStream;
+import org.apache.chemistry.opencmis.commons.data.ExtensionsData;
+import org.apache.chemistry.opencmis.commons.data.FailedToDeleteData;
+import org.apache.chemistry.opencmis.commons.data.ObjectData;
+import org.apache.chemistry.opencmis.commons.data.ObjectInFolderList;
+import org.apache.chemistry.opencmis.commons.data.Properties;
+import org.apache.chemistry.opencmis.commons.data.RepositoryInfo;
+import org.apache.chemistry.opencmis.commons.definitions.TypeDefinition;
+import org.apache.chemistry.opencmis.commons.definitions.TypeDefinitionContainer;
+import org.apache.chemistry.opencmis.commons.definitions.TypeDefinitionList;
+import org.apache.chemistry.opencmis.commons.enums.AclPropagation;
+import org.apache.chemistry.opencmis.commons.enums.IncludeRelationships;
+import org.apache.chemistry.opencmis.commons.enums.UnfileObject;
+import org.apache.chemistry.opencmis.commons.enums.VersioningState;
+import org.apache.chemistry.opencmis.commons.server.CallContext;
+import org.apache.chemistry.opencmis.commons.server.CmisService;
+import org.apache.chemistry.opencmis.commons.spi.Holder;
+
+/**
+ * Service wrapper that caches the responses of read-mostly operations.
+ * <p>
+ * Responses are cached per operation, repository, arguments and user. Calls
+ * with extension data are never cached. All write operations that pass
+ * through this wrapper invalidate the cached responses of the repository.
+ * Changes that bypass the wrapper, for example from another cluster node,
+ * are only picked up when the entries expire.
+ * <p>
+ * By default, <code>getRepositoryInfos</code>, <code>getRepositoryInfo</code>,
+ * <code>getTypeChildren</code>, <code>getTypeDescendants</code>,
+ * <code>getTypeDefinition</code>, <code>getObjectByPath</code> and
+ * <code>getChildren</code> are cached. The wrapper parameters override the
+ * size and time to live (in seconds) per operation. A size of 0 turns off
+ * caching for an operation. For example:
+ *
+ * <pre>
+ * servicewrapper.1=org.apache.chemistry.opencmis.server.support.wrapper.CachingCmisServiceWrapper,getChildren=5000:10,getObjectByPath=0:0
+ * </pre>
+ *
+ * Every cache hit returns a copy of the cached response.
+ * <code>getChildren</code> and <code>getObjectByPath</code> are not cached
+ * if the binding requires object infos (AtomPub), because a cache hit would
+ * not provide them.
+ */
+@SuppressWarnings("unchecked")
+public class CachingCmisServiceWrapper extends AbstractCmisServiceWrapper {
+
+    private CmisResponseCache cache;
+
+    public CachingCmisServiceWrapper(CmisService service) {
+        super(service);
+        cache = CmisResponseCache.getInstance(null);
+    }
+
+    @Override
+    public void initialize(Object[] params) {
+        cache = CmisResponseCache.getInstance(params);
+    }
+
+    /**
+     * Returns the response cache used by this wrapper.
+     */
+    public CmisResponseCache getCache() {
+        return cache;
+    }
+
+    /**
+     * Creates the cache key for a call.
+     *
+     * @return the key or <code>null</code> if the call must not be cached
+     */
+    protected CmisResponseCache.Key createKey(String operation, String repositoryId, ExtensionsData extension,
+            Object... args) {
+        if (extension != null) {
+            return null;
+        }
+
+        CallContext context = getCallContext();
+        String principal = (context == null ? null : context.getUsername());
+
+        return cache.createKey(operation, repositoryId, principal, args);
+    }
+
+    /**
+     * Returns whether the binding requires object infos for this call.
+     */
+    protected boolean isObjectInfoRequired() {
+        CallContext context = getCallContext();
+        return context != null && context.isObjectInfoRequired();
+    }
+
+    /**
+     * Invalidates the cached responses of a repository.
+     */
+    protected void invalidate(String repositoryId) {
+        cache.invalidate(repositoryId);
+    }
+
+    public List<RepositoryInfo> getRepositoryInfos(ExtensionsData extension) {
+        CmisResponseCache.Key key = createKey("getRepositoryInfos", null, extension);
+        if (key != null) {
+            Object cached = cache.get(key);
+            if (cached != null) {
+                return (List<RepositoryInfo>) cached;
+            }
+        }
+
+        List<RepositoryInfo> result = getWrappedService().getRepositoryInfos(extension);
+        if (key != null) {
+            cache.put(key, result);
+        }
+
+        return result;
+    }
+
+    public RepositoryInfo getRepositoryInfo(String repositoryId, ExtensionsData extension) {
+        CmisResponseCache.Key key = createKey("getRepositoryInfo", repositoryId, extension);
+        if (key != null) {
+            Object cached = cache.get(key);
+            if (cached != null) {
+                return (RepositoryInfo) cached;
+            }
+        }
+
+        RepositoryInfo result = getWrappedService().getRepositoryInfo(repositoryId, extension);
+        if (key != null) {
+            cache.put(key, result);
+        }
+
+        return result;
+    }
+
+    public TypeDefinitionList getTypeChildren(String repositoryId, String typeId, Boolean includePropertyDefinitions,
+            BigInteger maxItems, BigInteger skipCount, ExtensionsData extension) {
+        CmisResponseCache.Key key = createKey("getTypeChildren", repositoryId, extension, typeId,
+                includePropertyDefinitions, maxItems, skipCount);
+        if (key != null) {
+            Object cached = cache.get(key);
+            if (cached != null) {
+                return (TypeDefinitionList) cached;
+            }
+        }
+
+        TypeDefinitionList result = getWrappedService().getTypeChildren(repositoryId, typeId,
+                includePropertyDefinitions, maxItems, skipCount, extension);
+        if (key != null) {
+            cache.put(key, result);
+        }
+
+        return result;
+    }
+
+    public List<TypeDefinitionContainer> getTypeDescendants(String repositoryId, String typeId, BigInteger depth,
+            Boolean includePropertyDefinitions, ExtensionsData extension) {
+        CmisResponseCache.Key key = createKey("getTypeDescendants", repositoryId, extension, typeId, depth,
+                includePropertyDefinitions);
+        if (key != null) {
+            Object cached = cache.get(key);
+            if (cached != null) {
+                return (List<TypeDefinitionContainer>) cached;
+            }
+        }
+
+        List<TypeDefinitionContainer> result = getWrappedService().getTypeDescendants(repositoryId, typeId, depth,
+                includePropertyDefinitions, extension);
+        if (key != null) {
+            cache.put(key, result);
+        }
+
+        return result;
+    }
+
+    public TypeDefinition getTypeDefinition(String repositoryId, String typeId, ExtensionsData extension) {
+        CmisResponseCache.Key key = createKey("getTypeDefinition", repositoryId, extension, typeId);
+        if (key != null) {
+            Object cached = cache.get(key);
+            if (cached != null) {
+                return (TypeDefinition) cached;
+            }
+        }
+
+        TypeDefinition result = getWrappedService().getTypeDefinition(repositoryId, typeId, extension);
+        if (key != null) {
+            cache.put(key, result);
+        }
+
+        return result;
+    }
+
+    public ObjectInFolderList getChildren(String repositoryId, String folderId, String filter, String orderBy,
+            Boolean includeAllowableActions, IncludeRelationships includeRelationships, String renditionFilter,
+            Boolean includePathSegment, BigInteger maxItems, BigInteger skipCount, ExtensionsData extension) {
+        CmisResponseCache.Key key = null;
+        if (!isObjectInfoRequired()) {
+            key = createKey("getChildren", repositoryId, extension, folderId, filter, orderBy, includeAllowableActions,
+                    includeRelationships, renditionFilter, includePathSegment, maxItems, skipCount);
+        }
+        if (key != null) {
+            Object cached = cache.get(key);
+            if (cached != null) {
+                return (ObjectInFolderList) cached;
+            }
+        }
+
+        ObjectInFolderList result = getWrappedService().getChildren(repositoryId, folderId, filter, orderBy,
+                includeAllowableActions, includeRelationships, renditionFilter, includePathSegment, maxItems,
+                skipCount, extension);
+        if (key != null) {
+            cache.put(key, result);
+        }
+
+        return result;
+    }
+
+    public ObjectData getObjectByPath(String repositoryId, String path, String filter, Boolean includeAllowableActions,
+            IncludeRelationships includeRelationships, String renditionFilter, Boolean includePolicyIds,
+            Boolean includeAcl, ExtensionsData extension) {
+        CmisResponseCache.Key key = null;
+        if (!isObjectInfoRequired()) {
+            key = createKey("getObjectByPath", repositoryId, extension, path, filter, includeAllowableActions,
+                    includeRelationships, renditionFilter, includePolicyIds, includeAcl);
+        }
+        if (key != null) {
+            Object cached = cache.get(key);
+            if (cached != null) {
+                return (ObjectData) cached;
+            }
+        }
+
+        ObjectData result = getWrappedService().getObjectByPath(repositoryId, path, filter, includeAllowableActions,
+                includeRelationships, renditionFilter, includePolicyIds, includeAcl, extension);
+        if (key != null) {
+            cache.put(key, result);
+        }
+
+        return result;
+    }
+
+    // --- write operations ---
+
+    public TypeDefinition createType(String repositoryId, TypeDefinition type, ExtensionsData extension) {
+        try {
+            return getWrappedService().createType(repositoryId, type, extension);
+        } finally {
+            invalidate(repositoryId);
+        }
+    }
+
+    public TypeDefinition updateType(String repositoryId, TypeDefinition type, ExtensionsData extension) {
+        try {
+            return getWrappedService().updateType(repositoryId, type, extension);
+        } finally {
+            invalidate(repositoryId);
+        }
+    }
+
+    public void deleteType(String repositoryId, String typeId, ExtensionsData extension) {
+        try {
+            getWrappedService().deleteType(repositoryId, typeId, extension);
+        } finally {
+            invalidate(repositoryId);
+        }
+    }
+
+    public String createDocument(String repositoryId, Properties properties, String folderId,
+            ContentStream contentStream, VersioningState versioningState, List<String> policies, Acl addAces,
+            Acl removeAces, ExtensionsData extension) {
+        try {
+            return getWrappedService().createDocument(repositoryId, properties, folderId, contentStream,
+                    versioningState, policies, addAces, removeAces, extension);
+        } finally {
+            invalidate(repositoryId);
+        }
+    }
+
+    public String createDocumentFromSource(String repositoryId, String sourceId, Properties properties,
+            String folderId, VersioningState versioningState, List<String> policies, Acl addAces, Acl removeAces,
+            ExtensionsData extension) {
+        try {
+            return getWrappedService().createDocumentFromSource(repositoryId, sourceId, properties, folderId,
+                    versioningState, policies, addAces, removeAces, extension);
+        } finally {
+            invalidate(repositoryId);
+        }
+    }
+
+    public String createFolder(String repositoryId, Properties properties, String folderId, List<String> policies,
+            Acl addAces, Acl removeAces, ExtensionsData extension) {
+        try {
+            return getWrappedService().createFolder(repositoryId, properties, folderId, policies, addAces, removeAces,
+                    extension);
+        } finally {
+            invalidate(repositoryId);
+        }
+    }
+
+    public String createRelationship(String repositoryId, Properties properties, List<String> policies, Acl addAces,
+            Acl removeAces, ExtensionsData extension) {
+        try {
+            return getWrappedService().createRelationship(repositoryId, properties, policies, addAces, removeAces,
+                    extension);
+        } finally {
+            invalidate(repositoryId);
+        }
+    }
+
+    public String createPolicy(String repositoryId, Properties properties, String folderId, List<String> policies,
+            Acl addAces, Acl removeAces, ExtensionsData extension) {
+        try {
+            return getWrappedService().createPolicy(repositoryId, properties, folderId, policies, addAces, removeAces,
+                    extension);
+        } finally {
+            invalidate(repositoryId);
+        }
+    }
+
+    public String createItem(String repositoryId, Properties properties, String folderId, List<String> policies,
+            Acl addAces, Acl removeAces, ExtensionsData extension) {
+        try {
+            return getWrappedService().createItem(repositoryId, properties, folderId, policies, addAces, removeAces,
+                    extension);
+        } finally {
+            invalidate(repositoryId);
+        }
+    }
+
+    public void updateProperties(String repositoryId, Holder<String> objectId, Holder<String> changeToken,
+            Properties properties, ExtensionsData extension) {
+        try {
+            getWrappedService().updateProperties(repositoryId, objectId, changeToken, properties, extension);
+        } finally {
+            invalidate(repositoryId);
+        }
+    }
+
+    public List<BulkUpdateObjectIdAndChangeToken> bulkUpdateProperties(String repositoryId,
+            List<BulkUpdateObjectIdAndChangeToken> objectIdsAndChangeTokens, Properties properties,
+            List<String> addSecondaryTypeIds, List<String> removeSecondaryTypeIds, ExtensionsData extension) {
+        try {
+            return getWrappedService().bulkUpdateProperties(repositoryId, objectIdsAndChangeTokens, properties,
+                    addSecondaryTypeIds, removeSecondaryTypeIds, extension);
+        } finally {
+            invalidate(repositoryId);
+        }
+    }
+
+    public void moveObject(String repositoryId, Holder<String> objectId, String targetFolderId, String sourceFolderId,
+            ExtensionsData extension) {
+        try {
+            getWrappedService().moveObject(repositoryId, objectId, targetFolderId, sourceFolderId, extension);
+        } finally {
+            invalidate(repositoryId);
+        }
+    }
+
+    public void deleteObject(String repositoryId, String objectId, Boolean allVersions, ExtensionsData extension) {
+        try {
+            getWrappedService().deleteObject(repositoryId, objectId, allVersions, extension);
+        } finally {
+            invalidate(repositoryId);
+        }
+    }
+
+    public FailedToDeleteData deleteTree(String repositoryId, String folderId, Boolean allVersions,
+            UnfileObject unfileObjects, Boolean continueOnFailure, ExtensionsData extension) {
+        try {
+            return getWrappedService().deleteTree(repositoryId, folderId, allVersions, unfileObjects, continueOnFailure,
+                    extension);
+        } finally {
+            invalidate(repositoryId);
+        }
+    }
+
+    public void setContentStream(String repositoryId, Holder<String> objectId, Boolean overwriteFlag,
+            Holder<String> changeToken, ContentStream contentStream, ExtensionsData extension) {
+        try {
+            getWrappedService().setContentStream(repositoryId, objectId, overwriteFlag, changeToken, contentStream,
+                    extension);
+        } finally {
+            invalidate(repositoryId);
+        }
+    }
+
+    public void deleteContentStream(String repositoryId, Holder<String> objectId, Holder<String> changeToken,
+            ExtensionsData extension) {
+        try {
+            getWrappedService().deleteContentStream(repositoryId, objectId, changeToken, extension);
+        } finally {
+            invalidate(repositoryId);
+        }
+    }
+
+    public void appendContentStream(String repositoryId, Holder<String> objectId, Holder<String> changeToken,
+            ContentStream contentStream, boolean isLastChunk, ExtensionsData extension) {
+        try {
+            getWrappedService().appendContentStream(repositoryId, objectId, changeToken, contentStream, isLastChunk,
+                    extension);
+        } finally {
+            invalidate(repositoryId);
+        }
+    }
+
+    public void checkOut(String repositoryId, Holder<String> objectId, ExtensionsData extension,
+            Holder<Boolean> contentCopied) {
+        try {
+            getWrappedService().checkOut(repositoryId, objectId, extension, contentCopied);
+        } finally {
+            invalidate(repositoryId);
+        }
+    }
+
+    public void cancelCheckOut(String repositoryId, String objectId, ExtensionsData extension) {
+        try {
+            getWrappedService().cancelCheckOut(repositoryId, objectId, extension);
+        } finally {
+            invalidate(repositoryId);
+        }
+    }
+
+    public void checkIn(String repositoryId, Holder<String> objectId, Boolean major, Properties properties,
+            ContentStream contentStream, String checkinComment, List<String> policies, Acl addAces, Acl removeAces,
+            ExtensionsData extension) {
+        try {
+            getWrappedService().checkIn(repositoryId, objectId, major, properties, contentStream, checkinComment,
+                    policies, addAces, removeAces, extension);
+        } finally {
+            invalidate(repositoryId);
+        }
+    }
+
+    public void addObjectToFolder(String repositoryId, String objectId, String folderId, Boolean allVersions,
+            ExtensionsData extension) {
+        try {
+            getWrappedService().addObjectToFolder(repositoryId, objectId, folderId, allVersions, extension);
+        } finally {
+            invalidate(repositoryId);
+        }
+    }
+
+    public void removeObjectFromFolder(String repositoryId, String objectId, String folderId, ExtensionsData extension) {
+        try {
+            getWrappedService().removeObjectFromFolder(repositoryId, objectId, folderId, extension);
+        } finally {
+            invalidate(repositoryId);
+        }
+    }
+
+    public Acl applyAcl(String repositoryId, String objectId, Acl addAces, Acl removeAces,
+            AclPropagation aclPropagation, ExtensionsData extension) {
+        try {
+            return getWrappedService().applyAcl(repositoryId, objectId, addAces, removeAces, aclPropagation, extension);
+        } finally {
+            invalidate(repositoryId);
+        }
+    }
+
+    public void applyPolicy(String repositoryId, String policyId, String objectId, ExtensionsData extension) {
+        try {
+            getWrappedService().applyPolicy(repositoryId, policyId, objectId, extension);
+        } finally {
+            invalidate(repositoryId);
+        }
+    }
+
+    public void removePolicy(String repositoryId, String policyId, String objectId, ExtensionsData extension) {
+        try {
+            getWrappedService().removePolicy(repositoryId, policyId, objectId, extension);
+        } finally {
+            invalidate(repositoryId);
+        }
+    }
+
+    public String create(String repositoryId, Properties properties, String folderId, ContentStream contentStream,
+            VersioningState versioningState, List<String> policies, ExtensionsData extension) {
+        try {
+            return getWrappedService().create(repositoryId, properties, folderId, contentStream, versioningState,
+                    policies, extension);
+        } finally {
+            invalidate(repositoryId);
+        }
+    }
+
+    public void deleteObjectOrCancelCheckOut(String repositoryId, String objectId, Boolean allVersions,
+            ExtensionsData extension) {
+        try {
+            getWrappedService().deleteObjectOrCancelCheckOut(repositoryId, objectId, allVersions, extension);
+        } finally {
+            invalidate(repositoryId);
+        }
+    }
+
+    public Acl applyAcl(String repositoryId, String objectId, Acl aces, AclPropagation aclPropagation) {
+        try {
+            return getWrappedService().applyAcl(repositoryId, objectId, aces, aclPropagation);
+        } finally {
+            invalidate(repositoryId);
+        }
+    }
+}
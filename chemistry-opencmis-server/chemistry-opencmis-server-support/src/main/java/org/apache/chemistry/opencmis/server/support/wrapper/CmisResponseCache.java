@@ -0,0 +1,311 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.chemistry.opencmis.server.support.wrapper;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.chemistry.opencmis.commons.exceptions.CmisRuntimeException;
+
+/**
+ * Response cache used by {@link CachingCmisServiceWrapper}.
+ * <p>
+ * Each cached operation has its own LRU map with a size bound and a time to
+ * live. Write operations invalidate a repository by incrementing its
+ * generation number. The generation is part of every cache key, so stale
+ * entries are never returned and simply age out of the LRU maps.
+ * <p>
+ * The cache holds private copies of the responses and hands out copies, so
+ * callers may modify what they get. See {@link CmisResponseCopier}.
+ * <p>
+ * Instances are shared by all wrappers with the same configuration.
+ */
+public class CmisResponseCache {
+
+    /** Default configuration: operation, size, time to live in seconds. */
+    private static final Object[][] DEFAULTS = new Object[][] { { "getRepositoryInfos", 10, 60 },
+            { "getRepositoryInfo", 100, 60 }, { "getTypeChildren", 500, 600 }, { "getTypeDescendants", 100, 600 },
+            { "getTypeDefinition", 1000, 600 }, { "getObjectByPath", 1000, 30 }, { "getChildren", 1000, 30 } };
+
+    private static final String ALL_REPOSITORIES = "";
+
+    private static final ConcurrentMap<String, CmisResponseCache> INSTANCES = new ConcurrentHashMap<String, CmisResponseCache>();
+
+    private final Map<String, OperationCache> caches;
+    private final ConcurrentMap<String, AtomicLong> generations = new ConcurrentHashMap<String, AtomicLong>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Constructor.
+     *
+     * @param params
+     *            operation settings in the form
+     *            <code>&lt;operation&gt;=&lt;size&gt;:&lt;ttl in seconds&gt;</code>
+     *            , override the defaults; a size of 0 turns off caching for
+     *            the operation
+     */
+    public CmisResponseCache(Object[] params) {
+        Map<String, OperationCache> map = new HashMap<String, OperationCache>();
+
+        for (Object[] def : DEFAULTS) {
+            map.put((String) def[0], new OperationCache((Integer) def[1], (Integer) def[2] * 1000L));
+        }
+
+        if (params != null) {
+            for (Object param : params) {
+                if (param == null || param.toString().trim().length() == 0) {
+                    continue;
+                }
+
+                String setting = param.toString().trim();
+                int eq = setting.indexOf('=');
+                int colon = setting.indexOf(':', eq + 1);
+                if (eq < 1 || colon < 0) {
+                    throw new CmisRuntimeException("Invalid response cache setting: " + setting);
+                }
+
+                try {
+                    String operation = setting.substring(0, eq).trim();
+                    int size = Integer.parseInt(setting.substring(eq + 1, colon).trim());
+                    long ttl = Long.parseLong(setting.substring(colon + 1).trim()) * 1000L;
+
+                    if (size <= 0) {
+                        map.remove(operation);
+                    } else {
+                        map.put(operation, new OperationCache(size, ttl));
+                    }
+                } catch (NumberFormatException e) {
+                    throw new CmisRuntimeException("Invalid response cache setting: " + setting, e);
+                }
+            }
+        }
+
+        caches = Collections.unmodifiableMap(map);
+    }
+
+    /**
+     * Returns the shared cache for the given configuration.
+     */
+    public static CmisResponseCache getInstance(Object[] params) {
+        String config = (params == null ? "" : Arrays.toString(params));
+
+        CmisResponseCache cache = INSTANCES.get(config);
+        if (cache == null) {
+            CmisResponseCache newCache = new CmisResponseCache(params);
+            cache = INSTANCES.putIfAbsent(config, newCache);
+            if (cache == null) {
+                cache = newCache;
+            }
+        }
+
+        return cache;
+    }
+
+    /**
+     * Creates a cache key.
+     *
+     * @return the key or <code>null</code> if the operation isn't cached
+     */
+    public Key createKey(String operation, String repositoryId, String principal, Object... args) {
+        if (!caches.containsKey(operation)) {
+            return null;
+        }
+
+        return new Key(operation, repositoryId, getGeneration(repositoryId), principal, args);
+    }
+
+    /**
+     * Returns a copy of a cached response or <code>null</code>.
+     */
+    public Object get(Key key) {
+        Object value = caches.get(key.operation).get(key);
+        if (value == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+
+        hits.incrementAndGet();
+
+        return CmisResponseCopier.copy(value);
+    }
+
+    /**
+     * Adds a copy of a response to the cache. <code>null</code> values and
+     * values that cannot be copied are ignored.
+     */
+    public void put(Key key, Object value) {
+        if (value == null) {
+            return;
+        }
+
+        Object copy;
+        try {
+            copy = CmisResponseCopier.copy(value);
+        } catch (IllegalArgumentException e) {
+            // some part of the response is not serializable
+            return;
+        }
+
+        caches.get(key.operation).put(key, copy);
+    }
+
+    /**
+     * Invalidates all cached responses of a repository and all responses that
+     * cover all repositories.
+     */
+    public void invalidate(String repositoryId) {
+        getGenerationCounter(repositoryId).incrementAndGet();
+        getGenerationCounter(ALL_REPOSITORIES).incrementAndGet();
+    }
+
+    /**
+     * Removes all cached responses.
+     */
+    public void clear() {
+        for (OperationCache cache : caches.values()) {
+            cache.clear();
+        }
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    private long getGeneration(String repositoryId) {
+        return getGenerationCounter(repositoryId).get();
+    }
+
+    private AtomicLong getGenerationCounter(String repositoryId) {
+        String repId = (repositoryId == null ? ALL_REPOSITORIES : repositoryId);
+
+        AtomicLong counter = generations.get(repId);
+        if (counter == null) {
+            AtomicLong newCounter = new AtomicLong();
+            counter = generations.putIfAbsent(repId, newCounter);
+            if (counter == null) {
+                counter = newCounter;
+            }
+        }
+
+        return counter;
+    }
+
+    /**
+     * Cache key.
+     */
+    public static final class Key {
+        private final String operation;
+        private final Object[] parts;
+        private final int hashCode;
+
+        Key(String operation, String repositoryId, long generation, String principal, Object[] args) {
+            this.operation = operation;
+
+            parts = new Object[args.length + 4];
+            parts[0] = operation;
+            parts[1] = repositoryId;
+            parts[2] = generation;
+            parts[3] = principal;
+            System.arraycopy(args, 0, parts, 4, args.length);
+
+            hashCode = Arrays.hashCode(parts);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+
+            return Arrays.equals(parts, ((Key) obj).parts);
+        }
+    }
+
+    /**
+     * LRU cache of one operation.
+     */
+    private static class OperationCache {
+        private final long ttl;
+        private final LinkedHashMap<Key, Entry> map;
+
+        public OperationCache(final int size, long ttl) {
+            this.ttl = ttl;
+            this.map = new LinkedHashMap<Key, Entry>(16, 0.75f, true) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                    return size() > size;
+                }
+            };
+        }
+
+        public synchronized Object get(Key key) {
+            Entry entry = map.get(key);
+            if (entry == null) {
+                return null;
+            }
+
+            if (entry.expires < System.currentTimeMillis()) {
+                map.remove(key);
+                return null;
+            }
+
+            return entry.value;
+        }
+
+        public synchronized void put(Key key, Object value) {
+            map.put(key, new Entry(value, System.currentTimeMillis() + ttl));
+        }
+
+        public synchronized void clear() {
+            map.clear();
+        }
+    }
+
+    private static class Entry {
+        final Object value;
+        final long expires;
+
+        Entry(Object value, long expires) {
+            this.value = value;
+            this.expires = expires;
+        }
+    }
+}
@@ -0,0 +1,399 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.chemistry.opencmis.server.support.wrapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.GregorianCalendar;
+import java.util.HashSet;
+import java.util.List;
+
+import org.apache.chemistry.opencmis.commons.data.Ace;
+import org.apache.chemistry.opencmis.commons.data.Acl;
+import org.apache.chemistry.opencmis.commons.data.AllowableActions;
+import org.apache.chemistry.opencmis.commons.data.ChangeEventInfo;
+import org.apache.chemistry.opencmis.commons.data.CmisExtensionElement;
+import org.apache.chemistry.opencmis.commons.data.ExtensionsData;
+import org.apache.chemistry.opencmis.commons.data.ObjectData;
+import org.apache.chemistry.opencmis.commons.data.ObjectInFolderData;
+import org.apache.chemistry.opencmis.commons.data.ObjectInFolderList;
+import org.apache.chemistry.opencmis.commons.data.PolicyIdList;
+import org.apache.chemistry.opencmis.commons.data.Properties;
+import org.apache.chemistry.opencmis.commons.data.PropertyBoolean;
+import org.apache.chemistry.opencmis.commons.data.PropertyData;
+import org.apache.chemistry.opencmis.commons.data.PropertyDateTime;
+import org.apache.chemistry.opencmis.commons.data.PropertyDecimal;
+import org.apache.chemistry.opencmis.commons.data.PropertyHtml;
+import org.apache.chemistry.opencmis.commons.data.PropertyId;
+import org.apache.chemistry.opencmis.commons.data.PropertyInteger;
+import org.apache.chemistry.opencmis.commons.data.PropertyString;
+import org.apache.chemistry.opencmis.commons.data.PropertyUri;
+import org.apache.chemistry.opencmis.commons.data.RenditionData;
+import org.apache.chemistry.opencmis.commons.definitions.TypeDefinition;
+import org.apache.chemistry.opencmis.commons.definitions.TypeDefinitionContainer;
+import org.apache.chemistry.opencmis.commons.definitions.TypeDefinitionList;
+import org.apache.chemistry.opencmis.commons.enums.Action;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.AbstractPropertyData;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.AccessControlEntryImpl;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.AccessControlListImpl;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.AccessControlPrincipalDataImpl;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.AllowableActionsImpl;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.ChangeEventInfoDataImpl;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.ObjectDataImpl;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.ObjectInFolderDataImpl;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.ObjectInFolderListImpl;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.PolicyIdListImpl;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.PropertiesImpl;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.PropertyBooleanImpl;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.PropertyDateTimeImpl;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.PropertyDecimalImpl;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.PropertyHtmlImpl;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.PropertyIdImpl;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.PropertyIntegerImpl;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.PropertyStringImpl;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.PropertyUriImpl;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.RenditionDataImpl;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.TypeDefinitionContainerImpl;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.TypeDefinitionListImpl;
+import org.apache.chemistry.opencmis.server.support.TypeDefinitionFactory;
+
+/**
+ * Copies the responses held by {@link CmisResponseCache}.
+ * <p>
+ * Objects, children lists and type definitions are copied field by field,
+ * which is much cheaper than a serialization round trip. Only the mutable
+ * parts are copied: strings, numbers, enums and extension elements are
+ * immutable and shared. All other responses, for example repository infos,
+ * are copied through serialization.
+ */
+final class CmisResponseCopier {
+
+    private static final TypeDefinitionFactory TYPE_FACTORY = TypeDefinitionFactory.newInstance();
+
+    private CmisResponseCopier() {
+    }
+
+    /**
+     * Copies a response.
+     *
+     * @throws IllegalArgumentException
+     *             if the response cannot be copied
+     */
+    public static Object copy(Object value) {
+        if (value == null) {
+            return null;
+        } else if (value instanceof ObjectData) {
+            return copyObject((ObjectData) value);
+        } else if (value instanceof ObjectInFolderList) {
+            return copyObjectInFolderList((ObjectInFolderList) value);
+        } else if (value instanceof TypeDefinition) {
+            return copyType((TypeDefinition) value);
+        } else if (value instanceof TypeDefinitionList) {
+            return copyTypeList((TypeDefinitionList) value);
+        } else if (value instanceof TypeDefinitionContainer) {
+            return copyTypeContainer((TypeDefinitionContainer) value);
+        } else if (value instanceof List<?>) {
+            List<Object> result = new ArrayList<Object>(((List<?>) value).size());
+            for (Object item : (List<?>) value) {
+                result.add(copy(item));
+            }
+            return result;
+        }
+
+        return copySerializable(value);
+    }
+
+    private static ObjectInFolderList copyObjectInFolderList(ObjectInFolderList list) {
+        ObjectInFolderListImpl result = new ObjectInFolderListImpl();
+
+        if (list.getObjects() != null) {
+            List<ObjectInFolderData> objects = new ArrayList<ObjectInFolderData>(list.getObjects().size());
+            for (ObjectInFolderData objectInFolder : list.getObjects()) {
+                ObjectInFolderDataImpl copy = new ObjectInFolderDataImpl();
+                copy.setObject(copyObject(objectInFolder.getObject()));
+                copy.setPathSegment(objectInFolder.getPathSegment());
+                copyExtensions(objectInFolder, copy);
+                objects.add(copy);
+            }
+            result.setObjects(objects);
+        }
+
+        result.setHasMoreItems(list.hasMoreItems());
+        result.setNumItems(list.getNumItems());
+        copyExtensions(list, result);
+
+        return result;
+    }
+
+    private static ObjectData copyObject(ObjectData object) {
+        if (object == null) {
+            return null;
+        }
+
+        ObjectDataImpl result = new ObjectDataImpl();
+
+        result.setProperties(copyProperties(object.getProperties()));
+        result.setAllowableActions(copyAllowableActions(object.getAllowableActions()));
+        result.setChangeEventInfo(copyChangeEventInfo(object.getChangeEventInfo()));
+        result.setAcl(copyAcl(object.getAcl()));
+        result.setIsExactAcl(object.isExactAcl());
+        result.setPolicyIds(copyPolicyIds(object.getPolicyIds()));
+
+        if (object.getRelationships() != null) {
+            List<ObjectData> relationships = new ArrayList<ObjectData>(object.getRelationships().size());
+            for (ObjectData relationship : object.getRelationships()) {
+                relationships.add(copyObject(relationship));
+            }
+            result.setRelationships(relationships);
+        }
+
+        if (object.getRenditions() != null) {
+            List<RenditionData> renditions = new ArrayList<RenditionData>(object.getRenditions().size());
+            for (RenditionData rendition : object.getRenditions()) {
+                renditions.add(copyRendition(rendition));
+            }
+            result.setRenditions(renditions);
+        }
+
+        copyExtensions(object, result);
+
+        return result;
+    }
+
+    private static Properties copyProperties(Properties properties) {
+        if (properties == null) {
+            return null;
+        }
+
+        PropertiesImpl result = new PropertiesImpl();
+        if (properties.getPropertyList() != null) {
+            for (PropertyData<?> property : properties.getPropertyList()) {
+                result.addProperty(copyProperty(property));
+            }
+        }
+        copyExtensions(properties, result);
+
+        return result;
+    }
+
+    private static PropertyData<?> copyProperty(PropertyData<?> property) {
+        AbstractPropertyData<?> result;
+
+        if (property instanceof PropertyId) {
+            result = new PropertyIdImpl(property.getId(), copyValues(((PropertyId) property).getValues()));
+        } else if (property instanceof PropertyString) {
+            result = new PropertyStringImpl(property.getId(), copyValues(((PropertyString) property).getValues()));
+        } else if (property instanceof PropertyBoolean) {
+            result = new PropertyBooleanImpl(property.getId(), copyValues(((PropertyBoolean) property).getValues()));
+        } else if (property instanceof PropertyInteger) {
+            result = new PropertyIntegerImpl(property.getId(), copyValues(((PropertyInteger) property).getValues()));
+        } else if (property instanceof PropertyDecimal) {
+            result = new PropertyDecimalImpl(property.getId(), copyValues(((PropertyDecimal) property).getValues()));
+        } else if (property instanceof PropertyDateTime) {
+            List<GregorianCalendar> values = null;
+            if (((PropertyDateTime) property).getValues() != null) {
+                values = new ArrayList<GregorianCalendar>();
+                for (GregorianCalendar value : ((PropertyDateTime) property).getValues()) {
+                    values.add(value == null ? null : (GregorianCalendar) value.clone());
+                }
+            }
+            result = new PropertyDateTimeImpl(property.getId(), values);
+        } else if (property instanceof PropertyHtml) {
+            result = new PropertyHtmlImpl(property.getId(), copyValues(((PropertyHtml) property).getValues()));
+        } else if (property instanceof PropertyUri) {
+            result = new PropertyUriImpl(property.getId(), copyValues(((PropertyUri) property).getValues()));
+        } else {
+            return (PropertyData<?>) copySerializable(property);
+        }
+
+        result.setDisplayName(property.getDisplayName());
+        result.setLocalName(property.getLocalName());
+        result.setQueryName(property.getQueryName());
+        copyExtensions(property, result);
+
+        return result;
+    }
+
+    private static <T> List<T> copyValues(List<T> values) {
+        return values == null ? null : new ArrayList<T>(values);
+    }
+
+    private static AllowableActions copyAllowableActions(AllowableActions allowableActions) {
+        if (allowableActions == null) {
+            return null;
+        }
+
+        AllowableActionsImpl result = new AllowableActionsImpl();
+        if (allowableActions.getAllowableActions() != null) {
+            result.setAllowableActions(new HashSet<Action>(allowableActions.getAllowableActions()));
+        }
+        copyExtensions(allowableActions, result);
+
+        return result;
+    }
+
+    private static ChangeEventInfo copyChangeEventInfo(ChangeEventInfo changeEventInfo) {
+        if (changeEventInfo == null) {
+            return null;
+        }
+
+        GregorianCalendar changeTime = changeEventInfo.getChangeTime();
+        ChangeEventInfoDataImpl result = new ChangeEventInfoDataImpl(changeEventInfo.getChangeType(),
+                changeTime == null ? null : (GregorianCalendar) changeTime.clone());
+        copyExtensions(changeEventInfo, result);
+
+        return result;
+    }
+
+    private static Acl copyAcl(Acl acl) {
+        if (acl == null) {
+            return null;
+        }
+
+        AccessControlListImpl result = new AccessControlListImpl();
+        if (acl.getAces() != null) {
+            List<Ace> aces = new ArrayList<Ace>(acl.getAces().size());
+            for (Ace ace : acl.getAces()) {
+                AccessControlPrincipalDataImpl principal = null;
+                if (ace.getPrincipal() != null) {
+                    principal = new AccessControlPrincipalDataImpl(ace.getPrincipal().getId());
+                    copyExtensions(ace.getPrincipal(), principal);
+                }
+
+                AccessControlEntryImpl copy = new AccessControlEntryImpl(principal, copyValues(ace.getPermissions()));
+                copy.setDirect(ace.isDirect());
+                copyExtensions(ace, copy);
+                aces.add(copy);
+            }
+            result.setAces(aces);
+        }
+        result.setExact(acl.isExact());
+        copyExtensions(acl, result);
+
+        return result;
+    }
+
+    private static PolicyIdList copyPolicyIds(PolicyIdList policyIds) {
+        if (policyIds == null) {
+            return null;
+        }
+
+        PolicyIdListImpl result = new PolicyIdListImpl();
+        result.setPolicyIds(copyValues(policyIds.getPolicyIds()));
+        copyExtensions(policyIds, result);
+
+        return result;
+    }
+
+    private static RenditionData copyRendition(RenditionData rendition) {
+        if (rendition == null) {
+            return null;
+        }
+
+        RenditionDataImpl result = new RenditionDataImpl(rendition.getStreamId(), rendition.getMimeType(),
+                rendition.getBigLength(), rendition.getKind(), rendition.getTitle(), rendition.getBigWidth(),
+                rendition.getBigHeight(), rendition.getRenditionDocumentId());
+        copyExtensions(rendition, result);
+
+        return result;
+    }
+
+    private static TypeDefinition copyType(TypeDefinition type) {
+        if (type == null) {
+            return null;
+        }
+
+        if (type.getBaseTypeId() == null) {
+            return (TypeDefinition) copySerializable(type);
+        }
+
+        return TYPE_FACTORY.copy(type, true, null);
+    }
+
+    private static TypeDefinitionList copyTypeList(TypeDefinitionList list) {
+        TypeDefinitionListImpl result = new TypeDefinitionListImpl();
+
+        if (list.getList() != null) {
+            List<TypeDefinition> types = new ArrayList<TypeDefinition>(list.getList().size());
+            for (TypeDefinition type : list.getList()) {
+                types.add(copyType(type));
+            }
+            result.setList(types);
+        }
+
+        result.setHasMoreItems(list.hasMoreItems());
+        result.setNumItems(list.getNumItems());
+        copyExtensions(list, result);
+
+        return result;
+    }
+
+    private static TypeDefinitionContainer copyTypeContainer(TypeDefinitionContainer container) {
+        TypeDefinitionContainerImpl result = new TypeDefinitionContainerImpl();
+        result.setTypeDefinition(copyType(container.getTypeDefinition()));
+
+        if (container.getChildren() != null) {
+            List<TypeDefinitionContainer> children = new ArrayList<TypeDefinitionContainer>(container.getChildren()
+                    .size());
+            for (TypeDefinitionContainer child : container.getChildren()) {
+                children.add(child == null ? null : copyTypeContainer(child));
+            }
+            result.setChildren(children);
+        }
+
+        copyExtensions(container, result);
+
+        return result;
+    }
+
+    /**
+     * Copies the extension list. The elements are immutable and shared.
+     */
+    private static void copyExtensions(ExtensionsData source, ExtensionsData target) {
+        if (source.getExtensions() != null) {
+            target.setExtensions(new ArrayList<CmisExtensionElement>(source.getExtensions()));
+        }
+    }
+
+    private static Object copySerializable(Object value) {
+        if (!(value instanceof Serializable)) {
+            throw new IllegalArgumentException("Response is not serializable: " + value.getClass().getName());
+        }
+
+        try {
+            ByteArrayOutputStream data = new ByteArrayOutputStream();
+            ObjectOutputStream out = new ObjectOutputStream(data);
+            out.writeObject(value);
+            out.close();
+
+            ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(data.toByteArray()));
+            try {
+                return in.readObject();
+            } finally {
+                in.close();
+            }
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Response cannot be copied: " + e.toString(), e);
+        }
+    }
+}
@@ -0,0 +1,852 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License",repositoryId); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.chemistry.opencmis.server.support.wrapper;
+
+import java.math.BigInteger;
+import java.util.List;
+
+import org.apache.chemistry.opencmis.commons.data.Acl;
+import org.apache.chemistry.opencmis.commons.data.AllowableActions;
+import org.apache.chemistry.opencmis.commons.data.BulkUpdateObjectIdAndChangeToken;
+import org.apache.chemistry.opencmis.commons.data.ContentStream;
+import org.apache.chemistry.opencmis.commons.data.ExtensionsData;
+import org.apache.chemistry.opencmis.commons.data.FailedToDeleteData;
+import org.apache.chemistry.opencmis.commons.data.ObjectData;
+import org.apache.chemistry.opencmis.commons.data.ObjectInFolderContainer;
+import org.apache.chemistry.opencmis.commons.data.ObjectInFolderData;
+import org.apache.chemistry.opencmis.commons.data.ObjectInFolderList;
+import org.apache.chemistry.opencmis.commons.data.ObjectList;
+import org.apache.chemistry.opencmis.commons.data.ObjectParentData;
+import org.apache.chemistry.opencmis.commons.data.Properties;
+import org.apache.chemistry.opencmis.commons.data.RenditionData;
+import org.apache.chemistry.opencmis.commons.data.RepositoryInfo;
+import org.apache.chemistry.opencmis.commons.definitions.TypeDefinition;
+import org.apache.chemistry.opencmis.commons.definitions.TypeDefinitionContainer;
+import org.apache.chemistry.opencmis.commons.definitions.TypeDefinitionList;
+import org.apache.chemistry.opencmis.commons.enums.AclPropagation;
+import org.apache.chemistry.opencmis.commons.enums.IncludeRelationships;
+import org.apache.chemistry.opencmis.commons.enums.RelationshipDirection;
+import org.apache.chemistry.opencmis.commons.enums.UnfileObject;
+import org.apache.chemistry.opencmis.commons.enums.VersioningState;
+import org.apache.chemistry.opencmis.commons.server.CmisService;
+import org.apache.chemistry.opencmis.commons.spi.Holder;
+import org.apache.chemistry.opencmis.server.support.metrics.CmisMetrics;
+
+/**
+ * Service wrapper that records latency, error and object count metrics for
+ * each CMIS operation and repository.
+ * <p>
+ * The metrics are collected in a {@link CmisMetrics} instance, which is
+ * exposed through JMX and can be served as plain text by
+ * {@link org.apache.chemistry.opencmis.server.support.metrics.CmisMetricsServlet}.
+ * The first wrapper parameter selects the name of the metrics instance, for
+ * example:
+ *
+ * <pre>
+ * servicewrapper.1=org.apache.chemistry.opencmis.server.support.wrapper.MetricsCmisServiceWrapper,myrepository
+ * </pre>
+ */
+public class MetricsCmisServiceWrapper extends AbstractCmisServiceWrapper {
+
+    private CmisMetrics metrics;
+
+    public MetricsCmisServiceWrapper(CmisService service) {
+        super(service);
+        metrics = CmisMetrics.getInstance();
+    }
+
+    @Override
+    public void initialize(Object[] params) {
+        if (params != null && params.length > 0 && params[0] != null) {
+            metrics = CmisMetrics.getInstance(params[0].toString().trim());
+        }
+    }
+
+    /**
+     * Returns the metrics instance this wrapper records to.
+     */
+    public CmisMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Records a successful call.
+     */
+    protected void record(String operation, String repositoryId, long start, int objectCount) {
+        metrics.record(repositoryId, operation, System.nanoTime() - start, objectCount, false);
+    }
+
+    /**
+     * Records a failed call.
+     */
+    protected void recordError(String operation, String repositoryId, long start) {
+        metrics.record(repositoryId, operation, System.nanoTime() - start, 0, true);
+    }
+
+    /**
+     * Counts the objects in a service result.
+     */
+    protected int countObjects(Object result) {
+        if (result == null) {
+            return 0;
+        }
+
+        if (result instanceof ObjectData || result instanceof ObjectInFolderData
+                || result instanceof ObjectParentData) {
+            return 1;
+        }
+
+        if (result instanceof ObjectList) {
+            List<ObjectData> objects = ((ObjectList) result).getObjects();
+            return objects == null ? 0 : objects.size();
+        }
+
+        if (result instanceof ObjectInFolderList) {
+            List<ObjectInFolderData> objects = ((ObjectInFolderList) result).getObjects();
+            return objects == null ? 0 : objects.size();
+        }
+
+        if (result instanceof ObjectInFolderContainer) {
+            ObjectInFolderContainer container = (ObjectInFolderContainer) result;
+            return 1 + countObjects(container.getChildren());
+        }
+
+        if (result instanceof List<?>) {
+            int count = 0;
+            for (Object item : (List<?>) result) {
+                count += countObjects(item);
+            }
+            return count;
+        }
+
+        return 0;
+    }
+
+    public List<RepositoryInfo> getRepositoryInfos(ExtensionsData extension) {
+        long start = System.nanoTime();
+        try {
+            List<RepositoryInfo> result = getWrappedService().getRepositoryInfos(extension);
+            if (result != null) {
+                for (RepositoryInfo info : result) {
+                    metrics.addRepository(info.getId());
+                }
+            }
+            record("getRepositoryInfos", null, start, countObjects(result));
+            return result;
+        } catch (RuntimeException e) {
+            recordError("getRepositoryInfos", null, start);
+            throw e;
+        }
+    }
+
+    public RepositoryInfo getRepositoryInfo(String repositoryId, ExtensionsData extension) {
+        long start = System.nanoTime();
+        try {
+            RepositoryInfo result = getWrappedService().getRepositoryInfo(repositoryId, extension);
+            record("getRepositoryInfo", repositoryId, start, countObjects(result));
+            return result;
+        } catch (RuntimeException e) {
+            recordError("getRepositoryInfo", repositoryId, start);
+            throw e;
+        }
+    }
+
+    public TypeDefinitionList getTypeChildren(String repositoryId, String typeId, Boolean includePropertyDefinitions,
+            BigInteger maxItems, BigInteger skipCount, ExtensionsData extension) {
+        long start = System.nanoTime();
+        try {
+            TypeDefinitionList result = getWrappedService().getTypeChildren(repositoryId, typeId,
+                    includePropertyDefinitions, maxItems, skipCount, extension);
+            record("getTypeChildren", repositoryId, start, countObjects(result));
+            return result;
+        } catch (RuntimeException e) {
+            recordError("getTypeChildren", repositoryId, start);
+            throw e;
+        }
+    }
+
+    public List<TypeDefinitionContainer> getTypeDescendants(String repositoryId, String typeId, BigInteger depth,
+            Boolean includePropertyDefinitions, ExtensionsData extension) {
+        long start = System.nanoTime();
+        try {
+            List<TypeDefinitionContainer> result = getWrappedService().getTypeDescendants(repositoryId, typeId, depth,
+                    includePropertyDefinitions, extension);
+            record("getTypeDescendants", repositoryId, start, countObjects(result));
+            return result;
+        } catch (RuntimeException e) {
+            recordError("getTypeDescendants", repositoryId, start);
+            throw e;
+        }
+    }
+
+    public TypeDefinition getTypeDefinition(String repositoryId, String typeId, ExtensionsData extension) {
+        long start = System.nanoTime();
+        try {
+            TypeDefinition result = getWrappedService().getTypeDefinition(repositoryId, typeId, extension);
+            record("getTypeDefinition", repositoryId, start, countObjects(result));
+            return result;
+        } catch (RuntimeException e) {
+            recordError("getTypeDefinition", repositoryId, start);
+            throw e;
+        }
+    }
+
+    public TypeDefinition createType(String repositoryId, TypeDefinition type, ExtensionsData extension) {
+        long start = System.nanoTime();
+        try {
+            TypeDefinition result = getWrappedService().createType(repositoryId, type, extension);
+            record("createType", repositoryId, start, countObjects(result));
+            return result;
+        } catch (RuntimeException e) {
+            recordError("createType", repositoryId, start);
+            throw e;
+        }
+    }
+
+    public TypeDefinition updateType(String repositoryId, TypeDefinition type, ExtensionsData extension) {
+        long start = System.nanoTime();
+        try {
+            TypeDefinition result = getWrappedService().updateType(repositoryId, type, extension);
+            record("updateType", repositoryId, start, countObjects(result));
+            return result;
+        } catch (RuntimeException e) {
+            recordError("updateType", repositoryId, start);
+            throw e;
+        }
+    }
+
+    public void deleteType(String repositoryId, String typeId, ExtensionsData extension) {
+        long start = System.nanoTime();
+        try {
+            getWrappedService().deleteType(repositoryId, typeId, extension);
+            record("deleteType", repositoryId, start, 0);
+        } catch (RuntimeException e) {
+            recordError("deleteType", repositoryId, start);
+            throw e;
+        }
+    }
+
+    public ObjectInFolderList getChildren(String repositoryId, String folderId, String filter, String orderBy,
+            Boolean includeAllowableActions, IncludeRelationships includeRelationships, String renditionFilter,
+            Boolean includePathSegment, BigInteger maxItems, BigInteger skipCount, ExtensionsData extension) {
+        long start = System.nanoTime();
+        try {
+            ObjectInFolderList result = getWrappedService().getChildren(repositoryId, folderId, filter, orderBy,
+                    includeAllowableActions, includeRelationships, renditionFilter, includePathSegment, maxItems,
+                    skipCount, extension);
+            record("getChildren", repositoryId, start, countObjects(result));
+            return result;
+        } catch (RuntimeException e) {
+            recordError("getChildren", repositoryId, start);
+            throw e;
+        }
+    }
+
+    public List<ObjectInFolderContainer> getDescendants(String repositoryId, String folderId, BigInteger depth,
+            String filter, Boolean includeAllowableActions, IncludeRelationships includeRelationships,
+            String renditionFilter, Boolean includePathSegment, ExtensionsData extension) {
+        long start = System.nanoTime();
+        try {
+            List<ObjectInFolderContainer> result = getWrappedService().getDescendants(repositoryId, folderId, depth,
+                    filter, includeAllowableActions, includeRelationships, renditionFilter, includePathSegment,
+                    extension);
+            record("getDescendants", repositoryId, start, countObjects(result));
+            return result;
+        } catch (RuntimeException e) {
+            recordError("getDescendants", repositoryId, start);
+            throw e;
+        }
+    }
+
+    public List<ObjectInFolderContainer> getFolderTree(String repositoryId, String folderId, BigInteger depth,
+            String filter, Boolean includeAllowableActions, IncludeRelationships includeRelationships,
+            String renditionFilter, Boolean includePathSegment, ExtensionsData extension) {
+        long start = System.nanoTime();
+        try {
+            List<ObjectInFolderContainer> result = getWrappedService().getFolderTree(repositoryId, folderId, depth,
+                    filter, includeAllowableActions, includeRelationships, renditionFilter, includePathSegment,
+                    extension);
+            record("getFolderTree", repositoryId, start, countObjects(result));
+            return result;
+        } catch (RuntimeException e) {
+            recordError("getFolderTree", repositoryId, start);
+            throw e;
+        }
+    }
+
+    public List<ObjectParentData> getObjectParents(String repositoryId, String objectId, String filter,
+            Boolean includeAllowableActions, IncludeRelationships includeRelationships, String renditionFilter,
+            Boolean includeRelativePathSegment, ExtensionsData extension) {
+        long start = System.nanoTime();
+        try {
+            List<ObjectParentData> result = getWrappedService().getObjectParents(repositoryId, objectId, filter,
+                    includeAllowableActions, includeRelationships, renditionFilter, includeRelativePathSegment,
+                    extension);
+            record("getObjectParents", repositoryId, start, countObjects(result));
+            return result;
+        } catch (RuntimeException e) {
+            recordError("getObjectParents", repositoryId, start);
+            throw e;
+        }
+    }
+
+    public ObjectData getFolderParent(String repositoryId, String folderId, String filter, ExtensionsData extension) {
+        long start = System.nanoTime();
+        try {
+            ObjectData result = getWrappedService().getFolderParent(repositoryId, folderId, filter, extension);
+            record("getFolderParent", repositoryId, start, countObjects(result));
+            return result;
+        } catch (RuntimeException e) {
+            recordError("getFolderParent", repositoryId, start);
+            throw e;
+        }
+    }
+
+    public ObjectList getCheckedOutDocs(String repositoryId, String folderId, String filter, String orderBy,
+            Boolean includeAllowableActions, IncludeRelationships includeRelationships, String renditionFilter,
+            BigInteger maxItems, BigInteger skipCount, ExtensionsData extension) {
+        long start = System.nanoTime();
+        try {
+            ObjectList result = getWrappedService().getCheckedOutDocs(repositoryId, folderId, filter, orderBy,
+                    includeAllowableActions, includeRelationships, renditionFilter, maxItems, skipCount, extension);
+            record("getCheckedOutDocs", repositoryId, start, countObjects(result));
+            return result;
+        } catch (RuntimeException e) {
+            recordError("getCheckedOutDocs", repositoryId, start);
+            throw e;
+        }
+    }
+
+    public String createDocument(String repositoryId, Properties properties, String folderId,
+            ContentStream contentStream, VersioningState versioningState, List<String> policies, Acl addAces,
+            Acl removeAces, ExtensionsData extension) {
+        long start = System.nanoTime();
+        try {
+            String result = getWrappedService().createDocument(repositoryId, properties, folderId, contentStream,
+                    versioningState, policies, addAces, removeAces, extension);
+            record("createDocument", repositoryId, start, countObjects(result));
+            return result;
+        } catch (RuntimeException e) {
+            recordError("createDocument", repositoryId, start);
+            throw e;
+        }
+    }
+
+    public String createDocumentFromSource(String repositoryId, String sourceId, Properties properties,
+            String folderId, VersioningState versioningState, List<String> policies, Acl addAces, Acl removeAces,
+            ExtensionsData extension) {
+        long start = System.nanoTime();
+        try {
+            String result = getWrappedService().createDocumentFromSource(repositoryId, sourceId, properties, folderId,
+                    versioningState, policies, addAces, removeAces, extension);
+            record("createDocumentFromSource", repositoryId, start, countObjects(result));
+            return result;
+        } catch (RuntimeException e) {
+            recordError("createDocumentFromSource", repositoryId, start);
+            throw e;
+        }
+    }
+
+    public String createFolder(String repositoryId, Properties properties, String folderId, List<String> policies,
+            Acl addAces, Acl removeAces, ExtensionsData extension) {
+        long start = System.nanoTime();
+        try {
+            String result = getWrappedService().createFolder(repositoryId, properties, folderId, policies, addAces,
+                    removeAces, extension);
+            record("createFolder", repositoryId, start, countObjects(result));
+            return result;
+        } catch (RuntimeException e) {
+            recordError("createFolder", repositoryId, start);
+            throw e;
+        }
+    }
+
+    public String createRelationship(String repositoryId, Properties properties, List<String> policies, Acl addAces,
+            Acl removeAces, ExtensionsData extension) {
+        long start = System.nanoTime();
+        try {
+            String result = getWrappedService().createRelationship(repositoryId, properties, policies, addAces,
+                    removeAces, extension);
+            record("createRelationship", repositoryId, start, countObjects(result));
+            return result;
+        } catch (RuntimeException e) {
+            recordError("createRelationship", repositoryId, start);
+            throw e;
+        }
+    }
+
+    public String createPolicy(String repositoryId, Properties properties, String folderId, List<String> policies,
+            Acl addAces, Acl removeAces, ExtensionsData extension) {
+        long start = System.nanoTime();
+        try {
+            String result = getWrappedService().createPolicy(repositoryId, properties, folderId, policies, addAces,
+                    removeAces, extension);
+            record("createPolicy", repositoryId, start, countObjects(result));
+            return result;
+        } catch (RuntimeException e) {
+            recordError("createPolicy", repositoryId, start);
+            throw e;
+        }
+    }
+
+    public String createItem(String repositoryId, Properties properties, String folderId, List<String> policies,
+            Acl addAces, Acl removeAces, ExtensionsData extension) {
+        long start = System.nanoTime();
+        try {
+            String result = getWrappedService().createItem(repositoryId, properties, folderId, policies, addAces,
+                    removeAces, extension);
+            record("createItem", repositoryId, start, countObjects(result));
+            return result;
+        } catch (RuntimeException e) {
+            recordError("createItem", repositoryId, start);
+            throw e;
+        }
+    }
+
+    public AllowableActions getAllowableActions(String repositoryId, String objectId, ExtensionsData extension) {
+        long start = System.nanoTime();
+        try {
+            AllowableActions result = getWrappedService().getAllowableActions(repositoryId, objectId, extension);
+            record("getAllowableActions", repositoryId, start, countObjects(result));
+            return result;
+        } catch (RuntimeException e) {
+            recordError("getAllowableActions", repositoryId, start);
+            throw e;
+        }
+    }
+
+    public ObjectData getObject(String repositoryId, String objectId, String filter, Boolean includeAllowableActions,
+            IncludeRelationships includeRelationships, String renditionFilter, Boolean includePolicyIds,
+            Boolean includeAcl, ExtensionsData extension) {
+        long start = System.nanoTime();
+        try {
+            ObjectData result = getWrappedService().getObject(repositoryId, objectId, filter, includeAllowableActions,
+                    includeRelationships, renditionFilter, includePolicyIds, includeAcl, extension);
+            record("getObject", repositoryId, start, countObjects(result));
+            return result;
+        } catch (RuntimeException e) {
+            recordError("getObject", repositoryId, start);
+            throw e;
+        }
+    }
+
+    public Properties getProperties(String repositoryId, String objectId, String filter, ExtensionsData extension) {
+        long start = System.nanoTime();
+        try {
+            Properties result = getWrappedService().getProperties(repositoryId, objectId, filter, extension);
+            record("getProperties", repositoryId, start, countObjects(result));
+            return result;
+        } catch (RuntimeException e) {
+            recordError("getProperties", repositoryId, start);
+            throw e;
+        }
+    }
+
+    public List<RenditionData> getRenditions(String repositoryId, String objectId, String renditionFilter,
+            BigInteger maxItems, BigInteger skipCount, ExtensionsData extension) {
+        long start = System.nanoTime();
+        try {
+            List<RenditionData> result = getWrappedService().getRenditions(repositoryId, objectId, renditionFilter,
+                    maxItems, skipCount, extension);
+            record("getRenditions", repositoryId, start, countObjects(result));
+            return result;
+        } catch (RuntimeException e) {
+            recordError("getRenditions", repositoryId, start);
+            throw e;
+        }
+    }
+
+    public ObjectData getObjectByPath(String repositoryId, String path, String filter, Boolean includeAllowableActions,
+            IncludeRelationships includeRelationships, String renditionFilter, Boolean includePolicyIds,
+            Boolean includeAcl, ExtensionsData extension) {
+        long start = System.nanoTime();
+        try {
+            ObjectData result = getWrappedService().getObjectByPath(repositoryId, path, filter, includeAllowableActions,
+                    includeRelationships, renditionFilter, includePolicyIds, includeAcl, extension);
+            record("getObjectByPath", repositoryId, start, countObjects(result));
+            return result;
+        } catch (RuntimeException e) {
+            recordError("getObjectByPath", repositoryId, start);
+            throw e;
+        }
+    }
+
+    public ContentStream getContentStream(String repositoryId, String objectId, String streamId, BigInteger offset,
+            BigInteger length, ExtensionsData extension) {
+        long start = System.nanoTime();
+        try {
+            ContentStream result = getWrappedService().getContentStream(repositoryId, objectId, streamId, offset,
+                    length, extension);
+            record("getContentStream", repositoryId, start, countObjects(result));
+            return result;
+        } catch (RuntimeException e) {
+            recordError("getContentStream", repositoryId, start);
+            throw e;
+        }
+    }
+
+    public void updateProperties(String repositoryId, Holder<String> objectId, Holder<String> changeToken,
+            Properties properties, ExtensionsData extension) {
+        long start = System.nanoTime();
+        try {
+            getWrappedService().updateProperties(repositoryId, objectId, changeToken, properties, extension);
+            record("updateProperties", repositoryId, start, 0);
+        } catch (RuntimeException e) {
+            recordError("updateProperties", repositoryId, start);
+            throw e;
+        }
+    }
+
+    public List<BulkUpdateObjectIdAndChangeToken> bulkUpdateProperties(String repositoryId,
+            List<BulkUpdateObjectIdAndChangeToken> objectIdsAndChangeTokens, Properties properties,
+            List<String> addSecondaryTypeIds, List<String> removeSecondaryTypeIds, ExtensionsData extension) {
+        long start = System.nanoTime();
+        try {
+            List<BulkUpdateObjectIdAndChangeToken> result = getWrappedService().bulkUpdateProperties(repositoryId,
+                    objectIdsAndChangeTokens, properties, addSecondaryTypeIds, removeSecondaryTypeIds, extension);
+            record("bulkUpdateProperties", repositoryId, start, countObjects(result));
+            return result;
+        } catch (RuntimeException e) {
+            recordError("bulkUpdateProperties", repositoryId, start);
+            throw e;
+        }
+    }
+
+    public void moveObject(String repositoryId, Holder<String> objectId, String targetFolderId, String sourceFolderId,
+            ExtensionsData extension) {
+        long start = System.nanoTime();
+        try {
+            getWrappedService().moveObject(repositoryId, objectId, targetFolderId, sourceFolderId, extension);
+            record("moveObject", repositoryId, start, 0);
+        } catch (RuntimeException e) {
+            recordError("moveObject", repositoryId, start);
+            throw e;
+        }
+    }
+
+    public void deleteObject(String repositoryId, String objectId, Boolean allVersions, ExtensionsData extension) {
+        long start = System.nanoTime();
+        try {
+            getWrappedService().deleteObject(repositoryId, objectId, allVersions, extension);
+            record("deleteObject", repositoryId, start, 0);
+        } catch (RuntimeException e) {
+            recordError("deleteObject", repositoryId, start);
+            throw e;
+        }
+    }
+
+    public FailedToDeleteData deleteTree(String repositoryId, String folderId, Boolean allVersions,
+            UnfileObject unfileObjects, Boolean continueOnFailure, ExtensionsData extension) {
+        long start = System.nanoTime();
+        try {
+            FailedToDeleteData result = getWrappedService().deleteTree(repositoryId, folderId, allVersions,
+                    unfileObjects, continueOnFailure, extension);
+            record("deleteTree", repositoryId, start, countObjects(result));
+            return result;
+        } catch (RuntimeException e) {
+            recordError("deleteTree", repositoryId, start);
+            throw e;
+        }
+    }
+
+    public void setContentStream(String repositoryId, Holder<String> objectId, Boolean overwriteFlag,
+            Holder<String> changeToken, ContentStream contentStream, ExtensionsData extension) {
+        long start = System.nanoTime();
+        try {
+            getWrappedService().setContentStream(repositoryId, objectId, overwriteFlag, changeToken, contentStream,
+                    extension);
+            record("setContentStream", repositoryId, start, 0);
+        } catch (RuntimeException e) {
+            recordError("setContentStream", repositoryId, start);
+            throw e;
+        }
+    }
+
+    public void deleteContentStream(String repositoryId, Holder<String> objectId, Holder<String> changeToken,
+            ExtensionsData extension) {
+        long start = System.nanoTime();
+        try {
+            getWrappedService().deleteContentStream(repositoryId, objectId, changeToken, extension);
+            record("deleteContentStream", repositoryId, start, 0);
+        } catch (RuntimeException e) {
+            recordError("deleteContentStream", repositoryId, start);
+            throw e;
+        }
+    }
+
+    public void appendContentStream(String repositoryId, Holder<String> objectId, Holder<String> changeToken,
+            ContentStream contentStream, boolean isLastChunk, ExtensionsData extension) {
+        long start = System.nanoTime();
+        try {
+            getWrappedService().appendContentStream(repositoryId, objectId, changeToken, contentStream, isLastChunk,
+                    extension);
+            record("appendContentStream", repositoryId, start, 0);
+        } catch (RuntimeException e) {
+            recordError("appendContentStream", repositoryId, start);
+            throw e;
+        }
+    }
+
+    public void checkOut(String repositoryId, Holder<String> objectId, ExtensionsData extension,
+            Holder<Boolean> contentCopied) {
+        long start = System.nanoTime();
+        try {
+            getWrappedService().checkOut(repositoryId, objectId, extension, contentCopied);
+            record("checkOut", repositoryId, start, 0);
+        } catch (RuntimeException e) {
+            recordError("checkOut", repositoryId, start);
+            throw e;
+        }
+    }
+
+    public void cancelCheckOut(String repositoryId, String objectId, ExtensionsData extension) {
+        long start = System.nanoTime();
+        try {
+            getWrappedService().cancelCheckOut(repositoryId, objectId, extension);
+            record("cancelCheckOut", repositoryId, start, 0);
+        } catch (RuntimeException e) {
+            recordError("cancelCheckOut", repositoryId, start);
+            throw e;
+        }
+    }
+
+    public void checkIn(String repositoryId, Holder<String> objectId, Boolean major, Properties properties,
+            ContentStream contentStream, String checkinComment, List<String> policies, Acl addAces, Acl removeAces,
+            ExtensionsData extension) {
+        long start = System.nanoTime();
+        try {
+            getWrappedService().checkIn(repositoryId, objectId, major, properties, contentStream, checkinComment,
+                    policies, addAces, removeAces, extension);
+            record("checkIn", repositoryId, start, 0);
+        } catch (RuntimeException e) {
+            recordError("checkIn", repositoryId, start);
+            throw e;
+        }
+    }
+
+    public ObjectData getObjectOfLatestVersion(String repositoryId, String objectId, String versionSeriesId,
+            Boolean major, String filter, Boolean includeAllowableActions, IncludeRelationships includeRelationships,
+            String renditionFilter, Boolean includePolicyIds, Boolean includeAcl, ExtensionsData extension) {
+        long start = System.nanoTime();
+        try {
+            ObjectData result = getWrappedService().getObjectOfLatestVersion(repositoryId, objectId, versionSeriesId,
+                    major, filter, includeAllowableActions, includeRelationships, renditionFilter, includePolicyIds,
+                    includeAcl, extension);
+            record("getObjectOfLatestVersion", repositoryId, start, countObjects(result));
+            return result;
+        } catch (RuntimeException e) {
+            recordError("getObjectOfLatestVersion", repositoryId, start);
+            throw e;
+        }
+    }
+
+    public Properties getPropertiesOfLatestVersion(String repositoryId, String objectId, String versionSeriesId,
+            Boolean major, String filter, ExtensionsData extension) {
+        long start = System.nanoTime();
+        try {
+            Properties result = getWrappedService().getPropertiesOfLatestVersion(repositoryId, objectId,
+                    versionSeriesId, major, filter, extension);
+            record("getPropertiesOfLatestVersion", repositoryId, start, countObjects(result));
+            return result;
+        } catch (RuntimeException e) {
+            recordError("getPropertiesOfLatestVersion", repositoryId, start);
+            throw e;
+        }
+    }
+
+    public List<ObjectData> getAllVersions(String repositoryId, String objectId, String versionSeriesId, String filter,
+            Boolean includeAllowableActions, ExtensionsData extension) {
+        long start = System.nanoTime();
+        try {
+            List<ObjectData> result = getWrappedService().getAllVersions(repositoryId, objectId, versionSeriesId,
+                    filter, includeAllowableActions, extension);
+            record("getAllVersions", repositoryId, start, countObjects(result));
+            return result;
+        } catch (RuntimeException e) {
+            recordError("getAllVersions", repositoryId, start);
+            throw e;
+        }
+    }
+
+    public ObjectList query(String repositoryId, String statement, Boolean searchAllVersions,
+            Boolean includeAllowableActions, IncludeRelationships includeRelationships, String renditionFilter,
+            BigInteger maxItems, BigInteger skipCount, ExtensionsData extension) {
+        long start = System.nanoTime();
+        try {
+            ObjectList result = getWrappedService().query(repositoryId, statement, searchAllVersions,
+                    includeAllowableActions, includeRelationships, renditionFilter, maxItems, skipCount, extension);
+            record("query", repositoryId, start, countObjects(result));
+            return result;
+        } catch (RuntimeException e) {
+            recordError("query", repositoryId, start);
+            throw e;
+        }
+    }
+
+    public ObjectList getContentChanges(String repositoryId, Holder<String> changeLogToken, Boolean includeProperties,
+            String filter, Boolean includePolicyIds, Boolean includeAcl, BigInteger maxItems, ExtensionsData extension) {
+        long start = System.nanoTime();
+        try {
+            ObjectList result = getWrappedService().getContentChanges(repositoryId, changeLogToken, includeProperties,
+                    filter, includePolicyIds, includeAcl, maxItems, extension);
+            record("getContentChanges", repositoryId, start, countObjects(result));
+            return result;
+        } catch (RuntimeException e) {
+            recordError("getContentChanges", repositoryId, start);
+            throw e;
+        }
+    }
+
+    public void addObjectToFolder(String repositoryId, String objectId, String folderId, Boolean allVersions,
+            ExtensionsData extension) {
+        long start = System.nanoTime();
+        try {
+            getWrappedService().addObjectToFolder(repositoryId, objectId, folderId, allVersions, extension);
+            record("addObjectToFolder", repositoryId, start, 0);
+        } catch (RuntimeException e) {
+            recordError("addObjectToFolder", repositoryId, start);
+            throw e;
+        }
+    }
+
+    public void removeObjectFromFolder(String repositoryId, String objectId, String folderId, ExtensionsData extension) {
+        long start = System.nanoTime();
+        try {
+            getWrappedService().removeObjectFromFolder(repositoryId, objectId, folderId, extension);
+            record("removeObjectFromFolder", repositoryId, start, 0);
+        } catch (RuntimeException e) {
+            recordError("removeObjectFromFolder", repositoryId, start);
+            throw e;
+        }
+    }
+
+    public ObjectList getObjectRelationships(String repositoryId, String objectId, Boolean includeSubRelationshipTypes,
+            RelationshipDirection relationshipDirection, String typeId, String filter, Boolean includeAllowableActions,
+            BigInteger maxItems, BigInteger skipCount, ExtensionsData extension) {
+        long start = System.nanoTime();
+        try {
+            ObjectList result = getWrappedService().getObjectRelationships(repositoryId, objectId,
+                    includeSubRelationshipTypes, relationshipDirection, typeId, filter, includeAllowableActions,
+                    maxItems, skipCount, extension);
+            record("getObjectRelationships", repositoryId, start, countObjects(result));
+            return result;
+        } catch (RuntimeException e) {
+            recordError("getObjectRelationships", repositoryId, start);
+            throw e;
+        }
+    }
+
+    public Acl getAcl(String repositoryId, String objectId, Boolean onlyBasicPermissions, ExtensionsData extension) {
+        long start = System.nanoTime();
+        try {
+            Acl result = getWrappedService().getAcl(repositoryId, objectId, onlyBasicPermissions, extension);
+            record("getAcl", repositoryId, start, countObjects(result));
+            return result;
+        } catch (RuntimeException e) {
+            recordError("getAcl", repositoryId, start);
+            throw e;
+        }
+    }
+
+    public Acl applyAcl(String repositoryId, String objectId, Acl addAces, Acl removeAces,
+            AclPropagation aclPropagation, ExtensionsData extension) {
+        long start = System.nanoTime();
+        try {
+            Acl result = getWrappedService().applyAcl(repositoryId, objectId, addAces, removeAces, aclPropagation,
+                    extension);
+            record("applyAcl", repositoryId, start, countObjects(result));
+            return result;
+        } catch (RuntimeException e) {
+            recordError("applyAcl", repositoryId, start);
+            throw e;
+        }
+    }
+
+    public void applyPolicy(String repositoryId, String policyId, String objectId, ExtensionsData extension) {
+        long start = System.nanoTime();
+        try {
+            getWrappedService().applyPolicy(repositoryId, policyId, objectId, extension);
+            record("applyPolicy", repositoryId, start, 0);
+        } catch (RuntimeException e) {
+            recordError("applyPolicy", repositoryId, start);
+            throw e;
+        }
+    }
+
+    public void removePolicy(String repositoryId, String policyId, String objectId, ExtensionsData extension) {
+        long start = System.nanoTime();
+        try {
+            getWrappedService().removePolicy(repositoryId, policyId, objectId, extension);
+            record("removePolicy", repositoryId, start, 0);
+        } catch (RuntimeException e) {
+            recordError("removePolicy", repositoryId, start);
+            throw e;
+        }
+    }
+
+    public List<ObjectData> getAppliedPolicies(String repositoryId, String objectId, String filter,
+            ExtensionsData extension) {
+        long start = System.nanoTime();
+        try {
+            List<ObjectData> result = getWrappedService().getAppliedPolicies(repositoryId, objectId, filter, extension);
+            record("getAppliedPolicies", repositoryId, start, countObjects(result));
+            return result;
+        } catch (RuntimeException e) {
+            recordError("getAppliedPolicies", repositoryId, start);
+            throw e;
+        }
+    }
+
+    public String create(String repositoryId, Properties properties, String folderId, ContentStream contentStream,
+            VersioningState versioningState, List<String> policies, ExtensionsData extension) {
+        long start = System.nanoTime();
+        try {
+            String result = getWrappedService().create(repositoryId, properties, folderId, contentStream,
+                    versioningState, policies, extension);
+            record("create", repositoryId, start, countObjects(result));
+            return result;
+        } catch (RuntimeException e) {
+            recordError("create", repositoryId, start);
+            throw e;
+        }
+    }
+
+    public void deleteObjectOrCancelCheckOut(String repositoryId, String objectId, Boolean allVersions,
+            ExtensionsData extension) {
+        long start = System.nanoTime();
+        try {
+            getWrappedService().deleteObjectOrCancelCheckOut(repositoryId, objectId, allVersions, extension);
+            record("deleteObjectOrCancelCheckOut", repositoryId, start, 0);
+        } catch (RuntimeException e) {
+            recordError("deleteObjectOrCancelCheckOut", repositoryId, start);
+            throw e;
+        }
+    }
+
+    public Acl applyAcl(String repositoryId, String objectId, Acl aces, AclPropagation aclPropagation) {
+        long start = System.nanoTime();
+        try {
+            Acl result = getWrappedService().applyAcl(repositoryId, objectId, aces, aclPropagation);
+            record("applyAcl", repositoryId, start, countObjects(result));
+            return result;
+        } catch (RuntimeException e) {
+            recordError("applyAcl", repositoryId, start);
+            throw e;
+        }
+    }}
@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.chemistry.opencmis.server.support.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void testBuckets() {
+        long prevUpper = -1;
+        for (long value = 0; value < 1000000; value++) {
+            int bucket = LatencyHistogram.getBucket(value);
+            long upper = LatencyHistogram.getUpperBound(bucket);
+
+            assertTrue(value <= upper);
+            assertTrue(upper >= prevUpper);
+            // relative error of the bucket bound
+            assertTrue(upper - value <= Math.max(0, value / 64));
+
+            prevUpper = upper;
+        }
+    }
+
+    @Test
+    public void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getPercentile(99.0));
+
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i);
+        }
+
+        assertEquals(1000, histogram.getCount());
+        assertEquals(500.5, histogram.getMean(), 0.001);
+        assertEquals(1, histogram.getMin());
+        assertEquals(1000, histogram.getMax());
+
+        assertWithin(500, histogram.getPercentile(50.0));
+        assertWithin(990, histogram.getPercentile(99.0));
+        assertEquals(1000, histogram.getPercentile(100.0));
+
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMin());
+        assertEquals(0, histogram.getPercentile(50.0));
+    }
+
+    @Test
+    public void testLargeValues() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.recordNanos(Long.MAX_VALUE);
+        histogram.record(Long.MAX_VALUE);
+        histogram.record(-5);
+
+        assertEquals(3, histogram.getCount());
+        assertEquals(0, histogram.getMin());
+        assertEquals(Long.MAX_VALUE, histogram.getMax());
+        assertEquals(Long.MAX_VALUE, histogram.getPercentile(100.0));
+    }
+
+    @Test
+    public void testAdd() {
+        LatencyHistogram h1 = new LatencyHistogram();
+        LatencyHistogram h2 = new LatencyHistogram();
+        for (int i = 1; i <= 500; i++) {
+            h1.record(i);
+            h2.record(i + 500);
+        }
+
+        LatencyHistogram total = new LatencyHistogram();
+        total.add(h1);
+        total.add(h2);
+
+        assertEquals(1000, total.getCount());
+        assertEquals(1, total.getMin());
+        assertEquals(1000, total.getMax());
+        assertEquals(500.5, total.getMean(), 0.001);
+        assertWithin(500, total.getPercentile(50.0));
+    }
+
+    @Test
+    public void testConcurrentRecording() throws InterruptedException {
+        final LatencyHistogram histogram = new LatencyHistogram();
+
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int t = 0; t < 4; t++) {
+            Thread thread = new Thread() {
+                @Override
+                public void run() {
+                    for (int i = 1; i <= 10000; i++) {
+                        histogram.record(i);
+                    }
+                }
+            };
+            threads.add(thread);
+            thread.start();
+        }
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(40000, histogram.getCount());
+        assertEquals(1, histogram.getMin());
+        assertEquals(10000, histogram.getMax());
+        assertEquals(5000.5, histogram.getMean(), 0.001);
+    }
+
+    private static void assertWithin(long expected, long actual) {
+        assertTrue("Expected about " + expected + " but was " + actual, actual >= expected
+                && actual <= expected + expected / 64);
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.chemistry.opencmis.server.support.query;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.ExtensionDataImpl;
+import org.apache.chemistry.opencmis.server.support.query.QueryCursorCache.Cursor;
+import org.junit.Test;
+
+public class QueryCursorCacheTest {
+
+    private static final String STATEMENT = "SELECT * FROM cmis:document ORDER BY cmis:name";
+    private static final long REVISION = 42;
+
+    @Test
+    public void testPaging() {
+        QueryCursorCache cache = new QueryCursorCache();
+        Cursor cursor = cache.create("alice", STATEMENT, false, createIds(10), REVISION);
+
+        assertEquals(10, cursor.size());
+        assertEquals(Arrays.asList("id3", "id4", "id5"), cursor.getPage(3, 3));
+        assertEquals(Arrays.asList("id8", "id9"), cursor.getPage(8, 3));
+        assertEquals(0, cursor.getPage(12, 3).size());
+        assertEquals(10, cursor.getPage(0, 0).size());
+        assertEquals(2, cursor.getPage(8, Integer.MAX_VALUE).size());
+    }
+
+    @Test
+    public void testLookup() {
+        QueryCursorCache cache = new QueryCursorCache();
+        Cursor cursor = cache.create("alice", STATEMENT, false, createIds(10), REVISION);
+
+        // only by token
+        assertSame(cursor, cache.get(cursor.getToken(), "alice", STATEMENT, false, REVISION));
+        assertNull(cache.get(null, "alice", STATEMENT, false, REVISION));
+
+        // a cursor is bound to principal, statement and searchAllVersions
+        assertNull(cache.get(cursor.getToken(), "bob", STATEMENT, false, REVISION));
+        assertNull(cache.get(cursor.getToken(), "alice", STATEMENT + " DESC", false, REVISION));
+        assertNull(cache.get(cursor.getToken(), "alice", STATEMENT, true, REVISION));
+        assertNull(cache.get("unknown", "alice", STATEMENT, false, REVISION));
+
+        // a new cursor for the same query replaces the old one
+        Cursor newCursor = cache.create("alice", STATEMENT, false, createIds(5), REVISION);
+        assertNull(cache.get(cursor.getToken(), "alice", STATEMENT, false, REVISION));
+        assertSame(newCursor, cache.get(newCursor.getToken(), "alice", STATEMENT, false, REVISION));
+        assertEquals(1, cache.size());
+        assertEquals(5, cache.getIdCount());
+
+        cache.remove(newCursor.getToken());
+        assertNull(cache.get(newCursor.getToken(), "alice", STATEMENT, false, REVISION));
+        assertEquals(0, cache.getIdCount());
+    }
+
+    @Test
+    public void testLimits() {
+        QueryCursorCache cache = new QueryCursorCache(60000, 3, 100);
+
+        // too big
+        assertNull(cache.create("alice", STATEMENT, false, createIds(101), REVISION));
+
+        Cursor c1 = cache.create("u1", STATEMENT, false, createIds(40), REVISION);
+        Cursor c2 = cache.create("u2", STATEMENT, false, createIds(40), REVISION);
+        assertNotNull(cache.get(c1.getToken(), "u1", STATEMENT, false, REVISION));
+
+        // c2 is the least recently used cursor
+        Cursor c3 = cache.create("u3", STATEMENT, false, createIds(40), REVISION);
+        assertNull(cache.get(c2.getToken(), "u2", STATEMENT, false, REVISION));
+        assertNotNull(cache.get(c1.getToken(), "u1", STATEMENT, false, REVISION));
+        assertNotNull(cache.get(c3.getToken(), "u3", STATEMENT, false, REVISION));
+        assertEquals(80, cache.getIdCount());
+
+        cache.create("u4", STATEMENT, false, createIds(1), REVISION);
+        cache.create("u5", STATEMENT, false, createIds(1), REVISION);
+        assertEquals(3, cache.size());
+        assertNull(cache.get(c1.getToken(), "u1", STATEMENT, false, REVISION));
+    }
+
+    @Test
+    public void testExpiry() throws InterruptedException {
+        QueryCursorCache cache = new QueryCursorCache(200, 10, 100);
+        Cursor cursor = cache.create("alice", STATEMENT, false, createIds(10), REVISION);
+
+        // using a cursor doesn't extend its lifetime
+        Thread.sleep(120);
+        assertSame(cursor, cache.get(cursor.getToken(), "alice", STATEMENT, false, REVISION));
+        Thread.sleep(120);
+
+        assertNull(cache.get(cursor.getToken(), "alice", STATEMENT, false, REVISION));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testRevision() {
+        QueryCursorCache cache = new QueryCursorCache();
+        Cursor cursor = cache.create("alice", STATEMENT, false, createIds(10), REVISION);
+
+        // the repository has changed since the cursor has been created
+        assertNull(cache.get(cursor.getToken(), "alice", STATEMENT, false, REVISION + 1));
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getIdCount());
+    }
+
+    @Test
+    public void testExtension() {
+        assertNull(QueryCursorCache.getToken(null));
+        assertFalse(QueryCursorCache.isRequested(null));
+
+        ExtensionDataImpl extension = new ExtensionDataImpl();
+        assertNull(QueryCursorCache.getToken(extension));
+        assertFalse(QueryCursorCache.isRequested(extension));
+
+        // a request for a new cursor
+        extension.setExtensions(QueryCursorCache.createExtension(null));
+        assertNull(QueryCursorCache.getToken(extension));
+        assertTrue(QueryCursorCache.isRequested(extension));
+
+        extension.setExtensions(QueryCursorCache.createExtension("token"));
+        assertEquals("token", QueryCursorCache.getToken(extension));
+        assertTrue(QueryCursorCache.isRequested(extension));
+        assertFalse(extension.getExtensions().isEmpty());
+    }
+
+    private static List<String> createIds(int count) {
+        List<String> ids = new ArrayList<String>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add("id" + i);
+        }
+        return ids;
+    }
+}
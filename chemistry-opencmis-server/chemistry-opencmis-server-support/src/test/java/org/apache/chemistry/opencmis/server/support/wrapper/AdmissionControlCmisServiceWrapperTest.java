@@ -0,0 +1,234 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.chemistry.opencmis.server.support.wrapper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.chemistry.opencmis.commons.exceptions.CmisServiceUnavailableException;
+import org.apache.chemistry.opencmis.server.support.wrapper.AdmissionController.OperationClass;
+import org.apache.chemistry.opencmis.server.support.wrapper.AdmissionController.Permit;
+import org.junit.Test;
+
+public class AdmissionControlCmisServiceWrapperTest {
+
+    private static final long TIMEOUT = 10000;
+
+    @Test
+    public void testPerUserLimit() {
+        AdmissionController controller = new AdmissionController(new Object[] { "read=10", "perUser=2" });
+
+        Permit p1 = controller.acquire(OperationClass.READ, "alice");
+        Permit p2 = controller.acquire(OperationClass.READ, "alice");
+
+        try {
+            controller.acquire(OperationClass.READ, "alice");
+            fail("Third call should have been rejected!");
+        } catch (CmisServiceUnavailableException e) {
+            assertEquals(5, e.getRetryAfter());
+        }
+
+        // other users are not affected
+        controller.acquire(OperationClass.READ, "bob").release();
+        assertEquals(1, controller.getActiveUserCount());
+
+        p1.release();
+        p1.release();
+        controller.acquire(OperationClass.READ, "alice").release();
+        p2.release();
+
+        assertEquals(0, controller.getActiveCount("read"));
+        assertEquals(1, controller.getRejectedCount("read"));
+
+        // users without active calls are not kept
+        assertEquals(0, controller.getActiveUserCount());
+    }
+
+    @Test
+    public void testConcurrentRelease() throws Exception {
+        AdmissionController controller = new AdmissionController(new Object[] { "read=1", "queue=0" });
+
+        final Permit permit = controller.acquire(OperationClass.READ, "alice");
+
+        // releasing the same permit from several threads frees it only once
+        final CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int i = 0; i < 8; i++) {
+            Thread t = new Thread(new Runnable() {
+                public void run() {
+                    try {
+                        start.await();
+                        permit.release();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            });
+            t.start();
+            threads.add(t);
+        }
+
+        start.countDown();
+        for (Thread t : threads) {
+            t.join(TIMEOUT);
+        }
+
+        assertEquals(0, controller.getActiveCount("read"));
+        assertEquals(0, controller.getActiveUserCount());
+
+        controller.acquire(OperationClass.READ, "alice");
+        try {
+            controller.acquire(OperationClass.READ, "bob");
+            fail("Second call should have been rejected!");
+        } catch (CmisServiceUnavailableException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testMaxWait() {
+        AdmissionController controller = new AdmissionController(new Object[] { "read=1", "queue=1", "maxWait=1" });
+
+        Permit permit = controller.acquire(OperationClass.READ, "alice");
+        try {
+            controller.acquire(OperationClass.READ, "bob");
+            fail("Call should have been rejected!");
+        } catch (CmisServiceUnavailableException e) {
+            // expected
+        }
+        permit.release();
+
+        assertEquals(1, controller.getQueuedCount("read"));
+        assertEquals(1, controller.getRejectedCount("read"));
+        assertEquals(0, controller.getWaitingCount("read"));
+        assertEquals(0, controller.getActiveUserCount());
+    }
+
+    @Test
+    public void testOverload() throws Exception {
+        Map<String, String> parameters = new HashMap<String, String>();
+        parameters.put("servicewrapper.1", AdmissionControlCmisServiceWrapper.class.getName()
+                + ",read=2,perUser=1000,queue=1,maxWait=" + TIMEOUT + ",retryAfter=1");
+
+        final CmisServiceWrapperManager manager = new CmisServiceWrapperManager();
+        manager.addWrappersFromServiceFactoryParameters(parameters);
+
+        final BlockingService service = new BlockingService();
+        AdmissionController controller = ((AdmissionControlCmisServiceWrapper) manager.wrap(service))
+                .getAdmissionController();
+
+        // two calls take both permits and block in the service
+        final AtomicInteger admitted = new AtomicInteger();
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int i = 0; i < 3; i++) {
+            Thread t = new Thread(new Runnable() {
+                public void run() {
+                    manager.wrap(service).getObject(TestRepositoryService.REPOSITORY_ID, "doc0", null, null, null,
+                            null, null, null, null);
+                    admitted.incrementAndGet();
+                }
+            });
+            t.start();
+            threads.add(t);
+
+            if (i < 2) {
+                assertTrue(service.entered[i].await(TIMEOUT, TimeUnit.MILLISECONDS));
+            }
+        }
+
+        // the third call waits in the queue
+        long deadline = System.currentTimeMillis() + TIMEOUT;
+        while (controller.getWaitingCount("read") < 1 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(1, controller.getWaitingCount("read"));
+        assertEquals(2, controller.getActiveCount("read"));
+
+        // the queue is full, the fourth call is rejected immediately
+        try {
+            manager.wrap(service).getObject(TestRepositoryService.REPOSITORY_ID, "doc0", null, null, null, null,
+                    null, null, null);
+            fail("Call should have been rejected!");
+        } catch (CmisServiceUnavailableException e) {
+            assertEquals(1, e.getRetryAfter());
+        }
+
+        // once the service continues, all admitted calls finish
+        service.proceed.countDown();
+        for (Thread t : threads) {
+            t.join(TIMEOUT);
+        }
+
+        assertEquals(3, admitted.get());
+        assertEquals(3, service.getCallCount("getObject"));
+        assertEquals(2, service.maxConcurrency.get());
+        assertEquals(1, controller.getRejectedCount("read"));
+        assertEquals(0, controller.getActiveCount("read"));
+        assertEquals(0, controller.getActiveUserCount());
+    }
+
+    /**
+     * Blocks <code>getObject</code> calls until {@link #proceed} is counted
+     * down.
+     */
+    private static class BlockingService extends TestRepositoryService {
+
+        private final CountDownLatch[] entered = new CountDownLatch[] { new CountDownLatch(1), new CountDownLatch(1) };
+        private final CountDownLatch proceed = new CountDownLatch(1);
+        private final AtomicInteger concurrency = new AtomicInteger();
+        private final AtomicInteger maxConcurrency = new AtomicInteger();
+
+        public BlockingService() {
+            super(1);
+        }
+
+        @Override
+        protected void call(String operation, String repositoryId) {
+            super.call(operation, repositoryId);
+
+            if (!"getObject".equals(operation)) {
+                return;
+            }
+
+            int current = concurrency.incrementAndGet();
+            int max;
+            while (current > (max = maxConcurrency.get())) {
+                maxConcurrency.compareAndSet(max, current);
+            }
+
+            try {
+                entered[Math.min(current, entered.length) - 1].countDown();
+                proceed.await(TIMEOUT, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                concurrency.decrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.chemistry.opencmis.server.support.wrapper;
+
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.chemistry.opencmis.commons.exceptions.CmisServiceUnavailableException;
+import org.apache.chemistry.opencmis.commons.server.CmisService;
+import org.apache.chemistry.opencmis.server.support.metrics.LatencyHistogram;
+import org.junit.Test;
+
+/**
+ * Overload benchmark for {@link AdmissionControlCmisServiceWrapper}. Many
+ * clients call a backend that can only work on a few calls at a time. The
+ * benchmark reports the latency percentiles of the completed calls with and
+ * without admission control.
+ * <p>
+ * Not part of the default build, run it with <code>mvn -Pbenchmarks test</code>.
+ */
+public class AdmissionControlOverloadBenchmark {
+
+    private static final int CLIENTS = 32;
+    private static final int CALLS_PER_CLIENT = 50;
+    private static final int BACKEND_CAPACITY = 4;
+    private static final long SERVICE_TIME = 5;
+    private static final long BACKOFF = 5;
+
+    @Test
+    public void testOverload() throws Exception {
+        Result without = run(new CmisServiceWrapperManager());
+
+        Map<String, String> parameters = new HashMap<String, String>();
+        parameters.put("servicewrapper.1", AdmissionControlCmisServiceWrapper.class.getName() + ",read="
+                + BACKEND_CAPACITY + ",perUser=1000,queue=" + BACKEND_CAPACITY + ",maxWait=" + (2 * SERVICE_TIME)
+                + ",retryAfter=1");
+        CmisServiceWrapperManager manager = new CmisServiceWrapperManager();
+        manager.addWrappersFromServiceFactoryParameters(parameters);
+        Result with = run(manager);
+
+        System.out.println("without admission control: " + without);
+        System.out.println("with admission control:    " + with);
+
+        assertTrue(with.latency.getCount() > 0);
+    }
+
+    private static Result run(final CmisServiceWrapperManager manager) throws InterruptedException {
+        final CapacityService service = new CapacityService();
+        final Result result = new Result();
+
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int i = 0; i < CLIENTS; i++) {
+            Thread t = new Thread(new Runnable() {
+                public void run() {
+                    for (int j = 0; j < CALLS_PER_CLIENT; j++) {
+                        CmisService wrapped = manager.wrap(service);
+                        long start = System.nanoTime();
+                        try {
+                            wrapped.getObject(TestRepositoryService.REPOSITORY_ID, "doc0", null, null, null, null,
+                                    null, null, null);
+                            result.latency.recordNanos(System.nanoTime() - start);
+                        } catch (CmisServiceUnavailableException e) {
+                            result.rejected.incrementAndGet();
+                            sleep(BACKOFF);
+                        }
+                    }
+                }
+            });
+            t.start();
+            threads.add(t);
+        }
+
+        for (Thread t : threads) {
+            t.join();
+        }
+
+        return result;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class Result {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final AtomicInteger rejected = new AtomicInteger();
+
+        @Override
+        public String toString() {
+            return "completed " + latency.getCount() + ", rejected " + rejected.get() + ", p50 "
+                    + latency.getPercentile(50.0) + " us, p99 " + latency.getPercentile(99.0) + " us, max "
+                    + latency.getMax() + " us";
+        }
+    }
+
+    /**
+     * Works on at most {@link #BACKEND_CAPACITY} <code>getObject</code> calls
+     * at a time, each takes {@link #SERVICE_TIME} milliseconds.
+     */
+    private static class CapacityService extends TestRepositoryService {
+
+        private final Semaphore capacity = new Semaphore(BACKEND_CAPACITY, true);
+
+        public CapacityService() {
+            super(1);
+        }
+
+        @Override
+        protected void call(String operation, String repositoryId) {
+            super.call(operation, repositoryId);
+
+            if (!"getObject".equals(operation)) {
+                return;
+            }
+
+            capacity.acquireUninterruptibly();
+            try {
+                sleep(SERVICE_TIME);
+            } finally {
+                capacity.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.chemistry.opencmis.server.support.wrapper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.chemistry.opencmis.commons.PropertyIds;
+import org.apache.chemistry.opencmis.commons.data.ObjectData;
+import org.apache.chemistry.opencmis.commons.data.ObjectInFolderList;
+import org.apache.chemistry.opencmis.commons.definitions.MutableTypeDefinition;
+import org.apache.chemistry.opencmis.commons.definitions.TypeDefinition;
+import org.apache.chemistry.opencmis.commons.definitions.TypeDefinitionList;
+import org.apache.chemistry.opencmis.commons.enums.BaseTypeId;
+import org.apache.chemistry.opencmis.commons.exceptions.CmisNotSupportedException;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.ExtensionDataImpl;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.PropertiesImpl;
+import org.apache.chemistry.opencmis.commons.server.CallContext;
+import org.apache.chemistry.opencmis.commons.server.CmisService;
+import org.junit.Test;
+
+public class CachingCmisServiceWrapperTest {
+
+    private static final String REPOSITORY_ID = TestRepositoryService.REPOSITORY_ID;
+
+    private static int cacheCounter = 0;
+
+    @Test
+    public void testCachingAndInvalidation() {
+        CmisServiceWrapperManager manager = createManager(",getTypeDefinition=10:600");
+        TestRepositoryService service = new TestRepositoryService(3);
+
+        // each request gets a new wrapper, the cache is shared
+        TypeDefinition type1 = manager.wrap(service).getTypeDefinition(REPOSITORY_ID, "cmis:document", null);
+        TypeDefinition type2 = manager.wrap(service).getTypeDefinition(REPOSITORY_ID, "cmis:document", null);
+        assertEquals("cmis:document", type2.getId());
+        assertEquals(type1.getBaseTypeId(), type2.getBaseTypeId());
+        assertEquals(1, service.getCallCount("getTypeDefinition"));
+
+        // different arguments and extensions are not served from the cache
+        manager.wrap(service).getTypeDefinition(REPOSITORY_ID, "cmis:folder", null);
+        manager.wrap(service).getTypeDefinition(REPOSITORY_ID, "cmis:document", new ExtensionDataImpl());
+        assertEquals(3, service.getCallCount("getTypeDefinition"));
+
+        // a write operation invalidates the repository, even if it fails
+        try {
+            manager.wrap(service).deleteType(REPOSITORY_ID, "my:type", null);
+        } catch (CmisNotSupportedException e) {
+            // expected
+        }
+
+        manager.wrap(service).getTypeDefinition(REPOSITORY_ID, "cmis:document", null);
+        assertEquals(4, service.getCallCount("getTypeDefinition"));
+    }
+
+    @Test
+    public void testHitsReturnCopies() {
+        CmisServiceWrapperManager manager = createManager(",getChildren=10:600");
+        TestRepositoryService service = new TestRepositoryService(3);
+
+        ObjectInFolderList children1 = getChildren(manager.wrap(service));
+        ObjectInFolderList children2 = getChildren(manager.wrap(service));
+        assertEquals(1, service.getCallCount("getChildren"));
+        assertNotSame(children1, children2);
+
+        // modifying a returned response doesn't affect later hits
+        children2.getObjects().remove(0);
+        ((PropertiesImpl) children2.getObjects().get(0).getObject().getProperties())
+                .removeProperty(PropertyIds.NAME);
+
+        ObjectInFolderList children3 = getChildren(manager.wrap(service));
+        assertEquals(1, service.getCallCount("getChildren"));
+        assertEquals(3, children3.getObjects().size());
+        assertEquals("doc0",
+                children3.getObjects().get(0).getObject().getProperties().getProperties().get(PropertyIds.NAME)
+                        .getFirstValue());
+    }
+
+    @Test
+    public void testTypeHitsReturnCopies() {
+        CmisServiceWrapperManager manager = createManager(",getTypeChildren=10:600");
+        TestRepositoryService service = new TestRepositoryService(3);
+
+        TypeDefinitionList types1 = manager.wrap(service).getTypeChildren(REPOSITORY_ID, null, true, null, null, null);
+        TypeDefinitionList types2 = manager.wrap(service).getTypeChildren(REPOSITORY_ID, null, true, null, null, null);
+        assertEquals(1, service.getCallCount("getTypeChildren"));
+        assertNotSame(types1.getList().get(0), types2.getList().get(0));
+        assertEquals("cmis:document", types2.getList().get(0).getId());
+        assertEquals(BaseTypeId.CMIS_FOLDER, types2.getList().get(1).getBaseTypeId());
+
+        // modifying a returned type doesn't affect later hits
+        ((MutableTypeDefinition) types2.getList().get(0)).setDisplayName("changed");
+        types2.getList().remove(1);
+
+        TypeDefinitionList types3 = manager.wrap(service).getTypeChildren(REPOSITORY_ID, null, true, null, null, null);
+        assertEquals(1, service.getCallCount("getTypeChildren"));
+        assertEquals(2, types3.getList().size());
+        assertNull(types3.getList().get(0).getDisplayName());
+    }
+
+    @Test
+    public void testObjectInfoRequired() {
+        CmisServiceWrapperManager manager = createManager("");
+        TestRepositoryService service = new TestRepositoryService(3);
+
+        // AtomPub needs object infos, which a cache hit can't provide
+        for (int i = 0; i < 2; i++) {
+            CmisService wrapped = wrap(manager, service, true);
+            getChildren(wrapped);
+            wrapped.getObjectByPath(REPOSITORY_ID, "/doc1", null, null, null, null, null, null, null);
+        }
+
+        assertEquals(2, service.getCallCount("getChildren"));
+        assertEquals(2, service.getCallCount("getObjectByPath"));
+
+        // the other bindings use the cache
+        for (int i = 0; i < 2; i++) {
+            CmisService wrapped = wrap(manager, service, false);
+            getChildren(wrapped);
+            ObjectData object = wrapped.getObjectByPath(REPOSITORY_ID, "/doc1", null, null, null, null, null, null,
+                    null);
+            assertEquals("doc1", object.getId());
+        }
+
+        assertEquals(3, service.getCallCount("getChildren"));
+        assertEquals(3, service.getCallCount("getObjectByPath"));
+    }
+
+    @Test
+    public void testErrorsAreNotCached() {
+        CmisServiceWrapperManager manager = createManager(",getObjectByPath=10:600");
+        TestRepositoryService service = new TestRepositoryService(3);
+
+        for (int i = 0; i < 2; i++) {
+            try {
+                manager.wrap(service).getObjectByPath(REPOSITORY_ID, "/missing", null, null, null, null, null, null,
+                        null);
+            } catch (RuntimeException e) {
+                // expected
+            }
+        }
+
+        assertEquals(2, service.getCallCount("getObjectByPath"));
+    }
+
+    private static CmisServiceWrapperManager createManager(String settings) {
+        // a unique setting gives each test its own cache instance
+        Map<String, String> parameters = new HashMap<String, String>();
+        parameters.put("servicewrapper.1", CachingCmisServiceWrapper.class.getName() + settings
+                + ",getRepositoryInfos=10:" + (++cacheCounter));
+
+        CmisServiceWrapperManager manager = new CmisServiceWrapperManager();
+        manager.addWrappersFromServiceFactoryParameters(parameters);
+
+        return manager;
+    }
+
+    private static CmisService wrap(CmisServiceWrapperManager manager, CmisService service,
+            final boolean objectInfoRequired) {
+        CallContext context = (CallContext) Proxy.newProxyInstance(CallContext.class.getClassLoader(),
+                new Class<?>[] { CallContext.class }, new InvocationHandler() {
+                    public Object invoke(Object proxy, Method method, Object[] args) {
+                        if (method.getName().equals("isObjectInfoRequired")) {
+                            return objectInfoRequired;
+                        }
+                        if (method.getName().equals("getUsername")) {
+                            return "user";
+                        }
+                        return null;
+                    }
+                });
+
+        CmisService wrapped = manager.wrap(service);
+        ((AbstractCmisServiceWrapper) wrapped).setCallContext(context);
+
+        return wrapped;
+    }
+
+    private static ObjectInFolderList getChildren(CmisService service) {
+        ObjectInFolderList result = service.getChildren(REPOSITORY_ID, TestRepositoryService.ROOT_ID, null, null,
+                null, null, null, null, BigInteger.TEN, null, null);
+        return result;
+    }
+}
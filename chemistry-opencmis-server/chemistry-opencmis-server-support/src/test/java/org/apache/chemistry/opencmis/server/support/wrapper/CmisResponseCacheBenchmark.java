@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.chemistry.opencmis.server.support.wrapper;
+
+import static org.junit.Assert.assertNotNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.chemistry.opencmis.commons.definitions.TypeDefinitionContainer;
+import org.apache.chemistry.opencmis.commons.enums.CmisVersion;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.TypeDefinitionContainerImpl;
+import org.apache.chemistry.opencmis.server.support.TypeDefinitionFactory;
+import org.junit.Test;
+
+/**
+ * Compares a {@link CmisResponseCache} hit with a miss and with the
+ * serialization round trip a hit used to cost. The responses are a children
+ * list with 1,000 objects and a type tree with 100 document types.
+ * <p>
+ * Not part of the default build, run it with <code>mvn -Pbenchmarks test</code>.
+ */
+public class CmisResponseCacheBenchmark {
+
+    private static final String REPOSITORY_ID = TestRepositoryService.REPOSITORY_ID;
+
+    private static final int OBJECTS = 1000;
+    private static final int TYPES = 100;
+    private static final int WARMUP_ROUNDS = 200;
+    private static final int ROUNDS = 1000;
+
+    @Test
+    public void testChildren() throws Exception {
+        final TestRepositoryService service = new TestRepositoryService(OBJECTS);
+        final CmisResponseCache cache = new CmisResponseCache(null);
+        final CmisResponseCache.Key key = cache.createKey("getChildren", REPOSITORY_ID, null, "benchmark");
+
+        final Call miss = new Call() {
+            public Object call() {
+                return service.getChildren(REPOSITORY_ID, TestRepositoryService.ROOT_ID, null, null, null, null,
+                        null, null, BigInteger.valueOf(OBJECTS), null, null);
+            }
+        };
+
+        final Object response = miss.call();
+        cache.put(key, response);
+
+        run("getChildren", miss, new Call() {
+            public Object call() {
+                return cache.get(key);
+            }
+        }, response);
+    }
+
+    @Test
+    public void testTypeDescendants() throws Exception {
+        final TypeDefinitionFactory factory = TypeDefinitionFactory.newInstance();
+        final CmisResponseCache cache = new CmisResponseCache(null);
+        final CmisResponseCache.Key key = cache.createKey("getTypeDescendants", REPOSITORY_ID, null, "benchmark");
+
+        final Call miss = new Call() {
+            public Object call() {
+                TypeDefinitionContainerImpl root = new TypeDefinitionContainerImpl(
+                        factory.createBaseDocumentTypeDefinition(CmisVersion.CMIS_1_1));
+                List<TypeDefinitionContainer> children = new ArrayList<TypeDefinitionContainer>();
+                for (int i = 0; i < TYPES; i++) {
+                    children.add(new TypeDefinitionContainerImpl(factory.createDocumentTypeDefinition(
+                            CmisVersion.CMIS_1_1, "cmis:document")));
+                }
+                root.setChildren(children);
+
+                List<TypeDefinitionContainer> result = new ArrayList<TypeDefinitionContainer>();
+                result.add(root);
+                return result;
+            }
+        };
+
+        final Object response = miss.call();
+        cache.put(key, response);
+
+        run("getTypeDescendants", miss, new Call() {
+            public Object call() {
+                return cache.get(key);
+            }
+        }, response);
+    }
+
+    private static void run(String name, Call miss, Call hit, final Object response) throws Exception {
+        Call serialization = new Call() {
+            public Object call() throws Exception {
+                ByteArrayOutputStream data = new ByteArrayOutputStream();
+                ObjectOutputStream out = new ObjectOutputStream(data);
+                out.writeObject(response);
+                out.close();
+
+                return new ObjectInputStream(new ByteArrayInputStream(data.toByteArray())).readObject();
+            }
+        };
+
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            miss.call();
+            hit.call();
+            serialization.call();
+        }
+
+        long missTime = time(miss);
+        long hitTime = time(hit);
+        long serializationTime = time(serialization);
+
+        System.out.println(name + ": miss (backend) " + missTime + " us, hit " + hitTime
+                + " us, serialization copy " + serializationTime + " us");
+
+        assertNotNull(hit.call());
+    }
+
+    private static long time(Call call) throws Exception {
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            call.call();
+        }
+        return (System.nanoTime() - start) / ROUNDS / 1000;
+    }
+
+    private interface Call {
+        Object call() throws Exception;
+    }
+}
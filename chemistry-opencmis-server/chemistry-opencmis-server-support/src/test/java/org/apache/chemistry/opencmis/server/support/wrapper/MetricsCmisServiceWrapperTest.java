@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.chemistry.opencmis.server.support.wrapper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigInteger;
+
+import javax.management.ObjectName;
+
+import org.apache.chemistry.opencmis.commons.exceptions.CmisObjectNotFoundException;
+import org.apache.chemistry.opencmis.server.support.metrics.CmisMetrics;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MetricsCmisServiceWrapperTest {
+
+    private static final String METRICS_NAME = "wrappertest";
+    private static final String REPOSITORY_ID = TestRepositoryService.REPOSITORY_ID;
+
+    private TestRepositoryService service;
+    private MetricsCmisServiceWrapper wrapper;
+    private CmisMetrics metrics;
+
+    @Before
+    public void setUp() {
+        service = new TestRepositoryService(5);
+        wrapper = new MetricsCmisServiceWrapper(service);
+        wrapper.initialize(new Object[] { METRICS_NAME });
+        metrics = wrapper.getMetrics();
+        metrics.reset();
+    }
+
+    @After
+    public void tearDown() {
+        CmisMetrics.removeInstance(METRICS_NAME);
+    }
+
+    @Test
+    public void testCallsAndObjects() {
+        wrapper.getObject(REPOSITORY_ID, "doc1", null, null, null, null, null, null, null);
+        wrapper.getObject(REPOSITORY_ID, "doc2", null, null, null, null, null, null, null);
+        wrapper.getChildren(REPOSITORY_ID, TestRepositoryService.ROOT_ID, null, null, null, null, null, null,
+                BigInteger.valueOf(3), null, null);
+
+        assertEquals(2, service.getCallCount("getObject"));
+        assertEquals(2, metrics.getCallCount(REPOSITORY_ID, "getObject"));
+        assertEquals(2, metrics.getObjectCount(REPOSITORY_ID, "getObject"));
+        assertEquals(0, metrics.getErrorCount(REPOSITORY_ID, "getObject"));
+        assertEquals(1, metrics.getCallCount(REPOSITORY_ID, "getChildren"));
+        assertEquals(3, metrics.getObjectCount(REPOSITORY_ID, "getChildren"));
+        assertEquals(3, metrics.getTotalCallCount());
+        assertTrue(metrics.getLatencyPercentile(REPOSITORY_ID, "getObject", 50) >= 0);
+    }
+
+    @Test
+    public void testErrors() {
+        wrapper.getObject(REPOSITORY_ID, "doc1", null, null, null, null, null, null, null);
+
+        try {
+            wrapper.getObject(REPOSITORY_ID, "missing", null, null, null, null, null, null, null);
+            fail("Exception expected!");
+        } catch (CmisObjectNotFoundException e) {
+            // expected
+        }
+
+        assertEquals(2, metrics.getCallCount(REPOSITORY_ID, "getObject"));
+        assertEquals(1, metrics.getErrorCount(REPOSITORY_ID, "getObject"));
+        assertEquals(1, metrics.getTotalErrorCount());
+    }
+
+    @Test
+    public void testUnknownRepositories() {
+        for (int i = 0; i < 10; i++) {
+            try {
+                wrapper.getObject("nonexisting" + i, "doc1", null, null, null, null, null, null, null);
+                fail("Exception expected!");
+            } catch (CmisObjectNotFoundException e) {
+                // expected
+            }
+        }
+
+        // all failed calls with unknown repository ids share one entry
+        assertEquals(1, metrics.getOperationKeys().length);
+        assertEquals(10, metrics.getCallCount("<unknown>", "getObject"));
+        assertEquals(10, metrics.getErrorCount("<unknown>", "getObject"));
+        assertEquals(0, metrics.getCallCount("nonexisting0", "getObject"));
+    }
+
+    @Test
+    public void testKnownRepositories() {
+        // a repository returned by getRepositoryInfos is known, even if the
+        // first call fails
+        wrapper.getRepositoryInfos(null);
+
+        try {
+            wrapper.getObject(REPOSITORY_ID, "missing", null, null, null, null, null, null, null);
+            fail("Exception expected!");
+        } catch (CmisObjectNotFoundException e) {
+            // expected
+        }
+
+        assertEquals(1, metrics.getCallCount(null, "getRepositoryInfos"));
+        assertEquals(1, metrics.getErrorCount(REPOSITORY_ID, "getObject"));
+        assertEquals(0, metrics.getCallCount("<unknown>", "getObject"));
+    }
+
+    @Test
+    public void testRemoveInstance() throws Exception {
+        ObjectName objectName = new ObjectName("org.apache.chemistry.opencmis:type=CmisMetrics,name="
+                + ObjectName.quote(METRICS_NAME));
+        assertTrue(ManagementFactory.getPlatformMBeanServer().isRegistered(objectName));
+
+        CmisMetrics.removeInstance(METRICS_NAME);
+        assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(objectName));
+
+        // a new instance is registered again
+        CmisMetrics newMetrics = CmisMetrics.getInstance(METRICS_NAME);
+        assertNotSame(metrics, newMetrics);
+        assertTrue(ManagementFactory.getPlatformMBeanServer().isRegistered(objectName));
+    }
+}
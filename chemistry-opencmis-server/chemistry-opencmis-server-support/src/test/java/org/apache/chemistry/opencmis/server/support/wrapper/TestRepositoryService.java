@@ -0,0 +1,265 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.chemistry.opencmis.server.support.wrapper;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.chemistry.opencmis.commons.PropertyIds;
+import org.apache.chemistry.opencmis.commons.data.ExtensionsData;
+import org.apache.chemistry.opencmis.commons.data.ObjectData;
+import org.apache.chemistry.opencmis.commons.data.ObjectInFolderData;
+import org.apache.chemistry.opencmis.commons.data.ObjectInFolderList;
+import org.apache.chemistry.opencmis.commons.data.ObjectParentData;
+import org.apache.chemistry.opencmis.commons.data.RepositoryInfo;
+import org.apache.chemistry.opencmis.commons.definitions.TypeDefinition;
+import org.apache.chemistry.opencmis.commons.definitions.TypeDefinitionList;
+import org.apache.chemistry.opencmis.commons.enums.BaseTypeId;
+import org.apache.chemistry.opencmis.commons.enums.IncludeRelationships;
+import org.apache.chemistry.opencmis.commons.exceptions.CmisInvalidArgumentException;
+import org.apache.chemistry.opencmis.commons.exceptions.CmisObjectNotFoundException;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.AbstractTypeDefinition;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.DocumentTypeDefinitionImpl;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.FolderTypeDefinitionImpl;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.ObjectDataImpl;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.ObjectInFolderDataImpl;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.ObjectInFolderListImpl;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.ObjectParentDataImpl;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.PropertiesImpl;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.PropertyIdImpl;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.PropertyStringImpl;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.RepositoryInfoImpl;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.TypeDefinitionListImpl;
+import org.apache.chemistry.opencmis.commons.impl.server.AbstractCmisService;
+
+/**
+ * Small read-only repository for service wrapper tests. It contains a root
+ * folder with a number of documents and counts how often each operation has
+ * been called.
+ */
+class TestRepositoryService extends AbstractCmisService {
+
+    static final String REPOSITORY_ID = "test";
+    static final String ROOT_ID = "root";
+
+    private final int documentCount;
+    private final Map<String, AtomicInteger> calls = new ConcurrentHashMap<String, AtomicInteger>();
+
+    /**
+     * Creates a repository with the documents <code>doc0</code> to
+     * <code>doc&lt;documentCount - 1&gt;</code> in the root folder.
+     */
+    public TestRepositoryService(int documentCount) {
+        this.documentCount = documentCount;
+    }
+
+    /**
+     * Returns how often the given operation has been called.
+     */
+    public int getCallCount(String operation) {
+        AtomicInteger count = calls.get(operation);
+        return count == null ? 0 : count.get();
+    }
+
+    /**
+     * Counts a call and checks the repository id. Subclasses may override it
+     * to slow down or block calls.
+     */
+    protected void call(String operation, String repositoryId) {
+        synchronized (calls) {
+            AtomicInteger count = calls.get(operation);
+            if (count == null) {
+                count = new AtomicInteger();
+                calls.put(operation, count);
+            }
+            count.incrementAndGet();
+        }
+
+        if (repositoryId != null && !REPOSITORY_ID.equals(repositoryId)) {
+            throw new CmisObjectNotFoundException("Unknown repository: " + repositoryId);
+        }
+    }
+
+    @Override
+    public List<RepositoryInfo> getRepositoryInfos(ExtensionsData extension) {
+        call("getRepositoryInfos", null);
+
+        RepositoryInfoImpl info = new RepositoryInfoImpl();
+        info.setId(REPOSITORY_ID);
+        info.setName(REPOSITORY_ID);
+        info.setRootFolder(ROOT_ID);
+
+        return Collections.<RepositoryInfo> singletonList(info);
+    }
+
+    @Override
+    public TypeDefinition getTypeDefinition(String repositoryId, String typeId, ExtensionsData extension) {
+        call("getTypeDefinition", repositoryId);
+
+        AbstractTypeDefinition type;
+        if (BaseTypeId.CMIS_DOCUMENT.value().equals(typeId)) {
+            type = new DocumentTypeDefinitionImpl();
+            type.setBaseTypeId(BaseTypeId.CMIS_DOCUMENT);
+        } else if (BaseTypeId.CMIS_FOLDER.value().equals(typeId)) {
+            type = new FolderTypeDefinitionImpl();
+            type.setBaseTypeId(BaseTypeId.CMIS_FOLDER);
+        } else {
+            throw new CmisObjectNotFoundException("Unknown type: " + typeId);
+        }
+
+        type.setId(typeId);
+        type.setLocalName(typeId);
+        type.setQueryName(typeId);
+
+        return type;
+    }
+
+    @Override
+    public TypeDefinitionList getTypeChildren(String repositoryId, String typeId,
+            Boolean includePropertyDefinitions, BigInteger maxItems, BigInteger skipCount, ExtensionsData extension) {
+        call("getTypeChildren", repositoryId);
+
+        List<TypeDefinition> types = new ArrayList<TypeDefinition>();
+        if (typeId == null) {
+            types.add(getTypeDefinition(repositoryId, BaseTypeId.CMIS_DOCUMENT.value(), null));
+            types.add(getTypeDefinition(repositoryId, BaseTypeId.CMIS_FOLDER.value(), null));
+        }
+
+        TypeDefinitionListImpl result = new TypeDefinitionListImpl();
+        result.setList(types);
+        result.setHasMoreItems(Boolean.FALSE);
+        result.setNumItems(BigInteger.valueOf(types.size()));
+
+        return result;
+    }
+
+    @Override
+    public ObjectData getObject(String repositoryId, String objectId, String filter, Boolean includeAllowableActions,
+            IncludeRelationships includeRelationships, String renditionFilter, Boolean includePolicyIds,
+            Boolean includeAcl, ExtensionsData extension) {
+        call("getObject", repositoryId);
+
+        return createObject(objectId);
+    }
+
+    @Override
+    public ObjectData getObjectByPath(String repositoryId, String path, String filter,
+            Boolean includeAllowableActions, IncludeRelationships includeRelationships, String renditionFilter,
+            Boolean includePolicyIds, Boolean includeAcl, ExtensionsData extension) {
+        call("getObjectByPath", repositoryId);
+
+        if (path == null || !path.startsWith("/")) {
+            throw new CmisInvalidArgumentException("Invalid path: " + path);
+        }
+
+        return createObject(path.length() == 1 ? ROOT_ID : path.substring(1));
+    }
+
+    @Override
+    public ObjectInFolderList getChildren(String repositoryId, String folderId, String filter, String orderBy,
+            Boolean includeAllowableActions, IncludeRelationships includeRelationships, String renditionFilter,
+            Boolean includePathSegment, BigInteger maxItems, BigInteger skipCount, ExtensionsData extension) {
+        call("getChildren", repositoryId);
+
+        if (!ROOT_ID.equals(folderId)) {
+            createObject(folderId);
+            throw new CmisInvalidArgumentException("Not a folder: " + folderId);
+        }
+
+        int skip = skipCount == null ? 0 : skipCount.intValue();
+        int max = maxItems == null ? documentCount : maxItems.intValue();
+
+        List<ObjectInFolderData> children = new ArrayList<ObjectInFolderData>();
+        for (int i = skip; i < documentCount && children.size() < max; i++) {
+            ObjectInFolderDataImpl child = new ObjectInFolderDataImpl(createObject("doc" + i));
+            if (Boolean.TRUE.equals(includePathSegment)) {
+                child.setPathSegment("doc" + i);
+            }
+            children.add(child);
+        }
+
+        ObjectInFolderListImpl result = new ObjectInFolderListImpl();
+        result.setObjects(children);
+        result.setHasMoreItems(skip + children.size() < documentCount);
+        result.setNumItems(BigInteger.valueOf(documentCount));
+
+        return result;
+    }
+
+    @Override
+    public List<ObjectParentData> getObjectParents(String repositoryId, String objectId, String filter,
+            Boolean includeAllowableActions, IncludeRelationships includeRelationships, String renditionFilter,
+            Boolean includeRelativePathSegment, ExtensionsData extension) {
+        call("getObjectParents", repositoryId);
+
+        if (ROOT_ID.equals(createObject(objectId).getId())) {
+            return Collections.emptyList();
+        }
+
+        ObjectParentDataImpl parent = new ObjectParentDataImpl(createObject(ROOT_ID));
+        if (Boolean.TRUE.equals(includeRelativePathSegment)) {
+            parent.setRelativePathSegment(objectId);
+        }
+
+        return Collections.<ObjectParentData> singletonList(parent);
+    }
+
+    private ObjectData createObject(String objectId) {
+        BaseTypeId baseType;
+        String name;
+        if (ROOT_ID.equals(objectId)) {
+            baseType = BaseTypeId.CMIS_FOLDER;
+            name = "";
+        } else if (isDocument(objectId)) {
+            baseType = BaseTypeId.CMIS_DOCUMENT;
+            name = objectId;
+        } else {
+            throw new CmisObjectNotFoundException("Unknown object: " + objectId);
+        }
+
+        PropertiesImpl properties = new PropertiesImpl();
+        properties.addProperty(new PropertyIdImpl(PropertyIds.OBJECT_ID, objectId));
+        properties.addProperty(new PropertyIdImpl(PropertyIds.OBJECT_TYPE_ID, baseType.value()));
+        properties.addProperty(new PropertyIdImpl(PropertyIds.BASE_TYPE_ID, baseType.value()));
+        properties.addProperty(new PropertyStringImpl(PropertyIds.NAME, name));
+
+        ObjectDataImpl result = new ObjectDataImpl();
+        result.setProperties(properties);
+
+        return result;
+    }
+
+    private boolean isDocument(String objectId) {
+        if (objectId == null || !objectId.startsWith("doc")) {
+            return false;
+        }
+
+        try {
+            int n = Integer.parseInt(objectId.substring(3));
+            return n >= 0 && n < documentCount;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
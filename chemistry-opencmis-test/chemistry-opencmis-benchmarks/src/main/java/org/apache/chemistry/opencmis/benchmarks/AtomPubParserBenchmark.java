@@ -0,0 +1,212 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.chemistry.opencmis.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.apache.chemistry.opencmis.client.bindings.spi.atompub.AtomPubParser;
+import org.apache.chemistry.opencmis.client.bindings.spi.atompub.objects.AtomBase;
+import org.apache.chemistry.opencmis.commons.data.ObjectData;
+import org.apache.chemistry.opencmis.commons.data.ObjectList;
+import org.apache.chemistry.opencmis.commons.enums.CmisVersion;
+import org.apache.chemistry.opencmis.commons.impl.DateTimeHelper;
+import org.apache.chemistry.opencmis.commons.impl.XMLConstants;
+import org.apache.chemistry.opencmis.commons.impl.XMLConverter;
+import org.apache.chemistry.opencmis.commons.impl.XMLTagTable;
+import org.apache.chemistry.opencmis.commons.impl.XMLUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Client side parsing of AtomPub feeds.
+ * <p>
+ * <code>parseFeed</code> measures the whole parser. <code>chainDispatch</code>
+ * and <code>tableDispatch</code> isolate the element dispatch: both classify
+ * every element name of the feed, the first one with the
+ * <code>isTag</code> chains the walkers used to have, the second one with an
+ * {@link XMLTagTable}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AtomPubParserBenchmark {
+
+    private enum Tag {
+        OBJECT, PATH_SEGMENT, RELATIVE_PATH_SEGMENT, TYPE, CHILDREN, LINK, CONTENT, PROPERTIES, ALLOWABLE_ACTIONS,
+        PROPERTY_ID, PROPERTY_STRING, PROPERTY_DATETIME, PROPERTY_INTEGER, PROPERTY_BOOLEAN, VALUE
+    }
+
+    private static final String[] RESTATOM_TAGS = { "object", "pathSegment", "relativePathSegment", "type",
+            "children" };
+    private static final Tag[] RESTATOM_VALUES = { Tag.OBJECT, Tag.PATH_SEGMENT, Tag.RELATIVE_PATH_SEGMENT,
+            Tag.TYPE, Tag.CHILDREN };
+    private static final String[] CMIS_TAGS = { "properties", "allowableActions", "propertyId", "propertyString",
+            "propertyDateTime", "propertyInteger", "propertyBoolean", "value" };
+    private static final Tag[] CMIS_VALUES = { Tag.PROPERTIES, Tag.ALLOWABLE_ACTIONS, Tag.PROPERTY_ID,
+            Tag.PROPERTY_STRING, Tag.PROPERTY_DATETIME, Tag.PROPERTY_INTEGER, Tag.PROPERTY_BOOLEAN, Tag.VALUE };
+
+    private static final XMLTagTable<Tag> TAGS = new XMLTagTable<Tag>()
+            .putAll(XMLConstants.NAMESPACE_RESTATOM, RESTATOM_TAGS, RESTATOM_VALUES)
+            .putAll(XMLConstants.NAMESPACE_CMIS, CMIS_TAGS, CMIS_VALUES)
+            .put(XMLConstants.NAMESPACE_ATOM, "link", Tag.LINK)
+            .put(XMLConstants.NAMESPACE_ATOM, "content", Tag.CONTENT);
+
+    @Param({ "100", "10000" })
+    public int entryCount;
+
+    private byte[] feed;
+    private QName[] names;
+
+    @Setup
+    public void setup() throws Exception {
+        feed = createAtomFeed(BenchmarkData.createObjectList(entryCount));
+
+        List<QName> result = new ArrayList<QName>();
+        XMLStreamReader parser = XMLUtils.createParser(new ByteArrayInputStream(feed));
+        while (parser.hasNext()) {
+            if (parser.next() == XMLStreamConstants.START_ELEMENT) {
+                result.add(parser.getName());
+            }
+        }
+        parser.close();
+
+        names = result.toArray(new QName[result.size()]);
+    }
+
+    @Benchmark
+    public AtomBase parseFeed() throws Exception {
+        AtomPubParser parser = new AtomPubParser(new ByteArrayInputStream(feed));
+        parser.parse();
+
+        return parser.getResults();
+    }
+
+    @Benchmark
+    public int chainDispatch() {
+        int result = 0;
+        for (QName name : names) {
+            Tag tag = classify(name);
+            result += (tag == null ? -1 : tag.ordinal());
+        }
+
+        return result;
+    }
+
+    @Benchmark
+    public int tableDispatch() {
+        int result = 0;
+        for (QName name : names) {
+            Tag tag = TAGS.get(name);
+            result += (tag == null ? -1 : tag.ordinal());
+        }
+
+        return result;
+    }
+
+    private static Tag classify(QName name) {
+        if (XMLConstants.NAMESPACE_RESTATOM.equals(name.getNamespaceURI())) {
+            for (int i = 0; i < RESTATOM_TAGS.length; i++) {
+                if (RESTATOM_TAGS[i].equals(name.getLocalPart())) {
+                    return RESTATOM_VALUES[i];
+                }
+            }
+        } else if (XMLConstants.NAMESPACE_CMIS.equals(name.getNamespaceURI())) {
+            for (int i = 0; i < CMIS_TAGS.length; i++) {
+                if (CMIS_TAGS[i].equals(name.getLocalPart())) {
+                    return CMIS_VALUES[i];
+                }
+            }
+        } else if (XMLConstants.NAMESPACE_ATOM.equals(name.getNamespaceURI())) {
+            if ("link".equals(name.getLocalPart())) {
+                return Tag.LINK;
+            } else if ("content".equals(name.getLocalPart())) {
+                return Tag.CONTENT;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Writes an object list as AtomPub feed, the way the server renders
+     * children and query results.
+     */
+    private static byte[] createAtomFeed(ObjectList objectList) throws XMLStreamException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        String updated = DateTimeHelper.formatXmlDateTime(System.currentTimeMillis());
+
+        XMLStreamWriter writer = XMLUtils.createWriter(out);
+        XMLUtils.startXmlDocument(writer);
+        writer.writeStartElement(XMLConstants.NAMESPACE_ATOM, "feed");
+        writer.writeNamespace(XMLConstants.PREFIX_ATOM, XMLConstants.NAMESPACE_ATOM);
+        writer.writeNamespace(XMLConstants.PREFIX_CMIS, XMLConstants.NAMESPACE_CMIS);
+        writer.writeNamespace(XMLConstants.PREFIX_RESTATOM, XMLConstants.NAMESPACE_RESTATOM);
+
+        for (ObjectData object : objectList.getObjects()) {
+            String self = "http://localhost/cmis/atom/bench/entry?id=" + object.getId();
+
+            writer.writeStartElement(XMLConstants.NAMESPACE_ATOM, "entry");
+            XMLUtils.write(writer, XMLConstants.PREFIX_ATOM, XMLConstants.NAMESPACE_ATOM, "id", "urn:uuid:"
+                    + object.getId());
+            XMLUtils.write(writer, XMLConstants.PREFIX_ATOM, XMLConstants.NAMESPACE_ATOM, "title", object.getId());
+            XMLUtils.write(writer, XMLConstants.PREFIX_ATOM, XMLConstants.NAMESPACE_ATOM, "updated", updated);
+            writeLink(writer, "self", self);
+            writeLink(writer, "edit", self);
+            writeLink(writer, "describedby", "http://localhost/cmis/atom/bench/type?id=" + BenchmarkData.DOCUMENT_TYPE_ID);
+            writeLink(writer, "http://docs.oasis-open.org/ns/cmis/link/200908/allowableactions",
+                    "http://localhost/cmis/atom/bench/allowableactions?id=" + object.getId());
+            XMLConverter.writeObject(writer, CmisVersion.CMIS_1_1, XMLConstants.NAMESPACE_RESTATOM, object);
+            writer.writeEndElement();
+        }
+
+        writer.writeEndElement();
+        XMLUtils.endXmlDocument(writer);
+
+        return out.toByteArray();
+    }
+
+    private static void writeLink(XMLStreamWriter writer, String rel, String href) throws XMLStreamException {
+        writer.writeStartElement(XMLConstants.PREFIX_ATOM, "link", XMLConstants.NAMESPACE_ATOM);
+        writer.writeAttribute("rel", rel);
+        writer.writeAttribute("href", href);
+        writer.writeEndElement();
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.chemistry.opencmis.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.chemistry.opencmis.commons.impl.Base64;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Base64 encoding and decoding of content.
+ * <p>
+ * The stream benchmarks use the streams the same way the AtomPub binding
+ * does: the client encodes while reading the content
+ * (<code>AtomEntryWriter</code>) and the server decodes while writing it to
+ * a temporary buffer (<code>AtomEntryParser</code>).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Base64Benchmark {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @Param({ "65536", "1048576", "8388608" })
+    public int size;
+
+    private byte[] content;
+    private byte[] encoded;
+
+    @Setup
+    public void setup() {
+        content = BenchmarkData.createContent(size);
+        encoded = Base64.encodeBytesToBytes(content);
+    }
+
+    @Benchmark
+    public String encodeBytes() {
+        return Base64.encodeBytes(content);
+    }
+
+    @Benchmark
+    public byte[] decodeBytes() throws IOException {
+        return Base64.decode(encoded);
+    }
+
+    @Benchmark
+    public long encodeStream() throws IOException {
+        InputStream stream = new Base64.InputStream(new ByteArrayInputStream(content), Base64.ENCODE);
+
+        long result = 0;
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int b;
+        while ((b = stream.read(buffer)) > -1) {
+            result += b;
+        }
+        stream.close();
+
+        return result;
+    }
+
+    @Benchmark
+    public long decodeStream() throws IOException {
+        CountingOutputStream counter = new CountingOutputStream();
+        OutputStream stream = new Base64.OutputStream(counter, Base64.DECODE);
+
+        for (int offset = 0; offset < encoded.length; offset += BUFFER_SIZE) {
+            stream.write(encoded, offset, Math.min(BUFFER_SIZE, encoded.length - offset));
+        }
+        stream.close();
+
+        return counter.count;
+    }
+
+    /**
+     * Discards all data but counts the bytes.
+     */
+    private static class CountingOutputStream extends OutputStream {
+        long count = 0;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
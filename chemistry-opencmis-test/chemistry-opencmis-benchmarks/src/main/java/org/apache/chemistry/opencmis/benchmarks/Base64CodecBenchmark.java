@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.chemistry.opencmis.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.chemistry.opencmis.commons.impl.Base64Codec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Base64 encoding and decoding of content with {@link Base64Codec}.
+ * <p>
+ * Uses the same sizes and buffers as {@link Base64Benchmark}, so the results
+ * can be compared with its stream benchmarks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Base64CodecBenchmark {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @Param({ "65536", "1048576", "8388608" })
+    public int size;
+
+    private byte[] content;
+    private char[] encoded;
+
+    @Setup
+    public void setup() {
+        content = BenchmarkData.createContent(size);
+        encoded = Base64Codec.encode(content).toCharArray();
+    }
+
+    @Benchmark
+    public long encodeStream() throws IOException {
+        Base64Codec.EncodingReader reader = new Base64Codec.EncodingReader(new ByteArrayInputStream(content));
+
+        long result = 0;
+        char[] buffer = new char[BUFFER_SIZE];
+        int b;
+        while ((b = reader.read(buffer, 0, buffer.length)) > -1) {
+            result += b;
+        }
+        reader.close();
+
+        return result;
+    }
+
+    @Benchmark
+    public long decodeStream() throws IOException {
+        CountingOutputStream counter = new CountingOutputStream();
+        Base64Codec.DecodingWriter writer = new Base64Codec.DecodingWriter(counter);
+
+        for (int offset = 0; offset < encoded.length; offset += BUFFER_SIZE) {
+            writer.write(encoded, offset, Math.min(BUFFER_SIZE, encoded.length - offset));
+        }
+        writer.close();
+
+        return counter.count;
+    }
+}
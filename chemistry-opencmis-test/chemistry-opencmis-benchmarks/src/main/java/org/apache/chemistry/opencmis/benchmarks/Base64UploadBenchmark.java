@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.chemistry.opencmis.benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.chemistry.opencmis.commons.impl.Base64;
+import org.apache.chemistry.opencmis.commons.impl.Base64Codec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Base64 round trip of a large AtomPub upload.
+ * <p>
+ * The content is generated on the fly and never held in memory. Each
+ * invocation encodes it the way <code>AtomEntryWriter</code> does and decodes
+ * the characters the way <code>AtomEntryParser</code> does, with 8 KiB
+ * character chunks as delivered by a StAX parser.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class Base64UploadBenchmark {
+
+    private static final int CHUNK_SIZE = 8 * 1024;
+
+    @Param({ "1073741824" })
+    public long size;
+
+    @Benchmark
+    public long legacy() throws IOException {
+        InputStream encoder = new Base64.InputStream(new GeneratedInputStream(size), Base64.ENCODE);
+        CountingOutputStream counter = new CountingOutputStream();
+        Base64.OutputStream decoder = new Base64.OutputStream(counter, Base64.DECODE);
+
+        char[] chars = new char[CHUNK_SIZE];
+        int pos = 0;
+        int b;
+        while ((b = encoder.read()) > -1) {
+            chars[pos++] = (char) b;
+            if (pos == chars.length) {
+                for (int i = 0; i < pos; i++) {
+                    decoder.write(chars[i]);
+                }
+                pos = 0;
+            }
+        }
+        for (int i = 0; i < pos; i++) {
+            decoder.write(chars[i]);
+        }
+        decoder.close();
+        encoder.close();
+
+        return counter.count;
+    }
+
+    @Benchmark
+    public long codec() throws IOException {
+        Base64Codec.EncodingReader encoder = new Base64Codec.EncodingReader(new GeneratedInputStream(size),
+                (CHUNK_SIZE / 4) * 3);
+        CountingOutputStream counter = new CountingOutputStream();
+        Base64Codec.DecodingWriter decoder = new Base64Codec.DecodingWriter(counter);
+
+        char[] chars = new char[CHUNK_SIZE];
+        int b;
+        while ((b = encoder.read(chars, 0, chars.length)) > -1) {
+            decoder.write(chars, 0, b);
+        }
+        decoder.close();
+        encoder.close();
+
+        return counter.count;
+    }
+
+    /**
+     * Provides <code>length</code> bytes of repeating pseudo content.
+     */
+    private static class GeneratedInputStream extends InputStream {
+        private static final byte[] PATTERN = BenchmarkData.createContent(64 * 1024);
+
+        private long remaining;
+
+        GeneratedInputStream(long length) {
+            remaining = length;
+        }
+
+        @Override
+        public int read() {
+            if (remaining <= 0) {
+                return -1;
+            }
+
+            return PATTERN[(int) (remaining-- % PATTERN.length)] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (remaining <= 0) {
+                return -1;
+            }
+
+            int n = (int) Math.min(Math.min(len, remaining), PATTERN.length);
+            System.arraycopy(PATTERN, 0, b, off, n);
+            remaining -= n;
+
+            return n;
+        }
+    }
+}
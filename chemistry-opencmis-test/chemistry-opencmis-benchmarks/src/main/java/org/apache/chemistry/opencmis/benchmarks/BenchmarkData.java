@@ -0,0 +1,362 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.chemistry.opencmis.benchmarks;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.GregorianCalendar;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TimeZone;
+
+import org.apache.chemistry.opencmis.commons.PropertyIds;
+import org.apache.chemistry.opencmis.commons.data.ObjectData;
+import org.apache.chemistry.opencmis.commons.data.ObjectList;
+import org.apache.chemistry.opencmis.commons.definitions.PropertyDefinition;
+import org.apache.chemistry.opencmis.commons.definitions.TypeDefinition;
+import org.apache.chemistry.opencmis.commons.definitions.TypeDefinitionContainer;
+import org.apache.chemistry.opencmis.commons.enums.Action;
+import org.apache.chemistry.opencmis.commons.enums.BaseTypeId;
+import org.apache.chemistry.opencmis.commons.enums.Cardinality;
+import org.apache.chemistry.opencmis.commons.enums.ContentStreamAllowed;
+import org.apache.chemistry.opencmis.commons.enums.PropertyType;
+import org.apache.chemistry.opencmis.commons.enums.Updatability;
+import org.apache.chemistry.opencmis.commons.impl.TypeCache;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.AbstractPropertyDefinition;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.AllowableActionsImpl;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.DocumentTypeDefinitionImpl;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.ObjectDataImpl;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.ObjectListImpl;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.PropertiesImpl;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.PropertyBooleanDefinitionImpl;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.PropertyBooleanImpl;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.PropertyDateTimeDefinitionImpl;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.PropertyDateTimeImpl;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.PropertyIdDefinitionImpl;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.PropertyIdImpl;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.PropertyIntegerDefinitionImpl;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.PropertyIntegerImpl;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.PropertyStringDefinitionImpl;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.PropertyStringImpl;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.TypeDefinitionContainerImpl;
+
+/**
+ * Creates the payloads used by the benchmarks.
+ * <p>
+ * All data is generated from a fixed seed, so that every run and every fork
+ * works on exactly the same data.
+ */
+public final class BenchmarkData {
+
+    public static final String DOCUMENT_TYPE_ID = "bench:document";
+
+    private static final long SEED = 4711;
+    private static final int CUSTOM_STRING_PROPERTIES = 10;
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Creates an object list that looks like a typical folder listing or
+     * query result.
+     */
+    public static ObjectList createObjectList(int count) {
+        Random random = new Random(SEED);
+
+        List<ObjectData> objects = new ArrayList<ObjectData>(count);
+        for (int i = 0; i < count; i++) {
+            objects.add(createDocument(random, i));
+        }
+
+        ObjectListImpl result = new ObjectListImpl();
+        result.setObjects(objects);
+        result.setHasMoreItems(Boolean.TRUE);
+        result.setNumItems(BigInteger.valueOf(count * 10L));
+
+        return result;
+    }
+
+    private static ObjectData createDocument(Random random, int index) {
+        String id = "doc-" + Long.toHexString(random.nextLong()) + "-" + index;
+        GregorianCalendar created = createCalendar(random);
+
+        PropertiesImpl properties = new PropertiesImpl();
+        properties.addProperty(new PropertyIdImpl(PropertyIds.OBJECT_ID, id));
+        properties.addProperty(new PropertyIdImpl(PropertyIds.OBJECT_TYPE_ID, DOCUMENT_TYPE_ID));
+        properties.addProperty(new PropertyIdImpl(PropertyIds.BASE_TYPE_ID, BaseTypeId.CMIS_DOCUMENT.value()));
+        properties.addProperty(new PropertyStringImpl(PropertyIds.NAME, "Document " + index + " \u00e4\u00f6\u00fc.pdf"));
+        properties.addProperty(new PropertyStringImpl(PropertyIds.CREATED_BY, "user" + random.nextInt(100)));
+        properties.addProperty(new PropertyDateTimeImpl(PropertyIds.CREATION_DATE, created));
+        properties.addProperty(new PropertyStringImpl(PropertyIds.LAST_MODIFIED_BY, "user" + random.nextInt(100)));
+        properties.addProperty(new PropertyDateTimeImpl(PropertyIds.LAST_MODIFICATION_DATE, created));
+        properties.addProperty(new PropertyStringImpl(PropertyIds.CHANGE_TOKEN, String.valueOf(random.nextLong())));
+        properties.addProperty(new PropertyBooleanImpl(PropertyIds.IS_LATEST_VERSION, Boolean.TRUE));
+        properties.addProperty(new PropertyIdImpl(PropertyIds.VERSION_SERIES_ID, id + "-vs"));
+        properties.addProperty(new PropertyStringImpl(PropertyIds.VERSION_LABEL, "1.0"));
+        properties.addProperty(new PropertyIntegerImpl(PropertyIds.CONTENT_STREAM_LENGTH, BigInteger.valueOf(random
+                .nextInt(10 * 1024 * 1024))));
+        properties.addProperty(new PropertyStringImpl(PropertyIds.CONTENT_STREAM_MIME_TYPE, "application/pdf"));
+        properties.addProperty(new PropertyStringImpl(PropertyIds.CONTENT_STREAM_FILE_NAME, "document" + index
+                + ".pdf"));
+
+        for (int i = 0; i < CUSTOM_STRING_PROPERTIES; i++) {
+            properties.addProperty(new PropertyStringImpl("bench:string" + i, randomText(random, 10 + random
+                    .nextInt(40))));
+        }
+
+        List<String> keywords = new ArrayList<String>();
+        for (int i = 0; i < 5; i++) {
+            keywords.add(randomText(random, 8));
+        }
+        properties.addProperty(new PropertyStringImpl("bench:keywords", keywords));
+        properties.addProperty(new PropertyIntegerImpl("bench:pages", BigInteger.valueOf(random.nextInt(500))));
+
+        AllowableActionsImpl allowableActions = new AllowableActionsImpl();
+        allowableActions.setAllowableActions(EnumSet.of(Action.CAN_GET_PROPERTIES, Action.CAN_GET_CONTENT_STREAM,
+                Action.CAN_UPDATE_PROPERTIES, Action.CAN_DELETE_OBJECT, Action.CAN_GET_OBJECT_PARENTS,
+                Action.CAN_CHECK_OUT, Action.CAN_GET_ALL_VERSIONS, Action.CAN_SET_CONTENT_STREAM));
+
+        ObjectDataImpl result = new ObjectDataImpl();
+        result.setProperties(properties);
+        result.setAllowableActions(allowableActions);
+
+        return result;
+    }
+
+    /**
+     * Creates the type of the documents returned by
+     * {@link #createObjectList(int)}.
+     */
+    public static TypeDefinition createDocumentType() {
+        DocumentTypeDefinitionImpl result = createType(DOCUMENT_TYPE_ID, BaseTypeId.CMIS_DOCUMENT.value());
+
+        addPropertyDefinition(result, new PropertyIdDefinitionImpl(), PropertyIds.OBJECT_ID, PropertyType.ID, false);
+        addPropertyDefinition(result, new PropertyIdDefinitionImpl(), PropertyIds.OBJECT_TYPE_ID, PropertyType.ID,
+                false);
+        addPropertyDefinition(result, new PropertyIdDefinitionImpl(), PropertyIds.BASE_TYPE_ID, PropertyType.ID,
+                false);
+        addPropertyDefinition(result, new PropertyStringDefinitionImpl(), PropertyIds.NAME, PropertyType.STRING,
+                false);
+        addPropertyDefinition(result, new PropertyStringDefinitionImpl(), PropertyIds.CREATED_BY,
+                PropertyType.STRING, false);
+        addPropertyDefinition(result, new PropertyDateTimeDefinitionImpl(), PropertyIds.CREATION_DATE,
+                PropertyType.DATETIME, false);
+        addPropertyDefinition(result, new PropertyStringDefinitionImpl(), PropertyIds.LAST_MODIFIED_BY,
+                PropertyType.STRING, false);
+        addPropertyDefinition(result, new PropertyDateTimeDefinitionImpl(), PropertyIds.LAST_MODIFICATION_DATE,
+                PropertyType.DATETIME, false);
+        addPropertyDefinition(result, new PropertyStringDefinitionImpl(), PropertyIds.CHANGE_TOKEN,
+                PropertyType.STRING, false);
+        addPropertyDefinition(result, new PropertyBooleanDefinitionImpl(), PropertyIds.IS_LATEST_VERSION,
+                PropertyType.BOOLEAN, false);
+        addPropertyDefinition(result, new PropertyIdDefinitionImpl(), PropertyIds.VERSION_SERIES_ID,
+                PropertyType.ID, false);
+        addPropertyDefinition(result, new PropertyStringDefinitionImpl(), PropertyIds.VERSION_LABEL,
+                PropertyType.STRING, false);
+        addPropertyDefinition(result, new PropertyIntegerDefinitionImpl(), PropertyIds.CONTENT_STREAM_LENGTH,
+                PropertyType.INTEGER, false);
+        addPropertyDefinition(result, new PropertyStringDefinitionImpl(), PropertyIds.CONTENT_STREAM_MIME_TYPE,
+                PropertyType.STRING, false);
+        addPropertyDefinition(result, new PropertyStringDefinitionImpl(), PropertyIds.CONTENT_STREAM_FILE_NAME,
+                PropertyType.STRING, false);
+
+        for (int i = 0; i < CUSTOM_STRING_PROPERTIES; i++) {
+            addPropertyDefinition(result, new PropertyStringDefinitionImpl(), "bench:string" + i,
+                    PropertyType.STRING, false);
+        }
+        addPropertyDefinition(result, new PropertyStringDefinitionImpl(), "bench:keywords", PropertyType.STRING,
+                true);
+        addPropertyDefinition(result, new PropertyIntegerDefinitionImpl(), "bench:pages", PropertyType.INTEGER,
+                false);
+
+        return result;
+    }
+
+    /**
+     * Creates a type hierarchy below {@link #createDocumentType()}.
+     *
+     * @param depth
+     *            number of levels
+     * @param fanOut
+     *            number of subtypes per type
+     * @param propertyCount
+     *            number of additional properties per subtype
+     */
+    public static List<TypeDefinitionContainer> createTypeHierarchy(int depth, int fanOut, int propertyCount) {
+        TypeDefinition root = createDocumentType();
+
+        TypeDefinitionContainerImpl container = new TypeDefinitionContainerImpl(root);
+        container.setChildren(createSubtypes(root, depth, fanOut, propertyCount));
+
+        List<TypeDefinitionContainer> result = new ArrayList<TypeDefinitionContainer>();
+        result.add(container);
+
+        return result;
+    }
+
+    private static List<TypeDefinitionContainer> createSubtypes(TypeDefinition parent, int depth, int fanOut,
+            int propertyCount) {
+        List<TypeDefinitionContainer> result = new ArrayList<TypeDefinitionContainer>();
+        if (depth <= 0) {
+            return result;
+        }
+
+        for (int i = 0; i < fanOut; i++) {
+            String typeId = parent.getId() + "_" + i;
+            DocumentTypeDefinitionImpl type = createType(typeId, parent.getId());
+
+            for (PropertyDefinition<?> propDef : parent.getPropertyDefinitions().values()) {
+                type.addPropertyDefinition(propDef);
+            }
+            for (int j = 0; j < propertyCount; j++) {
+                if (j % 2 == 0) {
+                    addPropertyDefinition(type, new PropertyStringDefinitionImpl(), typeId + ":string" + j,
+                            PropertyType.STRING, false);
+                } else {
+                    addPropertyDefinition(type, new PropertyIntegerDefinitionImpl(), typeId + ":int" + j,
+                            PropertyType.INTEGER, false);
+                }
+            }
+
+            TypeDefinitionContainerImpl container = new TypeDefinitionContainerImpl(type);
+            container.setChildren(createSubtypes(type, depth - 1, fanOut, propertyCount));
+            result.add(container);
+        }
+
+        return result;
+    }
+
+    private static DocumentTypeDefinitionImpl createType(String id, String parentId) {
+        DocumentTypeDefinitionImpl result = new DocumentTypeDefinitionImpl();
+        result.setId(id);
+        result.setLocalName(id);
+        result.setLocalNamespace("http://chemistry.apache.org/benchmarks");
+        result.setQueryName(id);
+        result.setDisplayName("Type " + id);
+        result.setDescription("Benchmark type " + id);
+        result.setBaseTypeId(BaseTypeId.CMIS_DOCUMENT);
+        result.setParentTypeId(parentId);
+        result.setIsCreatable(Boolean.TRUE);
+        result.setIsFileable(Boolean.TRUE);
+        result.setIsQueryable(Boolean.TRUE);
+        result.setIsIncludedInSupertypeQuery(Boolean.TRUE);
+        result.setIsFulltextIndexed(Boolean.FALSE);
+        result.setIsControllableAcl(Boolean.TRUE);
+        result.setIsControllablePolicy(Boolean.FALSE);
+        result.setIsVersionable(Boolean.TRUE);
+        result.setContentStreamAllowed(ContentStreamAllowed.ALLOWED);
+
+        return result;
+    }
+
+    private static void addPropertyDefinition(DocumentTypeDefinitionImpl type, AbstractPropertyDefinition<?> propDef,
+            String id, PropertyType propertyType, boolean multi) {
+        propDef.setId(id);
+        propDef.setLocalName(id);
+        propDef.setLocalNamespace("http://chemistry.apache.org/benchmarks");
+        propDef.setQueryName(id);
+        propDef.setDisplayName("Property " + id);
+        propDef.setDescription("Benchmark property " + id);
+        propDef.setPropertyType(propertyType);
+        propDef.setCardinality(multi ? Cardinality.MULTI : Cardinality.SINGLE);
+        propDef.setUpdatability(Updatability.READWRITE);
+        propDef.setIsInherited(Boolean.FALSE);
+        propDef.setIsRequired(Boolean.FALSE);
+        propDef.setIsQueryable(Boolean.TRUE);
+        propDef.setIsOrderable(Boolean.TRUE);
+        propDef.setIsOpenChoice(Boolean.FALSE);
+
+        type.addPropertyDefinition(propDef);
+    }
+
+    /**
+     * Creates binary content.
+     */
+    public static byte[] createContent(int size) {
+        byte[] result = new byte[size];
+        new Random(SEED).nextBytes(result);
+
+        return result;
+    }
+
+    /**
+     * Creates a type cache for the given types.
+     */
+    public static TypeCache createTypeCache(List<TypeDefinitionContainer> types) {
+        final Map<String, TypeDefinition> typeMap = new HashMap<String, TypeDefinition>();
+        final Map<String, PropertyDefinition<?>> propDefMap = new HashMap<String, PropertyDefinition<?>>();
+        collectTypes(types, typeMap, propDefMap);
+
+        return new TypeCache() {
+            public TypeDefinition getTypeDefinition(String typeId) {
+                return typeMap.get(typeId);
+            }
+
+            public TypeDefinition getTypeDefinitionForObject(String objectId) {
+                return typeMap.get(DOCUMENT_TYPE_ID);
+            }
+
+            public PropertyDefinition<?> getPropertyDefinition(String propId) {
+                return propDefMap.get(propId);
+            }
+        };
+    }
+
+    private static void collectTypes(List<TypeDefinitionContainer> types, Map<String, TypeDefinition> typeMap,
+            Map<String, PropertyDefinition<?>> propDefMap) {
+        if (types == null) {
+            return;
+        }
+
+        for (TypeDefinitionContainer container : types) {
+            TypeDefinition type = container.getTypeDefinition();
+            typeMap.put(type.getId(), type);
+            propDefMap.putAll(type.getPropertyDefinitions());
+            collectTypes(container.getChildren(), typeMap, propDefMap);
+        }
+    }
+
+    private static GregorianCalendar createCalendar(Random random) {
+        GregorianCalendar result = new GregorianCalendar(TimeZone.getTimeZone("GMT"));
+        result.setTimeInMillis(1262304000000L + (long) (random.nextDouble() * 157680000000L));
+
+        return result;
+    }
+
+    private static String randomText(Random random, int length) {
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            int r = random.nextInt(30);
+            if (r < 26) {
+                sb.append((char) ('a' + r));
+            } else if (r < 28) {
+                sb.append(' ');
+            } else if (r == 28) {
+                sb.append('&');
+            } else {
+                sb.append('\u00e9');
+            }
+        }
+
+        return sb.toString();
+    }
+}
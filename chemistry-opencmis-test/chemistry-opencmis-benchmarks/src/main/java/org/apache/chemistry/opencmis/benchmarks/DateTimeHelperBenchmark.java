@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.chemistry.opencmis.benchmarks;
+
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.chemistry.opencmis.commons.impl.DateTimeHelper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Parsing and formatting of xsd:dateTime and HTTP date values.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DateTimeHelperBenchmark {
+
+    private static final String XML_DATE_TIME = "2013-07-24T13:45:12.345+02:00";
+    private static final String HTTP_DATE_TIME = "Wed, 24 Jul 2013 11:45:12 GMT";
+
+    private GregorianCalendar calendar;
+    private Date date;
+
+    @Setup
+    public void setup() {
+        calendar = new GregorianCalendar(TimeZone.getTimeZone("GMT"));
+        calendar.setTimeInMillis(1374666312345L);
+        date = calendar.getTime();
+    }
+
+    @Benchmark
+    public GregorianCalendar parseXmlDateTime() {
+        return DateTimeHelper.parseXmlDateTime(XML_DATE_TIME);
+    }
+
+    @Benchmark
+    public String formatXmlDateTime() {
+        return DateTimeHelper.formatXmlDateTime(calendar);
+    }
+
+    @Benchmark
+    public Date parseHttpDateTime() {
+        return DateTimeHelper.parseHttpDateTime(HTTP_DATE_TIME);
+    }
+
+    @Benchmark
+    public String formatHttpDateTime() {
+        return DateTimeHelper.formatHttpDateTime(date);
+    }
+}
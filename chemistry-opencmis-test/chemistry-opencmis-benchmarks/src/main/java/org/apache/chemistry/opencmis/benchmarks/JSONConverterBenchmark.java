@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.chemistry.opencmis.benchmarks;
+
+import java.io.StringWriter;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.chemistry.opencmis.commons.data.ObjectList;
+import org.apache.chemistry.opencmis.commons.definitions.TypeDefinitionContainer;
+import org.apache.chemistry.opencmis.commons.impl.JSONConverter;
+import org.apache.chemistry.opencmis.commons.impl.TypeCache;
+import org.apache.chemistry.opencmis.commons.impl.json.JSONArray;
+import org.apache.chemistry.opencmis.commons.impl.json.JSONObject;
+import org.apache.chemistry.opencmis.commons.impl.json.parser.JSONParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Browser binding round trips of object lists and type hierarchies.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JSONConverterBenchmark {
+
+    @Param({ "10", "1000" })
+    public int objectCount;
+
+    @Param({ "false", "true" })
+    public boolean succinct;
+
+    private ObjectList objectList;
+    private List<TypeDefinitionContainer> types;
+    private TypeCache typeCache;
+
+    private String objectListJson;
+    private String typesJson;
+
+    @Setup
+    public void setup() throws Exception {
+        objectList = BenchmarkData.createObjectList(objectCount);
+        types = BenchmarkData.createTypeHierarchy(3, 5, 10);
+        typeCache = BenchmarkData.createTypeCache(types);
+
+        objectListJson = writeObjectList();
+        typesJson = writeTypeDescendants();
+    }
+
+    @Benchmark
+    public String writeObjectList() throws Exception {
+        JSONObject json = JSONConverter.convert(objectList, typeCache, JSONConverter.PropertyMode.OBJECT, succinct);
+
+        StringWriter writer = new StringWriter();
+        json.writeJSONString(writer);
+
+        return writer.toString();
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public ObjectList readObjectList() throws Exception {
+        Map<String, Object> json = (Map<String, Object>) new JSONParser().parse(objectListJson);
+        return JSONConverter.convertObjectList(json, typeCache, false);
+    }
+
+    @Benchmark
+    public String writeTypeDescendants() throws Exception {
+        JSONArray json = new JSONArray();
+        for (TypeDefinitionContainer container : types) {
+            json.add(JSONConverter.convert(container));
+        }
+
+        StringWriter writer = new StringWriter();
+        json.writeJSONString(writer);
+
+        return writer.toString();
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public List<TypeDefinitionContainer> readTypeDescendants() throws Exception {
+        List<Object> json = (List<Object>) new JSONParser().parse(typesJson);
+        return JSONConverter.convertTypeDescendants(json);
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.chemistry.opencmis.benchmarks;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.chemistry.opencmis.commons.impl.MimeHelper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Content-Disposition and Content-Type header handling.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MimeHelperBenchmark {
+
+    private static final String FILENAME = "Quartalsbericht M\u00e4rz 2013 (endg\u00fcltig).pdf";
+    private static final String CONTENT_DISPOSITION = MimeHelper.encodeContentDisposition(
+            MimeHelper.DISPOSITION_ATTACHMENT, FILENAME);
+    private static final String CONTENT_TYPE = "text/plain; format=flowed; charset=\"UTF-8\"";
+    private static final String MULTIPART_CONTENT_TYPE = "multipart/form-data; boundary=\"----aBoundary1234567890\"";
+
+    @Benchmark
+    public String encodeContentDisposition() {
+        return MimeHelper.encodeContentDisposition(MimeHelper.DISPOSITION_ATTACHMENT, FILENAME);
+    }
+
+    @Benchmark
+    public String decodeContentDisposition() {
+        Map<String, String> params = new HashMap<String, String>();
+        MimeHelper.decodeContentDisposition(CONTENT_DISPOSITION, params);
+
+        return params.get(MimeHelper.DISPOSITION_FILENAME);
+    }
+
+    @Benchmark
+    public String getCharsetFromContentType() {
+        return MimeHelper.getCharsetFromContentType(CONTENT_TYPE);
+    }
+
+    @Benchmark
+    public byte[] getBoundaryFromMultiPart() {
+        return MimeHelper.getBoundaryFromMultiPart(MULTIPART_CONTENT_TYPE);
+    }
+}
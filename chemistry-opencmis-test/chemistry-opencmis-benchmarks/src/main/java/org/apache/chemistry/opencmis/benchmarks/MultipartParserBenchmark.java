@@ -0,0 +1,158 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.chemistry.opencmis.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+
+import org.apache.chemistry.opencmis.commons.impl.IOUtils;
+import org.apache.chemistry.opencmis.server.impl.browser.MultipartParser;
+import org.apache.chemistry.opencmis.server.shared.ThresholdOutputStreamFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Parses browser binding form posts that create a document: a set of
+ * property fields followed by the content.
+ * <p>
+ * Content larger than the memory threshold is buffered in a temporary file,
+ * as in the server.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MultipartParserBenchmark {
+
+    private static final String BOUNDARY = "----OpenCMISBenchmarkBoundary7MA4YWxkTrZu0gW";
+    private static final int MEMORY_THRESHOLD = 4 * 1024 * 1024;
+    private static final int PROPERTY_COUNT = 20;
+
+    @Param({ "65536", "1048576", "8388608" })
+    public int contentSize;
+
+    private byte[] body;
+    private ThresholdOutputStreamFactory streamFactory;
+
+    @Setup
+    public void setup() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(contentSize + 8192);
+
+        writeField(out, "cmisaction", "createDocument");
+        for (int i = 0; i < PROPERTY_COUNT; i++) {
+            writeField(out, "propertyId[" + i + "]", "bench:string" + i);
+            writeField(out, "propertyValue[" + i + "]", "Value " + i + " \u00e4\u00f6\u00fc");
+        }
+        writeField(out, "succinct", "true");
+
+        out.write(IOUtils.toUTF8Bytes("--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"content\"; filename=\"content.bin\"\r\n"
+                + "Content-Type: application/octet-stream\r\n\r\n"));
+        out.write(BenchmarkData.createContent(contentSize));
+        out.write(IOUtils.toUTF8Bytes("\r\n--" + BOUNDARY + "--\r\n"));
+
+        body = out.toByteArray();
+
+        streamFactory = ThresholdOutputStreamFactory.newInstance(new File(System.getProperty("java.io.tmpdir")),
+                MEMORY_THRESHOLD, -1, false);
+    }
+
+    private static void writeField(ByteArrayOutputStream out, String name, String value) throws IOException {
+        out.write(IOUtils.toUTF8Bytes("--" + BOUNDARY + "\r\n" + "Content-Disposition: form-data; name=\"" + name
+                + "\"\r\n" + "Content-Type: text/plain; charset=UTF-8\r\n\r\n" + value + "\r\n"));
+    }
+
+    @Benchmark
+    public long parse() throws IOException {
+        MultipartParser parser = new MultipartParser(createRequest(body), streamFactory);
+        parser.parse();
+
+        long result = parser.getFields().size();
+
+        InputStream stream = parser.getStream();
+        try {
+            byte[] buffer = new byte[64 * 1024];
+            int b;
+            while ((b = stream.read(buffer)) > -1) {
+                result += b;
+            }
+        } finally {
+            stream.close();
+        }
+
+        return result;
+    }
+
+    private static HttpServletRequest createRequest(byte[] body) {
+        final ServletInputStream stream = new ByteArrayServletInputStream(body);
+        final String contentType = "multipart/form-data; boundary=\"" + BOUNDARY + "\"";
+
+        return (HttpServletRequest) Proxy.newProxyInstance(MultipartParserBenchmark.class.getClassLoader(),
+                new Class<?>[] { HttpServletRequest.class }, new InvocationHandler() {
+                    public Object invoke(Object proxy, Method method, Object[] args) {
+                        if ("getContentType".equals(method.getName())) {
+                            return contentType;
+                        } else if ("getInputStream".equals(method.getName())) {
+                            return stream;
+                        }
+
+                        return null;
+                    }
+                });
+    }
+
+    private static class ByteArrayServletInputStream extends ServletInputStream {
+        private final InputStream stream;
+
+        public ByteArrayServletInputStream(byte[] content) {
+            stream = new ByteArrayInputStream(content);
+        }
+
+        @Override
+        public int read() throws IOException {
+            return stream.read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            return stream.read(b, off, len);
+        }
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.chemistry.opencmis.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.stream.XMLStreamWriter;
+
+import org.apache.chemistry.opencmis.commons.data.ObjectData;
+import org.apache.chemistry.opencmis.commons.data.ObjectList;
+import org.apache.chemistry.opencmis.commons.definitions.TypeDefinitionContainer;
+import org.apache.chemistry.opencmis.commons.enums.CmisVersion;
+import org.apache.chemistry.opencmis.commons.impl.IOUtils;
+import org.apache.chemistry.opencmis.commons.impl.JSONConverter;
+import org.apache.chemistry.opencmis.commons.impl.XMLConstants;
+import org.apache.chemistry.opencmis.commons.impl.XMLConverter;
+import org.apache.chemistry.opencmis.commons.impl.XMLUtils;
+import org.apache.chemistry.opencmis.server.shared.CompressionOutputStream;
+import org.apache.chemistry.opencmis.server.shared.DeflaterPool;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * CPU cost of compressing AtomPub feeds and browser binding JSON responses.
+ * <p>
+ * The bytes on the wire do not change between iterations. They are computed
+ * once per parameter combination and printed when the trial starts.
+ * <code>unpooled</code> creates a new deflater per response, which shows the
+ * benefit of the deflater pool.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseCompressionBenchmark {
+
+    @Param({ "atom", "json" })
+    public String format;
+
+    @Param({ "10", "1000" })
+    public int objectCount;
+
+    @Param({ "1", "6", "9" })
+    public int level;
+
+    private byte[] payload;
+    private DeflaterPool gzipPool;
+    private DeflaterPool deflatePool;
+
+    @Setup
+    public void setup() throws Exception {
+        ObjectList objectList = BenchmarkData.createObjectList(objectCount);
+        payload = "atom".equals(format) ? writeFeed(objectList) : writeJson(objectList);
+
+        gzipPool = new DeflaterPool(level, true, 4);
+        deflatePool = new DeflaterPool(level, false, 4);
+
+        long gzipBytes = gzip();
+        long deflateBytes = deflate();
+        System.out.println(String.format(Locale.ENGLISH,
+                "%n%s, %d objects, level %d: identity %d bytes, gzip %d bytes (%.1f%%), deflate %d bytes (%.1f%%)",
+                format, objectCount, level, payload.length, gzipBytes, 100.0 * gzipBytes / payload.length,
+                deflateBytes, 100.0 * deflateBytes / payload.length));
+    }
+
+    @TearDown
+    public void tearDown() {
+        gzipPool.clear();
+        deflatePool.clear();
+    }
+
+    @Benchmark
+    public long identity() throws IOException {
+        CountingOutputStream counter = new CountingOutputStream();
+        counter.write(payload, 0, payload.length);
+
+        return counter.count;
+    }
+
+    @Benchmark
+    public long gzip() throws IOException {
+        return compress(true, gzipPool);
+    }
+
+    @Benchmark
+    public long deflate() throws IOException {
+        return compress(false, deflatePool);
+    }
+
+    @Benchmark
+    public long unpooled() throws IOException {
+        return compress(true, new DeflaterPool(level, true, 0));
+    }
+
+    private long compress(boolean gzip, DeflaterPool pool) throws IOException {
+        CountingOutputStream counter = new CountingOutputStream();
+
+        CompressionOutputStream out = new CompressionOutputStream(counter, gzip, pool);
+        out.write(payload, 0, payload.length);
+        out.close();
+
+        return counter.count;
+    }
+
+    private static byte[] writeFeed(ObjectList objectList) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        XMLStreamWriter writer = XMLUtils.createWriter(out);
+        XMLUtils.startXmlDocument(writer);
+        writer.writeStartElement(XMLConstants.NAMESPACE_ATOM, "feed");
+        writer.writeNamespace(XMLConstants.PREFIX_ATOM, XMLConstants.NAMESPACE_ATOM);
+        writer.writeNamespace(XMLConstants.PREFIX_CMIS, XMLConstants.NAMESPACE_CMIS);
+        writer.writeNamespace(XMLConstants.PREFIX_RESTATOM, XMLConstants.NAMESPACE_RESTATOM);
+
+        for (ObjectData object : objectList.getObjects()) {
+            writer.writeStartElement(XMLConstants.NAMESPACE_ATOM, "entry");
+            XMLConverter.writeObject(writer, CmisVersion.CMIS_1_1, XMLConstants.NAMESPACE_RESTATOM, object);
+            writer.writeEndElement();
+        }
+
+        writer.writeEndElement();
+        XMLUtils.endXmlDocument(writer);
+
+        return out.toByteArray();
+    }
+
+    private static byte[] writeJson(ObjectList objectList) throws Exception {
+        List<TypeDefinitionContainer> types = BenchmarkData.createTypeHierarchy(3, 5, 10);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Writer writer = new OutputStreamWriter(out, IOUtils.UTF8);
+        JSONConverter.convert(objectList, BenchmarkData.createTypeCache(types), JSONConverter.PropertyMode.OBJECT,
+                false).writeJSONString(writer);
+        writer.flush();
+
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.chemistry.opencmis.benchmarks;
+
+import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.chemistry.opencmis.commons.enums.IncludeRelationships;
+import org.apache.chemistry.opencmis.commons.impl.UrlBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Builds URLs the way the AtomPub and browser binding clients do for every
+ * request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UrlBuilderBenchmark {
+
+    private static final String BASE_URL = "http://localhost:8080/opencmis/browser/A1";
+    private static final String PATH = "/Abteilungen/Finanzen & Controlling/Berichte 2013/Q1 M\u00e4rz";
+
+    @Benchmark
+    public String buildObjectUrl() {
+        UrlBuilder url = new UrlBuilder(BASE_URL);
+        url.addPathSegment("root");
+        url.addPath(PATH);
+        url.addParameter("cmisselector", "object");
+        url.addParameter("filter", "cmis:objectId,cmis:name,cmis:objectTypeId,cmis:baseTypeId");
+        url.addParameter("includeAllowableActions", Boolean.TRUE);
+        url.addParameter("includeRelationships", IncludeRelationships.NONE);
+        url.addParameter("renditionFilter", "cmis:none");
+        url.addParameter("includePolicyIds", Boolean.FALSE);
+        url.addParameter("includeACL", Boolean.FALSE);
+        url.addParameter("maxItems", BigInteger.valueOf(100));
+        url.addParameter("succinct", Boolean.TRUE);
+
+        return url.toString();
+    }
+
+    @Benchmark
+    public String quoteURIPathComponent() {
+        return UrlBuilder.quoteURIPathComponent(PATH, false);
+    }
+}
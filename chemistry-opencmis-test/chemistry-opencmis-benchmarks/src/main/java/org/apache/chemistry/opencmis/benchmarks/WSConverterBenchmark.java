@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.chemistry.opencmis.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.chemistry.opencmis.commons.data.ObjectList;
+import org.apache.chemistry.opencmis.commons.definitions.TypeDefinitionContainer;
+import org.apache.chemistry.opencmis.commons.enums.CmisVersion;
+import org.apache.chemistry.opencmis.commons.impl.WSConverter;
+import org.apache.chemistry.opencmis.commons.impl.jaxb.CmisObjectListType;
+import org.apache.chemistry.opencmis.commons.impl.jaxb.CmisTypeContainer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Conversions between the OpenCMIS data objects and the JAXB objects of the
+ * Web Services binding.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WSConverterBenchmark {
+
+    @Param({ "10", "1000" })
+    public int objectCount;
+
+    private ObjectList objectList;
+    private List<TypeDefinitionContainer> types;
+
+    private CmisObjectListType wsObjectList;
+    private List<CmisTypeContainer> wsTypes;
+
+    @Setup
+    public void setup() {
+        objectList = BenchmarkData.createObjectList(objectCount);
+        types = BenchmarkData.createTypeHierarchy(3, 5, 10);
+
+        wsObjectList = convertToObjectListType();
+        wsTypes = convertToTypeContainers();
+    }
+
+    @Benchmark
+    public CmisObjectListType convertToObjectListType() {
+        return WSConverter.convert(objectList, CmisVersion.CMIS_1_1);
+    }
+
+    @Benchmark
+    public ObjectList convertFromObjectListType() {
+        return WSConverter.convert(wsObjectList);
+    }
+
+    @Benchmark
+    public List<CmisTypeContainer> convertToTypeContainers() {
+        List<CmisTypeContainer> result = new ArrayList<CmisTypeContainer>();
+        WSConverter.convertTypeContainerList(types, result);
+
+        return result;
+    }
+
+    @Benchmark
+    public List<TypeDefinitionContainer> convertFromTypeContainers() {
+        return WSConverter.convertTypeContainerList(wsTypes);
+    }
+}
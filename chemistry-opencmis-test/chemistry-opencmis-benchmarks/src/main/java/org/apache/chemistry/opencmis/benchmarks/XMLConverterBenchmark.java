@@ -0,0 +1,169 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.chemistry.opencmis.benchmarks;
+
+import static org.apache.chemistry.opencmis.commons.impl.XMLConstants.NAMESPACE_CMIS;
+import static org.apache.chemistry.opencmis.commons.impl.XMLConstants.PREFIX_CMIS;
+import static org.apache.chemistry.opencmis.commons.impl.XMLConstants.TAG_OBJECT;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.apache.chemistry.opencmis.commons.data.ObjectData;
+import org.apache.chemistry.opencmis.commons.data.ObjectList;
+import org.apache.chemistry.opencmis.commons.definitions.TypeDefinition;
+import org.apache.chemistry.opencmis.commons.definitions.TypeDefinitionContainer;
+import org.apache.chemistry.opencmis.commons.enums.CmisVersion;
+import org.apache.chemistry.opencmis.commons.impl.XMLConverter;
+import org.apache.chemistry.opencmis.commons.impl.XMLUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * AtomPub and Web Services XML round trips of object lists and type
+ * hierarchies.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class XMLConverterBenchmark {
+
+    private static final String TAG_LIST = "list";
+
+    @Param({ "10", "1000" })
+    public int objectCount;
+
+    private ObjectList objectList;
+    private List<TypeDefinition> types;
+
+    private byte[] objectListXml;
+    private byte[] typesXml;
+
+    @Setup
+    public void setup() throws Exception {
+        objectList = BenchmarkData.createObjectList(objectCount);
+
+        types = new ArrayList<TypeDefinition>();
+        collectTypes(BenchmarkData.createTypeHierarchy(3, 5, 10), types);
+
+        objectListXml = writeObjectList();
+        typesXml = writeTypes();
+    }
+
+    private static void collectTypes(List<TypeDefinitionContainer> containers, List<TypeDefinition> result) {
+        for (TypeDefinitionContainer container : containers) {
+            result.add(container.getTypeDefinition());
+            collectTypes(container.getChildren(), result);
+        }
+    }
+
+    @Benchmark
+    public byte[] writeObjectList() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        XMLStreamWriter writer = startList(out);
+        for (ObjectData object : objectList.getObjects()) {
+            XMLConverter.writeObject(writer, CmisVersion.CMIS_1_1, false, TAG_OBJECT, NAMESPACE_CMIS, object);
+        }
+        endList(writer);
+
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public List<ObjectData> readObjectList() throws Exception {
+        List<ObjectData> result = new ArrayList<ObjectData>();
+
+        XMLStreamReader parser = startParser(objectListXml);
+        while (XMLUtils.findNextStartElemenet(parser)) {
+            result.add(XMLConverter.convertObject(parser));
+        }
+        parser.close();
+
+        return result;
+    }
+
+    @Benchmark
+    public byte[] writeTypes() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        XMLStreamWriter writer = startList(out);
+        for (TypeDefinition type : types) {
+            XMLConverter.writeTypeDefinition(writer, CmisVersion.CMIS_1_1, NAMESPACE_CMIS, type);
+        }
+        endList(writer);
+
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public List<TypeDefinition> readTypes() throws Exception {
+        List<TypeDefinition> result = new ArrayList<TypeDefinition>();
+
+        XMLStreamReader parser = startParser(typesXml);
+        while (XMLUtils.findNextStartElemenet(parser)) {
+            result.add(XMLConverter.convertTypeDefinition(parser));
+        }
+        parser.close();
+
+        return result;
+    }
+
+    private static XMLStreamWriter startList(ByteArrayOutputStream out) throws Exception {
+        XMLStreamWriter writer = XMLUtils.createWriter(out);
+        XMLUtils.startXmlDocument(writer);
+        writer.writeStartElement(PREFIX_CMIS, TAG_LIST, NAMESPACE_CMIS);
+        writer.writeNamespace(PREFIX_CMIS, NAMESPACE_CMIS);
+
+        return writer;
+    }
+
+    private static void endList(XMLStreamWriter writer) throws Exception {
+        writer.writeEndElement();
+        XMLUtils.endXmlDocument(writer);
+    }
+
+    private static XMLStreamReader startParser(byte[] xml) throws Exception {
+        XMLStreamReader parser = XMLUtils.createParser(new ByteArrayInputStream(xml));
+
+        // skip the list element
+        XMLUtils.findNextStartElemenet(parser);
+        XMLUtils.next(parser);
+
+        return parser;
+    }
+}
@@ -41,6 +41,21 @@ public final class TestParameters {
     public static final String DEFAULT_ACL_PRINCIPAL = "org.apache.chemistry.opencmis.tck.default.principal";
     public static final String DEFAULT_ACL_PRINCIPAL_VALUE = "cmis:user";
 
+    public static final String PERFORMANCE_ITERATIONS = "org.apache.chemistry.opencmis.tck.performance.iterations";
+    public static final int PERFORMANCE_ITERATIONS_VALUE = 20;
+
+    public static final String PERFORMANCE_WARMUP = "org.apache.chemistry.opencmis.tck.performance.warmup";
+    public static final int PERFORMANCE_WARMUP_VALUE = 3;
+
+    public static final String PERFORMANCE_CONTENT_SIZES = "org.apache.chemistry.opencmis.tck.performance.contentSizes";
+    public static final String PERFORMANCE_CONTENT_SIZES_VALUE = "1024,102400,1048576";
+
+    /**
+     * Prefix of the latency budgets. The operation name is appended, the
+     * value is <code>&lt;warning ms&gt;[,&lt;failure ms&gt;]</code>.
+     */
+    public static final String PERFORMANCE_BUDGET_PREFIX = "org.apache.chemistry.opencmis.tck.performance.budget.";
+
     private TestParameters() {
     }
 }
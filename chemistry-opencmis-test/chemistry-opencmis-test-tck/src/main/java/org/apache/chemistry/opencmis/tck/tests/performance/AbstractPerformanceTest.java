@@ -0,0 +1,203 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.chemistry.opencmis.tck.tests.performance;
+
+import static org.apache.chemistry.opencmis.tck.CmisTestResultStatus.FAILURE;
+import static org.apache.chemistry.opencmis.tck.CmisTestResultStatus.OK;
+import static org.apache.chemistry.opencmis.tck.CmisTestResultStatus.WARNING;
+
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+import org.apache.chemistry.opencmis.tck.impl.AbstractSessionTest;
+import org.apache.chemistry.opencmis.tck.impl.TestParameters;
+import org.apache.chemistry.opencmis.util.load.LatencyHistogram;
+
+/**
+ * Base class for performance tests.
+ * <p>
+ * Each measured operation is executed a few times to warm up and then
+ * measured for the configured number of iterations. The results are reported
+ * as INFO results. If a budget is configured for the operation, the 95th
+ * percentile is checked against it and turned into an OK, WARNING or FAILURE
+ * result.
+ */
+public abstract class AbstractPerformanceTest extends AbstractSessionTest {
+
+    private final Set<String> invalidParameters = new HashSet<String>();
+
+    /**
+     * An operation that is measured.
+     */
+    protected abstract static class TimedOperation {
+        /**
+         * Executes the operation.
+         *
+         * @param iteration
+         *            the iteration number, starting with 0 for the first
+         *            warm-up call
+         */
+        public abstract void execute(int iteration) throws Exception;
+    }
+
+    /**
+     * Measures an operation and reports the result.
+     *
+     * @param operation
+     *            the operation name used in budget parameters
+     * @param label
+     *            the human readable operation name
+     * @param bytesPerCall
+     *            the payload size of a call for throughput reporting, or 0
+     */
+    protected LatencyHistogram measure(String operation, String label, long bytesPerCall, TimedOperation op)
+            throws Exception {
+        int warmup = getIntParameter(TestParameters.PERFORMANCE_WARMUP, TestParameters.PERFORMANCE_WARMUP_VALUE);
+        int iterations = getIntParameter(TestParameters.PERFORMANCE_ITERATIONS,
+                TestParameters.PERFORMANCE_ITERATIONS_VALUE);
+
+        for (int i = 0; i < warmup; i++) {
+            op.execute(i);
+        }
+
+        LatencyHistogram stats = new LatencyHistogram();
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            op.execute(warmup + i);
+            stats.recordNanos(System.nanoTime() - start);
+        }
+
+        addResult(createInfoResult(label + ": " + formatStatistics(stats, bytesPerCall)));
+        checkBudget(operation, label, stats);
+
+        return stats;
+    }
+
+    /**
+     * Returns the number of measured iterations.
+     */
+    protected int getIterations() {
+        return getIntParameter(TestParameters.PERFORMANCE_ITERATIONS, TestParameters.PERFORMANCE_ITERATIONS_VALUE);
+    }
+
+    /**
+     * Returns the total number of calls of a measured operation, including
+     * warm-up calls.
+     */
+    protected int getTotalCalls() {
+        return getIterations()
+                + getIntParameter(TestParameters.PERFORMANCE_WARMUP, TestParameters.PERFORMANCE_WARMUP_VALUE);
+    }
+
+    private void checkBudget(String operation, String label, LatencyHistogram stats) {
+        String budget = getParameters().get(TestParameters.PERFORMANCE_BUDGET_PREFIX + operation);
+        if (budget == null || budget.trim().length() == 0) {
+            return;
+        }
+
+        double warning;
+        double failure = Double.MAX_VALUE;
+        try {
+            int comma = budget.indexOf(',');
+            if (comma < 0) {
+                warning = Double.parseDouble(budget.trim());
+            } else {
+                warning = Double.parseDouble(budget.substring(0, comma).trim());
+                failure = Double.parseDouble(budget.substring(comma + 1).trim());
+            }
+        } catch (NumberFormatException e) {
+            addResult(createResult(WARNING, "Invalid budget for '" + operation + "': " + budget));
+            return;
+        }
+
+        double p95 = toMillis(stats.getPercentile(95));
+
+        if (p95 > failure) {
+            addResult(createResult(FAILURE, label + ": 95th percentile (" + formatMillis(p95)
+                    + ") exceeds the failure budget (" + formatMillis(failure) + ")!"));
+        } else if (p95 > warning) {
+            addResult(createResult(WARNING, label + ": 95th percentile (" + formatMillis(p95)
+                    + ") exceeds the warning budget (" + formatMillis(warning) + ")!"));
+        } else {
+            addResult(createResult(OK, label + ": 95th percentile (" + formatMillis(p95) + ") is within the budget ("
+                    + formatMillis(warning) + ")."));
+        }
+    }
+
+    /**
+     * Returns a one line summary. The throughput assumes that the calls were
+     * made one after the other.
+     *
+     * @param bytesPerCall
+     *            the payload size of a call, or 0 if it should not be
+     *            reported
+     */
+    private static String formatStatistics(LatencyHistogram stats, long bytesPerCall) {
+        double callsPerSecond = stats.getMean() == 0 ? 0 : 1000000.0 / stats.getMean();
+
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.ENGLISH,
+                "%d calls, min %.1f ms, mean %.1f ms, p50 %.1f ms, p95 %.1f ms, max %.1f ms, %.1f calls/s",
+                stats.getCount(), toMillis(stats.getMin()), stats.getMean() / 1000.0,
+                toMillis(stats.getPercentile(50)), toMillis(stats.getPercentile(95)), toMillis(stats.getMax()),
+                callsPerSecond));
+
+        if (bytesPerCall > 0 && callsPerSecond > 0) {
+            sb.append(String.format(Locale.ENGLISH, ", %.2f MiB/s", bytesPerCall * callsPerSecond / (1024.0 * 1024.0)));
+        }
+
+        return sb.toString();
+    }
+
+    private static double toMillis(long micros) {
+        return micros / 1000.0;
+    }
+
+    private static String formatMillis(double millis) {
+        return String.format(Locale.ENGLISH, "%.1f ms", millis);
+    }
+
+    /**
+     * Returns a non-negative integer parameter. Invalid values are reported
+     * once as a WARNING result and replaced by the default value.
+     */
+    protected int getIntParameter(String name, int defaultValue) {
+        String value = getParameters().get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+
+        try {
+            int result = Integer.parseInt(value.trim());
+            if (result >= 0) {
+                return result;
+            }
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+
+        if (invalidParameters.add(name)) {
+            addResult(createResult(WARNING, "Invalid value for '" + name + "': " + value + " Using " + defaultValue
+                    + " instead."));
+        }
+
+        return defaultValue;
+    }
+}
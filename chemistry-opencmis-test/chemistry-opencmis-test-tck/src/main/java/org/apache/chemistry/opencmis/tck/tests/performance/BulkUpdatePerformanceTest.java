@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.chemistry.opencmis.tck.tests.performance;
+
+import static org.apache.chemistry.opencmis.tck.CmisTestResultStatus.SKIPPED;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.chemistry.opencmis.client.api.Document;
+import org.apache.chemistry.opencmis.client.api.Folder;
+import org.apache.chemistry.opencmis.client.api.Session;
+import org.apache.chemistry.opencmis.commons.PropertyIds;
+import org.apache.chemistry.opencmis.commons.data.BulkUpdateObjectIdAndChangeToken;
+import org.apache.chemistry.opencmis.commons.enums.CmisVersion;
+import org.apache.chemistry.opencmis.commons.enums.Updatability;
+import org.apache.chemistry.opencmis.commons.impl.dataobjects.BulkUpdateObjectIdAndChangeTokenImpl;
+
+/**
+ * Bulk update performance test.
+ */
+public class BulkUpdatePerformanceTest extends AbstractPerformanceTest {
+
+    private static final int DOCUMENTS = 20;
+
+    @Override
+    public void init(Map<String, String> parameters) {
+        super.init(parameters);
+        setName("Bulk Update Performance Test");
+        setDescription("Creates " + DOCUMENTS + " documents and measures how long it takes to rename all of them at once.");
+    }
+
+    @Override
+    public void run(final Session session) throws Exception {
+        if (session.getRepositoryInfo().getCmisVersion() == CmisVersion.CMIS_1_0) {
+            addResult(createResult(SKIPPED, "Bulk Update Properties is not supported by CMIS 1.0. Test skipped!"));
+            return;
+        }
+
+        // create a test folder
+        Folder testFolder = createTestFolder(session);
+
+        try {
+            // documents must be in different folders because they all get
+            // the same name
+            final List<BulkUpdateObjectIdAndChangeToken> ids = new ArrayList<BulkUpdateObjectIdAndChangeToken>();
+            for (int i = 0; i < DOCUMENTS; i++) {
+                Folder folder = createFolder(session, testFolder, "perffolder" + i);
+                Document doc = createDocument(session, folder, "perfdoc.txt", "performance");
+
+                // no change token, so that every update is accepted
+                ids.add(new BulkUpdateObjectIdAndChangeTokenImpl(doc.getId(), null));
+            }
+
+            measure("bulkUpdate", "Bulk update (" + DOCUMENTS + " documents)", 0, new TimedOperation() {
+                @Override
+                public void execute(int iteration) {
+                    Map<String, Object> properties = new HashMap<String, Object>();
+                    properties.put(PropertyIds.NAME, "perfdoc" + iteration + ".txt");
+
+                    session.getBinding()
+                            .getObjectService()
+                            .bulkUpdateProperties(
+                                    session.getRepositoryInfo().getId(),
+                                    ids,
+                                    session.getObjectFactory().convertProperties(properties,
+                                            session.getTypeDefinition(getDocumentTestTypeId()), null,
+                                            EnumSet.of(Updatability.READWRITE)), null, null, null);
+                }
+            });
+        } finally {
+            // delete the test folder
+            deleteTestFolder();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.chemistry.opencmis.tck.tests.performance;
+
+import static org.apache.chemistry.opencmis.tck.CmisTestResultStatus.FAILURE;
+
+import java.util.Map;
+
+import org.apache.chemistry.opencmis.client.api.CmisObject;
+import org.apache.chemistry.opencmis.client.api.Folder;
+import org.apache.chemistry.opencmis.client.api.ItemIterable;
+import org.apache.chemistry.opencmis.client.api.OperationContext;
+import org.apache.chemistry.opencmis.client.api.Session;
+
+/**
+ * Children paging performance test.
+ */
+public class ChildrenPagingPerformanceTest extends AbstractPerformanceTest {
+
+    private static final int CHILDREN = 50;
+    private static final int PAGE_SIZE = 10;
+
+    @Override
+    public void init(Map<String, String> parameters) {
+        super.init(parameters);
+        setName("Children Paging Performance Test");
+        setDescription("Creates " + CHILDREN + " documents in a folder and measures how long it takes to fetch a page of "
+                + PAGE_SIZE + " children.");
+    }
+
+    @Override
+    public void run(final Session session) throws Exception {
+        // create a test folder
+        final Folder testFolder = createTestFolder(session);
+
+        try {
+            for (int i = 0; i < CHILDREN; i++) {
+                createDocument(session, testFolder, "perfdoc" + i + ".txt", "performance");
+            }
+
+            final OperationContext context = session.createOperationContext();
+            context.setCacheEnabled(false);
+            context.setMaxItemsPerPage(PAGE_SIZE);
+
+            final int pages = CHILDREN / PAGE_SIZE;
+
+            measure("childrenPage", "Children page", 0, new TimedOperation() {
+                @Override
+                public void execute(int iteration) {
+                    ItemIterable<CmisObject> page = testFolder.getChildren(context)
+                            .skipTo((iteration % pages) * PAGE_SIZE).getPage();
+
+                    int count = 0;
+                    for (CmisObject child : page) {
+                        if (child != null) {
+                            count++;
+                        }
+                    }
+
+                    if (count != PAGE_SIZE) {
+                        addResult(createResult(FAILURE, "Page " + (iteration % pages) + " should have " + PAGE_SIZE
+                                + " children, but it has " + count + "!", true));
+                    }
+                }
+            });
+        } finally {
+            // delete the test folder
+            deleteTestFolder();
+        }
+    }
+}
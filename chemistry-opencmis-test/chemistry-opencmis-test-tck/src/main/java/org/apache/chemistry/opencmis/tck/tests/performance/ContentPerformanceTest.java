@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.chemistry.opencmis.tck.tests.performance;
+
+import static org.apache.chemistry.opencmis.tck.CmisTestResultStatus.FAILURE;
+import static org.apache.chemistry.opencmis.tck.CmisTestResultStatus.SKIPPED;
+import static org.apache.chemistry.opencmis.tck.CmisTestResultStatus.WARNING;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.chemistry.opencmis.client.api.Document;
+import org.apache.chemistry.opencmis.client.api.Folder;
+import org.apache.chemistry.opencmis.client.api.ObjectId;
+import org.apache.chemistry.opencmis.client.api.Session;
+import org.apache.chemistry.opencmis.commons.PropertyIds;
+import org.apache.chemistry.opencmis.commons.data.ContentStream;
+import org.apache.chemistry.opencmis.commons.definitions.DocumentTypeDefinition;
+import org.apache.chemistry.opencmis.commons.definitions.TypeDefinition;
+import org.apache.chemistry.opencmis.commons.enums.ContentStreamAllowed;
+import org.apache.chemistry.opencmis.commons.enums.VersioningState;
+import org.apache.chemistry.opencmis.tck.impl.TestParameters;
+
+/**
+ * Content upload and download performance test.
+ */
+public class ContentPerformanceTest extends AbstractPerformanceTest {
+
+    private static final String MIME_TYPE = "application/octet-stream";
+
+    @Override
+    public void init(Map<String, String> parameters) {
+        super.init(parameters);
+        setName("Content Performance Test");
+        setDescription("Measures how long it takes to create documents with content and to download the content at different content sizes.");
+    }
+
+    @Override
+    public void run(final Session session) throws Exception {
+        TypeDefinition type = session.getTypeDefinition(getDocumentTestTypeId());
+        if (!(type instanceof DocumentTypeDefinition)) {
+            addResult(createResult(FAILURE, "Type is not a document type! Type: " + type.getId(), true));
+            return;
+        }
+
+        DocumentTypeDefinition docType = (DocumentTypeDefinition) type;
+        if (docType.getContentStreamAllowed() == ContentStreamAllowed.NOTALLOWED) {
+            addResult(createResult(SKIPPED, "Document type '" + type.getId()
+                    + "' does not allow content. Test skipped!"));
+            return;
+        }
+
+        final VersioningState versioningState = (Boolean.TRUE.equals(docType.isVersionable()) ? VersioningState.MAJOR
+                : VersioningState.NONE);
+
+        // create a test folder
+        final Folder testFolder = createTestFolder(session);
+
+        try {
+            for (final int size : getContentSizes()) {
+                final byte[] content = new byte[size];
+                for (int i = 0; i < size; i++) {
+                    content[i] = (byte) ('0' + (i % 10));
+                }
+
+                final List<ObjectId> ids = new ArrayList<ObjectId>();
+
+                measure("contentUpload." + size, "Content upload (" + size + " bytes)", size, new TimedOperation() {
+                    @Override
+                    public void execute(int iteration) {
+                        String name = "perfdoc" + size + "_" + iteration;
+
+                        Map<String, Object> properties = new HashMap<String, Object>();
+                        properties.put(PropertyIds.NAME, name);
+                        properties.put(PropertyIds.OBJECT_TYPE_ID, getDocumentTestTypeId());
+
+                        ContentStream contentStream = session.getObjectFactory().createContentStream(name, size,
+                                MIME_TYPE, new ByteArrayInputStream(content));
+
+                        ids.add(session.createDocument(properties, testFolder, contentStream, versioningState));
+                    }
+                });
+
+                final Document doc = (Document) session.getObject(ids.get(0), SELECT_ALL_NO_CACHE_OC);
+
+                measure("contentDownload." + size, "Content download (" + size + " bytes)", size,
+                        new TimedOperation() {
+                            @Override
+                            public void execute(int iteration) throws Exception {
+                                long length = 0;
+
+                                InputStream stream = doc.getContentStream().getStream();
+                                try {
+                                    byte[] buffer = new byte[64 * 1024];
+                                    int b;
+                                    while ((b = stream.read(buffer)) > -1) {
+                                        length += b;
+                                    }
+                                } finally {
+                                    stream.close();
+                                }
+
+                                if (length != size) {
+                                    addResult(createResult(FAILURE, "Downloaded content has " + length
+                                            + " bytes but " + size + " bytes have been uploaded!", true));
+                                }
+                            }
+                        });
+            }
+        } finally {
+            // delete the test folder
+            deleteTestFolder();
+        }
+    }
+
+    private List<Integer> getContentSizes() {
+        String sizes = getParameters().get(TestParameters.PERFORMANCE_CONTENT_SIZES);
+        if (sizes == null || sizes.trim().length() == 0) {
+            sizes = TestParameters.PERFORMANCE_CONTENT_SIZES_VALUE;
+        }
+
+        List<Integer> result = new ArrayList<Integer>();
+        for (String size : sizes.split(",")) {
+            try {
+                result.add(Integer.parseInt(size.trim()));
+            } catch (NumberFormatException e) {
+                addResult(createResult(WARNING, "Invalid content size: " + size));
+            }
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.chemistry.opencmis.tck.tests.performance;
+
+import static org.apache.chemistry.opencmis.tck.CmisTestResultStatus.SKIPPED;
+
+import java.util.Map;
+
+import org.apache.chemistry.opencmis.client.api.Folder;
+import org.apache.chemistry.opencmis.client.api.Session;
+
+/**
+ * Deep descendants performance test.
+ */
+public class DescendantsPerformanceTest extends AbstractPerformanceTest {
+
+    private static final int DEPTH = 3;
+    private static final int FOLDERS_PER_LEVEL = 3;
+
+    @Override
+    public void init(Map<String, String> parameters) {
+        super.init(parameters);
+        setName("Descendants Performance Test");
+        setDescription("Creates a folder tree and measures how long it takes to fetch all descendants.");
+    }
+
+    @Override
+    public void run(final Session session) throws Exception {
+        if (!isGetDescendantsSupported(session)) {
+            addResult(createResult(SKIPPED, "GetDescendants not supported. Test skipped!"));
+            return;
+        }
+
+        // create a test folder
+        final Folder testFolder = createTestFolder(session);
+
+        try {
+            createTree(session, testFolder, DEPTH);
+
+            measure("descendants", "Descendants", 0, new TimedOperation() {
+                @Override
+                public void execute(int iteration) {
+                    testFolder.getDescendants(-1, SELECT_ALL_NO_CACHE_OC);
+                }
+            });
+        } finally {
+            // delete the test folder
+            deleteTestFolder();
+        }
+    }
+
+    private void createTree(Session session, Folder parent, int depth) {
+        createDocument(session, parent, "perfdoc.txt", "performance");
+
+        if (depth == 0) {
+            return;
+        }
+
+        for (int i = 0; i < FOLDERS_PER_LEVEL; i++) {
+            createTree(session, createFolder(session, parent, "perffolder" + i), depth - 1);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.chemistry.opencmis.tck.tests.performance;
+
+import java.util.Map;
+
+import org.apache.chemistry.opencmis.client.api.Document;
+import org.apache.chemistry.opencmis.client.api.Folder;
+import org.apache.chemistry.opencmis.client.api.Session;
+
+/**
+ * Object fetch performance test.
+ */
+public class ObjectFetchPerformanceTest extends AbstractPerformanceTest {
+
+    @Override
+    public void init(Map<String, String> parameters) {
+        super.init(parameters);
+        setName("Object Fetch Performance Test");
+        setDescription("Creates a document and measures how long it takes to fetch it by id.");
+    }
+
+    @Override
+    public void run(final Session session) throws Exception {
+        // create a test folder
+        Folder testFolder = createTestFolder(session);
+
+        try {
+            final Document doc = createDocument(session, testFolder, "perfdoc.txt", "performance");
+
+            measure("objectFetch", "Object fetch", 0, new TimedOperation() {
+                @Override
+                public void execute(int iteration) {
+                    session.getObject(doc, SELECT_ALL_NO_CACHE_OC);
+                }
+            });
+        } finally {
+            // delete the test folder
+            deleteTestFolder();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.chemistry.opencmis.tck.tests.performance;
+
+import static org.apache.chemistry.opencmis.tck.CmisTestResultStatus.SKIPPED;
+
+import java.util.Map;
+
+import org.apache.chemistry.opencmis.client.api.Folder;
+import org.apache.chemistry.opencmis.client.api.QueryResult;
+import org.apache.chemistry.opencmis.client.api.Session;
+import org.apache.chemistry.opencmis.commons.definitions.TypeDefinition;
+import org.apache.chemistry.opencmis.commons.enums.CapabilityQuery;
+
+/**
+ * Query performance test.
+ */
+public class QueryPerformanceTest extends AbstractPerformanceTest {
+
+    private static final int DOCUMENTS = 20;
+
+    @Override
+    public void init(Map<String, String> parameters) {
+        super.init(parameters);
+        setName("Query Performance Test");
+        setDescription("Creates a few documents and measures how long an IN_FOLDER query for these documents takes.");
+    }
+
+    @Override
+    public void run(final Session session) throws Exception {
+        CapabilityQuery queryCapability = session.getRepositoryInfo().getCapabilities().getQueryCapability();
+        if (queryCapability == null || queryCapability == CapabilityQuery.NONE
+                || queryCapability == CapabilityQuery.FULLTEXTONLY) {
+            addResult(createResult(SKIPPED, "Metadata query not supported. Test skipped!"));
+            return;
+        }
+
+        TypeDefinition type = session.getTypeDefinition(getDocumentTestTypeId());
+        if (!Boolean.TRUE.equals(type.isQueryable())) {
+            addResult(createResult(SKIPPED, "Document type '" + type.getId() + "' is not queryable. Test skipped!"));
+            return;
+        }
+
+        // create a test folder
+        Folder testFolder = createTestFolder(session);
+
+        try {
+            for (int i = 0; i < DOCUMENTS; i++) {
+                createDocument(session, testFolder, "perfdoc" + i + ".txt", "performance");
+            }
+
+            final String statement = "SELECT cmis:objectId, cmis:name FROM " + type.getQueryName()
+                    + " WHERE IN_FOLDER('" + testFolder.getId() + "')";
+
+            measure("query", "Query", 0, new TimedOperation() {
+                @Override
+                public void execute(int iteration) {
+                    for (QueryResult hit : session.query(statement, false, SELECT_ALL_NO_CACHE_OC)) {
+                        hit.getPropertyValueByQueryName("cmis:objectId");
+                    }
+                }
+            });
+        } finally {
+            // delete the test folder
+            deleteTestFolder();
+        }
+    }
+}
@@ -0,0 +1,668 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.chemistry.opencmis.tools.filecopy;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.chemistry.opencmis.client.api.CmisObject;
+import org.apache.chemistry.opencmis.client.api.Folder;
+import org.apache.chemistry.opencmis.client.api.ObjectId;
+import org.apache.chemistry.opencmis.client.api.Session;
+import org.apache.chemistry.opencmis.commons.PropertyIds;
+import org.apache.chemistry.opencmis.commons.data.ContentStream;
+import org.apache.chemistry.opencmis.commons.enums.VersioningState;
+import org.apache.chemistry.opencmis.commons.exceptions.CmisContentAlreadyExistsException;
+import org.apache.chemistry.opencmis.commons.exceptions.CmisNameConstraintViolationException;
+import org.apache.chemistry.opencmis.commons.impl.IOUtils;
+import org.apache.chemistry.opencmis.tools.mapper.Configurator;
+import org.apache.chemistry.opencmis.tools.parser.MetadataParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Imports a local directory tree into a repository.
+ * <p>
+ * The import is a pipeline. The calling thread scans the directory tree. A
+ * pool of extractor threads detects the MIME types and extracts the metadata
+ * with the parsers and property mappers of {@link FileCopier}. A pool of
+ * upload threads creates the folders and documents. A folder is created as
+ * soon as its parent folder exists, and the documents of a folder are
+ * uploaded as soon as the folder exists. The number of files in the pipeline
+ * and the number of content bytes being uploaded at the same time are
+ * limited, so that the memory consumption doesn't depend on the size of the
+ * tree.
+ * <p>
+ * If a checkpoint file is set, all created folders and documents are
+ * recorded there and a later import with the same checkpoint file skips
+ * them. Progress and throughput are logged periodically.
+ */
+public class BulkImporter {
+
+    private static final Logger LOG = LoggerFactory.getLogger(BulkImporter.class.getName());
+    private static final Configurator CFG = Configurator.getInstance();
+
+    public static final int DEFAULT_UPLOAD_THREADS = 8;
+    public static final long DEFAULT_MAX_IN_FLIGHT_BYTES = 64L * 1024 * 1024;
+    public static final int DEFAULT_MAX_PENDING_FILES = 10000;
+    public static final int DEFAULT_REPORT_INTERVAL = 10;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final double MB = 1024.0 * 1024.0;
+
+    private final Session session;
+
+    private int extractorThreads = Runtime.getRuntime().availableProcessors();
+    private int uploadThreads = DEFAULT_UPLOAD_THREADS;
+    private long maxInFlightBytes = DEFAULT_MAX_IN_FLIGHT_BYTES;
+    private int maxPendingFiles = DEFAULT_MAX_PENDING_FILES;
+    private int reportInterval = DEFAULT_REPORT_INTERVAL;
+    private File checkpointFile;
+
+    // state of the running import
+    private ExecutorService extractors;
+    private ExecutorService uploaders;
+    private Semaphore pendingFiles;
+    private ByteBudget inFlight;
+    private ImportCheckpoint checkpoint;
+    private final Outstanding outstanding = new Outstanding();
+    private final ThreadLocal<Map<String, MetadataParser>> parsers = new ThreadLocal<Map<String, MetadataParser>>() {
+        @Override
+        protected Map<String, MetadataParser> initialValue() {
+            return new HashMap<String, MetadataParser>();
+        }
+    };
+
+    // statistics
+    private long startTime;
+    private final AtomicLong scannedFiles = new AtomicLong();
+    private final AtomicLong scannedFolders = new AtomicLong();
+    private final AtomicLong createdFolders = new AtomicLong();
+    private final AtomicLong failedFolders = new AtomicLong();
+    private final AtomicLong uploadedFiles = new AtomicLong();
+    private final AtomicLong uploadedBytes = new AtomicLong();
+    private final AtomicLong skippedFiles = new AtomicLong();
+    private final AtomicLong failedFiles = new AtomicLong();
+
+    public BulkImporter(Session session) {
+        if (session == null) {
+            throw new IllegalArgumentException("Session must be set!");
+        }
+
+        this.session = session;
+    }
+
+    /**
+     * Sets the number of threads that detect MIME types and extract metadata.
+     */
+    public void setExtractorThreads(int extractorThreads) {
+        this.extractorThreads = Math.max(1, extractorThreads);
+    }
+
+    /**
+     * Sets the number of threads that create folders and upload documents.
+     */
+    public void setUploadThreads(int uploadThreads) {
+        this.uploadThreads = Math.max(1, uploadThreads);
+    }
+
+    /**
+     * Sets the maximum number of content bytes that are uploaded at the same
+     * time. A file that is bigger than this is uploaded alone.
+     */
+    public void setMaxInFlightBytes(long maxInFlightBytes) {
+        this.maxInFlightBytes = Math.max(1, maxInFlightBytes);
+    }
+
+    /**
+     * Sets the maximum number of files that have been scanned but not
+     * uploaded yet. The scanner waits when this limit is reached.
+     */
+    public void setMaxPendingFiles(int maxPendingFiles) {
+        this.maxPendingFiles = Math.max(1, maxPendingFiles);
+    }
+
+    /**
+     * Sets the interval of the progress reports in seconds, 0 turns them
+     * off.
+     */
+    public void setReportInterval(int reportInterval) {
+        this.reportInterval = reportInterval;
+    }
+
+    /**
+     * Sets the checkpoint file, <code>null</code> turns checkpoints off.
+     */
+    public void setCheckpointFile(File checkpointFile) {
+        this.checkpointFile = checkpointFile;
+    }
+
+    /**
+     * Imports the content of a local directory.
+     *
+     * @param directory
+     *            the local directory
+     * @param folderId
+     *            the id of the target folder, <code>null</code> for the root
+     *            folder
+     */
+    public void importTree(File directory, String folderId) throws IOException, InterruptedException {
+        if (!directory.isDirectory()) {
+            throw new IllegalArgumentException("Not a directory: " + directory.getAbsolutePath());
+        }
+
+        String targetId = (folderId == null ? session.getRepositoryInfo().getRootFolderId() : folderId);
+        CmisObject target = session.getObject(targetId);
+        if (!(target instanceof Folder)) {
+            throw new IllegalArgumentException("Not a folder: " + targetId);
+        }
+
+        checkpoint = (checkpointFile == null ? null : new ImportCheckpoint(checkpointFile));
+        extractors = Executors.newFixedThreadPool(extractorThreads, new NamedThreadFactory("import-extractor"));
+        uploaders = Executors.newFixedThreadPool(uploadThreads, new NamedThreadFactory("import-upload"));
+        pendingFiles = new Semaphore(maxPendingFiles);
+        inFlight = new ByteBudget(maxInFlightBytes);
+        startTime = System.currentTimeMillis();
+
+        ScheduledExecutorService reporter = null;
+        if (reportInterval > 0) {
+            reporter = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("import-report"));
+            reporter.scheduleAtFixedRate(new Runnable() {
+                private long lastTime = startTime;
+                private long lastFiles = 0;
+                private long lastBytes = 0;
+
+                public void run() {
+                    long now = System.currentTimeMillis();
+                    long files = uploadedFiles.get();
+                    long bytes = uploadedBytes.get();
+                    report(now - lastTime, files - lastFiles, bytes - lastBytes);
+                    lastTime = now;
+                    lastFiles = files;
+                    lastBytes = bytes;
+                }
+            }, reportInterval, reportInterval, TimeUnit.SECONDS);
+        }
+
+        try {
+            FolderRef root = new FolderRef(null, "", ((Folder) target).getPath());
+            root.created(targetId);
+
+            scan(directory, root);
+
+            outstanding.await();
+        } finally {
+            extractors.shutdownNow();
+            uploaders.shutdownNow();
+            if (reporter != null) {
+                reporter.shutdownNow();
+            }
+            if (checkpoint != null) {
+                checkpoint.close();
+            }
+        }
+
+        long duration = System.currentTimeMillis() - startTime;
+        LOG.info("Import finished.");
+        report(duration, uploadedFiles.get(), uploadedBytes.get());
+    }
+
+    public long getUploadedFiles() {
+        return uploadedFiles.get();
+    }
+
+    public long getUploadedBytes() {
+        return uploadedBytes.get();
+    }
+
+    public long getSkippedFiles() {
+        return skippedFiles.get();
+    }
+
+    public long getFailedFiles() {
+        return failedFiles.get();
+    }
+
+    public long getCreatedFolders() {
+        return createdFolders.get();
+    }
+
+    public long getFailedFolders() {
+        return failedFolders.get();
+    }
+
+    // --- scanner ---
+
+    /**
+     * Walks the tree depth first. Parents are always visited before their
+     * children, so the folder of a file or directory is known when it is
+     * scheduled.
+     */
+    private void scan(File directory, FolderRef root) throws InterruptedException {
+        LinkedList<Object[]> stack = new LinkedList<Object[]>();
+        stack.addFirst(new Object[] { directory, root });
+
+        while (!stack.isEmpty()) {
+            Object[] entry = stack.removeFirst();
+            File dir = (File) entry[0];
+            FolderRef ref = (FolderRef) entry[1];
+
+            File[] children = dir.listFiles();
+            if (children == null) {
+                LOG.error("Cannot read directory " + dir.getAbsolutePath());
+                continue;
+            }
+
+            for (File child : children) {
+                String path = ref.path + "/" + child.getName();
+
+                if (child.isDirectory()) {
+                    scannedFolders.incrementAndGet();
+
+                    FolderRef childRef = new FolderRef(ref, path, join(ref.repositoryPath,
+                            FileCopier.getCmisName(child)));
+                    String id = (checkpoint == null ? null : checkpoint.getFolderId(path));
+                    if (id != null) {
+                        childRef.created(id);
+                    } else {
+                        outstanding.increment();
+                        ref.whenCreated(new CreateFolder(child, childRef));
+                    }
+
+                    stack.addFirst(new Object[] { child, childRef });
+                } else if (child.isFile()) {
+                    scannedFiles.incrementAndGet();
+
+                    if (checkpoint != null && checkpoint.isDocumentDone(path)) {
+                        skippedFiles.incrementAndGet();
+                        continue;
+                    }
+
+                    pendingFiles.acquire();
+                    outstanding.increment();
+                    extractors.execute(new Extract(child, ref, path));
+                }
+            }
+        }
+    }
+
+    private static String join(String parentPath, String name) {
+        return parentPath.endsWith("/") ? parentPath + name : parentPath + "/" + name;
+    }
+
+    // --- extraction ---
+
+    private MetadataParser getParser(String mimeType) {
+        Map<String, MetadataParser> threadParsers = parsers.get();
+        if (!threadParsers.containsKey(mimeType)) {
+            threadParsers.put(mimeType, CFG.createParser(mimeType));
+        }
+
+        return threadParsers.get(mimeType);
+    }
+
+    private class Extract implements Runnable {
+        private final File file;
+        private final FolderRef folder;
+        private final String path;
+
+        Extract(File file, FolderRef folder, String path) {
+            this.file = file;
+            this.folder = folder;
+            this.path = path;
+        }
+
+        public void run() {
+            try {
+                String mimeType = FileCopier.TIKA.detect(file);
+
+                Map<String, Object> properties;
+                MetadataParser parser = getParser(mimeType);
+                if (parser == null) {
+                    properties = new HashMap<String, Object>();
+                    properties.put(PropertyIds.OBJECT_TYPE_ID, CFG.getDefaultDocumentType());
+                } else {
+                    properties = FileCopier.extractProperties(session, parser, file, mimeType);
+                }
+
+                if (!properties.containsKey(PropertyIds.NAME)) {
+                    properties.put(PropertyIds.NAME, FileCopier.getCmisName(file));
+                }
+
+                folder.whenCreated(new Upload(file, folder, path, FileCopier.getContentType(file, mimeType),
+                        properties));
+            } catch (Exception e) {
+                LOG.error("Failed to extract metadata of " + file.getAbsolutePath() + ": " + e, e);
+                failedFiles.incrementAndGet();
+                finishFile();
+            }
+        }
+    }
+
+    private void finishFile() {
+        pendingFiles.release();
+        outstanding.decrement();
+    }
+
+    // --- upload ---
+
+    /**
+     * A step that has to wait for a folder.
+     */
+    private abstract class FolderStep implements Runnable {
+
+        /**
+         * Called instead of {@link #run()} if the folder could not be created.
+         */
+        abstract void cancel();
+    }
+
+    private class Upload extends FolderStep {
+        private final File file;
+        private final FolderRef folder;
+        private final String path;
+        private final String mimeType;
+        private final Map<String, Object> properties;
+
+        Upload(File file, FolderRef folder, String path, String mimeType, Map<String, Object> properties) {
+            this.file = file;
+            this.folder = folder;
+            this.path = path;
+            this.mimeType = mimeType;
+            this.properties = properties;
+        }
+
+        public void run() {
+            long length = file.length();
+            InputStream stream = null;
+            try {
+                inFlight.acquire(length);
+                try {
+                    stream = new BufferedInputStream(new FileInputStream(file), BUFFER_SIZE);
+                    ContentStream contentStream = session.getObjectFactory().createContentStream(
+                            (String) properties.get(PropertyIds.NAME), length, mimeType, stream);
+
+                    ObjectId id = session.createDocument(properties, session.createObjectId(folder.getId()),
+                            contentStream, VersioningState.NONE);
+
+                    uploadedFiles.incrementAndGet();
+                    uploadedBytes.addAndGet(length);
+                    if (checkpoint != null) {
+                        checkpoint.documentCreated(path, id.getId());
+                    }
+                } finally {
+                    IOUtils.closeQuietly(stream);
+                    inFlight.release(length);
+                }
+            } catch (CmisContentAlreadyExistsException e) {
+                alreadyExists();
+            } catch (CmisNameConstraintViolationException e) {
+                alreadyExists();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failedFiles.incrementAndGet();
+            } catch (Exception e) {
+                LOG.error("Failed to upload " + file.getAbsolutePath() + ": " + e, e);
+                failedFiles.incrementAndGet();
+            } finally {
+                finishFile();
+            }
+        }
+
+        private void alreadyExists() {
+            // most likely created by an interrupted run that didn't record
+            // it in the checkpoint
+            LOG.warn("Document already exists: " + path);
+            skippedFiles.incrementAndGet();
+        }
+
+        void cancel() {
+            failedFiles.incrementAndGet();
+            finishFile();
+        }
+    }
+
+    private class CreateFolder extends FolderStep {
+        private final File dir;
+        private final FolderRef folder;
+
+        CreateFolder(File dir, FolderRef folder) {
+            this.dir = dir;
+            this.folder = folder;
+        }
+
+        public void run() {
+            try {
+                Map<String, Object> properties = new HashMap<String, Object>();
+                properties.put(PropertyIds.NAME, FileCopier.getCmisName(dir));
+                properties.put(PropertyIds.OBJECT_TYPE_ID, CFG.getDefaultFolderType());
+
+                String id;
+                try {
+                    id = session.createFolder(properties, session.createObjectId(folder.parent.getId())).getId();
+                    createdFolders.incrementAndGet();
+                } catch (CmisContentAlreadyExistsException e) {
+                    id = getExistingFolderId();
+                } catch (CmisNameConstraintViolationException e) {
+                    id = getExistingFolderId();
+                }
+
+                if (checkpoint != null) {
+                    checkpoint.folderCreated(folder.path, id);
+                }
+
+                folder.created(id);
+            } catch (Exception e) {
+                LOG.error("Failed to create folder for " + dir.getAbsolutePath() + ": " + e, e);
+                cancel();
+                return;
+            }
+
+            outstanding.decrement();
+        }
+
+        private String getExistingFolderId() {
+            // most likely created by an interrupted run that didn't record it
+            // in the checkpoint
+            CmisObject existing = session.getObjectByPath(folder.repositoryPath);
+            if (!(existing instanceof Folder)) {
+                throw new IllegalStateException("Not a folder: " + folder.repositoryPath);
+            }
+
+            LOG.warn("Folder already exists: " + folder.repositoryPath);
+            return existing.getId();
+        }
+
+        void cancel() {
+            failedFolders.incrementAndGet();
+            folder.failed();
+            outstanding.decrement();
+        }
+    }
+
+    /**
+     * A folder of the import, which may or may not have been created yet.
+     */
+    private class FolderRef {
+        final FolderRef parent;
+        final String path;
+        final String repositoryPath;
+
+        private String id;
+        private boolean failed;
+        private List<FolderStep> waiting = new ArrayList<FolderStep>();
+
+        FolderRef(FolderRef parent, String path, String repositoryPath) {
+            this.parent = parent;
+            this.path = path;
+            this.repositoryPath = repositoryPath;
+        }
+
+        synchronized String getId() {
+            return id;
+        }
+
+        /**
+         * Runs a step on the upload pool when the folder exists.
+         */
+        void whenCreated(FolderStep step) {
+            boolean isFailed;
+            synchronized (this) {
+                if (id == null && !failed) {
+                    waiting.add(step);
+                    return;
+                }
+                isFailed = failed;
+            }
+
+            if (isFailed) {
+                step.cancel();
+            } else {
+                uploaders.execute(step);
+            }
+        }
+
+        void created(String newId) {
+            List<FolderStep> steps;
+            synchronized (this) {
+                id = newId;
+                steps = waiting;
+                waiting = null;
+            }
+
+            for (FolderStep step : steps) {
+                uploaders.execute(step);
+            }
+        }
+
+        void failed() {
+            List<FolderStep> steps;
+            synchronized (this) {
+                failed = true;
+                steps = waiting;
+                waiting = null;
+            }
+
+            for (FolderStep step : steps) {
+                step.cancel();
+            }
+        }
+    }
+
+    // --- reporting ---
+
+    private void report(long millis, long files, long bytes) {
+        double seconds = Math.max(millis, 1) / 1000.0;
+        LOG.info(String.format(Locale.ENGLISH, "Scanned %d files in %d folders. Uploaded %d files (%.1f MB), "
+                + "skipped %d, failed %d. Created %d folders, failed %d. Pending %d files, %.1f MB in flight. "
+                + "%.1f files/s, %.2f MB/s", scannedFiles.get(), scannedFolders.get(), uploadedFiles.get(),
+                uploadedBytes.get() / MB, skippedFiles.get(), failedFiles.get(), createdFolders.get(),
+                failedFolders.get(), maxPendingFiles - pendingFiles.availablePermits(), inFlight.getInFlight() / MB,
+                files / seconds, bytes / MB / seconds));
+    }
+
+    // --- helpers ---
+
+    /**
+     * Limits the number of bytes that are uploaded at the same time.
+     */
+    private static class ByteBudget {
+        private final long max;
+        private long inFlight;
+
+        ByteBudget(long max) {
+            this.max = max;
+        }
+
+        synchronized void acquire(long bytes) throws InterruptedException {
+            // a file that is bigger than the budget has to wait until it can
+            // go alone
+            while (inFlight > 0 && inFlight + bytes > max) {
+                wait();
+            }
+            inFlight += bytes;
+        }
+
+        synchronized void release(long bytes) {
+            inFlight -= bytes;
+            notifyAll();
+        }
+
+        synchronized long getInFlight() {
+            return inFlight;
+        }
+    }
+
+    /**
+     * Counts the folders and files that are still in the pipeline.
+     */
+    private static class Outstanding {
+        private final AtomicInteger count = new AtomicInteger();
+
+        void increment() {
+            count.incrementAndGet();
+        }
+
+        void decrement() {
+            if (count.decrementAndGet() == 0) {
+                synchronized (this) {
+                    notifyAll();
+                }
+            }
+        }
+
+        synchronized void await() throws InterruptedException {
+            while (count.get() > 0) {
+                wait(1000);
+            }
+        }
+    }
+
+    private static class NamedThreadFactory implements ThreadFactory {
+        private final String prefix;
+        private final AtomicInteger counter = new AtomicInteger();
+
+        NamedThreadFactory(String prefix) {
+            this.prefix = prefix;
+        }
+
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -48,6 +48,8 @@ public class FileCopier {
     private static final Logger LOG = LoggerFactory.getLogger(FileCopier.class.getName());
     // initialize configurator to get parsers and property mappings
     private static final Configurator CFG = Configurator.getInstance();
+    // Tika is thread safe and expensive to set up
+    static final Tika TIKA = new Tika();
     private static int totalNum = 0;
 
     private Session session;
@@ -101,42 +103,19 @@ public class FileCopier {
 
         try {
             File f = new File(fileName);
-            Tika tika = new Tika();
-            String mimeType = tika.detect(f);
+            String mimeType = TIKA.detect(f);
             LOG.info("Detected MIME type: " + mimeType);
 
             // extract metadata: first get a parser
             MetadataParser parser = CFG.getParser(mimeType);
             if (null == parser) {
-                properties.put(PropertyIds.NAME, f.getName().replaceAll(" ", "_"));
+                properties.put(PropertyIds.NAME, getCmisName(f));
                 properties.put(PropertyIds.OBJECT_TYPE_ID, CFG.getDefaultDocumentType());
             } else {
-                parser.reset();
-                PropertyMapper mapper = CFG.getPropertyMapper(mimeType);
-                if (null == mapper) {
-                    throw new MapperException("Unknown mime type (no configuration): " + mimeType);
-                }
-                String typeId = mapper.getMappedTypeId();
-                if (null == typeId) {
-                    throw new MapperException("No CMIS type configured for mime type" + mimeType);
-                }
-                TypeDefinition td = session.getTypeDefinition(typeId);
-                if (null == td) {
-                    throw new MapperException("CMIS type " + typeId + " does not exist on server.");
-                }
-
-                LOG.info("Detected MIME type: " + mimeType + " is mapped to CMIS type id: " + td.getId());
-                parser.extractMetadata(f, td, session);
-                properties = parser.getCmisProperties();
+                properties = extractProperties(session, parser, f, mimeType);
             }
 
-            // check if there is an overridden content type configured
-            int posLastDot = f.getName().indexOf('.');
-            String ext = posLastDot < 0 ? null : f.getName().substring(posLastDot + 1, f.getName().length());
-            String overridden = null;
-            if (null != ext && (overridden = CFG.getContentType(ext)) != null) {
-                mimeType = overridden;
-            }
+            mimeType = getContentType(f, mimeType);
             long length = f.length();
 
             is = new FileInputStream(fileName);
@@ -144,7 +123,7 @@ public class FileCopier {
             ContentStream contentStream = session.getObjectFactory()
                     .createContentStream(fileName, length, mimeType, is);
             if (!properties.containsKey(PropertyIds.NAME)) {
-                properties.put(PropertyIds.NAME, f.getName().replaceAll(" ", "_"));
+                properties.put(PropertyIds.NAME, getCmisName(f));
             }
             LOG.debug("uploading document with content lenth: " + contentStream.getLength());
             Document doc = parentFolder.createDocument(properties, contentStream, VersioningState.NONE);
@@ -181,7 +160,7 @@ public class FileCopier {
         }
         Map<String, Object> properties = new HashMap<String, Object>();
         File f = new File(fileName);
-        properties.put(PropertyIds.NAME, f.getName().replaceAll(" ", "_"));
+        properties.put(PropertyIds.NAME, getCmisName(f));
         properties.put(PropertyIds.OBJECT_TYPE_ID, CFG.getDefaultFolderType());
         try {
             Folder folder = parentFolder.createFolder(properties);
@@ -195,11 +174,55 @@ public class FileCopier {
         return id;
     }
 
+    /**
+     * Extracts the CMIS properties of a file with the parser configured for
+     * its MIME type.
+     */
+    static Map<String, Object> extractProperties(Session session, MetadataParser parser, File f, String mimeType) {
+        parser.reset();
+        PropertyMapper mapper = parser.getMapper();
+        if (null == mapper) {
+            throw new MapperException("Unknown mime type (no configuration): " + mimeType);
+        }
+        String typeId = mapper.getMappedTypeId();
+        if (null == typeId) {
+            throw new MapperException("No CMIS type configured for mime type" + mimeType);
+        }
+        TypeDefinition td = session.getTypeDefinition(typeId);
+        if (null == td) {
+            throw new MapperException("CMIS type " + typeId + " does not exist on server.");
+        }
+
+        LOG.info("Detected MIME type: " + mimeType + " is mapped to CMIS type id: " + td.getId());
+        parser.extractMetadata(f, td, session);
+        return parser.getCmisProperties();
+    }
+
+    /**
+     * Returns the content type configured for the extension of a file or the
+     * detected MIME type if there is none.
+     */
+    static String getContentType(File f, String mimeType) {
+        int posLastDot = f.getName().indexOf('.');
+        String ext = posLastDot < 0 ? null : f.getName().substring(posLastDot + 1, f.getName().length());
+        String overridden = null;
+        if (null != ext && (overridden = CFG.getContentType(ext)) != null) {
+            return overridden;
+        }
+        return mimeType;
+    }
+
+    /**
+     * Returns the name of the document or folder created for a file.
+     */
+    static String getCmisName(File f) {
+        return f.getName().replaceAll(" ", "_");
+    }
+
     public void listMetadata(String fileName) {
         try {
             File f = new File(fileName);
-            Tika tika = new Tika();
-            String mimeType = tika.detect(f);
+            String mimeType = TIKA.detect(f);
             LOG.info("Detected MIME type: " + mimeType);
 
             // extract metadata: first get a parser
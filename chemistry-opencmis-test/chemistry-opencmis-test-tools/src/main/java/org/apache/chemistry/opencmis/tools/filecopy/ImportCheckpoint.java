@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.chemistry.opencmis.tools.filecopy;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.chemistry.opencmis.commons.impl.IOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Journal of the folders and documents a {@link BulkImporter} has created.
+ * <p>
+ * Each line holds the kind (<code>F</code> for folders, <code>D</code> for
+ * documents), the object id and the path relative to the import directory,
+ * separated by tabs. Lines are flushed as they are written, so that an
+ * interrupted import can be resumed with the same file. Incomplete lines
+ * at the end of the file are ignored.
+ */
+public class ImportCheckpoint {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ImportCheckpoint.class.getName());
+
+    private static final String FOLDER = "F";
+    private static final String DOCUMENT = "D";
+
+    private final Map<String, String> folders = new HashMap<String, String>();
+    private final Set<String> documents = new HashSet<String>();
+    private final Writer writer;
+
+    public ImportCheckpoint(File file) throws IOException {
+        if (file.exists()) {
+            load(file);
+            LOG.info("Resuming import from checkpoint " + file.getAbsolutePath() + ": " + folders.size()
+                    + " folders and " + documents.size() + " documents already imported.");
+        }
+
+        writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file, true), IOUtils.UTF8));
+    }
+
+    private void load(File file) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), IOUtils.UTF8));
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split("\t", 3);
+                if (parts.length != 3 || parts[1].length() == 0) {
+                    continue;
+                }
+
+                if (FOLDER.equals(parts[0])) {
+                    folders.put(parts[2], parts[1]);
+                } else if (DOCUMENT.equals(parts[0])) {
+                    documents.add(parts[2]);
+                }
+            }
+        } finally {
+            IOUtils.closeQuietly(reader);
+        }
+    }
+
+    /**
+     * Returns the id of a folder created by a previous run.
+     */
+    public synchronized String getFolderId(String path) {
+        return folders.get(path);
+    }
+
+    /**
+     * Returns whether a previous run has created the document.
+     */
+    public synchronized boolean isDocumentDone(String path) {
+        return documents.contains(path);
+    }
+
+    public void folderCreated(String path, String id) throws IOException {
+        write(FOLDER, path, id);
+    }
+
+    public void documentCreated(String path, String id) throws IOException {
+        // not kept in memory, only documents of previous runs are looked up
+        write(DOCUMENT, path, id);
+    }
+
+    private synchronized void write(String kind, String path, String id) throws IOException {
+        if (path.indexOf('\n') > -1 || path.indexOf('\r') > -1) {
+            LOG.warn("Path cannot be recorded in the checkpoint: " + path);
+            return;
+        }
+
+        writer.write(kind);
+        writer.write('\t');
+        writer.write(id);
+        writer.write('\t');
+        writer.write(path);
+        writer.write('\n');
+        writer.flush();
+    }
+
+    public synchronized void close() {
+        IOUtils.closeQuietly(writer);
+    }
+}
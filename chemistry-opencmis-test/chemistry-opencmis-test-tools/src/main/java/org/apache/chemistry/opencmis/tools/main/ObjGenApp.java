@@ -18,9 +18,12 @@
  */
 package org.apache.chemistry.opencmis.tools.main;
 
+import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -28,7 +31,9 @@ import joptsimple.OptionParser;
 import joptsimple.OptionSet;
 import joptsimple.OptionSpec;
 
+import org.apache.chemistry.opencmis.client.api.Session;
 import org.apache.chemistry.opencmis.client.bindings.CmisBindingFactory;
+import org.apache.chemistry.opencmis.client.runtime.SessionFactoryImpl;
 import org.apache.chemistry.opencmis.commons.SessionParameter;
 import org.apache.chemistry.opencmis.commons.data.ContentStream;
 import org.apache.chemistry.opencmis.commons.data.RepositoryInfo;
@@ -38,7 +43,12 @@ import org.apache.chemistry.opencmis.commons.exceptions.CmisBaseException;
 import org.apache.chemistry.opencmis.commons.impl.IOUtils;
 import org.apache.chemistry.opencmis.commons.spi.CmisBinding;
 import org.apache.chemistry.opencmis.commons.spi.RepositoryService;
+import org.apache.chemistry.opencmis.tools.filecopy.BulkImporter;
 import org.apache.chemistry.opencmis.tools.filecopy.FileCopier;
+import org.apache.chemistry.opencmis.util.load.LoadTest;
+import org.apache.chemistry.opencmis.util.load.LoadTestConfig;
+import org.apache.chemistry.opencmis.util.load.LoadTestResult;
+import org.apache.chemistry.opencmis.util.load.OperationMix;
 import org.apache.chemistry.opencmis.util.repository.MultiThreadedObjectGenerator;
 import org.apache.chemistry.opencmis.util.repository.ObjectGenerator;
 import org.apache.chemistry.opencmis.util.repository.ObjectGenerator.ContentKind;
@@ -54,6 +64,8 @@ public class ObjGenApp {
     private static final String PROP_ATOMPUB_URL = SessionParameter.ATOMPUB_URL;
     private static final String PROP_WS_URL = "org.apache.chemistry.opencmis.binding.webservices.url";
     private static final String PROP_BROWSER_URL = SessionParameter.BROWSER_URL;
+    private static final String PROP_LOCAL_FACTORY = SessionParameter.LOCAL_FACTORY;
+    private static final String PROP_LOCAL_PARAM = "org.apache.chemistry.opencmis.binding.local.param.";
     private static final String PROP_BINDING = SessionParameter.BINDING_TYPE;
     private static final String PROP_CUSTOM = "org.apache.chemistry.opencmis.binding.header.";
     private static final String DEFAULT_ATOMPUB_URL = "http://localhost:8080/inmemory/atom";
@@ -76,9 +88,18 @@ public class ObjGenApp {
     private static final String FILE_NAME_PATTERN = "FileName";
     private static final String LOCAL_FILE = "File";
     private static final String LOCAL_DIR = "Dir";
+    private static final String IMPORT_CHECKPOINT = "Checkpoint";
+    private static final String IMPORT_MAX_IN_FLIGHT = "MaxInFlightMB";
+    private static final String LOAD_MIX = "Mix";
+    private static final String LOAD_DURATION = "Duration";
+    private static final String LOAD_WARMUP = "WarmUp";
+    private static final String LOAD_RATE = "Rate";
+    private static final String LOAD_THINK_TIME = "ThinkTime";
+    private static final String LOAD_REPORT = "Report";
     private static final String BINDING_ATOM = "atompub";
     private static final String BINDING_WS = "webservices";
     private static final String BINDING_BROWSER = "browser";
+    private static final String BINDING_LOCAL = "local";
 
     private BindingType bindingType;
     private ContentKind contentKind;
@@ -100,6 +121,14 @@ public class ObjGenApp {
     private String fileNamePattern;
     private String localDir;
     private String localFile;   
+    private String importCheckpoint;
+    private Integer importMaxInFlight;
+    private String loadMix;
+    private Integer loadDuration;
+    private Integer loadWarmUp;
+    private Double loadRate;
+    private Integer loadThinkTime;
+    private String loadReport;
 
     public static void main(String[] args) {
 
@@ -134,6 +163,14 @@ public class ObjGenApp {
         OptionSpec<String> optFileNamePattern;
         OptionSpec<String> optLocalDir;
         OptionSpec<String> optLocalFile;
+        OptionSpec<String> optImportCheckpoint;
+        OptionSpec<Integer> optImportMaxInFlight;
+        OptionSpec<String> optLoadMix;
+        OptionSpec<Integer> optLoadDuration;
+        OptionSpec<Integer> optLoadWarmUp;
+        OptionSpec<Double> optLoadRate;
+        OptionSpec<Integer> optLoadThinkTime;
+        OptionSpec<String> optLoadReport;
 
         OptionParser parser = new OptionParser();
         optCmd = parser.accepts(CMD).withRequiredArg().describedAs("Command to perform (see below)");
@@ -166,6 +203,23 @@ public class ObjGenApp {
                 .describedAs("name of a directory to be recursively copied to the repository");
         optLocalFile = parser.accepts(LOCAL_FILE).withOptionalArg().ofType(String.class)
                 .describedAs("file name of a file to be copied to the repository");
+        optImportCheckpoint = parser.accepts(IMPORT_CHECKPOINT).withOptionalArg().ofType(String.class)
+                .describedAs("checkpoint file for ImportFiles, an interrupted import can be resumed with it");
+        optImportMaxInFlight = parser.accepts(IMPORT_MAX_IN_FLIGHT).withOptionalArg().ofType(Integer.class)
+                .defaultsTo(64).describedAs("maximum size of the content uploaded in parallel by ImportFiles in MB");
+        optLoadMix = parser.accepts(LOAD_MIX).withOptionalArg().ofType(String.class)
+                .defaultsTo(OperationMix.DEFAULT_MIX)
+                .describedAs("operation mix for Load: weights of read, navigate, query, create, content");
+        optLoadDuration = parser.accepts(LOAD_DURATION).withOptionalArg().ofType(Integer.class).defaultsTo(60)
+                .describedAs("duration of the Load measurement phase in seconds");
+        optLoadWarmUp = parser.accepts(LOAD_WARMUP).withOptionalArg().ofType(Integer.class).defaultsTo(10)
+                .describedAs("duration of the Load warm-up phase in seconds");
+        optLoadRate = parser.accepts(LOAD_RATE).withOptionalArg().ofType(Double.class)
+                .describedAs("operations per second for Load (open loop), default is closed loop");
+        optLoadThinkTime = parser.accepts(LOAD_THINK_TIME).withOptionalArg().ofType(Integer.class).defaultsTo(0)
+                .describedAs("pause between two Load operations of a thread in ms (closed loop)");
+        optLoadReport = parser.accepts(LOAD_REPORT).withOptionalArg().ofType(String.class)
+                .describedAs("file to write the Load report to, *.json for JSON, otherwise CSV");
         OptionSet options = parser.parse(args);
 
         if (cmd == null || options.has("?")) {
@@ -180,9 +234,11 @@ public class ObjGenApp {
             bindingType = BindingType.ATOMPUB;
         } else if (bindingStr.equals(BINDING_BROWSER)) {
             bindingType = BindingType.BROWSER;
+        } else if (bindingStr.equals(BINDING_LOCAL)) {
+            bindingType = BindingType.LOCAL;
         } else {
             System.out.println("Error: Unknown binding: " + bindingStr + " allowed values: " + BINDING_WS + " or "
-                    + BINDING_ATOM + " or " + BINDING_BROWSER);
+                    + BINDING_ATOM + " or " + BINDING_BROWSER + " or " + BINDING_LOCAL);
             return;
         }
 
@@ -223,6 +279,14 @@ public class ObjGenApp {
         fileNamePattern = options.valueOf(optFileNamePattern);
         localDir = options.valueOf(optLocalDir);
         localFile = options.valueOf(optLocalFile);
+        importCheckpoint = options.valueOf(optImportCheckpoint);
+        importMaxInFlight = options.valueOf(optImportMaxInFlight);
+        loadMix = options.valueOf(optLoadMix);
+        loadDuration = options.valueOf(optLoadDuration);
+        loadWarmUp = options.valueOf(optLoadWarmUp);
+        loadRate = options.valueOf(optLoadRate);
+        loadThinkTime = options.valueOf(optLoadThinkTime);
+        loadReport = options.valueOf(optLoadReport);
 
         initClientBindings();
 
@@ -241,8 +305,12 @@ public class ObjGenApp {
             createFiles(options);
         } else if (cmd.equals("CopyFiles")) {
             transferFiles(options);
+        } else if (cmd.equals("ImportFiles")) {
+            importFiles(options);
         } else if (cmd.equals("CopyFilesTest")) { // undocumented
             transferFilesTest(options);
+        } else if (cmd.equals("Load")) {
+            runLoadTest(options);
         } else {
             System.out.println("Unknown cmd: " + cmd);
             usage(parser);
@@ -258,9 +326,10 @@ public class ObjGenApp {
             System.out.println();
             System.out
                     .println("Command is one of [CreateDocument, CreateFolder, FillRepository, RepositoryInfo, CreateFiles, "
-                            + "CopyFiles, CopyFilesTest]");
+                            + "CopyFiles, ImportFiles, CopyFilesTest, Load]");
             System.out.println("JVM system properties: " + PROP_ATOMPUB_URL + ", " + PROP_WS_URL + ", "
-                    + PROP_BROWSER_URL);
+                    + PROP_BROWSER_URL + ", " + PROP_LOCAL_FACTORY);
+            System.out.println("                       " + PROP_LOCAL_PARAM + "<name> (local binding parameters)");
             System.out.println("                       " + PROP_USER + ", " + PROP_PASSWORD);
             System.out.println();
             System.out.println("Example: ");
@@ -318,6 +387,8 @@ public class ObjGenApp {
             System.out.println("Using WebService, connecting to  " + getWsUrl());
         } else if (bindingType == BindingType.BROWSER) {
             System.out.println("Using Browser binding, connecting to  " + getBrowserUrl());
+        } else if (bindingType == BindingType.LOCAL) {
+            System.out.println("Using local binding with " + getLocalFactory());
         } else {
             System.out.println("Unknown binding type.");
         }
@@ -469,6 +540,54 @@ public class ObjGenApp {
         callRepoInfo(repositoryId, count);
     }
 
+    private void runLoadTest(OptionSet options) {
+        LoadTestConfig config = new LoadTestConfig();
+        config.setRepositoryId(repositoryId);
+        config.setRootFolderId(rootFolder);
+        config.setMix(new OperationMix(loadMix));
+        config.setThreads(threads);
+        config.setDurationMillis(loadDuration * 1000L);
+        config.setWarmUpMillis(loadWarmUp * 1000L);
+        if (loadRate != null) {
+            config.setScheduling(LoadTestConfig.Scheduling.OPEN);
+            config.setTargetRate(loadRate);
+        } else {
+            config.setThinkTimeMillis(loadThinkTime);
+        }
+        config.setSeedDocuments(Math.max(count, 50));
+        if (contentSize > 0) {
+            config.setContentSizeInKB(contentSize);
+        }
+        if (contentKind != null) {
+            config.setContentKind(contentKind);
+        }
+        config.setDocumentTypeId(docType);
+        config.setFolderTypeId(folderType);
+        config.setCleanup(cleanup);
+
+        System.out.println("Running load test with " + threads + " threads for " + loadDuration + "s (warm-up "
+                + loadWarmUp + "s)...");
+        LoadTestResult result = new LoadTest(binding, config).run();
+        result.printReport(System.out);
+
+        if (loadReport != null) {
+            Writer writer = null;
+            try {
+                writer = new OutputStreamWriter(new FileOutputStream(loadReport), IOUtils.UTF8);
+                if (loadReport.toLowerCase().endsWith(".json")) {
+                    result.writeJson(writer);
+                } else {
+                    result.writeCsv(writer);
+                }
+                System.out.println("Report written to " + loadReport);
+            } catch (IOException e) {
+                System.out.println("Could not write report: " + e);
+            } finally {
+                IOUtils.closeQuietly(writer);
+            }
+        }
+    }
+
     private void createFiles(OptionSet options) {
         ContentStream contentStream = null;
 
@@ -552,6 +671,47 @@ public class ObjGenApp {
         fc.copyRecursive(name, folderId);
     }
 
+    private void importFiles(OptionSet options) {
+        if (null == localDir || localDir.length() == 0) {
+            System.out.println("Error: You have to provide a --dir option to import files.");
+            return;
+        }
+
+        System.out.println("Importing files to a repository: ");
+        System.out.println("Repository id is: " + (repositoryId == null ? "not set!" : repositoryId));
+        System.out.println("Folder id used as root: " + rootFolder);
+        System.out.println("Upload threads: " + threads);
+        System.out.println("Checkpoint file: " + importCheckpoint);
+
+        Map<String, String> parameters = getConnectionParameters(getBindingProperty(), repositoryId);
+        Session session = SessionFactoryImpl.newInstance().createSession(parameters);
+
+        BulkImporter importer = new BulkImporter(session);
+        importer.setUploadThreads(threads);
+        importer.setMaxInFlightBytes(importMaxInFlight * 1024L * 1024L);
+        if (importCheckpoint != null) {
+            importer.setCheckpointFile(new File(importCheckpoint));
+        }
+
+        try {
+            importer.importTree(new File(localDir), rootFolder);
+        } catch (IOException e) {
+            System.out.println("Import failed: " + e);
+            e.printStackTrace();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.out.println("Import interrupted.");
+        }
+
+        System.out.println();
+        System.out.println("Result:");
+        System.out.println("Documents uploaded: " + importer.getUploadedFiles());
+        System.out.println("Documents skipped: " + importer.getSkippedFiles());
+        System.out.println("Documents failed: " + importer.getFailedFiles());
+        System.out.println("Folders created: " + importer.getCreatedFolders());
+        System.out.println("Folders failed: " + importer.getFailedFolders());
+    }
+
     private void transferFilesTest(OptionSet options) {
         String fileName = localFile;
 
@@ -597,6 +757,8 @@ public class ObjGenApp {
                 binding = createWSBinding(url, isPrefix(url), getUser(), getPassword());
             } else if (bindingType == BindingType.BROWSER) {
                 binding = createBrowserBinding(getBrowserUrl(), getUser(), getPassword());
+            } else if (bindingType == BindingType.LOCAL) {
+                binding = createLocalBinding(getLocalFactory(), getUser(), getPassword());
             }
             
             RepositoryInfo repoInfo = binding.getRepositoryService().getRepositoryInfo(null, null);
@@ -650,6 +812,20 @@ public class ObjGenApp {
         return binding;
     }
 
+    private static CmisBinding createLocalBinding(String factoryClassName, String user, String password) {
+
+        // gather parameters
+        Map<String, String> parameters = new HashMap<String, String>();
+        filLoginParams(parameters, user, password);
+        parameters.putAll(getLocalParameters());
+
+        // get factory and create binding
+        CmisBindingFactory factory = CmisBindingFactory.newInstance();
+        parameters.put(SessionParameter.LOCAL_FACTORY, factoryClassName);
+        CmisBinding binding = factory.createCmisLocalBinding(parameters);
+        return binding;
+    }
+
     private static boolean isPrefix(String url) {
         boolean isPrefix = true;
         String urlLower = url.toLowerCase();
@@ -721,6 +897,21 @@ public class ObjGenApp {
         return System.getProperty(PROP_BROWSER_URL, DEFAULT_BROWSER_BINDING_URL);
     }
 
+    private static String getLocalFactory() {
+        return System.getProperty(PROP_LOCAL_FACTORY);
+    }
+
+    private static Map<String, String> getLocalParameters() {
+        Map<String, String> parameters = new HashMap<String, String>();
+        for (Object key : System.getProperties().keySet()) {
+            String name = key.toString();
+            if (name.startsWith(PROP_LOCAL_PARAM)) {
+                parameters.put(name.substring(PROP_LOCAL_PARAM.length()), System.getProperty(name));
+            }
+        }
+        return parameters;
+    }
+
     private static String getUser() {
         return System.getProperty(PROP_USER, DEFAULT_USER);
     }
@@ -47,6 +47,7 @@ public class Configurator {
     private Properties properties;
     private Map<String, PropertyMapper> contentTypeMapperMap = new HashMap<String, PropertyMapper>();
     private Map<String, MetadataParser> parserMap = new HashMap<String, MetadataParser>();
+    private Map<String, String> typeKeyMap = new HashMap<String, String>();
     private String defaultDocumentType;
     private String defaultFolderType;
 
@@ -81,6 +82,35 @@ public class Configurator {
         return parser;
     }
 
+    /**
+     * Creates a new parser and property mapper for a content type. Parsers
+     * returned by {@link #getParser(String)} are shared and keep state while
+     * parsing, threads that parse in parallel need their own instances.
+     *
+     * @return a new parser or null if the content type is not configured
+     */
+    public MetadataParser createParser(String contentType) {
+        String typeKey = typeKeyMap.get(contentType);
+        if (null == typeKey && contentType.indexOf('/') > 0) {
+            // if not found try a more generic one
+            typeKey = typeKeyMap.get(contentType.substring(0, contentType.indexOf('/')) + "/*");
+        }
+
+        if (null == typeKey) {
+            return null;
+        }
+
+        PropertyMapper mapper = loadMapperClass(typeKey);
+        if (!mapper.initialize(PREFIX, typeKey, properties)) {
+            return null;
+        }
+
+        MetadataParser parser = loadParserClass(typeKey);
+        parser.initialize(mapper, properties.getProperty(PREFIX + "." + typeKey));
+
+        return parser;
+    }
+
     private void loadProperties() {
         // Returns null on lookup failures:
         InputStream in = Configurator.class.getResourceAsStream("/mapping.properties");
@@ -178,6 +208,7 @@ public class Configurator {
             String[] contentTypes = parser.getContentTypes();
             for (String ct : contentTypes) {
                 parserMap.put(ct, parser);
+                typeKeyMap.put(ct, typeKey);
             }
         }
     }
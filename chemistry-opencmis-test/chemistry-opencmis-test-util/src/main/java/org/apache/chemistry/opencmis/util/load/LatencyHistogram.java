@@ -0,0 +1,167 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.chemistry.opencmis.util.load;
+
+/**
+ * High dynamic range latency histogram with microsecond resolution.
+ * <p>
+ * Values below 128 microseconds are recorded exactly. Larger values are
+ * recorded in 64 sub-buckets per power of two, which keeps the relative error
+ * below 1.6% over the whole range of <code>long</code> values while using a
+ * fixed amount of memory.
+ * <p>
+ * This class is NOT thread safe. Each load test worker records into its own
+ * histograms, which are merged with {@link #add(LatencyHistogram)} at the end
+ * of the test.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 6;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final long[] fCounts = new long[BUCKETS];
+    private long fTotalCount;
+    private long fTotalMicros;
+    private long fMinMicros = Long.MAX_VALUE;
+    private long fMaxMicros;
+
+    /**
+     * Records a latency.
+     *
+     * @param nanos
+     *            the latency in nanoseconds
+     */
+    public void recordNanos(long nanos) {
+        record(nanos < 0 ? 0 : nanos / 1000);
+    }
+
+    /**
+     * Records a latency.
+     *
+     * @param micros
+     *            the latency in microseconds
+     */
+    public void record(long micros) {
+        if (micros < 0) {
+            micros = 0;
+        }
+
+        fCounts[getBucket(micros)]++;
+        fTotalCount++;
+        fTotalMicros += micros;
+        if (micros < fMinMicros) {
+            fMinMicros = micros;
+        }
+        if (micros > fMaxMicros) {
+            fMaxMicros = micros;
+        }
+    }
+
+    /**
+     * Adds all values of another histogram to this histogram.
+     */
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            fCounts[i] += other.fCounts[i];
+        }
+        fTotalCount += other.fTotalCount;
+        fTotalMicros += other.fTotalMicros;
+        fMinMicros = Math.min(fMinMicros, other.fMinMicros);
+        fMaxMicros = Math.max(fMaxMicros, other.fMaxMicros);
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            fCounts[i] = 0;
+        }
+        fTotalCount = 0;
+        fTotalMicros = 0;
+        fMinMicros = Long.MAX_VALUE;
+        fMaxMicros = 0;
+    }
+
+    public long getCount() {
+        return fTotalCount;
+    }
+
+    public long getMin() {
+        return fTotalCount == 0 ? 0 : fMinMicros;
+    }
+
+    public long getMax() {
+        return fMaxMicros;
+    }
+
+    public double getMean() {
+        return fTotalCount == 0 ? 0.0 : (double) fTotalMicros / fTotalCount;
+    }
+
+    /**
+     * Returns the value at the given percentile in microseconds.
+     *
+     * @param percentile
+     *            the percentile, between 0 and 100
+     */
+    public long getPercentile(double percentile) {
+        if (fTotalCount == 0) {
+            return 0;
+        }
+
+        long rank = (long) Math.ceil(percentile / 100.0 * fTotalCount);
+        if (rank < 1) {
+            rank = 1;
+        }
+
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += fCounts[i];
+            if (seen >= rank) {
+                return Math.min(getUpperBound(i), fMaxMicros);
+            }
+        }
+
+        return fMaxMicros;
+    }
+
+    static int getBucket(long value) {
+        if (value < 2 * SUB_BUCKETS) {
+            return (int) value;
+        }
+
+        int magnitude = 63 - Long.numberOfLeadingZeros(value);
+        int shift = magnitude - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift);
+
+        return (shift + 1) * SUB_BUCKETS + (subBucket - SUB_BUCKETS);
+    }
+
+    static long getUpperBound(int bucket) {
+        if (bucket < 2 * SUB_BUCKETS) {
+            return bucket;
+        }
+
+        int shift = bucket / SUB_BUCKETS - 1;
+        long subBucket = bucket % SUB_BUCKETS + SUB_BUCKETS;
+
+        long upper = ((subBucket + 1) << shift) - 1;
+
+        return upper < 0 ? Long.MAX_VALUE : upper;
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.chemistry.opencmis.util.load;
+
+/**
+ * Operations executed by the load test.
+ */
+public enum LoadOperation {
+
+    /** getObject() of a random seed document. */
+    READ("read"),
+    /** getChildren() of the test folder. */
+    NAVIGATE("navigate"),
+    /** query() with the configured statement. */
+    QUERY("query"),
+    /** createDocument() in the test folder. */
+    CREATE("create"),
+    /** getContentStream() of a random seed document, read to the end. */
+    CONTENT("content");
+
+    private final String value;
+
+    LoadOperation(String value) {
+        this.value = value;
+    }
+
+    public String value() {
+        return value;
+    }
+
+    public static LoadOperation fromValue(String v) {
+        for (LoadOperation c : LoadOperation.values()) {
+            if (c.value.equalsIgnoreCase(v)) {
+                return c;
+            }
+        }
+        throw new IllegalArgumentException(v);
+    }
+}
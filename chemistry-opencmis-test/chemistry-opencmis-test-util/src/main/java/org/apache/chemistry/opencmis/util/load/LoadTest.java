@@ -0,0 +1,337 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.chemistry.opencmis.util.load;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.chemistry.opencmis.commons.data.ContentStream;
+import org.apache.chemistry.opencmis.commons.data.RepositoryInfo;
+import org.apache.chemistry.opencmis.commons.enums.IncludeRelationships;
+import org.apache.chemistry.opencmis.commons.enums.UnfileObject;
+import org.apache.chemistry.opencmis.commons.exceptions.CmisRuntimeException;
+import org.apache.chemistry.opencmis.commons.impl.IOUtils;
+import org.apache.chemistry.opencmis.commons.spi.CmisBinding;
+import org.apache.chemistry.opencmis.commons.spi.DiscoveryService;
+import org.apache.chemistry.opencmis.commons.spi.NavigationService;
+import org.apache.chemistry.opencmis.commons.spi.ObjectService;
+import org.apache.chemistry.opencmis.util.load.LoadTestConfig.Scheduling;
+import org.apache.chemistry.opencmis.util.repository.ObjectGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Load test harness that runs a configurable mix of CMIS operations against
+ * a repository.
+ * <p>
+ * The test works with any binding, including the local binding. It creates a
+ * test folder with a number of seed documents, runs a warm-up phase and a
+ * measurement phase with the configured number of workers, and optionally
+ * deletes the test folder afterwards. Latencies are recorded per operation in
+ * {@link LatencyHistogram}s.
+ *
+ * <pre>
+ * LoadTestConfig config = new LoadTestConfig();
+ * config.setRepositoryId("A1");
+ * config.setThreads(16);
+ * config.setMix(new OperationMix("read=70,navigate=20,create=10"));
+ * LoadTestResult result = new LoadTest(binding, config).run();
+ * result.printReport(System.out);
+ * </pre>
+ */
+public class LoadTest {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LoadTest.class);
+
+    private final CmisBinding fBinding;
+    private final LoadTestConfig fConfig;
+
+    private String fTestFolderId;
+    private String[] fSeedDocumentIds;
+    private String fQueryStatement;
+
+    public LoadTest(CmisBinding binding, LoadTestConfig config) {
+        fBinding = binding;
+        fConfig = config;
+    }
+
+    /**
+     * Runs the test and returns the results of the measurement phase.
+     */
+    public LoadTestResult run() {
+        prepare();
+
+        try {
+            return execute();
+        } finally {
+            if (fConfig.isCleanup()) {
+                cleanup();
+            }
+        }
+    }
+
+    private ObjectGenerator createObjectGenerator() {
+        ObjectGenerator gen = new ObjectGenerator(fBinding.getObjectFactory(), fBinding.getNavigationService(),
+                fBinding.getObjectService(), fBinding.getRepositoryService(), fConfig.getRepositoryId(),
+                fConfig.getContentKind());
+        gen.setUseUuidsForNames(true);
+        gen.setDocumentTypeId(fConfig.getDocumentTypeId());
+        gen.setFolderTypeId(fConfig.getFolderTypeId());
+        gen.setContentSizeInKB(fConfig.getContentSizeInKB());
+        gen.setCleanUpAfterCreate(false);
+
+        return gen;
+    }
+
+    private void prepare() {
+        String rootFolderId = fConfig.getRootFolderId();
+        if (rootFolderId == null || rootFolderId.length() == 0) {
+            RepositoryInfo info = fBinding.getRepositoryService().getRepositoryInfo(fConfig.getRepositoryId(), null);
+            rootFolderId = info.getRootFolderId();
+        }
+
+        ObjectGenerator gen = createObjectGenerator();
+        fTestFolderId = gen.createFolders(rootFolderId, 1)[0];
+
+        int seed = Math.max(1, fConfig.getSeedDocuments());
+        fSeedDocumentIds = createObjectGenerator().createDocuments(fTestFolderId, seed);
+
+        fQueryStatement = fConfig.getQueryStatement().replace(LoadTestConfig.FOLDER_PLACEHOLDER, fTestFolderId);
+
+        LOG.info("Load test folder {} created with {} documents.", fTestFolderId, seed);
+    }
+
+    private void cleanup() {
+        try {
+            fBinding.getObjectService().deleteTree(fConfig.getRepositoryId(), fTestFolderId, true,
+                    UnfileObject.DELETE, true, null);
+        } catch (Exception e) {
+            LOG.warn("Could not delete load test folder {}: {}", fTestFolderId, e.toString(), e);
+        }
+    }
+
+    private LoadTestResult execute() {
+        final int threads = Math.max(1, fConfig.getThreads());
+
+        ThreadFactory threadFactory = fConfig.getThreadFactory();
+        if (threadFactory == null) {
+            threadFactory = new ThreadFactory() {
+                private final AtomicInteger counter = new AtomicInteger();
+
+                public Thread newThread(Runnable r) {
+                    Thread t = new Thread(r, "LoadTestWorker-" + counter.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                }
+            };
+        }
+
+        long start = System.nanoTime();
+        long measureStart = start + TimeUnit.MILLISECONDS.toNanos(fConfig.getWarmUpMillis());
+        long end = measureStart + TimeUnit.MILLISECONDS.toNanos(fConfig.getDurationMillis());
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads, threadFactory);
+        try {
+            List<Future<Worker>> futures = new ArrayList<Future<Worker>>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(new Worker(i, threads, start, measureStart, end)));
+            }
+
+            LoadTestResult result = new LoadTestResult(fConfig, threads);
+            for (Future<Worker> future : futures) {
+                Worker worker = future.get();
+                for (LoadOperation op : LoadOperation.values()) {
+                    result.add(op, worker.fHistograms.get(op), worker.fErrors[op.ordinal()]);
+                }
+            }
+
+            long measured = Math.min(System.nanoTime(), end) - measureStart;
+            result.setMeasuredMillis(Math.max(0, TimeUnit.NANOSECONDS.toMillis(measured)));
+
+            return result;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CmisRuntimeException("Load test has been interrupted!", e);
+        } catch (ExecutionException e) {
+            throw new CmisRuntimeException("Load test failed: " + e.getCause(), e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Executes one operation.
+     */
+    private void execute(LoadOperation op, Random random, ObjectGenerator gen) throws IOException {
+        String repositoryId = fConfig.getRepositoryId();
+        ObjectService objSvc = fBinding.getObjectService();
+
+        switch (op) {
+        case READ:
+            objSvc.getObject(repositoryId, randomSeedDocument(random), null, Boolean.FALSE,
+                    IncludeRelationships.NONE, "cmis:none", Boolean.FALSE, Boolean.FALSE, null);
+            break;
+        case NAVIGATE:
+            NavigationService navSvc = fBinding.getNavigationService();
+            int maxSkip = Math.max(1, fSeedDocumentIds.length - fConfig.getMaxItems() + 1);
+            navSvc.getChildren(repositoryId, fTestFolderId, null, null, Boolean.FALSE, IncludeRelationships.NONE,
+                    "cmis:none", Boolean.FALSE, BigInteger.valueOf(fConfig.getMaxItems()),
+                    BigInteger.valueOf(random.nextInt(maxSkip)), null);
+            break;
+        case QUERY:
+            DiscoveryService discSvc = fBinding.getDiscoveryService();
+            discSvc.query(repositoryId, fQueryStatement, Boolean.FALSE, Boolean.FALSE, IncludeRelationships.NONE,
+                    "cmis:none", BigInteger.valueOf(fConfig.getMaxItems()), BigInteger.ZERO, null);
+            break;
+        case CREATE:
+            gen.createSingleDocument(fTestFolderId);
+            break;
+        case CONTENT:
+            ContentStream contentStream = objSvc.getContentStream(repositoryId, randomSeedDocument(random), null,
+                    null, null, null);
+            if (contentStream != null) {
+                InputStream stream = contentStream.getStream();
+                try {
+                    byte[] buffer = new byte[64 * 1024];
+                    while (stream.read(buffer) > -1) {
+                        // read errors count as failed operations
+                    }
+                } finally {
+                    IOUtils.closeQuietly(stream);
+                }
+            }
+            break;
+        default:
+            throw new IllegalArgumentException("Unknown operation: " + op);
+        }
+    }
+
+    private String randomSeedDocument(Random random) {
+        return fSeedDocumentIds[random.nextInt(fSeedDocumentIds.length)];
+    }
+
+    /**
+     * Load test worker. Records into its own histograms.
+     */
+    private class Worker implements Callable<Worker> {
+        private final Map<LoadOperation, LatencyHistogram> fHistograms = new EnumMap<LoadOperation, LatencyHistogram>(
+                LoadOperation.class);
+        private final long[] fErrors = new long[LoadOperation.values().length];
+        private final Random fRandom;
+        private final ObjectGenerator fGenerator;
+        private final int fIndex;
+        private final int fThreads;
+        private final long fStart;
+        private final long fMeasureStart;
+        private final long fEnd;
+
+        public Worker(int index, int threads, long start, long measureStart, long end) {
+            fIndex = index;
+            fThreads = threads;
+            fStart = start;
+            fMeasureStart = measureStart;
+            fEnd = end;
+            fRandom = new Random(31L * index + 17L);
+            fGenerator = createObjectGenerator();
+
+            for (LoadOperation op : LoadOperation.values()) {
+                fHistograms.put(op, new LatencyHistogram());
+            }
+        }
+
+        public Worker call() throws Exception {
+            if (fConfig.getScheduling() == Scheduling.OPEN) {
+                runOpenLoop();
+            } else {
+                runClosedLoop();
+            }
+
+            return this;
+        }
+
+        private void runClosedLoop() throws InterruptedException {
+            long thinkTime = fConfig.getThinkTimeMillis();
+
+            long now = System.nanoTime();
+            while (now < fEnd) {
+                runOperation(now);
+
+                if (thinkTime > 0) {
+                    Thread.sleep(thinkTime);
+                }
+
+                now = System.nanoTime();
+            }
+        }
+
+        private void runOpenLoop() throws InterruptedException {
+            double rate = fConfig.getTargetRate();
+            if (rate <= 0) {
+                throw new IllegalArgumentException("Target rate must be positive!");
+            }
+
+            // spread the workers evenly over the interval
+            long interval = (long) (fThreads * 1000000000.0 / rate);
+            long intended = fStart + interval * fIndex / fThreads;
+
+            while (intended < fEnd) {
+                long wait = intended - System.nanoTime();
+                if (wait > 0) {
+                    TimeUnit.NANOSECONDS.sleep(wait);
+                }
+
+                runOperation(intended);
+                intended += interval;
+            }
+        }
+
+        /**
+         * Runs an operation and records its latency measured from the given
+         * start time.
+         */
+        private void runOperation(long start) {
+            LoadOperation op = fConfig.getMix().next(fRandom);
+            try {
+                execute(op, fRandom, fGenerator);
+                if (start >= fMeasureStart) {
+                    fHistograms.get(op).recordNanos(System.nanoTime() - start);
+                }
+            } catch (Exception e) {
+                if (start >= fMeasureStart) {
+                    fErrors[op.ordinal()]++;
+                }
+                LOG.debug("Operation {} failed: {}", op.value(), e.toString(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,252 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.chemistry.opencmis.util.load;
+
+import java.util.concurrent.ThreadFactory;
+
+import org.apache.chemistry.opencmis.commons.enums.BaseTypeId;
+import org.apache.chemistry.opencmis.util.repository.ObjectGenerator.ContentKind;
+
+/**
+ * Configuration of a {@link LoadTest}.
+ */
+public class LoadTestConfig {
+
+    /**
+     * How the workers schedule their operations.
+     */
+    public enum Scheduling {
+        /**
+         * Each worker starts the next operation when the previous one has
+         * finished (plus think time). Throughput adapts to the server.
+         */
+        CLOSED,
+        /**
+         * Operations are started at a fixed total rate, independent of the
+         * response times. Latencies are measured from the intended start
+         * time, so queuing delays are not hidden (no coordinated omission).
+         */
+        OPEN
+    }
+
+    /** Placeholder in the query statement that is replaced by the test folder id. */
+    public static final String FOLDER_PLACEHOLDER = "{folder}";
+
+    private String fRepositoryId;
+    private String fRootFolderId;
+    private OperationMix fMix = new OperationMix(OperationMix.DEFAULT_MIX);
+    private int fThreads = 4;
+    private long fDurationMillis = 60 * 1000;
+    private long fWarmUpMillis = 10 * 1000;
+    private Scheduling fScheduling = Scheduling.CLOSED;
+    private double fTargetRate = 100.0;
+    private long fThinkTimeMillis = 0;
+    private int fSeedDocuments = 50;
+    private int fContentSizeInKB = 10;
+    private ContentKind fContentKind = ContentKind.LOREM_IPSUM_TEXT;
+    private String fDocumentTypeId = BaseTypeId.CMIS_DOCUMENT.value();
+    private String fFolderTypeId = BaseTypeId.CMIS_FOLDER.value();
+    private String fQueryStatement = "SELECT cmis:objectId, cmis:name FROM cmis:document WHERE IN_FOLDER('"
+            + FOLDER_PLACEHOLDER + "')";
+    private int fMaxItems = 20;
+    private boolean fCleanup = true;
+    private ThreadFactory fThreadFactory;
+
+    public String getRepositoryId() {
+        return fRepositoryId;
+    }
+
+    public void setRepositoryId(String repositoryId) {
+        fRepositoryId = repositoryId;
+    }
+
+    public String getRootFolderId() {
+        return fRootFolderId;
+    }
+
+    /**
+     * Sets the folder the test folder is created in. Default is the root
+     * folder of the repository.
+     */
+    public void setRootFolderId(String rootFolderId) {
+        fRootFolderId = rootFolderId;
+    }
+
+    public OperationMix getMix() {
+        return fMix;
+    }
+
+    public void setMix(OperationMix mix) {
+        fMix = mix;
+    }
+
+    public int getThreads() {
+        return fThreads;
+    }
+
+    public void setThreads(int threads) {
+        fThreads = threads;
+    }
+
+    public long getDurationMillis() {
+        return fDurationMillis;
+    }
+
+    /**
+     * Sets the length of the measurement phase.
+     */
+    public void setDurationMillis(long durationMillis) {
+        fDurationMillis = durationMillis;
+    }
+
+    public long getWarmUpMillis() {
+        return fWarmUpMillis;
+    }
+
+    /**
+     * Sets the length of the warm-up phase. Operations started during the
+     * warm-up phase are executed but not recorded.
+     */
+    public void setWarmUpMillis(long warmUpMillis) {
+        fWarmUpMillis = warmUpMillis;
+    }
+
+    public Scheduling getScheduling() {
+        return fScheduling;
+    }
+
+    public void setScheduling(Scheduling scheduling) {
+        fScheduling = scheduling;
+    }
+
+    public double getTargetRate() {
+        return fTargetRate;
+    }
+
+    /**
+     * Sets the total number of operations per second for open-loop
+     * scheduling.
+     */
+    public void setTargetRate(double targetRate) {
+        fTargetRate = targetRate;
+    }
+
+    public long getThinkTimeMillis() {
+        return fThinkTimeMillis;
+    }
+
+    /**
+     * Sets the pause between two operations of a worker for closed-loop
+     * scheduling.
+     */
+    public void setThinkTimeMillis(long thinkTimeMillis) {
+        fThinkTimeMillis = thinkTimeMillis;
+    }
+
+    public int getSeedDocuments() {
+        return fSeedDocuments;
+    }
+
+    /**
+     * Sets the number of documents that are created before the test starts.
+     * The read and content operations pick random seed documents.
+     */
+    public void setSeedDocuments(int seedDocuments) {
+        fSeedDocuments = seedDocuments;
+    }
+
+    public int getContentSizeInKB() {
+        return fContentSizeInKB;
+    }
+
+    public void setContentSizeInKB(int contentSizeInKB) {
+        fContentSizeInKB = contentSizeInKB;
+    }
+
+    public ContentKind getContentKind() {
+        return fContentKind;
+    }
+
+    public void setContentKind(ContentKind contentKind) {
+        fContentKind = contentKind;
+    }
+
+    public String getDocumentTypeId() {
+        return fDocumentTypeId;
+    }
+
+    public void setDocumentTypeId(String documentTypeId) {
+        fDocumentTypeId = documentTypeId;
+    }
+
+    public String getFolderTypeId() {
+        return fFolderTypeId;
+    }
+
+    public void setFolderTypeId(String folderTypeId) {
+        fFolderTypeId = folderTypeId;
+    }
+
+    public String getQueryStatement() {
+        return fQueryStatement;
+    }
+
+    /**
+     * Sets the statement of the query operation. {@link #FOLDER_PLACEHOLDER}
+     * is replaced by the id of the test folder.
+     */
+    public void setQueryStatement(String queryStatement) {
+        fQueryStatement = queryStatement;
+    }
+
+    public int getMaxItems() {
+        return fMaxItems;
+    }
+
+    /**
+     * Sets the page size of the navigate and query operations.
+     */
+    public void setMaxItems(int maxItems) {
+        fMaxItems = maxItems;
+    }
+
+    public boolean isCleanup() {
+        return fCleanup;
+    }
+
+    /**
+     * Sets whether the test folder is deleted after the test.
+     */
+    public void setCleanup(boolean cleanup) {
+        fCleanup = cleanup;
+    }
+
+    public ThreadFactory getThreadFactory() {
+        return fThreadFactory;
+    }
+
+    /**
+     * Sets the factory of the worker threads, for example a factory for
+     * virtual threads on Java runtimes that support them. By default,
+     * platform threads are used.
+     */
+    public void setThreadFactory(ThreadFactory threadFactory) {
+        fThreadFactory = threadFactory;
+    }
+}
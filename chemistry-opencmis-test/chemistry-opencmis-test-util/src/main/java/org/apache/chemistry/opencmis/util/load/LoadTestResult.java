@@ -0,0 +1,228 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.chemistry.opencmis.util.load;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+import org.apache.chemistry.opencmis.commons.impl.json.JSONArray;
+import org.apache.chemistry.opencmis.commons.impl.json.JSONObject;
+
+/**
+ * Results of the measurement phase of a {@link LoadTest}.
+ */
+public class LoadTestResult {
+
+    private static final double[] PERCENTILES = new double[] { 50.0, 90.0, 99.0, 99.9 };
+
+    private final LoadTestConfig fConfig;
+    private final int fThreads;
+    private final Map<LoadOperation, LatencyHistogram> fHistograms = new EnumMap<LoadOperation, LatencyHistogram>(
+            LoadOperation.class);
+    private final Map<LoadOperation, Long> fErrors = new EnumMap<LoadOperation, Long>(LoadOperation.class);
+    private long fMeasuredMillis;
+
+    public LoadTestResult(LoadTestConfig config, int threads) {
+        fConfig = config;
+        fThreads = threads;
+
+        for (LoadOperation op : LoadOperation.values()) {
+            fHistograms.put(op, new LatencyHistogram());
+            fErrors.put(op, 0L);
+        }
+    }
+
+    void add(LoadOperation op, LatencyHistogram histogram, long errors) {
+        fHistograms.get(op).add(histogram);
+        fErrors.put(op, fErrors.get(op) + errors);
+    }
+
+    void setMeasuredMillis(long measuredMillis) {
+        fMeasuredMillis = measuredMillis;
+    }
+
+    public long getMeasuredMillis() {
+        return fMeasuredMillis;
+    }
+
+    /**
+     * Returns the latency histogram of successful operations.
+     */
+    public LatencyHistogram getHistogram(LoadOperation op) {
+        return fHistograms.get(op);
+    }
+
+    public long getErrorCount(LoadOperation op) {
+        return fErrors.get(op);
+    }
+
+    /**
+     * Returns the histogram of all operations.
+     */
+    public LatencyHistogram getTotalHistogram() {
+        LatencyHistogram total = new LatencyHistogram();
+        for (LatencyHistogram histogram : fHistograms.values()) {
+            total.add(histogram);
+        }
+
+        return total;
+    }
+
+    public long getTotalErrorCount() {
+        long result = 0;
+        for (Long errors : fErrors.values()) {
+            result += errors;
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the number of successful operations per second.
+     */
+    public double getThroughput(LatencyHistogram histogram) {
+        return fMeasuredMillis == 0 ? 0.0 : histogram.getCount() * 1000.0 / fMeasuredMillis;
+    }
+
+    /**
+     * Prints a human readable report.
+     */
+    public void printReport(PrintStream out) {
+        out.println();
+        out.println("Load test result:");
+        out.println("  Scheduling: " + fConfig.getScheduling()
+                + (fConfig.getScheduling() == LoadTestConfig.Scheduling.OPEN ? " (" + fConfig.getTargetRate()
+                        + " ops/s)" : ""));
+        out.println("  Threads   : " + fThreads);
+        out.println("  Mix       : " + fConfig.getMix());
+        out.println("  Measured  : " + fMeasuredMillis + "ms (after " + fConfig.getWarmUpMillis() + "ms warm-up)");
+        out.println();
+        out.println(String.format(Locale.ENGLISH, "%-10s %9s %7s %9s %9s %9s %9s %9s %9s %9s", "operation",
+                "count", "errors", "ops/s", "mean ms", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms"));
+
+        for (LoadOperation op : LoadOperation.values()) {
+            LatencyHistogram histogram = fHistograms.get(op);
+            if (histogram.getCount() > 0 || fErrors.get(op) > 0) {
+                printLine(out, op.value(), histogram, fErrors.get(op));
+            }
+        }
+
+        printLine(out, "total", getTotalHistogram(), getTotalErrorCount());
+        out.println();
+    }
+
+    private void printLine(PrintStream out, String name, LatencyHistogram histogram, long errors) {
+        out.println(String.format(Locale.ENGLISH, "%-10s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f %9.2f", name,
+                histogram.getCount(), errors, getThroughput(histogram), histogram.getMean() / 1000.0,
+                toMillis(histogram.getPercentile(50.0)), toMillis(histogram.getPercentile(90.0)),
+                toMillis(histogram.getPercentile(99.0)), toMillis(histogram.getPercentile(99.9)),
+                toMillis(histogram.getMax())));
+    }
+
+    /**
+     * Writes the results as CSV, one line per operation. Latencies are in
+     * milliseconds.
+     */
+    public void writeCsv(Writer writer) throws IOException {
+        writer.write("operation,count,errors,throughput,mean,min,p50,p90,p99,p99.9,max\n");
+
+        for (LoadOperation op : LoadOperation.values()) {
+            writeCsvLine(writer, op.value(), fHistograms.get(op), fErrors.get(op));
+        }
+        writeCsvLine(writer, "total", getTotalHistogram(), getTotalErrorCount());
+
+        writer.flush();
+    }
+
+    private void writeCsvLine(Writer writer, String name, LatencyHistogram histogram, long errors)
+            throws IOException {
+        StringBuilder sb = new StringBuilder();
+        sb.append(name);
+        sb.append(',').append(histogram.getCount());
+        sb.append(',').append(errors);
+        sb.append(',').append(String.format(Locale.ENGLISH, "%.3f", getThroughput(histogram)));
+        sb.append(',').append(String.format(Locale.ENGLISH, "%.3f", histogram.getMean() / 1000.0));
+        sb.append(',').append(toMillis(histogram.getMin()));
+        for (double p : PERCENTILES) {
+            sb.append(',').append(toMillis(histogram.getPercentile(p)));
+        }
+        sb.append(',').append(toMillis(histogram.getMax()));
+        sb.append('\n');
+
+        writer.write(sb.toString());
+    }
+
+    /**
+     * Writes the results and the test configuration as JSON. Latencies are
+     * in milliseconds.
+     */
+    public void writeJson(Writer writer) throws IOException {
+        JSONObject json = new JSONObject();
+
+        JSONObject config = new JSONObject();
+        config.put("scheduling", fConfig.getScheduling().name().toLowerCase(Locale.ENGLISH));
+        if (fConfig.getScheduling() == LoadTestConfig.Scheduling.OPEN) {
+            config.put("targetRate", fConfig.getTargetRate());
+        }
+        config.put("threads", fThreads);
+        config.put("mix", fConfig.getMix().toString());
+        config.put("warmUpMillis", fConfig.getWarmUpMillis());
+        config.put("durationMillis", fConfig.getDurationMillis());
+        config.put("seedDocuments", fConfig.getSeedDocuments());
+        config.put("contentSizeInKB", fConfig.getContentSizeInKB());
+        json.put("config", config);
+
+        json.put("measuredMillis", fMeasuredMillis);
+
+        JSONArray operations = new JSONArray();
+        for (LoadOperation op : LoadOperation.values()) {
+            operations.add(toJson(op.value(), fHistograms.get(op), fErrors.get(op)));
+        }
+        json.put("operations", operations);
+        json.put("total", toJson("total", getTotalHistogram(), getTotalErrorCount()));
+
+        json.writeJSONString(writer);
+        writer.flush();
+    }
+
+    private JSONObject toJson(String name, LatencyHistogram histogram, long errors) {
+        JSONObject result = new JSONObject();
+        result.put("operation", name);
+        result.put("count", histogram.getCount());
+        result.put("errors", errors);
+        result.put("throughput", getThroughput(histogram));
+        result.put("mean", histogram.getMean() / 1000.0);
+        result.put("min", toMillis(histogram.getMin()));
+        result.put("p50", toMillis(histogram.getPercentile(50.0)));
+        result.put("p90", toMillis(histogram.getPercentile(90.0)));
+        result.put("p99", toMillis(histogram.getPercentile(99.0)));
+        result.put("p99.9", toMillis(histogram.getPercentile(99.9)));
+        result.put("max", toMillis(histogram.getMax()));
+
+        return result;
+    }
+
+    private static double toMillis(long micros) {
+        return micros / 1000.0;
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.chemistry.opencmis.util.load;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Weighted mix of load test operations.
+ * <p>
+ * A mix is defined by a string like
+ * <code>read=50,navigate=20,query=10,create=10,content=10</code>. The weights
+ * are relative and don't have to add up to 100. Operations that are not
+ * listed are not executed.
+ */
+public class OperationMix {
+
+    public static final String DEFAULT_MIX = "read=50,navigate=20,query=10,create=10,content=10";
+
+    private final LoadOperation[] fOperations;
+    private final int[] fCumulativeWeights;
+    private final int fTotalWeight;
+
+    public OperationMix(String mix) {
+        Map<LoadOperation, Integer> weights = new EnumMap<LoadOperation, Integer>(LoadOperation.class);
+
+        for (String entry : mix.split(",")) {
+            String trimmed = entry.trim();
+            if (trimmed.length() == 0) {
+                continue;
+            }
+
+            int eq = trimmed.indexOf('=');
+            if (eq < 1) {
+                throw new IllegalArgumentException("Invalid operation mix entry: " + trimmed);
+            }
+
+            LoadOperation op = LoadOperation.fromValue(trimmed.substring(0, eq).trim());
+            int weight = Integer.parseInt(trimmed.substring(eq + 1).trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Negative weight: " + trimmed);
+            }
+            if (weight > 0) {
+                weights.put(op, weight);
+            }
+        }
+
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("Operation mix is empty: " + mix);
+        }
+
+        fOperations = new LoadOperation[weights.size()];
+        fCumulativeWeights = new int[weights.size()];
+
+        int i = 0;
+        int total = 0;
+        for (Map.Entry<LoadOperation, Integer> entry : weights.entrySet()) {
+            total += entry.getValue();
+            fOperations[i] = entry.getKey();
+            fCumulativeWeights[i] = total;
+            i++;
+        }
+        fTotalWeight = total;
+    }
+
+    /**
+     * Picks the next operation.
+     */
+    public LoadOperation next(Random random) {
+        int r = random.nextInt(fTotalWeight);
+        for (int i = 0; i < fCumulativeWeights.length; i++) {
+            if (r < fCumulativeWeights[i]) {
+                return fOperations[i];
+            }
+        }
+
+        return fOperations[fOperations.length - 1];
+    }
+
+    /**
+     * Returns <code>true</code> if the operation is part of the mix.
+     */
+    public boolean contains(LoadOperation op) {
+        for (LoadOperation o : fOperations) {
+            if (o == op) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        int prev = 0;
+        for (int i = 0; i < fOperations.length; i++) {
+            if (sb.length() > 0) {
+                sb.append(',');
+            }
+            sb.append(fOperations[i].value()).append('=').append(fCumulativeWeights[i] - prev);
+            prev = fCumulativeWeights[i];
+        }
+
+        return sb.toString();
+    }
+}
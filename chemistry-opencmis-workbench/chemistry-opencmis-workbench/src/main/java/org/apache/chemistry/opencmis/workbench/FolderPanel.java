@@ -90,7 +90,7 @@ public class FolderPanel extends JPanel implements FolderListener, ObjectListene
 
     public void objectLoaded(ClientModelEvent event) {
         if ((folderTable.getSelectedRow() > -1) && (event.getClientModel().getCurrentObject() != null)) {
-            String selId = folderTable.getValueAt(folderTable.getSelectedRow(), FolderTable.ID_COLUMN).toString();
+            Object selId = folderTable.getValueAt(folderTable.getSelectedRow(), FolderTable.ID_COLUMN);
             String curId = event.getClientModel().getCurrentObject().getId();
 
             if (!curId.equals(selId)) {
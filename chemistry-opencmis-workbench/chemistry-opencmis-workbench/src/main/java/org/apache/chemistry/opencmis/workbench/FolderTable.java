@@ -45,17 +45,23 @@ import javax.swing.JTable;
 import javax.swing.ListSelectionModel;
 import javax.swing.SwingUtilities;
 import javax.swing.TransferHandler;
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
 import javax.swing.event.ListSelectionEvent;
 import javax.swing.event.ListSelectionListener;
 import javax.swing.table.AbstractTableModel;
 import javax.swing.table.TableColumn;
+import javax.swing.table.TableModel;
+import javax.swing.table.TableRowSorter;
 
 import org.apache.chemistry.opencmis.client.api.CmisObject;
 import org.apache.chemistry.opencmis.client.api.Document;
 import org.apache.chemistry.opencmis.client.api.Folder;
+import org.apache.chemistry.opencmis.commons.PropertyIds;
 import org.apache.chemistry.opencmis.commons.enums.BaseTypeId;
 import org.apache.chemistry.opencmis.workbench.model.ClientModel;
 import org.apache.chemistry.opencmis.workbench.model.ClientModelEvent;
+import org.apache.chemistry.opencmis.workbench.model.FolderChildren;
 import org.apache.chemistry.opencmis.workbench.model.FolderListener;
 import org.apache.chemistry.opencmis.workbench.swing.GregorianCalendarRenderer;
 
@@ -66,8 +72,15 @@ public class FolderTable extends JTable implements FolderListener {
     private static final String[] COLUMN_NAMES = { "", "Name", "Type", "Content Type", "Size", "Creation Date",
             "Created by", "Modification Date", "Modified by", "Id" };
     private static final int[] COLUMN_WIDTHS = { 24, 200, 150, 150, 80, 180, 100, 180, 100, 300 };
+    private static final String[] COLUMN_PROPERTIES = { null, PropertyIds.NAME, PropertyIds.OBJECT_TYPE_ID,
+            PropertyIds.CONTENT_STREAM_MIME_TYPE, PropertyIds.CONTENT_STREAM_LENGTH, PropertyIds.CREATION_DATE,
+            PropertyIds.CREATED_BY, PropertyIds.LAST_MODIFICATION_DATE, PropertyIds.LAST_MODIFIED_BY,
+            PropertyIds.OBJECT_ID };
     public static final int ID_COLUMN = 9;
 
+    private static final String ASC = " ASC";
+    private static final String DESC = " DESC";
+
     private final ClientModel model;
 
     private Map<BaseTypeId, ImageIcon> icons;
@@ -83,7 +96,6 @@ public class FolderTable extends JTable implements FolderListener {
 
         setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
         setAutoResizeMode(AUTO_RESIZE_OFF);
-        setAutoCreateRowSorter(true);
 
         setDefaultRenderer(GregorianCalendar.class, new GregorianCalendarRenderer());
         setTransferHandler(new FolderTransferHandler());
@@ -113,11 +125,15 @@ public class FolderTable extends JTable implements FolderListener {
 
                 int row = getSelectedRow();
                 if (row > -1) {
-                    String id = getModel().getValueAt(getRowSorter().convertRowIndexToModel(row), ID_COLUMN).toString();
+                    Object id = getModel().getValueAt(convertRowIndexToModel(row), ID_COLUMN);
+                    if (id == null) {
+                        // not loaded yet
+                        return;
+                    }
 
                     try {
                         setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
-                        model.loadObject(id);
+                        model.loadObject(id.toString());
                     } catch (Exception ex) {
                         ClientHelper.showError(null, ex);
                         return;
@@ -150,6 +166,19 @@ public class FolderTable extends JTable implements FolderListener {
             }
         });
 
+        // sorting is done by the repository if it supports orderBy,
+        // clicking a column header toggles between ascending and descending
+        // order
+        getTableHeader().addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int column = getTableHeader().columnAtPoint(e.getPoint());
+                if (column > -1) {
+                    sortBy(convertColumnIndexToModel(column));
+                }
+            }
+        });
+
         addKeyListener(new KeyListener() {
             public void keyTyped(KeyEvent e) {
             }
@@ -180,19 +209,72 @@ public class FolderTable extends JTable implements FolderListener {
     }
 
     public void folderLoaded(final ClientModelEvent event) {
+        final FolderChildren children = event.getClientModel().getCurrentChildren();
+        final boolean clientSideSorting = !event.getClientModel().supportsOrderBy();
+
         SwingUtilities.invokeLater(new Runnable() {
             public void run() {
-                event.getClientModel().getCurrentChildren();
-                ((FolderTableModel) getModel()).fireTableDataChanged();
+                ((FolderTableModel) getModel()).setChildren(children);
+                setClientSideSorting(clientSideSorting);
+                updateHeaders(children.getOrderBy());
             }
         });
     }
 
+    /**
+     * Repositories without orderBy support are sorted by a row sorter. It
+     * reads all rows and sorts again whenever a page arrives.
+     */
+    private void setClientSideSorting(boolean clientSideSorting) {
+        if (!clientSideSorting) {
+            setRowSorter(null);
+        } else if (getRowSorter() == null) {
+            TableRowSorter<TableModel> sorter = new TableRowSorter<TableModel>(getModel());
+            sorter.setSortsOnUpdates(true);
+            setRowSorter(sorter);
+        }
+    }
+
+    private void sortBy(int column) {
+        String property = COLUMN_PROPERTIES[column];
+        if (property == null || getRowSorter() != null) {
+            return;
+        }
+
+        FolderChildren children = ((FolderTableModel) getModel()).getChildren();
+        String orderBy = (property + ASC).equals(children.getOrderBy()) ? property + DESC : property + ASC;
+
+        clearSelection();
+        children.setOrderBy(orderBy);
+        updateHeaders(orderBy);
+    }
+
+    private void updateHeaders(String orderBy) {
+        for (int i = 0; i < COLUMN_NAMES.length; i++) {
+            String name = COLUMN_NAMES[i];
+            if (COLUMN_PROPERTIES[i] != null && orderBy != null) {
+                if (orderBy.equals(COLUMN_PROPERTIES[i] + ASC)) {
+                    name = name + " \u25B2";
+                } else if (orderBy.equals(COLUMN_PROPERTIES[i] + DESC)) {
+                    name = name + " \u25BC";
+                }
+            }
+
+            getColumnModel().getColumn(convertColumnIndexToView(i)).setHeaderValue(name);
+        }
+
+        getTableHeader().repaint();
+    }
+
     private void doAction(boolean alternate) {
         int row = getSelectedRow();
-        if ((row > -1) && (row < model.getCurrentChildren().size())) {
-            String id = getModel().getValueAt(getRowSorter().convertRowIndexToModel(row), ID_COLUMN).toString();
-            CmisObject object = model.getFromCurrentChildren(id);
+        if ((row > -1) && (row < getModel().getRowCount())) {
+            Object id = getModel().getValueAt(convertRowIndexToModel(row), ID_COLUMN);
+            if (id == null) {
+                return;
+            }
+
+            CmisObject object = model.getFromCurrentChildren(id.toString());
 
             if (object instanceof Document) {
                 if (alternate) {
@@ -214,10 +296,60 @@ public class FolderTable extends JTable implements FolderListener {
         }
     }
 
-    class FolderTableModel extends AbstractTableModel {
+    class FolderTableModel extends AbstractTableModel implements ChangeListener {
 
         private static final long serialVersionUID = 1L;
 
+        private FolderChildren children = new FolderChildren();
+        private int rowCount = 0;
+
+        public FolderChildren getChildren() {
+            return children;
+        }
+
+        /**
+         * Switches to the children of another folder. Must be called in the
+         * event dispatch thread.
+         */
+        public void setChildren(FolderChildren newChildren) {
+            children.removeChangeListener(this);
+
+            children = newChildren;
+            rowCount = children.size();
+            children.addChangeListener(this);
+
+            fireTableDataChanged();
+        }
+
+        /**
+         * Called by the folder children when a page has arrived.
+         */
+        public void stateChanged(final ChangeEvent e) {
+            SwingUtilities.invokeLater(new Runnable() {
+                public void run() {
+                    if (e.getSource() != children) {
+                        // a page of a folder that isn't shown anymore
+                        return;
+                    }
+
+                    // only report what has changed to keep the selection
+                    int oldRowCount = rowCount;
+                    rowCount = children.size();
+
+                    if (rowCount > oldRowCount) {
+                        fireTableRowsInserted(oldRowCount, rowCount - 1);
+                    } else if (rowCount < oldRowCount) {
+                        fireTableRowsDeleted(rowCount, oldRowCount - 1);
+                    }
+
+                    int updatedRowCount = Math.min(oldRowCount, rowCount);
+                    if (updatedRowCount > 0) {
+                        fireTableRowsUpdated(0, updatedRowCount - 1);
+                    }
+                }
+            });
+        }
+
         public String getColumnName(int columnIndex) {
             return COLUMN_NAMES[columnIndex];
         }
@@ -227,11 +359,15 @@ public class FolderTable extends JTable implements FolderListener {
         }
 
         public int getRowCount() {
-            return model.getCurrentChildren().size();
+            return rowCount;
         }
 
         public Object getValueAt(int rowIndex, int columnIndex) {
-            CmisObject obj = model.getCurrentChildren().get(rowIndex);
+            CmisObject obj = children.get(rowIndex);
+            if (obj == null) {
+                // the page is being fetched
+                return columnIndex == 1 ? "..." : null;
+            }
 
             switch (columnIndex) {
             case 0:
@@ -354,9 +490,13 @@ public class FolderTable extends JTable implements FolderListener {
         @Override
         protected Transferable createTransferable(JComponent c) {
             int row = getSelectedRow();
-            if ((row > -1) && (row < model.getCurrentChildren().size())) {
-                String id = getValueAt(row, ID_COLUMN).toString();
-                CmisObject object = model.getFromCurrentChildren(id);
+            if ((row > -1) && (row < getModel().getRowCount())) {
+                Object id = getValueAt(row, ID_COLUMN);
+                if (id == null) {
+                    return null;
+                }
+
+                CmisObject object = model.getFromCurrentChildren(id.toString());
 
                 if (object instanceof Document) {
                     Document doc = (Document) object;
@@ -29,6 +29,9 @@ import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 
 import javax.swing.event.EventListenerList;
 
@@ -49,6 +52,7 @@ import org.apache.chemistry.opencmis.commons.data.RepositoryCapabilities;
 import org.apache.chemistry.opencmis.commons.data.RepositoryInfo;
 import org.apache.chemistry.opencmis.commons.enums.BaseTypeId;
 import org.apache.chemistry.opencmis.commons.enums.CapabilityChanges;
+import org.apache.chemistry.opencmis.commons.enums.CapabilityOrderBy;
 import org.apache.chemistry.opencmis.commons.enums.CapabilityQuery;
 import org.apache.chemistry.opencmis.commons.enums.IncludeRelationships;
 import org.apache.chemistry.opencmis.commons.enums.VersioningState;
@@ -65,11 +69,20 @@ public class ClientModel {
     private ClientSession clientSession;
 
     private Folder currentFolder = null;
-    private List<CmisObject> currentChildren = Collections.emptyList();
+    private FolderChildren currentChildren = new FolderChildren();
     private CmisObject currentObject = null;
 
     private final EventListenerList listenerList = new EventListenerList();
 
+    // fetches folder pages in the background
+    private final ExecutorService folderExecutor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "Workbench folder loader");
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+
     public ClientModel() {
     }
 
@@ -136,6 +149,19 @@ public class ClientModel {
         }
     }
 
+    public synchronized boolean supportsOrderBy() {
+        try {
+            RepositoryCapabilities cap = getRepositoryInfo().getCapabilities();
+            if (cap == null || cap.getOrderByCapability() == null) {
+                return true;
+            }
+
+            return cap.getOrderByCapability() != CapabilityOrderBy.NONE;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
     public synchronized boolean supportsItems() {
         for (ObjectType type : clientSession.getSession().getTypeChildren(null, false)) {
             if (type.getBaseTypeId() == BaseTypeId.CMIS_ITEM) {
@@ -176,27 +202,34 @@ public class ClientModel {
                     if (parents != null && parents.size() > 0) {
                         folderObject = parents.get(0);
                     } else {
-                        setCurrentFolder(null, new ArrayList<CmisObject>(0));
+                        setCurrentFolder(null, new FolderChildren());
                         return selectedObject;
                     }
                 } else {
-                    setCurrentFolder(null, new ArrayList<CmisObject>(0));
+                    setCurrentFolder(null, new FolderChildren());
                     return selectedObject;
                 }
             }
 
-            List<CmisObject> children = new ArrayList<CmisObject>();
-            ItemIterable<CmisObject> iter = ((Folder) folderObject).getChildren(clientSession
-                    .getFolderOperationContext());
-            for (CmisObject child : iter) {
-                children.add(child);
+            // only the first page is fetched here, the table fetches the
+            // other pages when they become visible
+            FolderChildren children;
+            if (supportsOrderBy()) {
+                children = new FolderChildren((Folder) folderObject, clientSession.getFolderOperationContext(),
+                        folderExecutor);
+            } else {
+                // the table sorts on the client and reads every row, keep
+                // all pages in memory
+                children = new FolderChildren((Folder) folderObject, clientSession.getFolderOperationContext(),
+                        folderExecutor, FolderChildren.DEFAULT_PAGE_SIZE, Integer.MAX_VALUE);
             }
+            children.loadFirstPage();
 
             setCurrentFolder((Folder) folderObject, children);
 
             return selectedObject;
         } catch (CmisBaseException ex) {
-            setCurrentFolder(null, new ArrayList<CmisObject>(0));
+            setCurrentFolder(null, new FolderChildren());
             throw ex;
         }
     }
@@ -403,25 +436,17 @@ public class ClientModel {
         return currentFolder;
     }
 
-    public synchronized List<CmisObject> getCurrentChildren() {
+    public synchronized FolderChildren getCurrentChildren() {
         return currentChildren;
     }
 
     public synchronized CmisObject getFromCurrentChildren(String id) {
-        if ((currentChildren == null) || (currentChildren.isEmpty())) {
-            return null;
-        }
-
-        for (CmisObject o : currentChildren) {
-            if (o.getId().equals(id)) {
-                return o;
-            }
-        }
-
-        return null;
+        return currentChildren.getById(id);
     }
 
-    private synchronized void setCurrentFolder(Folder folder, List<CmisObject> children) {
+    private synchronized void setCurrentFolder(Folder folder, FolderChildren children) {
+        currentChildren.close();
+
         currentFolder = folder;
         currentChildren = children;
 
@@ -0,0 +1,315 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.chemistry.opencmis.workbench.model;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
+import javax.swing.event.EventListenerList;
+
+import org.apache.chemistry.opencmis.client.api.CmisObject;
+import org.apache.chemistry.opencmis.client.api.Folder;
+import org.apache.chemistry.opencmis.client.api.ItemIterable;
+import org.apache.chemistry.opencmis.client.api.OperationContext;
+import org.apache.chemistry.opencmis.client.runtime.OperationContextImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The children of a folder, fetched page by page.
+ * <p>
+ * {@link #get(int)} returns <code>null</code> for children that haven't been
+ * fetched yet and schedules the page on the background executor. Change
+ * listeners are notified from the executor thread when a page has arrived.
+ * Only the most recently used pages are kept in memory. Sorting is done by
+ * the repository through the <code>orderBy</code> parameter of
+ * <code>getChildren</code>. Repositories that don't support
+ * <code>orderBy</code> are sorted on the client, which needs all pages in
+ * memory.
+ */
+public class FolderChildren {
+
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int DEFAULT_MAX_PAGES = 20;
+
+    private static final Logger LOG = LoggerFactory.getLogger(FolderChildren.class);
+
+    private final Folder folder;
+    private final OperationContext context;
+    private final Executor executor;
+    private final int pageSize;
+    private final int maxPages;
+
+    private final Map<Integer, List<CmisObject>> pages;
+    private final Set<Integer> pending = new HashSet<Integer>();
+    private final EventListenerList listenerList = new EventListenerList();
+
+    private String orderBy;
+    private long totalNumItems = -1;
+    private int knownSize = 0;
+    private boolean hasMoreItems = true;
+    private int lastRequestedPage = 0;
+    private int generation = 0;
+
+    /**
+     * Creates an empty list.
+     */
+    public FolderChildren() {
+        this(null, null, null, DEFAULT_PAGE_SIZE, DEFAULT_MAX_PAGES);
+        hasMoreItems = false;
+    }
+
+    public FolderChildren(Folder folder, OperationContext context, Executor executor) {
+        this(folder, context, executor, DEFAULT_PAGE_SIZE, DEFAULT_MAX_PAGES);
+    }
+
+    public FolderChildren(Folder folder, OperationContext context, Executor executor, int pageSize,
+            final int maxPages) {
+        if (pageSize < 1 || maxPages < 1) {
+            throw new IllegalArgumentException("Page size and number of pages must be positive!");
+        }
+
+        this.folder = folder;
+        this.context = context;
+        this.executor = executor;
+        this.pageSize = pageSize;
+        this.maxPages = maxPages;
+        this.orderBy = (context == null ? null : context.getOrderBy());
+
+        pages = new LinkedHashMap<Integer, List<CmisObject>>(Math.min(maxPages, 64) * 2, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, List<CmisObject>> eldest) {
+                return size() > maxPages;
+            }
+        };
+    }
+
+    public Folder getFolder() {
+        return folder;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    /**
+     * Fetches the first page in the calling thread.
+     */
+    public void loadFirstPage() {
+        int currentGeneration;
+        synchronized (this) {
+            if (folder == null) {
+                return;
+            }
+            currentGeneration = generation;
+            pending.add(0);
+        }
+
+        fetchPage(0, currentGeneration);
+    }
+
+    /**
+     * Returns the number of children. If the repository doesn't report the
+     * total number, this is the number of children seen so far plus one if
+     * there are more.
+     */
+    public synchronized int size() {
+        if (totalNumItems >= 0) {
+            return (int) Math.min(totalNumItems, Integer.MAX_VALUE);
+        }
+
+        return hasMoreItems ? knownSize + 1 : knownSize;
+    }
+
+    /**
+     * Returns a child or <code>null</code> if its page hasn't been fetched
+     * yet.
+     */
+    public CmisObject get(int index) {
+        if (index < 0) {
+            throw new IndexOutOfBoundsException("Index: " + index);
+        }
+
+        int page = index / pageSize;
+        int currentGeneration;
+
+        synchronized (this) {
+            List<CmisObject> children = pages.get(page);
+            if (children != null) {
+                int offset = index % pageSize;
+                return offset < children.size() ? children.get(offset) : null;
+            }
+
+            lastRequestedPage = page;
+
+            if (folder == null || executor == null || !pending.add(page)) {
+                return null;
+            }
+
+            currentGeneration = generation;
+        }
+
+        final int requestedPage = page;
+        final int requestedGeneration = currentGeneration;
+        executor.execute(new Runnable() {
+            public void run() {
+                try {
+                    fetchPage(requestedPage, requestedGeneration);
+                } catch (Exception e) {
+                    LOG.warn("Could not fetch page {} of folder {}: {}", new Object[] { requestedPage,
+                            folder.getId(), e.toString(), e });
+                }
+            }
+        });
+
+        return null;
+    }
+
+    /**
+     * Looks up a child in the pages that are in memory.
+     */
+    public synchronized CmisObject getById(String id) {
+        if (id == null) {
+            return null;
+        }
+
+        for (List<CmisObject> children : pages.values()) {
+            for (CmisObject child : children) {
+                if (id.equals(child.getId())) {
+                    return child;
+                }
+            }
+        }
+
+        return null;
+    }
+
+    public synchronized String getOrderBy() {
+        return orderBy;
+    }
+
+    /**
+     * Changes the sort order. All pages are dropped and fetched again in the
+     * new order.
+     *
+     * @param orderBy
+     *            a CMIS <code>orderBy</code> clause, for example
+     *            <code>cmis:name ASC</code>, or <code>null</code> for the
+     *            repository default
+     */
+    public void setOrderBy(String orderBy) {
+        synchronized (this) {
+            this.orderBy = orderBy;
+            discard();
+        }
+
+        fireStateChanged();
+    }
+
+    /**
+     * Drops all pages. Fetches that are still running are ignored.
+     */
+    public synchronized void close() {
+        discard();
+    }
+
+    public void addChangeListener(ChangeListener listener) {
+        listenerList.add(ChangeListener.class, listener);
+    }
+
+    public void removeChangeListener(ChangeListener listener) {
+        listenerList.remove(ChangeListener.class, listener);
+    }
+
+    private void discard() {
+        generation++;
+        pages.clear();
+        pending.clear();
+    }
+
+    private void fetchPage(int page, int requestedGeneration) {
+        OperationContext pageContext;
+        synchronized (this) {
+            // the folder has been closed or resorted, or the user has scrolled
+            // far away from this page in the meantime
+            if (requestedGeneration != generation || Math.abs(page - lastRequestedPage) > maxPages) {
+                pending.remove(page);
+                return;
+            }
+
+            pageContext = new OperationContextImpl(context);
+            pageContext.setMaxItemsPerPage(pageSize);
+            pageContext.setOrderBy(orderBy);
+        }
+
+        List<CmisObject> children = new ArrayList<CmisObject>(pageSize);
+        ItemIterable<CmisObject> iter;
+        try {
+            iter = folder.getChildren(pageContext).skipTo((long) page * pageSize).getPage(pageSize);
+            for (CmisObject child : iter) {
+                children.add(child);
+            }
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                pending.remove(page);
+            }
+            throw e;
+        }
+
+        long total = iter.getTotalNumItems();
+        boolean more = iter.getHasMoreItems();
+
+        synchronized (this) {
+            pending.remove(page);
+            if (requestedGeneration != generation) {
+                return;
+            }
+
+            pages.put(page, children);
+
+            totalNumItems = total;
+            int end = page * pageSize + children.size();
+            if (!more) {
+                knownSize = end;
+                hasMoreItems = false;
+            } else if (end > knownSize) {
+                knownSize = end;
+                hasMoreItems = true;
+            }
+        }
+
+        fireStateChanged();
+    }
+
+    private void fireStateChanged() {
+        ChangeEvent event = new ChangeEvent(this);
+        for (ChangeListener listener : listenerList.getListeners(ChangeListener.class)) {
+            listener.stateChanged(event);
+        }
+    }
+}
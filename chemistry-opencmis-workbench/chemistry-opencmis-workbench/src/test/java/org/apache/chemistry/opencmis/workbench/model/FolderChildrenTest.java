@@ -0,0 +1,276 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.chemistry.opencmis.workbench.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
+
+import org.apache.chemistry.opencmis.client.api.CmisObject;
+import org.apache.chemistry.opencmis.client.api.Folder;
+import org.apache.chemistry.opencmis.client.api.OperationContext;
+import org.apache.chemistry.opencmis.client.runtime.OperationContextImpl;
+import org.apache.chemistry.opencmis.client.runtime.util.AbstractPageFetcher;
+import org.apache.chemistry.opencmis.client.runtime.util.CollectionIterable;
+import org.junit.Test;
+
+public class FolderChildrenTest {
+
+    @Test
+    public void testPaging() {
+        TestFolder folder = new TestFolder(250, true);
+        QueueExecutor executor = new QueueExecutor();
+        CountingListener listener = new CountingListener();
+
+        FolderChildren children = new FolderChildren(folder.proxy, new OperationContextImpl(), executor, 100, 20);
+        children.addChangeListener(listener);
+        children.loadFirstPage();
+
+        assertEquals(250, children.size());
+        assertEquals("child0", children.get(0).getId());
+        assertEquals("child99", children.get(99).getId());
+        assertEquals(1, folder.fetches);
+        assertEquals(1, listener.count);
+
+        // the second page is fetched in the background, once
+        assertNull(children.get(150));
+        assertNull(children.get(160));
+        assertEquals(1, executor.tasks.size());
+
+        executor.runAll();
+        assertEquals("child150", children.get(150).getId());
+        assertEquals("child199", children.get(199).getId());
+        assertEquals(2, folder.fetches);
+        assertEquals(2, listener.count);
+        assertEquals("child42", children.getById("child42").getId());
+    }
+
+    @Test
+    public void testUnknownTotal() {
+        TestFolder folder = new TestFolder(150, false);
+        QueueExecutor executor = new QueueExecutor();
+
+        FolderChildren children = new FolderChildren(folder.proxy, new OperationContextImpl(), executor, 100, 20);
+        children.loadFirstPage();
+
+        // the table grows as pages come in
+        assertEquals(101, children.size());
+
+        assertNull(children.get(100));
+        executor.runAll();
+        assertEquals(150, children.size());
+        assertEquals("child149", children.get(149).getId());
+    }
+
+    @Test
+    public void testEviction() {
+        TestFolder folder = new TestFolder(30, true);
+        QueueExecutor executor = new QueueExecutor();
+
+        FolderChildren children = new FolderChildren(folder.proxy, new OperationContextImpl(), executor, 10, 2);
+        children.loadFirstPage();
+
+        children.get(10);
+        executor.runAll();
+        children.get(20);
+        executor.runAll();
+        assertEquals(3, folder.fetches);
+
+        // the first page has been dropped and is fetched again
+        assertNull(children.getById("child0"));
+        assertNull(children.get(0));
+        executor.runAll();
+        assertEquals("child0", children.get(0).getId());
+        assertEquals(4, folder.fetches);
+    }
+
+    @Test
+    public void testKeepAllPages() {
+        TestFolder folder = new TestFolder(100, true);
+        QueueExecutor executor = new QueueExecutor();
+
+        // used for client side sorting
+        FolderChildren children = new FolderChildren(folder.proxy, new OperationContextImpl(), executor, 10,
+                Integer.MAX_VALUE);
+        children.loadFirstPage();
+
+        for (int i = 0; i < 100; i++) {
+            children.get(i);
+        }
+        executor.runAll();
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals("child" + i, children.get(i).getId());
+        }
+        assertEquals(10, folder.fetches);
+    }
+
+    @Test
+    public void testOrderBy() {
+        TestFolder folder = new TestFolder(50, true);
+        QueueExecutor executor = new QueueExecutor();
+        CountingListener listener = new CountingListener();
+
+        FolderChildren children = new FolderChildren(folder.proxy, new OperationContextImpl(), executor, 100, 20);
+        children.addChangeListener(listener);
+        children.loadFirstPage();
+        assertNull(folder.lastOrderBy);
+
+        children.setOrderBy("cmis:name DESC");
+        assertEquals("cmis:name DESC", children.getOrderBy());
+        assertEquals(2, listener.count);
+
+        // all pages are fetched again in the new order
+        assertNull(children.get(0));
+        executor.runAll();
+        assertNotNull(children.get(0));
+        assertEquals("cmis:name DESC", folder.lastOrderBy);
+        assertEquals(2, folder.fetches);
+    }
+
+    @Test
+    public void testClose() {
+        TestFolder folder = new TestFolder(250, true);
+        QueueExecutor executor = new QueueExecutor();
+        CountingListener listener = new CountingListener();
+
+        FolderChildren children = new FolderChildren(folder.proxy, new OperationContextImpl(), executor, 100, 20);
+        children.addChangeListener(listener);
+        children.loadFirstPage();
+
+        assertNull(children.get(100));
+        children.close();
+
+        // fetches that were scheduled before the folder was closed are
+        // skipped
+        executor.runAll();
+        assertEquals(1, folder.fetches);
+        assertEquals(1, listener.count);
+        assertNull(children.getById("child0"));
+    }
+
+    @Test
+    public void testEmpty() {
+        FolderChildren children = new FolderChildren();
+        children.loadFirstPage();
+
+        assertEquals(0, children.size());
+        assertNull(children.get(0));
+    }
+
+    /**
+     * A folder with numbered children.
+     */
+    private static class TestFolder implements InvocationHandler {
+
+        private final int childCount;
+        private final boolean reportTotal;
+        private final Folder proxy;
+
+        private int fetches = 0;
+        private String lastOrderBy = null;
+
+        public TestFolder(int childCount, boolean reportTotal) {
+            this.childCount = childCount;
+            this.reportTotal = reportTotal;
+            this.proxy = (Folder) Proxy.newProxyInstance(Folder.class.getClassLoader(),
+                    new Class<?>[] { Folder.class }, this);
+        }
+
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            if (method.getName().equals("getId")) {
+                return "folder";
+            }
+
+            if (method.getName().equals("getChildren") && args != null && args.length == 1) {
+                final OperationContext context = (OperationContext) args[0];
+                return new CollectionIterable<CmisObject>(new AbstractPageFetcher<CmisObject>(
+                        context.getMaxItemsPerPage()) {
+                    @Override
+                    protected Page<CmisObject> fetchPage(long skipCount) {
+                        fetches++;
+                        lastOrderBy = context.getOrderBy();
+
+                        List<CmisObject> page = new ArrayList<CmisObject>();
+                        for (long i = skipCount; i < Math.min(skipCount + maxNumItems, childCount); i++) {
+                            page.add(createChild("child" + i));
+                        }
+
+                        boolean hasMore = skipCount + page.size() < childCount;
+                        return new Page<CmisObject>(page, reportTotal ? childCount : -1, hasMore);
+                    }
+                });
+            }
+
+            throw new UnsupportedOperationException(method.getName());
+        }
+
+        private static CmisObject createChild(final String id) {
+            return (CmisObject) Proxy.newProxyInstance(CmisObject.class.getClassLoader(),
+                    new Class<?>[] { CmisObject.class }, new InvocationHandler() {
+                        public Object invoke(Object proxy, Method method, Object[] args) {
+                            if (method.getName().equals("getId")) {
+                                return id;
+                            }
+
+                            throw new UnsupportedOperationException(method.getName());
+                        }
+                    });
+        }
+    }
+
+    /**
+     * Runs the background fetches when the test asks for it.
+     */
+    private static class QueueExecutor implements Executor {
+
+        private final List<Runnable> tasks = new ArrayList<Runnable>();
+
+        public void execute(Runnable command) {
+            tasks.add(command);
+        }
+
+        public void runAll() {
+            List<Runnable> current = new ArrayList<Runnable>(tasks);
+            tasks.clear();
+            for (Runnable task : current) {
+                task.run();
+            }
+        }
+    }
+
+    private static class CountingListener implements ChangeListener {
+
+        private int count = 0;
+
+        public void stateChanged(ChangeEvent e) {
+            count++;
+        }
+    }
+}